@@ -40,8 +40,6 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -49,6 +47,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings("UtilityClass")
 public final class ApiNgRescriptOperations {
@@ -89,21 +89,21 @@ public final class ApiNgRescriptOperations {
     @NotNull
     public static HashSet<CurrentOrderSummary> listCurrentOrders(final Set<String> betIds, final Set<String> marketIds, final OrderProjection orderProjection, final TimeRange placedDateRange, final OrderBy orderBy, final SortDir sortDir,
                                                                  final int fromRecord, final int recordCount, final boolean includeItemDescription, final RescriptResponseHandler rescriptResponseHandler,
-                                                                 @NotNull final Method sendPostRequestRescriptMethod) {
+                                                                 @NotNull final RescriptTransport rescriptTransport) {
         final HashSet<CurrentOrderSummary> currentOrderSummarySet = new HashSet<>(16, 0.75f); // empty in the beginning; its size will be used in the loop
         boolean moreAvailable;
         int counterWhile = 0;
         do {
             final int localFromRecord = fromRecord + currentOrderSummarySet.size();
             final CurrentOrderSummaryReport currentOrderSummaryReport =
-                    listCurrentOrdersReport(betIds, marketIds, orderProjection, placedDateRange, orderBy, sortDir, localFromRecord, recordCount, includeItemDescription, rescriptResponseHandler, sendPostRequestRescriptMethod);
+                    listCurrentOrdersReport(betIds, marketIds, orderProjection, placedDateRange, orderBy, sortDir, localFromRecord, recordCount, includeItemDescription, rescriptResponseHandler, rescriptTransport);
 
             if (currentOrderSummaryReport != null) {
                 final List<CurrentOrderSummary> currentOrderSummaryList = currentOrderSummaryReport.getCurrentOrders();
                 if (currentOrderSummaryList != null) {
                     currentOrderSummarySet.addAll(currentOrderSummaryList);
                 } else {
-                    logger.error("null currentOrderSummaryList in listCurrentOrders for: {}", Generic.objectToString(currentOrderSummaryReport));
+                    logger.error("null currentOrderSummaryList in listCurrentOrders for: {}", Generic.lazyObjectToString(currentOrderSummaryReport));
                 }
                 moreAvailable = currentOrderSummaryReport.getMoreAvailable();
             } else {
@@ -124,7 +124,7 @@ public final class ApiNgRescriptOperations {
 
     private static CurrentOrderSummaryReport listCurrentOrdersReport(final Set<String> betIds, final Set<String> marketIds, final OrderProjection orderProjection, final TimeRange placedDateRange, final OrderBy orderBy, final SortDir sortDir,
                                                                      final int fromRecord, final int recordCount, final boolean includeItemDescription, final RescriptResponseHandler rescriptResponseHandler,
-                                                                     @NotNull final Method sendPostRequestRescriptMethod) {
+                                                                     @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(16, 0.75f);
         paramsHashMap.put(BET_IDS, betIds);
         paramsHashMap.put(MARKET_IDS, marketIds);
@@ -135,7 +135,7 @@ public final class ApiNgRescriptOperations {
         paramsHashMap.put(FROM_RECORD, fromRecord);
         paramsHashMap.put(RECORD_COUNT, recordCount);
         paramsHashMap.put(INCLUDE_ITEM_DESCRIPTION, includeItemDescription);
-        final String responseString = makeRequest(ApiNgOperation.LISTCURRENTORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTCURRENTORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 200)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -146,21 +146,21 @@ public final class ApiNgRescriptOperations {
     @NotNull
     public static HashSet<ClearedOrderSummary> listClearedOrders(final BetStatus betStatus, final Set<String> eventTypeIds, final Set<String> eventIds, final Set<String> marketIds, final Set<RunnerId> runnerIds, final Set<String> betIds, final Side side,
                                                                  final TimeRange settledDateRange, final GroupBy groupBy, final boolean includeItemDescription, final int fromRecord, final int recordCount,
-                                                                 final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+                                                                 final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final HashSet<ClearedOrderSummary> clearedOrderSummarySet = new HashSet<>(16, 0.75f); // empty in the beginning; its size will be used in the loop
         boolean moreAvailable;
         int counterWhile = 0;
         do {
             final int localFromRecord = fromRecord + clearedOrderSummarySet.size();
             final ClearedOrderSummaryReport clearedOrderSummaryReport =
-                    listClearedOrdersReport(betStatus, eventTypeIds, eventIds, marketIds, runnerIds, betIds, side, settledDateRange, groupBy, includeItemDescription, localFromRecord, recordCount, rescriptResponseHandler, sendPostRequestRescriptMethod);
+                    listClearedOrdersReport(betStatus, eventTypeIds, eventIds, marketIds, runnerIds, betIds, side, settledDateRange, groupBy, includeItemDescription, localFromRecord, recordCount, rescriptResponseHandler, rescriptTransport);
 
             if (clearedOrderSummaryReport != null) {
                 final List<ClearedOrderSummary> clearedOrderSummaryList = clearedOrderSummaryReport.getClearedOrders();
                 if (clearedOrderSummaryList != null) {
                     clearedOrderSummarySet.addAll(clearedOrderSummaryList);
                 } else {
-                    logger.error("null clearedOrderSummaryList in listCurrentOrders for: {}", Generic.objectToString(clearedOrderSummaryReport));
+                    logger.error("null clearedOrderSummaryList in listCurrentOrders for: {}", Generic.lazyObjectToString(clearedOrderSummaryReport));
                 }
                 moreAvailable = clearedOrderSummaryReport.getMoreAvailable();
             } else {
@@ -181,7 +181,7 @@ public final class ApiNgRescriptOperations {
 
     private static ClearedOrderSummaryReport listClearedOrdersReport(final BetStatus betStatus, final Set<String> eventTypeIds, final Set<String> eventIds, final Set<String> marketIds, final Set<RunnerId> runnerIds, final Set<String> betIds,
                                                                      final Side side, final TimeRange settledDateRange, final GroupBy groupBy, final boolean includeItemDescription, final int fromRecord, final int recordCount,
-                                                                     final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+                                                                     final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(16, 0.75f);
         paramsHashMap.put(BET_STATUS, betStatus);
         paramsHashMap.put(EVENT_TYPE_IDS, eventTypeIds);
@@ -196,7 +196,7 @@ public final class ApiNgRescriptOperations {
         // paramsHashMap.put(LOCALE, localeString);
         paramsHashMap.put(FROM_RECORD, fromRecord);
         paramsHashMap.put(RECORD_COUNT, recordCount);
-        final String responseString = makeRequest(ApiNgOperation.LISTCLEAREDORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTCLEAREDORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 201)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -204,10 +204,10 @@ public final class ApiNgRescriptOperations {
         return JsonConverter.convertFromJson(responseString, ClearedOrderSummaryReport.class);
     }
 
-    public static List<MarketTypeResult> listMarketTypes(@NotNull final MarketFilter marketFilter, final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+    public static List<MarketTypeResult> listMarketTypes(@NotNull final MarketFilter marketFilter, final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(4, 0.75f);
         paramsHashMap.put(FILTER, marketFilter);
-        final String responseString = makeRequest(ApiNgOperation.LISTMARKETTYPES.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTMARKETTYPES.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 114)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -216,10 +216,10 @@ public final class ApiNgRescriptOperations {
         }.getType());
     }
 
-    public static List<EventTypeResult> listEventTypes(@NotNull final MarketFilter marketFilter, final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+    public static List<EventTypeResult> listEventTypes(@NotNull final MarketFilter marketFilter, final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(4, 0.75f);
         paramsHashMap.put(FILTER, marketFilter);
-        final String responseString = makeRequest(ApiNgOperation.LISTEVENTTYPES.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTEVENTTYPES.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 115)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -229,7 +229,7 @@ public final class ApiNgRescriptOperations {
     }
 
     public static List<MarketBook> listMarketBook(final List<String> marketIdsList, final PriceProjection priceProjection, final OrderProjection orderProjection, final MatchProjection matchProjection, final String currencyCodeString,
-                                                  final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+                                                  final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(8, 0.75f);
         // paramsHashMap.put(LOCALE, localeString);
         paramsHashMap.put(MARKET_IDS, marketIdsList);
@@ -237,7 +237,7 @@ public final class ApiNgRescriptOperations {
         paramsHashMap.put(ORDER_PROJECTION, orderProjection);
         paramsHashMap.put(MATCH_PROJECTION, matchProjection);
         paramsHashMap.put(CURRENCY_CODE, currencyCodeString);
-        final String responseString = makeRequest(ApiNgOperation.LISTMARKETBOOK.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTMARKETBOOK.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 116)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -246,12 +246,12 @@ public final class ApiNgRescriptOperations {
         }.getType());
     }
 
-    public static List<EventResult> listEvents(@NotNull final MarketFilter marketFilter, final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+    public static List<EventResult> listEvents(@NotNull final MarketFilter marketFilter, final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(4, 0.75f);
         // paramsHashMap.put(LOCALE, localeString);
         paramsHashMap.put(FILTER, marketFilter); // mandatory
 
-        final String responseString = makeRequest(ApiNgOperation.LISTEVENTS.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTEVENTS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 117)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -261,7 +261,7 @@ public final class ApiNgRescriptOperations {
     }
 
     public static List<MarketCatalogue> listMarketCatalogue(@NotNull final MarketFilter marketFilter, final Set<MarketProjection> marketProjectionsSet, final MarketSort marketSort, final int maxResults,
-                                                            final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+                                                            final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(8, 0.75f);
         // paramsHashMap.put(LOCALE, localeString);
         paramsHashMap.put(FILTER, marketFilter);
@@ -272,7 +272,7 @@ public final class ApiNgRescriptOperations {
         if (marketProjectionsSet != null) {
             paramsHashMap.put(MARKET_PROJECTION, marketProjectionsSet);
         }
-        final String responseString = makeRequest(ApiNgOperation.LISTMARKETCATALOGUE.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
+        final String responseString = makeRequest(ApiNgOperation.LISTMARKETCATALOGUE.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
 //        if (Statics.debugLevel.check(3, 118)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -282,7 +282,25 @@ public final class ApiNgRescriptOperations {
     }
 
     public static PlaceExecutionReport placeOrders(final String marketIdString, final Collection<PlaceInstruction> placeInstructionsList, final String customerRefString, final RescriptResponseHandler rescriptResponseHandler,
-                                                   @NotNull final BetFrequencyLimit speedLimit, @NotNull final Method sendPostRequestRescriptMethod) {
+                                                   @NotNull final BetFrequencyLimit speedLimit, @NotNull final RescriptTransport rescriptTransport) {
+        final Map<String, Object> paramsHashMap = getPlaceOrdersParams(marketIdString, placeInstructionsList, customerRefString, speedLimit);
+        final String responseString = makeRequest(ApiNgOperation.PLACEORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
+//        if (Statics.debugLevel.check(3, 119)) {
+//            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
+//        }
+
+        return JsonConverter.convertFromJson(responseString, PlaceExecutionReport.class);
+    }
+
+    @NotNull
+    public static CompletableFuture<PlaceExecutionReport> placeOrdersAsync(final String marketIdString, final Collection<PlaceInstruction> placeInstructionsList, final String customerRefString, final RescriptResponseHandler rescriptResponseHandler,
+                                                                           @NotNull final BetFrequencyLimit speedLimit, @NotNull final RescriptTransport rescriptTransport, @NotNull final Executor executor) { // the caller isn't blocked, so several requests can be in flight
+        final Map<String, Object> paramsHashMap = getPlaceOrdersParams(marketIdString, placeInstructionsList, customerRefString, speedLimit);
+        return makeRequestAsync(ApiNgOperation.PLACEORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport, executor).thenApply(responseString -> JsonConverter.convertFromJson(responseString, PlaceExecutionReport.class));
+    }
+
+    @NotNull
+    private static Map<String, Object> getPlaceOrdersParams(final String marketIdString, final Collection<PlaceInstruction> placeInstructionsList, final String customerRefString, @NotNull final BetFrequencyLimit speedLimit) {
         final Map<String, Object> paramsHashMap = new HashMap<>(8, 0.75f);
         // paramsHashMap.put(LOCALE, localeString);
         paramsHashMap.put(MARKET_ID, marketIdString);
@@ -294,20 +312,33 @@ public final class ApiNgRescriptOperations {
         } else {
             logger.error("null placeInstructionsList in placeOrders for: {}", marketIdString);
         }
-        final String responseString = makeRequest(ApiNgOperation.PLACEORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
-//        if (Statics.debugLevel.check(3, 119)) {
+        return paramsHashMap;
+    }
+
+    public static CancelExecutionReport cancelOrders(final String marketIdString, final List<CancelInstruction> cancelInstructionsList, final String customerRefString, final RescriptResponseHandler rescriptResponseHandler,
+                                                     @NotNull final RescriptTransport rescriptTransport) {
+        final Map<String, Object> paramsHashMap = getCancelOrdersParams(marketIdString, cancelInstructionsList, customerRefString);
+        final String responseString = makeRequest(ApiNgOperation.CANCELORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport);
+//        if (Statics.debugLevel.check(3, 120)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
 
-        return JsonConverter.convertFromJson(responseString, PlaceExecutionReport.class);
+        return JsonConverter.convertFromJson(responseString, CancelExecutionReport.class);
     }
 
-    public static CancelExecutionReport cancelOrders(final String marketIdString, final List<CancelInstruction> cancelInstructionsList, final String customerRefString, final RescriptResponseHandler rescriptResponseHandler,
-                                                     @NotNull final Method sendPostRequestRescriptMethod) {
+    @NotNull
+    public static CompletableFuture<CancelExecutionReport> cancelOrdersAsync(final String marketIdString, final List<CancelInstruction> cancelInstructionsList, final String customerRefString, final RescriptResponseHandler rescriptResponseHandler,
+                                                                             @NotNull final RescriptTransport rescriptTransport, @NotNull final Executor executor) { // the caller isn't blocked, so several requests can be in flight
+        final Map<String, Object> paramsHashMap = getCancelOrdersParams(marketIdString, cancelInstructionsList, customerRefString);
+        return makeRequestAsync(ApiNgOperation.CANCELORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, rescriptTransport, executor).thenApply(responseString -> JsonConverter.convertFromJson(responseString, CancelExecutionReport.class));
+    }
+
+    @NotNull
+    private static Map<String, Object> getCancelOrdersParams(final String marketIdString, final List<CancelInstruction> cancelInstructionsList, final String customerRefString) {
         if (marketIdString == null || cancelInstructionsList == null) {
-            logger.error("null marketIdString or cancelInstructionsList in cancelOrders for: {} {}", marketIdString, Generic.objectToString(cancelInstructionsList));
+            logger.error("null marketIdString or cancelInstructionsList in cancelOrders for: {} {}", marketIdString, Generic.lazyObjectToString(cancelInstructionsList));
         } else if (cancelInstructionsList.size() > 60) {
-            logger.error("too many {} instructions in cancelInstructionsList for: {} {}", cancelInstructionsList.size(), marketIdString, Generic.objectToString(cancelInstructionsList));
+            logger.error("too many {} instructions in cancelInstructionsList for: {} {}", cancelInstructionsList.size(), marketIdString, Generic.lazyObjectToString(cancelInstructionsList));
         }
 
         final Map<String, Object> paramsHashMap = new HashMap<>(8, 0.75f);
@@ -315,18 +346,13 @@ public final class ApiNgRescriptOperations {
         paramsHashMap.put(MARKET_ID, marketIdString);
         paramsHashMap.put(INSTRUCTIONS, cancelInstructionsList);
         paramsHashMap.put(CUSTOMER_REF, customerRefString);
-        final String responseString = makeRequest(ApiNgOperation.CANCELORDERS.getOperationName(), paramsHashMap, rescriptResponseHandler, sendPostRequestRescriptMethod);
-//        if (Statics.debugLevel.check(3, 120)) {
-//            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
-//        }
-
-        return JsonConverter.convertFromJson(responseString, CancelExecutionReport.class);
+        return paramsHashMap;
     }
 
-    public static AccountFundsResponse getAccountFunds(final RescriptAccountResponseHandler rescriptAccountResponseHandler, @NotNull final Method sendPostRequestAccountRescriptMethod) {
+    public static AccountFundsResponse getAccountFunds(final RescriptAccountResponseHandler rescriptAccountResponseHandler, @NotNull final RescriptAccountTransport rescriptAccountTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(2, 0.75f);
 
-        final String responseString = makeAccountRequest(ApiNgAccountOperation.GETACCOUNTFUNDS.getOperationName(), paramsHashMap, rescriptAccountResponseHandler, sendPostRequestAccountRescriptMethod);
+        final String responseString = makeAccountRequest(ApiNgAccountOperation.GETACCOUNTFUNDS.getOperationName(), paramsHashMap, rescriptAccountResponseHandler, rescriptAccountTransport);
 //        if (Statics.debugLevel.check(3, 121)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -334,10 +360,10 @@ public final class ApiNgRescriptOperations {
         return JsonConverter.convertFromJson(responseString, AccountFundsResponse.class);
     }
 
-    public static List<CurrencyRate> listCurrencyRates(final RescriptAccountResponseHandler rescriptAccountResponseHandler, @NotNull final Method sendPostRequestAccountRescriptMethod) {
+    public static List<CurrencyRate> listCurrencyRates(final RescriptAccountResponseHandler rescriptAccountResponseHandler, @NotNull final RescriptAccountTransport rescriptAccountTransport) {
         final Map<String, Object> paramsHashMap = new HashMap<>(2, 0.75f);
 
-        final String responseString = makeAccountRequest(ApiNgAccountOperation.LISTCURRENCYRATES.getOperationName(), paramsHashMap, rescriptAccountResponseHandler, sendPostRequestAccountRescriptMethod);
+        final String responseString = makeAccountRequest(ApiNgAccountOperation.LISTCURRENCYRATES.getOperationName(), paramsHashMap, rescriptAccountResponseHandler, rescriptAccountTransport);
 //        if (Statics.debugLevel.check(3, 121)) {
 //            logger.info("params: {} Response: {} timeStamp={}", Generic.objectToString(paramsHashMap, false, false), responseString, System.currentTimeMillis());
 //        }
@@ -346,7 +372,7 @@ public final class ApiNgRescriptOperations {
         }.getType());
     }
 
-    private static String makeRequest(final String operationString, @NotNull final Map<? super String, Object> paramsMap, final RescriptResponseHandler rescriptResponseHandler, @NotNull final Method sendPostRequestRescriptMethod) {
+    private static String makeRequest(final String operationString, @NotNull final Map<? super String, Object> paramsMap, final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport) {
         final String requestString;
         //Handling the Rescript request
         paramsMap.put("id", 1);
@@ -359,16 +385,34 @@ public final class ApiNgRescriptOperations {
         //We need to pass the "sendPostRequest" method a string in util format: requestString
         @Nullable String returnValue;
         try {
-            returnValue = (String) sendPostRequestRescriptMethod.invoke(null, requestString, operationString, rescriptResponseHandler);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            logger.error("exception in sendPostRequestRescriptMethod.invoke for {} {}", requestString, operationString, e);
+            returnValue = rescriptTransport.send(requestString, operationString, rescriptResponseHandler);
+        } catch (RuntimeException exception) { // a failing transport mustn't take the calling thread down
+            logger.error("exception in rescriptTransport.send for {} {}", requestString, operationString, exception);
             returnValue = null;
         }
         return returnValue;
     }
 
+    @NotNull
+    private static CompletableFuture<String> makeRequestAsync(final String operationString, @NotNull final Map<? super String, Object> paramsMap, final RescriptResponseHandler rescriptResponseHandler, @NotNull final RescriptTransport rescriptTransport,
+                                                              @NotNull final Executor executor) { // completes with null on error, like makeRequest
+        paramsMap.put("id", 1);
+        final String requestString = JsonConverter.convertToJson(paramsMap);
+
+        CompletableFuture<String> future;
+        try {
+            future = rescriptTransport.sendAsync(requestString, operationString, rescriptResponseHandler, executor);
+        } catch (RuntimeException exception) { // a failing transport mustn't take the calling thread down
+            future = CompletableFuture.failedFuture(exception);
+        }
+        return future.exceptionally(throwable -> {
+            logger.error("exception in rescriptTransport.sendAsync for {} {}", requestString, operationString, throwable);
+            return null;
+        });
+    }
+
     private static String makeAccountRequest(final String operationString, @NotNull final Map<? super String, Object> paramsMap, final RescriptAccountResponseHandler rescriptAccountResponseHandler,
-                                             @NotNull final Method sendPostRequestAccountRescriptMethod) {
+                                             @NotNull final RescriptAccountTransport rescriptAccountTransport) {
         final String requestString;
         //Handling the Rescript request
         paramsMap.put("id", 1);
@@ -381,9 +425,9 @@ public final class ApiNgRescriptOperations {
         //We need to pass the "sendPostRequest" method a string in util format: requestString
         @Nullable String returnValue;
         try {
-            returnValue = (String) sendPostRequestAccountRescriptMethod.invoke(null, requestString, operationString, rescriptAccountResponseHandler);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            logger.error("exception in sendPostRequestAccountRescriptMethod.invoke for {} {}", requestString, operationString, e);
+            returnValue = rescriptAccountTransport.send(requestString, operationString, rescriptAccountResponseHandler);
+        } catch (RuntimeException exception) { // a failing transport mustn't take the calling thread down
+            logger.error("exception in rescriptAccountTransport.send for {} {}", requestString, operationString, exception);
             returnValue = null;
         }
         return returnValue;
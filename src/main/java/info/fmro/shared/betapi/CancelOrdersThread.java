@@ -2,8 +2,10 @@ package info.fmro.shared.betapi;
 
 import info.fmro.shared.entities.CancelExecutionReport;
 import info.fmro.shared.entities.CancelInstruction;
+import info.fmro.shared.entities.CancelInstructionReport;
 import info.fmro.shared.enums.ExecutionReportStatus;
 import info.fmro.shared.enums.InstructionReportErrorCode;
+import info.fmro.shared.enums.InstructionReportStatus;
 import info.fmro.shared.objects.TemporaryOrder;
 import info.fmro.shared.utility.Generic;
 import org.jetbrains.annotations.Contract;
@@ -11,7 +13,6 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -22,30 +23,33 @@ public class CancelOrdersThread
     private final String marketId;
     @NotNull
     private final List<CancelInstruction> cancelInstructionsList;
-    @SuppressWarnings({"FieldCanBeLocal", "unused"})
     @NotNull
-    private final TemporaryOrder temporaryOrder;
+    private final List<TemporaryOrder> temporaryOrders; // same order as the instructions, one for each
     @NotNull
-    private final Method sendPostRequestRescriptMethod;
+    private final RescriptTransport rescriptTransport;
+
+    public CancelOrdersThread(final String marketId, @NotNull final List<CancelInstruction> cancelInstructionsList, @NotNull final TemporaryOrder temporaryOrder, @NotNull final RescriptTransport rescriptTransport) {
+        this(marketId, cancelInstructionsList, List.of(temporaryOrder), rescriptTransport);
+    }
 
     @Contract(pure = true)
-    public CancelOrdersThread(final String marketId, @NotNull final List<CancelInstruction> cancelInstructionsList, @NotNull final TemporaryOrder temporaryOrder, @NotNull final Method sendPostRequestRescriptMethod) {
+    public CancelOrdersThread(final String marketId, @NotNull final List<CancelInstruction> cancelInstructionsList, @NotNull final List<TemporaryOrder> temporaryOrders, @NotNull final RescriptTransport rescriptTransport) {
         this.marketId = marketId;
         this.cancelInstructionsList = new ArrayList<>(cancelInstructionsList);
-        this.temporaryOrder = temporaryOrder;
-        this.sendPostRequestRescriptMethod = sendPostRequestRescriptMethod;
+        this.temporaryOrders = new ArrayList<>(temporaryOrders);
+        this.rescriptTransport = rescriptTransport;
     }
 
     @Override
     public void run() {
         final boolean success;
-        if (this.marketId != null && !this.cancelInstructionsList.isEmpty() && this.cancelInstructionsList.size() <= 60) {
+        if (this.marketId != null && !this.cancelInstructionsList.isEmpty() && this.cancelInstructionsList.size() <= OrderBatcher.MAX_CANCEL_INSTRUCTIONS && this.cancelInstructionsList.size() == this.temporaryOrders.size()) {
             final RescriptResponseHandler rescriptResponseHandler = new RescriptResponseHandler();
-            final CancelExecutionReport cancelExecutionReport = ApiNgRescriptOperations.cancelOrders(this.marketId, this.cancelInstructionsList, null, rescriptResponseHandler, this.sendPostRequestRescriptMethod);
+            final CancelExecutionReport cancelExecutionReport = ApiNgRescriptOperations.cancelOrders(this.marketId, this.cancelInstructionsList, null, rescriptResponseHandler, this.rescriptTransport);
             if (cancelExecutionReport != null) {
                 final ExecutionReportStatus executionReportStatus = cancelExecutionReport.getStatus();
                 if (executionReportStatus == ExecutionReportStatus.SUCCESS) {
-                    logger.info("canceled orders: {} {} {} {} p:{}", this.temporaryOrder.getReasonId(), Generic.objectToString(cancelExecutionReport), this.temporaryOrder.getRunnerId(), this.temporaryOrder.getSide(), this.temporaryOrder.getPrice());
+                    logger.info("canceled orders: {} {}", this.marketId, Generic.lazyObjectToString(cancelExecutionReport));
 
 //                    if (Statics.safeBetModuleActivated) {
 //                        PlacedAmountsThread.shouldCheckAmounts.set(true);
@@ -55,19 +59,20 @@ public class CancelOrdersThread
                     success = true;
                 } else {
                     @NotNull final HashSet<InstructionReportErrorCode> instructionErrorCodes = cancelExecutionReport.getInstructionErrorCodes();
-                    if (instructionErrorCodes.size() == 1 && instructionErrorCodes.contains(InstructionReportErrorCode.BET_TAKEN_OR_LAPSED)) {
-                        logger.info("bet taken or lapsed in cancelOrders: {} {} {} {}", Generic.objectToString(cancelExecutionReport), this.marketId, Generic.objectToString(this.cancelInstructionsList), Generic.objectToString(this.temporaryOrder));
+                    if (instructionErrorCodes.size() <= 2 && instructionErrorCodes.contains(InstructionReportErrorCode.BET_TAKEN_OR_LAPSED) && (instructionErrorCodes.size() == 1 || instructionErrorCodes.contains(null))) {
+                        logger.info("bet taken or lapsed in cancelOrders: {} {} {}", Generic.lazyObjectToString(cancelExecutionReport), this.marketId, Generic.lazyObjectToString(this.cancelInstructionsList));
                     } else {
-                        logger.error("!!!no success in cancelOrders: {} {} {} {}", Generic.objectToString(cancelExecutionReport), this.marketId, Generic.objectToString(this.cancelInstructionsList), Generic.objectToString(this.temporaryOrder));
+                        logger.error("!!!no success in cancelOrders: {} {} {}", Generic.lazyObjectToString(cancelExecutionReport), this.marketId, Generic.lazyObjectToString(this.cancelInstructionsList));
                     }
                     success = false;
                 }
+                routeInstructionReports(cancelExecutionReport);
             } else {
-                logger.error("!!!failed to cancelOrders: {} {} {}", this.marketId, Generic.objectToString(this.cancelInstructionsList), Generic.objectToString(this.temporaryOrder));
+                logger.error("!!!failed to cancelOrders: {} {} {}", this.marketId, Generic.lazyObjectToString(this.cancelInstructionsList), Generic.lazyObjectToString(this.temporaryOrders));
                 success = false;
             }
         } else {
-            logger.error("STRANGE variables in CancelOrdersThread: {} {} {}", this.marketId, Generic.objectToString(this.cancelInstructionsList), Generic.objectToString(this.temporaryOrder));
+            logger.error("STRANGE variables in CancelOrdersThread: {} {} {}", this.marketId, Generic.lazyObjectToString(this.cancelInstructionsList), Generic.lazyObjectToString(this.temporaryOrders));
             success = false;
         }
 
@@ -76,4 +81,29 @@ public class CancelOrdersThread
 //            this.temporaryOrder.setExpirationTime(System.currentTimeMillis() + Generic.MINUTE_LENGTH_MILLISECONDS); // expiration is set by default now
         }
     }
+
+    int routeInstructionReports(@NotNull final CancelExecutionReport cancelExecutionReport) { // the instruction reports come in the order of the instructions; returns the number of orders canceled
+        int nCanceled = 0;
+        final List<CancelInstructionReport> cancelInstructionReports = cancelExecutionReport.getInstructionReports();
+        if (cancelInstructionReports != null && cancelInstructionReports.size() == this.temporaryOrders.size()) {
+            for (int i = 0; i < cancelInstructionReports.size(); i++) {
+                final CancelInstructionReport cancelInstructionReport = cancelInstructionReports.get(i);
+                final TemporaryOrder temporaryOrder = this.temporaryOrders.get(i);
+                if (cancelInstructionReport == null) {
+                    logger.error("null cancelInstructionReport in CancelOrdersThread: {} {}", this.marketId, Generic.lazyObjectToString(temporaryOrder));
+                } else if (cancelInstructionReport.getStatus() == InstructionReportStatus.SUCCESS) {
+                    logger.info("canceled order: {} {} {} {} p:{} sizeCancelled:{}", temporaryOrder.getReasonId(), temporaryOrder.getBetId(), temporaryOrder.getRunnerId(), temporaryOrder.getSide(), temporaryOrder.getPrice(),
+                                cancelInstructionReport.getSizeCancelled());
+                    nCanceled++;
+                } else if (cancelInstructionReport.getErrorCode() == InstructionReportErrorCode.BET_TAKEN_OR_LAPSED) {
+                    logger.info("bet taken or lapsed in cancelOrders: {} {}", this.marketId, Generic.lazyObjectToString(temporaryOrder));
+                } else {
+                    logger.error("order not canceled {} {} in CancelOrdersThread for: {} {}", cancelInstructionReport.getStatus(), cancelInstructionReport.getErrorCode(), this.marketId, Generic.lazyObjectToString(temporaryOrder));
+                }
+            }
+        } else {
+            logger.error("null or wrong size cancelInstructionReports in CancelOrdersThread: {} {} {}", this.marketId, Generic.lazyObjectToString(this.temporaryOrders), Generic.lazyObjectToString(cancelInstructionReports));
+        }
+        return nCanceled;
+    }
 }
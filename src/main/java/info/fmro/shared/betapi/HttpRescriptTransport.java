@@ -0,0 +1,141 @@
+package info.fmro.shared.betapi;
+
+import info.fmro.shared.objects.SharedStatics;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// transport over the jdk HttpClient: a single client per transport keeps its connections alive and pooled, and negotiates HTTP/2, where concurrent requests share one connection
+// the response is handed to the existing RescriptResponseHandler / RescriptAccountResponseHandler as an apache HttpResponse, so the api error handling stays in one place
+// the session token and the app key are read from SharedStatics for every request, as they can change while the program runs
+public class HttpRescriptTransport
+        implements RescriptTransport, RescriptAccountTransport {
+    private static final Logger logger = LoggerFactory.getLogger(HttpRescriptTransport.class);
+    public static final String DEFAULT_BETTING_ENDPOINT = "https://api.betfair.com/exchange/betting/rest/v1.0/", DEFAULT_ACCOUNT_ENDPOINT = "https://api.betfair.com/exchange/account/rest/v1.0/";
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10_000L;
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+    private final HttpClient httpClient;
+    private final String bettingEndpoint, accountEndpoint;
+    private final Duration timeout;
+
+    public HttpRescriptTransport() {
+        this(DEFAULT_BETTING_ENDPOINT, DEFAULT_ACCOUNT_ENDPOINT, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public HttpRescriptTransport(@NotNull final String bettingEndpoint, @NotNull final String accountEndpoint, final long timeoutMillis) { // the operation name and a "/" are appended to the endpoints
+        this.bettingEndpoint = bettingEndpoint;
+        this.accountEndpoint = accountEndpoint;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).connectTimeout(this.timeout).followRedirects(HttpClient.Redirect.NEVER).build();
+    }
+
+    @Nullable
+    @Override
+    public String send(final String requestString, final String operationString, final RescriptResponseHandler rescriptResponseHandler) {
+        return post(this.bettingEndpoint, requestString, operationString, rescriptResponseHandler);
+    }
+
+    @NotNull
+    @Override
+    public CompletableFuture<String> sendAsync(final String requestString, final String operationString, final RescriptResponseHandler rescriptResponseHandler, @NotNull final Executor executor) {
+        return postAsync(this.bettingEndpoint, requestString, operationString, rescriptResponseHandler, executor);
+    }
+
+    @Nullable
+    @Override
+    public String send(final String requestString, final String operationString, final RescriptAccountResponseHandler rescriptAccountResponseHandler) {
+        return post(this.accountEndpoint, requestString, operationString, rescriptAccountResponseHandler);
+    }
+
+    @NotNull
+    @Override
+    public CompletableFuture<String> sendAsync(final String requestString, final String operationString, final RescriptAccountResponseHandler rescriptAccountResponseHandler, @NotNull final Executor executor) {
+        return postAsync(this.accountEndpoint, requestString, operationString, rescriptAccountResponseHandler, executor);
+    }
+
+    @Nullable
+    private String post(@NotNull final String endpoint, final String requestString, final String operationString, @NotNull final ResponseHandler<String> responseHandler) {
+        @Nullable String returnValue;
+        try {
+            final HttpResponse<byte[]> httpResponse = this.httpClient.send(createRequest(endpoint, requestString, operationString), HttpResponse.BodyHandlers.ofByteArray());
+            returnValue = handleResponse(httpResponse, operationString, responseHandler);
+        } catch (IOException iOException) {
+            logger.error("iOException in HttpRescriptTransport.post for {} {}", requestString, operationString, iOException);
+            returnValue = null;
+        } catch (InterruptedException interruptedException) {
+            logger.error("interruptedException in HttpRescriptTransport.post for {} {}", requestString, operationString, interruptedException);
+            Thread.currentThread().interrupt();
+            returnValue = null;
+        }
+        return returnValue;
+    }
+
+    @NotNull
+    private CompletableFuture<String> postAsync(@NotNull final String endpoint, final String requestString, final String operationString, @NotNull final ResponseHandler<String> responseHandler, @NotNull final Executor executor) {
+        // the handlers can sleep on api errors, so they run on the given executor, not on the HttpClient threads
+        return this.httpClient.sendAsync(createRequest(endpoint, requestString, operationString), HttpResponse.BodyHandlers.ofByteArray())
+                              .thenApplyAsync(httpResponse -> handleResponse(httpResponse, operationString, responseHandler), executor);
+    }
+
+    @NotNull
+    private HttpRequest createRequest(@NotNull final String endpoint, final String requestString, final String operationString) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(endpoint + operationString + "/")).timeout(this.timeout).POST(HttpRequest.BodyPublishers.ofString(requestString))
+                                                       .header("Content-Type", "application/json").header("Accept", "application/json").header("Accept-Encoding", "gzip");
+        final String appKey = SharedStatics.appKey.get();
+        if (appKey != null) {
+            builder.header("X-Application", appKey);
+        } else { // the api will answer with NO_APP_KEY, which is handled by the response handler
+        }
+        final String sessionToken = SharedStatics.sessionTokenObject.getSessionToken();
+        if (sessionToken != null) {
+            builder.header("X-Authentication", sessionToken);
+        } else { // the api will answer with NO_SESSION, which is handled by the response handler
+        }
+        return builder.build();
+    }
+
+    @Nullable
+    private static String handleResponse(@NotNull final HttpResponse<byte[]> httpResponse, final String operationString, @NotNull final ResponseHandler<String> responseHandler) {
+        final int statusCode = httpResponse.statusCode();
+        final BasicHttpResponse basicHttpResponse = new BasicHttpResponse(new BasicStatusLine(httpResponse.version() == HttpClient.Version.HTTP_2 ? HTTP_2 : HttpVersion.HTTP_1_1, statusCode, getReason(statusCode)));
+        final ByteArrayEntity byteArrayEntity = new ByteArrayEntity(httpResponse.body());
+        httpResponse.headers().firstValue("Content-Type").ifPresent(byteArrayEntity::setContentType);
+        final boolean isGzip = httpResponse.headers().firstValue("Content-Encoding").map(encoding -> encoding.toLowerCase(Locale.ENGLISH).contains("gzip")).orElse(false);
+        basicHttpResponse.setEntity(isGzip ? new GzipDecompressingEntity(byteArrayEntity) : byteArrayEntity);
+
+        @Nullable String returnValue;
+        try {
+            returnValue = responseHandler.handleResponse(basicHttpResponse);
+        } catch (IOException iOException) {
+            logger.error("iOException in HttpRescriptTransport.handleResponse for {} {}", operationString, statusCode, iOException);
+            returnValue = null;
+        }
+        return returnValue;
+    }
+
+    @Nullable
+    @Contract(pure = true)
+    private static String getReason(final int statusCode) {
+        return EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ENGLISH);
+    }
+}
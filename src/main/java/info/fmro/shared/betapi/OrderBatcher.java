@@ -0,0 +1,177 @@
+package info.fmro.shared.betapi;
+
+import info.fmro.shared.entities.CancelInstruction;
+import info.fmro.shared.entities.PlaceInstruction;
+import info.fmro.shared.logic.BetFrequencyLimit;
+import info.fmro.shared.objects.TemporaryOrder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// collects the place and cancel instructions of each market and submits them together, in one placeOrders or cancelOrders request, up to the API's per request instruction cap
+// a batch is submitted after batchWindowMillis from its first instruction, or right away when it's full; with a 0 window, only the instructions that arrive before the submitting task runs are batched
+// the window is waited on a timer thread, which only hands the batch to the executor when it's due, so a waiting batch holds no executor thread and no TaskExecutor permit
+// batches are kept per market, transport and speed limit, as the request is sent with the batch's transport and counted against its speed limit
+// the instruction reports are routed back to each TemporaryOrder by PlaceOrdersThread and CancelOrdersThread
+public class OrderBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(OrderBatcher.class);
+    public static final int MAX_PLACE_INSTRUCTIONS = 200, MAX_CANCEL_INSTRUCTIONS = 60;
+    private final Executor placeExecutor, cancelExecutor;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "orderBatcher-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HashMap<BatchKey, Batch<PlaceInstruction>> placeBatches = new HashMap<>(4); // batch not submitted yet
+    private final HashMap<BatchKey, Batch<CancelInstruction>> cancelBatches = new HashMap<>(4);
+    private long batchWindowMillis;
+
+    private record BatchKey(@NotNull String marketId, @NotNull RescriptTransport rescriptTransport, @Nullable BetFrequencyLimit speedLimit) { // transport and speedLimit compared by identity, they don't override equals
+    }
+
+    private static final class Batch<T> {
+        private final List<T> instructions = new ArrayList<>(1);
+        private final List<TemporaryOrder> temporaryOrders = new ArrayList<>(1);
+    }
+
+    public OrderBatcher(@NotNull final Executor executor, final long batchWindowMillis) {
+        this(executor, executor, batchWindowMillis);
+    }
+
+    public OrderBatcher(@NotNull final Executor placeExecutor, @NotNull final Executor cancelExecutor, final long batchWindowMillis) {
+        this.placeExecutor = placeExecutor;
+        this.cancelExecutor = cancelExecutor;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    public synchronized long getBatchWindowMillis() {
+        return this.batchWindowMillis;
+    }
+
+    public synchronized void setBatchWindowMillis(final long batchWindowMillis) {
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    public synchronized void addPlaceInstruction(@NotNull final String marketId, @NotNull final PlaceInstruction placeInstruction, @NotNull final TemporaryOrder temporaryOrder, @NotNull final RescriptTransport rescriptTransport,
+                                                 @NotNull final BetFrequencyLimit speedLimit) {
+        final BatchKey batchKey = new BatchKey(marketId, rescriptTransport, speedLimit);
+        Batch<PlaceInstruction> batch = this.placeBatches.get(batchKey);
+        if (batch == null) {
+            batch = new Batch<>();
+            this.placeBatches.put(batchKey, batch);
+            final Batch<PlaceInstruction> newBatch = batch;
+            submitAfterWindow(this.placeExecutor, () -> submitPlaceBatch(batchKey, newBatch, false));
+        } else { // added to the existing batch
+        }
+        batch.instructions.add(placeInstruction);
+        batch.temporaryOrders.add(temporaryOrder);
+        if (batch.instructions.size() >= MAX_PLACE_INSTRUCTIONS) {
+            this.placeBatches.remove(batchKey);
+            final Batch<PlaceInstruction> fullBatch = batch;
+            this.placeExecutor.execute(() -> submitPlaceBatch(batchKey, fullBatch, true));
+        } else { // room left, the batch waits for its window
+        }
+    }
+
+    public synchronized void addCancelInstruction(@NotNull final String marketId, @NotNull final CancelInstruction cancelInstruction, @NotNull final TemporaryOrder temporaryOrder, @NotNull final RescriptTransport rescriptTransport) {
+        final BatchKey batchKey = new BatchKey(marketId, rescriptTransport, null);
+        Batch<CancelInstruction> batch = this.cancelBatches.get(batchKey);
+        if (batch == null) {
+            batch = new Batch<>();
+            this.cancelBatches.put(batchKey, batch);
+            final Batch<CancelInstruction> newBatch = batch;
+            submitAfterWindow(this.cancelExecutor, () -> submitCancelBatch(batchKey, newBatch, false));
+        } else { // added to the existing batch
+        }
+        batch.instructions.add(cancelInstruction);
+        batch.temporaryOrders.add(temporaryOrder);
+        if (batch.instructions.size() >= MAX_CANCEL_INSTRUCTIONS) {
+            this.cancelBatches.remove(batchKey);
+            final Batch<CancelInstruction> fullBatch = batch;
+            this.cancelExecutor.execute(() -> submitCancelBatch(batchKey, fullBatch, true));
+        } else { // room left, the batch waits for its window
+        }
+    }
+
+    private synchronized void submitAfterWindow(@NotNull final Executor executor, @NotNull final Runnable submitTask) {
+        if (this.batchWindowMillis > 0L) {
+            this.timer.schedule(() -> executor.execute(submitTask), this.batchWindowMillis, TimeUnit.MILLISECONDS);
+        } else { // no window, the batch only collects the instructions added before the task runs
+            executor.execute(submitTask);
+        }
+    }
+
+    public void flush() { // submits all the waiting batches on the calling thread, without waiting for their windows
+        final Map<BatchKey, Batch<PlaceInstruction>> placeBatchesCopy;
+        final Map<BatchKey, Batch<CancelInstruction>> cancelBatchesCopy;
+        synchronized (this) {
+            placeBatchesCopy = new HashMap<>(this.placeBatches);
+            cancelBatchesCopy = new HashMap<>(this.cancelBatches);
+        }
+        for (final Map.Entry<BatchKey, Batch<PlaceInstruction>> entry : placeBatchesCopy.entrySet()) {
+            submitPlaceBatch(entry.getKey(), entry.getValue(), false);
+        }
+        for (final Map.Entry<BatchKey, Batch<CancelInstruction>> entry : cancelBatchesCopy.entrySet()) {
+            submitCancelBatch(entry.getKey(), entry.getValue(), false);
+        }
+    }
+
+    private void submitPlaceBatch(@NotNull final BatchKey batchKey, @NotNull final Batch<PlaceInstruction> batch, final boolean alreadyRemoved) {
+        final List<PlaceInstruction> instructions;
+        final List<TemporaryOrder> temporaryOrders;
+        synchronized (this) {
+            if (alreadyRemoved || this.placeBatches.remove(batchKey, batch)) { // instructions can no longer be added to the batch
+                instructions = new ArrayList<>(batch.instructions);
+                temporaryOrders = new ArrayList<>(batch.temporaryOrders);
+            } else { // already submitted, by flush or because it was full
+                instructions = null;
+                temporaryOrders = null;
+            }
+        }
+        if (instructions == null || batchKey.speedLimit() == null) { // nothing to submit; speedLimit is always set for place batches
+        } else {
+            logger.debug("submitting {} place instructions for: {}", instructions.size(), batchKey.marketId());
+            new PlaceOrdersThread(batchKey.marketId(), instructions, temporaryOrders, batchKey.rescriptTransport(), batchKey.speedLimit()).run();
+        }
+    }
+
+    private void submitCancelBatch(@NotNull final BatchKey batchKey, @NotNull final Batch<CancelInstruction> batch, final boolean alreadyRemoved) {
+        final List<CancelInstruction> instructions;
+        final List<TemporaryOrder> temporaryOrders;
+        synchronized (this) {
+            if (alreadyRemoved || this.cancelBatches.remove(batchKey, batch)) { // instructions can no longer be added to the batch
+                instructions = new ArrayList<>(batch.instructions);
+                temporaryOrders = new ArrayList<>(batch.temporaryOrders);
+            } else { // already submitted, by flush or because it was full
+                instructions = null;
+                temporaryOrders = null;
+            }
+        }
+        if (instructions == null) { // nothing to submit
+        } else {
+            logger.debug("submitting {} cancel instructions for: {}", instructions.size(), batchKey.marketId());
+            new CancelOrdersThread(batchKey.marketId(), instructions, temporaryOrders, batchKey.rescriptTransport()).run();
+        }
+    }
+
+    public synchronized int size() { // number of instructions waiting
+        int size = 0;
+        for (final Batch<PlaceInstruction> batch : this.placeBatches.values()) {
+            size += batch.instructions.size();
+        }
+        for (final Batch<CancelInstruction> batch : this.cancelBatches.values()) {
+            size += batch.instructions.size();
+        }
+        return size;
+    }
+}
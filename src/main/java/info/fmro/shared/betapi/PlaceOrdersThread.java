@@ -4,6 +4,7 @@ import info.fmro.shared.entities.PlaceExecutionReport;
 import info.fmro.shared.entities.PlaceInstruction;
 import info.fmro.shared.entities.PlaceInstructionReport;
 import info.fmro.shared.enums.ExecutionReportStatus;
+import info.fmro.shared.enums.InstructionReportStatus;
 import info.fmro.shared.logic.BetFrequencyLimit;
 import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.objects.TemporaryOrder;
@@ -14,7 +15,6 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,72 +25,58 @@ public class PlaceOrdersThread
     @NotNull
     private final List<PlaceInstruction> placeInstructionsList;
     @NotNull
-    private final TemporaryOrder temporaryOrder;
+    private final List<TemporaryOrder> temporaryOrders; // same order as the instructions, one for each
     @NotNull
-    private final Method sendPostRequestRescriptMethod;
+    private final RescriptTransport rescriptTransport;
     @NotNull
     private final BetFrequencyLimit speedLimit;
 
+    public PlaceOrdersThread(final String marketId, @NotNull final List<PlaceInstruction> placeInstructionsList, @NotNull final TemporaryOrder temporaryOrder, @NotNull final RescriptTransport rescriptTransport,
+                             @NotNull final BetFrequencyLimit speedLimit) {
+        this(marketId, placeInstructionsList, List.of(temporaryOrder), rescriptTransport, speedLimit);
+    }
+
     @Contract(pure = true)
-    public PlaceOrdersThread(final String marketId, @NotNull final List<PlaceInstruction> placeInstructionsList, @NotNull final TemporaryOrder temporaryOrder, @NotNull final Method sendPostRequestRescriptMethod,
+    public PlaceOrdersThread(final String marketId, @NotNull final List<PlaceInstruction> placeInstructionsList, @NotNull final List<TemporaryOrder> temporaryOrders, @NotNull final RescriptTransport rescriptTransport,
                              @NotNull final BetFrequencyLimit speedLimit) {
         this.marketId = marketId;
         this.placeInstructionsList = new ArrayList<>(placeInstructionsList);
-        this.temporaryOrder = temporaryOrder;
-        this.sendPostRequestRescriptMethod = sendPostRequestRescriptMethod;
+        this.temporaryOrders = new ArrayList<>(temporaryOrders);
+        this.rescriptTransport = rescriptTransport;
         this.speedLimit = speedLimit;
     }
 
     @Override
     public void run() {
         final boolean success;
-        if (this.marketId != null && this.placeInstructionsList.size() == 1) { // && placeInstructionsList.size() <= 200 ; right now I only support 1 instruction per order
-            // this.placeInstructionsList != null && this.temporaryOrder != null are always true
+        if (this.marketId != null && !this.placeInstructionsList.isEmpty() && this.placeInstructionsList.size() <= OrderBatcher.MAX_PLACE_INSTRUCTIONS && this.placeInstructionsList.size() == this.temporaryOrders.size()) {
+            // this.placeInstructionsList != null && this.temporaryOrders != null are always true
             final RescriptResponseHandler rescriptResponseHandler = new RescriptResponseHandler();
             final PlaceExecutionReport placeExecutionReport;
 
             if (!SharedStatics.notPlacingOrders && !SharedStatics.denyBetting.get()) {
-                placeExecutionReport = ApiNgRescriptOperations.placeOrders(this.marketId, this.placeInstructionsList, null, rescriptResponseHandler, this.speedLimit, this.sendPostRequestRescriptMethod);
+                placeExecutionReport = ApiNgRescriptOperations.placeOrders(this.marketId, this.placeInstructionsList, null, rescriptResponseHandler, this.speedLimit, this.rescriptTransport);
                 if (placeExecutionReport != null) {
                     final ExecutionReportStatus executionReportStatus = placeExecutionReport.getStatus();
                     if (executionReportStatus == ExecutionReportStatus.SUCCESS) {
-                        logger.info("successful order placing market: {} orderReason: {} list: {} report: {}", this.marketId, this.temporaryOrder.getReasonId(), Generic.objectToString(this.placeInstructionsList),
-                                    Generic.objectToString(placeExecutionReport));
-                        final List<PlaceInstructionReport> placeInstructionReports = placeExecutionReport.getInstructionReports();
-                        if (placeInstructionReports != null && placeInstructionReports.size() == 1) { // only 1 instruction supported for now
-                            final PlaceInstructionReport placeInstructionReport = placeInstructionReports.get(0);
-                            if (placeInstructionReport != null) {
-                                final String betId = placeInstructionReport.getBetId();
-                                this.temporaryOrder.setBetId(betId);
-                                success = true;
-                            } else {
-                                logger.error("null placeInstructionReport in PlaceOrdersThread: {} {} {} {}", this.marketId, Generic.objectToString(this.placeInstructionsList), Generic.objectToString(this.temporaryOrder),
-                                             Generic.objectToString(placeInstructionReports));
-                                success = false;
-                            }
-                        } else {
-                            logger.error("null or empty placeInstructionReports in PlaceOrdersThread: {} {} {} {}", this.marketId, Generic.objectToString(this.placeInstructionsList), Generic.objectToString(this.temporaryOrder),
-                                         Generic.objectToString(placeInstructionReports));
-                            success = false;
-                        }
+                        logger.info("successful order placing market: {} orderReasons: {} list: {} report: {}", this.marketId, getReasonIds(), Generic.lazyObjectToString(this.placeInstructionsList), Generic.lazyObjectToString(placeExecutionReport));
                     } else {
-                        logger.error("executionReportStatus not successful {} in {} for: {} {} {}", executionReportStatus, Generic.objectToString(placeExecutionReport), this.marketId, this.temporaryOrder.getReasonId(),
-                                     Generic.objectToString(this.placeInstructionsList));
-                        success = false;
+                        logger.error("executionReportStatus not successful {} in {} for: {} {} {}", executionReportStatus, Generic.lazyObjectToString(placeExecutionReport), this.marketId, getReasonIds(), Generic.lazyObjectToString(this.placeInstructionsList));
                     }
+                    success = routeInstructionReports(placeExecutionReport) == this.temporaryOrders.size();
                 } else {
                     // temporary removal until 2nd scraper
-                    logger.error("null placeExecutionReport for: {} {}", this.marketId, Generic.objectToString(this.placeInstructionsList));
+                    logger.error("null placeExecutionReport for: {} {}", this.marketId, Generic.lazyObjectToString(this.placeInstructionsList));
                     success = false;
                 }
             } else { // Statics.notPlacingOrders || Statics.denyBetting.get()
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.INFO, "order placing denied perm_deny:{} temp_deny:{}: marketId = {}, orderReason = {}, placeInstructionsList = {}",
-                                                        SharedStatics.notPlacingOrders, SharedStatics.denyBetting.get(), this.marketId, this.temporaryOrder.getReasonId(), Generic.objectToString(this.placeInstructionsList));
+                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.INFO, "order placing denied perm_deny:{} temp_deny:{}: marketId = {}, orderReasons = {}, placeInstructionsList = {}",
+                                                        SharedStatics.notPlacingOrders, SharedStatics.denyBetting.get(), this.marketId, getReasonIds(), Generic.lazyObjectToString(this.placeInstructionsList));
 //                logger.info("order placing denied perm_deny:{} temp_deny:{}: marketId = {}, placeInstructionsList = {}", SharedStatics.notPlacingOrders, SharedStatics.denyBetting.get(), this.marketId, Generic.objectToString(this.placeInstructionsList));
                 success = false;
             }
         } else {
-            logger.error("STRANGE null or empty variables in PlaceOrdersThread: {} {} {}", this.marketId, Generic.objectToString(this.placeInstructionsList), Generic.objectToString(this.temporaryOrder));
+            logger.error("STRANGE null or empty variables in PlaceOrdersThread: {} {} {}", this.marketId, Generic.lazyObjectToString(this.placeInstructionsList), Generic.lazyObjectToString(this.temporaryOrders));
             success = false;
         }
 
@@ -99,4 +85,36 @@ public class PlaceOrdersThread
 //            this.temporaryOrder.setExpirationTime(System.currentTimeMillis() + Generic.MINUTE_LENGTH_MILLISECONDS); // expiration is set by default now
         }
     }
+
+    int routeInstructionReports(@NotNull final PlaceExecutionReport placeExecutionReport) { // the instruction reports come in the order of the instructions; returns the number of orders that got their betId
+        int nPlaced = 0;
+        final List<PlaceInstructionReport> placeInstructionReports = placeExecutionReport.getInstructionReports();
+        if (placeInstructionReports != null && placeInstructionReports.size() == this.temporaryOrders.size()) {
+            for (int i = 0; i < placeInstructionReports.size(); i++) {
+                final PlaceInstructionReport placeInstructionReport = placeInstructionReports.get(i);
+                final TemporaryOrder temporaryOrder = this.temporaryOrders.get(i);
+                if (placeInstructionReport == null) {
+                    logger.error("null placeInstructionReport in PlaceOrdersThread: {} {} {}", this.marketId, Generic.lazyObjectToString(temporaryOrder), Generic.lazyObjectToString(placeInstructionReports));
+                } else if (placeInstructionReport.getStatus() == InstructionReportStatus.SUCCESS && placeInstructionReport.getBetId() != null) {
+                    temporaryOrder.setBetId(placeInstructionReport.getBetId());
+                    nPlaced++;
+                } else {
+                    logger.error("order not placed {} {} in PlaceOrdersThread for: {} {}", placeInstructionReport.getStatus(), placeInstructionReport.getErrorCode(), this.marketId, Generic.lazyObjectToString(temporaryOrder));
+                }
+            }
+        } else {
+            logger.error("null or wrong size placeInstructionReports in PlaceOrdersThread: {} {} {} {}", this.marketId, Generic.lazyObjectToString(this.placeInstructionsList), Generic.lazyObjectToString(this.temporaryOrders),
+                         Generic.lazyObjectToString(placeInstructionReports));
+        }
+        return nPlaced;
+    }
+
+    @NotNull
+    private List<String> getReasonIds() {
+        final List<String> reasonIds = new ArrayList<>(this.temporaryOrders.size());
+        for (final TemporaryOrder temporaryOrder : this.temporaryOrders) {
+            reasonIds.add(temporaryOrder.getReasonId());
+        }
+        return reasonIds;
+    }
 }
@@ -85,7 +85,7 @@ public class RescriptAccountResponseHandler
                                 }
                                 default -> {
                                     SharedStatics.alreadyPrintedMap.logOnce(defaultPrintExpiry, logger, LogLevel.ERROR, "unsupported accountAPINGException errorCode: {}, call to api-ng failed: {} {}",
-                                                                            Generic.objectToString(httpErrorAccountResponse), httpEntityString, statusLine);
+                                                                            Generic.lazyObjectToString(httpErrorAccountResponse), httpEntityString, statusLine);
                                     Generic.threadSleep(500L);
                                 }
                             } // end switch
@@ -90,7 +90,7 @@ public class RescriptResponseHandler
                                     Generic.threadSleep(500L);
                                 }
                                 default -> {
-                                    SharedStatics.alreadyPrintedMap.logOnce(defaultPrintExpiry, logger, LogLevel.ERROR, "unsupported aPINGException errorCode: {}, call to api-ng failed: {} {}", Generic.objectToString(httpErrorResponse),
+                                    SharedStatics.alreadyPrintedMap.logOnce(defaultPrintExpiry, logger, LogLevel.ERROR, "unsupported aPINGException errorCode: {}, call to api-ng failed: {} {}", Generic.lazyObjectToString(httpErrorResponse),
                                                                             modifiedHttpEntityString, statusLine);
                                     Generic.threadSleep(500L);
                                 }
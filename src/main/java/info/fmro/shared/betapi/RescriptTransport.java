@@ -0,0 +1,20 @@
+package info.fmro.shared.betapi;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// sends a betting api request: the json requestString for the operationString, with the response processed by the handler; null on error, which was already printed by the handler or the transport
+// implemented by HttpRescriptTransport, by a method reference to a program's own sendPostRequest, by RescriptTransports.fromMethod, or by an in-process stub for tests and benchmarks
+@FunctionalInterface
+public interface RescriptTransport {
+    @Nullable
+    String send(String requestString, String operationString, RescriptResponseHandler rescriptResponseHandler);
+
+    @NotNull
+    default CompletableFuture<String> sendAsync(final String requestString, final String operationString, final RescriptResponseHandler rescriptResponseHandler, @NotNull final Executor executor) { // transports with a non blocking client override this
+        return CompletableFuture.supplyAsync(() -> send(requestString, operationString, rescriptResponseHandler), executor);
+    }
+}
@@ -0,0 +1,66 @@
+package info.fmro.shared.betapi;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+// adapters for programs that still have a static sendPostRequest method instead of a transport; the method is bound once to a MethodHandle, so no reflective invoke and no InvocationTargetException wrapping per request
+@SuppressWarnings("UtilityClass")
+public final class RescriptTransports {
+    private static final Logger logger = LoggerFactory.getLogger(RescriptTransports.class);
+
+    @Contract(pure = true)
+    private RescriptTransports() {
+    }
+
+    @Nullable
+    public static RescriptTransport fromMethod(final Method sendPostRequestRescriptMethod) { // static (String, String, RescriptResponseHandler) -> String method; null on error
+        @Nullable final MethodHandle methodHandle = getMethodHandle(sendPostRequestRescriptMethod, RescriptResponseHandler.class);
+        return methodHandle == null ? null : (requestString, operationString, rescriptResponseHandler) -> invoke(methodHandle, requestString, operationString, rescriptResponseHandler);
+    }
+
+    @Nullable
+    public static RescriptAccountTransport fromAccountMethod(final Method sendPostRequestAccountRescriptMethod) { // static (String, String, RescriptAccountResponseHandler) -> String method; null on error
+        @Nullable final MethodHandle methodHandle = getMethodHandle(sendPostRequestAccountRescriptMethod, RescriptAccountResponseHandler.class);
+        return methodHandle == null ? null : (requestString, operationString, rescriptAccountResponseHandler) -> invoke(methodHandle, requestString, operationString, rescriptAccountResponseHandler);
+    }
+
+    @Nullable
+    private static MethodHandle getMethodHandle(final Method method, @NotNull final Class<?> handlerClass) {
+        @Nullable MethodHandle methodHandle;
+        if (method == null) {
+            logger.error("null method in RescriptTransports.getMethodHandle for: {}", handlerClass.getSimpleName());
+            methodHandle = null;
+        } else {
+            try {
+                method.setAccessible(true);
+                methodHandle = MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(String.class, String.class, String.class, Object.class));
+            } catch (IllegalAccessException | RuntimeException exception) { // not accessible, not static or wrong signature
+                logger.error("exception in RescriptTransports.getMethodHandle for: {}", method, exception);
+                methodHandle = null;
+            }
+        }
+        return methodHandle;
+    }
+
+    @Nullable
+    private static String invoke(@NotNull final MethodHandle methodHandle, final String requestString, final String operationString, final Object responseHandler) {
+        @Nullable String returnValue;
+        try {
+            returnValue = (String) methodHandle.invokeExact(requestString, operationString, responseHandler);
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable throwable) { // checked exception declared by the method
+            logger.error("exception in RescriptTransports.invoke for {} {}", requestString, operationString, throwable);
+            returnValue = null;
+        }
+        return returnValue;
+    }
+}
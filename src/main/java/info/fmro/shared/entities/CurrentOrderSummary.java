@@ -72,7 +72,7 @@ public final class CurrentOrderSummary
             final double price = priceObject == null ? 0d : priceObject;
 
             if (this.side == null) {
-                logger.error("null side in CurrentOrderSummary placedAmount: {}", Generic.objectToString(this));
+                logger.error("null side in CurrentOrderSummary placedAmount: {}", Generic.lazyObjectToString(this));
                 amount = Math.max(size, Formulas.calculateLayExposure(price, size)); // assume the worst
             } else {
                 amount = switch (this.side) {
@@ -80,7 +80,7 @@ public final class CurrentOrderSummary
                     case LAY -> Formulas.calculateLayExposure(price, size);
                     //noinspection UnnecessaryDefault
                     default -> {
-                        logger.error("unknown side {} in CurrentOrderSummary placedAmount: {}", this.side, Generic.objectToString(this));
+                        logger.error("unknown side {} in CurrentOrderSummary placedAmount: {}", this.side, Generic.lazyObjectToString(this));
                         yield Math.max(size, Formulas.calculateLayExposure(price, size)); // assume the worst
                     }
                 }; // end switch
@@ -103,7 +103,7 @@ public final class CurrentOrderSummary
     private synchronized void createEventId(@NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
         this.setEventId(Formulas.getEventIdOfMarketId(this.marketId, marketCataloguesMap));
         if (this.eventId == null) {
-            logger.info("null eventId after creation in CurrentOrderSummary: {}", Generic.objectToString(this));
+            logger.info("null eventId after creation in CurrentOrderSummary: {}", Generic.lazyObjectToString(this));
         }
     }
 
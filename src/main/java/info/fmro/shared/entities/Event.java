@@ -107,14 +107,14 @@ public class Event
                     @SuppressWarnings("unchecked") final SynchronizedMap<Long, ? extends ScraperEventInterface> scraperEventsMap = (SynchronizedMap<Long, ? extends ScraperEventInterface>) getScraperEventsMap.invoke(null, scraperClass);
                     scraperEvent = scraperEventsMap.get(scraperId);
                 } catch (IllegalAccessException | InvocationTargetException e) {
-                    logger.error("exception during getScraperEventsMap.invoke in ignoredScrapersCheck for: {}", Generic.objectToString(this), e);
+                    logger.error("exception during getScraperEventsMap.invoke in ignoredScrapersCheck for: {}", Generic.lazyObjectToString(this), e);
                 }
                 if (scraperEvent == null) {
                     @SuppressWarnings("unchecked") final long timeSinceLastRemoved = BlackList.timeSinceRemovalFromMap((Class<? extends Ignorable>) scraperClass, getIgnorableMap);
                     if (timeSinceLastRemoved <= DEFAULT_REMOVE_OR_BAN_SAFETY_PERIOD) {
                         logger.info("notExist scraperEvent in getNValidScraperEventIds, timeSinceLastRemoved: {}ms for: {} {} {} {}", timeSinceLastRemoved, scraperClass, scraperId, this.id, this.name);
                     } else {
-                        logger.error("notExist scraperEvent in getNValidScraperEventIds, timeSinceLastRemoved: {}ms for: {} {} {}", timeSinceLastRemoved, scraperClass, scraperId, Generic.objectToString(this));
+                        logger.error("notExist scraperEvent in getNValidScraperEventIds, timeSinceLastRemoved: {}ms for: {} {} {}", timeSinceLastRemoved, scraperClass, scraperId, Generic.lazyObjectToString(this));
                     }
                     iterator.remove();
                     this.matchedTimeStamp(false, removeFromSecondaryMaps, constructorMarket, safeBetModuleActivated, MIN_MATCHED, DEFAULT_REMOVE_OR_BAN_SAFETY_PERIOD, marketCataloguesMap, getScraperEventsMap, getIgnorableMap,
@@ -133,7 +133,7 @@ public class Event
                 modified = 0;
             }
         } else {
-            logger.error("null scraperEventIds during ignoredScrapersCheck for: {}", Generic.objectToString(this));
+            logger.error("null scraperEventIds during ignoredScrapersCheck for: {}", Generic.lazyObjectToString(this));
             modified = 0;
         }
 
@@ -163,11 +163,11 @@ public class Event
                             } else { // nothing to be done
                             }
                         } else {
-                            logger.error("STRANGE null eventId during Event.setIgnored for: {}", Generic.objectToString(marketCatalogue));
+                            logger.error("STRANGE null eventId during Event.setIgnored for: {}", Generic.lazyObjectToString(marketCatalogue));
                             marketCataloguesMap.removeValueAll(marketCatalogue);
                         }
                     } else {
-                        logger.error("STRANGE null event during Event.setIgnored for: {}", Generic.objectToString(marketCatalogue));
+                        logger.error("STRANGE null event during Event.setIgnored for: {}", Generic.lazyObjectToString(marketCatalogue));
                         marketCataloguesMap.removeValueAll(marketCatalogue);
                     }
                 } else {
@@ -186,7 +186,7 @@ public class Event
             try {
                 SharedStatics.threadPoolExecutor.execute(constructorEvent.newInstance(CommandType.findMarkets, eventsSet, realPeriod));
             } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                logger.error("exception in setIgnored for: {} {} {}", realPeriod, Generic.objectToString(eventsSet), Generic.objectToString(this), e);
+                logger.error("exception in setIgnored for: {} {} {}", realPeriod, Generic.lazyObjectToString(eventsSet), Generic.lazyObjectToString(this), e);
             }
             //            threadPoolExecutor.execute(new LaunchCommandThread(CommandType.findMarkets, eventsSet, realPeriod));
 //            Statics.threadPoolExecutor.execute(new LaunchCommandThread(CommandType.findSafeRunners, eventsSet, realPeriod));
@@ -285,7 +285,7 @@ public class Event
         } else if (this.venue.equals(newVenue)) {
             modified = 0;
         } else {
-            logger.warn("changing venue from {} to {} in Event.setVenue for: {}", this.venue, newVenue, Generic.objectToString(this));
+            logger.warn("changing venue from {} to {} in Event.setVenue for: {}", this.venue, newVenue, Generic.lazyObjectToString(this));
             this.venue = newVenue;
             modified = 1;
         }
@@ -325,13 +325,13 @@ public class Event
 
         if (newMarketCount == null) {
             modified = 0;
-            logger.error("null marketCount in Event.setMarketCount for: {}", Generic.objectToString(this));
+            logger.error("null marketCount in Event.setMarketCount for: {}", Generic.lazyObjectToString(this));
         } else if (newMarketCount == this.marketCount) {
             modified = 0;
         } else if (newMarketCount < 0) {
             if (newMarketCount == -1) { // attempt to set -1 is made when events are updated from eventStumps, normal behaviour
             } else {
-                logger.error("not allowed to set negative value {} for marketCount in Event: {}", newMarketCount, Generic.objectToString(this));
+                logger.error("not allowed to set negative value {} for marketCount in Event: {}", newMarketCount, Generic.lazyObjectToString(this));
             }
             modified = 0;
 
@@ -361,7 +361,7 @@ public class Event
         } else if (this.marketCount == -1) { // normal behaviour, marketCountStump already initialized
             modified = 0;
         } else {
-            logger.error("trying to setMarketCountStump on existing marketCount {} for: {}", this.marketCount, Generic.objectToString(this));
+            logger.error("trying to setMarketCountStump on existing marketCount {} for: {}", this.marketCount, Generic.lazyObjectToString(this));
             modified = 0;
         }
 
@@ -434,7 +434,7 @@ public class Event
         final int modified;
         if (this.timeFirstSeen > 0) {
             if (this.timeFirstSeen > newTimeFirstSeen) {
-                logger.error("changing timeFirstSeen event difference {} from {} to {} for: {}", this.timeFirstSeen - newTimeFirstSeen, this.timeFirstSeen, newTimeFirstSeen, Generic.objectToString(this));
+                logger.error("changing timeFirstSeen event difference {} from {} to {} for: {}", this.timeFirstSeen - newTimeFirstSeen, this.timeFirstSeen, newTimeFirstSeen, Generic.lazyObjectToString(this));
                 this.timeFirstSeen = newTimeFirstSeen;
                 modified = 1;
             } else {
@@ -542,7 +542,7 @@ public class Event
 //                        logger.info("notExist scraperEvent in getNValidScraperEventIds, timeSinceLastRemoved: {}ms for: {} {} {} {}", timeSinceLastRemoved, scraperClazz, scraperId,
 //                                    this.id, this.name);
 //                    } else {
-                        logger.error("notExist scraperEvent in getNValidScraperEventIds, timeSinceLastRemoved: {}ms for: {} {} {}", timeSinceLastRemoved, scraperClazz, scraperId, Generic.objectToString(this));
+                        logger.error("notExist scraperEvent in getNValidScraperEventIds, timeSinceLastRemoved: {}ms for: {} {} {}", timeSinceLastRemoved, scraperClazz, scraperId, Generic.lazyObjectToString(this));
 //                    }
                         iterator.remove();
                         // removal of existing matchedScraper
@@ -607,7 +607,7 @@ public class Event
             if (existingScraperEventId == scraperEventId) {
                 modified = 0; // values are equal
             } else {
-                logger.error("changing matched scraper event from {} to {} for: {}", existingScraperEventId, scraperEventId, Generic.objectToString(this));
+                logger.error("changing matched scraper event from {} to {} for: {}", existingScraperEventId, scraperEventId, Generic.lazyObjectToString(this));
 
 //                this.removeScraperEvent(clazz);
 //                this.addScraperEvent(clazz, scraperEventId);
@@ -659,10 +659,10 @@ public class Event
     public synchronized int update(final Event event, @NotNull final LoggerThreadInterface loggerThread) {
         int modified;
         if (this == event) {
-            logger.error("update from same object in Event.update: {}", Generic.objectToString(this));
+            logger.error("update from same object in Event.update: {}", Generic.lazyObjectToString(this));
             modified = 0;
         } else if (this.id == null ? event.getId() != null : !this.id.equals(event.getId())) {
-            logger.error("mismatch eventId in Event.update: {} {}", Generic.objectToString(this), Generic.objectToString(event));
+            logger.error("mismatch eventId in Event.update: {} {}", Generic.lazyObjectToString(this), Generic.lazyObjectToString(event));
             modified = 0;
         } else {
             final long thatTimeStamp = event.getTimeStamp();
@@ -48,7 +48,7 @@ public class LimitOrder
         }
         final double primitivePrice;
         if (this.price == null) {
-            logger.error("null price in LimitOrder during getLiability {} for: {}", side, Generic.objectToString(this));
+            logger.error("null price in LimitOrder during getLiability {} for: {}", side, Generic.lazyObjectToString(this));
             primitivePrice = 1_000d; // assumes worst case
         } else {
             primitivePrice = this.price;
@@ -61,9 +61,9 @@ public class LimitOrder
         } else {
             liability = Math.max(primitiveSize, primitiveSize * (primitivePrice - 1d)); // assume the worst
             if (side == null) {
-                logger.error("side null in LimitOrder.getLiability: {}", Generic.objectToString(this));
+                logger.error("side null in LimitOrder.getLiability: {}", Generic.lazyObjectToString(this));
             } else { // unsupported Side
-                logger.error("unsupported side {} in LimitOrder.getLiability for: {}", side, Generic.objectToString(this));
+                logger.error("unsupported side {} in LimitOrder.getLiability for: {}", side, Generic.lazyObjectToString(this));
             }
         }
 
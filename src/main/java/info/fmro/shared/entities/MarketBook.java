@@ -463,10 +463,10 @@ public class MarketBook
     public synchronized int update(final MarketBook marketBook) {
         int modified;
         if (this == marketBook) {
-            logger.error("update from same object in MarketBook.update: {}", Generic.objectToString(this));
+            logger.error("update from same object in MarketBook.update: {}", Generic.lazyObjectToString(this));
             modified = 0;
         } else if (this.marketId == null ? marketBook.getMarketId() != null : !this.marketId.equals(marketBook.getMarketId())) {
-            logger.error("mismatch marketId in MarketBook.update: {} {}", Generic.objectToString(this), Generic.objectToString(marketBook));
+            logger.error("mismatch marketId in MarketBook.update: {} {}", Generic.lazyObjectToString(this), Generic.lazyObjectToString(marketBook));
             modified = 0;
         } else {
             final long thatTimeStamp = marketBook.getTimeStamp();
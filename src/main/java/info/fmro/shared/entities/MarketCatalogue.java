@@ -91,7 +91,7 @@ public class MarketCatalogue
             try {
                 removeFromSecondaryMaps.invoke(null, this.marketId);
             } catch (IllegalAccessException | InvocationTargetException e) {
-                logger.error("exception with removeFromSecondaryMaps.invoke in setIgnored: {} {} {}", period, startTime, Generic.objectToString(this), e);
+                logger.error("exception with removeFromSecondaryMaps.invoke in setIgnored: {} {} {}", period, startTime, Generic.lazyObjectToString(this), e);
             }
 
             // delayed starting of threads might no longer be necessary
@@ -106,7 +106,7 @@ public class MarketCatalogue
                 try {
                     SharedStatics.threadPoolExecutor.execute(constructor.newInstance(CommandType.findSafeRunners, marketCatalogueEntriesSet, realPeriod));
                 } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                    logger.error("exception in setIgnored for: {} {} {}", period, startTime, Generic.objectToString(this), e);
+                    logger.error("exception in setIgnored for: {} {} {}", period, startTime, Generic.lazyObjectToString(this), e);
                 }
             }
         } else { // ignored was not modified or market is not ignored, likely nothing to be done
@@ -343,7 +343,7 @@ public class MarketCatalogue
                 // won't allow null to be set
                 // this.parsedMarket = parsedMarket;
                 // modified = 1;
-                logger.error("not allowed to set null value for parsedMarket in MarketCatalogue: {}", Generic.objectToString(this));
+                logger.error("not allowed to set null value for parsedMarket in MarketCatalogue: {}", Generic.lazyObjectToString(this));
             }
             modified = 0;
         } else if (newParsedMarket.equals(this.parsedMarket)) {
@@ -395,10 +395,10 @@ public class MarketCatalogue
     public synchronized int update(final MarketCatalogue marketCatalogue, @NotNull final Collection<String> supportedEventTypes, @NotNull final LoggerThreadInterface loggerThread) {
         int modified;
         if (this == marketCatalogue) {
-            logger.error("update from same object in MarketCatalogue.update: {}", Generic.objectToString(this));
+            logger.error("update from same object in MarketCatalogue.update: {}", Generic.lazyObjectToString(this));
             modified = 0;
         } else if (this.marketId == null ? marketCatalogue.getMarketId() != null : !this.marketId.equals(marketCatalogue.getMarketId())) {
-            logger.error("mismatch marketId in MarketCatalogue.update: {} {}", Generic.objectToString(this), Generic.objectToString(marketCatalogue));
+            logger.error("mismatch marketId in MarketCatalogue.update: {} {}", Generic.lazyObjectToString(this), Generic.lazyObjectToString(marketCatalogue));
             modified = 0;
         } else {
             final long thatTimeStamp = marketCatalogue.getTimeStamp();
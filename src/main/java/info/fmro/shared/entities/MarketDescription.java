@@ -148,7 +148,7 @@ public class MarketDescription
     public synchronized PriceLadderType getPriceLadderType() {
         @Nullable final PriceLadderType returnValue;
         if (this.priceLadderDescription == null) {
-            logger.error("null priceLadderDescription in getPriceLadderType for: {}", Generic.objectToString(this));
+            logger.error("null priceLadderDescription in getPriceLadderType for: {}", Generic.lazyObjectToString(this));
             returnValue = null;
         } else {
             returnValue = this.priceLadderDescription.getType();
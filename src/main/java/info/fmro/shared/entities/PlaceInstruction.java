@@ -28,7 +28,7 @@ public class PlaceInstruction
         double amount;
 
         if (this.orderType == null) {
-            logger.error("null orderType in PlaceInstruction getPlacedAmount for: {}", Generic.objectToString(this));
+            logger.error("null orderType in PlaceInstruction getPlacedAmount for: {}", Generic.lazyObjectToString(this));
             amount = 0d; // initialized
 
             if (this.limitOrder != null) {
@@ -53,7 +53,7 @@ public class PlaceInstruction
             final Double marketOnCloseOrderLiabilityObject = this.marketOnCloseOrder.getLiability();
             amount = marketOnCloseOrderLiabilityObject == null ? 0d : marketOnCloseOrderLiabilityObject;
         } else { // unsupported OrderType
-            logger.error("unsupported orderType {} in PlaceInstruction getPlacedAmount for: {}", this.orderType, Generic.objectToString(this));
+            logger.error("unsupported orderType {} in PlaceInstruction getPlacedAmount for: {}", this.orderType, Generic.lazyObjectToString(this));
             amount = 0d; // initialized
 
             if (this.limitOrder != null) {
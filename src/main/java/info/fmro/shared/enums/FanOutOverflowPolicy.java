@@ -0,0 +1,7 @@
+package info.fmro.shared.enums;
+
+public enum FanOutOverflowPolicy {
+    BLOCK, // the publisher waits until the consumer frees a slot; nothing is lost, but a stuck consumer stalls the publisher
+    DROP_OLDEST, // the consumer skips the objects that were overwritten; the skipped count is kept
+    RESYNC // the consumer gets a fresh copy of the published object, then continues with the newer objects
+}
@@ -0,0 +1,7 @@
+package info.fmro.shared.enums;
+
+public enum JournalSyncPolicy {
+    EVERY_RECORD, // force after each appended record; nothing acknowledged is lost, slowest
+    INTERVAL, // force when the sync interval has passed since the last force; at most one interval of records is lost on a crash
+    SEGMENT // force only on segment rollover, checkpoint and close; the OS decides when the rest reaches the disk
+}
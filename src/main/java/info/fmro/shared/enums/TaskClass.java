@@ -0,0 +1,22 @@
+package info.fmro.shared.enums;
+
+import org.jetbrains.annotations.Contract;
+
+public enum TaskClass { // the default limits add up to the 64 threads of SharedStatics.threadPoolExecutorImportant, so manage passes can't take the threads needed by place and cancel requests
+    MANAGE(24), // ManagedMarketThread runs
+    PLACE(16), // placeOrders requests
+    CANCEL(16), // cancelOrders requests
+    GENERAL(8); // anything else
+
+    private final int defaultMaxConcurrency;
+
+    @Contract(pure = true)
+    TaskClass(final int defaultMaxConcurrency) {
+        this.defaultMaxConcurrency = defaultMaxConcurrency;
+    }
+
+    @Contract(pure = true)
+    public int getDefaultMaxConcurrency() {
+        return this.defaultMaxConcurrency;
+    }
+}
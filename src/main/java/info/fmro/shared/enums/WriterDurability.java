@@ -0,0 +1,7 @@
+package info.fmro.shared.enums;
+
+public enum WriterDurability {
+    NONE, // flush requests are ignored; records reach the file at the group commits, when the buffer is full or the commit interval has passed
+    FLUSH, // flush requests commit right away; the records reach the OS, not necessarily the disk
+    FSYNC // as FLUSH, and every commit is followed by a force of the channel; slowest, but only for the writer thread
+}
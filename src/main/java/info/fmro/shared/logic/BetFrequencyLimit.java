@@ -23,7 +23,7 @@ public class BetFrequencyLimit
 
     public synchronized void copyFrom(final BetFrequencyLimit other) {
         if (other == null) {
-            logger.error("null other in copyFrom for: {}", Generic.objectToString(this));
+            logger.error("null other in copyFrom for: {}", Generic.lazyObjectToString(this));
         } else {
             Generic.updateObject(this, other);
 
@@ -49,7 +49,7 @@ public class ExistingFunds
 
     public synchronized void copyFrom(final ExistingFunds existingFunds) {
         if (existingFunds == null) {
-            logger.error("null existingFunds in copyFrom for: {}", Generic.objectToString(this));
+            logger.error("null existingFunds in copyFrom for: {}", Generic.lazyObjectToString(this));
         } else {
 //            Generic.updateObject(this, existingFunds); // doesn't work for AtomicDouble
 
@@ -63,7 +63,7 @@ public class ExistingFunds
         final int nQueues = this.listOfQueues.size();
         if (nQueues == 0) { // normal case, nothing to be done
         } else {
-            logger.error("existing queues during ExistingFunds.copyFrom: {} {}", nQueues, Generic.objectToString(this));
+            logger.error("existing queues during ExistingFunds.copyFrom: {} {}", nQueues, Generic.lazyObjectToString(this));
             this.listOfQueues.send(this.getCopy());
         }
     }
@@ -111,7 +111,7 @@ public class ExistingFunds
             modified = false;
         } else if (truncatedValue > this.reserve || (SharedStatics.reserveCanDecrease && SharedStatics.notPlacingOrders)) {
             logger.info("modifying reserve value {} to {}", this.reserve, truncatedValue);
-            this.listOfQueues.send(new SerializableObjectModification<>(ExistingFundsModificationCommand.setReserve, truncatedValue));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(ExistingFundsModificationCommand.setReserve, truncatedValue));
             this.reserve = truncatedValue;
             modified = true;
         } else { // new value is smaller
@@ -125,7 +125,7 @@ public class ExistingFunds
     }
 
     public synchronized void setAvailableFunds(final double newAvailableFunds) {
-        this.listOfQueues.send(new SerializableObjectModification<>(ExistingFundsModificationCommand.setAvailableFunds, newAvailableFunds));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(ExistingFundsModificationCommand.setAvailableFunds, newAvailableFunds));
         this.availableFunds = newAvailableFunds;
     }
 
@@ -134,13 +134,13 @@ public class ExistingFunds
     }
 
     public synchronized void setExposure(final double newExposure) {
-        this.listOfQueues.send(new SerializableObjectModification<>(ExistingFundsModificationCommand.setExposure, newExposure));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(ExistingFundsModificationCommand.setExposure, newExposure));
         this.exposure = newExposure;
     }
 
     public synchronized void setCurrencyRate(final Double rate) {
         if (rate != null) {
-            this.listOfQueues.send(new SerializableObjectModification<>(ExistingFundsModificationCommand.setCurrencyRate, rate));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(ExistingFundsModificationCommand.setCurrencyRate, rate));
             this.currencyRate.set(rate);
         } else {
             logger.error("null rate in setCurrencyRate");
@@ -156,10 +156,10 @@ public class ExistingFunds
                 if (Objects.equals(currencyCode, "EUR")) {
                     final Double rate = newCurrencyRate.getRate();
                     if (rate != null) {
-                        this.listOfQueues.send(new SerializableObjectModification<>(ExistingFundsModificationCommand.setCurrencyRate, rate));
+                        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(ExistingFundsModificationCommand.setCurrencyRate, rate));
                         this.currencyRate.set(rate);
                     } else {
-                        logger.error("null rate for: {}", Generic.objectToString(currencyRates));
+                        logger.error("null rate for: {}", Generic.lazyObjectToString(currencyRates));
                     }
                     break;
                 } else { // I only need EUR rate, nothing to be done with the rest
@@ -201,7 +201,7 @@ public class ExistingFunds
         final double returnValue;
         if (marketId == null) {
             returnValue = 0d;
-            logger.error("null marketId in SafetyLimits during getDefaultMarketLimit: {}", Generic.objectToString(this));
+            logger.error("null marketId in SafetyLimits during getDefaultMarketLimit: {}", Generic.lazyObjectToString(this));
         } else {
 //            @Nullable final String eventId;
 //            if (parentEventId != null) {
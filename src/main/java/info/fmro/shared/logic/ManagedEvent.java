@@ -85,7 +85,7 @@ public class ManagedEvent
             }
 
         if (modified) {
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setEventAmountLimit, this.id, this.amountLimit));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setEventAmountLimit, this.id, this.amountLimit));
             if (SharedStatics.programName.get() == ProgramName.SERVER) {
                 calculateMarketLimits(rulesManager, safetyLimits, marketCataloguesMap);
             } else { // I'm in a Client, and I won't calculate the limits here
@@ -130,7 +130,7 @@ public class ManagedEvent
     public synchronized void setEventName(final String eventName, @NotNull final ListOfQueues listOfQueues) {
         if (this.eventName == null && eventName != null) {
             this.eventName = eventName;
-            listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setEventName, this.id, this.eventName));
+            listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setEventName, this.id, this.eventName));
         } else { // I'll keep the old name
         }
     }
@@ -183,7 +183,7 @@ public class ManagedEvent
         } else {
             for (final ManagedMarket managedMarket : markets) {
                 if (managedMarket == null) {
-                    logger.error("null managedMarket in calculateExposure: {} {}", Generic.objectToString(this.marketIds), Generic.objectToString(markets));
+                    logger.error("null managedMarket in calculateExposure: {} {}", Generic.lazyObjectToString(this.marketIds), Generic.lazyObjectToString(markets));
                 } else {
                     eventExposure += managedMarket.getMarketTotalExposure();
                 }
@@ -2,12 +2,15 @@ package info.fmro.shared.logic;
 
 import com.google.common.math.DoubleMath;
 import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.entities.MarketCatalogue;
 import info.fmro.shared.enums.MarketBettingType;
 import info.fmro.shared.enums.PrefSide;
 import info.fmro.shared.enums.PriceLadderType;
 import info.fmro.shared.enums.ProgramName;
 import info.fmro.shared.enums.RulesManagerModificationCommand;
+import info.fmro.shared.enums.TaskClass;
+import info.fmro.shared.objects.Exposure;
 import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.stream.cache.Utils;
 import info.fmro.shared.stream.cache.market.Market;
@@ -30,7 +33,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -50,6 +52,8 @@ public class ManagedMarket
     public static final long recentCalculatedLimitPeriod = 30_000L;
     public static final long almostLivePeriod = Generic.HOUR_LENGTH_MILLISECONDS;
     public static final long veryRecentPeriod = 10_000L;
+    public static final long fullExposureCheckPeriod = 60_000L;
+    private static final double exposureDriftTolerance = .01d;
     private static final Logger logger = LoggerFactory.getLogger(ManagedMarket.class);
     @Serial
     private static final long serialVersionUID = -7958840665816144122L;
@@ -61,6 +65,9 @@ public class ManagedMarket
     private final AtomicBoolean enabledMarket = new AtomicBoolean(true), mandatoryPlace = new AtomicBoolean(), keepAtInPlay = new AtomicBoolean();
     private final long creationTime;
     transient AtomicBoolean isBeingManaged = new AtomicBoolean();
+    transient AtomicBoolean emergencyManageRequested = new AtomicBoolean(); // emergency manage requested while the market was being managed, run by the current pass when it ends
+    private transient HashMap<RunnerId, Long> runnerExposureVersions = new HashMap<>(4); // OrderCache exposure version each runner's exposure was last calculated for
+    private transient long fullExposureCheckStamp;
     @SuppressWarnings("FieldAccessedSynchronizedAndUnsynchronized")
     private String parentEventId;
     @SuppressWarnings("FieldAccessedSynchronizedAndUnsynchronized")
@@ -106,6 +113,8 @@ public class ManagedMarket
             throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         this.isBeingManaged = new AtomicBoolean();
+        this.emergencyManageRequested = new AtomicBoolean();
+        this.runnerExposureVersions = new HashMap<>(4);
         this.parentEvent = null;
         this.market = null;
 //        this.orderMarket = null;
@@ -210,7 +219,7 @@ public class ManagedMarket
             rulesManager.marketsToCheck.put(this.marketId, this.enabledTime);
 
             if (sendModificationThroughStream) {
-                rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketEnabled, this.marketId, this.enabledMarket.get()));
+                rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketEnabled, this.marketId, this.enabledMarket.get()));
             } else { // no need to send this modification
             }
         }
@@ -227,7 +236,7 @@ public class ManagedMarket
             }
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
 
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketMandatoryPlace, this.marketId, this.mandatoryPlace.get()));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketMandatoryPlace, this.marketId, this.mandatoryPlace.get()));
         }
     }
 
@@ -261,7 +270,7 @@ public class ManagedMarket
                 }
                 rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
 
-                rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketKeepAtInPlay, this.marketId, this.keepAtInPlay.get()));
+                rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketKeepAtInPlay, this.marketId, this.keepAtInPlay.get()));
             }
         }
     }
@@ -302,21 +311,21 @@ public class ManagedMarket
     public final synchronized void setMarketName(final String marketName, @NotNull final ListOfQueues listOfQueues) {
         if (marketName != null && !Objects.equals(this.marketName, marketName)) {
             this.marketName = marketName;
-            listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketName, this.marketId, this.marketName));
+            listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketName, this.marketId, this.marketName));
         } else { // new value null or same as old value
         }
     }
 
     private synchronized void setMarketName(final MarketDefinition marketDefinition, @NotNull final ListOfQueues listOfQueues) {
         if (marketDefinition == null) {
-            logger.error("null marketDefinition in setMarketName for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("null marketDefinition in setMarketName for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
         } else {
             if (this.marketName == null) {
                 this.marketName = marketDefinition.getMarketType();
                 if (this.marketName == null) {
-                    logger.error("null marketName from marketDefinition for: {} {}", Generic.objectToString(marketDefinition), Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+                    logger.error("null marketName from marketDefinition for: {} {}", Generic.lazyObjectToString(marketDefinition), Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
                 } else {
-                    listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketName, this.marketId, this.marketName));
+                    listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketName, this.marketId, this.marketName));
                 }
             } else { // I'll keep the old name
             }
@@ -379,7 +388,7 @@ public class ManagedMarket
 
         if (result) { // no error, nothing to be done, will return result
         } else {
-            logger.error("false result in parentEventIsSet for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("false result in parentEventIsSet for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
         }
 
         return result;
@@ -391,7 +400,7 @@ public class ManagedMarket
 
         if (result) { // no error, nothing to be done, will return result
         } else {
-            logger.error("false result in parentEventHasTheMarketAdded for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("false result in parentEventHasTheMarketAdded for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
         }
 
         return result;
@@ -403,7 +412,7 @@ public class ManagedMarket
 
         if (result) { // no error, nothing to be done, will return result
         } else {
-            logger.error("false result in parentEventHasTheMarketIdAdded for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("false result in parentEventHasTheMarketIdAdded for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
         }
 
         return result;
@@ -489,7 +498,7 @@ public class ManagedMarket
     public synchronized boolean setTimeMarketGoesLive(final long newTimeMarketGoesLive, @NotNull final MarketsToCheckMap marketsToCheck) {
         final boolean modified;
         if (newTimeMarketGoesLive <= 0L) {
-            logger.error("attempt to set strange timeMarketGoesLive value {} for: {}", newTimeMarketGoesLive, Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("attempt to set strange timeMarketGoesLive value {} for: {}", newTimeMarketGoesLive, Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             modified = false;
         } else if (this.timeMarketGoesLive == newTimeMarketGoesLive) {
             modified = false;
@@ -512,19 +521,19 @@ public class ManagedMarket
     private synchronized void calculateTimeMarketGoesLive(@NotNull final MarketsToCheckMap marketsToCheck) {
         final long result;
         if (this.market == null) {
-            logger.error("null market in calculateTimeMarketGoesLive for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("null market in calculateTimeMarketGoesLive for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             result = 0L;
         } else {
             final MarketDefinition marketDefinition = this.market.getMarketDefinition();
             if (marketDefinition == null) {
-                logger.error("null marketDefinition in calculateTimeMarketGoesLive for: {}", Generic.objectToString(this.market));
+                logger.error("null marketDefinition in calculateTimeMarketGoesLive for: {}", Generic.lazyObjectToString(this.market));
                 result = 0L;
             } else {
                 final Date marketTime = marketDefinition.getMarketTime(); // I hope this is market start time, I'll test
                 if (marketTime != null) {
                     result = marketTime.getTime();
                 } else {
-                    logger.error("null marketTime in calculateTimeMarketGoesLive for: {} {}", this.marketId, Generic.objectToString(marketDefinition));
+                    logger.error("null marketTime in calculateTimeMarketGoesLive for: {} {}", this.marketId, Generic.lazyObjectToString(marketDefinition));
                     result = 0L;
                 }
             }
@@ -535,14 +544,14 @@ public class ManagedMarket
     private synchronized void calculateTimeMarketGoesLive(final MarketDefinition marketDefinition, @NotNull final MarketsToCheckMap marketsToCheck) {
         final long result;
         if (marketDefinition == null) {
-            logger.error("null marketDefinition in calculateTimeMarketGoesLive with parameter for: {}", Generic.objectToString(this.market));
+            logger.error("null marketDefinition in calculateTimeMarketGoesLive with parameter for: {}", Generic.lazyObjectToString(this.market));
             result = 0L;
         } else {
             final Date marketTime = marketDefinition.getMarketTime(); // I hope this is market start time, I'll test
             if (marketTime != null) {
                 result = marketTime.getTime();
             } else {
-                logger.error("null marketTime in calculateTimeMarketGoesLive with parameter for: {} {}", this.marketId, Generic.objectToString(marketDefinition));
+                logger.error("null marketTime in calculateTimeMarketGoesLive with parameter for: {} {}", this.marketId, Generic.lazyObjectToString(marketDefinition));
                 result = 0L;
             }
         }
@@ -561,7 +570,7 @@ public class ManagedMarket
         }
 
         if (modified) {
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketAmountLimit, this.marketId, this.amountLimit));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketAmountLimit, this.marketId, this.amountLimit));
             rulesManager.rulesHaveChanged.set(true);
 
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
@@ -587,7 +596,7 @@ public class ManagedMarket
         if (managedRunners.size() == 1) {
             returnValue = managedRunners.get(0);
         } else {
-            logger.error("wrong list size in getSecondManagedRunner: {} {} {} {}", managedRunners.size(), this.marketId, this.marketName, Generic.objectToString(managedRunner.getRunnerId()));
+            logger.error("wrong list size in getSecondManagedRunner: {} {} {} {}", managedRunners.size(), this.marketId, this.marketName, Generic.lazyObjectToString(managedRunner.getRunnerId()));
             returnValue = null;
         }
         return returnValue;
@@ -666,8 +675,10 @@ public class ManagedMarket
     }
 
     public synchronized ManagedRunner removeRunner(@NotNull final RunnerId runnerId, @NotNull final RulesManager rulesManager) {
-        rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.removeManagedRunner, this.marketId, runnerId));
+        rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.removeManagedRunner, this.marketId, runnerId));
         @Nullable final ManagedRunner managedRunner = this.runners.remove(runnerId);
+        this.runnerExposureVersions.remove(runnerId);
+        rulesManager.marketSubscriptions.removeRunner(this.marketId, runnerId);
         if (managedRunner != null) {
             rulesManager.rulesHaveChanged.set(true);
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
@@ -685,15 +696,17 @@ public class ManagedMarket
         final boolean success;
         if (this.runners.containsKey(runnerId) || this.runners.containsValue(managedRunner)) { // already exists, nothing to be done
             final ManagedRunner existingManagedRunner = this.runners.get(runnerId);
-            logger.error("trying to add managedRunner over existing one: {} {} {} {} {}", this.marketId, this.marketName, runnerId, Generic.objectToString(existingManagedRunner), Generic.objectToString(managedRunner));
+            logger.error("trying to add managedRunner over existing one: {} {} {} {} {}", this.marketId, this.marketName, runnerId, Generic.lazyObjectToString(existingManagedRunner), Generic.lazyObjectToString(managedRunner));
             success = false;
         } else {
             managedRunner.hardSetMarketMandatoryPlace(this.mandatoryPlace, rulesManager);
             if (sendRunnerThroughStream) {
-                rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedRunner, managedRunner));
+                rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedRunner, managedRunner));
             } else { // no need to send runner through stream, most likely the entire market object will be sent
             }
             this.runners.put(runnerId, managedRunner); // runners.put needs to be before runnersOrderedList.addAll
+            this.runnerExposureVersions.remove(runnerId);
+            rulesManager.marketSubscriptions.setOddsWindow(this.marketId, runnerId, managedRunner.getMinBackOdds(), managedRunner.getMaxLayOdds());
             managedRunner.attachRunner(this.market);
 
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
@@ -714,10 +727,12 @@ public class ManagedMarket
         } else { // managedRunner does not exist, I'll generate it; this is done initially, but also later if runners are added
             returnValue = new ManagedRunner(this.marketId, runnerId, this.mandatoryPlace, this.keepAtInPlay);
             if (sendRunnerThroughStream) {
-                rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedRunner, returnValue));
+                rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedRunner, returnValue));
             } else { // no need to send runner through stream, most likely the entire market object will be sent
             }
             this.runners.put(runnerId, returnValue); // runners.put needs to be before runnersOrderedList.addAll
+            this.runnerExposureVersions.remove(runnerId);
+            rulesManager.marketSubscriptions.setOddsWindow(this.marketId, runnerId, returnValue.getMinBackOdds(), returnValue.getMaxLayOdds());
             returnValue.attachRunner(this.market);
 
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
@@ -795,7 +810,7 @@ public class ManagedMarket
                     if (runnerId != null) {
                         addRunner(runnerId, rulesManager, sendRunnerThroughStream); // only adds if doesn't exist
                     } else {
-                        logger.error("null runnerId for orderMarket: {}", Generic.objectToString(this.market));
+                        logger.error("null runnerId for orderMarket: {}", Generic.lazyObjectToString(this.market));
                     }
                 } // end for
             } else { // will only auto add runners on the server, and the server will send them to the client, else I end up adding them twice
@@ -840,7 +855,7 @@ public class ManagedMarket
         if (this.market != null) {
             result = this.market.getTvEUR(currencyRate);
         } else {
-            logger.error("no market present in getTotalValue for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("no market present in getTotalValue for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             result = 0d;
         }
         return result;
@@ -853,7 +868,7 @@ public class ManagedMarket
             final ManagedRunner firstRunner = runnersOrderedList.get(0);
             final ManagedRunner secondRunner = runnersOrderedList.get(1);
             if (firstRunner == null || secondRunner == null) {
-                logger.error("null runner in checkTwoWayMarketLimitsValid for: {} {} {} {}", this.marketId, this.marketName, Generic.objectToString(firstRunner), Generic.objectToString(secondRunner));
+                logger.error("null runner in checkTwoWayMarketLimitsValid for: {} {} {} {}", this.marketId, this.marketName, Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner));
                 isValid = false;
             } else {
                 final double firstBackAmountLimit = firstRunner.getBackAmountLimit(), secondBackAmountLimit = secondRunner.getBackAmountLimit(), firstLayAmountLimit = firstRunner.getLayAmountLimit(), secondLayAmountLimit = secondRunner.getLayAmountLimit();
@@ -880,14 +895,14 @@ public class ManagedMarket
                 }
             }
         } else {
-            logger.error("wrong size runnersOrderedList in checkTwoWayMarketLimitsValid for: {} {}", Generic.objectToString(runnersOrderedList), Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("wrong size runnersOrderedList in checkTwoWayMarketLimitsValid for: {} {}", Generic.lazyObjectToString(runnersOrderedList), Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             isValid = false;
         }
         return isValid;
     }
 
     private synchronized int excessMatchedExposureBalanceTwoRunnerMarket(@NotNull final ManagedRunner firstRunner, @NotNull final ManagedRunner secondRunner, @NotNull final List<Side> sidesToPlaceExposureOn, final double excessMatchedExposure,
-                                                                         @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
+                                                                         @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
         int modifications = 0;
         if (sidesToPlaceExposureOn.size() == 2) {
             @NotNull final Side firstSide = sidesToPlaceExposureOn.get(0), secondSide = sidesToPlaceExposureOn.get(1);
@@ -896,16 +911,16 @@ public class ManagedMarket
                 @NotNull final List<Double> exposuresToBePlaced = Utils.getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure);
                 final double firstExposureToBePlaced = exposuresToBePlaced.get(0), secondExposureToBePlaced = exposuresToBePlaced.get(1);
                 if (firstExposureToBePlaced <= 0d) {
-                    modifications += firstRunner.cancelUnmatchedAmounts(-firstExposureToBePlaced, 0d, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                    modifications += firstRunner.cancelUnmatchedAmounts(-firstExposureToBePlaced, 0d, rescriptTransport, reason) > 0d ? 1 : 0;
                 } else {
-                    if (firstRunner.placeOrder(firstSide, firstExposureToBePlaced - totalTempExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, true, reason) > 0d) {
+                    if (firstRunner.placeOrder(firstSide, firstExposureToBePlaced - totalTempExposure, existingFunds, rescriptTransport, speedLimit, true, reason) > 0d) {
                         modifications++;
                     }
                 }
                 if (secondExposureToBePlaced <= 0d) {
-                    modifications += secondRunner.cancelUnmatchedAmounts(0d, -secondExposureToBePlaced, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                    modifications += secondRunner.cancelUnmatchedAmounts(0d, -secondExposureToBePlaced, rescriptTransport, reason) > 0d ? 1 : 0;
                 } else {
-                    if (secondRunner.placeOrder(secondSide, secondExposureToBePlaced - totalTempExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, true, reason) > 0d) {
+                    if (secondRunner.placeOrder(secondSide, secondExposureToBePlaced - totalTempExposure, existingFunds, rescriptTransport, speedLimit, true, reason) > 0d) {
                         modifications++;
                     }
                 }
@@ -913,55 +928,55 @@ public class ManagedMarket
                 @NotNull final List<Double> exposuresToBePlaced = Utils.getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure);
                 final double firstExposureToBePlaced = exposuresToBePlaced.get(0), secondExposureToBePlaced = exposuresToBePlaced.get(1);
                 if (firstExposureToBePlaced <= 0d) {
-                    modifications += firstRunner.cancelUnmatchedAmounts(0d, -firstExposureToBePlaced, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                    modifications += firstRunner.cancelUnmatchedAmounts(0d, -firstExposureToBePlaced, rescriptTransport, reason) > 0d ? 1 : 0;
                 } else {
-                    if (firstRunner.placeOrder(firstSide, firstExposureToBePlaced - totalTempExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, true, reason) > 0d) {
+                    if (firstRunner.placeOrder(firstSide, firstExposureToBePlaced - totalTempExposure, existingFunds, rescriptTransport, speedLimit, true, reason) > 0d) {
                         modifications++;
                     }
                 }
                 if (secondExposureToBePlaced <= 0d) {
-                    modifications += secondRunner.cancelUnmatchedAmounts(-secondExposureToBePlaced, 0d, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                    modifications += secondRunner.cancelUnmatchedAmounts(-secondExposureToBePlaced, 0d, rescriptTransport, reason) > 0d ? 1 : 0;
                 } else {
-                    if (secondRunner.placeOrder(secondSide, secondExposureToBePlaced - totalTempExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, true, reason) > 0d) {
+                    if (secondRunner.placeOrder(secondSide, secondExposureToBePlaced - totalTempExposure, existingFunds, rescriptTransport, speedLimit, true, reason) > 0d) {
                         modifications++;
                     }
                 }
             } else {
-                logger.error("bogus sides for excessMatchedExposureBalanceTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), excessMatchedExposure,
+                logger.error("bogus sides for excessMatchedExposureBalanceTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), excessMatchedExposure,
                              reason);
             }
         } else {
-            logger.error("bogus sideList for excessMatchedExposureBalanceTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), excessMatchedExposure,
+            logger.error("bogus sideList for excessMatchedExposureBalanceTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), excessMatchedExposure,
                          reason);
         }
         return modifications;
     }
 
     private synchronized int removeExposureBalanceTwoRunnerMarket(@NotNull final ManagedRunner firstRunner, @NotNull final ManagedRunner secondRunner, @NotNull final List<Side> sidesToPlaceExposureOn, final double excessMatchedExposure,
-                                                                  @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
+                                                                  @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
         int modifications = 0;
         if (sidesToPlaceExposureOn.size() == 2) {
             @NotNull final Side firstSide = sidesToPlaceExposureOn.get(0), secondSide = sidesToPlaceExposureOn.get(1);
 //            final double totalTempExposure = firstRunner.totalTempExposure() + secondRunner.totalTempExposure();
             if ((firstSide == Side.B && secondSide == Side.L) || (firstSide == Side.L && secondSide == Side.B)) {
-                modifications += SharedStatics.orderCache.cancelUnmatched(firstRunner.getMarketId(), firstRunner.getRunnerId(), secondSide, firstRunner, sendPostRequestRescriptMethod, "removeExposureBalanceTwoRunnerMarket");
-                modifications += SharedStatics.orderCache.cancelUnmatched(secondRunner.getMarketId(), secondRunner.getRunnerId(), firstSide, secondRunner, sendPostRequestRescriptMethod, "removeExposureBalanceTwoRunnerMarket");
-                modifications += excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, reason);
+                modifications += SharedStatics.orderCache.cancelUnmatched(firstRunner.getMarketId(), firstRunner.getRunnerId(), secondSide, firstRunner, rescriptTransport, "removeExposureBalanceTwoRunnerMarket");
+                modifications += SharedStatics.orderCache.cancelUnmatched(secondRunner.getMarketId(), secondRunner.getRunnerId(), firstSide, secondRunner, rescriptTransport, "removeExposureBalanceTwoRunnerMarket");
+                modifications += excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure, existingFunds, rescriptTransport, speedLimit, reason);
 //            } else if (firstSide == Side.L && secondSide == Side.B) {
-//                modifications += SharedStatics.orderCache.cancelUnmatched(firstRunner.getMarketId(), firstRunner.getRunnerId(), secondSide, firstRunner, sendPostRequestRescriptMethod, "removeExposureBalanceTwoRunnerMarket");
-//                modifications += SharedStatics.orderCache.cancelUnmatched(secondRunner.getMarketId(), secondRunner.getRunnerId(), firstSide, secondRunner, sendPostRequestRescriptMethod, "removeExposureBalanceTwoRunnerMarket");
-//                modifications += excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, reason);
+//                modifications += SharedStatics.orderCache.cancelUnmatched(firstRunner.getMarketId(), firstRunner.getRunnerId(), secondSide, firstRunner, rescriptTransport, "removeExposureBalanceTwoRunnerMarket");
+//                modifications += SharedStatics.orderCache.cancelUnmatched(secondRunner.getMarketId(), secondRunner.getRunnerId(), firstSide, secondRunner, rescriptTransport, "removeExposureBalanceTwoRunnerMarket");
+//                modifications += excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure, existingFunds, rescriptTransport, speedLimit, reason);
             } else {
-                logger.error("bogus sides for balanceTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), excessMatchedExposure, reason);
+                logger.error("bogus sides for balanceTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), excessMatchedExposure, reason);
             }
         } else {
-            logger.error("bogus sideList for balanceTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), excessMatchedExposure, reason);
+            logger.error("bogus sideList for balanceTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), excessMatchedExposure, reason);
         }
         return modifications;
     }
 
     private synchronized int placeExposureOnTwoRunnerMarket(@NotNull final ManagedRunner firstRunner, @NotNull final ManagedRunner secondRunner, @NotNull final List<Side> sidesToPlaceExposureOn, final double availableLimit,
-                                                            @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
+                                                            @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
         int modifications = 0;
         if (availableLimit > 0d) {
             if (sidesToPlaceExposureOn.size() == 2) {
@@ -974,13 +989,13 @@ public class ManagedMarket
 //                    logger.info("BL availableLimit={} firstExposureToBePlaced={} secondExposureToBePlaced={}", availableLimit, firstExposureToBePlaced, secondExposureToBePlaced);
 
                     if (firstExposureToBePlaced > 0d) {
-                        if (firstRunner.placeOrder(Side.B, firstExposureToBePlaced, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, reason) > 0d) {
+                        if (firstRunner.placeOrder(Side.B, firstExposureToBePlaced, existingFunds, rescriptTransport, speedLimit, false, reason) > 0d) {
                             modifications++;
                         }
                     } else { // nothing to place
                     }
                     if (secondExposureToBePlaced > 0d) {
-                        if (secondRunner.placeOrder(Side.L, secondExposureToBePlaced, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, reason) > 0d) {
+                        if (secondRunner.placeOrder(Side.L, secondExposureToBePlaced, existingFunds, rescriptTransport, speedLimit, false, reason) > 0d) {
                             modifications++;
                         }
                     } else { // nothing to place
@@ -992,22 +1007,22 @@ public class ManagedMarket
 //                    logger.info("LB availableLimit={} firstExposureToBePlaced={} secondExposureToBePlaced={}", availableLimit, firstExposureToBePlaced, secondExposureToBePlaced);
 
                     if (firstExposureToBePlaced > 0d) {
-                        if (firstRunner.placeOrder(Side.L, firstExposureToBePlaced, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, reason) > 0d) {
+                        if (firstRunner.placeOrder(Side.L, firstExposureToBePlaced, existingFunds, rescriptTransport, speedLimit, false, reason) > 0d) {
                             modifications++;
                         }
                     } else { // nothing to place
                     }
                     if (secondExposureToBePlaced > 0d) {
-                        if (secondRunner.placeOrder(Side.B, secondExposureToBePlaced, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, reason) > 0d) {
+                        if (secondRunner.placeOrder(Side.B, secondExposureToBePlaced, existingFunds, rescriptTransport, speedLimit, false, reason) > 0d) {
                             modifications++;
                         }
                     } else { // nothing to place
                     }
                 } else {
-                    logger.error("bogus sides for placeExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), availableLimit, reason);
+                    logger.error("bogus sides for placeExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), availableLimit, reason);
                 }
             } else {
-                logger.error("bogus sideList for placeExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), availableLimit, reason);
+                logger.error("bogus sideList for placeExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), availableLimit, reason);
             }
         } else { // normal, nothing to do
         }
@@ -1015,7 +1030,7 @@ public class ManagedMarket
     }
 
     private synchronized int cancelExposureOnTwoRunnerMarket(@NotNull final ManagedRunner firstRunner, @NotNull final ManagedRunner secondRunner, @NotNull final List<Side> sidesWithExcessExposure, final double availableLimit,
-                                                             @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+                                                             @NotNull final RescriptTransport rescriptTransport, final String reason) {
         int modifications = 0;
         if (availableLimit < 0d) {
             if (sidesWithExcessExposure.size() == 2) {
@@ -1024,41 +1039,41 @@ public class ManagedMarket
                     @NotNull final List<Double> exposuresToBePlaced = Utils.getExposureToBePlacedForTwoWayMarket(firstRunner, secondRunner, sidesWithExcessExposure, availableLimit);
                     final double firstExposureToBePlaced = exposuresToBePlaced.get(0), secondExposureToBePlaced = exposuresToBePlaced.get(1);
                     if (firstExposureToBePlaced < 0d) {
-                        modifications += firstRunner.cancelUnmatchedAmounts(-firstExposureToBePlaced, 0d, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                        modifications += firstRunner.cancelUnmatchedAmounts(-firstExposureToBePlaced, 0d, rescriptTransport, reason) > 0d ? 1 : 0;
                     } else { // nothing to cancel
                     }
                     if (secondExposureToBePlaced < 0d) {
-                        modifications += secondRunner.cancelUnmatchedAmounts(0d, -secondExposureToBePlaced, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                        modifications += secondRunner.cancelUnmatchedAmounts(0d, -secondExposureToBePlaced, rescriptTransport, reason) > 0d ? 1 : 0;
                     } else { // nothing to cancel
                     }
                 } else if (firstSide == Side.L && secondSide == Side.B) {
                     @NotNull final List<Double> exposuresToBePlaced = Utils.getExposureToBePlacedForTwoWayMarket(firstRunner, secondRunner, sidesWithExcessExposure, availableLimit);
                     final double firstExposureToBePlaced = exposuresToBePlaced.get(0), secondExposureToBePlaced = exposuresToBePlaced.get(1);
                     if (firstExposureToBePlaced < 0d) {
-                        modifications += firstRunner.cancelUnmatchedAmounts(0d, -firstExposureToBePlaced, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                        modifications += firstRunner.cancelUnmatchedAmounts(0d, -firstExposureToBePlaced, rescriptTransport, reason) > 0d ? 1 : 0;
                     } else { // nothing to cancel
                     }
                     if (secondExposureToBePlaced < 0d) {
-                        modifications += secondRunner.cancelUnmatchedAmounts(-secondExposureToBePlaced, 0d, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
+                        modifications += secondRunner.cancelUnmatchedAmounts(-secondExposureToBePlaced, 0d, rescriptTransport, reason) > 0d ? 1 : 0;
                     } else { // nothing to cancel
                     }
                 } else {
-                    logger.error("bogus sides for cancelExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesWithExcessExposure), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), availableLimit, reason);
+                    logger.error("bogus sides for cancelExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesWithExcessExposure), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), availableLimit, reason);
                 }
             } else {
-                logger.error("bogus sideList for cancelExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.objectToString(sidesWithExcessExposure), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner), availableLimit, reason);
+                logger.error("bogus sideList for cancelExposureOnTwoRunnerMarket: {} {} {} {} {}", Generic.lazyObjectToString(sidesWithExcessExposure), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner), availableLimit, reason);
             }
         } else { // normal, nothing to do
         }
         return modifications;
     }
 
-    synchronized int removeExposureGettingOut(@NotNull final ArrayList<? extends ManagedRunner> runnersOrderedList, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod,
+    synchronized int removeExposureGettingOut(@NotNull final ArrayList<? extends ManagedRunner> runnersOrderedList, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport,
                                               @NotNull final BetFrequencyLimit speedLimit) {
         // assumes market and runners exposure has been updated
         int modifications = 0;
         if (Double.isNaN(this.marketTotalExposureConsideringCanceled)) {
-            logger.error("marketTotalExposure not initialized in removeExposure for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("marketTotalExposure not initialized in removeExposure for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
         } else if (this.marketTotalExposureConsideringCanceled < .1) { // exposure too small, nothing to be done
         } else {
             final int size = runnersOrderedList.size();
@@ -1076,7 +1091,7 @@ public class ManagedMarket
                             layBackMatchedExposure = firstRunner.getLayMatchedExposure() + secondRunner.getBackMatchedExposure() + layBackTempExposure,
                             excessMatchedExposure = Math.abs(backLayMatchedExposure - layBackMatchedExposure);
                     if (excessMatchedExposure < .1d) {
-                        modifications += cancelAllUnmatchedBets(sendPostRequestRescriptMethod, "cancelAllUnmatchedBetsGettingOut");
+                        modifications += cancelAllUnmatchedBets(rescriptTransport, "cancelAllUnmatchedBetsGettingOut");
                     } else {
                         final List<Side> sidesToPlaceExposureOn;
                         if (layBackMatchedExposure < backLayMatchedExposure) {
@@ -1086,16 +1101,16 @@ public class ManagedMarket
                             // I'll use unmatched exposure, equal to excessMatchedExposure, on back/lay
                             sidesToPlaceExposureOn = List.of(Side.B, Side.L);
                         }
-                        modifications += removeExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit,
+                        modifications += removeExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, sidesToPlaceExposureOn, excessMatchedExposure, existingFunds, rescriptTransport, speedLimit,
                                                                               "removeExposureGettingOut balanceTwoRunner");
                     }
                 } else { // if not valid, error message and take action, with all order canceling
-                    logger.error("checkTwoWayMarketLimitsValid false in removeExposure for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
-                    modifications += cancelAllUnmatchedBets(sendPostRequestRescriptMethod, "cancelAllUnmatchedBetsGettingOutInvalidLimits");
+                    logger.error("checkTwoWayMarketLimitsValid false in removeExposure for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
+                    modifications += cancelAllUnmatchedBets(rescriptTransport, "cancelAllUnmatchedBetsGettingOutInvalidLimits");
                 }
             } else {
                 for (final ManagedRunner managedRunner : runnersOrderedList) { // only the exposure on the runner is considered, not the market wide exposure
-                    modifications += managedRunner.removeExposureGettingOut(existingFunds, sendPostRequestRescriptMethod, speedLimit, "removeExposureGettingOut multipleRunner");
+                    modifications += managedRunner.removeExposureGettingOut(existingFunds, rescriptTransport, speedLimit, "removeExposureGettingOut multipleRunner");
                 } // end for
             }
         }
@@ -1103,11 +1118,11 @@ public class ManagedMarket
     }
 
     @SuppressWarnings({"OverlyNestedMethod", "OverlyLongMethod", "OverlyComplexMethod"})
-    synchronized int useTheNewLimit(@NotNull final ArrayList<? extends ManagedRunner> runnersOrderedList, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit) {
+    synchronized int useTheNewLimit(@NotNull final ArrayList<? extends ManagedRunner> runnersOrderedList, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit) {
         // the exposure for placing new orders does not consider tempCancel orders, but for calculating if limit is breached it will consider tempCancel
         int modifications = 0;
         if (defaultExposureValuesExist()) {
-            logger.error("marketExposure not initialized in useTheNewLimit for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("marketExposure not initialized in useTheNewLimit for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
         } else {
             // variant of removeExposure, or the other way around ... major difference is that in this case the overall calculatedLimit matters, this time it's not about individual runners
 //            final long currentTime = System.currentTimeMillis();
@@ -1139,15 +1154,15 @@ public class ManagedMarket
 //                    logger.info("availableLBLimitConsideringCanceled={} LBLimit={} LBExposureConsideringCanceled={}({}+{})", availableLayBackLimitConsideringCanceled, layBackLimit, layBackExposureConsideringCanceled,
 //                                firstRunner.getLayTotalExposureConsideringCanceled(), secondRunner.getBackTotalExposureConsideringCanceled());
 
-                    modifications += cancelExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.B, Side.L), availableBackLayLimitConsideringCanceled, sendPostRequestRescriptMethod, "cancelExposure onTwoRunner BL");
-                    modifications += cancelExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.L, Side.B), availableLayBackLimitConsideringCanceled, sendPostRequestRescriptMethod, "cancelExposure onTwoRunner LB");
+                    modifications += cancelExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.B, Side.L), availableBackLayLimitConsideringCanceled, rescriptTransport, "cancelExposure onTwoRunner BL");
+                    modifications += cancelExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.L, Side.B), availableLayBackLimitConsideringCanceled, rescriptTransport, "cancelExposure onTwoRunner LB");
                     if (availableMatchedBackLayLimit <= -0.1d) {
-                        excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.L, Side.B), -availableMatchedBackLayLimit, existingFunds, sendPostRequestRescriptMethod, speedLimit,
+                        excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.L, Side.B), -availableMatchedBackLayLimit, existingFunds, rescriptTransport, speedLimit,
                                                                     "useTheNewLimit excessMatchedExposureBalanceTwoRunnerMarket LB");
                     } else { // matched exposure doesn't breach limit
                     }
                     if (availableMatchedLayBackLimit <= -0.1d) {
-                        excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.B, Side.L), -availableMatchedLayBackLimit, existingFunds, sendPostRequestRescriptMethod, speedLimit,
+                        excessMatchedExposureBalanceTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.B, Side.L), -availableMatchedLayBackLimit, existingFunds, rescriptTransport, speedLimit,
                                                                     "useTheNewLimit excessMatchedExposureBalanceTwoRunnerMarket BL");
                     } else { // matched exposure doesn't breach limit
                     }
@@ -1157,16 +1172,16 @@ public class ManagedMarket
 
 //                    if (availableBackLayLimit == 0d) { // availableLimit is 0d, nothing to be done
 //                    } else {
-                    modifications += placeExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.B, Side.L), availableBackLayLimit, existingFunds, sendPostRequestRescriptMethod, speedLimit, "placeExposure onTwoRunner BL");
+                    modifications += placeExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.B, Side.L), availableBackLayLimit, existingFunds, rescriptTransport, speedLimit, "placeExposure onTwoRunner BL");
 //                    }
 //                    if (availableLayBackLimit == 0d) { // availableLimit is 0d, nothing to be done
 //                    } else {
-                    modifications += placeExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.L, Side.B), availableLayBackLimit, existingFunds, sendPostRequestRescriptMethod, speedLimit, "placeExposure onTwoRunner LB");
+                    modifications += placeExposureOnTwoRunnerMarket(firstRunner, secondRunner, List.of(Side.L, Side.B), availableLayBackLimit, existingFunds, rescriptTransport, speedLimit, "placeExposure onTwoRunner LB");
 //                    }
 //                    }
                 } else { // if not valid, error message and take action, with all order canceling
                     logger.error("checkTwoWayMarketLimitsValid false in useTheNewLimit for: {} {}", this.marketId, this.marketName);
-                    modifications += cancelAllUnmatchedBets(sendPostRequestRescriptMethod, "invalidTwoWayLimit");
+                    modifications += cancelAllUnmatchedBets(rescriptTransport, "invalidTwoWayLimit");
                 }
             } else {
                 // new limit for lay exposure on the runner will be calculated by proportion * calculatedLimit; runner limits are also considered
@@ -1187,7 +1202,7 @@ public class ManagedMarket
                                 } else {
                                     final ManagedRunner managedRunnerToRemoveExposure = runnersOrderedList.get(j);
                                     if (managedRunnerToRemoveExposure.rawBackUnmatchedExposure() > 0d) {
-                                        excessExposureConsideringCanceled -= managedRunnerToRemoveExposure.cancelUnmatchedAmounts(excessExposureConsideringCanceled, 0d, sendPostRequestRescriptMethod,
+                                        excessExposureConsideringCanceled -= managedRunnerToRemoveExposure.cancelUnmatchedAmounts(excessExposureConsideringCanceled, 0d, rescriptTransport,
                                                                                                                                   "useTheNewLimit remove backExcessExposure");
                                     } else { // no unmatched exposure, nothing to cancel
                                     }
@@ -1195,7 +1210,7 @@ public class ManagedMarket
                             }
                             if (excessExposureConsideringCanceled >= .1d) {
                                 if (managedRunner.rawLayUnmatchedExposure() > 0d) {
-                                    managedRunner.cancelUnmatchedAmounts(0d, excessExposureConsideringCanceled, sendPostRequestRescriptMethod, "useTheNewLimit remove layExcessExposure");
+                                    managedRunner.cancelUnmatchedAmounts(0d, excessExposureConsideringCanceled, rescriptTransport, "useTheNewLimit remove layExcessExposure");
                                 } else { // no unmatched exposure, nothing to cancel
                                 }
                             } else { // no excessExposure left
@@ -1215,7 +1230,7 @@ public class ManagedMarket
                         if (excessExposure >= .1d) {
                             final double excessLayMatchedExposureOnRunner = managedRunner.getLayMatchedExposure() - managedRunner.getBackMatchedExposure();
                             if (excessLayMatchedExposureOnRunner > .1d) {
-                                excessExposure -= managedRunner.balanceMatchedAmounts(0d, Math.max(0d, Math.min(excessExposure, excessLayMatchedExposureOnRunner)), existingFunds, sendPostRequestRescriptMethod, speedLimit,
+                                excessExposure -= managedRunner.balanceMatchedAmounts(0d, Math.max(0d, Math.min(excessExposure, excessLayMatchedExposureOnRunner)), existingFunds, rescriptTransport, speedLimit,
                                                                                       "useTheNewLimit balance layExcessExposure");
                             } else { // no unmatched exposure, nothing to cancel
                             }
@@ -1226,7 +1241,7 @@ public class ManagedMarket
                                         final ManagedRunner managedRunnerToRemoveExposure = runnersOrderedList.get(j);
                                         final double excessBackMatchedExposureOnRunner = managedRunnerToRemoveExposure.getBackMatchedExposure() - managedRunnerToRemoveExposure.getLayMatchedExposure();
                                         if (excessBackMatchedExposureOnRunner > .1d) {
-                                            excessExposure -= managedRunnerToRemoveExposure.balanceMatchedAmounts(Math.max(0d, Math.min(excessExposure, excessBackMatchedExposureOnRunner)), 0d, existingFunds, sendPostRequestRescriptMethod,
+                                            excessExposure -= managedRunnerToRemoveExposure.balanceMatchedAmounts(Math.max(0d, Math.min(excessExposure, excessBackMatchedExposureOnRunner)), 0d, existingFunds, rescriptTransport,
                                                                                                                   speedLimit, "useTheNewLimit balance backExcessExposure");
                                         } else { // no unmatched exposure, nothing to cancel
                                         }
@@ -1248,7 +1263,7 @@ public class ManagedMarket
                     final double availableMarketLimit = this.calculatedLimit - this.totalBackExposureSum + managedRunner.getBackTotalExposure() - managedRunner.getLayTotalExposure();
                     final double minimumAvailableLimit = Math.min(availableLayLimit, availableMarketLimit);
                     if (minimumAvailableLimit >= .1d) {
-                        if (managedRunner.placeOrder(Side.L, minimumAvailableLimit, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, "useTheNewLimit placeLay multipleRunner") > 0d) {
+                        if (managedRunner.placeOrder(Side.L, minimumAvailableLimit, existingFunds, rescriptTransport, speedLimit, false, "useTheNewLimit placeLay multipleRunner") > 0d) {
                             modifications++;
                             layExposureWasPlaced = true;
                         } else { // no modification made, nothing to be done
@@ -1268,7 +1283,7 @@ public class ManagedMarket
                     final double extraExposureExistingOnLay = Math.min(managedRunner.getLayTotalExposure(), managedRunner.getIdealLayExposure()) - backTotalExposure;
                     final double amountToPlaceOnBack = Math.min(availableIdealBackExposure, extraExposureExistingOnLay);
                     if (amountToPlaceOnBack >= .1d) {
-                        if (managedRunner.placeOrder(Side.B, amountToPlaceOnBack, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, "useTheNewLimit placeBack multipleRunner") > 0d) {
+                        if (managedRunner.placeOrder(Side.B, amountToPlaceOnBack, existingFunds, rescriptTransport, speedLimit, false, "useTheNewLimit placeBack multipleRunner") > 0d) {
                             modifications++;
                             this.updateOverallMarketAndRunnersExposureAndSums();
                         } else { // no modification made, nothing to be done
@@ -1282,7 +1297,7 @@ public class ManagedMarket
                     final double backTotalExposure = managedRunner.getBackTotalExposure();
                     final double availableIdealBackExposure = Math.min(managedRunner.getIdealBackExposure() - backTotalExposure, availableMarketExposureForBackBetsOnThisRunner);
                     if (availableIdealBackExposure >= .1d) {
-                        if (managedRunner.placeOrder(Side.B, availableIdealBackExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, false, "useTheNewLimit placeBackMax multipleRunner") > 0d) {
+                        if (managedRunner.placeOrder(Side.B, availableIdealBackExposure, existingFunds, rescriptTransport, speedLimit, false, "useTheNewLimit placeBackMax multipleRunner") > 0d) {
                             modifications++;
                             this.updateOverallMarketAndRunnersExposureAndSums();
                         } else { // no modification made, nothing to be done
@@ -1438,10 +1453,10 @@ public class ManagedMarket
                 this.calculatedLimit = maxLimit;
             }
             if (this.calculatedLimit < 0d) {
-                logger.error("trying to set negative calculated limit {} in setCalculatedLimit for: {}", this.calculatedLimit, Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+                logger.error("trying to set negative calculated limit {} in setCalculatedLimit for: {}", this.calculatedLimit, Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
                 this.calculatedLimit = 0d;
             }
-            listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketCalculatedLimit, this.marketId, this.calculatedLimit));
+            listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMarketCalculatedLimit, this.marketId, this.calculatedLimit));
         } else { // nothing to do, won't modify the value
         }
         calculatedLimitStamp(); // I'll stamp even in the 2 cases where modified is false, because the limit has been recalculated and is valid, there's just no reason to update the value
@@ -1460,16 +1475,37 @@ public class ManagedMarket
             result = this.calculatedLimit;
         } else {
             // I calculated this before, in the managedEvent, during rulesManager loop
-            logger.error("failure to calculate limits in getCalculatedLimit for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("failure to calculate limits in getCalculatedLimit for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             result = 0d;
         }
 
         return result;
     }
 
-    private synchronized void updateRunnersExposure() {
+    private synchronized void updateRunnersExposure() { // only runners with order changes since their last calculation; all of them every fullExposureCheckPeriod, reporting any difference from the kept values
+        final long currentTime = System.currentTimeMillis();
+        final boolean isFullCheck = currentTime - this.fullExposureCheckStamp >= fullExposureCheckPeriod;
+        if (isFullCheck) {
+            this.fullExposureCheckStamp = currentTime;
+        } else { // incremental update
+        }
         for (final ManagedRunner managedRunner : this.runners.values()) {
-            managedRunner.updateExposure();
+            final RunnerId runnerId = managedRunner.getRunnerId();
+            final long exposureVersion = SharedStatics.orderCache.getExposureVersion(this.marketId, runnerId); // read before the calculation, so a change during it gets calculated next time
+            final Long calculatedVersion = this.runnerExposureVersions.get(runnerId);
+            if (calculatedVersion == null || calculatedVersion != exposureVersion) {
+                managedRunner.updateExposure();
+            } else if (isFullCheck) {
+                final Exposure keptExposure = managedRunner.copyExposure();
+                managedRunner.updateExposure();
+                final double drift = managedRunner.maxExposureDifference(keptExposure);
+                if (drift > exposureDriftTolerance) {
+                    logger.error("exposure drift {} in full check for: {} {} kept: {} calculated: {}", drift, this.marketId, runnerId, Generic.lazyObjectToString(keptExposure), Generic.lazyObjectToString(managedRunner.copyExposure()));
+                } else { // kept exposure was right
+                }
+            } else { // no order change on this runner, kept exposure is current
+            }
+            this.runnerExposureVersions.put(runnerId, exposureVersion);
         }
     }
 
@@ -1582,7 +1618,7 @@ public class ManagedMarket
         final Double exposureObject = this.runnerMatchedExposureMap.get(runnerId);
         final double exposure;
         if (exposureObject == null) {
-            logger.error("null exposure during getRunnerMatchedExposure for {} in {}", runnerId, Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("null exposure during getRunnerMatchedExposure for {} in {}", runnerId, Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             exposure = 0d;
         } else {
             exposure = exposureObject;
@@ -1600,7 +1636,7 @@ public class ManagedMarket
         final Double exposureObject = this.runnerTotalExposureMap.get(runnerId);
         final double exposure;
         if (exposureObject == null) {
-            logger.error("null exposure during getRunnerTotalExposure for {} in {}", runnerId, Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("null exposure during getRunnerTotalExposure for {} in {}", runnerId, Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             exposure = 0d;
         } else {
             exposure = exposureObject;
@@ -1635,7 +1671,7 @@ public class ManagedMarket
         final Double exposureObject = this.runnerTotalExposureConsideringCanceledMap.get(runnerId);
         final double exposure;
         if (exposureObject == null) {
-            logger.error("null exposure during getRunnerTotalExposureConsideringCanceled for {} in {}", runnerId, Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+            logger.error("null exposure during getRunnerTotalExposureConsideringCanceled for {} in {}", runnerId, Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             exposure = 0d;
         } else {
             exposure = exposureObject;
@@ -1644,17 +1680,17 @@ public class ManagedMarket
         return exposure;
     }
 
-    synchronized boolean checkCancelAllUnmatchedBetsFlag(@NotNull final Method sendPostRequestRescriptMethod) {
+    synchronized boolean checkCancelAllUnmatchedBetsFlag(@NotNull final RescriptTransport rescriptTransport) {
         // only runs if the AtomicBoolean flag is set, normally when due to an error I can't calculate exposure
         final boolean shouldRun = this.cancelAllUnmatchedBets.getAndSet(false);
         if (shouldRun) {
-            cancelAllUnmatchedBets(sendPostRequestRescriptMethod, "cancelAllUnmatchedBetsFlag");
+            cancelAllUnmatchedBets(rescriptTransport, "cancelAllUnmatchedBetsFlag");
         } else { // nothing to be done, flag for cancelling is not set
         }
         return shouldRun;
     }
 
-    private synchronized int cancelAllUnmatchedBets(@NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    private synchronized int cancelAllUnmatchedBets(@NotNull final RescriptTransport rescriptTransport, final String reason) {
         // cancel all unmatched bets, don't worry about exposure; generally used when, because of some error, I can't calculate exposure
 //        int modifications = 0;
         this.cancelAllUnmatchedBets.set(false);
@@ -1682,7 +1718,7 @@ public class ManagedMarket
 //                                if (side == null || price == null || size == null || betId == null) {
 //                                    logger.error("null order attributes in cancelAllUnmatchedBets for: {} {} {} {} {}", side, price, size, betId, Generic.objectToString(order));
 //                                } else {
-//                                    modifications += Generic.booleanToInt(order.cancelOrder(this.marketId, runnerId, sendPostRequestRescriptMethod));
+//                                    modifications += Generic.booleanToInt(order.cancelOrder(this.marketId, runnerId, rescriptTransport));
 //                                }
 //                            }
 //                        } // end for
@@ -1690,7 +1726,7 @@ public class ManagedMarket
 //                }
 //            } // end for
 //        }
-        return SharedStatics.orderCache.cancelUnmatched(this.marketId, simpleGetRunnersMap(), sendPostRequestRescriptMethod, reason);
+        return SharedStatics.orderCache.cancelUnmatched(this.marketId, simpleGetRunnersMap(), rescriptTransport, reason);
     }
 
     public synchronized boolean isSupported(@NotNull final RulesManager rulesManager) {
@@ -1702,7 +1738,7 @@ public class ManagedMarket
             final MarketDefinition marketDefinition = this.market.getMarketDefinition();
             if (marketDefinition == null) {
                 result = false;
-                logger.error("marketDefinition null while run managedMarket isSupported for: {}", Generic.objectToString(this, "currentManageThread", "parentEvent", "market"));
+                logger.error("marketDefinition null while run managedMarket isSupported for: {}", Generic.lazyObjectToString(this, "currentManageThread", "parentEvent", "market"));
             } else {
                 final MarketBettingType marketBettingType = marketDefinition.getBettingType();
                 final Integer nWinners = marketDefinition.getNumberOfWinners();
@@ -1745,24 +1781,21 @@ public class ManagedMarket
     // priority depends on the type of modification and on the amount; some urgent orders might be placed in any case
     // manage market timeStamp; recent is 5 seconds; some non urgent actions that add towards hourly order limit will only be done if non recent, and the stamp will only get updated on this branch
     // the solution I found was to set the manageMarketPeriod in the BetFrequencyLimit class, depending on how close to the hourly limit I am
-    public void manage(@NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final RulesManager rulesManager, @NotNull final Method sendPostRequestRescriptMethod,
+    public void manage(@NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final RulesManager rulesManager, @NotNull final RescriptTransport rescriptTransport,
                        @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap, final boolean emergencyExecute) {
         // intentionally not synchronized; isBeingManaged AtomicBoolean will be used to make sure it only runs once
         if (this.isEnabledMarket()) {
+            if (emergencyExecute) { // set before isBeingManaged is checked, and the pass clears isBeingManaged before checking it, so the request can't be missed by both
+                this.emergencyManageRequested.set(true);
+            } else { // no urgency
+            }
             final boolean previousValue = this.isBeingManaged.getAndSet(true);
-            if (previousValue) { // was already beingManaged, another thread manages the market right now
-                if (emergencyExecute) {
-                    if (this.currentManageThread == null) {
-                        logger.error("null currentManageThread for: {} {} {}", this.marketId, this.marketName, this.parentEventId);
-                    } else {
-                        this.currentManageThread.interruptSleep.set(true);
-                    }
-                } else { // no urgency, this thread will exit
-                }
+            if (previousValue) { // was already beingManaged, another thread manages the market right now; it doesn't wait for the manage period, so there's nothing to interrupt
+                // an emergency request is run by the current pass right after it ends, ignoring the manage period; otherwise this thread will exit
             } else { // market was not being managed, I'll manage it now
-                this.currentManageThread = new ManagedMarketThread(this, speedLimit, existingFunds, rulesManager, marketCataloguesMap, sendPostRequestRescriptMethod);
-                final Thread thread = new Thread(this.currentManageThread);
-                thread.start();
+                final boolean ignoreManagePeriod = this.emergencyManageRequested.getAndSet(false) || emergencyExecute; // this pass handles any pending emergency request
+                this.currentManageThread = new ManagedMarketThread(this, speedLimit, existingFunds, rulesManager, marketCataloguesMap, rescriptTransport, ignoreManagePeriod);
+                SharedStatics.taskExecutor.execute(TaskClass.MANAGE, this.currentManageThread);
             }
         } else { // not enabled, won't be managed
         }
@@ -1,5 +1,6 @@
 package info.fmro.shared.logic;
 
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.entities.MarketCatalogue;
 import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.stream.objects.StreamSynchronizedMap;
@@ -9,9 +10,7 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ManagedMarketThread
         implements Runnable {
@@ -24,23 +23,22 @@ public class ManagedMarketThread
     private final ExistingFunds existingFunds;
     @NotNull
     private final RulesManager rulesManager;
-    @SuppressWarnings("PackageVisibleField")
-    @NotNull
-    final AtomicBoolean interruptSleep = new AtomicBoolean();
+    private final boolean ignoreManagePeriod; // emergency manage, runs right away
     @NotNull
     private final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap;
     @NotNull
-    private final Method sendPostRequestRescriptMethod;
+    private final RescriptTransport rescriptTransport;
 
     @SuppressWarnings("ConstructorWithTooManyParameters")
     ManagedMarketThread(@NotNull final ManagedMarket managedMarket, @NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final RulesManager rulesManager,
-                        @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap, @NotNull final Method sendPostRequestRescriptMethod) {
+                        @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap, @NotNull final RescriptTransport rescriptTransport, final boolean ignoreManagePeriod) {
         this.managedMarket = managedMarket;
         this.speedLimit = speedLimit;
         this.existingFunds = existingFunds;
         this.rulesManager = rulesManager;
         this.marketCataloguesMap = marketCataloguesMap;
-        this.sendPostRequestRescriptMethod = sendPostRequestRescriptMethod;
+        this.rescriptTransport = rescriptTransport;
+        this.ignoreManagePeriod = ignoreManagePeriod;
     }
 
     @SuppressWarnings("OverlyNestedMethod")
@@ -54,17 +52,20 @@ public class ManagedMarketThread
                 this.rulesManager.calculateMarketLimits(this.existingFunds, this.marketCataloguesMap);
             }
             final long speedLimitPeriod = this.speedLimit.getManageMarketPeriod(this.managedMarket.simpleGetCalculatedLimit(), this.existingFunds);
-            final long timeToSleep = speedLimitPeriod - timeSinceLastManageMarketStamp;
+            final long timeToWait = speedLimitPeriod - timeSinceLastManageMarketStamp;
             logger.debug("manage enabled: {} timeSinceLastManage:{}s speedLimit:{}s", this.managedMarket.marketId, Generic.millisecondsToSecondsString(timeSinceLastManageMarketStamp), Generic.millisecondsToSecondsString(speedLimitPeriod));
-            Generic.threadSleepSegmented(timeToSleep, 100L, SharedStatics.mustStop, this.interruptSleep);
 
             if (SharedStatics.mustStop.get()) { // program exiting, nothing to be done
+            } else if (timeToWait > 0L && !this.ignoreManagePeriod) { // too early; scheduled again for the end of the manage period, instead of sleeping on this thread
+                final long requestStamp = this.managedMarket.lastCheckMarketRequestStamp.get();
+                this.rulesManager.marketsToCheck.put(this.managedMarket.marketId, requestStamp > 0L ? requestStamp : startTime, startTime + timeToWait);
             } else {
                 final long timeManageHasStarted = System.currentTimeMillis();
                 this.managedMarket.calculateExposure(this.rulesManager);
                 this.managedMarket.manageMarketStamp(timeManageHasStarted);
+                this.rulesManager.marketSubscriptions.subscribe(this.managedMarket, this.rulesManager.markets); // refreshed on every pass, as the runners can change without going through the setters
                 if (this.managedMarket.isSupported(this.rulesManager)) {
-                    if (this.managedMarket.checkCancelAllUnmatchedBetsFlag(this.sendPostRequestRescriptMethod)) {
+                    if (this.managedMarket.checkCancelAllUnmatchedBetsFlag(this.rescriptTransport)) {
                         // all unmatched bets have been canceled already, not much more to be done
                         logger.info("manage cancelAllUnmatchedBetsFlag: {} {}", this.managedMarket.marketId, this.managedMarket.simpleGetMarketName());
                     } else {
@@ -72,7 +73,7 @@ public class ManagedMarketThread
                         @NotNull final ArrayList<ManagedRunner> runnersList = this.managedMarket.simpleGetRunners();
                         for (final ManagedRunner runner : runnersList) {
                             // removes orders that can be moved to better odds, hardToReachOrders, and unmatched orders at worse odds than limit
-                            exposureHasBeenModified += runner.cancelBetsAtTooGoodOrTooBadOdds(this.existingFunds.currencyRate, this.sendPostRequestRescriptMethod);
+                            exposureHasBeenModified += runner.cancelBetsAtTooGoodOrTooBadOdds(this.existingFunds.currencyRate, this.rescriptTransport);
                         }
                         if (exposureHasBeenModified > 0) {
                             this.managedMarket.calculateExposure(this.rulesManager);
@@ -83,10 +84,10 @@ public class ManagedMarketThread
                         if (this.managedMarket.isMarketLiveOrAlmostLive(this.rulesManager.marketsToCheck) && !this.managedMarket.isKeepAtInPlay()) {
                             SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.INFO, "managedMarket isLiveOrAlmostLive: {} {} {}", this.managedMarket.marketId, this.managedMarket.simpleGetMarketName(), runnersOrderedList.size());
                             //noinspection UnusedAssignment
-                            exposureHasBeenModified += this.managedMarket.removeExposureGettingOut(runnersOrderedList, this.existingFunds, this.sendPostRequestRescriptMethod, this.speedLimit);
+                            exposureHasBeenModified += this.managedMarket.removeExposureGettingOut(runnersOrderedList, this.existingFunds, this.rescriptTransport, this.speedLimit);
                         } else {
                             for (final ManagedRunner runner : runnersList) {
-                                if (runner.checkRunnerLimits(this.existingFunds, this.sendPostRequestRescriptMethod, this.speedLimit) > 0d) {
+                                if (runner.checkRunnerLimits(this.existingFunds, this.rescriptTransport, this.speedLimit) > 0d) {
                                     exposureHasBeenModified++;
                                 } else { // no modification made
                                 }
@@ -97,7 +98,7 @@ public class ManagedMarketThread
                             }
 
                             //noinspection UnusedAssignment
-                            exposureHasBeenModified += this.managedMarket.useTheNewLimit(runnersOrderedList, this.existingFunds, this.sendPostRequestRescriptMethod, this.speedLimit);
+                            exposureHasBeenModified += this.managedMarket.useTheNewLimit(runnersOrderedList, this.existingFunds, this.rescriptTransport, this.speedLimit);
                         }
                     }
                 } else { // for not supported I can't calculate the limit
@@ -106,12 +107,16 @@ public class ManagedMarketThread
                 this.managedMarket.lastCheckMarketRequestStamp.remove(timeManageHasStarted);
                 final long existingCheckMarketRequestStamp = this.managedMarket.lastCheckMarketRequestStamp.get();
                 if (existingCheckMarketRequestStamp > 0L) {
-                    this.rulesManager.marketsToCheck.put(this.managedMarket.marketId, existingCheckMarketRequestStamp);
+                    this.rulesManager.marketsToCheck.put(this.managedMarket.marketId, existingCheckMarketRequestStamp, timeManageHasStarted + speedLimitPeriod);
                 } else { // no need to recheck the managedMarket now
                 }
             }
         } else { // exposure can't be calculated, nothing to be done, log messages have been printed already
         }
         this.managedMarket.isBeingManaged.set(false);
+        if (this.managedMarket.emergencyManageRequested.getAndSet(false) && !SharedStatics.mustStop.get()) { // requested while this pass was running; starts right away, without waiting for the manage period
+            this.managedMarket.manage(this.speedLimit, this.existingFunds, this.rulesManager, this.rescriptTransport, this.marketCataloguesMap, true);
+        } else { // no emergency request
+        }
     }
 }
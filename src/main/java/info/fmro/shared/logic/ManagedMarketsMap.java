@@ -41,7 +41,7 @@ public class ManagedMarketsMap
     private void readObject(@NotNull final java.io.ObjectInputStream in)
             throws IOException, ClassNotFoundException {
         in.defaultReadObject();
-        logger.error("readObject invoked for ManagedMarketsMap; this should never happen, the fields with this class should always be transient: {}", Generic.objectToString(this));
+        logger.error("readObject invoked for ManagedMarketsMap; this should never happen, the fields with this class should always be transient: {}", Generic.lazyObjectToString(this));
         this.parentEvent = null;
     }
 //    private ManagedMarketsMap(final int initialSize, final String eventId) {
@@ -59,7 +59,7 @@ public class ManagedMarketsMap
         } else {
             this.isInitialized = true; // in the beginning, to avoid cycle
             if (this.parentEvent == null) {
-                logger.error("null parentEvent during initializeMap for: {}", Generic.objectToString(this));
+                logger.error("null parentEvent during initializeMap for: {}", Generic.lazyObjectToString(this));
             } else {
                 final String eventId = this.parentEvent.getId();
                 for (@NotNull final Map.Entry<String, ManagedMarket> entry : markets.entrySetCopy()) {
@@ -2,6 +2,7 @@ package info.fmro.shared.logic;
 
 import com.google.common.math.DoubleMath;
 import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.enums.PrefSide;
 import info.fmro.shared.enums.ProgramName;
 import info.fmro.shared.enums.RulesManagerModificationCommand;
@@ -11,6 +12,7 @@ import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.stream.cache.OrdersList;
 import info.fmro.shared.stream.cache.market.Market;
 import info.fmro.shared.stream.cache.market.MarketRunner;
+import info.fmro.shared.stream.cache.market.MarketRunnerSnapshot;
 import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.stream.objects.SerializableObjectModification;
@@ -19,12 +21,12 @@ import info.fmro.shared.utility.Generic;
 import info.fmro.shared.utility.LogLevel;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.TreeMap;
@@ -151,7 +153,7 @@ public class ManagedRunner
             }
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
 
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setRunnerMandatoryPlace, this.marketId, this.runnerId, this.mandatoryPlace.get()));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setRunnerMandatoryPlace, this.marketId, this.runnerId, this.mandatoryPlace.get()));
         }
     }
 
@@ -181,7 +183,7 @@ public class ManagedRunner
             }
             rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
 
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setRunnerPrefSide, this.marketId, this.runnerId, this.prefSide));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setRunnerPrefSide, this.marketId, this.runnerId, this.prefSide));
         }
     }
 
@@ -201,12 +203,12 @@ public class ManagedRunner
             if (market == null) { // this actually happens in the client
                 if (ProgramName.CLIENT == SharedStatics.programName.get()) { // this actually happens in client
                 } else {
-                    logger.error("null market in attachRunner for: {} {}", this.marketId, Generic.objectToString(this.runnerId)); // I'll just print the error message; this error shouldn't happen and I don't think it's properly fixable
+                    logger.error("null market in attachRunner for: {} {}", this.marketId, Generic.lazyObjectToString(this.runnerId)); // I'll just print the error message; this error shouldn't happen and I don't think it's properly fixable
                 }
             } else {
                 this.marketRunner = market.getMarketRunner(this.runnerId);
                 if (this.marketRunner == null) {
-                    logger.error("no marketRunner found in attachRunner for: {} {}", Generic.objectToString(this), Generic.objectToString(market));
+                    logger.error("no marketRunner found in attachRunner for: {} {}", Generic.lazyObjectToString(this), Generic.lazyObjectToString(market));
                 }
             }
         } else { // I already have the marketRunner, nothing to be done
@@ -223,7 +225,7 @@ public class ManagedRunner
         SharedStatics.orderCache.updateExposure(this);
     }
 
-    synchronized double checkRunnerLimits(@NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit) {
+    synchronized double checkRunnerLimits(@NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit) {
         // check the back/lay exposure limits for the runner, to make sure there's no error
         double exposureCanceledAndBalanced = 0d;
 //        getOrderMarketRunner(orderCache); // updates the orderMarketRunner
@@ -242,13 +244,13 @@ public class ManagedRunner
             final double backMatchedExposure = this.getBackMatchedExposure(), layMatchedExposure = this.getLayMatchedExposure();
             final double backExcessMatchedExposure = Math.max(0d, backMatchedExposure - this.idealBackExposure), layExcessMatchedExposure = Math.max(0d, layMatchedExposure - this.idealLayExposure);
 //            if (this.orderMarketRunner != null) {
-            exposureCanceledAndBalanced += cancelUnmatchedAmounts(backExcessExposureConsideringCanceled, layExcessExposureConsideringCanceled, sendPostRequestRescriptMethod, "checkRunnerLimits cancelUnmatched") > 0d ? 1 : 0;
+            exposureCanceledAndBalanced += cancelUnmatchedAmounts(backExcessExposureConsideringCanceled, layExcessExposureConsideringCanceled, rescriptTransport, "checkRunnerLimits cancelUnmatched") > 0d ? 1 : 0;
 //            } else { // orderMarketRunner is null if no orders exist on the runner yet
 //            }
             if (backExcessMatchedExposure >= .1d || layExcessMatchedExposure >= .1d) {
                 logger.error("matched exposure has breached the limit back:{}->{} lay:{}->{} for runner: {} {}", this.idealBackExposure, backMatchedExposure, this.idealLayExposure, layMatchedExposure, this.getMarketId(), this.getRunnerId());
 //                if (this.orderMarketRunner != null) {
-                exposureCanceledAndBalanced += this.balanceMatchedAmounts(backExcessMatchedExposure, layExcessMatchedExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, "checkRunnerLimits balanceMatched");
+                exposureCanceledAndBalanced += this.balanceMatchedAmounts(backExcessMatchedExposure, layExcessMatchedExposure, existingFunds, rescriptTransport, speedLimit, "checkRunnerLimits balanceMatched");
 //                } else { // orderMarketRunner is null if no orders exist on the runner yet
 //                }
             } else { // matched amounts don't break the limits, nothing to be done
@@ -275,7 +277,7 @@ public class ManagedRunner
         return exposureCanceledAndBalanced;
     }
 
-    synchronized int removeExposureGettingOut(@NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
+    synchronized int removeExposureGettingOut(@NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit, final String reason) {
         // check the back/lay exposure limits for the runner, to make sure there's no error
         int exposureHasBeenModified = 0;
 //        getOrderMarketRunner(orderCache); // updates the orderMarketRunner
@@ -285,32 +287,32 @@ public class ManagedRunner
 
             // by using "- rawBackTempExposure() - rawLayTempExposure()" on the balanceMatchedAmounts I take the most conservative approach, to avoid placing unnecessary orders
             if (Math.abs(backMatchedExcessExposure) < .1d) {
-                exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), this, sendPostRequestRescriptMethod, reason);
+                exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), this, rescriptTransport, reason);
             } else if (backMatchedExcessExposure >= .1d) {
-                exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), Side.B, this, sendPostRequestRescriptMethod, reason);
-                final double exposureLeftUntilIStartToCancel = SharedStatics.orderCache.cancelUnmatchedExceptExcessOnTheOtherSide(getMarketId(), getRunnerId(), Side.L, backMatchedExcessExposure, this, sendPostRequestRescriptMethod, reason);
+                exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), Side.B, this, rescriptTransport, reason);
+                final double exposureLeftUntilIStartToCancel = SharedStatics.orderCache.cancelUnmatchedExceptExcessOnTheOtherSide(getMarketId(), getRunnerId(), Side.L, backMatchedExcessExposure, this, rescriptTransport, reason);
                 if (exposureLeftUntilIStartToCancel == 0d) {
                     exposureHasBeenModified++;
                 } else { // no modification was made
                 }
 
                 if (exposureLeftUntilIStartToCancel >= .1d) {
-                    if (balanceMatchedAmounts(exposureLeftUntilIStartToCancel - rawTempExposure, 0d, existingFunds, sendPostRequestRescriptMethod, speedLimit, reason) > 0d) {
+                    if (balanceMatchedAmounts(exposureLeftUntilIStartToCancel - rawTempExposure, 0d, existingFunds, rescriptTransport, speedLimit, reason) > 0d) {
                         exposureHasBeenModified++;
                     } else { // no modification made
                     }
                 } else { // problem solved, no more adjustments needed
                 }
             } else { // layMatchedExcessExposure >= .1d
-                exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), Side.L, this, sendPostRequestRescriptMethod, reason);
-                final double exposureLeftUntilIStartToCancel = SharedStatics.orderCache.cancelUnmatchedExceptExcessOnTheOtherSide(getMarketId(), getRunnerId(), Side.B, -backMatchedExcessExposure, this, sendPostRequestRescriptMethod, reason);
+                exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), Side.L, this, rescriptTransport, reason);
+                final double exposureLeftUntilIStartToCancel = SharedStatics.orderCache.cancelUnmatchedExceptExcessOnTheOtherSide(getMarketId(), getRunnerId(), Side.B, -backMatchedExcessExposure, this, rescriptTransport, reason);
                 if (exposureLeftUntilIStartToCancel == 0d) {
                     exposureHasBeenModified++;
                 } else { // no modification was made
                 }
 
                 if (exposureLeftUntilIStartToCancel >= .1d) {
-                    if (this.balanceMatchedAmounts(0d, exposureLeftUntilIStartToCancel - rawTempExposure, existingFunds, sendPostRequestRescriptMethod, speedLimit, reason) > 0d) {
+                    if (this.balanceMatchedAmounts(0d, exposureLeftUntilIStartToCancel - rawTempExposure, existingFunds, rescriptTransport, speedLimit, reason) > 0d) {
                         exposureHasBeenModified++;
                     } else { // no modification made
                     }
@@ -323,7 +325,7 @@ public class ManagedRunner
         return exposureHasBeenModified;
     }
 
-    synchronized int cancelBetsAtTooGoodOrTooBadOdds(@NotNull final AtomicDouble currencyRate, @NotNull final Method sendPostRequestRescriptMethod) {
+    synchronized int cancelBetsAtTooGoodOrTooBadOdds(@NotNull final AtomicDouble currencyRate, @NotNull final RescriptTransport rescriptTransport) {
         // example for back:
 //        1.01--
 //        1.02--
@@ -339,7 +341,7 @@ public class ManagedRunner
         this.getMarketRunner(); // updates the marketRunner
         if (isActive()) {
             if (this.marketRunner == null) {
-                logger.error("trying to calculateOdds with null marketRunner for: {}", Generic.objectToString(this));
+                logger.error("trying to calculateOdds with null marketRunner for: {}", Generic.lazyObjectToString(this));
             } else {
                 final boolean mandatory = isMandatoryPlace();
                 // back
@@ -352,14 +354,14 @@ public class ManagedRunner
                 if (backBestOddsWhereICanMoveAmountsToBetterOdds == 0d) { // nothing to be done
                 } else {
                     exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatchedAtWorseOdds(this.marketId, this.runnerId, Side.B, backBestOddsWhereICanMoveAmountsToBetterOdds, backMandatoryPlaceAmounts, this,
-                                                                                                   sendPostRequestRescriptMethod, true, 60_000L, "ICanMoveAmountsToBetterOdds");
+                                                                                                   rescriptTransport, true, 60_000L, "ICanMoveAmountsToBetterOdds");
                 }
                 final double minWorstOdds = mandatory ? Formulas.getNextOddsUp(this.minBackOdds, Side.B) : 1d;
                 final double worstOddsThatAreGettingCanceledBack = Formulas.getWorstOddsThatCantBeReached(this.marketId, this.runnerId, Side.B, unmatchedBackAmounts, availableLayAmounts, false, false,
                                                                                                           true, minWorstOdds);
                 if (worstOddsThatAreGettingCanceledBack == 0d) { // nothing to be done
                 } else {
-                    exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatchedTooGoodOdds(this.marketId, this.runnerId, Side.B, worstOddsThatAreGettingCanceledBack, this, sendPostRequestRescriptMethod, 10_000L,
+                    exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatchedTooGoodOdds(this.marketId, this.runnerId, Side.B, worstOddsThatAreGettingCanceledBack, this, rescriptTransport, 10_000L,
                                                                                                    "cancelBetsAtTooGoodOrTooBadOdds unmatchedTooGood");
                 }
 
@@ -373,25 +375,25 @@ public class ManagedRunner
                 if (layBestOddsWhereICanMoveAmountsToBetterOdds == 0d) { // nothing to be done
                 } else {
                     exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatchedAtWorseOdds(this.marketId, this.runnerId, Side.L, layBestOddsWhereICanMoveAmountsToBetterOdds, layMandatoryPlaceAmounts, this,
-                                                                                                   sendPostRequestRescriptMethod, true, 60_000L, "ICanMoveAmountsToBetterOdds");
+                                                                                                   rescriptTransport, true, 60_000L, "ICanMoveAmountsToBetterOdds");
                 }
                 final double maxWorstOdds = mandatory ? Formulas.getNextOddsDown(this.maxLayOdds, Side.L) : 1_001d;
                 final double worstOddsThatAreGettingCanceledLay = Formulas.getWorstOddsThatCantBeReached(this.marketId, this.runnerId, Side.L, unmatchedLayAmounts, availableBackAmounts, false, false,
                                                                                                          true, maxWorstOdds);
                 if (worstOddsThatAreGettingCanceledLay == 0d) { // nothing to be done
                 } else {
-                    exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatchedTooGoodOdds(this.marketId, this.runnerId, Side.L, worstOddsThatAreGettingCanceledLay, this, sendPostRequestRescriptMethod, 10_000L,
+                    exposureHasBeenModified += SharedStatics.orderCache.cancelUnmatchedTooGoodOdds(this.marketId, this.runnerId, Side.L, worstOddsThatAreGettingCanceledLay, this, rescriptTransport, 10_000L,
                                                                                                    "cancelBetsAtTooGoodOrTooBadOdds unmatchedTooGood");
                 }
 
                 // send order to cancel all back bets at worse odds than to be used ones / send order to cancel all back bets
                 exposureHasBeenModified += Formulas.oddsAreUsable(this.minBackOdds) ?
-                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.B, this.minBackOdds, this, sendPostRequestRescriptMethod, "worseOddsThanToBeUsed") :
-                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.B, this, sendPostRequestRescriptMethod, "unusableOddsToBeUsed");
+                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.B, this.minBackOdds, this, rescriptTransport, "worseOddsThanToBeUsed") :
+                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.B, this, rescriptTransport, "unusableOddsToBeUsed");
                 // send order to cancel all lay bets at worse odds than to be used ones / send order to cancel all lay bets
                 exposureHasBeenModified += Formulas.oddsAreUsable(this.maxLayOdds) ?
-                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.L, this.maxLayOdds, this, sendPostRequestRescriptMethod, "worseOddsThanToBeUsed") :
-                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.L, this, sendPostRequestRescriptMethod, "unusableOddsToBeUsed");
+                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.L, this.maxLayOdds, this, rescriptTransport, "worseOddsThanToBeUsed") :
+                                           SharedStatics.orderCache.cancelUnmatched(this.marketId, this.runnerId, Side.L, this, rescriptTransport, "unusableOddsToBeUsed");
             }
         } else { // won't manage inactive runners
         }
@@ -407,7 +409,7 @@ public class ManagedRunner
         if (this.getMarketRunner() != null) {
             result = this.marketRunner.getTvEUR(currencyRate);
         } else {
-            logger.error("no marketRunner present in getTotalValue for: {}", Generic.objectToString(this));
+            logger.error("no marketRunner present in getTotalValue for: {}", Generic.lazyObjectToString(this));
             result = 0d;
         }
         return result;
@@ -418,7 +420,7 @@ public class ManagedRunner
         if (this.getMarketRunner() != null) {
             result = this.marketRunner.getLtp();
         } else {
-            logger.error("no marketRunner present in getLastTradedPrice for: {}", Generic.objectToString(this));
+            logger.error("no marketRunner present in getLastTradedPrice for: {}", Generic.lazyObjectToString(this));
             result = 0d;
         }
         return result;
@@ -513,7 +515,7 @@ public class ManagedRunner
             }
         } else {
             modified = false;
-            logger.error("trying to set negative proportionOfMarketLimitPerRunner {} for: {} {}", newValue, this.proportionOfMarketLimitPerRunner, Generic.objectToString(this));
+            logger.error("trying to set negative proportionOfMarketLimitPerRunner {} for: {} {}", newValue, this.proportionOfMarketLimitPerRunner, Generic.lazyObjectToString(this));
         }
 //        if (modified) {
 //            marketsToCheck.put(this.marketId, System.currentTimeMillis());
@@ -548,7 +550,7 @@ public class ManagedRunner
                 newExposureAssigned = 0d; // limit in this case should be 0d, so it is reached
             }
         } else {
-            logger.error("trying to set negative idealBackExposure {} for: {} {}", newIdealBackExposure, this.idealBackExposure, Generic.objectToString(this));
+            logger.error("trying to set negative idealBackExposure {} for: {} {}", newIdealBackExposure, this.idealBackExposure, Generic.lazyObjectToString(this));
             this.idealBackExposure = 0d;
             newExposureAssigned = 0d; // in case of this strange error, I'll also return 0d, as I don't want to further try to setIdealBackExposure
         }
@@ -577,7 +579,7 @@ public class ManagedRunner
                 newExposureAssigned = 0d; // limit in this case should be 0d, so it is reached
             }
         } else {
-            logger.error("trying to set negative idealLayExposure {} for: {} {}", newIdealLayExposure, this.idealLayExposure, Generic.objectToString(this));
+            logger.error("trying to set negative idealLayExposure {} for: {} {}", newIdealLayExposure, this.idealLayExposure, Generic.lazyObjectToString(this));
             this.idealLayExposure = 0d;
             newExposureAssigned = 0d; // in case of this strange error, I'll also return 0d, as I don't want to further try to setIdealLayExposure
         }
@@ -617,7 +619,7 @@ public class ManagedRunner
             if (this.backAmountLimit == newBackAmountLimit) {
                 modified = false;
             } else if (newBackAmountLimit < 0d) {
-                logger.error("trying to set negative backLimit {} for: {}", newBackAmountLimit, Generic.objectToString(this));
+                logger.error("trying to set negative backLimit {} for: {}", newBackAmountLimit, Generic.lazyObjectToString(this));
                 modified = false;
             } else {
                 this.backAmountLimit = newBackAmountLimit;
@@ -625,8 +627,9 @@ public class ManagedRunner
             }
 
         if (modified) {
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setBackAmountLimit, this.marketId, this.runnerId, this.backAmountLimit));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setBackAmountLimit, this.marketId, this.runnerId, this.backAmountLimit));
             rulesManager.rulesHaveChanged.set(true);
+            rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
         }
         return modified;
     }
@@ -639,7 +642,7 @@ public class ManagedRunner
             if (this.layAmountLimit == newLayAmountLimit) {
                 modified = false;
             } else if (newLayAmountLimit < 0d) {
-                logger.error("trying to set negative layLimit {} for: {}", newLayAmountLimit, Generic.objectToString(this));
+                logger.error("trying to set negative layLimit {} for: {}", newLayAmountLimit, Generic.lazyObjectToString(this));
                 modified = false;
             } else {
                 this.layAmountLimit = newLayAmountLimit;
@@ -647,8 +650,9 @@ public class ManagedRunner
             }
 
         if (modified) {
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setLayAmountLimit, this.marketId, this.runnerId, this.layAmountLimit));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setLayAmountLimit, this.marketId, this.runnerId, this.layAmountLimit));
             rulesManager.rulesHaveChanged.set(true);
+            rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
         }
         return modified;
     }
@@ -666,8 +670,10 @@ public class ManagedRunner
             }
 
         if (modified) {
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMinBackOdds, this.marketId, this.runnerId, this.minBackOdds));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMinBackOdds, this.marketId, this.runnerId, this.minBackOdds));
             rulesManager.rulesHaveChanged.set(true);
+            rulesManager.marketSubscriptions.setOddsWindow(this.marketId, this.runnerId, this.minBackOdds, this.maxLayOdds);
+            rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
         }
         return modified;
     }
@@ -685,13 +691,15 @@ public class ManagedRunner
             }
 
         if (modified) {
-            rulesManager.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.setMaxLayOdds, this.marketId, this.runnerId, this.maxLayOdds));
+            rulesManager.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.setMaxLayOdds, this.marketId, this.runnerId, this.maxLayOdds));
             rulesManager.rulesHaveChanged.set(true);
+            rulesManager.marketSubscriptions.setOddsWindow(this.marketId, this.runnerId, this.minBackOdds, this.maxLayOdds);
+            rulesManager.marketsToCheck.put(this.marketId, System.currentTimeMillis());
         }
         return modified;
     }
 
-    synchronized double placeOrder(final Side side, final double exposureIWantToPlace, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit,
+    synchronized double placeOrder(final Side side, final double exposureIWantToPlace, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit,
                                    final boolean isBalancingToRemoveExistingExposure, final String reason) {
         final double price;
         if (side == Side.B) {
@@ -699,13 +707,13 @@ public class ManagedRunner
         } else if (side == Side.L) {
             price = this.maxLayOdds;
         } else {
-            logger.error("unknown side {} {} during placeOrder for: {} {}", side, exposureIWantToPlace, reason, Generic.objectToString(this));
+            logger.error("unknown side {} {} during placeOrder for: {} {}", side, exposureIWantToPlace, reason, Generic.lazyObjectToString(this));
             price = 0d;
         }
-        return placeOrder(side, price, exposureIWantToPlace, existingFunds, sendPostRequestRescriptMethod, speedLimit, isBalancingToRemoveExistingExposure, reason);
+        return placeOrder(side, price, exposureIWantToPlace, existingFunds, rescriptTransport, speedLimit, isBalancingToRemoveExistingExposure, reason);
     }
 
-    private synchronized double placeOrder(final Side side, final double price, final double exposureIWantToPlace, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod,
+    private synchronized double placeOrder(final Side side, final double price, final double exposureIWantToPlace, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport,
                                            @NotNull final BetFrequencyLimit speedLimit, final boolean isBalancingToRemoveExistingExposure, final String reason) {
         // exposure.setBackTotalExposure(matchedBackExposure + unmatchedBackExposure + tempBackExposure);
         // exposure.setLayTotalExposure(matchedLayExposure + unmatchedLayExposure + tempLayExposure);
@@ -718,11 +726,12 @@ public class ManagedRunner
             @NotNull final TreeMap<Double, Double> myUnmatchedAmounts;
             @NotNull final AmountsNavigableMap availableAmountsOnOppositeSide;
             final double exposureICanPlace, oddsThatCanBeUsed;
-            final double totalValueMatched = this.marketRunner.getTvEUR(existingFunds.currencyRate);
+            final MarketRunnerSnapshot runnerSnapshot = this.marketRunner.getSnapshot(); // total value and available amounts come from the same change, read without locks
+            final double totalValueMatched = runnerSnapshot.getTvEUR(existingFunds.currencyRate);
 
             if (side == Side.B) {
                 myUnmatchedAmountsUnparsed = SharedStatics.orderCache.getUnmatchedBackAmounts(this.marketId, this.runnerId);
-                availableAmountsOnOppositeSideUnparsed = this.marketRunner.getAvailableToLay(existingFunds.currencyRate);
+                availableAmountsOnOppositeSideUnparsed = runnerSnapshot.getAvailableToLay(existingFunds.currencyRate);
                 myUnmatchedAmounts = myUnmatchedAmountsUnparsed.getOrdersThatAppearInRecords(availableAmountsOnOppositeSideUnparsed);
                 availableAmountsOnOppositeSide = new AmountsNavigableMap(availableAmountsOnOppositeSideUnparsed.getOrders(), side.opposite());
 //                final double backTotalExposure = this.getBackMatchedExposure() + this.getBackUnmatchedExposure() + this.getBackTempExposure();
@@ -732,7 +741,7 @@ public class ManagedRunner
                 oddsThatCanBeUsed = Formulas.getBestOddsThatCanBeUsed(this.marketId, this.runnerId, side, exposureICanPlace, myUnmatchedAmounts, availableAmountsOnOppositeSide, totalValueMatched);
             } else if (side == Side.L) {
                 myUnmatchedAmountsUnparsed = SharedStatics.orderCache.getUnmatchedLayAmounts(this.marketId, this.runnerId);
-                availableAmountsOnOppositeSideUnparsed = this.marketRunner.getAvailableToBack(existingFunds.currencyRate);
+                availableAmountsOnOppositeSideUnparsed = runnerSnapshot.getAvailableToBack(existingFunds.currencyRate);
                 myUnmatchedAmounts = myUnmatchedAmountsUnparsed.getOrdersThatAppearInRecords(availableAmountsOnOppositeSideUnparsed);
                 availableAmountsOnOppositeSide = new AmountsNavigableMap(availableAmountsOnOppositeSideUnparsed.getOrders(), side.opposite());
 //                final double layTotalExposure = this.getLayMatchedExposure() + this.getLayUnmatchedExposure() + this.getLayTempExposure();
@@ -741,7 +750,7 @@ public class ManagedRunner
                 exposureICanPlace = Math.min(availableLayExposure, exposureIWantToPlace);
                 oddsThatCanBeUsed = Formulas.getBestOddsThatCanBeUsed(this.marketId, this.runnerId, side, exposureICanPlace, myUnmatchedAmounts, availableAmountsOnOppositeSide, totalValueMatched);
             } else {
-                logger.error("unknown side {} {} {} during placeOrder for: {}", side, price, exposureIWantToPlace, Generic.objectToString(this));
+                logger.error("unknown side {} {} {} during placeOrder for: {}", side, price, exposureIWantToPlace, Generic.lazyObjectToString(this));
                 oddsThatCanBeUsed = 0d;
                 exposureICanPlace = 0d;
             }
@@ -749,11 +758,11 @@ public class ManagedRunner
                 final boolean oddsAreAcceptable = Formulas.oddsAreAcceptable(side, price, oddsThatCanBeUsed);
                 if (oddsAreAcceptable) {
                     final double sizeICanPlace = Formulas.calculateBetSizeFromExposure(side, oddsThatCanBeUsed, exposureICanPlace);
-                    sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, oddsThatCanBeUsed, sizeICanPlace, side == Side.B ? this.idealBackExposure : this.idealLayExposure, this, sendPostRequestRescriptMethod,
+                    sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, oddsThatCanBeUsed, sizeICanPlace, side == Side.B ? this.idealBackExposure : this.idealLayExposure, this, rescriptTransport,
                                                                         speedLimit, existingFunds, this.marketKeepAtInPlay, isBalancingToRemoveExistingExposure, reason);
                 } else if (isMandatoryPlace()) {
                     final double sizeICanPlace = Formulas.calculateBetSizeFromExposure(side, price, exposureICanPlace);
-                    sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, price, sizeICanPlace, side == Side.B ? this.idealBackExposure : this.idealLayExposure, this, sendPostRequestRescriptMethod, speedLimit,
+                    sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, price, sizeICanPlace, side == Side.B ? this.idealBackExposure : this.idealLayExposure, this, rescriptTransport, speedLimit,
                                                                         existingFunds, this.marketKeepAtInPlay, isBalancingToRemoveExistingExposure, reason);
                 } else {
                     SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.INFO, "unacceptable {} odds {} vs limit:{} in managedRunner.placeOrder for: {} {} {}", side, oddsThatCanBeUsed, price, this.marketId, this.runnerId, exposureIWantToPlace);
@@ -775,28 +784,28 @@ public class ManagedRunner
         return sizePlaced;
     }
 
-    synchronized double removeExposureIncludingMatched(final double backExcessExposure, final double layExcessExposure, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod,
+    synchronized double removeExposureIncludingMatched(final double backExcessExposure, final double layExcessExposure, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport,
                                                        @NotNull final BetFrequencyLimit speedLimit,
                                                        final String reason) {
         double exposureCanceledAndBalanced = 0d;
         final double backUnmatchedExposureToBeCanceled = Math.min(backExcessExposure, this.getBackUnmatchedExposure()), layUnmatchedExposureToBeCanceled = Math.min(layExcessExposure, this.getLayUnmatchedExposure());
-        exposureCanceledAndBalanced += cancelUnmatchedAmounts(backUnmatchedExposureToBeCanceled, layUnmatchedExposureToBeCanceled, sendPostRequestRescriptMethod, reason) > 0d ? 1 : 0;
-        exposureCanceledAndBalanced += balanceMatchedAmounts(backExcessExposure - backUnmatchedExposureToBeCanceled, layExcessExposure - layUnmatchedExposureToBeCanceled, existingFunds, sendPostRequestRescriptMethod,
+        exposureCanceledAndBalanced += cancelUnmatchedAmounts(backUnmatchedExposureToBeCanceled, layUnmatchedExposureToBeCanceled, rescriptTransport, reason) > 0d ? 1 : 0;
+        exposureCanceledAndBalanced += balanceMatchedAmounts(backExcessExposure - backUnmatchedExposureToBeCanceled, layExcessExposure - layUnmatchedExposureToBeCanceled, existingFunds, rescriptTransport,
                                                              speedLimit, reason);
         return exposureCanceledAndBalanced;
     }
 
-    synchronized double cancelUnmatchedAmounts(final double backExcessExposure, final double layExcessExposure, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
-        return SharedStatics.orderCache.cancelUnmatchedAmounts(this.marketId, this.runnerId, backExcessExposure, layExcessExposure, this, sendPostRequestRescriptMethod, reason);
+    synchronized double cancelUnmatchedAmounts(final double backExcessExposure, final double layExcessExposure, @NotNull final RescriptTransport rescriptTransport, final String reason) {
+        return SharedStatics.orderCache.cancelUnmatchedAmounts(this.marketId, this.runnerId, backExcessExposure, layExcessExposure, this, rescriptTransport, reason);
     }
 
     @SuppressWarnings("OverlyLongMethod")
-    synchronized double balanceMatchedAmounts(final double backExcessExposure, final double layExcessExposure, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod,
+    synchronized double balanceMatchedAmounts(final double backExcessExposure, final double layExcessExposure, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport,
                                               @NotNull final BetFrequencyLimit speedLimit, final String reason) {
         double balancedExposure = 0d;
         if (backExcessExposure > 0d && layExcessExposure > 0d) {
             logger.error("excessExposure on both back and lay present in balanceMatchedAmounts; this can't be fixed by the program without intentionally breaking the limits, which might be dangerous: {} {} {} {}", backExcessExposure, layExcessExposure,
-                         reason, Generic.objectToString(this));
+                         reason, Generic.lazyObjectToString(this));
         } else { // no error, nothing to print; the method will continue in both cases
         }
         // will balance the runner, only in the limit of the exposure already existing on the other side
@@ -809,13 +818,16 @@ public class ManagedRunner
         final double backExposureDeficit = backExcessExposure > 0d ? layExcessExposure - backExcessExposure - this.getBackUnmatchedExposure() - this.getLayPotentialUnmatchedProfit() :
                                            layExcessExposure - this.getBackUnmatchedExposure() - this.getLayPotentialUnmatchedProfit();
         if (backExposureDeficit > 0d && layExposureDeficit > 0d) {
-            logger.error("STRANGE exposureToPlace on both back and lay present in balanceMatchedAmounts: {} {} {} {}", backExposureDeficit, layExposureDeficit, reason, Generic.objectToString(this));
+            logger.error("STRANGE exposureToPlace on both back and lay present in balanceMatchedAmounts: {} {} {} {}", backExposureDeficit, layExposureDeficit, reason, Generic.lazyObjectToString(this));
         } else { // formula: exposureDeficit = price * size
             final double totalValueMatched;
+            @Nullable final MarketRunnerSnapshot runnerSnapshot; // total value and available amounts come from the same change, read without locks
 
             if (layExposureDeficit >= .1d || backExposureDeficit >= .1d) {
-                totalValueMatched = this.marketRunner.getTvEUR(existingFunds.currencyRate);
+                runnerSnapshot = this.marketRunner.getSnapshot();
+                totalValueMatched = runnerSnapshot.getTvEUR(existingFunds.currencyRate);
             } else {
+                runnerSnapshot = null;
                 totalValueMatched = 0d;
             }
 
@@ -823,7 +835,7 @@ public class ManagedRunner
                 if (Formulas.oddsAreUsable(this.minBackOdds)) {
                     @NotNull final Side side = Side.B;
                     @NotNull final OrdersList myUnmatchedAmountsUnparsed = SharedStatics.orderCache.getUnmatchedBackAmounts(this.marketId, this.runnerId);
-                    @NotNull final OrdersList availableAmountsOnOppositeSideUnparsed = this.marketRunner.getAvailableToLay(existingFunds.currencyRate);
+                    @NotNull final OrdersList availableAmountsOnOppositeSideUnparsed = runnerSnapshot.getAvailableToLay(existingFunds.currencyRate);
                     @NotNull final TreeMap<Double, Double> myUnmatchedAmounts = myUnmatchedAmountsUnparsed.getOrdersThatAppearInRecords(availableAmountsOnOppositeSideUnparsed);
                     @NotNull final AmountsNavigableMap availableAmountsOnOppositeSide = new AmountsNavigableMap(availableAmountsOnOppositeSideUnparsed.getOrders(), side.opposite());
                     availableAmountsOnOppositeSide.removeOwnAmountsFromAvailableTreeMap(myUnmatchedAmounts, reason);
@@ -850,7 +862,7 @@ public class ManagedRunner
                             SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.INFO, "unacceptable {} odds {} vs limit {}, will place the bet anyway in balanceMatchedAmounts for: {} {} {}", side, finalPriceToUse, this.minBackOdds,
                                                                     this.marketId, this.runnerId, exposureICanPlace);
                         }
-                        final double sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, finalPriceToUse, finalSizeToUse, this.idealBackExposure, this, sendPostRequestRescriptMethod, speedLimit,
+                        final double sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, finalPriceToUse, finalSizeToUse, this.idealBackExposure, this, rescriptTransport, speedLimit,
                                                                                          existingFunds, this.marketKeepAtInPlay, true, reason);
                         balancedExposure += Formulas.calculateProfit(side, finalPriceToUse, finalSizeToUse);
                     } else { // nothing to place
@@ -864,7 +876,7 @@ public class ManagedRunner
                 if (Formulas.oddsAreUsable(this.minBackOdds)) {
                     final Side side = Side.L;
                     @NotNull final OrdersList myUnmatchedAmountsUnparsed = SharedStatics.orderCache.getUnmatchedLayAmounts(this.marketId, this.runnerId);
-                    @NotNull final OrdersList availableAmountsOnOppositeSideUnparsed = this.marketRunner.getAvailableToBack(existingFunds.currencyRate);
+                    @NotNull final OrdersList availableAmountsOnOppositeSideUnparsed = runnerSnapshot.getAvailableToBack(existingFunds.currencyRate);
                     @NotNull final TreeMap<Double, Double> myUnmatchedAmounts = myUnmatchedAmountsUnparsed.getOrdersThatAppearInRecords(availableAmountsOnOppositeSideUnparsed);
                     @NotNull final AmountsNavigableMap availableAmountsOnOppositeSide = new AmountsNavigableMap(availableAmountsOnOppositeSideUnparsed.getOrders(), side.opposite());
                     availableAmountsOnOppositeSide.removeOwnAmountsFromAvailableTreeMap(myUnmatchedAmounts, reason);
@@ -891,7 +903,7 @@ public class ManagedRunner
                             SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.INFO, "unacceptable {} odds {} vs limit {}, will place the bet anyway in balanceMatchedAmounts for: {} {} {}", side, finalPriceToUse, this.maxLayOdds,
                                                                     this.marketId, this.runnerId, exposureICanPlace);
                         }
-                        final double sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, finalPriceToUse, finalSizeToUse, this.idealLayExposure, this, sendPostRequestRescriptMethod, speedLimit,
+                        final double sizePlaced = SharedStatics.orderCache.addPlaceOrder(this.marketId, this.runnerId, side, finalPriceToUse, finalSizeToUse, this.idealLayExposure, this, rescriptTransport, speedLimit,
                                                                                          existingFunds, this.marketKeepAtInPlay, true, reason);
                         balancedExposure += Formulas.calculateProfit(side, finalPriceToUse, finalSizeToUse);
                     } else { // nothing to place
@@ -930,20 +942,20 @@ public class ManagedRunner
 //    }
 
 //    @SuppressWarnings("unused")
-//    synchronized int cancelUnmatched(@NotNull final Method sendPostRequestRescriptMethod) { // cancel all unmatched orders
+//    synchronized int cancelUnmatched(@NotNull final RescriptTransport rescriptTransport) { // cancel all unmatched orders
 ////        final OrderMarketRunner localOrderMarketRunner = this.getOrderMarketRunner();
-//        return SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), sendPostRequestRescriptMethod);
+//        return SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), rescriptTransport);
 //    }
 
-//    synchronized int cancelUnmatched(final Side sideToCancel, @NotNull final Method sendPostRequestRescriptMethod) { // cancel all unmatched orders on that side
+//    synchronized int cancelUnmatched(final Side sideToCancel, @NotNull final RescriptTransport rescriptTransport) { // cancel all unmatched orders on that side
 ////        final OrderMarketRunner localOrderMarketRunner = this.getOrderMarketRunner();
-//        return SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), sideToCancel, sendPostRequestRescriptMethod);
+//        return SharedStatics.orderCache.cancelUnmatched(getMarketId(), getRunnerId(), sideToCancel, rescriptTransport);
 //    }
 //
 //    @SuppressWarnings("unused")
-//    synchronized int cancelUnmatched(final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final Method sendPostRequestRescriptMethod) {
+//    synchronized int cancelUnmatched(final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final RescriptTransport rescriptTransport) {
 ////        final OrderMarketRunner localOrderMarketRunner = this.getOrderMarketRunner();
-//        return SharedStatics.orderCache.cancelUnmatchedAtWorseOdds(getMarketId(), getRunnerId(), sideToCancel, worstNotCanceledOdds, sendPostRequestRescriptMethod);
+//        return SharedStatics.orderCache.cancelUnmatchedAtWorseOdds(getMarketId(), getRunnerId(), sideToCancel, worstNotCanceledOdds, rescriptTransport);
 //    }
 
     public synchronized int update(final double newMinBackOdds, final double newMaxLayOdds, final double newBackAmountLimit, final double newLayAmountLimit, @NotNull final RulesManager rulesManager) {
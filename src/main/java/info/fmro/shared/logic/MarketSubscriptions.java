@@ -0,0 +1,105 @@
+package info.fmro.shared.logic;
+
+import info.fmro.shared.stream.cache.market.MarketRunner;
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.RunnerChange;
+import info.fmro.shared.stream.objects.RunnerId;
+import info.fmro.shared.utility.SynchronizedMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// the odds windows of the managed runners, per market; in reactive management, a market change only schedules a manage pass if it touches a price inside its market's windows
+// lock free reads, as it's checked on the stream threads for every market change; the writes are synchronized, and a subscribe doesn't overwrite a window change, or a removal, made while it read the runners
+public class MarketSubscriptions {
+    private final ConcurrentHashMap<String, ConcurrentHashMap<RunnerId, OddsWindow>> subscriptions = new ConcurrentHashMap<>(32); // marketId, runnerId, window
+    private long version; // increased by every write, so subscribe can tell if the windows changed while it read the runners
+
+    public record OddsWindow(double minBackOdds, double maxLayOdds) {
+    }
+
+    public synchronized void setOddsWindow(@NotNull final String marketId, @NotNull final RunnerId runnerId, final double minBackOdds, final double maxLayOdds) {
+        this.subscriptions.computeIfAbsent(marketId, k -> new ConcurrentHashMap<>(4)).put(runnerId, new OddsWindow(minBackOdds, maxLayOdds));
+        this.version++;
+    }
+
+    public void subscribe(@NotNull final ManagedMarket managedMarket, @NotNull final SynchronizedMap<String, ManagedMarket> managedMarkets) { // replaces the windows of the market, unless it's no longer managed
+        boolean done = false;
+        while (!done) {
+            final long startVersion = getVersion();
+            // the runners are read without this lock, as they call setOddsWindow while holding their own
+            final ConcurrentHashMap<RunnerId, OddsWindow> windows = new ConcurrentHashMap<>(4);
+            for (final ManagedRunner managedRunner : managedMarket.simpleGetRunners()) {
+                windows.put(managedRunner.getRunnerId(), new OddsWindow(managedRunner.getMinBackOdds(), managedRunner.getMaxLayOdds()));
+            }
+            synchronized (this) {
+                if (this.version != startVersion) { // windows changed while the runners were read, they'll be read again
+                } else {
+                    if (managedMarkets.get(managedMarket.marketId) == managedMarket) { // removeManagedMarket removes the market from the map before removing its subscription, which waits for this lock
+                        this.subscriptions.put(managedMarket.marketId, windows);
+                        this.version++;
+                    } else { // removed, or replaced, while being managed; not subscribed again
+                    }
+                    done = true;
+                }
+            }
+        }
+    }
+
+    private synchronized long getVersion() {
+        return this.version;
+    }
+
+    public synchronized void removeRunner(@NotNull final String marketId, @NotNull final RunnerId runnerId) {
+        final Map<RunnerId, OddsWindow> windows = this.subscriptions.get(marketId);
+        if (windows == null) { // market not subscribed, nothing to be done
+        } else {
+            windows.remove(runnerId);
+        }
+        this.version++;
+    }
+
+    public synchronized void removeMarket(@NotNull final String marketId) {
+        this.subscriptions.remove(marketId);
+        this.version++;
+    }
+
+    public synchronized void clear() {
+        this.subscriptions.clear();
+        this.version++;
+    }
+
+    public boolean isSubscribed(@NotNull final String marketId) {
+        return this.subscriptions.containsKey(marketId);
+    }
+
+    public int size() {
+        return this.subscriptions.size();
+    }
+
+    public boolean isRelevant(@NotNull final MarketChange marketChange) { // for a managed market; a market without subscription, not managed yet since it was added, is always relevant
+        final boolean relevant;
+        final Map<RunnerId, OddsWindow> windows = this.subscriptions.get(marketChange.getId());
+        if (windows == null || Boolean.TRUE.equals(marketChange.getImg()) || marketChange.getMarketDefinition() != null) {
+            relevant = true;
+        } else {
+            final List<RunnerChange> runnerChanges = marketChange.getRc();
+            boolean touched = false;
+            if (runnerChanges == null) { // no runner changes
+            } else {
+                for (final RunnerChange runnerChange : runnerChanges) {
+                    final OddsWindow window = runnerChange == null ? null : windows.get(new RunnerId(runnerChange.getId(), runnerChange.getHc()));
+                    if (window != null && MarketRunner.deltaTouchesOdds(runnerChange, window.minBackOdds(), window.maxLayOdds())) {
+                        touched = true;
+                        break;
+                    } else { // runner not managed, or change outside its window
+                    }
+                }
+            }
+            relevant = touched;
+        }
+        return relevant;
+    }
+}
@@ -2,29 +2,56 @@ package info.fmro.shared.logic;
 
 import info.fmro.shared.utility.Generic;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+// markets waiting to be managed, ordered by the time they are due; one entry per market, repeated requests are coalesced
+// a market is due at its request time, but not before its eligible time, which is the end of its manage period, so markets are only handed out when they can actually be managed
+// marketsToCheckExist means that a market is due; checks scheduled for later set it when hasDue or a poll finds them due, and pollDue(maxWaitMillis, mustStop) waits for them
 public class MarketsToCheckMap
         implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(MarketsToCheckMap.class);
     @Serial
-    private static final long serialVersionUID = 6317328995427024742L;
-    private final TreeMap<String, Long> map = new TreeMap<>(); // marketId, timeStamp of request to check
+    private static final long serialVersionUID = -2604718359273467263L;
+    private final HashMap<String, ScheduledCheck> map = new HashMap<>(8); // marketId, the scheduled check
+    private transient TreeSet<ScheduledCheck> dueOrder = createDueOrder(); // same checks as the map; the comparator is not serializable, so it's rebuilt in readObject
+    private final HashMap<String, Long> eligibleTimes = new HashMap<>(8); // marketId, time before which the market won't be due
     @SuppressWarnings("FieldNotUsedInToString")
     private final AtomicBoolean marketsToCheckExist;
 
+    private record ScheduledCheck(@NotNull String marketId, long requestStamp, long dueTime)
+            implements Serializable {
+    }
+
     MarketsToCheckMap(@NotNull final AtomicBoolean marketsToCheckExist) {
         this.marketsToCheckExist = marketsToCheckExist;
     }
 
+    @Serial
+    private void readObject(@NotNull final java.io.ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.dueOrder = createDueOrder();
+        this.dueOrder.addAll(this.map.values());
+    }
+
+    @NotNull
+    private static TreeSet<ScheduledCheck> createDueOrder() {
+        return new TreeSet<>(Comparator.comparingLong(ScheduledCheck::dueTime).thenComparing(ScheduledCheck::marketId));
+    }
+
     public synchronized boolean contains(@NotNull final String marketId) {
         return this.map.containsKey(marketId);
     }
@@ -38,24 +65,61 @@ public class MarketsToCheckMap
     }
 
     public synchronized boolean put(@NotNull final String marketId, @NotNull final Long value) {
+        final Long eligibleTime = this.eligibleTimes.get(marketId);
+        return schedule(marketId, value, eligibleTime == null ? value : Math.max(value, eligibleTime));
+    }
+
+    public synchronized boolean put(@NotNull final String marketId, final long value, final long eligibleTime) { // also sets the eligible time of the market
+        setEligibleTime(marketId, eligibleTime);
+        return schedule(marketId, value, Math.max(value, eligibleTime));
+    }
+
+    public synchronized void setEligibleTime(@NotNull final String marketId, final long eligibleTime) {
+        if (eligibleTime > System.currentTimeMillis()) {
+            this.eligibleTimes.put(marketId, eligibleTime);
+        } else {
+            this.eligibleTimes.remove(marketId);
+        }
+    }
+
+    private synchronized boolean schedule(@NotNull final String marketId, final long requestStamp, final long dueTime) {
         final boolean elementAdded;
-        final Long existingValue = this.map.get(marketId);
-        if (existingValue == null || existingValue < value) {
+        final ScheduledCheck existingCheck = this.map.get(marketId);
+        if (existingCheck == null) {
             elementAdded = true;
-            this.map.put(marketId, value);
-        } else { // existingValue >= value
+            addCheck(new ScheduledCheck(marketId, requestStamp, dueTime));
+        } else if (existingCheck.requestStamp() < requestStamp || existingCheck.dueTime() > dueTime) { // coalesced: newest request, earliest due time
+            elementAdded = existingCheck.requestStamp() < requestStamp;
+            this.dueOrder.remove(existingCheck);
+            addCheck(new ScheduledCheck(marketId, Math.max(existingCheck.requestStamp(), requestStamp), Math.min(existingCheck.dueTime(), dueTime)));
+        } else { // existing request is as new and due as early
             elementAdded = false;
         }
 
-        if (elementAdded) {
-            this.marketsToCheckExist.set(true);
-        } else { // nothing to be done on this branch
-        }
-
-//        logger.info("MarketsToCheckMap put {} time: {}", marketId, Generic.properTimeStamp(value));
+        updateDueFlag(System.currentTimeMillis()); // also when only the due time moved earlier
         return elementAdded;
     }
 
+    private synchronized void updateDueFlag(final long currentTime) {
+        this.marketsToCheckExist.set(isDueAt(currentTime));
+    }
+
+    private synchronized boolean isDueAt(final long currentTime) {
+        return !this.dueOrder.isEmpty() && this.dueOrder.first().dueTime() <= currentTime;
+    }
+
+    public synchronized boolean hasDue() { // also refreshes marketsToCheckExist, for checks that became due after they were scheduled
+        final boolean hasDue = isDueAt(System.currentTimeMillis());
+        this.marketsToCheckExist.set(hasDue);
+        return hasDue;
+    }
+
+    private synchronized void addCheck(@NotNull final ScheduledCheck scheduledCheck) {
+        this.map.put(scheduledCheck.marketId(), scheduledCheck);
+        this.dueOrder.add(scheduledCheck);
+        this.notifyAll(); // a waiting pollDue might have a new earliest due time
+    }
+
     public synchronized boolean isEmpty() {
         return this.map.isEmpty();
     }
@@ -64,32 +128,89 @@ public class MarketsToCheckMap
         return this.map.size();
     }
 
-    public synchronized Map.Entry<String, Long> poll() {
-        return this.map.pollFirstEntry();
+    public synchronized long getNextDueTime() { // 0L if empty
+        return this.dueOrder.isEmpty() ? 0L : this.dueOrder.first().dueTime();
+    }
+
+    @Nullable
+    public synchronized Map.Entry<String, Long> poll() { // same as pollDue; polling loops should check hasDue, not isEmpty, as markets that aren't due yet stay in the map
+        return pollDue();
+    }
+
+    @Nullable
+    public synchronized Map.Entry<String, Long> pollDue() { // the most urgent market that is due, with its request timeStamp; null if no market is due yet, getNextDueTime tells when one will be
+        return pollDueAt(System.currentTimeMillis());
+    }
+
+    @Nullable
+    private synchronized Map.Entry<String, Long> pollDueAt(final long currentTime) {
+        final Map.Entry<String, Long> result = isDueAt(currentTime) ? pollFirst(currentTime) : null;
+        updateDueFlag(currentTime);
+        return result;
+    }
+
+    @NotNull
+    private synchronized Map.Entry<String, Long> pollFirst(final long currentTime) { // dueOrder must not be empty
+        final ScheduledCheck scheduledCheck = this.dueOrder.pollFirst();
+        this.map.remove(scheduledCheck.marketId());
+        final Long eligibleTime = this.eligibleTimes.get(scheduledCheck.marketId());
+        if (eligibleTime != null && eligibleTime <= currentTime) {
+            this.eligibleTimes.remove(scheduledCheck.marketId());
+        } else { // still needed, or nothing to remove
+        }
+        return new AbstractMap.SimpleImmutableEntry<>(scheduledCheck.marketId(), scheduledCheck.requestStamp());
+    }
+
+    @Nullable
+    public synchronized Map.Entry<String, Long> pollDue(final long maxWaitMillis, @NotNull final AtomicBoolean mustStop) { // waits until a market is due, at most maxWaitMillis
+        final long endTime = System.currentTimeMillis() + maxWaitMillis;
+        long currentTime = System.currentTimeMillis();
+        Map.Entry<String, Long> result = pollDueAt(currentTime);
+        while (result == null && currentTime < endTime && !mustStop.get()) {
+            final long nextDueTime = getNextDueTime();
+            final long waitTime = nextDueTime == 0L ? endTime - currentTime : Math.min(endTime, nextDueTime) - currentTime;
+            if (waitTime > 0L) {
+                try {
+                    this.wait(waitTime);
+                } catch (InterruptedException interruptedException) {
+                    logger.error("interruptedException in MarketsToCheckMap.pollDue", interruptedException);
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            } else { // due already
+            }
+            currentTime = System.currentTimeMillis();
+            result = pollDueAt(currentTime);
+        }
+        return result;
     }
 
     public synchronized void clear() {
         this.map.clear();
+        this.dueOrder.clear();
+        this.eligibleTimes.clear();
+        this.marketsToCheckExist.set(false);
     }
 
     public synchronized boolean putAll(@NotNull final MarketsToCheckMap other) {
         int elementsAdded = 0;
-        for (@NotNull final Map.Entry<String, Long> entry : other.map.entrySet()) {
-            final String key = entry.getKey();
-            final Long value = entry.getValue();
-            if (value == null) {
-                logger.error("null value in addAll for: {} {} {}", key, value, other);
-            } else {
-                elementsAdded += Generic.booleanToInt(this.put(key, value));
-            }
+        for (@NotNull final ScheduledCheck scheduledCheck : other.getScheduledChecks()) {
+            elementsAdded += Generic.booleanToInt(this.schedule(scheduledCheck.marketId(), scheduledCheck.requestStamp(), scheduledCheck.dueTime()));
         }
+        this.eligibleTimes.putAll(other.getEligibleTimes());
 
-        final boolean elementAdded = elementsAdded > 0;
-        if (elementAdded) {
-            this.marketsToCheckExist.set(true);
-        } else { // nothing to be done on this branch
-        }
-        return elementAdded;
+        updateDueFlag(System.currentTimeMillis());
+        return elementsAdded > 0;
+    }
+
+    @NotNull
+    private synchronized TreeSet<ScheduledCheck> getScheduledChecks() {
+        return new TreeSet<>(this.dueOrder);
+    }
+
+    @NotNull
+    private synchronized HashMap<String, Long> getEligibleTimes() {
+        return new HashMap<>(this.eligibleTimes);
     }
 
     @Override
@@ -99,10 +220,10 @@ public class MarketsToCheckMap
         if (this.map.isEmpty()) { // nothing more to be appended
         } else {
             returnStringBuilder.append(" [");
-            final Iterator<Map.Entry<String, Long>> iterator = this.map.entrySet().iterator();
+            final Iterator<ScheduledCheck> iterator = this.dueOrder.iterator();
             while (iterator.hasNext()) {
-                @NotNull final Map.Entry<String, Long> entry = iterator.next();
-                returnStringBuilder.append(entry.getKey()).append(':').append(entry.getValue());
+                @NotNull final ScheduledCheck scheduledCheck = iterator.next();
+                returnStringBuilder.append(scheduledCheck.marketId()).append(':').append(scheduledCheck.requestStamp()).append(" due:").append(scheduledCheck.dueTime());
                 if (iterator.hasNext()) {
                     returnStringBuilder.append(", ");
                 }
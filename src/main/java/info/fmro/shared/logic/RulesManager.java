@@ -1,5 +1,6 @@
 package info.fmro.shared.logic;
 
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.entities.Event;
 import info.fmro.shared.entities.MarketCatalogue;
 import info.fmro.shared.enums.PrefSide;
@@ -25,7 +26,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -41,6 +41,7 @@ public class RulesManager
     @Serial
     private static final long serialVersionUID = -3496383465286913313L;
     public static final long fullCheckPeriod = Generic.MINUTE_LENGTH_MILLISECONDS;
+    public static final long reactiveFullCheckPeriod = Generic.MINUTE_LENGTH_MILLISECONDS * 10L; // in reactive management, the full check is only a safety net
     public transient ListOfQueues listOfQueues = new ListOfQueues();
     public final ManagedEventsMap events = new ManagedEventsMap(); // managedEvents are permanently stored only here
     public final SynchronizedMap<String, ManagedMarket> markets = new SynchronizedMap<>(); // managedMarkets are permanently stored only here
@@ -49,7 +50,7 @@ public class RulesManager
     public final SynchronizedSet<String> addManagedRunnerCommands = new SynchronizedSet<>();
     public transient AtomicBoolean newAddManagedRunnerCommand = new AtomicBoolean();
     public transient AtomicBoolean newOrderMarketCreated = new AtomicBoolean();
-    public transient AtomicBoolean marketsToCheckExist = new AtomicBoolean();
+    public transient AtomicBoolean marketsToCheckExist = new AtomicBoolean(); // a market in marketsToCheck is due
     public transient AtomicBoolean marketsMapModified = new AtomicBoolean();
     //    public transient AtomicLong marketsToCheckStamp = new AtomicLong();
     public transient AtomicLong addManagedMarketsForExistingOrdersStamp = new AtomicLong();
@@ -59,6 +60,8 @@ public class RulesManager
     public transient SynchronizedSet<String> marketsForOutsideCheck = new SynchronizedSet<>();
     public transient SynchronizedSet<String> eventsForOutsideCheck = new SynchronizedSet<>();
     public final MarketsToCheckMap marketsToCheck = new MarketsToCheckMap(this.marketsToCheckExist);
+    public transient AtomicBoolean reactiveManagement = new AtomicBoolean(); // if true, market price changes only schedule a manage pass when they touch the odds windows in marketSubscriptions
+    public transient MarketSubscriptions marketSubscriptions = new MarketSubscriptions();
     private transient long timeLastFullCheck;
 
     private Integer testMarker; // this variable should be the last declared and not be primitive, to attempt to have it serialized last
@@ -80,6 +83,8 @@ public class RulesManager
         this.newMarketsOrEventsForOutsideCheck = new AtomicBoolean();
         this.marketsForOutsideCheck = new SynchronizedSet<>();
         this.eventsForOutsideCheck = new SynchronizedSet<>();
+        this.reactiveManagement = new AtomicBoolean();
+        this.marketSubscriptions = new MarketSubscriptions(); // filled again as the markets are managed
 
         this.timeLastFullCheck = 0L;
     }
@@ -91,6 +96,7 @@ public class RulesManager
     public synchronized void clearCachedObjects() {
         this.events.clear();
         this.markets.clear();
+        this.marketSubscriptions.clear();
     }
 
     public synchronized boolean copyFromStream(final RulesManager other) {
@@ -104,17 +110,18 @@ public class RulesManager
     public synchronized boolean copyFrom(final RulesManager other, final boolean isReadingFromStream) {
         final boolean readSuccessful;
         if (!isReadingFromStream && (!this.events.isEmpty() || !this.markets.isEmpty())) {
-            logger.error("not empty map in RulesManager copyFrom: {}", Generic.objectToString(this));
+            logger.error("not empty map in RulesManager copyFrom: {}", Generic.lazyObjectToString(this));
             readSuccessful = false;
         } else {
             if (other == null) {
-                logger.error("null other in copyFrom for: {} {}", isReadingFromStream, Generic.objectToString(this));
+                logger.error("null other in copyFrom for: {} {}", isReadingFromStream, Generic.lazyObjectToString(this));
                 readSuccessful = false;
             } else {
 //                Generic.updateObject(this, other);
 
                 this.events.copyFrom(other.events, isReadingFromStream);
                 this.markets.clear();
+                this.marketSubscriptions.clear(); // the copied markets subscribe on their next manage pass
                 this.markets.putAll(other.markets.copy());
 
                 this.marketsToCheck.clear();
@@ -151,7 +158,7 @@ public class RulesManager
         final int nQueues = this.listOfQueues.size();
         if (nQueues == 0) { // normal case, nothing to be done
         } else {
-            logger.error("existing queues during RulesManager.copyFrom: {} {}", nQueues, Generic.objectToString(this));
+            logger.error("existing queues during RulesManager.copyFrom: {} {}", nQueues, Generic.lazyObjectToString(this));
             if (isReadingFromStream) {
                 this.listOfQueues.clear();
             } else {
@@ -293,7 +300,7 @@ public class RulesManager
     }
 
     public synchronized ManagedEvent removeManagedEvent(final String eventId, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
-        this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.removeManagedEvent, eventId));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.removeManagedEvent, eventId));
         @Nullable final ManagedEvent managedEvent = this.events.remove(eventId);
         if (managedEvent != null) {
             @NotNull final HashSet<String> marketIds = managedEvent.marketIds.clear();
@@ -312,7 +319,7 @@ public class RulesManager
                                           final @NotNull Iterable<? extends Event> addedEvents) {
         for (final Event event : addedEvents) {
             if (event == null) {
-                logger.error("null event in attachEvents for: {}", Generic.objectToString(addedEvents));
+                logger.error("null event in attachEvents for: {}", Generic.lazyObjectToString(addedEvents));
             } else {
                 final String eventId = event.getId();
                 for (final ManagedEvent managedEvent : this.events.valuesCopy()) {
@@ -376,10 +383,10 @@ public class RulesManager
         if (this.events.containsKey(eventId)) {
             final ManagedEvent existingManagedEvent = this.events.get(eventId);
             if (existingManagedEvent == null) {
-                logger.error("null managedEvent found in rulesManager for: {} {}", eventId, Generic.objectToString(this.events));
+                logger.error("null managedEvent found in rulesManager for: {} {}", eventId, Generic.lazyObjectToString(this.events));
                 removeManagedEvent(eventId, marketCataloguesMap);
                 managedEvent = new ManagedEvent(eventId, eventsMap, this);
-                this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedEvent, eventId, managedEvent));
+                this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedEvent, eventId, managedEvent));
                 this.events.put(eventId, managedEvent, true);
                 this.rulesHaveChanged.set(true);
                 if (this.eventsForOutsideCheck.add(eventId)) {
@@ -390,7 +397,7 @@ public class RulesManager
             }
         } else {
             managedEvent = new ManagedEvent(eventId, eventsMap, this);
-            this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedEvent, eventId, managedEvent));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedEvent, eventId, managedEvent));
             this.events.put(eventId, managedEvent, true);
             this.rulesHaveChanged.set(true);
             if (this.eventsForOutsideCheck.add(eventId)) {
@@ -408,13 +415,13 @@ public class RulesManager
         final boolean success;
         if (this.events.containsKey(eventId)) {
             final ManagedEvent existingManagedEvent = this.events.get(eventId);
-            logger.error("trying to add managedEvent over existing one: {} {} {}", eventId, Generic.objectToString(existingManagedEvent), Generic.objectToString(managedEvent));
+            logger.error("trying to add managedEvent over existing one: {} {} {}", eventId, Generic.lazyObjectToString(existingManagedEvent), Generic.lazyObjectToString(managedEvent));
             success = false;
         } else if (managedEvent == null) {
             logger.error("trying to add null managedEvent: {}", eventId);
             success = false;
         } else {
-            this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedEvent, eventId, managedEvent));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedEvent, eventId, managedEvent));
             this.events.put(eventId, managedEvent, true);
             this.rulesHaveChanged.set(true);
             success = true;
@@ -458,7 +465,7 @@ public class RulesManager
             } else {
                 addManagedEvent(eventId, eventsMap, marketCataloguesMap);
             }
-            this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedMarket, marketId, managedMarket));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedMarket, marketId, managedMarket));
             this.markets.put(marketId, managedMarket, true);
 //            checkMarketsAreAssociatedWithEvents();
             this.rulesHaveChanged.set(true);
@@ -493,7 +500,7 @@ public class RulesManager
                 } else {
                     addManagedEvent(eventId, eventsMap, marketCataloguesMap);
                 }
-                this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedMarket, marketId, managedMarket));
+                this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addManagedMarket, marketId, managedMarket));
                 this.markets.put(marketId, managedMarket, true);
 //            checkMarketsAreAssociatedWithEvents();
                 this.rulesHaveChanged.set(true);
@@ -531,12 +538,12 @@ public class RulesManager
         final String marketId = managedRunner.getMarketId();
         final RunnerId runnerId = managedRunner.getRunnerId();
         if (marketId == null || runnerId == null) {
-            logger.error("null ids in addManagedRunner: {} {} {}", marketId, runnerId, Generic.objectToString(managedRunner));
+            logger.error("null ids in addManagedRunner: {} {} {}", marketId, runnerId, Generic.lazyObjectToString(managedRunner));
             success = false;
         } else {
             final ManagedMarket managedMarket = this.addManagedMarket(marketId, marketCataloguesMap, eventsMap);
             if (managedMarket == null) {
-                logger.error("null managedMarket in addManagedRunner for: {} {} {}", marketId, runnerId, Generic.objectToString(managedRunner));
+                logger.error("null managedMarket in addManagedRunner for: {} {} {}", marketId, runnerId, Generic.lazyObjectToString(managedRunner));
                 success = false;
             } else {
                 success = managedMarket.addRunner(runnerId, managedRunner, this);
@@ -628,8 +635,9 @@ public class RulesManager
     }
 
     public synchronized ManagedMarket removeManagedMarket(final String marketId, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
-        this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.removeManagedMarket, marketId));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.removeManagedMarket, marketId));
         @Nullable final ManagedMarket managedMarket = this.markets.remove(marketId);
+        this.marketSubscriptions.removeMarket(marketId);
         if (managedMarket != null) {
             final ManagedEvent parentEvent = managedMarket.getParentEvent(marketCataloguesMap, this);
             if (parentEvent == null) {
@@ -718,7 +726,7 @@ public class RulesManager
 //        if (this.timeLastFullCheck <= 0) {
 //            result = 0;
 //        } else {
-        result = fullCheckPeriod - timeSinceFullRun(); // negative values are acceptable
+        result = (this.reactiveManagement.get() ? reactiveFullCheckPeriod : fullCheckPeriod) - timeSinceFullRun(); // negative values are acceptable
 //        }
         return result;
     }
@@ -766,17 +774,17 @@ public class RulesManager
 //        }
 //    }
 
-    public void manageMarket(final ManagedMarket managedMarket, @NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final Method sendPostRequestRescriptMethod,
+    public void manageMarket(final ManagedMarket managedMarket, @NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final RescriptTransport rescriptTransport,
                              @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap, final boolean emergencyExecute) {
         // intentionally not synchronized; isBeingManaged AtomicBoolean in managedMarket.manage will be used to make sure it only runs once
         if (managedMarket == null) {
-            logger.error("null managedMarket to check in RulesManager, marketsToCheck: {}", Generic.objectToString(this.marketsToCheck));
+            logger.error("null managedMarket to check in RulesManager, marketsToCheck: {}", Generic.lazyObjectToString(this.marketsToCheck));
             this.markets.removeValueAll(null);
-            this.listOfQueues.send(this.getCopy());
+            this.listOfQueues.sendIfListening(this::getCopy);
             this.rulesHaveChanged.set(true);
             this.marketsMapModified.set(true);
         } else {
-            managedMarket.manage(speedLimit, existingFunds, this, sendPostRequestRescriptMethod, marketCataloguesMap, emergencyExecute);
+            managedMarket.manage(speedLimit, existingFunds, this, rescriptTransport, marketCataloguesMap, emergencyExecute);
         }
     }
 
@@ -794,7 +802,7 @@ public class RulesManager
                 for (final String marketId : orderMarkets) {
                     logger.info("adding new managed market in addManagedMarketsForExistingOrders: {}", marketId);
                     if (marketId == null) {
-                        logger.error("null marketId in addManagedMarketsForExistingOrders for: {}", Generic.objectToString(orderMarkets));
+                        logger.error("null marketId in addManagedMarketsForExistingOrders for: {}", Generic.lazyObjectToString(orderMarkets));
                     } else {
                         addManagedMarket(marketId, marketCataloguesMap, eventsMap, false);
                     }
@@ -36,7 +36,7 @@ public class AmountsNavigableMap
 
         final Double lastKey;
         if (mapSize > 10) {
-            logger.error("amountsMapSize too big {} for: {} {}", mapSize, this.side, Generic.objectToString(this.availableAmounts));
+            logger.error("amountsMapSize too big {} for: {} {}", mapSize, this.side, Generic.lazyObjectToString(this.availableAmounts));
             lastKey = this.availableAmounts.lastKey();
         } else if (mapSize == 10) {
             lastKey = this.availableAmounts.lastKey();
@@ -44,7 +44,7 @@ public class AmountsNavigableMap
             lastKey = NOT_PRESENT;
         }
         if (lastKey == null) {
-            logger.error("null lastKey for: {} {}", this.side, Generic.objectToString(this.availableAmounts));
+            logger.error("null lastKey for: {} {}", this.side, Generic.lazyObjectToString(this.availableAmounts));
             this.worstOddsPresent = NOT_PRESENT;
         } else {
             this.worstOddsPresent = lastKey;
@@ -130,7 +130,7 @@ public class AmountsNavigableMap
             final Map.Entry<Double, Double> entry = iterator.next();
             final Double price = entry.getKey();
             if (price == null) {
-                logger.error("null price in removeOwnAmountsFromAvailableTreeMap for: {} {} {}", Generic.objectToString(this.availableAmounts), Generic.objectToString(amountsFromMyUnmatchedOrders), reason);
+                logger.error("null price in removeOwnAmountsFromAvailableTreeMap for: {} {} {}", Generic.lazyObjectToString(this.availableAmounts), Generic.lazyObjectToString(amountsFromMyUnmatchedOrders), reason);
             } else {
                 final Double availableAmount = entry.getValue();
                 final double availableAmountPrimitive = availableAmount == null ? 0d : availableAmount;
@@ -145,8 +145,8 @@ public class AmountsNavigableMap
                         } else {
                             if (reason.contains("Mandatory")) { // normal to get negative amounts, no need to print anything
                             } else {
-                                logger.error("negative amount from others {} in removeOwnAmountsFromAvailableTreeMap for {}: {} {} {} {} {}", amountFromOthers, reason, price, myAmount, availableAmount, Generic.objectToString(amountsFromMyUnmatchedOrders),
-                                             Generic.objectToString(this.availableAmounts));
+                                logger.error("negative amount from others {} in removeOwnAmountsFromAvailableTreeMap for {}: {} {} {} {} {}", amountFromOthers, reason, price, myAmount, availableAmount, Generic.lazyObjectToString(amountsFromMyUnmatchedOrders),
+                                             Generic.lazyObjectToString(this.availableAmounts));
                             }
                         }
                     } else { // no error, nothing to print
@@ -5,8 +5,11 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 @SuppressWarnings({"WeakerAccess", "ClassWithTooManyMethods", "OverlyComplexClass"})
 public class Exposure
@@ -64,6 +67,79 @@ public class Exposure
                this.layTempCancelExposure > 0d || this.backPotentialTempProfit > 0d || this.layPotentialTempProfit > 0d || this.backPotentialUnmatchedProfit > 0d || this.layPotentialUnmatchedProfit > 0d;
     }
 
+    protected synchronized void copyExposureFrom(@NotNull final Exposure source) { // used by the structural copies of subclasses
+        synchronized (source) {
+            this.backMatchedExposure = source.backMatchedExposure;
+            this.layMatchedExposure = source.layMatchedExposure;
+            this.backUnmatchedExposure = source.backUnmatchedExposure;
+            this.layUnmatchedExposure = source.layUnmatchedExposure;
+            this.backTempExposure = source.backTempExposure;
+            this.layTempExposure = source.layTempExposure;
+            this.backTempCancelExposure = source.backTempCancelExposure;
+            this.layTempCancelExposure = source.layTempCancelExposure;
+            this.backPotentialUnmatchedProfit = source.backPotentialUnmatchedProfit;
+            this.layPotentialUnmatchedProfit = source.layPotentialUnmatchedProfit;
+            this.backPotentialTempProfit = source.backPotentialTempProfit;
+            this.layPotentialTempProfit = source.layPotentialTempProfit;
+            this.timeStamp = source.timeStamp;
+        }
+    }
+
+    @NotNull
+    public synchronized Exposure copyExposure() { // only the exposure values
+        final Exposure copy = new Exposure();
+        copy.copyExposureFrom(this);
+        return copy;
+    }
+
+    public synchronized double maxExposureDifference(@NotNull final Exposure other) { // largest absolute difference of the exposure values, timeStamp excluded
+        synchronized (other) {
+            final double[] differences = {this.backMatchedExposure - other.backMatchedExposure, this.layMatchedExposure - other.layMatchedExposure, this.backUnmatchedExposure - other.backUnmatchedExposure,
+                                          this.layUnmatchedExposure - other.layUnmatchedExposure, this.backTempExposure - other.backTempExposure, this.layTempExposure - other.layTempExposure,
+                                          this.backTempCancelExposure - other.backTempCancelExposure, this.layTempCancelExposure - other.layTempCancelExposure,
+                                          this.backPotentialUnmatchedProfit - other.backPotentialUnmatchedProfit, this.layPotentialUnmatchedProfit - other.layPotentialUnmatchedProfit,
+                                          this.backPotentialTempProfit - other.backPotentialTempProfit, this.layPotentialTempProfit - other.layPotentialTempProfit};
+            double maxDifference = 0d;
+            for (final double difference : differences) {
+                maxDifference = Math.max(maxDifference, Math.abs(difference));
+            }
+            return maxDifference;
+        }
+    }
+
+    protected synchronized void writeExposureSnapshot(@NotNull final DataOutput dataOutput) // used by the snapshots of subclasses
+            throws IOException {
+        dataOutput.writeDouble(this.backMatchedExposure);
+        dataOutput.writeDouble(this.layMatchedExposure);
+        dataOutput.writeDouble(this.backUnmatchedExposure);
+        dataOutput.writeDouble(this.layUnmatchedExposure);
+        dataOutput.writeDouble(this.backTempExposure);
+        dataOutput.writeDouble(this.layTempExposure);
+        dataOutput.writeDouble(this.backTempCancelExposure);
+        dataOutput.writeDouble(this.layTempCancelExposure);
+        dataOutput.writeDouble(this.backPotentialUnmatchedProfit);
+        dataOutput.writeDouble(this.layPotentialUnmatchedProfit);
+        dataOutput.writeDouble(this.backPotentialTempProfit);
+        dataOutput.writeDouble(this.layPotentialTempProfit);
+        dataOutput.writeLong(this.timeStamp);
+    }
+
+    protected synchronized void readExposureSnapshot(@NotNull final ByteBuffer byteBuffer) {
+        this.backMatchedExposure = byteBuffer.getDouble();
+        this.layMatchedExposure = byteBuffer.getDouble();
+        this.backUnmatchedExposure = byteBuffer.getDouble();
+        this.layUnmatchedExposure = byteBuffer.getDouble();
+        this.backTempExposure = byteBuffer.getDouble();
+        this.layTempExposure = byteBuffer.getDouble();
+        this.backTempCancelExposure = byteBuffer.getDouble();
+        this.layTempCancelExposure = byteBuffer.getDouble();
+        this.backPotentialUnmatchedProfit = byteBuffer.getDouble();
+        this.layPotentialUnmatchedProfit = byteBuffer.getDouble();
+        this.backPotentialTempProfit = byteBuffer.getDouble();
+        this.layPotentialTempProfit = byteBuffer.getDouble();
+        this.timeStamp = byteBuffer.getLong();
+    }
+
 //    public synchronized void updateExposure(final Exposure source) {
 //        if (source == null) {
 //            logger.error("null source in Exposure update for: {}", Generic.objectToString(this));
@@ -48,7 +48,7 @@ public class SessionTokenObject
 
     public synchronized void copyFrom(final SessionTokenObject sessionTokenObject) {
         if (sessionTokenObject == null) {
-            logger.error("null sessionTokenObject in copyFrom for: {}", Generic.objectToString(this));
+            logger.error("null sessionTokenObject in copyFrom for: {}", Generic.lazyObjectToString(this));
         } else {
             Generic.updateObject(this, sessionTokenObject);
 
@@ -1,10 +1,13 @@
 package info.fmro.shared.objects;
 
+import info.fmro.shared.betapi.OrderBatcher;
 import info.fmro.shared.enums.ProgramName;
+import info.fmro.shared.enums.TaskClass;
 import info.fmro.shared.stream.cache.market.MarketCache;
 import info.fmro.shared.stream.cache.order.OrderCache;
 import info.fmro.shared.utility.AlreadyPrintedMap;
 import info.fmro.shared.utility.Generic;
+import info.fmro.shared.utility.TaskExecutor;
 
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -32,6 +35,8 @@ public final class SharedStatics {
     @SuppressWarnings("PublicStaticCollectionField")
     public static final LinkedBlockingQueue<Runnable> linkedBlockingQueueImportant = new LinkedBlockingQueue<>();
     public static final ThreadPoolExecutor threadPoolExecutorImportant = new ThreadPoolExecutor(64, 64, EXECUTOR_KEEP_ALIVE, TimeUnit.MILLISECONDS, linkedBlockingQueueImportant);
+    public static final TaskExecutor taskExecutor = new TaskExecutor(threadPoolExecutorImportant); // taskExecutor.useVirtualThreads() switches to a virtual thread per task, on jdk 21+
+    public static final OrderBatcher orderBatcher = new OrderBatcher(taskExecutor.forClass(TaskClass.PLACE), taskExecutor.forClass(TaskClass.CANCEL), 0L); // window can be raised to batch more instructions per request, at the cost of latency
     public static final MarketCache marketCache = new MarketCache();
     public static final OrderCache orderCache = new OrderCache();
     public static final SessionTokenObject sessionTokenObject = new SessionTokenObject();
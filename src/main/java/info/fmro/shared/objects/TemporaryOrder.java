@@ -5,14 +5,18 @@ import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.utility.Formulas;
 import info.fmro.shared.utility.Generic;
+import info.fmro.shared.utility.SnapshotFile;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public class TemporaryOrder
@@ -64,12 +68,81 @@ public class TemporaryOrder
         if (sizeReduction != null && sizeReduction > size) {
             this.sizeReduction = null;
             //noinspection ThisEscapedInObjectConstruction
-            logger.error("temporaryOrder sizeReduction {} larger than size {} for: {}", sizeReduction, size, Generic.objectToString(this));
+            logger.error("temporaryOrder sizeReduction {} larger than size {} for: {}", sizeReduction, size, Generic.lazyObjectToString(this));
         } else {
             this.sizeReduction = sizeReduction == null ? null : Generic.roundDouble(sizeReduction);
         }
     }
 
+    private TemporaryOrder(@NotNull final TemporaryOrder other) { // used for copies, the creationTime is kept
+        this.type = other.type;
+        this.marketId = other.marketId;
+        this.runnerId = other.runnerId;
+        this.side = other.side;
+        this.price = other.price;
+        this.size = other.size;
+        this.sizeReduction = other.sizeReduction;
+        this.creationTime = other.creationTime;
+        this.reasonId = other.reasonId;
+        synchronized (other) {
+            this.betId = other.betId;
+            this.expirationTime = other.expirationTime;
+        }
+    }
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    private TemporaryOrder(final TemporaryOrderType type, final String marketId, final RunnerId runnerId, final Side side, final double price, final double size, @Nullable final Double sizeReduction, final long creationTime, final String betId,
+                           final String reasonId, final long expirationTime) { // used when restoring from a snapshot
+        this.type = type;
+        this.marketId = marketId;
+        this.runnerId = runnerId;
+        this.side = side;
+        this.price = price;
+        this.size = size;
+        this.sizeReduction = sizeReduction;
+        this.creationTime = creationTime;
+        this.betId = betId;
+        this.reasonId = reasonId;
+        this.expirationTime = expirationTime;
+    }
+
+    public synchronized void writeSnapshot(@NotNull final DataOutput dataOutput)
+            throws IOException {
+        SnapshotFile.writeEnum(dataOutput, this.type);
+        SnapshotFile.writeString(dataOutput, this.marketId);
+        SnapshotFile.writeNullableLong(dataOutput, this.runnerId == null ? null : this.runnerId.getSelectionId());
+        SnapshotFile.writeNullableDouble(dataOutput, this.runnerId == null ? null : this.runnerId.getHandicap());
+        SnapshotFile.writeEnum(dataOutput, this.side);
+        dataOutput.writeDouble(this.price);
+        dataOutput.writeDouble(this.size);
+        SnapshotFile.writeNullableDouble(dataOutput, this.sizeReduction);
+        dataOutput.writeLong(this.creationTime);
+        SnapshotFile.writeString(dataOutput, this.betId);
+        SnapshotFile.writeString(dataOutput, this.reasonId);
+        dataOutput.writeLong(this.expirationTime);
+    }
+
+    @NotNull
+    public static TemporaryOrder readSnapshot(@NotNull final ByteBuffer byteBuffer) {
+        final TemporaryOrderType type = SnapshotFile.readEnum(byteBuffer, TemporaryOrderType.class);
+        final String marketId = SnapshotFile.readString(byteBuffer);
+        final Long selectionId = SnapshotFile.readNullableLong(byteBuffer);
+        final Double handicap = SnapshotFile.readNullableDouble(byteBuffer);
+        final RunnerId runnerId = selectionId == null && handicap == null ? null : new RunnerId(selectionId, handicap);
+        final Side side = SnapshotFile.readEnum(byteBuffer, Side.class);
+        final double price = byteBuffer.getDouble(), size = byteBuffer.getDouble();
+        final Double sizeReduction = SnapshotFile.readNullableDouble(byteBuffer);
+        final long creationTime = byteBuffer.getLong();
+        final String betId = SnapshotFile.readString(byteBuffer), reasonId = SnapshotFile.readString(byteBuffer);
+        final long expirationTime = byteBuffer.getLong();
+        return new TemporaryOrder(type, marketId, runnerId, side, price, size, sizeReduction, creationTime, betId, reasonId, expirationTime);
+    }
+
+    @NotNull
+    public synchronized TemporaryOrder copy() {
+        return new TemporaryOrder(this);
+    }
+
     public synchronized boolean placePriceEquals(final String marketIdToCheck, final RunnerId runnerIdToCheck, final Side sideToCheck, final double priceToCheck) {
         return this.type == TemporaryOrderType.PLACE && runnerEquals(marketIdToCheck, runnerIdToCheck) && sideToCheck == this.side && Double.compare(priceToCheck, this.price) == 0;
     }
@@ -85,7 +158,7 @@ public class TemporaryOrder
             } else if (this.side == Side.L) {
                 exposure.addLayTempCancelExposure(Formulas.calculateLayExposure(this.price, this.sizeReduction == null ? Exposure.HUGE_AMOUNT : this.sizeReduction));
             } else {
-                logger.error("unknown side in temporaryOrder updateExposure for: {} {}", this.side, Generic.objectToString(this));
+                logger.error("unknown side in temporaryOrder updateExposure for: {} {}", this.side, Generic.lazyObjectToString(this));
             }
         } else if (this.type == TemporaryOrderType.PLACE) {
             if (this.side == Side.B) {
@@ -95,10 +168,10 @@ public class TemporaryOrder
                 exposure.addLayTempExposure(Formulas.calculateLayExposure(this.price, this.size));
                 exposure.addLayPotentialTempProfit(this.size);
             } else {
-                logger.error("unknown side in temporaryOrder updateExposure for: {} {}", this.side, Generic.objectToString(this));
+                logger.error("unknown side in temporaryOrder updateExposure for: {} {}", this.side, Generic.lazyObjectToString(this));
             }
         } else {
-            logger.error("unknown temporaryOrder type {} in updateExposure: {}", this.type, Generic.objectToString(this));
+            logger.error("unknown temporaryOrder type {} in updateExposure: {}", this.type, Generic.lazyObjectToString(this));
         }
     }
 
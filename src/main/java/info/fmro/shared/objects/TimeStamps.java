@@ -378,7 +378,7 @@ public class TimeStamps
 
     public synchronized void copyFrom(final TimeStamps timeStamps) {
         if (timeStamps == null) {
-            logger.error("null timeStamps in copyFrom for: {}", Generic.objectToString(this));
+            logger.error("null timeStamps in copyFrom for: {}", Generic.lazyObjectToString(this));
         } else {
             Generic.updateObject(this, timeStamps);
 
@@ -0,0 +1,208 @@
+package info.fmro.shared.stream.cache;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// applies the items of one change message on a pool of worker threads, sharded by market id; the items of a market always go to the same worker, in their original order
+// dispatch returns only after every item of the message was applied, so messages are applied one after the other and the clk tracked by SubscriptionHandler never gets ahead of the cache
+// segmented messages are merged by SubscriptionHandler before they reach the caches, so a merged image is dispatched as a single message
+// queues are bounded: when a worker falls behind, dispatch blocks until there's room in its queue (backpressure), and the waits are counted
+// stop: the workers keep running until the dispatch calls already started have returned, so those are fully applied and never left waiting on their latch
+public class ChangeMessageDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeMessageDispatcher.class);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1_024;
+    private static final long STOP_CHECK_PERIOD = 100L; // ms an idle worker waits before checking if it can stop
+    private final List<BlockingQueue<Runnable>> queues;
+    private final List<Thread> workers;
+    private final AtomicLong nDispatchedItems = new AtomicLong(), nInlineItems = new AtomicLong(), nBackpressureWaits = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger(), nRunningDispatches = new AtomicInteger();
+    private volatile boolean isStopped;
+
+    public ChangeMessageDispatcher(@NotNull final String name, final int nWorkers) {
+        this(name, nWorkers, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ChangeMessageDispatcher(@NotNull final String name, final int nWorkers, final int queueCapacity) {
+        final int nThreads = Math.max(nWorkers, 1);
+        this.queues = new ArrayList<>(nThreads);
+        this.workers = new ArrayList<>(nThreads);
+        for (int i = 0; i < nThreads; i++) {
+            final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+            this.queues.add(queue);
+            final Thread thread = new Thread(() -> work(queue), name + "-dispatcher-" + i);
+            thread.setDaemon(true);
+            this.workers.add(thread);
+            thread.start();
+        }
+    }
+
+    private void work(@NotNull final BlockingQueue<Runnable> queue) {
+        boolean finished = false;
+        while (!finished) {
+            Runnable task = null;
+            try {
+                task = queue.poll(STOP_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException interruptedException) { // interrupted by stop, the exit condition is checked below
+            }
+            if (task != null) {
+                task.run();
+            } else if (this.isStopped && this.nRunningDispatches.get() == 0 && queue.isEmpty()) { // no dispatch can still add items for this worker
+                finished = true;
+            } else { // nothing to be done yet
+            }
+        }
+    }
+
+    public <T> void dispatch(@NotNull final Collection<? extends T> items, @NotNull final Function<? super T, String> marketIdFunction, @NotNull final Consumer<? super T> action) {
+        final int nItems = items.size();
+        final int nWorkers = this.queues.size();
+        this.nRunningDispatches.incrementAndGet(); // before the isStopped check, so a worker that sees the stop also sees this dispatch
+        try {
+            if (nItems <= 1 || nWorkers == 1 || this.isStopped) { // no parallelism to gain, the hand off to a worker would only add latency
+                applyInline(items, action);
+            } else {
+                final int[] shards = new int[nItems];
+                int firstShard = -1;
+                boolean singleShard = true;
+                int index = 0;
+                for (final T item : items) {
+                    final String marketId = marketIdFunction.apply(item);
+                    final int shard = marketId == null ? 0 : Math.floorMod(marketId.hashCode(), nWorkers);
+                    shards[index++] = shard;
+                    if (firstShard < 0) {
+                        firstShard = shard;
+                    } else if (shard != firstShard) {
+                        singleShard = false;
+                    } else { // same shard as the first item, nothing to be done
+                    }
+                }
+                if (singleShard) { // all items belong to one worker, same order is obtained inline
+                    applyInline(items, action);
+                } else {
+                    final CountDownLatch countDownLatch = new CountDownLatch(nItems);
+                    index = 0;
+                    for (final T item : items) {
+                        enqueue(this.queues.get(shards[index++]), () -> applyItem(item, action, countDownLatch));
+                    }
+                    this.nDispatchedItems.addAndGet(nItems);
+                    awaitUninterruptibly(countDownLatch);
+                }
+            }
+        } finally {
+            this.nRunningDispatches.decrementAndGet();
+        }
+    }
+
+    private <T> void applyInline(@NotNull final Iterable<? extends T> items, @NotNull final Consumer<? super T> action) {
+        long nApplied = 0L;
+        for (final T item : items) {
+            action.accept(item);
+            nApplied++;
+        }
+        this.nInlineItems.addAndGet(nApplied);
+    }
+
+    private static <T> void applyItem(final T item, @NotNull final Consumer<? super T> action, @NotNull final CountDownLatch countDownLatch) {
+        try {
+            action.accept(item);
+        } catch (RuntimeException exception) { // the worker must survive, and the latch must still be counted down
+            logger.error("exception while applying item in ChangeMessageDispatcher: {}", item, exception);
+        } finally {
+            countDownLatch.countDown();
+        }
+    }
+
+    private void enqueue(@NotNull final BlockingQueue<Runnable> queue, @NotNull final Runnable task) {
+        if (queue.offer(task)) { // normal case, there was room in the queue
+        } else {
+            this.nBackpressureWaits.incrementAndGet();
+            boolean isInterrupted = false;
+            boolean isAdded = false;
+            while (!isAdded) {
+                try {
+                    queue.put(task);
+                    isAdded = true;
+                } catch (InterruptedException interruptedException) { // the item must still be applied, else the message would be applied partially
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    private static void awaitUninterruptibly(@NotNull final CountDownLatch countDownLatch) {
+        boolean isInterrupted = false;
+        while (countDownLatch.getCount() > 0L) {
+            try {
+                countDownLatch.await();
+            } catch (InterruptedException interruptedException) { // the message must be fully applied before returning
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void stop() { // the running dispatch calls still complete on the workers; dispatch calls after stop are applied inline
+        this.isStopped = true;
+        for (final Thread worker : this.workers) {
+            worker.interrupt();
+        }
+    }
+
+    @Contract(pure = true)
+    public boolean isStopped() {
+        return this.isStopped;
+    }
+
+    @Contract(pure = true)
+    public int getNWorkers() {
+        return this.queues.size();
+    }
+
+    public int getQueueDepth() { // items waiting in all the queues
+        int depth = 0;
+        for (final BlockingQueue<Runnable> queue : this.queues) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    public int getQueueDepth(final int worker) {
+        return this.queues.get(worker).size();
+    }
+
+    public int getMaxQueueDepth() { // highest depth seen on a single queue
+        return this.maxQueueDepth.get();
+    }
+
+    public long getNDispatchedItems() { // items applied by the workers
+        return this.nDispatchedItems.get();
+    }
+
+    public long getNInlineItems() { // items applied on the calling thread
+        return this.nInlineItems.get();
+    }
+
+    public long getNBackpressureWaits() { // times dispatch had to wait for room in a full queue
+        return this.nBackpressureWaits.get();
+    }
+}
@@ -0,0 +1,81 @@
+package info.fmro.shared.stream.cache;
+
+import info.fmro.shared.objects.AmountsNavigableMap;
+import info.fmro.shared.stream.enums.Side;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.TreeMap;
+
+// immutable copy of the levels of a ladder at one moment; built only when the ladder changed, so it can be shared between consecutive runner snapshots
+public final class LadderSnapshot {
+    private static final double[] EMPTY_ARRAY = new double[0];
+    public static final LadderSnapshot EMPTY_BACK = new LadderSnapshot(Side.B, EMPTY_ARRAY, EMPTY_ARRAY, AmountsNavigableMap.NOT_PRESENT), EMPTY_LAY = new LadderSnapshot(Side.L, EMPTY_ARRAY, EMPTY_ARRAY, AmountsNavigableMap.NOT_PRESENT);
+    @NotNull
+    private final Side side;
+    private final double[] prices, sizes; // sizes in GBP; best odds first; the arrays are owned by the snapshot and never modified
+    private final double worstOdds; // same convention as AmountsNavigableMap.worstOddsPresent
+
+    public LadderSnapshot(@NotNull final Side side, @NotNull final double[] prices, @NotNull final double[] sizes, final double worstOdds) {
+        this.side = side;
+        this.prices = prices;
+        this.sizes = sizes;
+        this.worstOdds = worstOdds;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public static LadderSnapshot empty(@NotNull final Side side) {
+        return side == Side.B ? EMPTY_BACK : EMPTY_LAY;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public Side getSide() {
+        return this.side;
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return this.prices.length;
+    }
+
+    @Contract(pure = true)
+    public double getPrice(final int index) {
+        return this.prices[index];
+    }
+
+    @Contract(pure = true)
+    public double getSizeGBP(final int index) {
+        return this.sizes[index];
+    }
+
+    @Contract(pure = true)
+    public double getWorstOdds() {
+        return this.worstOdds;
+    }
+
+    @NotNull
+    public TreeMap<Double, Double> getSimpleTreeMap(final double currencyRate) { // price, size in EUR
+        final Comparator<Double> comparator = this.side == Side.B ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        final TreeMap<Double, Double> result = new TreeMap<>(comparator);
+        for (int i = 0; i < this.prices.length; i++) {
+            result.merge(this.prices[i], this.sizes[i] * currencyRate, Double::sum);
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder(16 + this.prices.length * 16).append('{');
+        for (int i = 0; i < this.prices.length; i++) {
+            if (i > 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(this.sizes[i]).append('@').append(this.prices[i]);
+        }
+        return stringBuilder.append('}').toString();
+    }
+}
@@ -2,18 +2,15 @@ package info.fmro.shared.stream.cache;
 
 import com.google.common.math.DoubleMath;
 import info.fmro.shared.objects.AmountsNavigableMap;
-import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.utility.Formulas;
 import info.fmro.shared.utility.Generic;
-import info.fmro.shared.utility.LogLevel;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.LinkedList;
 import java.util.TreeMap;
 
 public class OrdersList
@@ -24,13 +21,13 @@ public class OrdersList
     @NotNull
     private final TreeMap<Double, Double> orders;
     @NotNull
-    private final LinkedList<RunnerOrderModification> recentModifications;
+    private final RecentModificationsView recentModifications;
     private final Side side;
     private final double worstOdds;
 
-    public OrdersList(@NotNull final TreeMap<Double, Double> orders, @NotNull final LinkedList<RunnerOrderModification> recentModifications, @NotNull final Side side, final double worstOdds) {
+    public OrdersList(@NotNull final TreeMap<Double, Double> orders, @NotNull final RecentModificationsView recentModifications, @NotNull final Side side, final double worstOdds) {
         this.orders = new TreeMap<>(orders);
-        this.recentModifications = new LinkedList<>(recentModifications);
+        this.recentModifications = recentModifications; // immutable view, no need to copy
         this.side = side;
         this.worstOdds = worstOdds;
     }
@@ -54,8 +51,8 @@ public class OrdersList
     }
 
     @NotNull
-    private synchronized LinkedList<RunnerOrderModification> getRecentModifications() {
-        return new LinkedList<>(this.recentModifications);
+    private RecentModificationsView getRecentModifications() {
+        return this.recentModifications;
     }
 
 //    @NotNull
@@ -65,30 +62,30 @@ public class OrdersList
 
     @NotNull
     public TreeMap<Double, Double> getOrdersThatAppearInRecords(@NotNull final OrdersList recordedRecentModifications) {
-        @NotNull final Iterable<RunnerOrderModification> recordedRecentModificationsList = recordedRecentModifications.getRecentModifications();
+        @NotNull final RecentModificationsView recordedRecentModificationsView = recordedRecentModifications.getRecentModifications();
         final TreeMap<Double, Double> returnMap = new TreeMap<>(this.orders);
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (!recordedRecentModifications.priceIsWithinLadderLimits(runnerOrderModification.getPrice()) || recentModificationIsContainedInList(runnerOrderModification, recordedRecentModificationsList)) { // this modification is fine
+        final int nRecords = this.recentModifications.size();
+        for (int i = this.recentModifications.nextIndex(0); i < nRecords; i = this.recentModifications.nextIndex(i + 1)) {
+            final double price = this.recentModifications.getPrice(i), size = this.recentModifications.getSize(i);
+            if (!recordedRecentModifications.priceIsWithinLadderLimits(price) || recentModificationIsContainedInList(this.recentModifications.getSide(), price, size, recordedRecentModificationsView)) { // this modification is fine
             } else {
-                removeNotContainedModification(runnerOrderModification, returnMap);
+                removeNotContainedModification(price, size, returnMap);
             }
         }
 
         if (this.orders.isEmpty() || this.recentModifications.isEmpty()) { // won't print any message for empty maps
         } else {
-            logger.debug("getOrdersThatAppearInRecords before: {} recentModifications: {} recordedRecentModifications: {} after: {}", Generic.objectToString(this.orders), Generic.objectToString(this.recentModifications, "timeStamp"),
-                         Generic.objectToString(recordedRecentModificationsList, "timeStamp"), Generic.objectToString(returnMap));
+            logger.debug("getOrdersThatAppearInRecords before: {} recentModifications: {} recordedRecentModifications: {} after: {}", Generic.lazyObjectToString(this.orders), this.recentModifications, recordedRecentModificationsView,
+                         Generic.lazyObjectToString(returnMap));
         }
         return returnMap;
     }
 
-    private static void removeNotContainedModification(@NotNull final RunnerOrderModification runnerOrderModification, @NotNull final TreeMap<Double, Double> orders) {
-        final double price = runnerOrderModification.getPrice();
+    private static void removeNotContainedModification(final double price, final double size, @NotNull final TreeMap<Double, Double> orders) {
         double newValue;
-        if (runnerOrderModification.modificationSizeUnknown()) {
+        if (Double.isNaN(size)) { // modification size unknown
             newValue = 0d;
-        } else {
-            final double size = runnerOrderModification.getSize(); // todo need to recheck all this
+        } else { // todo need to recheck all this
             final Double existingSize = orders.get(price); // always >= 0, as these are my existing unmatched orders (while modifications are either cancel or place)
             final double existingSizePrimitive = existingSize == null ? 0d : existingSize;
             newValue = existingSizePrimitive - size;
@@ -104,24 +101,17 @@ public class OrdersList
         orders.put(price, newValue);
     }
 
-    private static boolean recentModificationIsContainedInList(final RunnerOrderModification runnerOrderModification, @NotNull final Iterable<RunnerOrderModification> recordedRecentModifications) {
+    private static boolean recentModificationIsContainedInList(final Side side, final double price, final double size, @NotNull final RecentModificationsView recordedRecentModifications) {
         boolean isContained = false;
-        if (runnerOrderModification == null) {
-            SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in recentModificationIsContainedInList");
-            isContained = true; // a modification that contains nothing is always contained
-        } else {
-            for (final RunnerOrderModification recordedRunnerOrderModification : recordedRecentModifications) {
-                if (recordedRunnerOrderModification == null) {
-                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null recordedRunnerOrderModification in recentModificationIsContainedInList");
-                } else {
-                    if (recordedRunnerOrderModification.contains(runnerOrderModification)) {
-                        isContained = true;
-                        break;
-                    } else { // not contained, will keep checking
-                    }
-                }
-            } // end for
-        }
+        final Side recordedSide = recordedRecentModifications.getSide();
+        final int nRecords = recordedRecentModifications.size();
+        for (int i = recordedRecentModifications.nextIndex(0); i < nRecords; i = recordedRecentModifications.nextIndex(i + 1)) {
+            if (RunnerOrderModification.contains(recordedSide, recordedRecentModifications.getPrice(i), recordedRecentModifications.getSize(i), side, price, size)) {
+                isContained = true;
+                break;
+            } else { // not contained, will keep checking
+            }
+        } // end for
         return isContained;
     }
 }
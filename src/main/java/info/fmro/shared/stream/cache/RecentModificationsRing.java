@@ -0,0 +1,173 @@
+package info.fmro.shared.stream.cache;
+
+import info.fmro.shared.stream.enums.Side;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+
+// time windowed ring of primitive (side, price, size, timeStamp) records, oldest first; not thread safe, owner must synchronize
+// slots are overwritten in place, unless a view that is still held might read the slot, in which case the arrays are copied before the overwrite
+// such a copy leaves at least half of the slots free, so the next one is at least capacity / 2 writes away, however often views are taken and whenever the garbage collector clears the views token
+public class RecentModificationsRing
+        implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -3405722380214004787L;
+    private static final Side[] sideValues = Side.values();
+    private final long recentModificationPeriod; // milliseconds for a modification to be recent
+    private byte[] sides; // Side ordinal
+    private double[] prices, sizes;
+    private long[] timeStamps;
+    private int mask;
+    private long head, tail; // sequences of the oldest record and of the next record to be written
+    private long sharedFrom; // the views of the current arrays don't read records older than this sequence
+    @Nullable
+    private transient WeakReference<Object> viewsToken; // token referenced by the views of the current arrays, cleared by the garbage collector once no such view is held; null after deserialization
+
+    public RecentModificationsRing(final long recentModificationPeriod) {
+        this(recentModificationPeriod, 16);
+    }
+
+    public RecentModificationsRing(final long recentModificationPeriod, final int initialCapacity) {
+        this.recentModificationPeriod = recentModificationPeriod;
+        allocate(Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1); // power of 2
+    }
+
+    private void allocate(final int capacity) {
+        this.sides = new byte[capacity];
+        this.prices = new double[capacity];
+        this.sizes = new double[capacity];
+        this.timeStamps = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public void copyFrom(@NotNull final RecentModificationsRing other) { // the copy doesn't share arrays with other
+        this.sides = other.sides.clone();
+        this.prices = other.prices.clone();
+        this.sizes = other.sizes.clone();
+        this.timeStamps = other.timeStamps.clone();
+        this.mask = other.mask;
+        this.head = other.head;
+        this.tail = other.tail;
+        this.viewsToken = null;
+    }
+
+    public void writeSnapshot(@NotNull final DataOutput dataOutput) // only the live records are written, oldest first
+            throws IOException {
+        dataOutput.writeInt(size());
+        for (long sequence = this.head; sequence < this.tail; sequence++) {
+            final int slot = (int) (sequence & this.mask);
+            dataOutput.writeByte(this.sides[slot]);
+            dataOutput.writeDouble(this.prices[slot]);
+            dataOutput.writeDouble(this.sizes[slot]);
+            dataOutput.writeLong(this.timeStamps[slot]);
+        }
+    }
+
+    public void readSnapshot(@NotNull final ByteBuffer byteBuffer) { // replaces the content; the new arrays are not shared
+        final int nRecords = byteBuffer.getInt();
+        allocate(Math.max(this.mask + 1, Integer.highestOneBit(Math.max(nRecords, 2) - 1) << 1)); // keeps at least the current capacity
+        for (int slot = 0; slot < nRecords; slot++) {
+            this.sides[slot] = byteBuffer.get();
+            this.prices[slot] = byteBuffer.getDouble();
+            this.sizes[slot] = byteBuffer.getDouble();
+            this.timeStamps[slot] = byteBuffer.getLong();
+        }
+        this.head = 0L;
+        this.tail = nRecords;
+        this.viewsToken = null;
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return (int) (this.tail - this.head);
+    }
+
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return this.tail == this.head;
+    }
+
+    public void add(@NotNull final Side side, final double price, final double size, final long timeStamp) {
+        removeExpired(timeStamp);
+        final int capacity = this.mask + 1;
+        if (this.tail - this.head == capacity) {
+            reallocate(capacity << 1);
+        } else if (this.tail - capacity >= this.sharedFrom && isShared()) { // the slot to be written holds an expired record that a held view might still read
+            reallocate(this.tail - this.head > capacity >> 1 ? capacity << 1 : capacity); // at least half of the slots free after the copy
+        } else { // free slot that can be written in place
+        }
+        final int slot = (int) (this.tail & this.mask);
+        this.sides[slot] = (byte) side.ordinal();
+        this.prices[slot] = price;
+        this.sizes[slot] = size;
+        this.timeStamps[slot] = timeStamp;
+        this.tail++;
+    }
+
+    public void add(@NotNull final RunnerOrderModificationsBuffer modificationsBuffer, final long timeStamp) {
+        final Side side = modificationsBuffer.getSide();
+        final int nModifications = modificationsBuffer.size();
+        for (int i = 0; i < nModifications; i++) {
+            add(side, modificationsBuffer.getPrice(i), modificationsBuffer.getSize(i), timeStamp);
+        }
+    }
+
+    private void reallocate(final int newCapacity) {
+        final byte[] oldSides = this.sides;
+        final double[] oldPrices = this.prices, oldSizes = this.sizes;
+        final long[] oldTimeStamps = this.timeStamps;
+        final int oldMask = this.mask;
+        allocate(newCapacity);
+        for (long sequence = this.head; sequence < this.tail; sequence++) {
+            final int oldSlot = (int) (sequence & oldMask), newSlot = (int) (sequence & this.mask);
+            this.sides[newSlot] = oldSides[oldSlot];
+            this.prices[newSlot] = oldPrices[oldSlot];
+            this.sizes[newSlot] = oldSizes[oldSlot];
+            this.timeStamps[newSlot] = oldTimeStamps[oldSlot];
+        }
+        this.viewsToken = null;
+    }
+
+    @Contract(pure = true)
+    private boolean isShared() {
+        return this.viewsToken != null && this.viewsToken.get() != null;
+    }
+
+    public void removeExpired(final long currentTime) {
+        while (this.head < this.tail && this.timeStamps[(int) (this.head & this.mask)] + this.recentModificationPeriod < currentTime) {
+            this.head++;
+        }
+    }
+
+    @NotNull
+    public RecentModificationsView getView(@NotNull final Side side, final double currencyRate, final long currentTime) { // records on one side, with sizes multiplied by currencyRate when read
+        removeExpired(currentTime);
+        final RecentModificationsView view;
+        if (isEmpty()) {
+            view = RecentModificationsView.empty(side);
+        } else {
+            @Nullable Object token = this.viewsToken == null ? null : this.viewsToken.get();
+            if (token == null) { // no view of the current arrays is held
+                token = new Object();
+                this.viewsToken = new WeakReference<>(token);
+                this.sharedFrom = this.head;
+            } else { // the existing token is reused
+            }
+            view = new RecentModificationsView(token, this.sides, this.prices, this.sizes, this.timeStamps, this.mask, this.head, size(), (byte) side.ordinal(), currencyRate);
+        }
+        return view;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    static Side getSide(final byte ordinal) {
+        return sideValues[ordinal];
+    }
+}
@@ -0,0 +1,119 @@
+package info.fmro.shared.stream.cache;
+
+import info.fmro.shared.stream.enums.Side;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+// immutable side filtered view of the records present in a RecentModificationsRing when the view was created; indexes that are not on the view side are skipped with nextIndex
+public final class RecentModificationsView
+        implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 6040880315553180370L;
+    public static final RecentModificationsView EMPTY_BACK = emptyView(Side.B), EMPTY_LAY = emptyView(Side.L);
+    @SuppressWarnings({"FieldCanBeLocal", "unused"})
+    @Nullable
+    private final transient Object token; // keeps the ring from overwriting the arrays while this view is held; null after deserialization, when the arrays are no longer shared
+    private final byte[] sides;
+    private final double[] prices, sizes;
+    private final long[] timeStamps;
+    private final int mask, nRecords;
+    private final long firstSequence;
+    private final byte side;
+    private final double currencyRate;
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    RecentModificationsView(@Nullable final Object token, @NotNull final byte[] sides, @NotNull final double[] prices, @NotNull final double[] sizes, @NotNull final long[] timeStamps, final int mask, final long firstSequence, final int nRecords, final byte side,
+                            final double currencyRate) {
+        this.token = token;
+        this.sides = sides;
+        this.prices = prices;
+        this.sizes = sizes;
+        this.timeStamps = timeStamps;
+        this.mask = mask;
+        this.firstSequence = firstSequence;
+        this.nRecords = nRecords;
+        this.side = side;
+        this.currencyRate = currencyRate;
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    private static RecentModificationsView emptyView(@NotNull final Side side) {
+        return new RecentModificationsView(null, new byte[1], new double[1], new double[1], new long[1], 0, 0L, 0, (byte) side.ordinal(), 1d);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public static RecentModificationsView empty(@NotNull final Side side) {
+        return side == Side.B ? EMPTY_BACK : EMPTY_LAY;
+    }
+
+    @Contract(pure = true)
+    private int slot(final int index) {
+        return (int) ((this.firstSequence + index) & this.mask);
+    }
+
+    @Contract(pure = true)
+    public int size() { // records on both sides, use nextIndex to iterate
+        return this.nRecords;
+    }
+
+    @Contract(pure = true)
+    public int nextIndex(final int index) { // first index >= index that is on the view side, or size() if none
+        int result = index;
+        while (result < this.nRecords && this.sides[slot(result)] != this.side) {
+            result++;
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return nextIndex(0) >= this.nRecords;
+    }
+
+    @NotNull
+    public Side getSide() {
+        return RecentModificationsRing.getSide(this.side);
+    }
+
+    @Contract(pure = true)
+    public double getPrice(final int index) {
+        return this.prices[slot(index)];
+    }
+
+    @Contract(pure = true)
+    public double getSize(final int index) {
+        return this.sizes[slot(index)] * this.currencyRate;
+    }
+
+    @Contract(pure = true)
+    public long getTimeStamp(final int index) {
+        return this.timeStamps[slot(index)];
+    }
+
+    @NotNull
+    public RecentModificationsView getView(final double newCurrencyRate, final long oldestTimeStamp) { // same records, without the ones older than oldestTimeStamp, with sizes multiplied by newCurrencyRate instead; records are in time order
+        int first = 0;
+        while (first < this.nRecords && this.timeStamps[slot(first)] < oldestTimeStamp) {
+            first++;
+        }
+        return first == this.nRecords ? empty(getSide()) : new RecentModificationsView(this.token, this.sides, this.prices, this.sizes, this.timeStamps, this.mask, this.firstSequence + first, this.nRecords - first, this.side, newCurrencyRate);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder(16 + this.nRecords * 16).append(getSide()).append('[');
+        for (int i = nextIndex(0); i < this.nRecords; i = nextIndex(i + 1)) {
+            if (stringBuilder.charAt(stringBuilder.length() - 1) != '[') {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(getSize(i)).append('@').append(getPrice(i));
+        }
+        return stringBuilder.append(']').toString();
+    }
+}
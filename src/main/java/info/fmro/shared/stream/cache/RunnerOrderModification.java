@@ -49,7 +49,12 @@ public class RunnerOrderModification
     }
 
     public boolean contains(@NotNull final RunnerOrderModification containedObject) {
-        return Formulas.sidesAreOpposite(this.side, containedObject.getSide()) && DoubleMath.fuzzyEquals(this.price, containedObject.getPrice(), 0.002d) &&
-               (this.modificationSizeUnknown() || containedObject.modificationSizeUnknown() || DoubleMath.fuzzyCompare(this.size, containedObject.getSize(), Math.abs(this.size / 100d)) >= 0); // todo math.abs ? not clear if correct
+        return contains(this.side, this.price, this.size, containedObject.getSide(), containedObject.getPrice(), containedObject.getSize());
+    }
+
+    @SuppressWarnings("MethodWithTooManyParameters")
+    public static boolean contains(final Side side, final double price, final double size, final Side containedSide, final double containedPrice, final double containedSize) {
+        return Formulas.sidesAreOpposite(side, containedSide) && DoubleMath.fuzzyEquals(price, containedPrice, 0.002d) &&
+               (Double.isNaN(size) || Double.isNaN(containedSize) || DoubleMath.fuzzyCompare(size, containedSize, Math.abs(size / 100d)) >= 0); // todo math.abs ? not clear if correct
     }
 }
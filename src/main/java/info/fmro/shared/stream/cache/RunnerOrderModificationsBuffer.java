@@ -0,0 +1,106 @@
+package info.fmro.shared.stream.cache;
+
+import com.google.common.math.DoubleMath;
+import info.fmro.shared.stream.enums.Side;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+// reusable primitive buffer that ladders write their modifications into while a delta is applied; one ladder side at a time, not thread safe, owner must synchronize
+public class RunnerOrderModificationsBuffer {
+    public static final double MODIFICATION_TOLERANCE = 0.0001d;
+    private Side side;
+    private double[] prices, sizes;
+    private int nModifications;
+
+    public RunnerOrderModificationsBuffer() {
+        this(16);
+    }
+
+    public RunnerOrderModificationsBuffer(final int initialCapacity) {
+        this.prices = new double[Math.max(initialCapacity, 1)];
+        this.sizes = new double[Math.max(initialCapacity, 1)];
+    }
+
+    public void clear(@NotNull final Side newSide) {
+        this.side = newSide;
+        this.nModifications = 0;
+    }
+
+    @Contract(pure = true)
+    public Side getSide() {
+        return this.side;
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return this.nModifications;
+    }
+
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return this.nModifications == 0;
+    }
+
+    @Contract(pure = true)
+    public double getPrice(final int index) {
+        return this.prices[index];
+    }
+
+    @Contract(pure = true)
+    public double getSize(final int index) { // modification size, negative if the amount available at that price decreased
+        return this.sizes[index];
+    }
+
+    public void add(final double price, final double size) {
+        if (DoubleMath.fuzzyEquals(size, 0d, MODIFICATION_TOLERANCE)) { // no modification
+        } else {
+            ensureCapacity();
+            this.prices[this.nModifications] = price;
+            this.sizes[this.nModifications] = size;
+            this.nModifications++;
+        }
+    }
+
+    public void merge(final double price, final double size) { // adds to an existing modification on the same price, used when the same price can be modified more than once during one delta
+        int index = -1;
+        for (int i = 0; i < this.nModifications; i++) {
+            //noinspection FloatingPointEquality
+            if (this.prices[i] == price) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            ensureCapacity();
+            this.prices[this.nModifications] = price;
+            this.sizes[this.nModifications] = size;
+            this.nModifications++;
+        } else {
+            this.sizes[index] += size;
+        }
+    }
+
+    public void removeInsignificant() { // needed after merge, as merged modifications can cancel each other
+        int newSize = 0;
+        for (int i = 0; i < this.nModifications; i++) {
+            if (DoubleMath.fuzzyEquals(this.sizes[i], 0d, MODIFICATION_TOLERANCE)) { // not a modification, will be removed
+            } else {
+                this.prices[newSize] = this.prices[i];
+                this.sizes[newSize] = this.sizes[i];
+                newSize++;
+            }
+        }
+        this.nModifications = newSize;
+    }
+
+    private void ensureCapacity() {
+        if (this.nModifications == this.prices.length) {
+            final int newCapacity = this.prices.length << 1;
+            this.prices = Arrays.copyOf(this.prices, newCapacity);
+            this.sizes = Arrays.copyOf(this.sizes, newCapacity);
+        } else { // enough capacity, nothing to be done
+        }
+    }
+}
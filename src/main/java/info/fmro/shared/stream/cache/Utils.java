@@ -36,7 +36,7 @@ public final class Utils {
         final Collection<ManagedMarket> marketsWithErrorCalculatingExposure = new HashSet<>(1), marketsWithExposureHigherThanTheirMaxLimit = new HashSet<>(1);
         for (final ManagedMarket managedMarket : marketsSet) {
             if (managedMarket == null) {
-                logger.error("null managedMarket in calculateMarketLimits for: {}", Generic.objectToString(marketsSet));
+                logger.error("null managedMarket in calculateMarketLimits for: {}", Generic.lazyObjectToString(marketsSet));
             } else if (!SharedStatics.marketCache.markets.containsKey(managedMarket.getMarketId())) { // can be normal both if expired market and if marketCache not initialised; no need to print anything
 //               logger.info("possibly expired managedMarket in calculateMarketLimits: {}", managedMarket.getMarketId());
             } else {
@@ -208,13 +208,13 @@ public final class Utils {
                 // the factors are the price of toBeUsedOdds, and which of the toBeUsedOdds is more profitable; those two should be enough for now; also lay bets should be given slight priority over back bets, as other gamblers like to back rather than lay
                 if (excessMatchedExposure <= 0d) {
                     logger.error("bogus excessMatchedExposure for getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure: {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(),
-                                 Generic.objectToString(sidesToPlaceExposureOn), excessMatchedExposure);
+                                 Generic.lazyObjectToString(sidesToPlaceExposureOn), excessMatchedExposure);
                     exposureList = List.of(0d, 0d);
                 } else {
                     final double firstToBeUsedOdds = firstRunner.getOddsLimit(firstSide), secondToBeUsedOdds = secondRunner.getOddsLimit(secondSide);
                     if (!Formulas.oddsAreUsable(firstToBeUsedOdds) || !Formulas.oddsAreUsable(secondToBeUsedOdds)) {
                         logger.error("unusable odds for getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure: {} {} {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(),
-                                     Generic.objectToString(sidesToPlaceExposureOn), firstRunner.getOddsLimit(firstSide), secondRunner.getOddsLimit(secondSide), excessMatchedExposure);
+                                     Generic.lazyObjectToString(sidesToPlaceExposureOn), firstRunner.getOddsLimit(firstSide), secondRunner.getOddsLimit(secondSide), excessMatchedExposure);
                         exposureList = List.of(0d, 0d);
                     } else {
                         final double firstSmallerOddsBonus = Math.sqrt(Math.sqrt((secondToBeUsedOdds - 1d) / (firstToBeUsedOdds - 1d))); // double sqrt should be well balanced exposure, a limited advantage for the smaller odds
@@ -265,7 +265,7 @@ public final class Utils {
                         final double firstTempExposure = firstRunner.rawTempExposure(firstSide), secondTempExposure = secondRunner.rawTempExposure(secondSide);
                         if (firstTempExposure > firstNonMatchedExposure || secondTempExposure > secondNonMatchedExposure) {
                             logger.error("non inclusive nonMatchedExposures for: {} {} {} {} {} {} {} {} {} {} {}", firstTempExposure, secondTempExposure, firstNonMatchedExposure, secondNonMatchedExposure, firstRunner.getMarketId(),
-                                         firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.objectToString(sidesToPlaceExposureOn), firstRunner.getOddsLimit(firstSide), secondRunner.getOddsLimit(secondSide), excessMatchedExposure);
+                                         firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.lazyObjectToString(sidesToPlaceExposureOn), firstRunner.getOddsLimit(firstSide), secondRunner.getOddsLimit(secondSide), excessMatchedExposure);
                             exposureList = List.of(-firstNonMatchedExposure, -secondNonMatchedExposure);
                         } else if (firstExposureWithLimits == 0d && secondExposureWithLimits == 0d) { // will cancel all unmatched
                             exposureList = List.of(firstTempExposure - firstNonMatchedExposure, secondTempExposure - secondNonMatchedExposure);
@@ -298,13 +298,13 @@ public final class Utils {
                     }
                 }
             } else {
-                logger.error("bogus sides for getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure: {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner), Generic.objectToString(secondRunner),
+                logger.error("bogus sides for getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure: {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner), Generic.lazyObjectToString(secondRunner),
                              excessMatchedExposure);
                 exposureList = List.of(0d, 0d);
             }
         } else {
-            logger.error("bogus sideList or mandatoryPlace for getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure: {} {} {} {} {} {}", Generic.objectToString(sidesToPlaceExposureOn), Generic.objectToString(firstRunner),
-                         Generic.objectToString(secondRunner), excessMatchedExposure, firstRunner.isMandatoryPlace(), secondRunner.isMandatoryPlace());
+            logger.error("bogus sideList or mandatoryPlace for getExposureToBePlacedForTwoWayMarketWithExcessMatchedExposure: {} {} {} {} {} {}", Generic.lazyObjectToString(sidesToPlaceExposureOn), Generic.lazyObjectToString(firstRunner),
+                         Generic.lazyObjectToString(secondRunner), excessMatchedExposure, firstRunner.isMandatoryPlace(), secondRunner.isMandatoryPlace());
             exposureList = List.of(0d, 0d);
         }
         return exposureList;
@@ -319,14 +319,14 @@ public final class Utils {
                 // I'm getting the raw availableLimit, without considering existing exposure and limits
                 // the factors are the price of toBeUsedOdds, and which of the toBeUsedOdds is more profitable; those two should be enough for now; also lay bets should be given slight priority over back bets, as other gamblers like to back rather than lay
                 if (availableLimit == 0d) {
-                    logger.error("availableLimit zero for getAmountsToBePlacedForTwoWayMarket: {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.objectToString(sidesToPlaceExposureOn));
+                    logger.error("availableLimit zero for getAmountsToBePlacedForTwoWayMarket: {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.lazyObjectToString(sidesToPlaceExposureOn));
                     exposureList = List.of(0d, 0d);
                 } else {
                     final double firstOddsLimit = firstRunner.getOddsLimit(firstSide), secondOddsLimit = secondRunner.getOddsLimit(secondSide);
                     if (!Formulas.oddsAreUsable(firstOddsLimit) || !Formulas.oddsAreUsable(secondOddsLimit)) {
                         if (Formulas.oddsAreDisabled(firstOddsLimit, firstSide) || Formulas.oddsAreDisabled(secondOddsLimit, secondSide)) { // normal branch, odds disabled, will place 0d amount, no need to print anything
                         } else {
-                            logger.error("bogus internal arguments for getAmountsToBePlacedForTwoWayMarket: {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.objectToString(sidesToPlaceExposureOn),
+                            logger.error("bogus internal arguments for getAmountsToBePlacedForTwoWayMarket: {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.lazyObjectToString(sidesToPlaceExposureOn),
                                          availableLimit);
                         }
                         exposureList = List.of(0d, 0d);
@@ -408,11 +408,11 @@ public final class Utils {
                     }
                 }
             } else {
-                logger.error("bogus sides for getAmountsToBePlacedForTwoWayMarket: {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.objectToString(sidesToPlaceExposureOn), availableLimit);
+                logger.error("bogus sides for getAmountsToBePlacedForTwoWayMarket: {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.lazyObjectToString(sidesToPlaceExposureOn), availableLimit);
                 exposureList = List.of(0d, 0d);
             }
         } else {
-            logger.error("bogus sideList or mandatoryPlace for getAmountsToBePlacedForTwoWayMarket: {} {} {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.objectToString(sidesToPlaceExposureOn),
+            logger.error("bogus sideList or mandatoryPlace for getAmountsToBePlacedForTwoWayMarket: {} {} {} {} {} {} {}", firstRunner.getMarketId(), firstRunner.getRunnerId(), secondRunner.getRunnerId(), Generic.lazyObjectToString(sidesToPlaceExposureOn),
                          availableLimit, firstRunner.isMandatoryPlace(), secondRunner.isMandatoryPlace());
             exposureList = List.of(0d, 0d);
         }
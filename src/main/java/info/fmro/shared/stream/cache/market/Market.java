@@ -9,14 +9,19 @@ import info.fmro.shared.stream.definitions.RunnerDefinition;
 import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.utility.Formulas;
 import info.fmro.shared.utility.Generic;
+import info.fmro.shared.utility.SnapshotFile;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -31,17 +36,77 @@ public class Market
     private final Map<RunnerId, MarketRunner> marketRunners = new HashMap<>(4); // the only place where MarketRunners are permanently stored
     private MarketDefinition marketDefinition;
     private double tv; // total value traded
+    private long epoch; // increased with each applied change
+    @Nullable
+    private transient volatile MarketSnapshot snapshot; // built on the first read after a change, null until then
 
     public Market(final String marketId) {
         this.marketId = marketId;
     }
 
+    @Serial
+    private synchronized void writeObject(@NotNull final ObjectOutputStream objectOutputStream) // the Market is its own lock, so a MarketCache copy doesn't see a half applied change
+            throws IOException {
+        objectOutputStream.defaultWriteObject();
+    }
+
+    @NotNull
+    synchronized Market copy() { // the stream definitions are never modified after being read, so they are shared
+        final Market copy = new Market(this.marketId);
+        for (final Map.Entry<RunnerId, MarketRunner> entry : this.marketRunners.entrySet()) {
+            copy.marketRunners.put(entry.getKey(), entry.getValue().copy());
+        }
+        copy.marketDefinition = this.marketDefinition;
+        copy.tv = this.tv;
+        copy.epoch = this.epoch;
+        return copy;
+    }
+
+    synchronized void writeSnapshot(@NotNull final DataOutput dataOutput, @NotNull final Map<String, MarketDefinition> marketDefinitions) // the marketDefinition is collected in the map, written separately
+            throws IOException {
+        dataOutput.writeDouble(this.tv);
+        dataOutput.writeLong(this.epoch);
+        dataOutput.writeInt(this.marketRunners.size());
+        for (final Map.Entry<RunnerId, MarketRunner> entry : this.marketRunners.entrySet()) {
+            final RunnerId runnerId = entry.getKey();
+            SnapshotFile.writeNullableLong(dataOutput, runnerId.getSelectionId());
+            SnapshotFile.writeNullableDouble(dataOutput, runnerId.getHandicap());
+            entry.getValue().writeSnapshot(dataOutput);
+        }
+        if (this.marketDefinition != null) {
+            marketDefinitions.put(this.marketId, this.marketDefinition);
+        } else { // no definition yet, nothing to be written
+        }
+    }
+
+    @NotNull
+    static Market readSnapshot(final String marketId, @NotNull final ByteBuffer byteBuffer) {
+        final Market market = new Market(marketId);
+        market.tv = byteBuffer.getDouble();
+        market.epoch = byteBuffer.getLong();
+        final int nRunners = byteBuffer.getInt();
+        for (int i = 0; i < nRunners; i++) {
+            final RunnerId runnerId = new RunnerId(SnapshotFile.readNullableLong(byteBuffer), SnapshotFile.readNullableDouble(byteBuffer));
+            final MarketRunner marketRunner = new MarketRunner(marketId, runnerId);
+            marketRunner.readSnapshot(byteBuffer);
+            market.marketRunners.put(runnerId, marketRunner);
+        }
+        return market;
+    }
+
+    synchronized void restoreMarketDefinition(@NotNull final MarketDefinition restoredMarketDefinition) { // used when restoring, doesn't change the epoch
+        this.marketDefinition = restoredMarketDefinition;
+        Optional.ofNullable(restoredMarketDefinition.getRunners()).ifPresent(rds -> rds.forEach(rd -> getOrAdd(new RunnerId(rd.getId(), rd.getHc())).setRunnerDefinition(rd)));
+    }
+
 //    public Market(final String marketId, @NotNull final MarketsToCheckQueue<? super String> marketsToCheck) {
 //        this.marketId = marketId;
 //        marketsToCheck.add(marketId);
 //    }
 
     synchronized void onMarketChange(@NotNull final MarketChange marketChange) {
+        this.snapshot = null;
+        this.epoch++;
         //initial image means we need to wipe our data
         final boolean isImage = Boolean.TRUE.equals(marketChange.getImg());
         //market definition changed
@@ -52,10 +117,31 @@ public class Market
         this.tv = Formulas.selectPrice(isImage, getTv(), marketChange.getTv());
     }
 
+    @NotNull
+    public MarketSnapshot getSnapshot() { // lock free, except for the first read after a change
+        final MarketSnapshot existingSnapshot = this.snapshot;
+        return existingSnapshot == null ? buildSnapshot() : existingSnapshot;
+    }
+
+    @NotNull
+    private synchronized MarketSnapshot buildSnapshot() { // runners keep their own snapshots, so runners untouched since the last snapshot only cost a reference copy
+        MarketSnapshot newSnapshot = this.snapshot;
+        if (newSnapshot == null) { // not yet built by another reader
+            final HashMap<RunnerId, MarketRunnerSnapshot> runnerSnapshots = new HashMap<>(Generic.getCollectionCapacity(this.marketRunners.size()));
+            for (final Map.Entry<RunnerId, MarketRunner> entry : this.marketRunners.entrySet()) {
+                runnerSnapshots.put(entry.getKey(), entry.getValue().getSnapshot());
+            }
+            newSnapshot = new MarketSnapshot(this.marketId, this.epoch, this.marketDefinition, this.tv, runnerSnapshots);
+            this.snapshot = newSnapshot;
+        } else { // built by another reader while waiting for the lock
+        }
+        return newSnapshot;
+    }
+
     private synchronized void onPriceChange(final boolean isImage, @NotNull final RunnerChange runnerChange) {
         final MarketRunner marketRunner = getOrAdd(new RunnerId(runnerChange.getId(), runnerChange.getHc()));
         //update runner
-        marketRunner.onPriceChange(isImage, runnerChange);
+        marketRunner.onPriceChange(isImage, runnerChange, this.epoch);
     }
 
     private synchronized void onMarketDefinitionChange(@NotNull final MarketDefinition newMarketDefinition) {
@@ -66,7 +152,7 @@ public class Market
     private synchronized void onRunnerDefinitionChange(@NotNull final RunnerDefinition runnerDefinition) {
         final MarketRunner marketRunner = getOrAdd(new RunnerId(runnerDefinition.getId(), runnerDefinition.getHc()));
         //update runner
-        marketRunner.onRunnerDefinitionChange(runnerDefinition);
+        marketRunner.onRunnerDefinitionChange(runnerDefinition, this.epoch);
     }
 
     @NotNull
@@ -125,7 +211,7 @@ public class Market
         final int nRunners;
         //noinspection ConstantConditions
         if (this.marketRunners == null) {
-            logger.error("null marketRunners in getNRunners for: {}", Generic.objectToString(this));
+            logger.error("null marketRunners in getNRunners for: {}", Generic.lazyObjectToString(this));
             nRunners = -1;
         } else {
             nRunners = this.marketRunners.size();
@@ -137,7 +223,7 @@ public class Market
         int nRunners;
         //noinspection ConstantConditions
         if (this.marketRunners == null) {
-            logger.error("null marketRunners in getNRunners for: {}", Generic.objectToString(this));
+            logger.error("null marketRunners in getNRunners for: {}", Generic.lazyObjectToString(this));
             nRunners = -1;
         } else {
             nRunners = 0;
@@ -2,37 +2,54 @@ package info.fmro.shared.stream.cache.market;
 
 import info.fmro.shared.entities.MarketCatalogue;
 import info.fmro.shared.logic.ManagedMarket;
-import info.fmro.shared.logic.MarketsToCheckMap;
 import info.fmro.shared.logic.RulesManager;
+import info.fmro.shared.stream.cache.ChangeMessageDispatcher;
 import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.MarketDefinition;
 import info.fmro.shared.stream.objects.ListOfQueues;
 import info.fmro.shared.stream.objects.StreamObjectInterface;
 import info.fmro.shared.stream.objects.StreamSynchronizedMap;
 import info.fmro.shared.stream.protocol.ChangeMessage;
+import info.fmro.shared.utility.ChangeJournal;
+import info.fmro.shared.utility.ConcurrentSafeMap;
 import info.fmro.shared.utility.Generic;
-import info.fmro.shared.utility.SynchronizedMap;
-import org.apache.commons.lang3.SerializationUtils;
+import info.fmro.shared.utility.SnapshotFile;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+// updates of different markets can run in parallel, each Market being its own lock; lookups don't lock; only whole cache operations (copy, clear, copyFromStream) synchronize on the cache
 public class MarketCache
         implements Serializable, StreamObjectInterface {
     private static final Logger logger = LoggerFactory.getLogger(MarketCache.class);
     @Serial
     private static final long serialVersionUID = -6721530926161875702L;
+    public static final String SNAPSHOT_SECTION = "marketCache";
+    private static final int SNAPSHOT_SCHEMA_VERSION = 1;
     public transient ListOfQueues listOfQueues = new ListOfQueues();
-    public final SynchronizedMap<String, Market> markets = new SynchronizedMap<>(32); // only place where markets are permanently stored
-    private boolean isMarketRemovedOnClose = true; // default
+    public final ConcurrentSafeMap<String, Market> markets = new ConcurrentSafeMap<>(32); // only place where markets are permanently stored
+    private volatile boolean isMarketRemovedOnClose = true; // default
 
     //conflation indicates slow consumption
-    private int conflatedCount;
+    private final AtomicInteger conflatedCount = new AtomicInteger();
+    @Nullable
+    private transient volatile ChangeMessageDispatcher dispatcher; // null means change items are applied sequentially, on the calling thread
+    @Nullable
+    private transient volatile ChangeJournal journal; // set after recovery, so the replayed changes are not journaled again
 
     @Serial
     private void readObject(@NotNull final java.io.ObjectInputStream in)
@@ -41,8 +58,92 @@ public class MarketCache
         this.listOfQueues = new ListOfQueues();
     }
 
-    public synchronized MarketCache getCopy() {
-        return SerializationUtils.clone(this);
+    @Nullable
+    public synchronized ChangeMessageDispatcher setDispatcher(@Nullable final ChangeMessageDispatcher newDispatcher) { // returns the previous dispatcher, which is not stopped
+        final ChangeMessageDispatcher previousDispatcher = this.dispatcher;
+        this.dispatcher = newDispatcher;
+        return previousDispatcher;
+    }
+
+    @Nullable
+    public ChangeMessageDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    public synchronized void setJournal(@Nullable final ChangeJournal newJournal) {
+        this.journal = newJournal;
+    }
+
+    @Nullable
+    public ChangeJournal getJournal() {
+        return this.journal;
+    }
+
+    public synchronized MarketCache getCopy() { // each market is copied under its own lock, same as with serialization
+        final MarketCache copy = new MarketCache();
+        for (final Map.Entry<String, Market> entry : this.markets.copy().entrySet()) {
+            copy.markets.put(entry.getKey(), entry.getValue().copy(), true);
+        }
+        copy.isMarketRemovedOnClose = this.isMarketRemovedOnClose;
+        copy.conflatedCount.set(this.conflatedCount.get());
+        return copy;
+    }
+
+    public synchronized boolean writeSnapshot(@NotNull final SnapshotFile.Writer writer, final boolean compressed) { // each market is written under its own lock, same as with serialization
+        return writer.writeSection(SNAPSHOT_SECTION, SNAPSHOT_SCHEMA_VERSION, compressed, dataOutputStream -> {
+            dataOutputStream.writeBoolean(this.isMarketRemovedOnClose);
+            dataOutputStream.writeInt(this.conflatedCount.get());
+            final HashMap<String, Market> marketsCopy = this.markets.copy();
+            final HashMap<String, MarketDefinition> marketDefinitions = new HashMap<>(Generic.getCollectionCapacity(marketsCopy.size()));
+            dataOutputStream.writeInt(marketsCopy.size());
+            for (final Map.Entry<String, Market> entry : marketsCopy.entrySet()) {
+                SnapshotFile.writeString(dataOutputStream, entry.getKey());
+                entry.getValue().writeSnapshot(dataOutputStream, marketDefinitions);
+            }
+            SnapshotFile.writeSerializable(dataOutputStream, marketDefinitions); // the definitions have no binary schema; a single stream for all of them, so the class descriptors are written once
+        });
+    }
+
+    @Nullable
+    public static MarketCache readSnapshot(@Nullable final Map<String, SnapshotFile.Section> sections) { // null if the section is missing or can't be read
+        final SnapshotFile.Section section = sections == null ? null : sections.get(SNAPSHOT_SECTION);
+        @Nullable MarketCache marketCache;
+        if (section == null) {
+            logger.warn("no {} section in snapshot", SNAPSHOT_SECTION);
+            marketCache = null;
+        } else if (section.getSchemaVersion() != SNAPSHOT_SCHEMA_VERSION) {
+            logger.error("unsupported {} snapshot schema version: {}", SNAPSHOT_SECTION, section.getSchemaVersion());
+            marketCache = null;
+        } else {
+            try {
+                final ByteBuffer byteBuffer = section.getPayload();
+                marketCache = new MarketCache();
+                marketCache.isMarketRemovedOnClose = byteBuffer.get() != 0;
+                marketCache.conflatedCount.set(byteBuffer.getInt());
+                final int nMarkets = byteBuffer.getInt();
+                for (int i = 0; i < nMarkets; i++) {
+                    final String marketId = SnapshotFile.readString(byteBuffer);
+                    marketCache.markets.put(marketId, Market.readSnapshot(marketId, byteBuffer), true);
+                }
+                @SuppressWarnings("unchecked") final Map<String, MarketDefinition> marketDefinitions = (Map<String, MarketDefinition>) SnapshotFile.readSerializable(byteBuffer);
+                if (marketDefinitions != null) {
+                    for (final Map.Entry<String, MarketDefinition> entry : marketDefinitions.entrySet()) {
+                        final Market market = marketCache.markets.get(entry.getKey());
+                        if (market == null) {
+                            logger.error("marketDefinition without market in {} snapshot: {}", SNAPSHOT_SECTION, entry.getKey());
+                        } else {
+                            market.restoreMarketDefinition(entry.getValue());
+                        }
+                    }
+                } else {
+                    logger.error("null marketDefinitions in {} snapshot", SNAPSHOT_SECTION);
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException exception) {
+                logger.error("exception in MarketCache.readSnapshot", exception);
+                marketCache = null;
+            }
+        }
+        return marketCache;
     }
 
     public synchronized void clearCachedObjects() {
@@ -53,7 +154,7 @@ public class MarketCache
     public synchronized boolean copyFromStream(final MarketCache other) {
         final boolean readSuccessful;
         if (other == null) {
-            logger.error("null other in copyFromStream for: {}", Generic.objectToString(this));
+            logger.error("null other in copyFromStream for: {}", Generic.lazyObjectToString(this));
             readSuccessful = false;
         } else {
 //            Generic.updateObject(this, other);
@@ -61,7 +162,7 @@ public class MarketCache
             this.markets.clear();
             this.markets.putAll(other.markets.copy());
             this.isMarketRemovedOnClose = other.isMarketRemovedOnClose;
-            this.conflatedCount = other.conflatedCount;
+            this.conflatedCount.set(other.conflatedCount.get());
 
             readSuccessful = true;
         }
@@ -69,80 +170,111 @@ public class MarketCache
         final int nQueues = this.listOfQueues.size();
         if (nQueues == 0) { // normal case, nothing to be done
         } else {
-            logger.error("existing queues during MarketCache.copyFromStream: {} {}", nQueues, Generic.objectToString(this));
+            logger.error("existing queues during MarketCache.copyFromStream: {} {}", nQueues, Generic.lazyObjectToString(this));
             this.listOfQueues.clear();
         }
         return readSuccessful;
     }
 
-    public synchronized void onMarketChange(@NotNull final ChangeMessage<? extends MarketChange> changeMessage, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
+    public void onMarketChange(@NotNull final ChangeMessage<? extends MarketChange> changeMessage, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
+        final ChangeJournal journalInstance = this.journal;
+        if (journalInstance == null) {
+            applyChangeMessage(changeMessage, rulesManager, marketCataloguesMap);
+        } else { // a checkpoint can't start between the append and the apply
+            journalInstance.appendAndApply(ChangeJournal.MARKET_CHANGE_MESSAGE, SNAPSHOT_SECTION, changeMessage, () -> applyChangeMessage(changeMessage, rulesManager, marketCataloguesMap));
+        }
+    }
+
+    private void applyChangeMessage(@NotNull final ChangeMessage<? extends MarketChange> changeMessage, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
         if (changeMessage.isStartOfNewSubscription()) {
             // was it right to disable markets.clear() in isStartOfNewSubscription ?; maybe, it seems markets are properly updated, although some old no longer used markets are probably not removed, I'll see more with testing
             // clear cache ... no clear anymore, because of multiple clients
 //            markets.clear();
         }
-        if (changeMessage.getItems() != null) {
+        final List<? extends MarketChange> items = changeMessage.getItems();
+        if (items != null) {
             final Collection<String> marketIds = new HashSet<>(2);
-            for (final MarketChange marketChange : changeMessage.getItems()) {
+            final List<MarketChange> marketChanges = new ArrayList<>(items.size());
+            final boolean reactiveManagement = rulesManager.reactiveManagement.get();
+            for (final MarketChange marketChange : items) {
                 if (marketChange == null) {
-                    logger.error("null change in onMarketChange for: {}", Generic.objectToString(changeMessage));
+                    logger.error("null change in onMarketChange for: {}", Generic.lazyObjectToString(changeMessage));
                 } else {
-                    marketIds.add(marketChange.getId());
-                    final Market market = onMarketChange(marketChange, rulesManager, marketCataloguesMap);
-                    if (this.isMarketRemovedOnClose && market.isClosed()) {
-                        //remove on close
-                        this.markets.remove(market.getMarketId());
+                    if (!reactiveManagement || isManageRelevant(marketChange, rulesManager)) {
+                        marketIds.add(marketChange.getId());
+                    } else { // change doesn't affect what the manage pass would do, no check scheduled
                     }
+                    marketChanges.add(marketChange);
                 }
             } // end for
+            final ChangeMessageDispatcher dispatcherInstance = this.dispatcher;
+            if (dispatcherInstance == null) {
+                for (final MarketChange marketChange : marketChanges) {
+                    applyMarketChange(marketChange, rulesManager, marketCataloguesMap);
+                }
+            } else {
+                dispatcherInstance.dispatch(marketChanges, MarketChange::getId, marketChange -> applyMarketChange(marketChange, rulesManager, marketCataloguesMap));
+            }
             rulesManager.marketsToCheck.put(marketIds, System.currentTimeMillis());
         } else { // maybe it's normal, nothing to be done
         }
     }
 
+    private static boolean isManageRelevant(@NotNull final MarketChange marketChange, @NotNull final RulesManager rulesManager) { // only managed markets are checked, and only for changes inside their odds windows
+        final String marketId = marketChange.getId();
+        return marketId != null && rulesManager.markets.containsKey(marketId) && rulesManager.marketSubscriptions.isRelevant(marketChange);
+    }
+
+    private void applyMarketChange(@NotNull final MarketChange marketChange, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
+        final Market market = onMarketChange(marketChange, rulesManager, marketCataloguesMap);
+        if (this.isMarketRemovedOnClose && market.isClosed()) {
+            //remove on close
+            this.markets.remove(market.getMarketId(), market);
+        }
+    }
+
     @NotNull
-    private synchronized Market onMarketChange(@NotNull final MarketChange marketChange, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
+    private Market onMarketChange(@NotNull final MarketChange marketChange, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap) {
         if (Boolean.TRUE.equals(marketChange.getCon())) {
-            this.conflatedCount++;
+            this.conflatedCount.incrementAndGet();
         }
         final String marketId = marketChange.getId();
-        final boolean newMarketIsBeingAdded = !this.markets.containsKey(marketId);
-        //        final Market market;
-//        if (this.markets.containsKey(marketId)) {
-//            market = this.markets.get(marketId);
-//        } else {
-//            market = new Market(marketId, marketsToCheck);
-//            this.markets.put(marketId, market);
-//        }
+        final Market existingMarket = this.markets.get(marketId);
+        final Market market;
+        if (existingMarket == null) {
+            market = addNewMarket(marketId, rulesManager, marketCataloguesMap, marketChange);
+        } else { // market was already present, only this market is locked during the update
+            market = existingMarket;
+            market.onMarketChange(marketChange);
+        }
+        return market;
+    }
 
+    @NotNull
+    private Market addNewMarket(final String marketId, @NotNull final RulesManager rulesManager, @NotNull final StreamSynchronizedMap<? super String, ? extends MarketCatalogue> marketCataloguesMap,
+                                @NotNull final MarketChange marketChange) {
+        final Market newMarket = new Market(marketId);
+        newMarket.onMarketChange(marketChange); // applied before the market becomes visible to readers
+        final Market existingMarket = this.markets.putIfAbsent(marketId, newMarket);
         final Market market;
-        if (newMarketIsBeingAdded) {
-            market = addNewMarket(marketId, rulesManager.marketsToCheck, marketChange);
+        if (existingMarket == null) {
+            market = newMarket;
+            rulesManager.marketsToCheck.put(marketId, System.currentTimeMillis());
 
             final ManagedMarket managedMarket = rulesManager.markets.get(marketId);
             if (managedMarket == null) { // no managedMarket present, nothing to be done
             } else {
                 managedMarket.attachMarket(rulesManager, marketCataloguesMap, true);
             }
-        } else { // market was already present, nothing to be done
-            market = this.markets.get(marketId);
+        } else { // another thread added the market in the meantime; the change is applied to the stored market
+            market = existingMarket;
             market.onMarketChange(marketChange);
         }
         return market;
     }
 
-    @NotNull
-    private synchronized Market addNewMarket(final String marketId, @NotNull final MarketsToCheckMap marketsToCheck, @NotNull final MarketChange marketChange) {
-        final Market market = new Market(marketId);
-        market.onMarketChange(marketChange);
-        this.markets.put(marketId, market, true);
-        marketsToCheck.put(marketId, System.currentTimeMillis());
-
-        return market;
-    }
-
-    public synchronized int getConflatedCount() {
-        return this.conflatedCount;
+    public int getConflatedCount() {
+        return this.conflatedCount.get();
     }
 
 //    public synchronized void setConflatedCount(final int conflatedCount) {
@@ -150,7 +282,7 @@ public class MarketCache
 //    }
 
     @SuppressWarnings("SuspiciousGetterSetter")
-    public synchronized boolean isMarketRemovedOnClose() {
+    public boolean isMarketRemovedOnClose() {
         return this.isMarketRemovedOnClose;
     }
 
@@ -159,30 +291,36 @@ public class MarketCache
 //        this.isMarketRemovedOnClose = marketRemovedOnClose;
 //    }
 
-    public synchronized Market getMarket(final String marketId) {
+    public Market getMarket(final String marketId) {
         //queries by market id - the result is invariant for the lifetime of the market.
         return this.markets.get(marketId);
     }
 
-    public synchronized Iterable<Market> getMarkets() {
+    @Nullable
+    public MarketSnapshot getMarketSnapshot(final String marketId) { // lock free consistent view of the market after the last applied change; null if the market is not in the cache
+        final Market market = this.markets.get(marketId);
+        return market == null ? null : market.getSnapshot();
+    }
+
+    public Iterable<Market> getMarkets() {
         //all the cached markets
         return this.markets.valuesCopy();
     }
 
-    public synchronized int getMarketCount() {
+    public int getMarketCount() {
         //market count
         return this.markets.size();
     }
 
-    public synchronized boolean isEmpty() {
+    public boolean isEmpty() {
         return this.markets.isEmpty();
     }
 
-    public synchronized boolean contains(final String marketId) {
+    public boolean contains(final String marketId) {
         return this.markets.containsKey(marketId);
     }
 
-    public synchronized boolean contains(@NotNull final ManagedMarket managedMarket) {
+    public boolean contains(@NotNull final ManagedMarket managedMarket) {
         final String marketId = managedMarket.getMarketId();
         return this.markets.containsKey(marketId);
     }
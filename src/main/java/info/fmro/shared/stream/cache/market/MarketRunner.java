@@ -2,27 +2,30 @@ package info.fmro.shared.stream.cache.market;
 
 import com.google.common.util.concurrent.AtomicDouble;
 import info.fmro.shared.objects.AmountsNavigableMap;
-import info.fmro.shared.objects.SharedStatics;
+import info.fmro.shared.stream.cache.LadderSnapshot;
 import info.fmro.shared.stream.cache.OrdersList;
-import info.fmro.shared.stream.cache.RunnerOrderModification;
+import info.fmro.shared.stream.cache.RecentModificationsRing;
+import info.fmro.shared.stream.cache.RecentModificationsView;
+import info.fmro.shared.stream.cache.RunnerOrderModificationsBuffer;
 import info.fmro.shared.stream.definitions.LevelPriceSizeLadder;
+import info.fmro.shared.stream.definitions.PriceLadderDelta;
 import info.fmro.shared.stream.definitions.RunnerChange;
 import info.fmro.shared.stream.definitions.RunnerDefinition;
 import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.utility.Formulas;
-import info.fmro.shared.utility.Generic;
-import info.fmro.shared.utility.LogLevel;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.TreeMap;
 
 @SuppressWarnings({"WeakerAccess", "RedundantSuppression"})
@@ -36,15 +39,16 @@ public class MarketRunner
     @SuppressWarnings({"FieldCanBeLocal", "unused"})
     private final String marketId;
     private final RunnerId runnerId;
-    private final LinkedList<RunnerOrderModification> recentModifications = new LinkedList<>(); // will contain sizes in GBP, and will only be extracted after conversion to EUR
+    private final RecentModificationsRing recentModifications = new RecentModificationsRing(recentModificationPeriod); // will contain sizes in GBP, and will only be extracted after conversion to EUR
+    private transient RunnerOrderModificationsBuffer modificationsBuffer; // reused for every ladder delta
 // todo hold a record of recent knowledge, remove non recent knowledge when expiredModifications are removed, return modifications + worst recent knowledge; everything modification outside worst knowledge is possible
     // Full depth Ladders
 //    private MarketRunnerPrices marketRunnerPrices = new MarketRunnerPrices();
-    private final PriceSizeLadder atlPrices = PriceSizeLadder.newLay(); // available to lay
-    private final PriceSizeLadder atbPrices = PriceSizeLadder.newBack(); // available to back
-    private final PriceSizeLadder trdPrices = PriceSizeLadder.newLay(); // traded
-    private final PriceSizeLadder spbPrices = PriceSizeLadder.newBack();
-    private final PriceSizeLadder splPrices = PriceSizeLadder.newLay();
+    private final TickPriceSizeLadder atlPrices = TickPriceSizeLadder.newLay(); // available to lay
+    private final TickPriceSizeLadder atbPrices = TickPriceSizeLadder.newBack(); // available to back
+    private final TickPriceSizeLadder trdPrices = TickPriceSizeLadder.newLay(); // traded
+    private final TickPriceSizeLadder spbPrices = TickPriceSizeLadder.newBack();
+    private final TickPriceSizeLadder splPrices = TickPriceSizeLadder.newLay();
 
     // Level / Depth Based Ladders
     private final LevelPriceSizeLadder batbPrices = new LevelPriceSizeLadder(Side.B);
@@ -59,59 +63,109 @@ public class MarketRunner
     private double tv; // total value traded
     @SuppressWarnings({"FieldCanBeLocal", "unused"})
     private RunnerDefinition runnerDefinition;
+    private long epoch; // epoch of the last market change applied to this runner
+    @Nullable
+    private transient volatile MarketRunnerSnapshot snapshot; // built on the first read after a change, null until then
+    @Nullable
+    private transient LadderSnapshot atlSnapshot, atbSnapshot, batlSnapshot, batbSnapshot; // reused by the next snapshot while the ladder doesn't change
+    @Nullable
+    private transient RecentModificationsView layModifications, backModifications; // dropped before the ring is written, so only the views held by readers keep the ring copying on write
 
     MarketRunner(final String marketId, final RunnerId runnerId) {
         this.marketId = marketId;
         this.runnerId = runnerId;
     }
 
-    private synchronized void removeExpiredModifications() {
-        final long currentTime = System.currentTimeMillis();
-        if (this.recentModifications.isEmpty()) { // nothing to remove
-        } else {
-            boolean removingFirstElement;
-            do {
-                final RunnerOrderModification modification = this.recentModifications.peek();
-                if (modification == null) {
-                    logger.error("null modification in removeExpiredModifications for: {}", Generic.objectToString(this.recentModifications));
-                    removingFirstElement = true;
-                } else {
-                    final long stamp = modification.getTimeStamp();
-                    removingFirstElement = stamp + recentModificationPeriod < currentTime;
-                }
-                if (removingFirstElement) {
-                    this.recentModifications.remove();
-                } else { // not expired, won't remove
-                }
-            } while (!this.recentModifications.isEmpty() && removingFirstElement);
-        }
+    @NotNull
+    synchronized MarketRunner copy() { // the stream definitions are never modified after being read, so they are shared
+        final MarketRunner copy = new MarketRunner(this.marketId, this.runnerId);
+        copy.recentModifications.copyFrom(this.recentModifications);
+        copy.atlPrices.copyFrom(this.atlPrices);
+        copy.atbPrices.copyFrom(this.atbPrices);
+        copy.trdPrices.copyFrom(this.trdPrices);
+        copy.spbPrices.copyFrom(this.spbPrices);
+        copy.splPrices.copyFrom(this.splPrices);
+        copy.batbPrices.copyFrom(this.batbPrices);
+        copy.batlPrices.copyFrom(this.batlPrices);
+        copy.bdatbPrices.copyFrom(this.bdatbPrices);
+        copy.bdatlPrices.copyFrom(this.bdatlPrices);
+        copy.spn = this.spn;
+        copy.spf = this.spf;
+        copy.ltp = this.ltp;
+        copy.tv = this.tv;
+        copy.runnerDefinition = this.runnerDefinition;
+        copy.epoch = this.epoch;
+        return copy;
     }
 
-//    private synchronized void addRecentModification(@NotNull final RunnerOrderModification modification) {
-//        this.recentModifications.add(modification);
-//        removeExpiredModifications();
-//    }
+    synchronized void writeSnapshot(@NotNull final DataOutput dataOutput) // the runnerDefinition is not written, it's restored from the marketDefinition
+            throws IOException {
+        dataOutput.writeDouble(this.spn);
+        dataOutput.writeDouble(this.spf);
+        dataOutput.writeDouble(this.ltp);
+        dataOutput.writeDouble(this.tv);
+        dataOutput.writeLong(this.epoch);
+        this.atlPrices.writeSnapshot(dataOutput);
+        this.atbPrices.writeSnapshot(dataOutput);
+        this.trdPrices.writeSnapshot(dataOutput);
+        this.spbPrices.writeSnapshot(dataOutput);
+        this.splPrices.writeSnapshot(dataOutput);
+        this.batbPrices.writeSnapshot(dataOutput);
+        this.batlPrices.writeSnapshot(dataOutput);
+        this.bdatbPrices.writeSnapshot(dataOutput);
+        this.bdatlPrices.writeSnapshot(dataOutput);
+        this.recentModifications.writeSnapshot(dataOutput);
+    }
 
-    private synchronized void addRecentModifications(final Collection<RunnerOrderModification> modifications) {
-        if (modifications == null) { // nothing to be done
-        } else {
-            this.recentModifications.addAll(modifications);
+    synchronized void readSnapshot(@NotNull final ByteBuffer byteBuffer) { // this runner must be new, not yet shared
+        this.spn = byteBuffer.getDouble();
+        this.spf = byteBuffer.getDouble();
+        this.ltp = byteBuffer.getDouble();
+        this.tv = byteBuffer.getDouble();
+        this.epoch = byteBuffer.getLong();
+        this.atlPrices.readSnapshot(byteBuffer);
+        this.atbPrices.readSnapshot(byteBuffer);
+        this.trdPrices.readSnapshot(byteBuffer);
+        this.spbPrices.readSnapshot(byteBuffer);
+        this.splPrices.readSnapshot(byteBuffer);
+        this.batbPrices.readSnapshot(byteBuffer);
+        this.batlPrices.readSnapshot(byteBuffer);
+        this.bdatbPrices.readSnapshot(byteBuffer);
+        this.bdatlPrices.readSnapshot(byteBuffer);
+        this.recentModifications.readSnapshot(byteBuffer);
+    }
+
+    synchronized void setRunnerDefinition(final RunnerDefinition runnerDefinition) { // used when restoring, doesn't change the epoch
+        this.runnerDefinition = runnerDefinition;
+    }
+
+    @NotNull
+    private synchronized RunnerOrderModificationsBuffer getModificationsBuffer() {
+        if (this.modificationsBuffer == null) { // transient field, null after deserialization
+            this.modificationsBuffer = new RunnerOrderModificationsBuffer();
+        } else { // already exists, will be reused
         }
-        removeExpiredModifications();
+        return this.modificationsBuffer;
     }
 
-    synchronized void onPriceChange(final boolean isImage, @NotNull final RunnerChange runnerChange) {
-        addRecentModifications(this.atlPrices.onPriceChangeGetModifications(isImage, runnerChange.getAtl()));
-        addRecentModifications(this.atbPrices.onPriceChangeGetModifications(isImage, runnerChange.getAtb()));
-        addRecentModifications(this.batlPrices.onPriceChangeGetModifications(isImage, runnerChange.getBatl()));
-        addRecentModifications(this.batbPrices.onPriceChangeGetModifications(isImage, runnerChange.getBatb()));
+    synchronized void onPriceChange(final boolean isImage, @NotNull final RunnerChange runnerChange, final long marketEpoch) {
+        final RunnerOrderModificationsBuffer buffer = getModificationsBuffer();
+        final long currentTime = System.currentTimeMillis();
+        final List<List<Double>> atl = runnerChange.getAtl(), atb = runnerChange.getAtb(), batl = runnerChange.getBatl(), batb = runnerChange.getBatb();
+        invalidateSnapshot(isImage || atl != null, isImage || atb != null, isImage || batl != null, isImage || batb != null);
+        this.atlPrices.onPriceChange(isImage, atl, buffer);
+        this.recentModifications.add(buffer, currentTime);
+        this.atbPrices.onPriceChange(isImage, atb, buffer);
+        this.recentModifications.add(buffer, currentTime);
+        this.batlPrices.onPriceChange(isImage, batl, buffer);
+        this.recentModifications.add(buffer, currentTime);
+        this.batbPrices.onPriceChange(isImage, batb, buffer);
+        this.recentModifications.add(buffer, currentTime);
 
         this.trdPrices.onPriceChange(isImage, runnerChange.getTrd());
         this.spbPrices.onPriceChange(isImage, runnerChange.getSpb());
         this.splPrices.onPriceChange(isImage, runnerChange.getSpl());
 
-        this.batbPrices.onPriceChange(isImage, runnerChange.getBatb());
-        this.batlPrices.onPriceChange(isImage, runnerChange.getBatl());
         this.bdatbPrices.onPriceChange(isImage, runnerChange.getBdatb());
         this.bdatlPrices.onPriceChange(isImage, runnerChange.getBdatl());
 
@@ -119,10 +173,122 @@ public class MarketRunner
         this.setSpf(Formulas.selectPrice(isImage, this.getSpf(), runnerChange.getSpf()));
         this.setLtp(Formulas.selectPrice(isImage, this.getLtp(), runnerChange.getLtp()));
         this.setTv(Formulas.selectPrice(isImage, this.getTv(), runnerChange.getTv()));
+
+        this.epoch = marketEpoch;
+    }
+
+    // true if the change has a ladder level, traded price or last traded price where orders limited by these odds could be placed: backs at minBackOdds or higher, lays at maxLayOdds or lower
+    public static boolean deltaTouchesOdds(@NotNull final RunnerChange runnerChange, final double minBackOdds, final double maxLayOdds) {
+        final boolean backUsable = Formulas.oddsAreUsable(minBackOdds), layUsable = Formulas.oddsAreUsable(maxLayOdds);
+        final Double ltp = runnerChange.getLtp();
+        return (backUsable || layUsable) &&
+               (ladderTouchesOdds(runnerChange.getAtl(), 0, backUsable, minBackOdds, layUsable, maxLayOdds) || ladderTouchesOdds(runnerChange.getAtb(), 0, backUsable, minBackOdds, layUsable, maxLayOdds) ||
+                ladderTouchesOdds(runnerChange.getBatl(), 1, backUsable, minBackOdds, layUsable, maxLayOdds) || ladderTouchesOdds(runnerChange.getBatb(), 1, backUsable, minBackOdds, layUsable, maxLayOdds) ||
+                ladderTouchesOdds(runnerChange.getBdatl(), 1, backUsable, minBackOdds, layUsable, maxLayOdds) || ladderTouchesOdds(runnerChange.getBdatb(), 1, backUsable, minBackOdds, layUsable, maxLayOdds) ||
+                ladderTouchesOdds(runnerChange.getTrd(), 0, backUsable, minBackOdds, layUsable, maxLayOdds) ||
+                (ltp != null && priceTouchesOdds(ltp, backUsable, minBackOdds, layUsable, maxLayOdds)));
+    }
+
+    private static boolean ladderTouchesOdds(final List<List<Double>> delta, final int priceIndex, final boolean backUsable, final double minBackOdds, final boolean layUsable, final double maxLayOdds) {
+        boolean touched = false;
+        if (delta == null) { // ladder not in this change
+        } else if (delta instanceof final PriceLadderDelta priceLadderDelta) { // decoded ladder, the prices are read as primitives, without the boxed tuples of get(index)
+            final int nTuples = priceLadderDelta.size();
+            for (int i = 0; i < nTuples; i++) {
+                if (priceTouchesOdds(priceLadderDelta.getPrice(i), backUsable, minBackOdds, layUsable, maxLayOdds)) {
+                    touched = true;
+                    break;
+                } else { // outside the window
+                }
+            }
+        } else {
+            for (final List<Double> level : delta) {
+                final Double price = level == null || level.size() <= priceIndex ? null : level.get(priceIndex);
+                if (price != null && priceTouchesOdds(price, backUsable, minBackOdds, layUsable, maxLayOdds)) {
+                    touched = true;
+                    break;
+                } else { // outside the window, or malformed level
+                }
+            }
+        }
+        return touched;
+    }
+
+    private static boolean priceTouchesOdds(final double price, final boolean backUsable, final double minBackOdds, final boolean layUsable, final double maxLayOdds) {
+        return (backUsable && price >= minBackOdds) || (layUsable && price <= maxLayOdds);
     }
 
-    synchronized void onRunnerDefinitionChange(final RunnerDefinition newRunnerDefinition) {
+    synchronized void onRunnerDefinitionChange(final RunnerDefinition newRunnerDefinition, final long marketEpoch) {
+        invalidateSnapshot(false, false, false, false);
         this.runnerDefinition = newRunnerDefinition;
+
+        this.epoch = marketEpoch;
+    }
+
+    private synchronized void invalidateSnapshot(final boolean atlChanged, final boolean atbChanged, final boolean batlChanged, final boolean batbChanged) { // nothing is copied here, the next read builds the snapshot
+        this.snapshot = null;
+        if (atlChanged) {
+            this.atlSnapshot = null;
+        } else { // kept for the next snapshot
+        }
+        if (atbChanged) {
+            this.atbSnapshot = null;
+        } else { // kept for the next snapshot
+        }
+        if (batlChanged) {
+            this.batlSnapshot = null;
+        } else { // kept for the next snapshot
+        }
+        if (batbChanged) {
+            this.batbSnapshot = null;
+        } else { // kept for the next snapshot
+        }
+        if (atlChanged || atbChanged || batlChanged || batbChanged) { // the ladder changes add modifications
+            this.layModifications = null;
+            this.backModifications = null;
+        } else { // no modifications added, the views are kept
+        }
+    }
+
+    @NotNull
+    public MarketRunnerSnapshot getSnapshot() { // lock free, except for the first read after a change
+        final MarketRunnerSnapshot existingSnapshot = this.snapshot;
+        return existingSnapshot == null ? buildSnapshot() : existingSnapshot;
+    }
+
+    @NotNull
+    private synchronized MarketRunnerSnapshot buildSnapshot() { // only the ladders that changed since the last snapshot are copied
+        MarketRunnerSnapshot newSnapshot = this.snapshot;
+        if (newSnapshot == null) { // not yet built by another reader
+            if (this.atlSnapshot == null) {
+                this.atlSnapshot = this.atlPrices.getSnapshot();
+            } else { // ladder unchanged
+            }
+            if (this.atbSnapshot == null) {
+                this.atbSnapshot = this.atbPrices.getSnapshot();
+            } else { // ladder unchanged
+            }
+            if (this.batlSnapshot == null) {
+                this.batlSnapshot = this.batlPrices.getSnapshot();
+            } else { // ladder unchanged
+            }
+            if (this.batbSnapshot == null) {
+                this.batbSnapshot = this.batbPrices.getSnapshot();
+            } else { // ladder unchanged
+            }
+            if (this.layModifications == null || this.backModifications == null) {
+                final long currentTime = System.currentTimeMillis();
+                this.layModifications = this.recentModifications.getView(Side.L, 1d, currentTime);
+                this.backModifications = this.recentModifications.getView(Side.B, 1d, currentTime);
+            } else { // no modifications added
+            }
+
+            newSnapshot = new MarketRunnerSnapshot(this.runnerId, this.epoch, this.atlSnapshot, this.atbSnapshot, this.batlSnapshot, this.batbSnapshot, this.layModifications, this.backModifications, this.spn, this.spf, this.ltp, this.tv, isActive(),
+                                                   getSortPriority());
+            this.snapshot = newSnapshot;
+        } else { // built by another reader while waiting for the lock
+        }
+        return newSnapshot;
     }
 
     @Nullable
@@ -225,85 +391,29 @@ public class MarketRunner
 
     @NotNull
     public synchronized OrdersList getFullAvailableToLay(@NotNull final AtomicDouble currencyRate) { // full ladder, not used now
-        removeExpiredModifications();
         final double currencyRatePrimitive = currencyRate.get();
         final TreeMap<Double, Double> orders = this.atlPrices.getSimpleTreeMap(currencyRatePrimitive);
-        final LinkedList<RunnerOrderModification> layRecentModifications = new LinkedList<>();
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (runnerOrderModification == null) {
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in getAvailableToLay");
-            } else {
-                final Side side = runnerOrderModification.getSide();
-                if (side == Side.L) {
-                    final RunnerOrderModification runnerOrderModificationEUR = new RunnerOrderModification(side, runnerOrderModification.getPrice(), runnerOrderModification.getSize() * currencyRatePrimitive);
-                    layRecentModifications.add(runnerOrderModificationEUR);
-                } else { // not the side I want
-                }
-            }
-        }
-        return new OrdersList(orders, layRecentModifications, Side.L, AmountsNavigableMap.NOT_PRESENT);
+        return new OrdersList(orders, this.recentModifications.getView(Side.L, currencyRatePrimitive, System.currentTimeMillis()), Side.L, AmountsNavigableMap.NOT_PRESENT);
     }
 
     @NotNull
     public synchronized OrdersList getAvailableToLay(@NotNull final AtomicDouble currencyRate) {
-        removeExpiredModifications();
         final double currencyRatePrimitive = currencyRate.get();
         final TreeMap<Double, Double> orders = this.batlPrices.getSimpleTreeMap(currencyRatePrimitive);
-        final LinkedList<RunnerOrderModification> layRecentModifications = new LinkedList<>();
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (runnerOrderModification == null) {
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in getAvailableToLay");
-            } else {
-                final Side side = runnerOrderModification.getSide();
-                if (side == Side.L) {
-                    final RunnerOrderModification runnerOrderModificationEUR = new RunnerOrderModification(side, runnerOrderModification.getPrice(), runnerOrderModification.getSize() * currencyRatePrimitive);
-                    layRecentModifications.add(runnerOrderModificationEUR);
-                } else { // not the side I want
-                }
-            }
-        }
-        return new OrdersList(orders, layRecentModifications, Side.L, this.batlPrices.getWorstOdds());
+        return new OrdersList(orders, this.recentModifications.getView(Side.L, currencyRatePrimitive, System.currentTimeMillis()), Side.L, this.batlPrices.getWorstOdds());
     }
 
     @NotNull
     public synchronized OrdersList getFullAvailableToBack(@NotNull final AtomicDouble currencyRate) { // full ladder, not used now
-        removeExpiredModifications();
         final double currencyRatePrimitive = currencyRate.get();
         final TreeMap<Double, Double> orders = this.atbPrices.getSimpleTreeMap(currencyRatePrimitive);
-        final LinkedList<RunnerOrderModification> backRecentModifications = new LinkedList<>();
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (runnerOrderModification == null) {
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in getAvailableToBack");
-            } else {
-                final Side side = runnerOrderModification.getSide();
-                if (side == Side.B) {
-                    final RunnerOrderModification runnerOrderModificationEUR = new RunnerOrderModification(side, runnerOrderModification.getPrice(), runnerOrderModification.getSize() * currencyRatePrimitive);
-                    backRecentModifications.add(runnerOrderModificationEUR);
-                } else { // not the side I want
-                }
-            }
-        }
-        return new OrdersList(orders, backRecentModifications, Side.B, AmountsNavigableMap.NOT_PRESENT);
+        return new OrdersList(orders, this.recentModifications.getView(Side.B, currencyRatePrimitive, System.currentTimeMillis()), Side.B, AmountsNavigableMap.NOT_PRESENT);
     }
 
     @NotNull
     public synchronized OrdersList getAvailableToBack(@NotNull final AtomicDouble currencyRate) {
-        removeExpiredModifications();
         final double currencyRatePrimitive = currencyRate.get();
         final TreeMap<Double, Double> orders = this.batbPrices.getSimpleTreeMap(currencyRatePrimitive);
-        final LinkedList<RunnerOrderModification> backRecentModifications = new LinkedList<>();
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (runnerOrderModification == null) {
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in getAvailableToBack");
-            } else {
-                final Side side = runnerOrderModification.getSide();
-                if (side == Side.B) {
-                    final RunnerOrderModification runnerOrderModificationEUR = new RunnerOrderModification(side, runnerOrderModification.getPrice(), runnerOrderModification.getSize() * currencyRatePrimitive);
-                    backRecentModifications.add(runnerOrderModificationEUR);
-                } else { // not the side I want
-                }
-            }
-        }
-        return new OrdersList(orders, backRecentModifications, Side.B, this.batbPrices.getWorstOdds());
+        return new OrdersList(orders, this.recentModifications.getView(Side.B, currencyRatePrimitive, System.currentTimeMillis()), Side.B, this.batbPrices.getWorstOdds());
     }
 }
@@ -0,0 +1,136 @@
+package info.fmro.shared.stream.cache.market;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.objects.AmountsNavigableMap;
+import info.fmro.shared.stream.cache.LadderSnapshot;
+import info.fmro.shared.stream.cache.OrdersList;
+import info.fmro.shared.stream.cache.RecentModificationsView;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.stream.objects.RunnerId;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// immutable state of a MarketRunner after a change was applied; read without locks, and all values come from the same change, so the book is consistent
+// ladders that didn't change are shared with the previous snapshot of the runner
+public final class MarketRunnerSnapshot {
+    private final RunnerId runnerId;
+    private final long epoch; // epoch of the market change that produced this snapshot
+    @NotNull
+    private final LadderSnapshot atl, atb, batl, batb;
+    @NotNull
+    private final RecentModificationsView layModifications, backModifications; // sizes in GBP
+    private final double spn, spf, ltp, tv;
+    private final boolean isActive;
+    @Nullable
+    private final Integer sortPriority;
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    MarketRunnerSnapshot(final RunnerId runnerId, final long epoch, @NotNull final LadderSnapshot atl, @NotNull final LadderSnapshot atb, @NotNull final LadderSnapshot batl, @NotNull final LadderSnapshot batb,
+                         @NotNull final RecentModificationsView layModifications, @NotNull final RecentModificationsView backModifications, final double spn, final double spf, final double ltp, final double tv, final boolean isActive,
+                         @Nullable final Integer sortPriority) {
+        this.runnerId = runnerId;
+        this.epoch = epoch;
+        this.atl = atl;
+        this.atb = atb;
+        this.batl = batl;
+        this.batb = batb;
+        this.layModifications = layModifications;
+        this.backModifications = backModifications;
+        this.spn = spn;
+        this.spf = spf;
+        this.ltp = ltp;
+        this.tv = tv;
+        this.isActive = isActive;
+        this.sortPriority = sortPriority;
+    }
+
+    @Contract(pure = true)
+    public RunnerId getRunnerId() {
+        return this.runnerId;
+    }
+
+    @Contract(pure = true)
+    public long getEpoch() {
+        return this.epoch;
+    }
+
+    @Contract(pure = true)
+    public boolean isActive() {
+        return this.isActive;
+    }
+
+    @Nullable
+    @Contract(pure = true)
+    public Integer getSortPriority() {
+        return this.sortPriority;
+    }
+
+    @Contract(pure = true)
+    public double getLtp() {
+        return this.ltp;
+    }
+
+    public double getTvEUR(@NotNull final AtomicDouble currencyRate) {
+        return this.tv * currencyRate.get();
+    }
+
+    public double getSpnEUR(@NotNull final AtomicDouble currencyRate) {
+        return this.spn * currencyRate.get();
+    }
+
+    public double getSpfEUR(@NotNull final AtomicDouble currencyRate) {
+        return this.spf * currencyRate.get();
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public LadderSnapshot getAtl() {
+        return this.atl;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public LadderSnapshot getAtb() {
+        return this.atb;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public LadderSnapshot getBatl() {
+        return this.batl;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public LadderSnapshot getBatb() {
+        return this.batb;
+    }
+
+    @NotNull
+    public OrdersList getFullAvailableToLay(@NotNull final AtomicDouble currencyRate) { // full ladder, not used now
+        return getOrdersList(this.atl, this.layModifications, currencyRate.get(), AmountsNavigableMap.NOT_PRESENT);
+    }
+
+    @NotNull
+    public OrdersList getAvailableToLay(@NotNull final AtomicDouble currencyRate) {
+        return getOrdersList(this.batl, this.layModifications, currencyRate.get(), this.batl.getWorstOdds());
+    }
+
+    @NotNull
+    public OrdersList getFullAvailableToBack(@NotNull final AtomicDouble currencyRate) { // full ladder, not used now
+        return getOrdersList(this.atb, this.backModifications, currencyRate.get(), AmountsNavigableMap.NOT_PRESENT);
+    }
+
+    @NotNull
+    public OrdersList getAvailableToBack(@NotNull final AtomicDouble currencyRate) {
+        return getOrdersList(this.batb, this.backModifications, currencyRate.get(), this.batb.getWorstOdds());
+    }
+
+    @NotNull
+    private static OrdersList getOrdersList(@NotNull final LadderSnapshot ladder, @NotNull final RecentModificationsView modifications, final double currencyRate, final double worstOdds) {
+        final Side side = ladder.getSide();
+        final RecentModificationsView recentModifications = modifications.getView(currencyRate, System.currentTimeMillis() - MarketRunner.recentModificationPeriod); // modifications that expired since the snapshot are dropped
+        return new OrdersList(ladder.getSimpleTreeMap(currencyRate), recentModifications, side, worstOdds);
+    }
+}
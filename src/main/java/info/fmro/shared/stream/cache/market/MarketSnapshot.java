@@ -0,0 +1,86 @@
+package info.fmro.shared.stream.cache.market;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.enums.MarketStatus;
+import info.fmro.shared.stream.definitions.MarketDefinition;
+import info.fmro.shared.stream.objects.RunnerId;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+// immutable state of a Market after a change was applied, published by the Market and read without locks; the epoch increases with each applied change
+// runner snapshots of runners not touched by the change are shared with the previous market snapshot
+public final class MarketSnapshot {
+    private final String marketId;
+    private final long epoch;
+    @Nullable
+    private final MarketDefinition marketDefinition;
+    private final double tv;
+    private final Map<RunnerId, MarketRunnerSnapshot> runners; // unmodifiable
+
+    MarketSnapshot(final String marketId, final long epoch, @Nullable final MarketDefinition marketDefinition, final double tv, @NotNull final Map<RunnerId, MarketRunnerSnapshot> runners) {
+        this.marketId = marketId;
+        this.epoch = epoch;
+        this.marketDefinition = marketDefinition;
+        this.tv = tv;
+        this.runners = Collections.unmodifiableMap(runners);
+    }
+
+    @Contract(pure = true)
+    public String getMarketId() {
+        return this.marketId;
+    }
+
+    @Contract(pure = true)
+    public long getEpoch() {
+        return this.epoch;
+    }
+
+    @Nullable
+    @Contract(pure = true)
+    public MarketDefinition getMarketDefinition() {
+        return this.marketDefinition;
+    }
+
+    @Nullable
+    public String getEventId() {
+        return this.marketDefinition == null ? null : this.marketDefinition.getEventId();
+    }
+
+    public boolean isClosed() {
+        return this.marketDefinition != null && this.marketDefinition.getStatus() == MarketStatus.CLOSED;
+    }
+
+    public double getTvEUR(@NotNull final AtomicDouble currencyRate) {
+        return this.tv * currencyRate.get();
+    }
+
+    @Nullable
+    public MarketRunnerSnapshot getRunner(final RunnerId runnerId) {
+        return this.runners.get(runnerId);
+    }
+
+    @NotNull
+    public Set<RunnerId> getRunnerIds() {
+        return this.runners.keySet();
+    }
+
+    public int getNRunners() {
+        return this.runners.size();
+    }
+
+    public int getNActiveRunners() {
+        int nRunners = 0;
+        for (final MarketRunnerSnapshot runner : this.runners.values()) {
+            if (runner.isActive()) {
+                nRunners++;
+            } else { // not active, nothing to be done
+            }
+        }
+        return nRunners;
+    }
+}
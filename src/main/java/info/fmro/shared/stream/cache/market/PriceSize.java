@@ -24,7 +24,7 @@ public class PriceSize
             if (listSize == 2) {
                 final Double priceObject = priceSize.get(0), sizeObject = priceSize.get(1);
                 if (priceObject == null || sizeObject == null) {
-                    logger.error("null Double in priceSize list in PriceSize object creation: {} {} {}", priceObject, sizeObject, Generic.objectToString(priceSize));
+                    logger.error("null Double in priceSize list in PriceSize object creation: {} {} {}", priceObject, sizeObject, Generic.lazyObjectToString(priceSize));
                     this.price = 0d;
                     this.size = 0d;
                 } else {
@@ -32,7 +32,7 @@ public class PriceSize
                     this.size = sizeObject;
                 }
             } else {
-                logger.error("wrong size {} for priceSize list in PriceSize object creation: {}", listSize, Generic.objectToString(priceSize));
+                logger.error("wrong size {} for priceSize list in PriceSize object creation: {}", listSize, Generic.lazyObjectToString(priceSize));
                 this.price = 0d;
                 this.size = 0d;
             }
@@ -62,9 +62,9 @@ public class PriceSize
 
     synchronized void removeAmountGBP(final double sizeToRemove) { // package private method
         if (this.size < 0d) {
-            logger.error("negative size {} in PriceSize for: {}", this.size, Generic.objectToString(this));
+            logger.error("negative size {} in PriceSize for: {}", this.size, Generic.lazyObjectToString(this));
         } else if (sizeToRemove < 0d) {
-            logger.error("negative sizeToRemove {} in PriceSize.removeAmount for: {}", sizeToRemove, Generic.objectToString(this));
+            logger.error("negative sizeToRemove {} in PriceSize.removeAmount for: {}", sizeToRemove, Generic.lazyObjectToString(this));
         } else {
             this.size -= sizeToRemove;
             if (this.size < 0d) {
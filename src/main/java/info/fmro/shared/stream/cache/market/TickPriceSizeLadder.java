@@ -0,0 +1,364 @@
+package info.fmro.shared.stream.cache.market;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.objects.AmountsNavigableMap;
+import info.fmro.shared.objects.SharedStatics;
+import info.fmro.shared.stream.cache.LadderSnapshot;
+import info.fmro.shared.stream.cache.RunnerOrderModificationsBuffer;
+import info.fmro.shared.stream.definitions.PriceLadderDelta;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.utility.Formulas;
+import info.fmro.shared.utility.LogLevel;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+// full depth ladder stored as primitive sizes indexed by the tick position in Formulas.pricesList; same behavior as the TreeMap ladder it replaced (kept in the tests as PriceSizeLadder), without boxing and without allocation on updates
+public final class TickPriceSizeLadder
+        implements Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(TickPriceSizeLadder.class);
+    @Serial
+    private static final long serialVersionUID = 4418212793386306524L;
+    public static final int NO_POSITION = -1;
+    public static final int N_TICKS = Formulas.getNTicks();
+    private final double[] sizes = new double[N_TICKS]; // markets stream has amounts in GBP; 0d means the level is not present
+    @NotNull
+    private final Side side; // back ladder has the best price at the highest position, lay ladder at the lowest position
+    private int lowestPosition = N_TICKS, highestPosition = NO_POSITION; // bounds of the occupied positions, always tight
+    private int nLevels;
+
+    private TickPriceSizeLadder(@NotNull final Side side) {
+        this.side = side;
+    }
+
+    @NotNull
+    @Contract(" -> new")
+    static TickPriceSizeLadder newBack() {
+        return new TickPriceSizeLadder(Side.B);
+    }
+
+    @NotNull
+    @Contract(" -> new")
+    static TickPriceSizeLadder newLay() {
+        return new TickPriceSizeLadder(Side.L);
+    }
+
+    synchronized void copyFrom(@NotNull final TickPriceSizeLadder other) { // this ladder must be new, not yet shared
+        if (this.side == other.side) {
+            synchronized (other) {
+                System.arraycopy(other.sizes, 0, this.sizes, 0, N_TICKS);
+                this.lowestPosition = other.lowestPosition;
+                this.highestPosition = other.highestPosition;
+                this.nLevels = other.nLevels;
+            }
+        } else {
+            logger.error("different sides in TickPriceSizeLadder.copyFrom: {} {}", this.side, other.side);
+        }
+    }
+
+    synchronized void writeSnapshot(@NotNull final DataOutput dataOutput) // only the occupied positions are written
+            throws IOException {
+        dataOutput.writeInt(this.nLevels);
+        if (this.nLevels > 0) {
+            dataOutput.writeInt(this.lowestPosition);
+            dataOutput.writeInt(this.highestPosition);
+            for (int position = this.lowestPosition; position <= this.highestPosition; position++) {
+                dataOutput.writeDouble(this.sizes[position]);
+            }
+        } else { // empty ladder, only the number of levels is written
+        }
+    }
+
+    synchronized void readSnapshot(@NotNull final ByteBuffer byteBuffer) { // this ladder must be new, not yet shared
+        this.nLevels = byteBuffer.getInt();
+        if (this.nLevels > 0) {
+            this.lowestPosition = byteBuffer.getInt();
+            this.highestPosition = byteBuffer.getInt();
+            for (int position = this.lowestPosition; position <= this.highestPosition; position++) {
+                this.sizes[position] = byteBuffer.getDouble();
+            }
+        } else { // empty ladder, nothing more to read
+        }
+    }
+
+    public static int getTickPosition(final double price) { // NO_POSITION if the price is not a ladder tick
+        @SuppressWarnings("NumericCastThatLosesPrecision") final int intPrice = (int) Math.round(price * 100d);
+        final int position = Formulas.getTickPosition(intPrice);
+        return position < 0 ? NO_POSITION : position;
+    }
+
+    public static double getTickPrice(final int position) {
+        return Formulas.getTickPrice(position);
+    }
+
+    @NotNull
+    public Side getSide() {
+        return this.side;
+    }
+
+    public synchronized int getNLevels() {
+        return this.nLevels;
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.nLevels == 0;
+    }
+
+    public synchronized double getSizeGBP(final int position) {
+        return this.sizes[position];
+    }
+
+    public synchronized int getBestPosition() { // NO_POSITION if the ladder is empty
+        final int position;
+        if (this.nLevels == 0) {
+            position = NO_POSITION;
+        } else {
+            position = this.side == Side.B ? this.highestPosition : this.lowestPosition;
+        }
+        return position;
+    }
+
+    public synchronized int getNextWorsePosition(final int position) { // NO_POSITION if there's no worse level; used for iterating from the best price without allocation
+        int result = NO_POSITION;
+        if (this.side == Side.B) {
+            for (int i = position - 1; i >= this.lowestPosition; i--) {
+                if (this.sizes[i] != 0d) {
+                    result = i;
+                    break;
+                }
+            }
+        } else {
+            for (int i = position + 1; i <= this.highestPosition; i++) {
+                if (this.sizes[i] != 0d) {
+                    result = i;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    synchronized TreeMap<Double, Double> getSimpleTreeMap(final double currencyRate) {
+        final Comparator<Double> comparator = this.side == Side.B ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        final TreeMap<Double, Double> result = new TreeMap<>(comparator);
+        for (int i = this.lowestPosition; i <= this.highestPosition; i++) {
+            final double size = this.sizes[i];
+            if (size != 0d) {
+                result.put(getTickPrice(i), size * currencyRate);
+            } else { // level not present, nothing to be done
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public synchronized LadderSnapshot getSnapshot() {
+        final LadderSnapshot snapshot;
+        if (this.nLevels == 0) {
+            snapshot = LadderSnapshot.empty(this.side);
+        } else {
+            final double[] prices = new double[this.nLevels], levelSizes = new double[this.nLevels];
+            int index = 0;
+            for (int position = getBestPosition(); position != NO_POSITION; position = getNextWorsePosition(position)) {
+                prices[index] = getTickPrice(position);
+                levelSizes[index] = this.sizes[position];
+                index++;
+            }
+            snapshot = new LadderSnapshot(this.side, prices, levelSizes, AmountsNavigableMap.NOT_PRESENT);
+        }
+        return snapshot;
+    }
+
+    public synchronized double getMatchedSize(final double price, @NotNull final AtomicDouble currencyRate) {
+        final int position = getTickPosition(price);
+        return position == NO_POSITION ? 0d : this.sizes[position] * currencyRate.get(); // price not found is the normal case
+    }
+
+    public synchronized double getBestPrice(final double calculatedLimit, @NotNull final AtomicDouble currencyRate) {
+        double result = 0d;
+        if (this.nLevels == 0) { // result remains 0d
+        } else {
+            final double currencyRatePrimitive = currencyRate.get();
+            final double minimumAmountConsideredSignificant = Math.min(calculatedLimit * .05d, 10d); // these defaults are rather basic
+            for (int position = getBestPosition(); position != NO_POSITION; position = getNextWorsePosition(position)) {
+                if (this.sizes[position] * currencyRatePrimitive >= minimumAmountConsideredSignificant) {
+                    result = getTickPrice(position);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    synchronized void onPriceChange(final boolean isImage, final Iterable<? extends List<Double>> prices, @NotNull final RunnerOrderModificationsBuffer modificationsBuffer) { // diff mode, modifications in GBP
+        modificationsBuffer.clear(this.side);
+        if (isImage) {
+            onImageChange(prices, modificationsBuffer);
+        } else {
+            final PriceLadderDelta.Reader delta = PriceLadderDelta.read(prices, PriceLadderDelta.PRICE_SIZE_WIDTH);
+            for (int i = 0, n = delta.size(); i < n; i++) {
+                final double size = delta.getSize(i);
+                final int position = getPosition(delta.getPrice(i), size);
+                if (position == NO_POSITION) { // error message was already printed
+                } else {
+                    final double initialSize = this.sizes[position];
+                    setSize(position, size);
+                    modificationsBuffer.add(getTickPrice(position), this.sizes[position] - initialSize);
+                }
+            }
+        }
+    }
+
+    private void onImageChange(final Iterable<? extends List<Double>> prices, @NotNull final RunnerOrderModificationsBuffer modificationsBuffer) {
+        // levels present in the image are temporarily stored with negative size, to tell them apart from the previous levels, which are removed in a single pass afterwards
+        // a size 0 in the image is stored as -0d, so a price that appears again in the same image is recognized by the sign bit, and its last occurrence wins
+        int lowest = this.lowestPosition, highest = this.highestPosition;
+        boolean hasRepeatedPrices = false;
+        final PriceLadderDelta.Reader delta = PriceLadderDelta.read(prices, PriceLadderDelta.PRICE_SIZE_WIDTH);
+        for (int i = 0, n = delta.size(); i < n; i++) {
+            final double newSize = delta.getSize(i);
+            final int position = getPosition(delta.getPrice(i), newSize);
+            if (position == NO_POSITION) { // error message was already printed
+            } else {
+                final double existingSize = this.sizes[position];
+                if (Math.copySign(1d, existingSize) < 0d) { // price already in this image, its earlier modification is corrected instead of being counted again
+                    modificationsBuffer.merge(getTickPrice(position), newSize + existingSize);
+                    hasRepeatedPrices = true;
+                } else {
+                    modificationsBuffer.add(getTickPrice(position), newSize - existingSize);
+                }
+                this.sizes[position] = -newSize;
+                lowest = Math.min(lowest, position);
+                highest = Math.max(highest, position);
+            }
+        }
+        if (hasRepeatedPrices) { // the corrections can cancel a modification
+            modificationsBuffer.removeInsignificant();
+        } else { // nothing to be done
+        }
+
+        this.nLevels = 0;
+        this.lowestPosition = N_TICKS;
+        this.highestPosition = NO_POSITION;
+        for (int i = lowest; i <= highest; i++) {
+            final double size = this.sizes[i];
+            if (size > 0d) { // previous level, not present in the image
+                modificationsBuffer.add(getTickPrice(i), -size);
+                this.sizes[i] = 0d;
+            } else if (size < 0d) {
+                this.sizes[i] = -size;
+                this.nLevels++;
+                this.lowestPosition = Math.min(this.lowestPosition, i);
+                this.highestPosition = i;
+            } else { // level not present
+                this.sizes[i] = 0d; // clears the -0d of a price with size 0 in the image
+            }
+        }
+    }
+
+    synchronized void onPriceChange(final boolean isImage, final Iterable<? extends List<Double>> prices) {
+        if (isImage) {
+            clear();
+        }
+        final PriceLadderDelta.Reader delta = PriceLadderDelta.read(prices, PriceLadderDelta.PRICE_SIZE_WIDTH);
+        for (int i = 0, n = delta.size(); i < n; i++) {
+            final double size = delta.getSize(i);
+            final int position = getPosition(delta.getPrice(i), size);
+            if (position == NO_POSITION) { // error message was already printed
+            } else {
+                setSize(position, size);
+            }
+        }
+    }
+
+    private int getPosition(final double price, final double size) { // the tuples were already validated by PriceLadderDelta
+        final int position = getTickPosition(price);
+        if (position == NO_POSITION) {
+            SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "price not on ladder in TickPriceSizeLadder: {} {} {}", price, size, this.side);
+        } else { // position found, will be returned
+        }
+        return position;
+    }
+
+    private void setSize(final int position, final double size) {
+        final double existingSize = this.sizes[position];
+        if (size == 0d) {
+            if (existingSize == 0d) { // level not present, nothing to be done
+            } else {
+                this.sizes[position] = 0d;
+                this.nLevels--;
+                if (this.nLevels == 0) {
+                    this.lowestPosition = N_TICKS;
+                    this.highestPosition = NO_POSITION;
+                } else {
+                    while (this.sizes[this.lowestPosition] == 0d) {
+                        this.lowestPosition++;
+                    }
+                    while (this.sizes[this.highestPosition] == 0d) {
+                        this.highestPosition--;
+                    }
+                }
+            }
+        } else {
+            if (existingSize == 0d) {
+                this.nLevels++;
+                this.lowestPosition = Math.min(this.lowestPosition, position);
+                this.highestPosition = Math.max(this.highestPosition, position);
+            } else { // level already present, bounds unchanged
+            }
+            this.sizes[position] = size;
+        }
+    }
+
+    private void clear() {
+        if (this.nLevels == 0) { // already empty
+        } else {
+            Arrays.fill(this.sizes, this.lowestPosition, this.highestPosition + 1, 0d);
+            this.nLevels = 0;
+            this.lowestPosition = N_TICKS;
+            this.highestPosition = NO_POSITION;
+        }
+    }
+
+    public synchronized void removeAmountEUR(final double price, final double sizeToRemove, @NotNull final AtomicDouble currencyRate) {
+        final double sizeToRemoveGBP = sizeToRemove / currencyRate.get();
+        removeAmountGBP(price, sizeToRemoveGBP);
+    }
+
+    private synchronized void removeAmountGBP(final double price, final double sizeToRemove) {
+        final int position = getTickPosition(price);
+        if (position == NO_POSITION || this.sizes[position] == 0d) {
+            logger.info("price {} sizeToRemove {} not found in TickPriceSizeLadder.removeAmount for: {}", price, sizeToRemove, this);
+        } else if (sizeToRemove < 0d) {
+            logger.error("negative sizeToRemove {} in TickPriceSizeLadder.removeAmount for: {} {}", sizeToRemove, price, this);
+        } else { // a level whose whole size was removed is no longer present, as 0d means the level doesn't exist
+            setSize(position, Math.max(this.sizes[position] - sizeToRemove, 0d));
+        }
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    @Override
+    public synchronized String toString() {
+        final StringBuilder stringBuilder = new StringBuilder(16 + this.nLevels * 16).append('{');
+        for (int position = getBestPosition(); position != NO_POSITION; position = getNextWorsePosition(position)) {
+            if (stringBuilder.length() > 1) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(this.sizes[position]).append('@').append(getTickPrice(position));
+        }
+        return stringBuilder.append('}').toString();
+    }
+}
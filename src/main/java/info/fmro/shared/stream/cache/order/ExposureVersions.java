@@ -0,0 +1,49 @@
+package info.fmro.shared.stream.cache.order;
+
+import info.fmro.shared.stream.objects.RunnerId;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// versions of the order state the exposure of a runner is calculated from (orders, temporary orders, temporary cancels); the exposure only needs calculating again if the version changed
+// every change takes a new value from one counter, so a version never repeats, even after a market is removed
+final class ExposureVersions {
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long allVersion; // changes that can affect every runner
+    private final ConcurrentHashMap<String, Long> marketVersions = new ConcurrentHashMap<>(4);
+    private final ConcurrentHashMap<String, Map<RunnerId, Long>> runnerVersions = new ConcurrentHashMap<>(4);
+
+    void runnerChanged(final String marketId, final RunnerId runnerId) {
+        if (marketId == null || runnerId == null) {
+            marketChanged(marketId);
+        } else {
+            this.runnerVersions.computeIfAbsent(marketId, k -> new ConcurrentHashMap<>(4)).put(runnerId, this.counter.incrementAndGet());
+        }
+    }
+
+    void marketChanged(final String marketId) {
+        if (marketId == null) {
+            allChanged();
+        } else {
+            this.marketVersions.put(marketId, this.counter.incrementAndGet());
+        }
+    }
+
+    void marketRemoved(@NotNull final String marketId) {
+        this.runnerVersions.remove(marketId);
+        marketChanged(marketId);
+    }
+
+    void allChanged() {
+        this.allVersion = this.counter.incrementAndGet();
+    }
+
+    long getVersion(final String marketId, final RunnerId runnerId) {
+        final Long marketVersion = this.marketVersions.get(marketId);
+        final Map<RunnerId, Long> runners = this.runnerVersions.get(marketId);
+        final Long runnerVersion = runners == null ? null : runners.get(runnerId);
+        return Math.max(this.allVersion, Math.max(marketVersion == null ? 0L : marketVersion, runnerVersion == null ? 0L : runnerVersion));
+    }
+}
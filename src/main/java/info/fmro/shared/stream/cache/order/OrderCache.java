@@ -1,7 +1,6 @@
 package info.fmro.shared.stream.cache.order;
 
-import info.fmro.shared.betapi.CancelOrdersThread;
-import info.fmro.shared.betapi.PlaceOrdersThread;
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.entities.CancelInstruction;
 import info.fmro.shared.entities.LimitOrder;
 import info.fmro.shared.entities.PlaceInstruction;
@@ -18,7 +17,9 @@ import info.fmro.shared.objects.AmountsNavigableMap;
 import info.fmro.shared.objects.Exposure;
 import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.objects.TemporaryOrder;
+import info.fmro.shared.stream.cache.ChangeMessageDispatcher;
 import info.fmro.shared.stream.cache.OrdersList;
+import info.fmro.shared.stream.cache.RecentModificationsView;
 import info.fmro.shared.stream.definitions.Order;
 import info.fmro.shared.stream.definitions.OrderMarketChange;
 import info.fmro.shared.stream.definitions.OrderRunnerChange;
@@ -28,11 +29,12 @@ import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.stream.objects.SerializableObjectModification;
 import info.fmro.shared.stream.objects.StreamObjectInterface;
 import info.fmro.shared.stream.protocol.ChangeMessage;
+import info.fmro.shared.utility.ChangeJournal;
 import info.fmro.shared.utility.Formulas;
 import info.fmro.shared.utility.Generic;
 import info.fmro.shared.utility.LogLevel;
+import info.fmro.shared.utility.SnapshotFile;
 import info.fmro.shared.utility.SynchronizedMap;
-import org.apache.commons.lang3.SerializationUtils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -42,16 +44,15 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -61,13 +62,20 @@ public class OrderCache
         implements Serializable, StreamObjectInterface {
     private static final Logger logger = LoggerFactory.getLogger(OrderCache.class);
     @Serial
-    private static final long serialVersionUID = -6023803756520072425L;
+    private static final long serialVersionUID = -3920815730464717522L;
+    public static final String SNAPSHOT_SECTION = "orderCache";
+    private static final int SNAPSHOT_SCHEMA_VERSION = 1;
     public transient ListOfQueues listOfQueues = new ListOfQueues();
     public final SynchronizedMap<String, OrderMarket> markets = new SynchronizedMap<>(4); // only place where orderMarkets are permanently stored
-    private boolean orderMarketRemovedOnClose = true; // default
+    private volatile boolean orderMarketRemovedOnClose = true; // default
     @SuppressWarnings("FieldAccessedSynchronizedAndUnsynchronized")
     public transient AtomicLong initializedStamp = new AtomicLong();
-    private final Collection<TemporaryOrder> temporaryOrders = new ArrayList<>(2);
+    private final TemporaryOrdersStore temporaryOrders = new TemporaryOrdersStore();
+    @Nullable
+    private transient volatile ChangeMessageDispatcher dispatcher; // null means change items are applied sequentially, on the calling thread
+    @Nullable
+    private transient volatile ChangeJournal journal; // set after recovery, so the replayed changes are not journaled again
+    private transient ExposureVersions exposureVersions = new ExposureVersions();
 
     @Serial
     private void readObject(@NotNull final java.io.ObjectInputStream in)
@@ -75,6 +83,7 @@ public class OrderCache
         in.defaultReadObject();
         this.listOfQueues = new ListOfQueues();
         this.initializedStamp = new AtomicLong();
+        this.exposureVersions = new ExposureVersions();
 
         if (SharedStatics.programName.get() == ProgramName.CLIENT) {
             this.initializedStamp.set(System.currentTimeMillis());
@@ -82,20 +91,107 @@ public class OrderCache
         }
     }
 
-    public synchronized OrderCache getCopy() {
-        return SerializationUtils.clone(this);
+    @Nullable
+    public synchronized ChangeMessageDispatcher setDispatcher(@Nullable final ChangeMessageDispatcher newDispatcher) { // returns the previous dispatcher, which is not stopped
+        final ChangeMessageDispatcher previousDispatcher = this.dispatcher;
+        this.dispatcher = newDispatcher;
+        return previousDispatcher;
+    }
+
+    @Nullable
+    public ChangeMessageDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    public synchronized void setJournal(@Nullable final ChangeJournal newJournal) {
+        this.journal = newJournal;
+    }
+
+    @Nullable
+    public ChangeJournal getJournal() {
+        return this.journal;
+    }
+
+    public synchronized OrderCache getCopy() { // mirrors readObject for the transient fields
+        final OrderCache copy = new OrderCache();
+        for (final Map.Entry<String, OrderMarket> entry : this.markets.copy().entrySet()) {
+            copy.markets.put(entry.getKey(), entry.getValue().copy(), true);
+        }
+        copy.orderMarketRemovedOnClose = this.orderMarketRemovedOnClose;
+        for (final TemporaryOrder temporaryOrder : this.temporaryOrders.getAll()) {
+            copy.temporaryOrders.add(temporaryOrder.copy());
+        }
+        if (SharedStatics.programName.get() == ProgramName.CLIENT) {
+            copy.initializedStamp.set(System.currentTimeMillis());
+        } else { // I only need to set the stamp in client
+        }
+        return copy;
+    }
+
+    public synchronized boolean writeSnapshot(@NotNull final SnapshotFile.Writer writer, final boolean compressed) {
+        return writer.writeSection(SNAPSHOT_SECTION, SNAPSHOT_SCHEMA_VERSION, compressed, dataOutputStream -> {
+            dataOutputStream.writeBoolean(this.orderMarketRemovedOnClose);
+            final HashMap<String, OrderMarket> marketsCopy = this.markets.copy();
+            dataOutputStream.writeInt(marketsCopy.size());
+            for (final Map.Entry<String, OrderMarket> entry : marketsCopy.entrySet()) {
+                SnapshotFile.writeString(dataOutputStream, entry.getKey());
+                entry.getValue().writeSnapshot(dataOutputStream);
+            }
+            final List<TemporaryOrder> temporaryOrdersList = this.temporaryOrders.getAll();
+            dataOutputStream.writeInt(temporaryOrdersList.size());
+            for (final TemporaryOrder temporaryOrder : temporaryOrdersList) {
+                temporaryOrder.writeSnapshot(dataOutputStream);
+            }
+        });
+    }
+
+    @Nullable
+    public static OrderCache readSnapshot(@Nullable final Map<String, SnapshotFile.Section> sections) { // null if the section is missing or can't be read; mirrors readObject for the transient fields
+        final SnapshotFile.Section section = sections == null ? null : sections.get(SNAPSHOT_SECTION);
+        @Nullable OrderCache orderCache;
+        if (section == null) {
+            logger.warn("no {} section in snapshot", SNAPSHOT_SECTION);
+            orderCache = null;
+        } else if (section.getSchemaVersion() != SNAPSHOT_SCHEMA_VERSION) {
+            logger.error("unsupported {} snapshot schema version: {}", SNAPSHOT_SECTION, section.getSchemaVersion());
+            orderCache = null;
+        } else {
+            try {
+                final ByteBuffer byteBuffer = section.getPayload();
+                orderCache = new OrderCache();
+                orderCache.orderMarketRemovedOnClose = byteBuffer.get() != 0;
+                final int nMarkets = byteBuffer.getInt();
+                for (int i = 0; i < nMarkets; i++) {
+                    final String marketId = SnapshotFile.readString(byteBuffer);
+                    orderCache.markets.put(marketId, OrderMarket.readSnapshot(marketId, byteBuffer), true);
+                }
+                final int nTemporaryOrders = byteBuffer.getInt();
+                for (int i = 0; i < nTemporaryOrders; i++) {
+                    orderCache.temporaryOrders.add(TemporaryOrder.readSnapshot(byteBuffer));
+                }
+                if (SharedStatics.programName.get() == ProgramName.CLIENT) {
+                    orderCache.initializedStamp.set(System.currentTimeMillis());
+                } else { // I only need to set the stamp in client
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+                logger.error("exception in OrderCache.readSnapshot", exception);
+                orderCache = null;
+            }
+        }
+        return orderCache;
     }
 
     public synchronized void clearCachedObjects() {
         this.markets.clear();
         this.temporaryOrders.clear();
+        this.exposureVersions.allChanged();
     }
 
     @SuppressWarnings("NonPrivateFieldAccessedInSynchronizedContext")
     public synchronized boolean copyFromStream(final OrderCache other) {
         final boolean readSuccessful;
         if (other == null) {
-            logger.error("null other in copyFromStream for: {}", Generic.objectToString(this));
+            logger.error("null other in copyFromStream for: {}", Generic.lazyObjectToString(this));
             readSuccessful = false;
         } else {
 //            Generic.updateObject(this, other);
@@ -105,16 +201,19 @@ public class OrderCache
             this.orderMarketRemovedOnClose = other.orderMarketRemovedOnClose;
 
             this.temporaryOrders.clear(); // no need to send these through stream, the whole OrderCache object is sent
-            this.temporaryOrders.addAll(other.temporaryOrders);
+            for (final TemporaryOrder temporaryOrder : other.temporaryOrders.getAll()) {
+                this.temporaryOrders.add(temporaryOrder);
+            }
             addAllTempCancelToOrderMarketRunner();
             this.initializedStamp.set(other.initializedStamp.get());
+            this.exposureVersions.allChanged();
             readSuccessful = true;
         }
 
         final int nQueues = this.listOfQueues.size();
         if (nQueues == 0) { // normal case, nothing to be done
         } else {
-            logger.error("existing queues during OrderCache.copyFromStream: {} {}", nQueues, Generic.objectToString(this));
+            logger.error("existing queues during OrderCache.copyFromStream: {} {}", nQueues, Generic.lazyObjectToString(this));
             this.listOfQueues.clear();
         }
         return readSuccessful;
@@ -124,9 +223,55 @@ public class OrderCache
 //        return this.hasBeenInitializedFromStream;
 //    }
 
-    public synchronized void onOrderChange(@NotNull final ChangeMessage<? extends OrderMarketChange> changeMessage, @NotNull final RulesManager rulesManager) {
+    public void onOrderChange(@NotNull final ChangeMessage<? extends OrderMarketChange> changeMessage, @NotNull final RulesManager rulesManager) {
+        final ChangeJournal journalInstance = this.journal;
+        if (journalInstance == null) {
+            applyChangeMessage(changeMessage, rulesManager);
+        } else { // a checkpoint can't start between the append and the apply
+            journalInstance.appendAndApply(ChangeJournal.ORDER_CHANGE_MESSAGE, SNAPSHOT_SECTION, changeMessage, () -> applyChangeMessage(changeMessage, rulesManager));
+        }
+    }
+
+    private void applyChangeMessage(@NotNull final ChangeMessage<? extends OrderMarketChange> changeMessage, @NotNull final RulesManager rulesManager) {
+        final ChangeMessageDispatcher dispatcherInstance = this.dispatcher;
+        if (dispatcherInstance == null || changeMessage.isStartOfNewSubscription()) { // the new subscription image is applied under the lock, so readers never see the cache between the reset and the temporary cancels
+            onOrderChangeSequential(changeMessage, rulesManager);
+        } else {
+            onOrderChangeDispatched(changeMessage, rulesManager, dispatcherInstance);
+        }
+    }
+
+    private synchronized void onOrderChangeSequential(@NotNull final ChangeMessage<? extends OrderMarketChange> changeMessage, @NotNull final RulesManager rulesManager) {
         final boolean isStartOfNewSubscription = changeMessage.isStartOfNewSubscription();
         if (isStartOfNewSubscription) {
+            resetOnNewSubscription();
+        }
+
+        final List<OrderMarketChange> orderMarketChanges = getOrderMarketChanges(changeMessage);
+        if (orderMarketChanges != null) {
+            for (final OrderMarketChange change : orderMarketChanges) {
+                applyOrderMarketChange(change, rulesManager.newOrderMarketCreated);
+            }
+            rulesManager.marketsToCheck.put(getMarketIds(orderMarketChanges), System.currentTimeMillis());
+        } else { // maybe it's normal, nothing to be done
+        }
+
+        if (isStartOfNewSubscription) {
+            addAllTempCancelToOrderMarketRunner();
+        }
+    }
+
+    private void onOrderChangeDispatched(@NotNull final ChangeMessage<? extends OrderMarketChange> changeMessage, @NotNull final RulesManager rulesManager, @NotNull final ChangeMessageDispatcher dispatcherInstance) { // only ordinary deltas, not new subscription images
+        // the OrderCache lock can't be held while the items are applied, as the workers need it in checkTemporaryOrdersForStreamChange; each OrderMarket is still updated under its own lock
+        final List<OrderMarketChange> orderMarketChanges = getOrderMarketChanges(changeMessage);
+        if (orderMarketChanges != null) {
+            dispatcherInstance.dispatch(orderMarketChanges, OrderMarketChange::getId, change -> applyOrderMarketChange(change, rulesManager.newOrderMarketCreated));
+            rulesManager.marketsToCheck.put(getMarketIds(orderMarketChanges), System.currentTimeMillis());
+        } else { // maybe it's normal, nothing to be done
+        }
+    }
+
+    private synchronized void resetOnNewSubscription() {
 //            final Collection<OrderMarket> values = this.markets.valuesCopy();
 //            for (final OrderMarket orderMarket : values) {
 //                if (orderMarket == null) {
@@ -135,37 +280,73 @@ public class OrderCache
 //                    orderMarket.markObsoleteObject();
 //                }
 //            }
-            this.markets.clear();
+        this.markets.clear();
+        this.exposureVersions.allChanged();
 //            orderCacheHasReset.set(true);
-            //noinspection NonPrivateFieldAccessedInSynchronizedContext
-            this.initializedStamp.set(System.currentTimeMillis());
-        }
+        //noinspection NonPrivateFieldAccessedInSynchronizedContext
+        this.initializedStamp.set(System.currentTimeMillis());
+    }
 
-        if (changeMessage.getItems() != null) {
-            final Collection<String> marketIds = new HashSet<>(2);
-            for (final OrderMarketChange change : changeMessage.getItems()) {
+    @Nullable
+    private static List<OrderMarketChange> getOrderMarketChanges(@NotNull final ChangeMessage<? extends OrderMarketChange> changeMessage) { // null if the message has no items; null items are logged and skipped
+        final List<? extends OrderMarketChange> items = changeMessage.getItems();
+        @Nullable final List<OrderMarketChange> orderMarketChanges;
+        if (items == null) {
+            orderMarketChanges = null;
+        } else {
+            orderMarketChanges = new ArrayList<>(items.size());
+            for (final OrderMarketChange change : items) {
                 if (change == null) {
-                    logger.error("null change in onOrderChange for: {}", Generic.objectToString(changeMessage));
+                    logger.error("null change in onOrderChange for: {}", Generic.lazyObjectToString(changeMessage));
                 } else {
-                    marketIds.add(change.getId());
-                    final OrderMarket orderMarket = onOrderMarketChange(change, rulesManager.newOrderMarketCreated);
-                    if (orderMarket.isEmpty() || (this.orderMarketRemovedOnClose && orderMarket.isClosed())) {
-                        // remove on close or if empty
-                        this.markets.remove(orderMarket.getMarketId());
-                    }
+                    orderMarketChanges.add(change);
                 }
             } // end for
-            rulesManager.marketsToCheck.put(marketIds, System.currentTimeMillis());
-        } else { // maybe it's normal, nothing to be done
         }
+        return orderMarketChanges;
+    }
 
-        if (isStartOfNewSubscription) {
-            addAllTempCancelToOrderMarketRunner();
+    @NotNull
+    private static Collection<String> getMarketIds(@NotNull final Iterable<? extends OrderMarketChange> orderMarketChanges) {
+        final Collection<String> marketIds = new HashSet<>(2);
+        for (final OrderMarketChange change : orderMarketChanges) {
+            marketIds.add(change.getId());
+        }
+        return marketIds;
+    }
+
+    private void applyOrderMarketChange(@NotNull final OrderMarketChange orderMarketChange, @NotNull final AtomicBoolean newOrderMarketCreated) { // runs on the dispatcher threads too; the OrderCache lock is only taken briefly, in checkTemporaryOrdersForStreamChange
+        final OrderMarket orderMarket = onOrderMarketChange(orderMarketChange, newOrderMarketCreated);
+        if (orderMarket.isEmpty() || (this.orderMarketRemovedOnClose && orderMarket.isClosed())) {
+            // remove on close or if empty
+            this.markets.remove(orderMarket.getMarketId(), orderMarket);
+            this.exposureVersions.marketRemoved(orderMarket.getMarketId());
+        } else {
+            exposureChanged(orderMarketChange);
         }
     }
 
+    private void exposureChanged(@NotNull final OrderMarketChange orderMarketChange) {
+        final String marketId = orderMarketChange.getId();
+        final List<OrderRunnerChange> orderRunnerChanges = orderMarketChange.getOrc();
+        if (Boolean.TRUE.equals(orderMarketChange.getFullImage()) || orderRunnerChanges == null) {
+            this.exposureVersions.marketChanged(marketId);
+        } else {
+            for (final OrderRunnerChange orderRunnerChange : orderRunnerChanges) {
+                if (orderRunnerChange == null) { // error is logged when the change is applied
+                } else {
+                    this.exposureVersions.runnerChanged(marketId, new RunnerId(orderRunnerChange.getId(), orderRunnerChange.getHc()));
+                }
+            }
+        }
+    }
+
+    public long getExposureVersion(final String marketId, final RunnerId runnerId) { // changes whenever the exposure of the runner might have changed
+        return this.exposureVersions.getVersion(marketId, runnerId);
+    }
+
     @NotNull
-    private synchronized OrderMarket onOrderMarketChange(@NotNull final OrderMarketChange orderMarketChange, @NotNull final AtomicBoolean newOrderMarketCreated) {
+    private OrderMarket onOrderMarketChange(@NotNull final OrderMarketChange orderMarketChange, @NotNull final AtomicBoolean newOrderMarketCreated) {
         final String marketId = orderMarketChange.getId();
         final boolean newMarketIsBeingAdded = !this.markets.containsKey(marketId);
         final OrderMarket orderMarket;
@@ -186,16 +367,13 @@ public class OrderCache
     }
 
     private synchronized void addAllTempCancelToOrderMarketRunner() {
-        for (final TemporaryOrder temporaryOrder : this.temporaryOrders) {
-            if (temporaryOrder == null) {
-                logger.error("null temporaryOrder in addAllTempCancelToOrderMarketRunner");
-            } else {
-                addTempCancelToOrderMarketRunner(temporaryOrder);
-            }
+        for (final TemporaryOrder temporaryOrder : this.temporaryOrders.getAll()) {
+            addTempCancelToOrderMarketRunner(temporaryOrder);
         }
     }
 
     private synchronized void addTempCancelToOrderMarketRunner(@NotNull final TemporaryOrder temporaryOrder) {
+        this.exposureVersions.runnerChanged(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId());
         final TemporaryOrderType temporaryOrderType = temporaryOrder.getType();
         if (temporaryOrderType == TemporaryOrderType.CANCEL) {
             final String betId = temporaryOrder.getBetId();
@@ -204,7 +382,7 @@ public class OrderCache
             } else {
                 final Order order = getUnmatchedOrder(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId(), betId);
                 if (order == null) {
-                    logger.error("null order in addTempCancelToOrderMarketRunner for: {}", Generic.objectToString(temporaryOrder));
+                    logger.error("null order in addTempCancelToOrderMarketRunner for: {}", Generic.lazyObjectToString(temporaryOrder));
                 } else {
                     order.addSizeTempCanceled(temporaryOrder.getSizeReduction());
                 }
@@ -214,6 +392,7 @@ public class OrderCache
     }
 
     private synchronized void removeTempCancelToOrderMarketRunner(@NotNull final TemporaryOrder temporaryOrder) {
+        this.exposureVersions.runnerChanged(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId());
         final TemporaryOrderType temporaryOrderType = temporaryOrder.getType();
         if (temporaryOrderType == TemporaryOrderType.CANCEL) {
             final String betId = temporaryOrder.getBetId();
@@ -232,108 +411,108 @@ public class OrderCache
 
     @SuppressWarnings({"WeakerAccess", "RedundantSuppression"})
     public synchronized void addTempOrder(@NotNull final TemporaryOrder temporaryOrder, @NotNull final ManagedRunner managedRunner) {
-        this.temporaryOrders.add(temporaryOrder);
+        this.temporaryOrders.add(temporaryOrder); // an instance that is already stored is logged and not added again
         addTempCancelToOrderMarketRunner(temporaryOrder);
         temporaryOrder.updateExposure(managedRunner);
         //noinspection NonPrivateFieldAccessedInSynchronizedContext
-        this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.addTempOrder, temporaryOrder));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.addTempOrder, temporaryOrder));
     }
 
     public synchronized void removeTempOrder(@NotNull final TemporaryOrder temporaryOrder) {
         removeTempCancelToOrderMarketRunner(temporaryOrder);
-        while (this.temporaryOrders.remove(temporaryOrder)) { // empty while, removes all equal elements from list
-        }
+        this.temporaryOrders.removeAllEqual(temporaryOrder);
         //noinspection NonPrivateFieldAccessedInSynchronizedContext
-        this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.removeTempOrder, temporaryOrder));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.removeTempOrder, temporaryOrder));
     }
 
-    private synchronized void removeTempOrder(@NotNull final Iterator<TemporaryOrder> iterator, final TemporaryOrder temporaryOrder) {
-        iterator.remove();
+    private synchronized void removeTempOrderInstance(@NotNull final TemporaryOrder temporaryOrder) {
+        if (this.temporaryOrders.remove(temporaryOrder)) {
+            onTempOrderRemoved(temporaryOrder);
+        } else { // already removed, nothing to be done
+        }
+    }
+
+    private synchronized void onTempOrderRemoved(@NotNull final TemporaryOrder temporaryOrder) {
         removeTempCancelToOrderMarketRunner(temporaryOrder);
         //noinspection NonPrivateFieldAccessedInSynchronizedContext
-        this.listOfQueues.send(new SerializableObjectModification<>(RulesManagerModificationCommand.removeTempOrder, temporaryOrder));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(RulesManagerModificationCommand.removeTempOrder, temporaryOrder));
+    }
+
+    public synchronized boolean setTempOrderExpirationTime(@NotNull final TemporaryOrder temporaryOrder, final long expirationTime) { // use instead of TemporaryOrder.setExpirationTime for stored orders, so checkForExpiredOrders sees the new time right away
+        return this.temporaryOrders.setExpirationTime(temporaryOrder, expirationTime);
     }
 
     @NotNull
     public synchronized Collection<TemporaryOrder> getTempOrders(final String marketId, @NotNull final RunnerId runnerId) {
-        final Collection<TemporaryOrder> returnList = new ArrayList<>(2);
-        for (final TemporaryOrder temporaryOrder : this.temporaryOrders) {
-            if (temporaryOrder == null) {
-                logger.error("null temporaryOrder during getTempOrders"); // this should never happen, no need to try to fix it
-            } else if (temporaryOrder.runnerEquals(marketId, runnerId)) {
-                returnList.add(temporaryOrder);
-            } else { // order not on the runner I'm interested in, nothing to be done
-            }
-        }
-        return returnList;
+        return this.temporaryOrders.getOrders(marketId, runnerId);
     }
 
     @NotNull
     public synchronized OrdersList getUnmatchedBackAmounts(final String marketId, @NotNull final RunnerId runnerId) {
         final OrderMarketRunner runner = getOrderMarketRunner(marketId, runnerId);
-        return runner == null ? new OrdersList(new TreeMap<>(Comparator.naturalOrder()), new LinkedList<>(), Side.B, AmountsNavigableMap.NOT_PRESENT) : runner.getUnmatchedBackAmounts();
+        return runner == null ? new OrdersList(new TreeMap<>(Comparator.naturalOrder()), RecentModificationsView.EMPTY_BACK, Side.B, AmountsNavigableMap.NOT_PRESENT) : runner.getUnmatchedBackAmounts();
     }
 
     @NotNull
     public synchronized OrdersList getUnmatchedLayAmounts(final String marketId, @NotNull final RunnerId runnerId) {
         final OrderMarketRunner runner = getOrderMarketRunner(marketId, runnerId);
-        return runner == null ? new OrdersList(new TreeMap<>(Comparator.reverseOrder()), new LinkedList<>(), Side.L, AmountsNavigableMap.NOT_PRESENT) : runner.getUnmatchedLayAmounts();
+        return runner == null ? new OrdersList(new TreeMap<>(Comparator.reverseOrder()), RecentModificationsView.EMPTY_LAY, Side.L, AmountsNavigableMap.NOT_PRESENT) : runner.getUnmatchedLayAmounts();
     }
 
     public synchronized double cancelUnmatchedAmounts(final String marketId, @NotNull final RunnerId runnerId, final double backExcessExposure, final double layExcessExposure, @NotNull final ManagedRunner managedRunner,
-                                                      @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+                                                      @NotNull final RescriptTransport rescriptTransport, final String reason) {
         final OrderMarketRunner runner = getOrderMarketRunner(marketId, runnerId);
-        return runner == null ? 0d : runner.cancelUnmatchedAmounts(backExcessExposure, layExcessExposure, managedRunner, sendPostRequestRescriptMethod, reason);
+        return runner == null ? 0d : runner.cancelUnmatchedAmounts(backExcessExposure, layExcessExposure, managedRunner, rescriptTransport, reason);
     }
 
     public synchronized double cancelUnmatchedExceptExcessOnTheOtherSide(final String marketId, @NotNull final RunnerId runnerId, final Side side, final double excessOnTheOtherSide, @NotNull final ManagedRunner managedRunner,
-                                                                         @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+                                                                         @NotNull final RescriptTransport rescriptTransport, final String reason) {
         final OrderMarketRunner runner = getOrderMarketRunner(marketId, runnerId);
-        return runner == null ? 0d : runner.cancelUnmatchedExceptGivenExposure(side, excessOnTheOtherSide, managedRunner, sendPostRequestRescriptMethod, reason);
+        return runner == null ? 0d : runner.cancelUnmatchedExceptGivenExposure(side, excessOnTheOtherSide, managedRunner, rescriptTransport, reason);
     }
 
-    public synchronized int cancelUnmatched(final String marketId, @NotNull final HashMap<RunnerId, ManagedRunner> managedRunners, @NotNull final Method sendPostRequestRescriptMethod, final String reason) { // cancel all unmatched orders
+    public synchronized int cancelUnmatched(final String marketId, @NotNull final HashMap<RunnerId, ManagedRunner> managedRunners, @NotNull final RescriptTransport rescriptTransport, final String reason) { // cancel all unmatched orders
         final OrderMarket orderMarket = this.getOrderMarket(marketId);
-        return orderMarket == null ? 0 : orderMarket.cancelUnmatchedAtWorseOdds(null, 0d, Double.MAX_VALUE, managedRunners, sendPostRequestRescriptMethod, false, reason);
+        return orderMarket == null ? 0 : orderMarket.cancelUnmatchedAtWorseOdds(null, 0d, Double.MAX_VALUE, managedRunners, rescriptTransport, false, reason);
     }
 
-    public synchronized int cancelUnmatched(final String marketId, @NotNull final RunnerId runnerId, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    public synchronized int cancelUnmatched(final String marketId, @NotNull final RunnerId runnerId, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         // cancel all unmatched orders
-        return cancelUnmatchedAtWorseOdds(marketId, runnerId, null, 0d, Double.MAX_VALUE, new HashMap<>(1), managedRunner, sendPostRequestRescriptMethod, false, 0L, reason);
+        return cancelUnmatchedAtWorseOdds(marketId, runnerId, null, 0d, Double.MAX_VALUE, new HashMap<>(1), managedRunner, rescriptTransport, false, 0L, reason);
     }
 
-    public synchronized int cancelUnmatched(final String marketId, @NotNull final RunnerId runnerId, final Side sideToCancel, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    public synchronized int cancelUnmatched(final String marketId, @NotNull final RunnerId runnerId, final Side sideToCancel, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         // cancel all unmatched orders on that side
-        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, 0d, Double.MAX_VALUE, new HashMap<>(1), managedRunner, sendPostRequestRescriptMethod, false, 0L, reason);
+        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, 0d, Double.MAX_VALUE, new HashMap<>(1), managedRunner, rescriptTransport, false, 0L, reason);
     }
 
     public synchronized int cancelUnmatched(final String marketId, @NotNull final RunnerId runnerId, final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final ManagedRunner managedRunner,
-                                            @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+                                            @NotNull final RescriptTransport rescriptTransport, final String reason) {
         // cancel all unmatched orders
-        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, worstNotCanceledOdds, Double.MAX_VALUE, new HashMap<>(1), managedRunner, sendPostRequestRescriptMethod, false, 0L, reason);
+        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, worstNotCanceledOdds, Double.MAX_VALUE, new HashMap<>(1), managedRunner, rescriptTransport, false, 0L, reason);
     }
 
     public synchronized int cancelUnmatchedAtWorseOdds(final String marketId, @NotNull final RunnerId runnerId, final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final ManagedRunner managedRunner,
-                                                       @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
-        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, worstNotCanceledOdds, Double.MAX_VALUE, new HashMap<>(1), managedRunner, sendPostRequestRescriptMethod, false, 0L, reason);
+                                                       @NotNull final RescriptTransport rescriptTransport, final String reason) {
+        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, worstNotCanceledOdds, Double.MAX_VALUE, new HashMap<>(1), managedRunner, rescriptTransport, false, 0L, reason);
     }
 
     public synchronized int cancelUnmatchedAtWorseOdds(final String marketId, @NotNull final RunnerId runnerId, final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final HashMap<Double, Double> mandatoryPlaceAmounts,
-                                                       @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final boolean includeTheProvidedOdds, final long minAgeMillis, final String reason) {
-        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, worstNotCanceledOdds, Double.MAX_VALUE, mandatoryPlaceAmounts, managedRunner, sendPostRequestRescriptMethod, includeTheProvidedOdds, minAgeMillis, reason);
+                                                       @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final boolean includeTheProvidedOdds, final long minAgeMillis, final String reason) {
+        return cancelUnmatchedAtWorseOdds(marketId, runnerId, sideToCancel, worstNotCanceledOdds, Double.MAX_VALUE, mandatoryPlaceAmounts, managedRunner, rescriptTransport, includeTheProvidedOdds, minAgeMillis, reason);
     }
 
     public synchronized int cancelUnmatchedAtWorseOdds(final String marketId, @NotNull final RunnerId runnerId, final Side sideToCancel, final double worstNotCanceledOdds, final double excessExposure,
-                                                       @NotNull final HashMap<Double, Double> mandatoryPlaceAmounts, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final boolean includeTheProvidedOdds,
+                                                       @NotNull final HashMap<Double, Double> mandatoryPlaceAmounts, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final boolean includeTheProvidedOdds,
                                                        final long minAgeMillis, final String reason) {
         final OrderMarketRunner runner = getOrderMarketRunner(marketId, runnerId);
-        return runner == null ? 0 : runner.cancelUnmatchedAtWorseOdds(sideToCancel, worstNotCanceledOdds, excessExposure, mandatoryPlaceAmounts, managedRunner, sendPostRequestRescriptMethod, includeTheProvidedOdds, minAgeMillis, reason);
+        return runner == null ? 0 : runner.cancelUnmatchedAtWorseOdds(sideToCancel, worstNotCanceledOdds, excessExposure, mandatoryPlaceAmounts, managedRunner, rescriptTransport, includeTheProvidedOdds, minAgeMillis, reason);
     }
 
     public synchronized int cancelUnmatchedTooGoodOdds(final String marketId, @NotNull final RunnerId runnerId, @NotNull final Side sideToCancel, final double worstOddsThatAreGettingCanceled, @NotNull final ManagedRunner managedRunner,
-                                                       @NotNull final Method sendPostRequestRescriptMethod, final long minAgeMillis, final String reason) {
+                                                       @NotNull final RescriptTransport rescriptTransport, final long minAgeMillis, final String reason) {
         final OrderMarketRunner runner = getOrderMarketRunner(marketId, runnerId);
-        return runner == null ? 0 : runner.cancelUnmatchedTooGoodOdds(sideToCancel, worstOddsThatAreGettingCanceled, managedRunner, sendPostRequestRescriptMethod, minAgeMillis, reason);
+        return runner == null ? 0 : runner.cancelUnmatchedTooGoodOdds(sideToCancel, worstOddsThatAreGettingCanceled, managedRunner, rescriptTransport, minAgeMillis, reason);
     }
 
     public synchronized void updateExposure(@NotNull final ManagedRunner managedRunner) {
@@ -373,28 +552,13 @@ public class OrderCache
     }
 
     private synchronized void updateExposureFromTemporaryOrders(final String marketId, @NotNull final RunnerId runnerId, @NotNull final Exposure exposure) {
-        for (final TemporaryOrder temporaryOrder : this.temporaryOrders) {
-            if (temporaryOrder == null) {
-                logger.error("null temporaryOrder during updateExposureFromTemporaryOrders"); // this should never happen, no need to try to fix it
-            } else if (temporaryOrder.runnerEquals(marketId, runnerId)) {
-                temporaryOrder.updateExposure(exposure);
-            } else { // order not on the runner I'm interested in, nothing to be done
-            }
+        for (final TemporaryOrder temporaryOrder : this.temporaryOrders.getOrders(marketId, runnerId)) {
+            temporaryOrder.updateExposure(exposure);
         }
     }
 
     private synchronized boolean placePriceEqualsTemporaryOrderExists(final String marketIdToCheck, final RunnerId runnerIdToCheck, final Side sideToCheck, final double priceToCheck) {
-        boolean orderFound = false;
-        for (final TemporaryOrder temporaryOrder : this.temporaryOrders) {
-            if (temporaryOrder == null) {
-                logger.error("null temporaryOrder during updateExposureFromTemporaryOrders"); // this should never happen, no need to try to fix it
-            } else if (temporaryOrder.placePriceEquals(marketIdToCheck, runnerIdToCheck, sideToCheck, priceToCheck)) {
-                orderFound = true;
-                break;
-            } else { // order not what I serch for, nothing to be done
-            }
-        }
-        return orderFound;
+        return this.temporaryOrders.placePriceExists(marketIdToCheck, runnerIdToCheck, sideToCheck, priceToCheck);
     }
 
     @Contract(pure = true)
@@ -408,87 +572,77 @@ public class OrderCache
             final String marketId = orderMarketRunner.getMarketId();
             final RunnerId runnerId = orderMarketRunner.getRunnerId();
             if (marketId != null && runnerId != null) {
-                @NotNull final Iterator<TemporaryOrder> iterator = this.temporaryOrders.iterator();
-                while (iterator.hasNext()) {
-                    final TemporaryOrder temporaryOrder = iterator.next();
-                    final String temporaryMarketId = temporaryOrder.getMarketId();
-                    if (marketId.equals(temporaryMarketId)) {
-                        final RunnerId tempRunnerId = temporaryOrder.getRunnerId();
-                        if (runnerId.equals(tempRunnerId)) {
-                            final TemporaryOrderType orderType = temporaryOrder.getType();
-                            final String betId = temporaryOrder.getBetId();
-                            final Side side = temporaryOrder.getSide();
-                            final double price = temporaryOrder.getPrice();
-                            final double size = temporaryOrder.getSize();
-
-                            if (orderType == TemporaryOrderType.PLACE) {
-                                if (betId != null) {
-                                    final Order foundOrder = orderRunnerChange.getUnmatchedOrder(betId);
-                                    if (foundOrder != null) {
-                                        removeTempOrder(iterator, temporaryOrder);
-                                    } else { // unmatched order with betId not found, looking into matched orders
-                                        final double existingSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price);
-                                        final List<List<Double>> newMatchedList = orderRunnerChange.getMatchedList(side);
-                                        final double newSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price, newMatchedList, orderRunnerChange.isImage());
-                                        final double sizeModification = newSize - existingSize;
-                                        final boolean areEqual = sizeModification > size - .02d;
-                                        if (areEqual) {
-                                            removeTempOrder(iterator, temporaryOrder);
-                                        } else { // matched amount not found or not sufficient, won't remove the temporaryOrder
-                                        }
-                                    }
-                                } else { // placeOrder command hasn't finished and no betId available yet; yet stream only returns once, so I'll use this branch too
-                                    final double existingSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price);
-                                    final List<List<Double>> newMatchedList = orderRunnerChange.getMatchedList(side);
-                                    final double newSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price, newMatchedList, orderRunnerChange.isImage());
-                                    final double sizeModification = newSize - existingSize;
-                                    final boolean areEqual = sizeModification > size - .02d;
-                                    if (areEqual) {
-                                        removeTempOrder(iterator, temporaryOrder);
-                                    } else { // matched amount not found or not sufficient, won't remove the temporaryOrder
-                                    }
+                for (final TemporaryOrder temporaryOrder : this.temporaryOrders.getOrders(marketId, runnerId)) { // copy, the orders can be removed while iterating
+                    final TemporaryOrderType orderType = temporaryOrder.getType();
+                    final String betId = temporaryOrder.getBetId();
+                    final Side side = temporaryOrder.getSide();
+                    final double price = temporaryOrder.getPrice();
+                    final double size = temporaryOrder.getSize();
+
+                    if (orderType == TemporaryOrderType.PLACE) {
+                        if (betId != null) {
+                            final Order foundOrder = orderRunnerChange.getUnmatchedOrder(betId);
+                            if (foundOrder != null) {
+                                removeTempOrderInstance(temporaryOrder);
+                            } else { // unmatched order with betId not found, looking into matched orders
+                                final double existingSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price);
+                                final List<List<Double>> newMatchedList = orderRunnerChange.getMatchedList(side);
+                                final double newSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price, newMatchedList, orderRunnerChange.isImage());
+                                final double sizeModification = newSize - existingSize;
+                                final boolean areEqual = sizeModification > size - .02d;
+                                if (areEqual) {
+                                    removeTempOrderInstance(temporaryOrder);
+                                } else { // matched amount not found or not sufficient, won't remove the temporaryOrder
                                 }
-                            } else if (orderType == TemporaryOrderType.CANCEL) {
-                                if (betId != null) {
-                                    final Order foundOrder = orderRunnerChange.getUnmatchedOrder(betId);
-                                    final Order previousOrderState = orderMarketRunner.getUnmatchedOrder(betId);
-                                    if (foundOrder != null && previousOrderState != null) {
-                                        final Double sizeReduction = temporaryOrder.getSizeReduction();
-                                        final Double sizeRemaining = foundOrder.getSr();
-                                        final Double previousSizeRemaining = previousOrderState.getSr();
-                                        if (sizeRemaining == null || sizeRemaining == 0d || previousSizeRemaining == null || previousSizeRemaining == 0d) { // no size remaining, or the size remaining was zero, though the latter might not be normal
-                                            removeTempOrder(iterator, temporaryOrder);
-                                        } else if (sizeReduction == null) { // the entire order should be canceled, but it's not completely canceled, else it should have entered the previous branch, might be normal, nothing to be done
-                                        } else { // a certain amount canceled
-                                            final Double sizeCanceled = foundOrder.getSc();
-                                            final Double previousSizeCanceled = previousOrderState.getSc();
-                                            final double sizeCanceledPrimitive = sizeCanceled == null ? 0 : sizeCanceled;
-                                            final double previousSizeCanceledPrimitive = previousSizeCanceled == null ? 0 : previousSizeCanceled;
-                                            final double sizeModification = sizeCanceledPrimitive - previousSizeCanceledPrimitive;
-//                                            final boolean areEqual = Math.abs(sizeReduction - sizeModification) < .02d;
-                                            final boolean areEqual = sizeModification > sizeReduction - .02d;
-                                            if (areEqual) {
-                                                removeTempOrder(iterator, temporaryOrder);
-                                            } else { // canceled amount not found or not sufficient, won't remove the temporaryOrder
-                                            }
-                                        }
-                                    } else { // proper betId not found, nothing to be done
+                            }
+                        } else { // placeOrder command hasn't finished and no betId available yet; yet stream only returns once, so I'll use this branch too
+                            final double existingSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price);
+                            final List<List<Double>> newMatchedList = orderRunnerChange.getMatchedList(side);
+                            final double newSize = orderMarketRunner.getMatchedSizeAtBetterOrEqual(side, price, newMatchedList, orderRunnerChange.isImage());
+                            final double sizeModification = newSize - existingSize;
+                            final boolean areEqual = sizeModification > size - .02d;
+                            if (areEqual) {
+                                removeTempOrderInstance(temporaryOrder);
+                            } else { // matched amount not found or not sufficient, won't remove the temporaryOrder
+                            }
+                        }
+                    } else if (orderType == TemporaryOrderType.CANCEL) {
+                        if (betId != null) {
+                            final Order foundOrder = orderRunnerChange.getUnmatchedOrder(betId);
+                            final Order previousOrderState = orderMarketRunner.getUnmatchedOrder(betId);
+                            if (foundOrder != null && previousOrderState != null) {
+                                final Double sizeReduction = temporaryOrder.getSizeReduction();
+                                final Double sizeRemaining = foundOrder.getSr();
+                                final Double previousSizeRemaining = previousOrderState.getSr();
+                                if (sizeRemaining == null || sizeRemaining == 0d || previousSizeRemaining == null || previousSizeRemaining == 0d) { // no size remaining, or the size remaining was zero, though the latter might not be normal
+                                    removeTempOrderInstance(temporaryOrder);
+                                } else if (sizeReduction == null) { // the entire order should be canceled, but it's not completely canceled, else it should have entered the previous branch, might be normal, nothing to be done
+                                } else { // a certain amount canceled
+                                    final Double sizeCanceled = foundOrder.getSc();
+                                    final Double previousSizeCanceled = previousOrderState.getSc();
+                                    final double sizeCanceledPrimitive = sizeCanceled == null ? 0 : sizeCanceled;
+                                    final double previousSizeCanceledPrimitive = previousSizeCanceled == null ? 0 : previousSizeCanceled;
+                                    final double sizeModification = sizeCanceledPrimitive - previousSizeCanceledPrimitive;
+//                                    final boolean areEqual = Math.abs(sizeReduction - sizeModification) < .02d;
+                                    final boolean areEqual = sizeModification > sizeReduction - .02d;
+                                    if (areEqual) {
+                                        removeTempOrderInstance(temporaryOrder);
+                                    } else { // canceled amount not found or not sufficient, won't remove the temporaryOrder
                                     }
-                                } else {
-                                    logger.error("null betId for CANCEL orderType in reportStreamChange: {}", Generic.objectToString(temporaryOrder));
-                                    removeTempOrder(iterator, temporaryOrder);
                                 }
-                            } else {
-                                logger.error("unknown TemporaryOrderType in reportStreamChange: {}", orderType);
-                                removeTempOrder(iterator, temporaryOrder);
+                            } else { // proper betId not found, nothing to be done
                             }
-                        } else { // not what I look for, nothing to be done
+                        } else {
+                            logger.error("null betId for CANCEL orderType in reportStreamChange: {}", Generic.lazyObjectToString(temporaryOrder));
+                            removeTempOrderInstance(temporaryOrder);
                         }
-                    } else { // not what I look for, nothing to be done
+                    } else {
+                        logger.error("unknown TemporaryOrderType in reportStreamChange: {}", orderType);
+                        removeTempOrderInstance(temporaryOrder);
                     }
                 }
             } else {
-                logger.error("null marketId or runnerId in reportStreamChange for: {} {} {} {}", marketId, runnerId, Generic.objectToString(orderMarketRunner), Generic.objectToString(orderRunnerChange));
+                logger.error("null marketId or runnerId in reportStreamChange for: {} {} {} {}", marketId, runnerId, Generic.lazyObjectToString(orderMarketRunner), Generic.lazyObjectToString(orderRunnerChange));
             }
         } else { // no temporary orders, nothing to check
         }
@@ -515,7 +669,7 @@ public class OrderCache
     }
 
     public synchronized double addPlaceOrder(final String marketId, final RunnerId runnerId, final Side side, final double price, final double size, final double exposureLimit, @NotNull final ManagedRunner managedRunner,
-                                             @NotNull final Method sendPostRequestRescriptMethod, @NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final AtomicBoolean keepAtInPlay,
+                                             @NotNull final RescriptTransport rescriptTransport, @NotNull final BetFrequencyLimit speedLimit, @NotNull final ExistingFunds existingFunds, @NotNull final AtomicBoolean keepAtInPlay,
                                              final boolean isBalancingToRemoveExistingExposure, final String reason) {
         // amounts, in general, will have 2 decimals rounded half down (Generic.roundDoubleAmount)
         final double sizePlaced;
@@ -561,10 +715,7 @@ public class OrderCache
                             placeInstruction.setSide(side.toStandardSide());
                             placeInstruction.setLimitOrder(limitOrder);
 
-                            final List<PlaceInstruction> placeInstructionsList = new ArrayList<>(1);
-                            placeInstructionsList.add(placeInstruction);
-
-                            SharedStatics.threadPoolExecutorImportant.execute(new PlaceOrdersThread(marketId, placeInstructionsList, temporaryOrder, sendPostRequestRescriptMethod, speedLimit));
+                            SharedStatics.orderBatcher.addPlaceInstruction(marketId, placeInstruction, temporaryOrder, rescriptTransport, speedLimit);
                             sizePlaced = sizeToPlaceWithinLimits;
                         } else { // size too small to place order
                             logger.info("too small value {} for sizeToPlaceWithinLimits in addPlaceOrder for: sizeToPlace:{} {} {} {} p:{} size:{} {}", sizeToPlaceWithinLimits, sizeToPlace, marketId, runnerId, side, price, size, reason);
@@ -593,7 +744,7 @@ public class OrderCache
     }
 
     public synchronized double addCancelOrder(final String marketId, final RunnerId runnerId, final Side side, final double price, final double size, final double sizeMinusSizeTempCanceled, final String betId, final Double sizeReduction,
-                                              @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+                                              @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         // runnerId, side, price, size are needed to identify the order in the stream, or not, but they might have some use; size in this case is sizeRemaining
         final double exposureCanceled;
         if (marketId != null && betId != null && (sizeReduction == null || Generic.roundDouble(sizeReduction) > 0d)) {
@@ -614,10 +765,7 @@ public class OrderCache
                 cancelInstruction.setBetId(betId);
                 cancelInstruction.setSizeReduction(sizeReduction);
 
-                final List<CancelInstruction> cancelInstructionsList = new ArrayList<>(1);
-                cancelInstructionsList.add(cancelInstruction);
-
-                SharedStatics.threadPoolExecutorImportant.execute(new CancelOrdersThread(marketId, cancelInstructionsList, temporaryOrder, sendPostRequestRescriptMethod));
+                SharedStatics.orderBatcher.addCancelInstruction(marketId, cancelInstruction, temporaryOrder, rescriptTransport);
                 exposureCanceled = Formulas.calculateExposure(side, price, sizeReduction == null ? sizeMinusSizeTempCanceled : Math.min(Generic.roundDouble(sizeReduction), sizeMinusSizeTempCanceled));
 //            }
             } else {
@@ -635,7 +783,7 @@ public class OrderCache
     @Nullable
     private synchronized TemporaryOrder getExistingTemporaryOrderThatEquals(@NotNull final TemporaryOrder temporaryOrder) {
         TemporaryOrder existingTempOrder = null;
-        for (final TemporaryOrder existingOrder : this.temporaryOrders) {
+        for (final TemporaryOrder existingOrder : this.temporaryOrders.getOrders(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId())) {
             if (temporaryOrder.equals(existingOrder)) {
                 existingTempOrder = existingOrder;
                 break;
@@ -651,97 +799,67 @@ public class OrderCache
 
     @SuppressWarnings("OverlyNestedMethod")
     public synchronized void addTemporaryAmountsToOwnAmounts(final String marketId, final RunnerId runnerId, @NotNull final Side side, @NotNull final TreeMap<Double, Double> tree, @Nullable final TemporaryOrderType typeToParse) {
-        for (final TemporaryOrder temporaryOrder : this.temporaryOrders) {
-            if (temporaryOrder == null) { // should never happen; if it does happen, it gets removed in checkForExpiredOrders()
-                logger.error("null temporaryOrder in addTemporaryAmountsToOwnAmounts");
-            } else {
-                final String orderMarketId = temporaryOrder.getMarketId();
-                if (Objects.equals(marketId, orderMarketId)) {
-                    final RunnerId orderRunnerId = temporaryOrder.getRunnerId();
-                    if (Objects.equals(runnerId, orderRunnerId)) {
-                        final Side orderSide = temporaryOrder.getSide();
-                        if (side == orderSide) {
-                            @NotNull final TemporaryOrderType type = temporaryOrder.getType();
-                            final double price = temporaryOrder.getPrice(), size = temporaryOrder.getSize();
-                            final Double sizeInTree = tree.get(price); // can easily be null if element not found
-                            final double primitiveSizeInTree = sizeInTree == null ? 0d : sizeInTree;
-                            if (type == TemporaryOrderType.PLACE) {
-                                if (typeToParse == null || typeToParse == type) {
-                                    tree.put(price, primitiveSizeInTree + size);
-                                } else { // won't use PLACE orders
-                                }
-                            } else if (type == TemporaryOrderType.CANCEL) {
-                                if (typeToParse == null || typeToParse == type) {
-                                    @Nullable final Double sizeReduction = temporaryOrder.getSizeReduction();
-                                    final double sizeReductionPrimitive = sizeReduction == null ? size : sizeReduction;
-                                    final double remainingSize = primitiveSizeInTree - sizeReductionPrimitive;
-                                    if (remainingSize >= 0.01d) {
-                                        tree.replace(price, remainingSize);
-                                    } else {
-                                        if (remainingSize <= -0.01d) {
-                                            logger.error("negative remainingSize {} in addTemporaryAmountsToOwnAmounts for: {} {} {} {} {} {} {} {}", remainingSize, primitiveSizeInTree, sizeReductionPrimitive, marketId, runnerId, side,
-                                                         price, Generic.objectToString(temporaryOrder), Generic.objectToString(tree));
-                                        } else { // no error, nothing to print
-                                        }
-                                        tree.remove(price);
-                                    }
-                                } else { // won't use CANCEL orders
-                                }
-                            } else {
-                                logger.error("unknown TemporaryOrderType {} in addTemporaryAmountsToOwnAmounts for: {}", type, Generic.objectToString(temporaryOrder));
+        for (final TemporaryOrder temporaryOrder : this.temporaryOrders.getOrders(marketId, runnerId)) {
+            final Side orderSide = temporaryOrder.getSide();
+            if (side == orderSide) {
+                @NotNull final TemporaryOrderType type = temporaryOrder.getType();
+                final double price = temporaryOrder.getPrice(), size = temporaryOrder.getSize();
+                final Double sizeInTree = tree.get(price); // can easily be null if element not found
+                final double primitiveSizeInTree = sizeInTree == null ? 0d : sizeInTree;
+                if (type == TemporaryOrderType.PLACE) {
+                    if (typeToParse == null || typeToParse == type) {
+                        tree.put(price, primitiveSizeInTree + size);
+                    } else { // won't use PLACE orders
+                    }
+                } else if (type == TemporaryOrderType.CANCEL) {
+                    if (typeToParse == null || typeToParse == type) {
+                        @Nullable final Double sizeReduction = temporaryOrder.getSizeReduction();
+                        final double sizeReductionPrimitive = sizeReduction == null ? size : sizeReduction;
+                        final double remainingSize = primitiveSizeInTree - sizeReductionPrimitive;
+                        if (remainingSize >= 0.01d) {
+                            tree.replace(price, remainingSize);
+                        } else {
+                            if (remainingSize <= -0.01d) {
+                                logger.error("negative remainingSize {} in addTemporaryAmountsToOwnAmounts for: {} {} {} {} {} {} {} {}", remainingSize, primitiveSizeInTree, sizeReductionPrimitive, marketId, runnerId, side,
+                                             price, Generic.lazyObjectToString(temporaryOrder), Generic.lazyObjectToString(tree));
+                            } else { // no error, nothing to print
                             }
-                        } else { // not the side I look for, nothing to be done
+                            tree.remove(price);
                         }
-                    } else { // not the runner I look for, nothing to be done
+                    } else { // won't use CANCEL orders
                     }
-                } else { // not the market I look for, nothing to be done
+                } else {
+                    logger.error("unknown TemporaryOrderType {} in addTemporaryAmountsToOwnAmounts for: {}", type, Generic.lazyObjectToString(temporaryOrder));
                 }
+            } else { // not the side I look for, nothing to be done
             }
         }
     }
 
     public synchronized long checkForExpiredOrders() {
-        long timeToSleep = 10L * Generic.MINUTE_LENGTH_MILLISECONDS; // initialized
-        if (this.temporaryOrders.isEmpty()) { // no orders, timeToSleep is already initialized, nothing to do
-        } else {
-            final long currentTime = System.currentTimeMillis();
-            final Iterator<TemporaryOrder> iterator = this.temporaryOrders.iterator();
-            while (iterator.hasNext()) {
-                final TemporaryOrder temporaryOrder = iterator.next();
-                if (temporaryOrder == null) {
-                    logger.error("null temporaryOrder in checkForExpiredOrders");
-                    removeTempOrder(iterator, temporaryOrder);
-                } else {
-                    final long expirationTime = temporaryOrder.getExpirationTime();
-                    final long timeTillExpired = expirationTime - currentTime;
-
-                    if (timeTillExpired <= 0) {
-                        logger.error("removing expired by {}ms temporaryOrder, {}s after creation: {}", -timeTillExpired, Generic.millisecondsToSecondsString(currentTime - temporaryOrder.getCreationTime()), Generic.objectToString(temporaryOrder));
-                        removeTempOrder(iterator, temporaryOrder);
-                    } else {
-                        timeToSleep = Math.min(timeToSleep, timeTillExpired);
-//                        if (temporaryOrder.isTooOld(currentTime)) {
-//                            final LogLevel logLevel = SharedStatics.denyBetting.get() || SharedStatics.notPlacingOrders ? LogLevel.INFO : LogLevel.ERROR;
-//                            SharedStatics.alreadyPrintedMap.logOnce(5L * Generic.MINUTE_LENGTH_MILLISECONDS, logger, logLevel, "temporaryOrder too old: {}ms for: {}",
-//                                                                    Generic.addCommas(currentTime - temporaryOrder.getCreationTime()), Generic.objectToString(temporaryOrder));
-//                        } else { // not too old, nothing to do
-//                        }
-                    }
-                }
-            } // end while
+        final long currentTime = System.currentTimeMillis();
+        for (final TemporaryOrder temporaryOrder : this.temporaryOrders.removeExpired(currentTime)) {
+            logger.error("removing expired by {}ms temporaryOrder, {}s after creation: {}", currentTime - temporaryOrder.getExpirationTime(), Generic.millisecondsToSecondsString(currentTime - temporaryOrder.getCreationTime()),
+                         Generic.lazyObjectToString(temporaryOrder));
+            onTempOrderRemoved(temporaryOrder);
         }
-
-//        this.newOrderAdded.set(false);
-        return timeToSleep;
+        final long nextExpirationTime = this.temporaryOrders.getNextExpirationTime(); // Long.MAX_VALUE if no orders are left
+        return Math.min(10L * Generic.MINUTE_LENGTH_MILLISECONDS, nextExpirationTime - currentTime);
     }
 
     @NotNull
-    private synchronized OrderMarket addNewMarket(final String marketId, @NotNull final AtomicBoolean newOrderMarketCreated, @NotNull final OrderMarketChange orderMarketChange) {
-        final OrderMarket orderMarket = new OrderMarket(marketId);
-        orderMarket.onOrderMarketChange(orderMarketChange);
-        this.markets.put(marketId, orderMarket, true);
-        newOrderMarketCreated.set(true);
-
+    private OrderMarket addNewMarket(final String marketId, @NotNull final AtomicBoolean newOrderMarketCreated, @NotNull final OrderMarketChange orderMarketChange) {
+        final OrderMarket newOrderMarket = new OrderMarket(marketId);
+        newOrderMarket.onOrderMarketChange(orderMarketChange);
+        final OrderMarket existingOrderMarket = this.markets.putIfAbsent(marketId, newOrderMarket);
+        final OrderMarket orderMarket;
+        if (existingOrderMarket == null) {
+            orderMarket = newOrderMarket;
+            newOrderMarketCreated.set(true);
+        } else { // another thread added the market in the meantime; the change is applied to the stored market
+            orderMarket = existingOrderMarket;
+            orderMarket.onOrderMarketChange(orderMarketChange);
+        }
         return orderMarket;
     }
 
@@ -759,7 +877,7 @@ public class OrderCache
 
     public void printOrderMarkets() { // not synchronized, used for debugging
         for (final OrderMarket orderMarket : this.markets.valuesCopy()) {
-            logger.info("listing orderMarket: {}", Generic.objectToString(orderMarket));
+            logger.info("listing orderMarket: {}", Generic.lazyObjectToString(orderMarket));
         }
     }
 
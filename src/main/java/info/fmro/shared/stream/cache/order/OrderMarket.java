@@ -1,5 +1,6 @@
 package info.fmro.shared.stream.cache.order;
 
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.logic.ManagedRunner;
 import info.fmro.shared.stream.definitions.Order;
 import info.fmro.shared.stream.definitions.OrderMarketChange;
@@ -7,14 +8,17 @@ import info.fmro.shared.stream.definitions.OrderRunnerChange;
 import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.utility.Generic;
+import info.fmro.shared.utility.SnapshotFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -36,6 +40,49 @@ public class OrderMarket
         logger.info("newOrderMarketCreated: {}", marketId);
     }
 
+    private OrderMarket(@NotNull final OrderMarket other) { // used for copies, under the lock of other
+        this.marketId = other.marketId;
+        for (final Map.Entry<RunnerId, OrderMarketRunner> entry : other.marketRunners.entrySet()) {
+            this.marketRunners.put(entry.getKey(), entry.getValue().copy());
+        }
+        this.isClosed = other.isClosed;
+    }
+
+    private OrderMarket(final String marketId, final boolean isClosed) { // used when restoring from a snapshot
+        this.marketId = marketId;
+        this.isClosed = isClosed;
+    }
+
+    synchronized void writeSnapshot(@NotNull final DataOutput dataOutput)
+            throws IOException {
+        dataOutput.writeBoolean(this.isClosed);
+        dataOutput.writeInt(this.marketRunners.size());
+        for (final Map.Entry<RunnerId, OrderMarketRunner> entry : this.marketRunners.entrySet()) {
+            final RunnerId runnerId = entry.getKey();
+            SnapshotFile.writeNullableLong(dataOutput, runnerId.getSelectionId());
+            SnapshotFile.writeNullableDouble(dataOutput, runnerId.getHandicap());
+            entry.getValue().writeSnapshot(dataOutput);
+        }
+    }
+
+    @NotNull
+    static OrderMarket readSnapshot(final String marketId, @NotNull final ByteBuffer byteBuffer) {
+        final OrderMarket orderMarket = new OrderMarket(marketId, byteBuffer.get() != 0);
+        final int nRunners = byteBuffer.getInt();
+        for (int i = 0; i < nRunners; i++) {
+            final RunnerId runnerId = new RunnerId(SnapshotFile.readNullableLong(byteBuffer), SnapshotFile.readNullableDouble(byteBuffer));
+            final OrderMarketRunner orderMarketRunner = new OrderMarketRunner(marketId, runnerId);
+            orderMarketRunner.readSnapshot(byteBuffer);
+            orderMarket.marketRunners.put(runnerId, orderMarketRunner);
+        }
+        return orderMarket;
+    }
+
+    @NotNull
+    synchronized OrderMarket copy() {
+        return new OrderMarket(this);
+    }
+
 //    OrderMarket(final String marketId, @NotNull final AtomicBoolean newOrderMarketCreated) {
 //        this.marketId = marketId;
 //        newOrderMarketCreated.set(true);
@@ -66,12 +113,12 @@ public class OrderMarket
         }
     }
 
-    synchronized int cancelUnmatchedAtWorseOdds(final Side sideToCancel, final double worstNotCanceledOdds, final double excessExposure, @NotNull final HashMap<RunnerId, ManagedRunner> managedRunners, @NotNull final Method sendPostRequestRescriptMethod,
+    synchronized int cancelUnmatchedAtWorseOdds(final Side sideToCancel, final double worstNotCanceledOdds, final double excessExposure, @NotNull final HashMap<RunnerId, ManagedRunner> managedRunners, @NotNull final RescriptTransport rescriptTransport,
                                                 final boolean includeTheProvidedOdds, final String reason) {
         int modifications = 0;
         for (final OrderMarketRunner orderMarketRunner : this.marketRunners.values()) {
             if (orderMarketRunner == null) {
-                logger.error("null orderMarketRunner in cancelUnmatchedAtWorseOdds for: {}", Generic.objectToString(this)); // should never happen, no need to try to fix
+                logger.error("null orderMarketRunner in cancelUnmatchedAtWorseOdds for: {}", Generic.lazyObjectToString(this)); // should never happen, no need to try to fix
             } else {
                 final RunnerId runnerId = orderMarketRunner.getRunnerId();
                 ManagedRunner managedRunner = managedRunners.get(runnerId);
@@ -81,7 +128,7 @@ public class OrderMarket
                     managedRunner = new ManagedRunner(this.marketId, runnerId, new AtomicBoolean(), new AtomicBoolean());
                 } else { // found the managedRunner, nothing to be done
                 }
-                modifications += orderMarketRunner.cancelUnmatchedAtWorseOdds(sideToCancel, worstNotCanceledOdds, excessExposure, new HashMap<>(1), managedRunner, sendPostRequestRescriptMethod, includeTheProvidedOdds, 0L,
+                modifications += orderMarketRunner.cancelUnmatchedAtWorseOdds(sideToCancel, worstNotCanceledOdds, excessExposure, new HashMap<>(1), managedRunner, rescriptTransport, includeTheProvidedOdds, 0L,
                                                                               reason);
             }
         }
@@ -115,12 +162,12 @@ public class OrderMarket
 //        return returnValue;
 //    }
 
-//    synchronized int cancelUnmatchedAmounts(@NotNull final RunnerId runnerId, final double backExcessExposure, final double layExcessExposure, @NotNull final Method sendPostRequestRescriptMethod) {
+//    synchronized int cancelUnmatchedAmounts(@NotNull final RunnerId runnerId, final double backExcessExposure, final double layExcessExposure, @NotNull final RescriptTransport rescriptTransport) {
 //        int exposureHasBeenModified = 0;
 //        final OrderMarketRunner orderMarketRunner = this.marketRunners.get(runnerId);
 //        if (orderMarketRunner == null) { // nothing to be done
 //        } else {
-//            exposureHasBeenModified += orderMarketRunner.cancelUnmatchedAmounts(backExcessExposure, layExcessExposure, sendPostRequestRescriptMethod);
+//            exposureHasBeenModified += orderMarketRunner.cancelUnmatchedAmounts(backExcessExposure, layExcessExposure, rescriptTransport);
 //        }
 //        return exposureHasBeenModified;
 //    }
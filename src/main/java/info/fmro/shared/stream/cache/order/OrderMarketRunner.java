@@ -1,12 +1,13 @@
 package info.fmro.shared.stream.cache.order;
 
 import com.google.common.math.DoubleMath;
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.logic.ManagedRunner;
 import info.fmro.shared.objects.AmountsNavigableMap;
 import info.fmro.shared.objects.Exposure;
 import info.fmro.shared.objects.SharedStatics;
 import info.fmro.shared.stream.cache.OrdersList;
-import info.fmro.shared.stream.cache.RunnerOrderModification;
+import info.fmro.shared.stream.cache.RecentModificationsRing;
 import info.fmro.shared.stream.definitions.Order;
 import info.fmro.shared.stream.definitions.OrderRunnerChange;
 import info.fmro.shared.stream.enums.Side;
@@ -14,20 +15,22 @@ import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.utility.Formulas;
 import info.fmro.shared.utility.Generic;
 import info.fmro.shared.utility.LogLevel;
+import info.fmro.shared.utility.SnapshotFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -47,7 +50,7 @@ public class OrderMarketRunner
     private final PriceSizeLadder layMatches = PriceSizeLadder.newLay();
     private final PriceSizeLadder backMatches = PriceSizeLadder.newBack();
     private final Map<String, Order> unmatchedOrders = new HashMap<>(2); // only place where orders are permanently stored; orderId, order
-    private final LinkedList<RunnerOrderModification> recentModifications = new LinkedList<>(); // will contain sizes in EUR
+    private final RecentModificationsRing recentModifications = new RecentModificationsRing(recentModificationPeriod); // will contain sizes in EUR
 //    private boolean obsoleteObject;
 
     OrderMarketRunner(final String marketId, final RunnerId runnerId) {
@@ -60,6 +63,50 @@ public class OrderMarketRunner
         this.runnerId = runnerId;
     }
 
+    @NotNull
+    synchronized OrderMarketRunner copy() {
+        final OrderMarketRunner copy = new OrderMarketRunner(this.marketId, this.runnerId);
+        copy.copyExposureFrom(this);
+        copy.layMatches.copyFrom(this.layMatches);
+        copy.backMatches.copyFrom(this.backMatches);
+        for (final Map.Entry<String, Order> entry : this.unmatchedOrders.entrySet()) {
+            final Order order = entry.getValue();
+            copy.unmatchedOrders.put(entry.getKey(), order == null ? null : order.copy());
+        }
+        copy.recentModifications.copyFrom(this.recentModifications);
+        return copy;
+    }
+
+    synchronized void writeSnapshot(@NotNull final DataOutput dataOutput)
+            throws IOException {
+        writeExposureSnapshot(dataOutput);
+        this.layMatches.writeSnapshot(dataOutput);
+        this.backMatches.writeSnapshot(dataOutput);
+        dataOutput.writeInt(this.unmatchedOrders.size());
+        for (final Map.Entry<String, Order> entry : this.unmatchedOrders.entrySet()) {
+            final Order order = entry.getValue();
+            SnapshotFile.writeString(dataOutput, entry.getKey());
+            dataOutput.writeBoolean(order != null);
+            if (order != null) {
+                order.writeSnapshot(dataOutput);
+            } else { // only the flag is written
+            }
+        }
+        this.recentModifications.writeSnapshot(dataOutput);
+    }
+
+    synchronized void readSnapshot(@NotNull final ByteBuffer byteBuffer) { // this runner must be new, not yet shared
+        readExposureSnapshot(byteBuffer);
+        this.layMatches.readSnapshot(byteBuffer);
+        this.backMatches.readSnapshot(byteBuffer);
+        final int nOrders = byteBuffer.getInt();
+        for (int i = 0; i < nOrders; i++) {
+            final String orderId = SnapshotFile.readString(byteBuffer);
+            this.unmatchedOrders.put(orderId, byteBuffer.get() == 0 ? null : Order.readSnapshot(byteBuffer));
+        }
+        this.recentModifications.readSnapshot(byteBuffer);
+    }
+
     synchronized void onOrderRunnerChange(final OrderRunnerChange orderRunnerChange) {
         SharedStatics.orderCache.checkTemporaryOrdersForStreamChange(this, orderRunnerChange); // needs to happen at the start of the method, before I modify this object
         final Map<String, Order> initialMap = new HashMap<>(this.unmatchedOrders);
@@ -86,20 +133,19 @@ public class OrderMarketRunner
 
         final Collection<String> orderIdsSet = new HashSet<>(initialMap.keySet());
         orderIdsSet.addAll(this.unmatchedOrders.keySet());
-        @Nullable final List<RunnerOrderModification> newModifications;
-        if (orderIdsSet.isEmpty()) {
-            newModifications = null;
+        final long currentTime = System.currentTimeMillis();
+        this.recentModifications.removeExpired(currentTime);
+        if (orderIdsSet.isEmpty()) { // no modifications
         } else {
-            newModifications = new ArrayList<>(orderIdsSet.size());
             for (final String orderId : orderIdsSet) {
                 if (orderId == null) {
-                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null orderId in onOrderRunnerChange for: {} {}", Generic.objectToString(initialMap), Generic.objectToString(this.unmatchedOrders));
+                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null orderId in onOrderRunnerChange for: {} {}", Generic.lazyObjectToString(initialMap), Generic.lazyObjectToString(this.unmatchedOrders));
                 } else {
                     final Order initialOrder = initialMap.get(orderId);
                     final Order finalOrder = this.unmatchedOrders.get(orderId);
                     if (initialOrder == null && finalOrder == null) {
-                        SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null initialOrder and finalOrder in onOrderRunnerChange for: {} {} {}", orderId, Generic.objectToString(initialMap),
-                                                                Generic.objectToString(this.unmatchedOrders));
+                        SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null initialOrder and finalOrder in onOrderRunnerChange for: {} {} {}", orderId, Generic.lazyObjectToString(initialMap),
+                                                                Generic.lazyObjectToString(this.unmatchedOrders));
                     } else {
                         final double sizeRemainingModification = getSizeRemainingModification(initialOrder, finalOrder);
                         if (DoubleMath.fuzzyEquals(sizeRemainingModification, 0d, 0.0001d)) { // no modification
@@ -114,14 +160,12 @@ public class OrderMarketRunner
                                 price = matchedPrice;
                                 modification = getSizeMatchedModification(initialOrder, finalOrder);
                             }
-                            final RunnerOrderModification runnerOrderModification = new RunnerOrderModification(side, price, modification);
-                            newModifications.add(runnerOrderModification);
+                            this.recentModifications.add(side, price, modification, currentTime);
                         }
                     }
                 }
             } // end for
         }
-        addRecentModifications(newModifications);
     }
 
     private static double getSizeRemainingModification(final Order initialOrder, final Order finalOrder) {
@@ -191,36 +235,6 @@ public class OrderMarketRunner
         return price;
     }
 
-    private synchronized void removeExpiredModifications() {
-        final long currentTime = System.currentTimeMillis();
-        if (this.recentModifications.isEmpty()) { // nothing to remove
-        } else {
-            boolean removingFirstElement;
-            do {
-                final RunnerOrderModification modification = this.recentModifications.peek();
-                if (modification == null) {
-                    logger.error("null modification in removeExpiredModifications for: {}", Generic.objectToString(this.recentModifications));
-                    removingFirstElement = true;
-                } else {
-                    final long stamp = modification.getTimeStamp();
-                    removingFirstElement = stamp + recentModificationPeriod < currentTime;
-                }
-                if (removingFirstElement) {
-                    this.recentModifications.remove();
-                } else { // not expired, won't remove
-                }
-            } while (!this.recentModifications.isEmpty() && removingFirstElement);
-        }
-    }
-
-    private synchronized void addRecentModifications(final Collection<RunnerOrderModification> modifications) {
-        if (modifications == null) { // nothing to be done
-        } else {
-            this.recentModifications.addAll(modifications);
-        }
-        removeExpiredModifications();
-    }
-
 //    synchronized boolean isObsoleteObject() {
 //        return this.obsoleteObject;
 //    }
@@ -323,17 +337,17 @@ public class OrderMarketRunner
         this.layMatches.updateLayProfitExposure(this);
     }
 
-    synchronized double cancelUnmatchedAmounts(final double backExcessExposure, final double layExcessExposure, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    synchronized double cancelUnmatchedAmounts(final double backExcessExposure, final double layExcessExposure, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         // best odds are removed first, as they're most unlikely to get matched
         // always the newer orders are removed first
         double removedExposure = 0d;
-        removedExposure += cancelUnmatchedAmounts(Side.B, backExcessExposure, managedRunner, sendPostRequestRescriptMethod, reason);
-        removedExposure += cancelUnmatchedAmounts(Side.L, layExcessExposure, managedRunner, sendPostRequestRescriptMethod, reason);
+        removedExposure += cancelUnmatchedAmounts(Side.B, backExcessExposure, managedRunner, rescriptTransport, reason);
+        removedExposure += cancelUnmatchedAmounts(Side.L, layExcessExposure, managedRunner, rescriptTransport, reason);
         return removedExposure;
     }
 
     @SuppressWarnings("WeakerAccess")
-    synchronized double cancelUnmatchedAmounts(final Side side, final double excessExposure, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    synchronized double cancelUnmatchedAmounts(final Side side, final double excessExposure, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         double excessExposureLeft = excessExposure - (side == Side.B ? this.getBackTempCancelExposure() : this.getLayTempCancelExposure());
         if (excessExposure >= .1d) {
 //            excessExposureLeft = excessExposure - (side == Side.B ? this.getBackTempCancelExposure() : this.getLayTempCancelExposure());
@@ -348,7 +362,7 @@ public class OrderMarketRunner
                                                  thenComparing(Order::getPd, Comparator.nullsFirst(Comparator.reverseOrder()))).
                                 collect(Collectors.toCollection(ArrayList::new));
                 for (final Order order : sortedOrders) {
-                    final double removedExposure = order.removeExposure(this.marketId, this.runnerId, side, excessExposureLeft, managedRunner, sendPostRequestRescriptMethod, reason);
+                    final double removedExposure = order.removeExposure(this.marketId, this.runnerId, side, excessExposureLeft, managedRunner, rescriptTransport, reason);
 //                    Generic.addToAtomicDouble(removedExposureDuringThisManageIteration, removedExposure);
                     excessExposureLeft -= removedExposure;
                     if (excessExposureLeft <= 0d) {
@@ -357,7 +371,7 @@ public class OrderMarketRunner
                     }
                 }
             } else {
-                logger.error("unknown side in cancelUnmatchedAmounts for: {} {} {} {}", side, excessExposure, reason, Generic.objectToString(this));
+                logger.error("unknown side in cancelUnmatchedAmounts for: {} {} {} {}", side, excessExposure, reason, Generic.lazyObjectToString(this));
             }
         } else { // no excess exposure present
 //            excessExposureLeft = excessExposure;
@@ -365,12 +379,12 @@ public class OrderMarketRunner
         return excessExposure - excessExposureLeft; // total removed exposure
     }
 
-    synchronized double cancelUnmatchedExceptGivenExposure(final Side side, final double notCanceledExposure, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    synchronized double cancelUnmatchedExceptGivenExposure(final Side side, final double notCanceledExposure, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         // worst odds are kept, as they're most likely to get matched
         // older orders are kept
         double exposureLeftUntilIStartToCancel = notCanceledExposure + (side == Side.B ? this.getBackTempCancelExposure() : this.getLayTempCancelExposure());
         if (side == null) {
-            logger.error("null side in cancelUnmatchedExceptGivenExposure for: {} {} {}", notCanceledExposure, reason, Generic.objectToString(this));
+            logger.error("null side in cancelUnmatchedExceptGivenExposure for: {} {} {}", notCanceledExposure, reason, Generic.lazyObjectToString(this));
         } else {
             final Comparator<Double> priceComparator = side == Side.B ? Comparator.naturalOrder() : Comparator.reverseOrder(); // order by price or reversed price, then placed date
             final ArrayList<Order> sortedOrders =
@@ -386,25 +400,25 @@ public class OrderMarketRunner
                 for (final Order order : sortedOrders) {
                     final Double price = order.getP();
                     if (price == null) {
-                        logger.error("null price in cancelUnmatchedExceptGivenExposure for: {}", Generic.objectToString(order));
+                        logger.error("null price in cancelUnmatchedExceptGivenExposure for: {}", Generic.lazyObjectToString(order));
                     } else {
                         final double sizeRemaining = order.getSrConsideringTempCancel();
                         if (sizeRemaining <= 0d) { // it's dangerous to try to fix the error here; orders with zero size remaining are removed from cache when the orderChange happens, so I shouldn't get zero size here
                             final Double sr = order.getSr();
                             if (sr == null || sr == 0) {
-                                logger.error("order with zero or negative amount left in cancelUnmatchedExceptGivenExposure for: {} {} {} {} {} {} {}", price, sizeRemaining, side, notCanceledExposure, reason, Generic.objectToString(order),
-                                             Generic.objectToString(this));
+                                logger.error("order with zero or negative amount left in cancelUnmatchedExceptGivenExposure for: {} {} {} {} {} {} {}", price, sizeRemaining, side, notCanceledExposure, reason, Generic.lazyObjectToString(order),
+                                             Generic.lazyObjectToString(this));
                             } else { // no error
                             }
                         } else if (exposureLeftUntilIStartToCancel < .1d) { // no more excess left, everything from now on will be canceled
-                            order.cancelOrder(this.marketId, this.runnerId, managedRunner, sendPostRequestRescriptMethod, reason);
+                            order.cancelOrder(this.marketId, this.runnerId, managedRunner, rescriptTransport, reason);
                         } else if (exposureLeftUntilIStartToCancel >= sizeRemaining) { // keeping this order, and reducing the exposureLeftUntilIStartToCancel
                             exposureLeftUntilIStartToCancel -= sizeRemaining;
                         } else { // exposureLeftUntilIStartToCancel < excessPresentInOrder; partial cancelOrder
 //                        final double removedExposure;
-                            order.cancelOrder(this.marketId, this.runnerId, order.getSr() - exposureLeftUntilIStartToCancel, managedRunner, sendPostRequestRescriptMethod, reason);
+                            order.cancelOrder(this.marketId, this.runnerId, order.getSr() - exposureLeftUntilIStartToCancel, managedRunner, rescriptTransport, reason);
                             exposureLeftUntilIStartToCancel = 0d;
-//                            if (order.cancelOrder(this.marketId, this.runnerId, exposureLeftUntilIStartToCancel, removedExposureDuringThisManageIteration, managedRunner, sendPostRequestRescriptMethod, reason) > 0d) {
+//                            if (order.cancelOrder(this.marketId, this.runnerId, exposureLeftUntilIStartToCancel, removedExposureDuringThisManageIteration, managedRunner, rescriptTransport, reason) > 0d) {
 //                                exposureLeftUntilIStartToCancel = 0d;
 //                            } else { // cancelOrder failed for some reason, nothing to be done
 //                            }
@@ -416,25 +430,25 @@ public class OrderMarketRunner
                 for (final Order order : sortedOrders) {
                     final Double price = order.getP();
                     if (price == null) {
-                        logger.error("null price in cancelUnmatchedExceptGivenExposure for: {}", Generic.objectToString(order));
+                        logger.error("null price in cancelUnmatchedExceptGivenExposure for: {}", Generic.lazyObjectToString(order));
                     } else {
                         final double sizeRemaining = order.getSrConsideringTempCancel();
                         final double excessPresentInOrder = Formulas.calculateLayExposure(price, sizeRemaining);
                         if (excessPresentInOrder <= 0d) {
                             final Double sr = order.getSr();
                             if (sr == null || sr == 0) {
-                                logger.error("order with zero or negative amount left in cancelUnmatchedExceptGivenExposure for: {} {} {} {} {} {} {}", price, sizeRemaining, side, notCanceledExposure, reason, Generic.objectToString(order),
-                                             Generic.objectToString(this));
+                                logger.error("order with zero or negative amount left in cancelUnmatchedExceptGivenExposure for: {} {} {} {} {} {} {}", price, sizeRemaining, side, notCanceledExposure, reason, Generic.lazyObjectToString(order),
+                                             Generic.lazyObjectToString(this));
                             } else { // no error
                             }
                         } else if (exposureLeftUntilIStartToCancel < .1d) { // no more excess left, everything from now on will be canceled
-                            order.cancelOrder(this.marketId, this.runnerId, managedRunner, sendPostRequestRescriptMethod, reason);
+                            order.cancelOrder(this.marketId, this.runnerId, managedRunner, rescriptTransport, reason);
                         } else if (exposureLeftUntilIStartToCancel >= excessPresentInOrder) { // keeping this order, and reducing the exposureLeftUntilIStartToCancel
                             exposureLeftUntilIStartToCancel -= excessPresentInOrder;
                         } else { // exposureLeftUntilIStartToCancel < excessPresentInOrder; partial cancelOrder
-                            order.cancelOrder(this.marketId, this.runnerId, order.getSr() - (Formulas.oddsAreUsable(price) ? exposureLeftUntilIStartToCancel / (price - 1d) : 0d), managedRunner, sendPostRequestRescriptMethod, reason);
+                            order.cancelOrder(this.marketId, this.runnerId, order.getSr() - (Formulas.oddsAreUsable(price) ? exposureLeftUntilIStartToCancel / (price - 1d) : 0d), managedRunner, rescriptTransport, reason);
                             exposureLeftUntilIStartToCancel = 0d;
-//                            if (order.cancelOrder(this.marketId, this.runnerId, Formulas.oddsAreUsable(price) ? exposureLeftUntilIStartToCancel / (price - 1d) : null, removedExposureDuringThisManageIteration, managedRunner, sendPostRequestRescriptMethod,
+//                            if (order.cancelOrder(this.marketId, this.runnerId, Formulas.oddsAreUsable(price) ? exposureLeftUntilIStartToCancel / (price - 1d) : null, removedExposureDuringThisManageIteration, managedRunner, rescriptTransport,
 //                                                  reason) > 0d) {
 //                                exposureLeftUntilIStartToCancel = 0d;
 //                            } else { // cancelOrder failed for some reason, nothing to be done
@@ -444,29 +458,29 @@ public class OrderMarketRunner
                     }
                 } // end for
             } else {
-                logger.error("unknown side in cancelUnmatchedExceptGivenExposure for: {} {} {} {}", side, notCanceledExposure, reason, Generic.objectToString(this));
+                logger.error("unknown side in cancelUnmatchedExceptGivenExposure for: {} {} {} {}", side, notCanceledExposure, reason, Generic.lazyObjectToString(this));
             }
         }
         return exposureLeftUntilIStartToCancel;
     }
 
-    //    synchronized int cancelUnmatched(@NotNull final Method sendPostRequestRescriptMethod) { // cancel all unmatched orders
-//        return cancelUnmatchedAtWorseOdds(null, 0d, sendPostRequestRescriptMethod, false);
+    //    synchronized int cancelUnmatched(@NotNull final RescriptTransport rescriptTransport) { // cancel all unmatched orders
+//        return cancelUnmatchedAtWorseOdds(null, 0d, rescriptTransport, false);
 //    }
 //
-//    synchronized int cancelUnmatched(final Side sideToCancel, @NotNull final Method sendPostRequestRescriptMethod) { // cancel all unmatched orders on that side
-//        return cancelUnmatchedAtWorseOdds(sideToCancel, 0d, sendPostRequestRescriptMethod, false);
+//    synchronized int cancelUnmatched(final Side sideToCancel, @NotNull final RescriptTransport rescriptTransport) { // cancel all unmatched orders on that side
+//        return cancelUnmatchedAtWorseOdds(sideToCancel, 0d, rescriptTransport, false);
 //    }
 //
-//    synchronized int cancelUnmatchedAtWorseOdds(final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final Method sendPostRequestRescriptMethod) {
-//        return cancelUnmatchedAtWorseOdds(sideToCancel, worstNotCanceledOdds, sendPostRequestRescriptMethod, false);
+//    synchronized int cancelUnmatchedAtWorseOdds(final Side sideToCancel, final double worstNotCanceledOdds, @NotNull final RescriptTransport rescriptTransport) {
+//        return cancelUnmatchedAtWorseOdds(sideToCancel, worstNotCanceledOdds, rescriptTransport, false);
 //    }
 
     synchronized int cancelUnmatchedAtWorseOdds(final Side sideToCancel, final double worstNotCanceledOdds, final double excessExposure, @NotNull final HashMap<Double, Double> mandatoryPlaceAmounts, @NotNull final ManagedRunner managedRunner,
-                                                @NotNull final Method sendPostRequestRescriptMethod, final boolean includeTheProvidedOdds, final long minAgeMillis, final String reason) {
+                                                @NotNull final RescriptTransport rescriptTransport, final boolean includeTheProvidedOdds, final long minAgeMillis, final String reason) {
         int modifications = 0;
         if (this.runnerId == null) {
-            logger.error("null runnerId in orderMarketRunner.cancelAllUnmatched: {}", Generic.objectToString(this));
+            logger.error("null runnerId in orderMarketRunner.cancelAllUnmatched: {}", Generic.lazyObjectToString(this));
         } else {
             double excessExposureLeft = excessExposure - (sideToCancel == Side.B ? this.getBackTempCancelExposure() : this.getLayTempCancelExposure());
             @NotNull final Collection<Order> orders;
@@ -501,7 +515,7 @@ public class OrderMarketRunner
             final long currentTime = System.currentTimeMillis();
             for (final Order order : orders) {
                 if (order == null) {
-                    logger.error("null order in cancelAllUnmatched for: {} {}", reason, Generic.objectToString(this));
+                    logger.error("null order in cancelAllUnmatched for: {} {}", reason, Generic.lazyObjectToString(this));
                 } else {
                     final Side side = order.getSide();
                     final Double price = order.getP();
@@ -509,7 +523,7 @@ public class OrderMarketRunner
                     final String betId = order.getId();
                     final long ageMillis = order.getAgeMillis(currentTime);
                     if (side == null || price == null || size == null || betId == null) {
-                        logger.error("null order attributes in cancelAllUnmatched for: {} {} {} {} {} {}", side, price, size, betId, reason, Generic.objectToString(order));
+                        logger.error("null order attributes in cancelAllUnmatched for: {} {} {} {} {} {}", side, price, size, betId, reason, Generic.lazyObjectToString(order));
                     } else {
                         final boolean shouldCancelOrder;
                         if (sideToCancel == null) { // cancel all orders
@@ -529,7 +543,7 @@ public class OrderMarketRunner
                             }
 
                         if (shouldCancelOrder) {
-//                            modifications += Generic.booleanToInt(order.cancelOrder(this.marketId, this.runnerId, sendPostRequestRescriptMethod));
+//                            modifications += Generic.booleanToInt(order.cancelOrder(this.marketId, this.runnerId, rescriptTransport));
                             final double mandatoryPlaceAmountLeftToCancel;
                             if (mandatoryPlaceAmounts.containsKey(price)) {
                                 mandatoryPlaceAmountLeftToCancel = -mandatoryPlaceAmounts.get(price);
@@ -538,7 +552,7 @@ public class OrderMarketRunner
                             }
 
                             logger.info("{} cancelUnmatchedAtWorseOdds: {} {} {} price:{} size:{} excess:{} reasonId:{}", reason, this.marketId, this.runnerId, side, price, size, excessExposureLeft > 1_000_000_000d ? "max" : excessExposureLeft, reason);
-                            final double removedExposure = order.removeExposure(this.marketId, this.runnerId, side, Math.min(excessExposureLeft, mandatoryPlaceAmountLeftToCancel), managedRunner, sendPostRequestRescriptMethod, reason);
+                            final double removedExposure = order.removeExposure(this.marketId, this.runnerId, side, Math.min(excessExposureLeft, mandatoryPlaceAmountLeftToCancel), managedRunner, rescriptTransport, reason);
 //                            Generic.addToAtomicDouble(removedExposureDuringThisManageIteration, removedExposure);
                             excessExposureLeft -= removedExposure;
                             if (mandatoryPlaceAmounts.containsKey(price)) {
@@ -559,16 +573,16 @@ public class OrderMarketRunner
         return modifications;
     }
 
-    synchronized int cancelUnmatchedTooGoodOdds(@NotNull final Side sideToCancel, final double worstOddsThatAreGettingCanceled, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final long minAgeMillis,
+    synchronized int cancelUnmatchedTooGoodOdds(@NotNull final Side sideToCancel, final double worstOddsThatAreGettingCanceled, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final long minAgeMillis,
                                                 final String reason) {
         int modifications = 0;
         if (this.runnerId == null || worstOddsThatAreGettingCanceled <= 0d) {
-            logger.error("null runnerId or bogus worstOddsThatAreGettingCanceled in orderMarketRunner.cancelUnmatchedTooGoodOdds: {} {} {} {}", sideToCancel, worstOddsThatAreGettingCanceled, reason, Generic.objectToString(this));
+            logger.error("null runnerId or bogus worstOddsThatAreGettingCanceled in orderMarketRunner.cancelUnmatchedTooGoodOdds: {} {} {} {}", sideToCancel, worstOddsThatAreGettingCanceled, reason, Generic.lazyObjectToString(this));
         } else {
             final long currentTime = System.currentTimeMillis();
             for (final Order order : this.unmatchedOrders.values()) {
                 if (order == null) {
-                    logger.error("null order in cancelUnmatchedTooGoodOdds for: {} {}", reason, Generic.objectToString(this));
+                    logger.error("null order in cancelUnmatchedTooGoodOdds for: {} {}", reason, Generic.lazyObjectToString(this));
                 } else {
                     final Side side = order.getSide();
                     final Double price = order.getP();
@@ -576,14 +590,14 @@ public class OrderMarketRunner
                     final String betId = order.getId();
                     final long ageMillis = order.getAgeMillis(currentTime);
                     if (side == null || price == null || size == null || betId == null) {
-                        logger.error("null order attributes in cancelUnmatchedTooGoodOdds for: {} {} {} {} {} {}", side, price, size, betId, reason, Generic.objectToString(order));
+                        logger.error("null order attributes in cancelUnmatchedTooGoodOdds for: {} {} {} {} {} {}", side, price, size, betId, reason, Generic.lazyObjectToString(order));
                     } else {
                         // odds matter and are same or better
                         // odds matter but are not worse
                         // not the right side
                         final boolean shouldCancelOrder = sideToCancel == side && !Formulas.oddsAreWorse(side, worstOddsThatAreGettingCanceled, price) && (minAgeMillis <= 0L || ageMillis >= minAgeMillis);
                         if (shouldCancelOrder) {
-                            final double removedExposure = order.cancelOrder(this.marketId, this.runnerId, managedRunner, sendPostRequestRescriptMethod, reason);
+                            final double removedExposure = order.cancelOrder(this.marketId, this.runnerId, managedRunner, rescriptTransport, reason);
                             modifications += Generic.booleanToInt(removedExposure > 0d);
 //                            Generic.addToAtomicDouble(removedExposureDuringThisManageIteration, removedExposure);
                         } else { // won't cancel, nothing to be done
@@ -597,19 +611,18 @@ public class OrderMarketRunner
 
     @NotNull
     synchronized OrdersList getUnmatchedBackAmounts() {
-        removeExpiredModifications();
         final TreeMap<Double, Double> orders = new TreeMap<>(Comparator.naturalOrder());
         for (final Order order : this.unmatchedOrders.values()) {
             if (order == null) {
-                logger.error("null order in getUnmatchedBackAmounts for: {}", Generic.objectToString(this));
+                logger.error("null order in getUnmatchedBackAmounts for: {}", Generic.lazyObjectToString(this));
             } else {
                 final Side side = order.getSide();
                 if (side == null) {
-                    logger.error("null side in getUnmatchedBackAmounts for: {} {}", Generic.objectToString(order), Generic.objectToString(this));
+                    logger.error("null side in getUnmatchedBackAmounts for: {} {}", Generic.lazyObjectToString(order), Generic.lazyObjectToString(this));
                 } else if (side == Side.B) {
                     final Double price = order.getP(), remainingSize = order.getSr();
                     if (price == null || remainingSize == null) {
-                        logger.error("null price or remainingSize in getUnmatchedBackAmounts for: {} {}", Generic.objectToString(order), Generic.objectToString(this));
+                        logger.error("null price or remainingSize in getUnmatchedBackAmounts for: {} {}", Generic.lazyObjectToString(order), Generic.lazyObjectToString(this));
                     } else {
                         final Double existingMapValue = orders.get(price);
                         final double existingMapValuePrimitive = existingMapValue == null ? 0d : existingMapValue;
@@ -619,36 +632,23 @@ public class OrderMarketRunner
                 }
             }
         } // end for
-        final LinkedList<RunnerOrderModification> backRecentModifications = new LinkedList<>();
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (runnerOrderModification == null) {
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in getUnmatchedBackAmounts");
-            } else {
-                final Side side = runnerOrderModification.getSide();
-                if (side == Side.B) {
-                    backRecentModifications.add(runnerOrderModification);
-                } else { // not the side I want
-                }
-            }
-        }
-        return new OrdersList(orders, backRecentModifications, Side.B, AmountsNavigableMap.NOT_PRESENT);
+        return new OrdersList(orders, this.recentModifications.getView(Side.B, 1d, System.currentTimeMillis()), Side.B, AmountsNavigableMap.NOT_PRESENT);
     }
 
     @NotNull
     synchronized OrdersList getUnmatchedLayAmounts() {
-        removeExpiredModifications();
         final TreeMap<Double, Double> orders = new TreeMap<>(Comparator.reverseOrder());
         for (final Order order : this.unmatchedOrders.values()) {
             if (order == null) {
-                logger.error("null order in getUnmatchedLayAmounts for: {}", Generic.objectToString(this));
+                logger.error("null order in getUnmatchedLayAmounts for: {}", Generic.lazyObjectToString(this));
             } else {
                 final Side side = order.getSide();
                 if (side == null) {
-                    logger.error("null side in getUnmatchedLayAmounts for: {} {}", Generic.objectToString(order), Generic.objectToString(this));
+                    logger.error("null side in getUnmatchedLayAmounts for: {} {}", Generic.lazyObjectToString(order), Generic.lazyObjectToString(this));
                 } else if (side == Side.L) {
                     final Double price = order.getP(), remainingSize = order.getSr();
                     if (price == null || remainingSize == null) {
-                        logger.error("null price or remainingSize in getUnmatchedLayAmounts for: {} {}", Generic.objectToString(order), Generic.objectToString(this));
+                        logger.error("null price or remainingSize in getUnmatchedLayAmounts for: {} {}", Generic.lazyObjectToString(order), Generic.lazyObjectToString(this));
                     } else {
                         final Double existingMapValue = orders.get(price);
                         final double existingMapValuePrimitive = existingMapValue == null ? 0d : existingMapValue;
@@ -658,18 +658,6 @@ public class OrderMarketRunner
                 }
             }
         }
-        final LinkedList<RunnerOrderModification> layRecentModifications = new LinkedList<>();
-        for (final RunnerOrderModification runnerOrderModification : this.recentModifications) {
-            if (runnerOrderModification == null) {
-                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null runnerOrderModification in getUnmatchedLayAmounts");
-            } else {
-                final Side side = runnerOrderModification.getSide();
-                if (side == Side.L) {
-                    layRecentModifications.add(runnerOrderModification);
-                } else { // not the side I want
-                }
-            }
-        }
-        return new OrdersList(orders, layRecentModifications, Side.L, AmountsNavigableMap.NOT_PRESENT);
+        return new OrdersList(orders, this.recentModifications.getView(Side.L, 1d, System.currentTimeMillis()), Side.L, AmountsNavigableMap.NOT_PRESENT);
     }
 }
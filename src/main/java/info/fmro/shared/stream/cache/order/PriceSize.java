@@ -27,7 +27,7 @@ public class PriceSize
             if (listSize == 2) {
                 final Double priceObject = priceSize.get(0), sizeObject = priceSize.get(1);
                 if (priceObject == null || sizeObject == null) {
-                    logger.error("null Double in priceSize list in PriceSize object creation: {} {} {}", priceObject, sizeObject, Generic.objectToString(priceSize));
+                    logger.error("null Double in priceSize list in PriceSize object creation: {} {} {}", priceObject, sizeObject, Generic.lazyObjectToString(priceSize));
                     this.price = 0d;
                     this.size = 0d;
                 } else {
@@ -35,7 +35,7 @@ public class PriceSize
                     this.size = sizeObject;
                 }
             } else {
-                logger.error("wrong size {} for priceSize list in PriceSize object creation: {}", listSize, Generic.objectToString(priceSize));
+                logger.error("wrong size {} for priceSize list in PriceSize object creation: {}", listSize, Generic.lazyObjectToString(priceSize));
                 this.price = 0d;
                 this.size = 0d;
             }
@@ -46,6 +46,22 @@ public class PriceSize
         }
     }
 
+    private PriceSize(@NotNull final PriceSize other) { // used for copies
+        this.price = other.price;
+        this.size = other.getSize();
+    }
+
+    PriceSize(final double price, final double size) { // used when restoring from a snapshot
+        this.price = price;
+        this.size = size;
+    }
+
+    @NotNull
+    @Contract(" -> new")
+    synchronized PriceSize copy() {
+        return new PriceSize(this);
+    }
+
     public double getPrice() {
         return this.price;
     }
@@ -57,7 +73,7 @@ public class PriceSize
     synchronized void updateBackProfitExposure(@NotNull final Exposure exposure) {
         if (this.price == 0d || this.size == 0d) { // error message was probably printed during creation
         } else if (this.price <= 1d) {
-            logger.error("bogus price {} in PriceSize for: {}", this.price, Generic.objectToString(this));
+            logger.error("bogus price {} in PriceSize for: {}", this.price, Generic.lazyObjectToString(this));
             this.size = 0d;
         } else {
             exposure.addBackMatchedProfit(Formulas.calculateLayExposure(this.price, getSize()));
@@ -68,7 +84,7 @@ public class PriceSize
     synchronized void updateLayProfitExposure(@NotNull final Exposure exposure) {
         if (this.price == 0d || this.size == 0d) { // error message was probably printed during creation
         } else if (this.price <= 1d) {
-            logger.error("bogus price {} in PriceSize for: {}", this.price, Generic.objectToString(this));
+            logger.error("bogus price {} in PriceSize for: {}", this.price, Generic.lazyObjectToString(this));
             this.size = 0d;
         } else {
             exposure.addLayMatchedProfit(getSize());
@@ -96,9 +112,9 @@ public class PriceSize
 
     synchronized void removeAmountGBP(final double sizeToRemove) { // package private method
         if (this.size < 0d) {
-            logger.error("negative size {} in PriceSize for: {}", this.size, Generic.objectToString(this));
+            logger.error("negative size {} in PriceSize for: {}", this.size, Generic.lazyObjectToString(this));
         } else if (sizeToRemove < 0d) {
-            logger.error("negative sizeToRemove {} in PriceSize.removeAmount for: {}", sizeToRemove, Generic.objectToString(this));
+            logger.error("negative sizeToRemove {} in PriceSize.removeAmount for: {}", sizeToRemove, Generic.lazyObjectToString(this));
         } else {
             this.size -= sizeToRemove;
             if (this.size < 0d) {
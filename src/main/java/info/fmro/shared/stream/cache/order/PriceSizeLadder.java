@@ -2,186 +2,217 @@ package info.fmro.shared.stream.cache.order;
 
 import com.google.common.util.concurrent.AtomicDouble;
 import info.fmro.shared.objects.Exposure;
-import info.fmro.shared.utility.Generic;
+import info.fmro.shared.stream.definitions.PriceLadderDelta;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.utility.FixedPoint;
+import info.fmro.shared.utility.Formulas;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.SortedMap;
+import java.util.Map;
 import java.util.TreeMap;
 
+// matched sizes indexed by the tick position of their price, the fixed point form of the price; no boxed Double keys, and prices are matched as ticks, without tolerance
+// the occupied tick positions are kept in a BitSet, so reads visit only the existing levels, not every tick of the ladder
+// prices not on the tick ladder, like average or BSP reconciled prices, are kept exactly in the sparse offLadderSizes map, as the TreeMap of the former implementation did, so they still count in the matched exposure
+// the sizes stay double, as removeAmountEUR subtracts currency converted amounts that are not whole cents
 public final class PriceSizeLadder
         implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(PriceSizeLadder.class);
     @Serial
-    private static final long serialVersionUID = 7150436333395479059L;
-    private final TreeMap<Double, PriceSize> priceToSize;
+    private static final long serialVersionUID = 4170861497385238513L;
+    private static final int N_TICKS = Formulas.getNTicks();
+    private final Side side; // B: better odds are higher, L: better odds are lower
+    private final double[] sizes = new double[N_TICKS]; // indexed by tick position; 0d means the price is not present
+    private final BitSet occupied = new BitSet(N_TICKS); // tick positions with a size
+    private final TreeMap<Double, Double> offLadderSizes; // better odds first, like the tick levels
+    private int nLevels; // tick levels, without the off ladder ones
 
-    private PriceSizeLadder(@NotNull final Comparator<? super Double> comparator) {
-        if (!comparator.equals(Comparator.reverseOrder()) && !comparator.equals(Comparator.naturalOrder())) {
-            logger.error("not supported comparator type in PriceSizeLadder; this check is included to make sure the used comparator is serializable: {}", comparator);
-        }
-        this.priceToSize = new TreeMap<>(comparator);
+    private PriceSizeLadder(@NotNull final Side side) {
+        this.side = side;
+        final Comparator<Double> comparator = side == Side.B ? Comparator.reverseOrder() : Comparator.naturalOrder(); // both comparators are serializable
+        this.offLadderSizes = new TreeMap<>(comparator);
     }
 
     @NotNull
     @Contract(" -> new")
     static PriceSizeLadder newBack() {
-        return new PriceSizeLadder(Comparator.reverseOrder());
+        return new PriceSizeLadder(Side.B);
     }
 
     @NotNull
     @Contract(" -> new")
     static PriceSizeLadder newLay() {
-        return new PriceSizeLadder(Comparator.naturalOrder());
-    }
-
-//    @NotNull
-//    public synchronized PriceSizeLadder copy() {
-//        final PriceSizeLadder result;
-//        Comparator<? super Double> comparator = this.priceToSize.comparator();
-//        if (comparator == null) {
-//            logger.error("null comparator in PriceSizeLadder.copy for: {}", Generic.objectToString(this));
-//            comparator = Comparator.naturalOrder();
-//        } else { // normal case, everything is fine, nothing to be done
-//        }
-//        result = new PriceSizeLadder(comparator);
-//        result.updateTreeMap(this.priceToSize);
-//
-//        return result;
-//    }
-//
-//    private synchronized void updateTreeMap(final Map<Double, ? extends PriceSize> map) {
-//        this.priceToSize.putAll(map);
-//    }
+        return new PriceSizeLadder(Side.L);
+    }
 
-    @NotNull
-    public synchronized TreeMap<Double, Double> getSimpleTreeMap() {
-        final TreeMap<Double, Double> result = new TreeMap<>(this.priceToSize.comparator());
+    synchronized void copyFrom(@NotNull final PriceSizeLadder other) { // both ladders have the same side, as they are created by newBack or newLay
+        synchronized (other) {
+            System.arraycopy(other.sizes, 0, this.sizes, 0, N_TICKS);
+            this.occupied.clear();
+            this.occupied.or(other.occupied);
+            this.offLadderSizes.clear();
+            this.offLadderSizes.putAll(other.offLadderSizes);
+            this.nLevels = other.nLevels;
+        }
+    }
+
+    synchronized void writeSnapshot(@NotNull final DataOutput dataOutput)
+            throws IOException {
+        dataOutput.writeInt(this.nLevels + this.offLadderSizes.size());
+        for (int position = this.occupied.nextSetBit(0); position >= 0; position = this.occupied.nextSetBit(position + 1)) {
+            dataOutput.writeDouble(Formulas.getTickPrice(position));
+            dataOutput.writeDouble(this.sizes[position]);
+        }
+        for (final Map.Entry<Double, Double> entry : this.offLadderSizes.entrySet()) {
+            dataOutput.writeDouble(entry.getKey());
+            dataOutput.writeDouble(entry.getValue());
+        }
+    }
+
+    synchronized void readSnapshot(@NotNull final ByteBuffer byteBuffer) { // replaces the content
+        clear();
+        final int nSavedLevels = byteBuffer.getInt();
+        for (int i = 0; i < nSavedLevels; i++) {
+            final double price = byteBuffer.getDouble(), size = byteBuffer.getDouble();
+            setSize(price, size);
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(this.sizes, 0d);
+        this.occupied.clear();
+        this.offLadderSizes.clear();
+        this.nLevels = 0;
+    }
 
-        for (final PriceSize priceSize : this.priceToSize.values()) {
-            if (priceSize == null) {
-                logger.error("null priceSize in getSimpleTreeMap for: {}", Generic.objectToString(this));
+    @Contract(pure = true)
+    private static int getPosition(final double price) { // NO_TICK for the prices that are not exactly on the ladder
+        return FixedPoint.isWholeHundredths(price) ? FixedPoint.toTickPosition(price) : FixedPoint.NO_TICK;
+    }
+
+    private void setSize(final double price, final double size) {
+        final int position = getPosition(price);
+        if (position == FixedPoint.NO_TICK) {
+            if (size == 0d) {
+                this.offLadderSizes.remove(price);
             } else {
-                result.put(priceSize.getPrice(), priceSize.getSize());
+                this.offLadderSizes.put(price, size);
             }
+        } else {
+            setSize(position, size);
+        }
+    }
+
+    private void setSize(final int position, final double size) {
+        final double existingSize = this.sizes[position];
+        if (existingSize == 0d && size != 0d) {
+            this.nLevels++;
+            this.occupied.set(position);
+        } else if (existingSize != 0d && size == 0d) {
+            this.nLevels--;
+            this.occupied.clear(position);
+        } else { // number of levels unchanged
         }
+        this.sizes[position] = size;
+    }
 
+    @NotNull
+    public synchronized TreeMap<Double, Double> getSimpleTreeMap() {
+        final TreeMap<Double, Double> result = new TreeMap<>(this.offLadderSizes);
+        for (int position = this.occupied.nextSetBit(0); position >= 0; position = this.occupied.nextSetBit(position + 1)) {
+            result.put(Formulas.getTickPrice(position), this.sizes[position]);
+        }
         return result;
     }
 
     synchronized double getMatchedSizeAtBetterOrEqual(final double price, final Iterable<List<Double>> newMatchedList, final boolean isImage) {
         // best price matcher uses amounts, not exposure; for example an EUR 100 lay bet at 1.05 can be matched 40 EUR at 1.04 and 60 EUR at 1.05, with no consideration about exposure
-        double matchedSize = 0d;
-        if (this.priceToSize != null) {
-//            final boolean isBack = this.priceToSize.comparator().equals(Comparator.reverseOrder());
-            final SortedMap<Double, PriceSize> betterOrEqualPriceSize = new TreeMap<>(this.priceToSize.headMap(price, true));
-            if (isImage) {
-                betterOrEqualPriceSize.clear();
-            }
-            if (newMatchedList != null) {
-                for (final List<Double> priceAndSize : newMatchedList) {
-                    final PriceSize priceSize = new PriceSize(priceAndSize);
-                    if (priceSize.getSize() == 0d) {
-                        betterOrEqualPriceSize.remove(priceSize.getPrice());
-                    } else {
-                        betterOrEqualPriceSize.put(priceSize.getPrice(), priceSize);
-                    }
-                }
-            } else { // normal, no need to update betterOrEqualPriceSize
-            }
-
-            for (final PriceSize priceSize : betterOrEqualPriceSize.values()) {
-                if (priceSize != null) {
-                    matchedSize += priceSize.getSize();
-                } else {
-                    logger.error("priceSize null in getMatchedExposureAtBetterOrEqual for: {} {}", price, Generic.objectToString(this));
-                }
-            }
+        final PriceSizeLadder newLadder = new PriceSizeLadder(this.side); // rarely used, on the order stream deltas of a runner, so a temporary ladder is fine
+        if (isImage) { // new ladder stays empty
         } else {
-            logger.error("null priceToSize in getMatchedExposureAtBetterOrEqual for: {} {}", price, Generic.objectToString(this));
+            newLadder.copyFrom(this);
         }
-        return matchedSize;
+        final PriceLadderDelta.Reader delta = PriceLadderDelta.read(newMatchedList, PriceLadderDelta.PRICE_SIZE_WIDTH);
+        for (int i = 0, n = delta.size(); i < n; i++) {
+            newLadder.setSize(delta.getPrice(i), delta.getSize(i));
+        }
+        return newLadder.getSizeAtBetterOrEqual(price);
     }
 
     synchronized double getMatchedSizeAtBetterOrEqual(final double price) { // best price matcher uses amounts, not exposure; for example an EUR 100 lay bet at 1.05 can be matched 40 EUR at 1.04 and 60 EUR at 1.05, with no consideration about exposure
+        return getSizeAtBetterOrEqual(price);
+    }
+
+    private double getSizeAtBetterOrEqual(final double price) {
         double matchedSize = 0d;
-        if (this.priceToSize != null) {
-//            final boolean isBack = this.priceToSize.comparator().equals(Comparator.reverseOrder());
-            final SortedMap<Double, PriceSize> betterOrEqualPriceSize = this.priceToSize.headMap(price, true);
-            for (final PriceSize priceSize : betterOrEqualPriceSize.values()) {
-                if (priceSize != null) {
-                    matchedSize += priceSize.getSize();
-                } else {
-                    logger.error("priceSize null in getMatchedExposureAtBetterOrEqual for: {} {}", price, Generic.objectToString(this));
-                }
+        if (this.side == Side.B) { // better or equal are the ticks not below the price
+            for (int position = this.occupied.nextSetBit(FixedPoint.toCeilingTickPosition(price)); position >= 0; position = this.occupied.nextSetBit(position + 1)) {
+                matchedSize += this.sizes[position];
             }
-        } else {
-            logger.error("null priceToSize in getMatchedExposureAtBetterOrEqual for: {} {}", price, Generic.objectToString(this));
+        } else { // lay, the ticks not above the price
+            for (int position = this.occupied.previousSetBit(FixedPoint.toFloorTickPosition(price)); position >= 0; position = this.occupied.previousSetBit(position - 1)) { // previousSetBit(-1) is -1
+                matchedSize += this.sizes[position];
+            }
+        }
+        for (final double size : this.offLadderSizes.headMap(price, true).values()) { // the comparator puts the better prices first
+            matchedSize += size;
         }
         return matchedSize;
     }
 
     synchronized double getMatchedSize(final double price) {
-        final double matchedSize;
-        if (this.priceToSize != null) {
-            if (this.priceToSize.containsKey(price)) {
-                final PriceSize priceSize = this.priceToSize.get(price);
-                if (priceSize != null) {
-                    matchedSize = priceSize.getSize();
-                } else {
-                    logger.error("priceSize null in getMatchedSize for: {} {}", price, Generic.objectToString(this));
-                    matchedSize = 0d;
-                }
-            } else { // normal case, proper price not found
-                matchedSize = 0d;
-            }
-        } else {
-            logger.error("null priceToSize in getMatchedSize for: {} {}", price, Generic.objectToString(this));
-            matchedSize = 0d;
-        }
-        return matchedSize;
+        final int position = getPosition(price);
+        return position == FixedPoint.NO_TICK ? this.offLadderSizes.getOrDefault(price, 0d) : this.sizes[position]; // 0d is the normal case for a price not found
     }
 
     synchronized void onPriceChange(final boolean isImage, final Iterable<? extends List<Double>> prices) {
         if (isImage) {
-            this.priceToSize.clear();
+            clear();
         }
-        if (prices != null) {
-            for (final List<Double> priceAndSize : prices) {
-                final PriceSize priceSize = new PriceSize(priceAndSize);
-                if (priceSize.getSize() == 0d) {
-                    this.priceToSize.remove(priceSize.getPrice());
-                } else {
-                    this.priceToSize.put(priceSize.getPrice(), priceSize);
-                }
-            }
+        final PriceLadderDelta.Reader delta = PriceLadderDelta.read(prices, PriceLadderDelta.PRICE_SIZE_WIDTH);
+        for (int i = 0, n = delta.size(); i < n; i++) {
+            setSize(delta.getPrice(i), delta.getSize(i));
         }
     }
 
     public synchronized double getBestPrice(final double calculatedLimit) {
         double result = 0d;
-        if (this.priceToSize == null) {
-            logger.error("null priceToSize in getBestPrice for: {}", Generic.objectToString(this));
-            result = 0d;
-        } else if (this.priceToSize.isEmpty()) {
-            result = 0d;
+        if (isEmpty()) { // empty ladder, result stays 0d
         } else {
             final double minimumAmountConsideredSignificant = Math.min(calculatedLimit * .05d, 10d); // these defaults are rather basic
-            for (final PriceSize priceSize : this.priceToSize.values()) {
-                if (priceSize == null) {
-                    logger.error("null priceSize in getBestPrice {} for: {}", calculatedLimit, Generic.objectToString(this));
+            final boolean isBack = this.side == Side.B;
+            final Iterator<Map.Entry<Double, Double>> offLadderIterator = this.offLadderSizes.entrySet().iterator(); // best odds first
+            Map.Entry<Double, Double> offLadderEntry = offLadderIterator.hasNext() ? offLadderIterator.next() : null;
+            int position = isBack ? this.occupied.previousSetBit(N_TICKS - 1) : this.occupied.nextSetBit(0); // best odds first
+            while (result == 0d && (position >= 0 || offLadderEntry != null)) {
+                final double tickPrice = position >= 0 ? Formulas.getTickPrice(position) : 0d;
+                final boolean tickIsNext = offLadderEntry == null || (position >= 0 && (isBack ? tickPrice > offLadderEntry.getKey() : tickPrice < offLadderEntry.getKey()));
+                final double price, size;
+                if (tickIsNext) {
+                    price = tickPrice;
+                    size = this.sizes[position];
+                    position = isBack ? this.occupied.previousSetBit(position - 1) : this.occupied.nextSetBit(position + 1);
                 } else {
-                    final double size = priceSize.getSize();
-                    if (size >= minimumAmountConsideredSignificant) {
-                        result = priceSize.getPrice();
-                        break;
-                    }
+                    price = offLadderEntry.getKey();
+                    size = offLadderEntry.getValue();
+                    offLadderEntry = offLadderIterator.hasNext() ? offLadderIterator.next() : null;
+                }
+                if (size >= minimumAmountConsideredSignificant && size > 0d) {
+                    result = price;
+                } else { // not significant, continue
                 }
             }
         }
@@ -189,55 +220,58 @@ public final class PriceSizeLadder
     }
 
     synchronized void updateBackProfitExposure(@NotNull final Exposure exposure) {
-        for (final PriceSize priceSize : this.priceToSize.values()) {
-            priceSize.updateBackProfitExposure(exposure);
+        for (int position = this.occupied.nextSetBit(0); position >= 0; position = this.occupied.nextSetBit(position + 1)) {
+            addBackProfitExposure(exposure, Formulas.getTickPrice(position), this.sizes[position]);
+        }
+        for (final Map.Entry<Double, Double> entry : this.offLadderSizes.entrySet()) {
+            addBackProfitExposure(exposure, entry.getKey(), entry.getValue());
         }
     }
 
+    private static void addBackProfitExposure(@NotNull final Exposure exposure, final double price, final double size) {
+        exposure.addBackMatchedProfit(Formulas.calculateLayExposure(price, size));
+        exposure.addBackMatchedExposure(size);
+    }
+
     synchronized void updateLayProfitExposure(@NotNull final Exposure exposure) {
-        for (final PriceSize priceSize : this.priceToSize.values()) {
-            priceSize.updateLayProfitExposure(exposure);
+        for (int position = this.occupied.nextSetBit(0); position >= 0; position = this.occupied.nextSetBit(position + 1)) {
+            addLayProfitExposure(exposure, Formulas.getTickPrice(position), this.sizes[position]);
+        }
+        for (final Map.Entry<Double, Double> entry : this.offLadderSizes.entrySet()) {
+            addLayProfitExposure(exposure, entry.getKey(), entry.getValue());
         }
     }
 
-//    @NotNull
-//    @Contract(" -> new")
-//    public synchronized TwoDoubles getBackProfitExposurePair() { // this works for back; for lay profit and exposure are reversed
-//        double profit = 0d, exposure = 0d;
-//        for (final PriceSize priceSize : this.priceToSize.values()) {
-//            final TwoDoubles twoDoubles = priceSize.getBackProfitExposurePair();
-//            profit += twoDoubles.getFirstDouble();
-//            exposure += twoDoubles.getSecondDouble();
-//        }
-//        return new TwoDoubles(profit, exposure);
-//    }
+    private static void addLayProfitExposure(@NotNull final Exposure exposure, final double price, final double size) {
+        exposure.addLayMatchedProfit(size);
+        exposure.addLayMatchedExposure(Formulas.calculateLayExposure(price, size));
+    }
 
-    public synchronized void removeAmountEUR(final Double price, final double sizeToRemove, @NotNull final AtomicDouble currencyRate) {
+    public synchronized void removeAmountEUR(final double price, final double sizeToRemove, @NotNull final AtomicDouble currencyRate) {
         final double sizeToRemoveGBP = sizeToRemove / currencyRate.get();
         removeAmountGBP(price, sizeToRemoveGBP);
     }
 
-    private synchronized void removeAmountGBP(final Double price, final double sizeToRemove) {
-        if (this.priceToSize.containsKey(price)) {
-            final PriceSize priceSize = this.priceToSize.get(price);
-            if (priceSize == null) {
-                logger.error("null priceSize for price {} sizeToRemove {} in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, Generic.objectToString(this));
-            } else {
-                priceSize.removeAmountGBP(sizeToRemove);
-            }
+    private synchronized void removeAmountGBP(final double price, final double sizeToRemove) {
+        final double existingSize = getMatchedSize(price);
+        if (existingSize == 0d) {
+            logger.info("price {} sizeToRemove {} not found in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, this);
+        } else if (existingSize < 0d) {
+            logger.error("negative size {} at price {} in PriceSizeLadder.removeAmount for: {}", existingSize, price, this);
+        } else if (sizeToRemove < 0d) {
+            logger.error("negative sizeToRemove {} at price {} in PriceSizeLadder.removeAmount for: {}", sizeToRemove, price, this);
         } else {
-            logger.info("price {} sizeToRemove {} not found in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, Generic.objectToString(this));
+            setSize(price, Math.max(existingSize - sizeToRemove, 0d));
         }
     }
 
     public synchronized boolean isEmpty() {
-        return this.priceToSize.isEmpty();
+        return this.nLevels == 0 && this.offLadderSizes.isEmpty();
     }
 
     @NotNull
-    @Contract(pure = true)
     @Override
     public synchronized String toString() {
-        return "{" + this.priceToSize.values() + '}';
+        return "{" + this.side + " " + getSimpleTreeMap() + '}';
     }
 }
@@ -0,0 +1,224 @@
+package info.fmro.shared.stream.cache.order;
+
+import info.fmro.shared.enums.TemporaryOrderType;
+import info.fmro.shared.objects.TemporaryOrder;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.stream.objects.RunnerId;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// temporary orders indexed by runner, with a count of the PLACE orders per (market, runner, side, price) and a heap of expiration times; only used under the OrderCache lock
+// equal orders can coexist, like in the list this replaces; the heap and the live map work with instances, the heap entries of removed orders are dropped lazily, when they reach the top
+// expiration changes must go through setExpirationTime, which queues a new heap entry; a change made directly on the TemporaryOrder is only noticed when its old entry reaches the top, so a lowered expiration can be seen late
+final class TemporaryOrdersStore
+        implements Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(TemporaryOrdersStore.class);
+    @Serial
+    private static final long serialVersionUID = 3349728765529601624L;
+    private final LinkedHashMap<RunnerKey, ArrayList<TemporaryOrder>> ordersByRunner = new LinkedHashMap<>(4);
+    private transient HashMap<PlaceKey, Integer> nPlaceOrders = new HashMap<>(4);
+    private transient PriorityQueue<Expiration> expirations = new PriorityQueue<>(Comparator.comparingLong(Expiration::expirationTime));
+    private transient IdentityHashMap<TemporaryOrder, Long> liveOrders = new IdentityHashMap<>(4); // order, expiration time of its current heap entry; older entries are stale
+
+    private record RunnerKey(String marketId, RunnerId runnerId)
+            implements Serializable {
+    }
+
+    private record PlaceKey(String marketId, RunnerId runnerId, Side side, double price) { // record equality compares the price like Double.compare, same as TemporaryOrder.placePriceEquals
+    }
+
+    private record Expiration(long expirationTime, TemporaryOrder temporaryOrder) {
+    }
+
+    @Serial
+    private void readObject(@NotNull final java.io.ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.nPlaceOrders = new HashMap<>(4);
+        this.expirations = new PriorityQueue<>(Comparator.comparingLong(Expiration::expirationTime));
+        this.liveOrders = new IdentityHashMap<>(4);
+        for (final List<TemporaryOrder> runnerOrders : this.ordersByRunner.values()) {
+            for (final TemporaryOrder temporaryOrder : runnerOrders) {
+                addToIndexes(temporaryOrder);
+            }
+        }
+    }
+
+    synchronized boolean add(final TemporaryOrder temporaryOrder) {
+        final boolean added;
+        if (temporaryOrder == null) {
+            logger.error("null temporaryOrder in TemporaryOrdersStore.add");
+            added = false;
+        } else if (this.liveOrders.containsKey(temporaryOrder)) {
+            logger.error("temporaryOrder instance already stored in TemporaryOrdersStore.add: {}", temporaryOrder);
+            added = false;
+        } else {
+            this.ordersByRunner.computeIfAbsent(new RunnerKey(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId()), k -> new ArrayList<>(2)).add(temporaryOrder);
+            addToIndexes(temporaryOrder);
+            added = true;
+        }
+        return added;
+    }
+
+    private void addToIndexes(@NotNull final TemporaryOrder temporaryOrder) {
+        queueExpiration(temporaryOrder, temporaryOrder.getExpirationTime());
+        if (temporaryOrder.getType() == TemporaryOrderType.PLACE) {
+            this.nPlaceOrders.merge(getPlaceKey(temporaryOrder), 1, Integer::sum);
+        } else { // only PLACE orders are counted
+        }
+    }
+
+    private void queueExpiration(@NotNull final TemporaryOrder temporaryOrder, final long expirationTime) { // the previous heap entry of the order, if any, becomes stale
+        this.liveOrders.put(temporaryOrder, expirationTime);
+        this.expirations.add(new Expiration(expirationTime, temporaryOrder));
+    }
+
+    synchronized boolean setExpirationTime(@NotNull final TemporaryOrder temporaryOrder, final long expirationTime) { // sets the expiration of a stored order, and queues it at its new time, so a lowered expiration is seen right away
+        final boolean stored = this.liveOrders.containsKey(temporaryOrder);
+        temporaryOrder.setExpirationTime(expirationTime);
+        if (stored) {
+            queueExpiration(temporaryOrder, expirationTime);
+            if (this.expirations.size() > (this.liveOrders.size() << 1) + 16) { // too many stale entries
+                rebuildExpirations();
+            } else { // the stale entry is dropped once it reaches the top
+            }
+        } else { // not stored, only the order is modified
+        }
+        return stored;
+    }
+
+    @NotNull
+    private static PlaceKey getPlaceKey(@NotNull final TemporaryOrder temporaryOrder) {
+        return new PlaceKey(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId(), temporaryOrder.getSide(), temporaryOrder.getPrice());
+    }
+
+    synchronized int removeAllEqual(@NotNull final TemporaryOrder temporaryOrder) { // removes all the orders that equal the argument, returns the number removed
+        final List<TemporaryOrder> runnerOrders = this.ordersByRunner.get(new RunnerKey(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId()));
+        final List<TemporaryOrder> toRemove = new ArrayList<>(1);
+        if (runnerOrders == null) { // no orders on the runner, nothing to remove
+        } else {
+            for (final TemporaryOrder existingOrder : runnerOrders) {
+                if (temporaryOrder.equals(existingOrder)) {
+                    toRemove.add(existingOrder);
+                } else { // not equal, kept
+                }
+            }
+        }
+        for (final TemporaryOrder existingOrder : toRemove) {
+            remove(existingOrder);
+        }
+        return toRemove.size();
+    }
+
+    synchronized boolean remove(@NotNull final TemporaryOrder temporaryOrder) { // removes this instance only
+        final boolean removed;
+        if (this.liveOrders.remove(temporaryOrder) != null) {
+            final RunnerKey runnerKey = new RunnerKey(temporaryOrder.getMarketId(), temporaryOrder.getRunnerId());
+            final List<TemporaryOrder> runnerOrders = this.ordersByRunner.get(runnerKey);
+            if (runnerOrders == null) {
+                logger.error("runner orders not found in TemporaryOrdersStore.remove for: {}", temporaryOrder);
+            } else {
+                runnerOrders.removeIf(existingOrder -> existingOrder == temporaryOrder);
+                if (runnerOrders.isEmpty()) {
+                    this.ordersByRunner.remove(runnerKey);
+                } else { // other orders left on the runner
+                }
+            }
+            if (temporaryOrder.getType() == TemporaryOrderType.PLACE) {
+                this.nPlaceOrders.computeIfPresent(getPlaceKey(temporaryOrder), (k, v) -> v > 1 ? v - 1 : null);
+            } else { // only PLACE orders are counted
+            }
+            if (this.expirations.size() > (this.liveOrders.size() << 1) + 16) { // too many entries of removed orders
+                rebuildExpirations();
+            } else { // the heap entry is dropped once it reaches the top
+            }
+            removed = true;
+        } else {
+            removed = false;
+        }
+        return removed;
+    }
+
+    private void rebuildExpirations() {
+        this.expirations.clear();
+        for (final TemporaryOrder temporaryOrder : new ArrayList<>(this.liveOrders.keySet())) {
+            queueExpiration(temporaryOrder, temporaryOrder.getExpirationTime());
+        }
+    }
+
+    @NotNull
+    synchronized List<TemporaryOrder> getOrders(final String marketId, final RunnerId runnerId) { // copy, the orders can be removed while iterating it
+        final List<TemporaryOrder> runnerOrders = marketId == null || runnerId == null ? null : this.ordersByRunner.get(new RunnerKey(marketId, runnerId));
+        return runnerOrders == null ? new ArrayList<>(0) : new ArrayList<>(runnerOrders);
+    }
+
+    synchronized boolean placePriceExists(final String marketId, final RunnerId runnerId, final Side side, final double price) {
+        return marketId != null && runnerId != null && this.nPlaceOrders.containsKey(new PlaceKey(marketId, runnerId, side, price));
+    }
+
+    @NotNull
+    synchronized List<TemporaryOrder> removeExpired(final long currentTime) { // returns the removed orders
+        final List<TemporaryOrder> expiredOrders = new ArrayList<>(0);
+        boolean keepChecking = true;
+        while (keepChecking && !this.expirations.isEmpty()) {
+            final Expiration expiration = this.expirations.peek();
+            final TemporaryOrder temporaryOrder = expiration.temporaryOrder();
+            final long expirationTime = temporaryOrder.getExpirationTime();
+            final Long queuedExpirationTime = this.liveOrders.get(temporaryOrder);
+            if (queuedExpirationTime == null || queuedExpirationTime != expiration.expirationTime()) { // removed before expiring, or stale entry replaced by setExpirationTime
+                this.expirations.poll();
+            } else if (expirationTime != expiration.expirationTime()) { // expiration time modified directly on the order, requeued at its new time
+                this.expirations.poll();
+                queueExpiration(temporaryOrder, expirationTime);
+            } else if (expirationTime <= currentTime) {
+                this.expirations.poll();
+                remove(temporaryOrder);
+                expiredOrders.add(temporaryOrder);
+            } else { // the first order that isn't expired
+                keepChecking = false;
+            }
+        }
+        return expiredOrders;
+    }
+
+    synchronized long getNextExpirationTime() { // Long.MAX_VALUE if there are no orders; call removeExpired first, so removed orders and stale entries are no longer on top
+        final Expiration expiration = this.expirations.peek();
+        return expiration == null ? Long.MAX_VALUE : expiration.expirationTime();
+    }
+
+    @NotNull
+    synchronized List<TemporaryOrder> getAll() { // grouped by runner, in the order the runners were first added
+        final List<TemporaryOrder> result = new ArrayList<>(this.liveOrders.size());
+        for (final List<TemporaryOrder> runnerOrders : this.ordersByRunner.values()) {
+            result.addAll(runnerOrders);
+        }
+        return result;
+    }
+
+    synchronized int size() {
+        return this.liveOrders.size();
+    }
+
+    synchronized boolean isEmpty() {
+        return this.liveOrders.isEmpty();
+    }
+
+    synchronized void clear() {
+        this.ordersByRunner.clear();
+        this.nPlaceOrders.clear();
+        this.expirations.clear();
+        this.liveOrders.clear();
+    }
+}
@@ -1,8 +1,10 @@
 package info.fmro.shared.stream.definitions;
 
-import com.google.common.math.DoubleMath;
+import info.fmro.shared.objects.AmountsNavigableMap;
 import info.fmro.shared.objects.SharedStatics;
+import info.fmro.shared.stream.cache.LadderSnapshot;
 import info.fmro.shared.stream.cache.RunnerOrderModification;
+import info.fmro.shared.stream.cache.RunnerOrderModificationsBuffer;
 import info.fmro.shared.stream.cache.RunnerOrderModificationsList;
 import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.utility.Generic;
@@ -12,14 +14,15 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.TreeMap;
 
 public class LevelPriceSizeLadder
@@ -29,8 +32,8 @@ public class LevelPriceSizeLadder
     private static final Logger logger = LoggerFactory.getLogger(LevelPriceSizeLadder.class);
     @Serial
     private static final long serialVersionUID = 990070832400710390L;
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    private final Map<Integer, LevelPriceSize> levelToPriceSize = new TreeMap<>(); // level, LevelPriceSize
+    private final double[] levelPrices = new double[MAX_LEVEL], levelSizes = new double[MAX_LEVEL]; // indexed by level, 0 best odds; size 0d means the level is not present; sizes in GBP
+    private int nLevels;
     @NotNull
     private final Side side; // odds size is in reverse order for back and natural order for lay
     private final double noKnowledgeExists, maximalKnowledgeExists;
@@ -52,57 +55,177 @@ public class LevelPriceSizeLadder
     }
 
     // todo only return modifications that are within worstKnowledge, but also return the worst knowledge itself
-    @Nullable
+    @NotNull
     public synchronized RunnerOrderModificationsList onPriceChangeGetModifications(final boolean isImage, final Iterable<? extends List<Double>> prices) {
-        final Map<Integer, LevelPriceSize> initialMap = new HashMap<>(this.levelToPriceSize);
-        final double initialWorstOddsWhereIHaveKnowledge = getWorstOddsWhereIHaveKnowledge();
-        onPriceChange(isImage, prices);
-
-        final double worstOddsWhereIHaveKnowledge = getWorstOddsWhereIHaveKnowledge(initialWorstOddsWhereIHaveKnowledge);
-        final Collection<Double> pricesSet = new HashSet<>(initialMap.keySet());
-        pricesSet.addAll(this.levelToPriceSize.keySet());
-//        final Side side = getSide();
+        final RunnerOrderModificationsBuffer modificationsBuffer = new RunnerOrderModificationsBuffer(MAX_LEVEL);
+        final double worstOddsWhereIHaveKnowledge = onPriceChange(isImage, prices, modificationsBuffer);
+        final int nModifications = modificationsBuffer.size();
         @Nullable final List<RunnerOrderModification> returnList;
-        if (pricesSet.isEmpty()) {
+        if (nModifications == 0) {
             returnList = null;
         } else {
-            returnList = new ArrayList<>(pricesSet.size());
-            for (final Double price : pricesSet) {
-                if (price == null) {
-                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null price in onPriceChangeGetModifications for: {} {}", Generic.objectToString(initialMap), Generic.objectToString(this.levelToPriceSize));
+            returnList = new ArrayList<>(nModifications);
+            for (int i = 0; i < nModifications; i++) {
+                returnList.add(new RunnerOrderModification(this.side, modificationsBuffer.getPrice(i), modificationsBuffer.getSize(i)));
+            }
+        }
+
+        return new RunnerOrderModificationsList(returnList, worstOddsWhereIHaveKnowledge);
+    }
+
+    public synchronized double onPriceChange(final boolean isImage, final Iterable<? extends List<Double>> prices, @NotNull final RunnerOrderModificationsBuffer modificationsBuffer) { // diff mode, modifications in GBP; returns worstOddsWhereIHaveKnowledge
+        modificationsBuffer.clear(this.side);
+        final double initialWorstOddsWhereIHaveKnowledge = getWorstOddsWhereIHaveKnowledge();
+        if (isImage) {
+            for (int level = 0; level < MAX_LEVEL; level++) {
+                removeLevel(level, modificationsBuffer);
+            }
+        }
+        final PriceLadderDelta.Reader delta = PriceLadderDelta.read(prices, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH);
+        for (int i = 0, n = delta.size(); i < n; i++) {
+            final double price = delta.getPrice(i), size = delta.getSize(i);
+            final int level = getLevel(delta.getLevel(i), price, size);
+            if (level < 0) { // error message was already printed
+            } else {
+                removeLevel(level, modificationsBuffer);
+                if (size == 0d) { // level removed
                 } else {
-                    final LevelPriceSize initialPriceSize = initialMap.get(price);
-                    final LevelPriceSize finalPriceSize = this.levelToPriceSize.get(price);
-                    final double initialSize = initialPriceSize == null ? 0d : initialPriceSize.getSizeGBP();
-                    final double finalSize = finalPriceSize == null ? 0d : finalPriceSize.getSizeGBP();
-                    final double modification = finalSize - initialSize;
-                    if (DoubleMath.fuzzyEquals(modification, 0d, 0.0001d)) { // no modification
-                    } else {
-                        final RunnerOrderModification runnerOrderModification = new RunnerOrderModification(this.side, price, modification);
-                        returnList.add(runnerOrderModification);
-                    }
+                    this.levelPrices[level] = price;
+                    this.levelSizes[level] = size;
+                    this.nLevels++;
+                    modificationsBuffer.merge(price, size);
                 }
-            } // end for
+            }
         }
+        modificationsBuffer.removeInsignificant(); // prices move between levels, so a modification can be cancelled by a later one
 
-        return new RunnerOrderModificationsList(returnList, worstOddsWhereIHaveKnowledge);
+        return getWorstOddsWhereIHaveKnowledge(initialWorstOddsWhereIHaveKnowledge);
     }
 
     public synchronized void onPriceChange(final boolean isImage, final Iterable<? extends List<Double>> prices) {
         if (isImage) {
-            this.levelToPriceSize.clear();
+            Arrays.fill(this.levelSizes, 0d);
+            this.nLevels = 0;
+        }
+        final PriceLadderDelta.Reader delta = PriceLadderDelta.read(prices, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH);
+        for (int i = 0, n = delta.size(); i < n; i++) {
+            final double price = delta.getPrice(i), size = delta.getSize(i);
+            final int level = getLevel(delta.getLevel(i), price, size);
+            if (level < 0) { // error message was already printed
+            } else {
+                if (this.levelSizes[level] == 0d) {
+                    if (size == 0d) { // level not present, nothing to be done
+                    } else {
+                        this.nLevels++;
+                    }
+                } else if (size == 0d) {
+                    this.nLevels--;
+                } else { // level was present and remains present
+                }
+                this.levelPrices[level] = price;
+                this.levelSizes[level] = size;
+            }
+        }
+    }
+
+    private void removeLevel(final int level, @NotNull final RunnerOrderModificationsBuffer modificationsBuffer) {
+        final double existingSize = this.levelSizes[level];
+        if (existingSize == 0d) { // level not present, nothing to be done
+        } else {
+            modificationsBuffer.merge(this.levelPrices[level], -existingSize);
+            this.levelSizes[level] = 0d;
+            this.nLevels--;
+        }
+    }
+
+    private static int getLevel(final int level, final double price, final double size) { // the triples were already validated by PriceLadderDelta; -1 if the level is out of range
+        final int result;
+        if (level < 0 || level >= MAX_LEVEL) {
+            SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "level out of range in LevelPriceSizeLadder: {} {} {}", level, price, size);
+            result = -1;
+        } else {
+            result = level;
         }
-        if (prices != null) {
-            for (final List<Double> priceAndSize : prices) {
-                final LevelPriceSize levelPriceSize = new LevelPriceSize(priceAndSize);
-                if (levelPriceSize.getSizeGBP() == 0d) {
-                    this.levelToPriceSize.remove(levelPriceSize.getLevel());
+        return result;
+    }
+
+    @NotNull
+    public synchronized TreeMap<Double, Double> getSimpleTreeMap(final double currencyRate) { // price, size in EUR
+        final Comparator<Double> comparator = this.side == Side.B ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        final TreeMap<Double, Double> result = new TreeMap<>(comparator);
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            final double size = this.levelSizes[level];
+            if (size == 0d) { // level not present, nothing to be done
+            } else {
+                final double price = this.levelPrices[level];
+                final Double existingSize = result.get(price);
+                final double existingSizePrimitive = existingSize == null ? 0d : existingSize;
+                result.put(price, existingSizePrimitive + size * currencyRate);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void copyFrom(@NotNull final LevelPriceSizeLadder other) { // this ladder must be new, not yet shared
+        if (this.side == other.side) {
+            synchronized (other) {
+                System.arraycopy(other.levelPrices, 0, this.levelPrices, 0, MAX_LEVEL);
+                System.arraycopy(other.levelSizes, 0, this.levelSizes, 0, MAX_LEVEL);
+                this.nLevels = other.nLevels;
+            }
+        } else {
+            logger.error("different sides in LevelPriceSizeLadder.copyFrom: {} {}", this.side, other.side);
+        }
+    }
+
+    public synchronized void writeSnapshot(@NotNull final DataOutput dataOutput)
+            throws IOException {
+        dataOutput.writeInt(this.nLevels);
+        dataOutput.writeInt(MAX_LEVEL);
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            dataOutput.writeDouble(this.levelPrices[level]);
+            dataOutput.writeDouble(this.levelSizes[level]);
+        }
+    }
+
+    public synchronized void readSnapshot(@NotNull final ByteBuffer byteBuffer) { // this ladder must be new, not yet shared
+        this.nLevels = byteBuffer.getInt();
+        final int nWrittenLevels = byteBuffer.getInt();
+        for (int level = 0; level < nWrittenLevels; level++) {
+            final double price = byteBuffer.getDouble(), size = byteBuffer.getDouble();
+            if (level < MAX_LEVEL) {
+                this.levelPrices[level] = price;
+                this.levelSizes[level] = size;
+            } else { // snapshot written with more levels, the extra ones are dropped
+            }
+        }
+        this.nLevels = Math.min(this.nLevels, MAX_LEVEL);
+    }
+
+    @NotNull
+    public synchronized LadderSnapshot getSnapshot() { // levels in level order, best odds first
+        final LadderSnapshot snapshot;
+        if (this.nLevels == 0) {
+            snapshot = LadderSnapshot.empty(this.side);
+        } else {
+            final double[] prices = new double[this.nLevels], sizes = new double[this.nLevels];
+            int index = 0;
+            for (int level = 0; level < MAX_LEVEL && index < this.nLevels; level++) {
+                final double size = this.levelSizes[level];
+                if (size == 0d) { // level not present, nothing to be done
                 } else {
-                    this.levelToPriceSize.put(levelPriceSize.getLevel(), levelPriceSize);
+                    prices[index] = this.levelPrices[level];
+                    sizes[index] = size;
+                    index++;
                 }
             }
-        } else { // nothing to be done
+            snapshot = new LadderSnapshot(this.side, prices, sizes, getWorstOdds());
         }
+        return snapshot;
+    }
+
+    public synchronized double getWorstOdds() { // price on the last level, if all levels are present; same convention as AmountsNavigableMap.worstOddsPresent
+        return this.levelSizes[MAX_LEVEL - 1] == 0d ? AmountsNavigableMap.NOT_PRESENT : this.levelPrices[MAX_LEVEL - 1];
     }
 
     private synchronized double getWorstOddsWhereIHaveKnowledge(final double initialValue) { // will return the least knowledge out of initialValue and calculatedValue
@@ -112,7 +235,7 @@ public class LevelPriceSizeLadder
         } else if (this.side == Side.L) {
             returnValue = Math.min(initialValue, calculatedValue);
         } else {
-            logger.error("unknown side {} during getWorstOddsWhereIHaveKnowledge for: {}", this.side, Generic.objectToString(this));
+            logger.error("unknown side {} during getWorstOddsWhereIHaveKnowledge for: {}", this.side, Generic.lazyObjectToString(this));
             returnValue = knowledgeError;
         }
         return returnValue;
@@ -120,15 +243,12 @@ public class LevelPriceSizeLadder
 
     private synchronized double getWorstOddsWhereIHaveKnowledge() {
         final double returnValue;
-        if (this.levelToPriceSize.isEmpty()) {
+        if (this.nLevels == 0) {
             returnValue = this.noKnowledgeExists;
+        } else if (this.levelSizes[MAX_LEVEL - 1] == 0d) { // the runner on this side has less than MAX_LEVEL - 1 prices, so I have all of them
+            returnValue = this.maximalKnowledgeExists;
         } else {
-            final LevelPriceSize levelPriceSize = this.levelToPriceSize.get(MAX_LEVEL - 1);
-            if (levelPriceSize == null) { // the runner on this side has less than MAX_LEVEL - 1 prices, so I have all of them
-                returnValue = this.maximalKnowledgeExists;
-            } else {
-                returnValue = levelPriceSize.getPrice();
-            }
+            returnValue = this.levelPrices[MAX_LEVEL - 1];
         }
         return returnValue;
     }
@@ -47,7 +47,7 @@ public class MarketChangeMessage
             marketIds = new HashSet<>(Generic.getCollectionCapacity(this.mc));
             for (final MarketChange marketChange : this.mc) {
                 if (marketChange == null) {
-                    logger.error("null marketChange in getChangedMarketIds for: {}", Generic.objectToString(this));
+                    logger.error("null marketChange in getChangedMarketIds for: {}", Generic.lazyObjectToString(this));
                 } else {
                     marketIds.add(marketChange.getId());
                 }
@@ -262,7 +262,7 @@ public class MarketDefinition
     public synchronized PriceLadderType getPriceLadderType() {
         @Nullable final PriceLadderType returnValue;
         if (this.priceLadderDefinition == null) {
-            logger.error("null priceLadderDefinition in getPriceLadderType for: {}", Generic.objectToString(this));
+            logger.error("null priceLadderDefinition in getPriceLadderType for: {}", Generic.lazyObjectToString(this));
             returnValue = null;
         } else {
             returnValue = this.priceLadderDefinition.getType();
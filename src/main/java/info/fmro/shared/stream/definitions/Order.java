@@ -1,5 +1,6 @@
 package info.fmro.shared.stream.definitions;
 
+import info.fmro.shared.betapi.RescriptTransport;
 import info.fmro.shared.logic.ManagedRunner;
 import info.fmro.shared.objects.Exposure;
 import info.fmro.shared.objects.SharedStatics;
@@ -11,14 +12,17 @@ import info.fmro.shared.stream.enums.Side;
 import info.fmro.shared.stream.objects.RunnerId;
 import info.fmro.shared.utility.Formulas;
 import info.fmro.shared.utility.Generic;
+import info.fmro.shared.utility.SnapshotFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
-import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 // objects of this class are read from the stream
@@ -59,6 +63,91 @@ public class Order
     //    private double backExposure, layExposure, backProfit, layProfit;
     private transient double sizeTempCanceled;
 
+    @NotNull
+    public synchronized Order copy() { // the transient sizeTempCanceled is not copied, same as with serialization
+        final Order copy = new Order();
+        copy.avp = this.avp;
+        copy.bsp = this.bsp;
+        copy.id = this.id;
+        copy.ld = this.ld == null ? null : (Date) this.ld.clone();
+        copy.md = this.md == null ? null : (Date) this.md.clone();
+        copy.ot = this.ot;
+        copy.lsrc = this.lsrc;
+        copy.p = this.p;
+        copy.pd = this.pd == null ? null : (Date) this.pd.clone();
+        copy.pt = this.pt;
+        copy.rac = this.rac;
+        copy.rc = this.rc;
+        copy.rfo = this.rfo;
+        copy.rfs = this.rfs;
+        copy.s = this.s;
+        copy.sc = this.sc;
+        copy.side = this.side;
+        copy.sl = this.sl;
+        copy.sm = this.sm;
+        copy.sr = this.sr;
+        copy.status = this.status;
+        copy.sv = this.sv;
+        copy.cd = this.cd == null ? null : (Date) this.cd.clone();
+        return copy;
+    }
+
+    public synchronized void writeSnapshot(@NotNull final DataOutput dataOutput) // the transient sizeTempCanceled is not written, same as with serialization
+            throws IOException {
+        SnapshotFile.writeNullableDouble(dataOutput, this.avp);
+        SnapshotFile.writeNullableDouble(dataOutput, this.bsp);
+        SnapshotFile.writeString(dataOutput, this.id);
+        SnapshotFile.writeNullableDate(dataOutput, this.ld);
+        SnapshotFile.writeNullableDate(dataOutput, this.md);
+        SnapshotFile.writeEnum(dataOutput, this.ot);
+        SnapshotFile.writeEnum(dataOutput, this.lsrc);
+        SnapshotFile.writeNullableDouble(dataOutput, this.p);
+        SnapshotFile.writeNullableDate(dataOutput, this.pd);
+        SnapshotFile.writeEnum(dataOutput, this.pt);
+        SnapshotFile.writeString(dataOutput, this.rac);
+        SnapshotFile.writeString(dataOutput, this.rc);
+        SnapshotFile.writeString(dataOutput, this.rfo);
+        SnapshotFile.writeString(dataOutput, this.rfs);
+        SnapshotFile.writeNullableDouble(dataOutput, this.s);
+        SnapshotFile.writeNullableDouble(dataOutput, this.sc);
+        SnapshotFile.writeEnum(dataOutput, this.side);
+        SnapshotFile.writeNullableDouble(dataOutput, this.sl);
+        SnapshotFile.writeNullableDouble(dataOutput, this.sm);
+        SnapshotFile.writeNullableDouble(dataOutput, this.sr);
+        SnapshotFile.writeEnum(dataOutput, this.status);
+        SnapshotFile.writeNullableDouble(dataOutput, this.sv);
+        SnapshotFile.writeNullableDate(dataOutput, this.cd);
+    }
+
+    @NotNull
+    public static Order readSnapshot(@NotNull final ByteBuffer byteBuffer) {
+        final Order order = new Order();
+        order.avp = SnapshotFile.readNullableDouble(byteBuffer);
+        order.bsp = SnapshotFile.readNullableDouble(byteBuffer);
+        order.id = SnapshotFile.readString(byteBuffer);
+        order.ld = SnapshotFile.readNullableDate(byteBuffer);
+        order.md = SnapshotFile.readNullableDate(byteBuffer);
+        order.ot = SnapshotFile.readEnum(byteBuffer, OrderType.class);
+        order.lsrc = SnapshotFile.readEnum(byteBuffer, LapseStatusReasonCode.class);
+        order.p = SnapshotFile.readNullableDouble(byteBuffer);
+        order.pd = SnapshotFile.readNullableDate(byteBuffer);
+        order.pt = SnapshotFile.readEnum(byteBuffer, PersistenceType.class);
+        order.rac = SnapshotFile.readString(byteBuffer);
+        order.rc = SnapshotFile.readString(byteBuffer);
+        order.rfo = SnapshotFile.readString(byteBuffer);
+        order.rfs = SnapshotFile.readString(byteBuffer);
+        order.s = SnapshotFile.readNullableDouble(byteBuffer);
+        order.sc = SnapshotFile.readNullableDouble(byteBuffer);
+        order.side = SnapshotFile.readEnum(byteBuffer, Side.class);
+        order.sl = SnapshotFile.readNullableDouble(byteBuffer);
+        order.sm = SnapshotFile.readNullableDouble(byteBuffer);
+        order.sr = SnapshotFile.readNullableDouble(byteBuffer);
+        order.status = SnapshotFile.readEnum(byteBuffer, OrderStatus.class);
+        order.sv = SnapshotFile.readNullableDouble(byteBuffer);
+        order.cd = SnapshotFile.readNullableDate(byteBuffer);
+        return order;
+    }
+
     public synchronized long getAgeMillis() {
         return getAgeMillis(System.currentTimeMillis());
     }
@@ -70,7 +159,7 @@ public class Order
     public synchronized long getPlacedDateMillis() {
         final long placedDateMillis;
         if (this.pd == null) {
-            logger.error("null placedDate during getPlacedDateMillis for: {}", Generic.objectToString(this));
+            logger.error("null placedDate during getPlacedDateMillis for: {}", Generic.lazyObjectToString(this));
             placedDateMillis = 0L;
         } else {
             placedDateMillis = this.pd.getTime();
@@ -80,7 +169,7 @@ public class Order
 
     public synchronized void calculateExposureAndProfit(@NotNull final Exposure exposure) {
         if (this.p == null || this.p <= 1d || this.sr == null || this.status == null || this.side == null) {
-            logger.error("null or bogus fields in Order calculateExposureAndProfit: {} {} {} {} {}", this.p, this.sr, this.status, this.side, Generic.objectToString(this));
+            logger.error("null or bogus fields in Order calculateExposureAndProfit: {} {} {} {} {}", this.p, this.sr, this.status, this.side, Generic.lazyObjectToString(this));
         } else if (this.status == OrderStatus.EC) { // execution complete, nothing should be remaining
         } else {
             switch (this.side) {
@@ -92,7 +181,7 @@ public class Order
                     exposure.addLayUnmatchedExposure(Formulas.calculateLayExposure(this.p, this.sr));
                     exposure.addLayPotentialUnmatchedProfit(this.sr);
                 }
-                default -> logger.error("strange side in Order calculateExposureAndProfit: {} {}", this.side, Generic.objectToString(this));
+                default -> logger.error("strange side in Order calculateExposureAndProfit: {} {}", this.side, Generic.lazyObjectToString(this));
             }
         }
 //        if (this.backExposure != 0d && this.layExposure != 0d) { // this condition should always be false, only one type of exposure should exist
@@ -100,13 +189,13 @@ public class Order
 //        }
     }
 
-    public synchronized double cancelOrder(final String marketId, final RunnerId runnerId, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) { // full cancel
-        return cancelOrder(marketId, runnerId, null, managedRunner, sendPostRequestRescriptMethod, reason);
+    public synchronized double cancelOrder(final String marketId, final RunnerId runnerId, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) { // full cancel
+        return cancelOrder(marketId, runnerId, null, managedRunner, rescriptTransport, reason);
     }
 
-    public synchronized double cancelOrder(final String marketId, final RunnerId runnerId, final Double sizeReduction, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod, final String reason) {
+    public synchronized double cancelOrder(final String marketId, final RunnerId runnerId, final Double sizeReduction, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport, final String reason) {
         if (this.p == null || this.side == null || this.id == null) {
-            logger.error("null variables during cancelOrder for: {} {} {} {} {}", this.p, this.side, this.id, reason, Generic.objectToString(this));
+            logger.error("null variables during cancelOrder for: {} {} {} {} {}", this.p, this.side, this.id, reason, Generic.lazyObjectToString(this));
             if (this.p == null) { // avoids exception when converting to primitive
                 this.p = 1.01d;
             } else { // proper price exists, nothing to be done
@@ -114,14 +203,14 @@ public class Order
         } else { // no error, nothing to be done, method will continue
         }
         final double sizeRemaining = this.sr == null ? 0d : this.sr;
-        return SharedStatics.orderCache.addCancelOrder(marketId, runnerId, this.side, this.p, sizeRemaining, this.getSrConsideringTempCancel(), this.id, sizeReduction, managedRunner, sendPostRequestRescriptMethod, reason);
+        return SharedStatics.orderCache.addCancelOrder(marketId, runnerId, this.side, this.p, sizeRemaining, this.getSrConsideringTempCancel(), this.id, sizeReduction, managedRunner, rescriptTransport, reason);
     }
 
-    public synchronized double removeExposure(final String marketId, final RunnerId runnerId, final Side sideToRemove, final double excessExposure, @NotNull final ManagedRunner managedRunner, @NotNull final Method sendPostRequestRescriptMethod,
+    public synchronized double removeExposure(final String marketId, final RunnerId runnerId, final Side sideToRemove, final double excessExposure, @NotNull final ManagedRunner managedRunner, @NotNull final RescriptTransport rescriptTransport,
                                               final String reason) {
         final double exposureReduction;
         if (this.p == null || this.side == null || this.id == null || !Formulas.oddsAreUsable(this.p)) {
-            logger.error("null variables or bad odds during removeExposure for: {} {} {} {} {} {} {} {} {}", marketId, runnerId, sideToRemove, excessExposure, this.p, this.side, this.id, reason, Generic.objectToString(this));
+            logger.error("null variables or bad odds during removeExposure for: {} {} {} {} {} {} {} {} {}", marketId, runnerId, sideToRemove, excessExposure, this.p, this.side, this.id, reason, Generic.lazyObjectToString(this));
             exposureReduction = 0d;
         } else if (excessExposure <= 0d || Generic.roundDouble(excessExposure) == 0d) {
             exposureReduction = 0d;
@@ -141,9 +230,9 @@ public class Order
                     sizeReduction = excessExposure / (this.p - 1d);
                 }
             }
-            exposureReduction = SharedStatics.orderCache.addCancelOrder(marketId, runnerId, this.side, this.p, sizeRemaining, this.getSrConsideringTempCancel(), this.id, sizeReduction, managedRunner, sendPostRequestRescriptMethod, reason);
+            exposureReduction = SharedStatics.orderCache.addCancelOrder(marketId, runnerId, this.side, this.p, sizeRemaining, this.getSrConsideringTempCancel(), this.id, sizeReduction, managedRunner, rescriptTransport, reason);
         } else {
-            logger.error("wrong side in removeExposure for: {} {} {} {} {} {} {}", sideToRemove, this.side, marketId, runnerId, excessExposure, reason, Generic.objectToString(this));
+            logger.error("wrong side in removeExposure for: {} {} {} {} {} {} {}", sideToRemove, this.side, marketId, runnerId, excessExposure, reason, Generic.lazyObjectToString(this));
             exposureReduction = 0d;
         }
         return exposureReduction;
@@ -47,7 +47,7 @@ public class OrderChangeMessage
             marketIds = new HashSet<>(Generic.getCollectionCapacity(this.oc));
             for (final OrderMarketChange orderMarketChange : this.oc) {
                 if (orderMarketChange == null) {
-                    logger.error("null orderMarketChange in getChangedMarketIds for: {}", Generic.objectToString(this));
+                    logger.error("null orderMarketChange in getChangedMarketIds for: {}", Generic.lazyObjectToString(this));
                 } else {
                     marketIds.add(orderMarketChange.getId());
                 }
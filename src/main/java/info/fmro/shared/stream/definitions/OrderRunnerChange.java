@@ -70,19 +70,19 @@ public class OrderRunnerChange
                                 matchedSize = foundSize;
                                 break;
                             } else {
-                                logger.error("foundSize null in getMatchedSize for: {} {} {}", foundPrice, Generic.objectToString(priceSizeList), Generic.objectToString(this)); // matchedSize remains 0d
+                                logger.error("foundSize null in getMatchedSize for: {} {} {}", foundPrice, Generic.lazyObjectToString(priceSizeList), Generic.lazyObjectToString(this)); // matchedSize remains 0d
                             }
                         } else { // matchedSize remains 0d
                             if (foundPrice == null) {
-                                logger.error("foundPrice null in getMatchedSize for: {} {}", Generic.objectToString(priceSizeList), Generic.objectToString(this)); // matchedSize remains 0d
+                                logger.error("foundPrice null in getMatchedSize for: {} {}", Generic.lazyObjectToString(priceSizeList), Generic.lazyObjectToString(this)); // matchedSize remains 0d
                             } else { // no error, but proper price not found, nothing to be done
                             }
                         }
                     } else {
-                        logger.error("wrong size {} for priceSizeList getMatchedSize for: {} {}", listSize, Generic.objectToString(priceSizeList), Generic.objectToString(this)); // matchedSize remains 0d
+                        logger.error("wrong size {} for priceSizeList getMatchedSize for: {} {}", listSize, Generic.lazyObjectToString(priceSizeList), Generic.lazyObjectToString(this)); // matchedSize remains 0d
                     }
                 } else {
-                    logger.error("null priceSizeList in getMatchedSize for: {} {} {}", side, price, Generic.objectToString(this)); // matchedSize remains 0d
+                    logger.error("null priceSizeList in getMatchedSize for: {} {} {}", side, price, Generic.lazyObjectToString(this)); // matchedSize remains 0d
                 }
             } // end for
         } else { // matchedSize remains 0d, nothing to be done
@@ -144,11 +144,13 @@ public class OrderRunnerChange
         @Nullable final List<List<Double>> result;
         if (this.mb == null) {
             result = null;
+        } else if (this.mb instanceof PriceLadderDelta) { // immutable, shared
+            result = this.mb;
         } else {
             result = new ArrayList<>(this.mb.size());
             for (final List<Double> list : this.mb) {
                 if (list == null) {
-                    logger.error("null element found in mb during getMb for: {}", Generic.objectToString(this));
+                    logger.error("null element found in mb during getMb for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -161,11 +163,13 @@ public class OrderRunnerChange
     public synchronized void setMb(final Collection<? extends List<Double>> mb) {
         if (mb == null) {
             this.mb = null;
+        } else if (mb instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.mb = priceLadderDelta;
         } else {
             this.mb = new ArrayList<>(mb.size());
             for (final List<Double> list : mb) {
                 if (list == null) {
-                    logger.error("null element found in mb during setMb for: {}", Generic.objectToString(mb));
+                    logger.error("null element found in mb during setMb for: {}", Generic.lazyObjectToString(mb));
 //                    this.mb.add(null);
                 } else {
                     this.mb.add(new ArrayList<>(list));
@@ -178,11 +182,13 @@ public class OrderRunnerChange
         @Nullable final List<List<Double>> result;
         if (this.ml == null) {
             result = null;
+        } else if (this.ml instanceof PriceLadderDelta) { // immutable, shared
+            result = this.ml;
         } else {
             result = new ArrayList<>(this.ml.size());
             for (final List<Double> list : this.ml) {
                 if (list == null) {
-                    logger.error("null element found in ml during getMl for: {}", Generic.objectToString(this));
+                    logger.error("null element found in ml during getMl for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -195,11 +201,13 @@ public class OrderRunnerChange
     public synchronized void setMl(final Collection<? extends List<Double>> ml) {
         if (ml == null) {
             this.ml = null;
+        } else if (ml instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.ml = priceLadderDelta;
         } else {
             this.ml = new ArrayList<>(ml.size());
             for (final List<Double> list : ml) {
                 if (list == null) {
-                    logger.error("null element found in ml during setMl for: {}", Generic.objectToString(ml));
+                    logger.error("null element found in ml during setMl for: {}", Generic.lazyObjectToString(ml));
 //                    this.ml.add(null);
                 } else {
                     this.ml.add(new ArrayList<>(list));
@@ -0,0 +1,142 @@
+package info.fmro.shared.stream.definitions;
+
+import info.fmro.shared.utility.Generic;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// immutable ladder delta read by ChangeMessageDecoder, the price/size tuples (width 2) or level/price/size triples (width 3) stored flat in a primitive array
+// the ladders read the primitives directly, through read(tuples, width); get(index) is only for the old List<List<Double>> readers, and allocates the boxed tuple on every call
+// being immutable, it is shared, not copied, by the RunnerChange and OrderRunnerChange getters and setters
+public final class PriceLadderDelta
+        extends AbstractList<List<Double>>
+        implements RandomAccess, Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(PriceLadderDelta.class);
+    @Serial
+    private static final long serialVersionUID = 5036918730617524911L;
+    public static final int PRICE_SIZE_WIDTH = 2, LEVEL_PRICE_SIZE_WIDTH = 3;
+    private static final ThreadLocal<Reader> READERS = ThreadLocal.withInitial(Reader::new);
+    private final double[] values;
+    private final int width, nTuples;
+
+    public PriceLadderDelta(@NotNull final double[] values, final int nValues, final int width) { // the first nValues of values are copied
+        this.width = width;
+        this.nTuples = nValues / width;
+        this.values = Arrays.copyOf(values, this.nTuples * width);
+    }
+
+    @NotNull
+    public static Reader read(@Nullable final Iterable<? extends List<Double>> tuples, final int width) { // the reader of the current thread, valid until its next read; null, or otherwise wrong, tuples are logged and skipped
+        final Reader reader = READERS.get();
+        reader.read(tuples, width);
+        return reader;
+    }
+
+    private static boolean isValidTuple(final List<Double> tuple, final int width) {
+        boolean isValid = tuple != null && tuple.size() == width;
+        if (isValid) {
+            for (final Double value : tuple) {
+                if (value == null) {
+                    isValid = false;
+                    break;
+                } else { // value is fine, continue checking
+                }
+            }
+        } else { // already invalid
+        }
+        return isValid;
+    }
+
+    @Contract(pure = true)
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getLevel(final int index) { // only for the level ladders
+        return (int) this.values[index * this.width];
+    }
+
+    public double getPrice(final int index) {
+        return this.values[index * this.width + this.width - 2];
+    }
+
+    public double getSize(final int index) {
+        return this.values[index * this.width + this.width - 1];
+    }
+
+    @Override
+    @Contract(pure = true)
+    public int size() {
+        return this.nTuples;
+    }
+
+    @NotNull
+    @Override
+    public List<Double> get(final int index) {
+        final int offset = index * this.width;
+        return this.width == LEVEL_PRICE_SIZE_WIDTH ? List.of(this.values[offset], this.values[offset + 1], this.values[offset + 2]) : List.of(this.values[offset], this.values[offset + 1]);
+    }
+
+    // reusable cursor over the tuples: a delta is read in place, and the old List<List<Double>> tuples are unboxed into a per-thread scratch array, so no array is allocated per ladder update
+    public static final class Reader {
+        private double[] scratch = new double[LEVEL_PRICE_SIZE_WIDTH << 4], values = this.scratch;
+        private int width = PRICE_SIZE_WIDTH, nTuples;
+
+        private Reader() {
+        }
+
+        private void read(@Nullable final Iterable<? extends List<Double>> tuples, final int newWidth) {
+            this.width = newWidth;
+            if (tuples == null) {
+                this.values = this.scratch;
+                this.nTuples = 0;
+            } else if (tuples instanceof final PriceLadderDelta priceLadderDelta && priceLadderDelta.width == newWidth) {
+                this.values = priceLadderDelta.values;
+                this.nTuples = priceLadderDelta.nTuples;
+            } else {
+                int nValues = 0;
+                for (final List<Double> tuple : tuples) {
+                    if (isValidTuple(tuple, newWidth)) {
+                        if (nValues + newWidth > this.scratch.length) { // grown once, then kept for the next reads
+                            this.scratch = Arrays.copyOf(this.scratch, this.scratch.length << 1);
+                        } else { // there's room left
+                        }
+                        for (final Double value : tuple) {
+                            this.scratch[nValues++] = value;
+                        }
+                    } else {
+                        logger.error("wrong tuple for width {} in PriceLadderDelta: {}", newWidth, Generic.lazyObjectToString(tuple));
+                    }
+                }
+                this.values = this.scratch;
+                this.nTuples = nValues / newWidth;
+            }
+        }
+
+        @Contract(pure = true)
+        public int size() {
+            return this.nTuples;
+        }
+
+        public int getLevel(final int index) { // only for the level ladders
+            return (int) this.values[index * this.width];
+        }
+
+        public double getPrice(final int index) {
+            return this.values[index * this.width + this.width - 2];
+        }
+
+        public double getSize(final int index) {
+            return this.values[index * this.width + this.width - 1];
+        }
+    }
+}
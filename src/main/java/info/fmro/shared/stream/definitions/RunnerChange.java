@@ -47,11 +47,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.atb == null) {
             result = null;
+        } else if (this.atb instanceof PriceLadderDelta) { // immutable, shared
+            result = this.atb;
         } else {
             result = new ArrayList<>(this.atb.size());
             for (final List<Double> list : this.atb) {
                 if (list == null) {
-                    logger.error("null element found in atb during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in atb during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -64,11 +66,13 @@ public class RunnerChange
     public synchronized void setAtb(final Collection<? extends List<Double>> atb) {
         if (atb == null) {
             this.atb = null;
+        } else if (atb instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.atb = priceLadderDelta;
         } else {
             this.atb = new ArrayList<>(atb.size());
             for (final List<Double> list : atb) {
                 if (list == null) {
-                    logger.error("null element found in atb during set for: {}", Generic.objectToString(atb));
+                    logger.error("null element found in atb during set for: {}", Generic.lazyObjectToString(atb));
 //                    this.atb.add(null);
                 } else {
                     this.atb.add(new ArrayList<>(list));
@@ -81,11 +85,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.atl == null) {
             result = null;
+        } else if (this.atl instanceof PriceLadderDelta) { // immutable, shared
+            result = this.atl;
         } else {
             result = new ArrayList<>(this.atl.size());
             for (final List<Double> list : this.atl) {
                 if (list == null) {
-                    logger.error("null element found in atl during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in atl during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -98,11 +104,13 @@ public class RunnerChange
     public synchronized void setAtl(final Collection<? extends List<Double>> atl) {
         if (atl == null) {
             this.atl = null;
+        } else if (atl instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.atl = priceLadderDelta;
         } else {
             this.atl = new ArrayList<>(atl.size());
             for (final List<Double> list : atl) {
                 if (list == null) {
-                    logger.error("null element found in atl during set for: {}", Generic.objectToString(atl));
+                    logger.error("null element found in atl during set for: {}", Generic.lazyObjectToString(atl));
 //                    this.atl.add(null);
                 } else {
                     this.atl.add(new ArrayList<>(list));
@@ -115,11 +123,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.batb == null) {
             result = null;
+        } else if (this.batb instanceof PriceLadderDelta) { // immutable, shared
+            result = this.batb;
         } else {
             result = new ArrayList<>(this.batb.size());
             for (final List<Double> list : this.batb) {
                 if (list == null) {
-                    logger.error("null element found in batb during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in batb during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -132,11 +142,13 @@ public class RunnerChange
     public synchronized void setBatb(final Collection<? extends List<Double>> batb) {
         if (batb == null) {
             this.batb = null;
+        } else if (batb instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.batb = priceLadderDelta;
         } else {
             this.batb = new ArrayList<>(batb.size());
             for (final List<Double> list : batb) {
                 if (list == null) {
-                    logger.error("null element found in batb during set for: {}", Generic.objectToString(batb));
+                    logger.error("null element found in batb during set for: {}", Generic.lazyObjectToString(batb));
 //                    this.batb.add(null);
                 } else {
                     this.batb.add(new ArrayList<>(list));
@@ -149,11 +161,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.batl == null) {
             result = null;
+        } else if (this.batl instanceof PriceLadderDelta) { // immutable, shared
+            result = this.batl;
         } else {
             result = new ArrayList<>(this.batl.size());
             for (final List<Double> list : this.batl) {
                 if (list == null) {
-                    logger.error("null element found in batl during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in batl during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -166,11 +180,13 @@ public class RunnerChange
     public synchronized void setBatl(final Collection<? extends List<Double>> batl) {
         if (batl == null) {
             this.batl = null;
+        } else if (batl instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.batl = priceLadderDelta;
         } else {
             this.batl = new ArrayList<>(batl.size());
             for (final List<Double> list : batl) {
                 if (list == null) {
-                    logger.error("null element found in batl during set for: {}", Generic.objectToString(batl));
+                    logger.error("null element found in batl during set for: {}", Generic.lazyObjectToString(batl));
 //                    this.batl.add(null);
                 } else {
                     this.batl.add(new ArrayList<>(list));
@@ -183,11 +199,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.bdatb == null) {
             result = null;
+        } else if (this.bdatb instanceof PriceLadderDelta) { // immutable, shared
+            result = this.bdatb;
         } else {
             result = new ArrayList<>(this.bdatb.size());
             for (final List<Double> list : this.bdatb) {
                 if (list == null) {
-                    logger.error("null element found in bdatb during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in bdatb during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -200,11 +218,13 @@ public class RunnerChange
     public synchronized void setBdatb(final Collection<? extends List<Double>> bdatb) {
         if (bdatb == null) {
             this.bdatb = null;
+        } else if (bdatb instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.bdatb = priceLadderDelta;
         } else {
             this.bdatb = new ArrayList<>(bdatb.size());
             for (final List<Double> list : bdatb) {
                 if (list == null) {
-                    logger.error("null element found in bdatb during set for: {}", Generic.objectToString(bdatb));
+                    logger.error("null element found in bdatb during set for: {}", Generic.lazyObjectToString(bdatb));
 //                    this.bdatb.add(null);
                 } else {
                     this.bdatb.add(new ArrayList<>(list));
@@ -217,11 +237,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.bdatl == null) {
             result = null;
+        } else if (this.bdatl instanceof PriceLadderDelta) { // immutable, shared
+            result = this.bdatl;
         } else {
             result = new ArrayList<>(this.bdatl.size());
             for (final List<Double> list : this.bdatl) {
                 if (list == null) {
-                    logger.error("null element found in bdatl during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in bdatl during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -234,11 +256,13 @@ public class RunnerChange
     public synchronized void setBdatl(final Collection<? extends List<Double>> bdatl) {
         if (bdatl == null) {
             this.bdatl = null;
+        } else if (bdatl instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.bdatl = priceLadderDelta;
         } else {
             this.bdatl = new ArrayList<>(bdatl.size());
             for (final List<Double> list : bdatl) {
                 if (list == null) {
-                    logger.error("null element found in bdatl during set for: {}", Generic.objectToString(bdatl));
+                    logger.error("null element found in bdatl during set for: {}", Generic.lazyObjectToString(bdatl));
 //                    this.bdatl.add(null);
                 } else {
                     this.bdatl.add(new ArrayList<>(list));
@@ -275,11 +299,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.spb == null) {
             result = null;
+        } else if (this.spb instanceof PriceLadderDelta) { // immutable, shared
+            result = this.spb;
         } else {
             result = new ArrayList<>(this.spb.size());
             for (final List<Double> list : this.spb) {
                 if (list == null) {
-                    logger.error("null element found in spb during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in spb during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -292,11 +318,13 @@ public class RunnerChange
     public synchronized void setSpb(final Collection<? extends List<Double>> spb) {
         if (spb == null) {
             this.spb = null;
+        } else if (spb instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.spb = priceLadderDelta;
         } else {
             this.spb = new ArrayList<>(spb.size());
             for (final List<Double> list : spb) {
                 if (list == null) {
-                    logger.error("null element found in spb during set for: {}", Generic.objectToString(spb));
+                    logger.error("null element found in spb during set for: {}", Generic.lazyObjectToString(spb));
 //                    this.spb.add(null);
                 } else {
                     this.spb.add(new ArrayList<>(list));
@@ -317,11 +345,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.spl == null) {
             result = null;
+        } else if (this.spl instanceof PriceLadderDelta) { // immutable, shared
+            result = this.spl;
         } else {
             result = new ArrayList<>(this.spl.size());
             for (final List<Double> list : this.spl) {
                 if (list == null) {
-                    logger.error("null element found in spl during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in spl during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -334,11 +364,13 @@ public class RunnerChange
     public synchronized void setSpl(final Collection<? extends List<Double>> spl) {
         if (spl == null) {
             this.spl = null;
+        } else if (spl instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.spl = priceLadderDelta;
         } else {
             this.spl = new ArrayList<>(spl.size());
             for (final List<Double> list : spl) {
                 if (list == null) {
-                    logger.error("null element found in spl during set for: {}", Generic.objectToString(spl));
+                    logger.error("null element found in spl during set for: {}", Generic.lazyObjectToString(spl));
 //                    this.spl.add(null);
                 } else {
                     this.spl.add(new ArrayList<>(list));
@@ -359,11 +391,13 @@ public class RunnerChange
         @Nullable final List<List<Double>> result;
         if (this.trd == null) {
             result = null;
+        } else if (this.trd instanceof PriceLadderDelta) { // immutable, shared
+            result = this.trd;
         } else {
             result = new ArrayList<>(this.trd.size());
             for (final List<Double> list : this.trd) {
                 if (list == null) {
-                    logger.error("null element found in trd during get for: {}", Generic.objectToString(this));
+                    logger.error("null element found in trd during get for: {}", Generic.lazyObjectToString(this));
 //                    result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -376,11 +410,13 @@ public class RunnerChange
     public synchronized void setTrd(final Collection<? extends List<Double>> trd) {
         if (trd == null) {
             this.trd = null;
+        } else if (trd instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.trd = priceLadderDelta;
         } else {
             this.trd = new ArrayList<>(trd.size());
             for (final List<Double> list : trd) {
                 if (list == null) {
-                    logger.error("null element found in trd during set for: {}", Generic.objectToString(trd));
+                    logger.error("null element found in trd during set for: {}", Generic.lazyObjectToString(trd));
 //                    this.trd.add(null);
                 } else {
                     this.trd.add(new ArrayList<>(list));
@@ -12,7 +12,7 @@ import java.util.Collection;
 import java.util.List;
 
 // objects of this class are read from the stream
-class StrategyMatchChange
+public class StrategyMatchChange
         implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(StrategyMatchChange.class);
     @Serial
@@ -27,11 +27,13 @@ class StrategyMatchChange
 
         if (this.mb == null) {
             result = null;
+        } else if (this.mb instanceof PriceLadderDelta) { // immutable, shared
+            result = this.mb;
         } else {
             result = new ArrayList<>(this.mb.size());
             for (final List<Double> list : this.mb) {
                 if (list == null) {
-                    logger.error("null element found in mb during getMb for: {}", Generic.objectToString(this));
+                    logger.error("null element found in mb during getMb for: {}", Generic.lazyObjectToString(this));
                     result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -45,11 +47,13 @@ class StrategyMatchChange
     public synchronized void setMb(final Collection<? extends List<Double>> mb) {
         if (mb == null) {
             this.mb = null;
+        } else if (mb instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.mb = priceLadderDelta;
         } else {
             this.mb = new ArrayList<>(mb.size());
             for (final List<Double> list : mb) {
                 if (list == null) {
-                    logger.error("null element found in mb during setMb for: {}", Generic.objectToString(mb));
+                    logger.error("null element found in mb during setMb for: {}", Generic.lazyObjectToString(mb));
                     this.mb.add(null);
                 } else {
                     this.mb.add(new ArrayList<>(list));
@@ -63,11 +67,13 @@ class StrategyMatchChange
 
         if (this.ml == null) {
             result = null;
+        } else if (this.ml instanceof PriceLadderDelta) { // immutable, shared
+            result = this.ml;
         } else {
             result = new ArrayList<>(this.ml.size());
             for (final List<Double> list : this.ml) {
                 if (list == null) {
-                    logger.error("null element found in ml during getMl for: {}", Generic.objectToString(this));
+                    logger.error("null element found in ml during getMl for: {}", Generic.lazyObjectToString(this));
                     result.add(null);
                 } else {
                     result.add(new ArrayList<>(list));
@@ -81,11 +87,13 @@ class StrategyMatchChange
     public synchronized void setMl(final Collection<? extends List<Double>> ml) {
         if (ml == null) {
             this.ml = null;
+        } else if (ml instanceof final PriceLadderDelta priceLadderDelta) { // immutable, shared
+            this.ml = priceLadderDelta;
         } else {
             this.ml = new ArrayList<>(ml.size());
             for (final List<Double> list : ml) {
                 if (list == null) {
-                    logger.error("null element found in ml during setMl for: {}", Generic.objectToString(ml));
+                    logger.error("null element found in ml during setMl for: {}", Generic.lazyObjectToString(ml));
                     this.ml.add(null);
                 } else {
                     this.ml.add(new ArrayList<>(list));
@@ -1,7 +1,10 @@
 package info.fmro.shared.stream.objects;
 
+import info.fmro.shared.enums.FanOutOverflowPolicy;
+import info.fmro.shared.utility.ChangeJournal;
 import info.fmro.shared.utility.Generic;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,6 +12,7 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
 
 public class ListOfQueues
         implements Serializable {
@@ -16,6 +20,17 @@ public class ListOfQueues
     @Serial
     private static final long serialVersionUID = 8246293410799290222L;
     private final ArrayList<LinkedBlockingQueue<StreamObjectInterface>> list = new ArrayList<>(1);
+    @Nullable
+    private transient StreamFanOut fanOut; // created when the first consumer registers; consumers that can't keep up don't delay the sender
+    @Nullable
+    private transient ChangeJournal journal; // object modifications sent are journaled, so they can be replayed on recovery
+    @Nullable
+    private transient String journalSource;
+
+    public synchronized void setJournal(@Nullable final ChangeJournal newJournal, @Nullable final String newJournalSource) { // source identifies the object the modifications apply to
+        this.journal = newJournal;
+        this.journalSource = newJournalSource;
+    }
 
     public synchronized boolean registerQueue(@NotNull final LinkedBlockingQueue<StreamObjectInterface> queue, @NotNull final StreamObjectInterface initialObject) {
         final boolean addedQueue;
@@ -24,33 +39,74 @@ public class ListOfQueues
         addedQueue = this.list.add(queue);
         if (addedQueue) { // normal case, nothing to be done
         } else {
-            logger.error("queue not added in list during registerQueue for: {} {} {}", this.list.size(), Generic.objectToString(queue), Generic.objectToString(this.list));
+            logger.error("queue not added in list during registerQueue for: {} {} {}", this.list.size(), Generic.lazyObjectToString(queue), Generic.lazyObjectToString(this.list));
         }
         return addedQueue;
     }
 
+    @NotNull
+    public StreamFanOut.Consumer registerConsumer(@NotNull final FanOutOverflowPolicy overflowPolicy, @NotNull final StreamObjectInterface initialObject) {
+        final StreamFanOut fanOutInstance;
+        synchronized (this) {
+            if (this.fanOut == null) {
+                this.fanOut = new StreamFanOut();
+            } else { // already created
+            }
+            fanOutInstance = this.fanOut;
+        }
+        return fanOutInstance.register(overflowPolicy, initialObject::getCopy); // outside the lock, as getCopy takes the lock of the object, which can be held by a sender
+    }
+
+    @Nullable
+    public synchronized StreamFanOut getFanOut() {
+        return this.fanOut;
+    }
+
     public synchronized boolean removeQueue(final LinkedBlockingQueue<StreamObjectInterface> queue) {
         final boolean foundQueue;
         foundQueue = this.list.remove(queue);
         if (foundQueue) { // normal case, nothing to be done
         } else {
-            logger.error("queue not found in list during removeQueue for: {} {} {}", this.list.size(), Generic.objectToString(queue), Generic.objectToString(this.list));
+            logger.error("queue not found in list during removeQueue for: {} {} {}", this.list.size(), Generic.lazyObjectToString(queue), Generic.lazyObjectToString(this.list));
         }
 
         return foundQueue;
     }
 
     public synchronized void send(final StreamObjectInterface object) { // will do nothing if list is empty
+        if (this.journal != null && object instanceof SerializableObjectModification) {
+            this.journal.append(ChangeJournal.OBJECT_MODIFICATION, this.journalSource == null ? "" : this.journalSource, (SerializableObjectModification<?>) object);
+        } else { // no journal or not a modification, nothing to be done
+        }
+        if (this.fanOut == null) { // no consumers registered
+        } else {
+            this.fanOut.publish(object);
+        }
         for (final LinkedBlockingQueue<StreamObjectInterface> queue : this.list) {
             queue.add(object);
         }
     }
 
+    public synchronized void sendIfListening(@NotNull final Supplier<? extends StreamObjectInterface> objectSupplier) { // the object is only built if there's a queue, a consumer or a journal to receive it
+        if (isListening()) {
+            send(objectSupplier.get());
+        } else { // nobody listening, nothing to be done
+        }
+    }
+
+    public synchronized boolean isListening() {
+        return !this.list.isEmpty() || (this.fanOut != null && this.fanOut.size() > 0) || this.journal != null;
+    }
+
     public synchronized void clear() {
         this.list.clear();
+        if (this.fanOut == null) { // no consumers registered
+        } else {
+            this.fanOut.clear();
+        }
     }
 
-    public synchronized int size() {
-        return this.list.size();
+    public synchronized int size() { // queues and fan-out consumers
+        return this.list.size() + (this.fanOut == null ? 0 : this.fanOut.size());
     }
 }
@@ -1,10 +1,15 @@
 package info.fmro.shared.stream.objects;
 
-import org.apache.commons.lang3.SerializationUtils;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 import java.io.Serializable;
 
@@ -12,23 +17,60 @@ public class SerializableObjectModification<T extends Enum<T>>
         implements StreamObjectInterface, Serializable {
     private static final Logger logger = LoggerFactory.getLogger(SerializableObjectModification.class);
     @Serial
-    private static final long serialVersionUID = 140177397632319612L;
+    private static final long serialVersionUID = -5328772465102658310L;
     private final T command;
     @Nullable
-    private final Serializable[] objectsToModify;
+    private final byte[] encodedObjects; // objects to modify, serialized together once, when the modification is built; never modified, so copies share it, and it's sent as it is
+    @Nullable
+    private transient Serializable[] decodedObjects; // decoded on the first getArray
 
     public SerializableObjectModification(final T command, final Serializable... objectsToModify) {
         this.command = command;
         if (objectsToModify == null) {
             logger.error("null objectsToModify in SerializableObjectModification constructor for: {} {}", command == null ? null : command.getClass(), command);
-            this.objectsToModify = null;
+            this.encodedObjects = null;
         } else {
-            final int size = objectsToModify.length;
-            this.objectsToModify = new Serializable[size];
+            this.encodedObjects = encode(command, objectsToModify);
+        }
+    }
+
+    private SerializableObjectModification(final T command, @Nullable final byte[] encodedObjects) {
+        this.command = command;
+        this.encodedObjects = encodedObjects;
+    }
+
+    @Nullable
+    private static byte[] encode(final Enum<?> command, @NotNull final Serializable... objectsToModify) {
+        @Nullable byte[] result;
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(256);
+        try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeInt(objectsToModify.length);
+            for (final Serializable object : objectsToModify) {
+                objectOutputStream.writeObject(object);
+            }
+            objectOutputStream.flush();
+            result = byteArrayOutputStream.toByteArray();
+        } catch (IOException iOException) {
+            logger.error("iOException in SerializableObjectModification.encode for: {} {}", command == null ? null : command.getClass(), command, iOException);
+            result = null;
+        }
+        return result;
+    }
+
+    @Nullable
+    private Serializable[] decode(@NotNull final byte[] bytes) {
+        @Nullable Serializable[] result;
+        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            final int size = objectInputStream.readInt();
+            result = new Serializable[size];
             for (int i = 0; i < size; i++) {
-                this.objectsToModify[i] = SerializationUtils.clone(objectsToModify[i]);
+                result[i] = (Serializable) objectInputStream.readObject();
             }
+        } catch (IOException | ClassNotFoundException exception) {
+            logger.error("exception in SerializableObjectModification.decode for: {} {}", this.command == null ? null : this.command.getClass(), this.command, exception);
+            result = null;
         }
+        return result;
     }
 
     public synchronized T getCommand() {
@@ -37,19 +79,24 @@ public class SerializableObjectModification<T extends Enum<T>>
 
     @Nullable
     public synchronized Serializable[] getArray() {
+        if (this.decodedObjects == null && this.encodedObjects != null) {
+            this.decodedObjects = decode(this.encodedObjects);
+        } else { // already decoded, or nothing to decode
+        }
         @Nullable final Serializable[] returnValue;
-        if (this.objectsToModify == null) {
+        if (this.decodedObjects == null) {
             returnValue = null;
         } else {
-            final int size = this.objectsToModify.length;
+            final int size = this.decodedObjects.length;
             returnValue = new Serializable[size];
-            System.arraycopy(this.objectsToModify, 0, returnValue, 0, size);
+            System.arraycopy(this.decodedObjects, 0, returnValue, 0, size);
         }
 
         return returnValue;
     }
 
-    public synchronized SerializableObjectModification<T> getCopy() {
-        return SerializationUtils.clone(this);
+    @NotNull
+    public synchronized SerializableObjectModification<T> getCopy() { // the copy decodes its own objects
+        return new SerializableObjectModification<>(this.command, this.encodedObjects);
     }
 }
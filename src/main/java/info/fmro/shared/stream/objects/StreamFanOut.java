@@ -0,0 +1,246 @@
+package info.fmro.shared.stream.objects;
+
+import info.fmro.shared.enums.FanOutOverflowPolicy;
+import info.fmro.shared.objects.SharedStatics;
+import info.fmro.shared.utility.LogLevel;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+// delivers the published stream objects to any number of consumers through one ring buffer; publishing costs the same regardless of the number of consumers
+// publishers are serialized by the fan-out monitor, held only for the slot write; each consumer reads without locks, at its own cursor, on its own thread
+// a consumer that falls a full ring behind is handled according to its FanOutOverflowPolicy
+public class StreamFanOut {
+    private static final Logger logger = LoggerFactory.getLogger(StreamFanOut.class);
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
+    private final AtomicReferenceArray<Entry> ring;
+    private final int mask;
+    private final CopyOnWriteArrayList<Consumer> consumers = new CopyOnWriteArrayList<>();
+    private volatile long published; // sequence of the next object; the objects from published - capacity on are still in the ring
+
+    private record Entry(long sequence, @NotNull StreamObjectInterface object) {
+    }
+
+    public StreamFanOut() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StreamFanOut(final int capacity) {
+        final int ringSize = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1; // power of 2
+        this.ring = new AtomicReferenceArray<>(ringSize);
+        this.mask = ringSize - 1;
+    }
+
+    public synchronized void publish(@NotNull final StreamObjectInterface object) {
+        final long sequence = this.published;
+        waitForBlockingConsumers(sequence);
+        this.ring.set((int) sequence & this.mask, new Entry(sequence, object));
+        this.published = sequence + 1L;
+        for (final Consumer consumer : this.consumers) {
+            consumer.wakeUp();
+        }
+    }
+
+    private void waitForBlockingConsumers(final long sequence) {
+        boolean mustWait = true;
+        while (mustWait) {
+            mustWait = false;
+            for (final Consumer consumer : this.consumers) {
+                if (consumer.overflowPolicy == FanOutOverflowPolicy.BLOCK && sequence - consumer.cursor > this.mask) {
+                    mustWait = true;
+                    break;
+                } else { // this consumer has room
+                }
+            }
+            if (mustWait) {
+                SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.WARN, "StreamFanOut publisher waiting for a blocking consumer");
+                LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+            } else { // no wait needed
+            }
+        }
+    }
+
+    @NotNull
+    public Consumer register(@NotNull final FanOutOverflowPolicy overflowPolicy, @Nullable final Supplier<? extends StreamObjectInterface> snapshotSupplier) {
+        // the snapshot, if there's a supplier, is the first object polled; it's taken after the cursor is set, so an object published meanwhile can be received after the snapshot that already contains it, which is harmless for the modifications, as they set values
+        final Consumer consumer = new Consumer(overflowPolicy, snapshotSupplier, this.published);
+        if (snapshotSupplier == null) { // no initial snapshot
+        } else {
+            consumer.pendingSnapshot = snapshotSupplier.get();
+        }
+        this.consumers.add(consumer);
+        return consumer;
+    }
+
+    public void clear() { // closes all the consumers
+        for (final Consumer consumer : this.consumers) {
+            consumer.close();
+        }
+    }
+
+    public int size() {
+        return this.consumers.size();
+    }
+
+    @Contract(pure = true)
+    public long getPublished() {
+        return this.published;
+    }
+
+    @Contract(pure = true)
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+
+    public final class Consumer {
+        private final FanOutOverflowPolicy overflowPolicy;
+        @Nullable
+        private final Supplier<? extends StreamObjectInterface> snapshotSupplier;
+        private final AtomicLong nDropped = new AtomicLong(), nResyncs = new AtomicLong();
+        @Nullable
+        private volatile StreamObjectInterface pendingSnapshot;
+        @Nullable
+        private volatile Thread waiter;
+        private volatile long cursor, maxLag;
+        private volatile boolean closed;
+
+        private Consumer(@NotNull final FanOutOverflowPolicy overflowPolicy, @Nullable final Supplier<? extends StreamObjectInterface> snapshotSupplier, final long cursor) {
+            this.overflowPolicy = overflowPolicy;
+            this.snapshotSupplier = snapshotSupplier;
+            this.cursor = cursor;
+        }
+
+        @Nullable
+        public StreamObjectInterface poll() { // null if there's nothing new; to be called from a single thread
+            @Nullable StreamObjectInterface result = null;
+            final StreamObjectInterface snapshot = this.pendingSnapshot;
+            if (this.closed) { // nothing to return
+            } else if (snapshot != null) {
+                this.pendingSnapshot = null;
+                result = snapshot;
+            } else {
+                boolean mustRead = true;
+                while (mustRead) {
+                    mustRead = false;
+                    final long next = this.cursor;
+                    final long lag = StreamFanOut.this.published - next;
+                    if (lag > 0L) {
+                        if (lag > this.maxLag) {
+                            this.maxLag = lag;
+                        } else { // not a new maximum
+                        }
+                        final Entry entry = StreamFanOut.this.ring.get((int) next & StreamFanOut.this.mask);
+                        if (entry != null && entry.sequence() == next) {
+                            this.cursor = next + 1L;
+                            result = entry.object();
+                        } else { // overwritten
+                            result = onOverrun(next);
+                            mustRead = result == null;
+                        }
+                    } else { // nothing new
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Nullable
+        public StreamObjectInterface poll(final long timeout, @NotNull final TimeUnit timeUnit) {
+            final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+            StreamObjectInterface result = poll();
+            long remaining = deadline - System.nanoTime();
+            while (result == null && remaining > 0L && !this.closed) {
+                this.waiter = Thread.currentThread();
+                if (StreamFanOut.this.published > this.cursor || this.pendingSnapshot != null) { // published before the waiter was visible
+                } else {
+                    LockSupport.parkNanos(this, remaining);
+                }
+                this.waiter = null;
+                result = poll();
+                remaining = deadline - System.nanoTime();
+            }
+            return result;
+        }
+
+        public int drainTo(@NotNull final Collection<? super StreamObjectInterface> collection, final int maxElements) { // for sending several objects in one StreamObjectBatch
+            int nDrained = 0;
+            StreamObjectInterface object = nDrained < maxElements ? poll() : null;
+            while (object != null) {
+                collection.add(object);
+                nDrained++;
+                object = nDrained < maxElements ? poll() : null;
+            }
+            return nDrained;
+        }
+
+        @Nullable
+        private StreamObjectInterface onOverrun(final long next) { // null means the cursor was moved and the read must be retried
+            @Nullable final StreamObjectInterface result;
+            if (this.overflowPolicy == FanOutOverflowPolicy.RESYNC && this.snapshotSupplier != null) {
+                this.cursor = StreamFanOut.this.published; // set before the snapshot, same as in register
+                this.nResyncs.incrementAndGet();
+                result = this.snapshotSupplier.get();
+            } else {
+                if (this.overflowPolicy == FanOutOverflowPolicy.DROP_OLDEST) { // normal for this policy
+                } else {
+                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "StreamFanOut overrun for {} consumer, objects dropped", this.overflowPolicy);
+                }
+                final long oldest = StreamFanOut.this.published - StreamFanOut.this.mask; // one slot of margin for the publisher
+                this.nDropped.addAndGet(Math.max(oldest - next, 1L));
+                this.cursor = Math.max(oldest, next + 1L);
+                result = null;
+            }
+            return result;
+        }
+
+        private void wakeUp() {
+            final Thread thread = this.waiter;
+            if (thread == null) { // not waiting
+            } else {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        public void close() {
+            this.closed = true;
+            StreamFanOut.this.consumers.remove(this);
+            wakeUp();
+        }
+
+        public boolean isClosed() {
+            return this.closed;
+        }
+
+        @Contract(pure = true)
+        public FanOutOverflowPolicy getOverflowPolicy() {
+            return this.overflowPolicy;
+        }
+
+        public long getLag() {
+            return Math.max(StreamFanOut.this.published - this.cursor, 0L);
+        }
+
+        public long getMaxLag() {
+            return this.maxLag;
+        }
+
+        public long getNDropped() {
+            return this.nDropped.get();
+        }
+
+        public long getNResyncs() {
+            return this.nResyncs.get();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package info.fmro.shared.stream.objects;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// several stream objects sent together, in order; the modifications inside are already in encoded form, so serializing the batch only copies their bytes
+public class StreamObjectBatch
+        implements StreamObjectInterface, Serializable {
+    @Serial
+    private static final long serialVersionUID = 2893140776250379174L;
+    private final ArrayList<StreamObjectInterface> objects;
+
+    public StreamObjectBatch(@NotNull final Collection<? extends StreamObjectInterface> objects) {
+        this.objects = new ArrayList<>(objects);
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public synchronized List<StreamObjectInterface> getObjects() {
+        return Collections.unmodifiableList(this.objects);
+    }
+
+    public synchronized int size() {
+        return this.objects.size();
+    }
+
+    @NotNull
+    public synchronized StreamObjectBatch getCopy() {
+        final List<StreamObjectInterface> copies = new ArrayList<>(this.objects.size());
+        for (final StreamObjectInterface object : this.objects) {
+            copies.add(object.getCopy());
+        }
+        return new StreamObjectBatch(copies);
+    }
+}
@@ -5,5 +5,5 @@ import java.io.Serializable;
 @SuppressWarnings("InterfaceMayBeAnnotatedFunctional")
 public interface StreamObjectInterface
         extends Serializable {
-    StreamObjectInterface getCopy();
+    StreamObjectInterface getCopy(); // deep copy, same state as a serialization round trip; the caches build it structurally, field by field, which is much faster than serializing them
 }
@@ -60,7 +60,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
         final int nQueues = this.listOfQueues.size();
         if (nQueues == 0) { // normal case, nothing to be done
         } else {
-            logger.error("existing queues during StreamSynchronizedMap.copyFrom: {} {}", nQueues, Generic.objectToString(this));
+            logger.error("existing queues during StreamSynchronizedMap.copyFrom: {} {}", nQueues, Generic.lazyObjectToString(this));
             this.listOfQueues.send(this.getCopy());
         }
         return readSuccessful;
@@ -95,7 +95,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
         final HashMap<K, V> result = super.clear();
         if (result.isEmpty()) { // no modification made, I won't send anything
         } else {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.clear, this.clazz));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.clear, this.clazz));
         }
         return result;
     }
@@ -106,7 +106,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
         final V result = super.put(key, value, intentionalPutInsteadOfPutIfAbsent);
         if (Objects.equals(value, result)) { // no modification made, I won't send anything
         } else {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.put, this.clazz, key, value, intentionalPutInsteadOfPutIfAbsent));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.put, this.clazz, key, value, intentionalPutInsteadOfPutIfAbsent));
         }
         return result;
     }
@@ -116,7 +116,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
         final V result = super.put(key, value);
         if (Objects.equals(value, result)) { // no modification made, I won't send anything
         } else {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.put, this.clazz, key, value));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.put, this.clazz, key, value));
         }
         return result;
     }
@@ -126,7 +126,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
         final V result = super.putIfAbsent(key, value);
         if (Objects.equals(value, result)) { // no modification made, I won't send anything
         } else {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.putIfAbsent, this.clazz, key, value));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.putIfAbsent, this.clazz, key, value));
         }
         return result;
     }
@@ -134,13 +134,13 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     @Override
     public synchronized void putAll(final Map<? extends K, ? extends V> m) {
         super.putAll(m);
-        this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.putAll, this.clazz, new HashMap<>(m)));
+        this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.putAll, this.clazz, new HashMap<>(m)));
     }
 
     @Override
     public synchronized V remove(final K key) {
         if (containsKey(key)) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.remove, this.clazz, key));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.remove, this.clazz, key));
         } else { // no key removed, nothing to be done
         }
         return super.remove(key);
@@ -150,7 +150,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean remove(final K key, final V value) {
         final boolean result = super.remove(key, value);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.remove, this.clazz, key, value));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.remove, this.clazz, key, value));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -160,7 +160,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean removeEntry(final Map.Entry<K, V> entry) {
         final boolean result = super.removeEntry(entry);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeEntry, this.clazz, new AbstractMap.SimpleEntry<>(entry)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeEntry, this.clazz, new AbstractMap.SimpleEntry<>(entry)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -170,7 +170,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean removeAllEntries(final Collection<?> c) {
         final boolean result = super.removeAllEntries(c);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeAllEntries, this.clazz, new HashSet<>(c)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeAllEntries, this.clazz, new HashSet<>(c)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -180,7 +180,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean retainAllEntries(final Collection<?> c) {
         final boolean result = super.retainAllEntries(c);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.retainAllEntries, this.clazz, new HashSet<>(c)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.retainAllEntries, this.clazz, new HashSet<>(c)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -190,7 +190,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean removeAllKeys(final Collection<?> c) {
         final boolean result = super.removeAllKeys(c);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeAllKeys, this.clazz, new HashSet<>(c)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeAllKeys, this.clazz, new HashSet<>(c)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -200,7 +200,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean retainAllKeys(final Collection<?> c) {
         final boolean result = super.retainAllKeys(c);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.retainAllKeys, this.clazz, new HashSet<>(c)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.retainAllKeys, this.clazz, new HashSet<>(c)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -210,7 +210,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean removeValue(final V value) {
         final boolean result = super.removeValue(value);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeValue, this.clazz, value));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeValue, this.clazz, value));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -220,7 +220,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean removeValueAll(final V value) {
         final boolean result = super.removeValueAll(value);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeValueAll, this.clazz, value));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeValueAll, this.clazz, value));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -230,7 +230,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean removeAllValues(final Collection<?> c) {
         final boolean result = super.removeAllValues(c);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeAllValues, this.clazz, new HashSet<>(c)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.removeAllValues, this.clazz, new HashSet<>(c)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -240,7 +240,7 @@ public class StreamSynchronizedMap<K extends Serializable, V extends Serializabl
     public synchronized boolean retainAllValues(final Collection<?> c) {
         final boolean result = super.retainAllValues(c);
         if (result) {
-            this.listOfQueues.send(new SerializableObjectModification<>(SynchronizedMapModificationCommand.retainAllValues, this.clazz, new HashSet<>(c)));
+            this.listOfQueues.sendIfListening(() -> new SerializableObjectModification<>(SynchronizedMapModificationCommand.retainAllValues, this.clazz, new HashSet<>(c)));
         } else { // no modification made, I won't send anything
         }
         return result;
@@ -2,137 +2,181 @@ package info.fmro.shared.stream.protocol;
 
 import info.fmro.shared.stream.enums.ChangeType;
 import info.fmro.shared.stream.enums.SegmentType;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
-public class ChangeMessage<T>
+// immutable once built by ChangeMessageFactory, so it's read without locking; the items are a read only view of the list handed over on creation, which is never copied
+// timestamps are primitive epoch millis, 0L when absent; the arrival nanoTime is only meaningful inside the same jvm
+// the old Date accessors are kept, deprecated, next to the millis ones; the deprecated setArrivalTime is the only mutator, so arrivalTime is volatile instead of final
+public final class ChangeMessage<T>
         implements Serializable {
     @Serial
-    private static final long serialVersionUID = -5486319357290474083L;
+    private static final long serialVersionUID = 4620186127349570168L;
+    private volatile long arrivalTime;
+    private final long arrivalNanoTime;
+    private final long publishTime;
+    private final int clientId;
     @Nullable
-    private Date arrivalTime;
+    private final Integer id;
     @Nullable
-    private Date publishTime;
-    private final int clientId;
-    private Integer id;
-    private String clk;
-    private String initialClk;
-    private Long heartbeatMs;
-    private Long conflateMs;
+    private final String clk;
     @Nullable
-    private List<T> items;
-    private SegmentType segmentType;
-    private ChangeType changeType;
-
-    ChangeMessage(final int clientId) {
+    private final String initialClk;
+    @Nullable
+    private final Long heartbeatMs;
+    @Nullable
+    private final Long conflateMs;
+    @Nullable
+    private final List<T> items;
+    @NotNull
+    private final SegmentType segmentType;
+    @NotNull
+    private final ChangeType changeType;
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    ChangeMessage(final int clientId, @Nullable final Integer id, final long publishTime, @Nullable final String clk, @Nullable final String initialClk, @Nullable final Long heartbeatMs, @Nullable final Long conflateMs,
+                  @Nullable final List<? extends T> items, @Nullable final SegmentType segmentType, @Nullable final ChangeType changeType) { // the items list is taken over, not copied
+        this(System.currentTimeMillis(), System.nanoTime(), clientId, id, publishTime, clk, initialClk, heartbeatMs, conflateMs, items == null ? null : Collections.unmodifiableList(items), segmentType, changeType);
+    }
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    private ChangeMessage(final long arrivalTime, final long arrivalNanoTime, final int clientId, @Nullable final Integer id, final long publishTime, @Nullable final String clk, @Nullable final String initialClk, @Nullable final Long heartbeatMs,
+                          @Nullable final Long conflateMs, @Nullable final List<T> items, @Nullable final SegmentType segmentType, @Nullable final ChangeType changeType) {
+        this.arrivalTime = arrivalTime;
+        this.arrivalNanoTime = arrivalNanoTime;
         this.clientId = clientId;
-        this.arrivalTime = new Date(System.currentTimeMillis());
+        this.id = id;
+        this.publishTime = publishTime;
+        this.clk = clk;
+        this.initialClk = initialClk;
+        this.heartbeatMs = heartbeatMs;
+        this.conflateMs = conflateMs;
+        this.items = items;
+        this.segmentType = segmentType == null ? SegmentType.NONE : segmentType;
+        this.changeType = changeType == null ? ChangeType.UPDATE : changeType;
+    }
+
+    @NotNull
+    @Contract("_ -> new")
+    public ChangeMessage<T> withArrivalTime(final long newArrivalTime) { // for messages read before being wrapped, like the ones replayed from a journal
+        return new ChangeMessage<>(newArrivalTime, this.arrivalNanoTime, this.clientId, this.id, this.publishTime, this.clk, this.initialClk, this.heartbeatMs, this.conflateMs, this.items, this.segmentType, this.changeType);
     }
 
-    public synchronized int getClientId() {
+    @NotNull
+    @Contract("_ -> new")
+    ChangeMessage<T> withMergedItems(@Nullable final List<? extends T> mergedItems) { // last segment of a segmented message, carrying the items of all segments; the list is taken over, not copied
+        return new ChangeMessage<>(this.arrivalTime, this.arrivalNanoTime, this.clientId, this.id, this.publishTime, this.clk, this.initialClk, this.heartbeatMs, this.conflateMs,
+                                   mergedItems == null ? null : Collections.unmodifiableList(mergedItems), SegmentType.NONE, this.changeType);
+    }
+
+    @Contract(pure = true)
+    public int getClientId() {
         return this.clientId;
     }
 
     // Start of new subscription (not resubscription)
-    public synchronized boolean isStartOfNewSubscription() {
+    @Contract(pure = true)
+    public boolean isStartOfNewSubscription() {
         return this.changeType == ChangeType.SUB_IMAGE && (this.segmentType == SegmentType.NONE || this.segmentType == SegmentType.SEG_START);
     }
 
     // Start of subscription / resubscription
-    synchronized boolean isStartOfRecovery() {
+    @Contract(pure = true)
+    boolean isStartOfRecovery() {
         return (this.changeType == ChangeType.SUB_IMAGE || this.changeType == ChangeType.RESUB_DELTA) && (this.segmentType == SegmentType.NONE || this.segmentType == SegmentType.SEG_START);
     }
 
     // End of subscription / resubscription
-    synchronized boolean isEndOfRecovery() {
+    @Contract(pure = true)
+    boolean isEndOfRecovery() {
         return (this.changeType == ChangeType.SUB_IMAGE || this.changeType == ChangeType.RESUB_DELTA) && (this.segmentType == SegmentType.NONE || this.segmentType == SegmentType.SEG_END);
     }
 
-    synchronized ChangeType getChangeType() {
+    @NotNull
+    @Contract(pure = true)
+    ChangeType getChangeType() {
         return this.changeType;
     }
 
-    synchronized void setChangeType(@Nullable final ChangeType changeType) {
-        this.changeType = changeType == null ? ChangeType.UPDATE : changeType;
-    }
-
     @Nullable
-    synchronized Date getArrivalTime() {
-        return this.arrivalTime == null ? null : (Date) this.arrivalTime.clone();
+    @Deprecated
+    Date getArrivalTime() { // use getArrivalTimeMillis
+        final long time = this.arrivalTime;
+        return time == 0L ? null : new Date(time);
     }
 
-    public synchronized void setArrivalTime(final Date arrivalTime) {
-        this.arrivalTime = arrivalTime == null ? null : (Date) arrivalTime.clone();
+    @Deprecated
+    public void setArrivalTime(@Nullable final Date arrivalTime) { // use withArrivalTime
+        this.arrivalTime = arrivalTime == null ? 0L : arrivalTime.getTime();
     }
 
-    @Nullable
-    synchronized Date getPublishTime() {
-        return this.publishTime == null ? null : (Date) this.publishTime.clone();
+    @Contract(pure = true)
+    public long getArrivalTimeMillis() {
+        return this.arrivalTime;
     }
 
-    synchronized void setPublishTime(final Date publishTime) {
-        this.publishTime = publishTime == null ? null : (Date) publishTime.clone();
+    @Contract(pure = true)
+    public long getArrivalNanoTime() {
+        return this.arrivalNanoTime;
     }
 
-    public synchronized Integer getId() {
-        return this.id;
+    @Nullable
+    @Deprecated
+    Date getPublishTime() { // use getPublishTimeMillis
+        return this.publishTime == 0L ? null : new Date(this.publishTime);
     }
 
-    public synchronized void setId(final Integer id) {
-        this.id = id;
+    @Contract(pure = true)
+    public long getPublishTimeMillis() {
+        return this.publishTime;
     }
 
-    synchronized String getClk() {
-        return this.clk;
+    @Nullable
+    @Contract(pure = true)
+    public Integer getId() {
+        return this.id;
     }
 
-    synchronized void setClk(final String clk) {
-        this.clk = clk;
+    @Nullable
+    @Contract(pure = true)
+    String getClk() {
+        return this.clk;
     }
 
-    synchronized String getInitialClk() {
+    @Nullable
+    @Contract(pure = true)
+    String getInitialClk() {
         return this.initialClk;
     }
 
-    synchronized void setInitialClk(final String initialClk) {
-        this.initialClk = initialClk;
-    }
-
-    synchronized Long getHeartbeatMs() {
+    @Nullable
+    @Contract(pure = true)
+    Long getHeartbeatMs() {
         return this.heartbeatMs;
     }
 
-    synchronized void setHeartbeatMs(final Long heartbeatMs) {
-        this.heartbeatMs = heartbeatMs;
-    }
-
-    synchronized Long getConflateMs() {
+    @Nullable
+    @Contract(pure = true)
+    Long getConflateMs() {
         return this.conflateMs;
     }
 
-    synchronized void setConflateMs(final Long conflateMs) {
-        this.conflateMs = conflateMs;
-    }
-
     @Nullable
-    public synchronized List<T> getItems() {
-        return this.items == null ? null : new ArrayList<>(this.items);
+    @Contract(pure = true)
+    public List<T> getItems() { // read only view
+        return this.items;
     }
 
-    synchronized void setItems(final List<? extends T> items) {
-        this.items = items == null ? null : new ArrayList<>(items);
-    }
-
-    synchronized SegmentType getSegmentType() {
+    @NotNull
+    @Contract(pure = true)
+    SegmentType getSegmentType() {
         return this.segmentType;
     }
-
-    synchronized void setSegmentType(@Nullable final SegmentType segmentType) {
-        this.segmentType = segmentType == null ? SegmentType.NONE : segmentType;
-    }
 }
@@ -0,0 +1,409 @@
+package info.fmro.shared.stream.protocol;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.MarketChangeMessage;
+import info.fmro.shared.stream.definitions.MarketDefinition;
+import info.fmro.shared.stream.definitions.Order;
+import info.fmro.shared.stream.definitions.OrderChangeMessage;
+import info.fmro.shared.stream.definitions.OrderMarketChange;
+import info.fmro.shared.stream.definitions.OrderRunnerChange;
+import info.fmro.shared.stream.definitions.PriceLadderDelta;
+import info.fmro.shared.stream.definitions.ResponseMessage;
+import info.fmro.shared.stream.definitions.RunnerChange;
+import info.fmro.shared.stream.definitions.StrategyMatchChange;
+import info.fmro.shared.stream.enums.ChangeType;
+import info.fmro.shared.stream.enums.ResponseOperationType;
+import info.fmro.shared.stream.enums.SegmentType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// decodes the mcm and ocm messages with jackson's streaming parser; the ladders are written straight into the primitive arrays of PriceLadderDelta, instead of a List<List<Double>> with 2 or 3 boxed Doubles per level
+// null is returned for the other operations, which are rare and are left to the databind mapping from MixInResponseMessage, and on errors
+// the tuple buffer is reused between messages, so each stream client should have its own decoder
+public class ChangeMessageDecoder {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeMessageDecoder.class);
+    private static final TypeReference<List<Order>> ORDER_LIST_TYPE = new TypeReference<>() {
+    };
+    private final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false); // only used for the objects sent rarely: market definitions and unmatched orders
+    private double[] buffer = new double[64]; // values of the ladder being read
+
+    @Nullable
+    public synchronized ResponseMessage decode(@NotNull final String json) {
+        @Nullable ResponseMessage result;
+        try (final JsonParser parser = this.objectMapper.getFactory().createParser(json)) {
+            result = readMessage(parser);
+        } catch (IOException ioException) {
+            logger.error("IOException in ChangeMessageDecoder for: {}", json, ioException);
+            result = null;
+        }
+        return result;
+    }
+
+    @Nullable
+    private ResponseMessage readMessage(@NotNull final JsonParser parser)
+            throws IOException {
+        @Nullable final ResponseMessage result;
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            @Nullable ResponseOperationType op = null;
+            @Nullable String clk = null, initialClk = null;
+            @Nullable Integer id = null, status = null;
+            @Nullable Long conflateMs = null, heartbeatMs = null, pt = null;
+            @Nullable ChangeType ct = null;
+            @Nullable SegmentType segmentType = null;
+            @Nullable List<MarketChange> mc = null;
+            @Nullable List<OrderMarketChange> oc = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "op" -> op = readEnum(parser, ResponseOperationType.class);
+                    case "id" -> id = parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                    case "clk" -> clk = parser.getValueAsString();
+                    case "initialClk" -> initialClk = parser.getValueAsString();
+                    case "conflateMs" -> conflateMs = readLong(parser);
+                    case "heartbeatMs" -> heartbeatMs = readLong(parser);
+                    case "pt" -> pt = readLong(parser);
+                    case "ct" -> ct = readEnum(parser, ChangeType.class);
+                    case "segmentType" -> segmentType = readEnum(parser, SegmentType.class);
+                    case "status" -> status = parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                    case "mc" -> mc = readMarketChanges(parser);
+                    case "oc" -> oc = readOrderMarketChanges(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            @Nullable final Date publishTime = pt == null ? null : new Date(pt);
+            if (op == ResponseOperationType.mcm) {
+                final MarketChangeMessage marketChangeMessage = new MarketChangeMessage();
+                marketChangeMessage.setOp(op);
+                marketChangeMessage.setId(id);
+                marketChangeMessage.setClk(clk);
+                marketChangeMessage.setInitialClk(initialClk);
+                marketChangeMessage.setConflateMs(conflateMs);
+                marketChangeMessage.setHeartbeatMs(heartbeatMs);
+                marketChangeMessage.setPt(publishTime);
+                marketChangeMessage.setCt(ct);
+                marketChangeMessage.setSegmentType(segmentType);
+                marketChangeMessage.setStatus(status);
+                marketChangeMessage.setMc(mc);
+                result = marketChangeMessage;
+            } else if (op == ResponseOperationType.ocm) {
+                final OrderChangeMessage orderChangeMessage = new OrderChangeMessage();
+                orderChangeMessage.setOp(op);
+                orderChangeMessage.setId(id);
+                orderChangeMessage.setClk(clk);
+                orderChangeMessage.setInitialClk(initialClk);
+                orderChangeMessage.setConflateMs(conflateMs);
+                orderChangeMessage.setHeartbeatMs(heartbeatMs);
+                orderChangeMessage.setPt(publishTime);
+                orderChangeMessage.setCt(ct);
+                orderChangeMessage.setSegmentType(segmentType);
+                orderChangeMessage.setStatus(status);
+                orderChangeMessage.setOc(oc);
+                result = orderChangeMessage;
+            } else { // connection and status messages are left to the databind mapping
+                result = null;
+            }
+        } else {
+            logger.error("message not a json object in ChangeMessageDecoder: {}", parser.currentToken());
+            result = null;
+        }
+        return result;
+    }
+
+    @Nullable
+    private List<MarketChange> readMarketChanges(@NotNull final JsonParser parser)
+            throws IOException {
+        @Nullable final List<MarketChange> result;
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            result = new ArrayList<>(4);
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    result.add(readMarketChange(parser));
+                } else {
+                    logger.error("wrong token {} for marketChange in ChangeMessageDecoder", token);
+                    parser.skipChildren();
+                }
+            }
+        } else { // null
+            parser.skipChildren();
+            result = null;
+        }
+        return result;
+    }
+
+    @NotNull
+    private MarketChange readMarketChange(@NotNull final JsonParser parser)
+            throws IOException {
+        final MarketChange marketChange = new MarketChange();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "id" -> marketChange.setId(parser.getValueAsString());
+                case "img" -> marketChange.setImg(readBoolean(parser));
+                case "con" -> marketChange.setCon(readBoolean(parser));
+                case "tv" -> marketChange.setTv(readDouble(parser));
+                case "marketDefinition" -> marketChange.setMarketDefinition(this.objectMapper.readValue(parser, MarketDefinition.class));
+                case "rc" -> marketChange.setRc(readRunnerChanges(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return marketChange;
+    }
+
+    @Nullable
+    private List<RunnerChange> readRunnerChanges(@NotNull final JsonParser parser)
+            throws IOException {
+        @Nullable final List<RunnerChange> result;
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            result = new ArrayList<>(4);
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    result.add(readRunnerChange(parser));
+                } else {
+                    logger.error("wrong token {} for runnerChange in ChangeMessageDecoder", token);
+                    parser.skipChildren();
+                }
+            }
+        } else { // null
+            parser.skipChildren();
+            result = null;
+        }
+        return result;
+    }
+
+    @NotNull
+    private RunnerChange readRunnerChange(@NotNull final JsonParser parser)
+            throws IOException {
+        final RunnerChange runnerChange = new RunnerChange();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "id" -> runnerChange.setId(readLong(parser));
+                case "hc" -> runnerChange.setHc(readDouble(parser));
+                case "ltp" -> runnerChange.setLtp(readDouble(parser));
+                case "spn" -> runnerChange.setSpn(readDouble(parser));
+                case "spf" -> runnerChange.setSpf(readDouble(parser));
+                case "tv" -> runnerChange.setTv(readDouble(parser));
+                case "atb" -> runnerChange.setAtb(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "atl" -> runnerChange.setAtl(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "spb" -> runnerChange.setSpb(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "spl" -> runnerChange.setSpl(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "trd" -> runnerChange.setTrd(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "batb" -> runnerChange.setBatb(readLadder(parser, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH));
+                case "batl" -> runnerChange.setBatl(readLadder(parser, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH));
+                case "bdatb" -> runnerChange.setBdatb(readLadder(parser, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH));
+                case "bdatl" -> runnerChange.setBdatl(readLadder(parser, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH));
+                default -> parser.skipChildren();
+            }
+        }
+        return runnerChange;
+    }
+
+    @Nullable
+    private List<OrderMarketChange> readOrderMarketChanges(@NotNull final JsonParser parser)
+            throws IOException {
+        @Nullable final List<OrderMarketChange> result;
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            result = new ArrayList<>(4);
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    result.add(readOrderMarketChange(parser));
+                } else {
+                    logger.error("wrong token {} for orderMarketChange in ChangeMessageDecoder", token);
+                    parser.skipChildren();
+                }
+            }
+        } else { // null
+            parser.skipChildren();
+            result = null;
+        }
+        return result;
+    }
+
+    @NotNull
+    private OrderMarketChange readOrderMarketChange(@NotNull final JsonParser parser)
+            throws IOException {
+        final OrderMarketChange orderMarketChange = new OrderMarketChange();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "id" -> orderMarketChange.setId(parser.getValueAsString());
+                case "accountId" -> orderMarketChange.setAccountId(readLong(parser));
+                case "closed" -> orderMarketChange.setClosed(readBoolean(parser));
+                case "fullImage" -> orderMarketChange.setFullImage(readBoolean(parser));
+                case "orc" -> orderMarketChange.setOrc(readOrderRunnerChanges(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        return orderMarketChange;
+    }
+
+    @Nullable
+    private List<OrderRunnerChange> readOrderRunnerChanges(@NotNull final JsonParser parser)
+            throws IOException {
+        @Nullable final List<OrderRunnerChange> result;
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            result = new ArrayList<>(4);
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    result.add(readOrderRunnerChange(parser));
+                } else {
+                    logger.error("wrong token {} for orderRunnerChange in ChangeMessageDecoder", token);
+                    parser.skipChildren();
+                }
+            }
+        } else { // null
+            parser.skipChildren();
+            result = null;
+        }
+        return result;
+    }
+
+    @NotNull
+    private OrderRunnerChange readOrderRunnerChange(@NotNull final JsonParser parser)
+            throws IOException {
+        final OrderRunnerChange orderRunnerChange = new OrderRunnerChange();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.currentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "id" -> orderRunnerChange.setId(readLong(parser));
+                case "hc" -> orderRunnerChange.setHc(readDouble(parser));
+                case "fullImage" -> orderRunnerChange.setFullImage(readBoolean(parser));
+                case "mb" -> orderRunnerChange.setMb(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "ml" -> orderRunnerChange.setMl(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                case "smc" -> orderRunnerChange.setSmc(readStrategyMatchChanges(parser));
+                case "uo" -> orderRunnerChange.setUo(this.objectMapper.readValue(parser, ORDER_LIST_TYPE));
+                default -> parser.skipChildren();
+            }
+        }
+        return orderRunnerChange;
+    }
+
+    @Nullable
+    private Map<String, StrategyMatchChange> readStrategyMatchChanges(@NotNull final JsonParser parser)
+            throws IOException {
+        @Nullable final Map<String, StrategyMatchChange> result;
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            result = new HashMap<>(2);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String strategyReference = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    final StrategyMatchChange strategyMatchChange = new StrategyMatchChange();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final String fieldName = parser.currentName();
+                        parser.nextToken();
+                        switch (fieldName) {
+                            case "mb" -> strategyMatchChange.setMb(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                            case "ml" -> strategyMatchChange.setMl(readLadder(parser, PriceLadderDelta.PRICE_SIZE_WIDTH));
+                            default -> parser.skipChildren();
+                        }
+                    }
+                    result.put(strategyReference, strategyMatchChange);
+                } else {
+                    logger.error("wrong token {} for strategyMatchChange {} in ChangeMessageDecoder", parser.currentToken(), strategyReference);
+                    parser.skipChildren();
+                }
+            }
+        } else { // null
+            parser.skipChildren();
+            result = null;
+        }
+        return result;
+    }
+
+    @Nullable
+    private PriceLadderDelta readLadder(@NotNull final JsonParser parser, final int width)
+            throws IOException {
+        @Nullable final PriceLadderDelta result;
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            int nValues = 0;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_ARRAY) {
+                    if (nValues + width > this.buffer.length) {
+                        this.buffer = Arrays.copyOf(this.buffer, this.buffer.length << 1);
+                    } else { // there's room for the tuple
+                    }
+                    int nTupleValues = 0;
+                    boolean isValid = true;
+                    for (JsonToken valueToken = parser.nextToken(); valueToken != JsonToken.END_ARRAY; valueToken = parser.nextToken()) {
+                        if ((valueToken == JsonToken.VALUE_NUMBER_INT || valueToken == JsonToken.VALUE_NUMBER_FLOAT) && nTupleValues < width) {
+                            this.buffer[nValues + nTupleValues] = parser.getDoubleValue();
+                        } else {
+                            isValid = false;
+                            parser.skipChildren();
+                        }
+                        nTupleValues++;
+                    }
+                    if (isValid && nTupleValues == width) {
+                        nValues += width;
+                    } else {
+                        logger.error("wrong tuple of {} values for width {} in ChangeMessageDecoder", nTupleValues, width);
+                    }
+                } else {
+                    logger.error("wrong token {} for ladder tuple in ChangeMessageDecoder", token);
+                    parser.skipChildren();
+                }
+            }
+            result = new PriceLadderDelta(this.buffer, nValues, width);
+        } else { // null
+            parser.skipChildren();
+            result = null;
+        }
+        return result;
+    }
+
+    @Nullable
+    private static Long readLong(@NotNull final JsonParser parser)
+            throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue();
+    }
+
+    @Nullable
+    private static Double readDouble(@NotNull final JsonParser parser)
+            throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getDoubleValue();
+    }
+
+    @Nullable
+    private static Boolean readBoolean(@NotNull final JsonParser parser)
+            throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getBooleanValue();
+    }
+
+    @Nullable
+    private static <T extends Enum<T>> T readEnum(@NotNull final JsonParser parser, @NotNull final Class<T> enumClass)
+            throws IOException {
+        final String text = parser.getValueAsString();
+        @Nullable T result;
+        if (text == null) {
+            result = null;
+        } else {
+            try {
+                result = Enum.valueOf(enumClass, text);
+            } catch (IllegalArgumentException illegalArgumentException) {
+                logger.error("unknown {} value in ChangeMessageDecoder: {}", enumClass.getSimpleName(), text);
+                result = null;
+            }
+        }
+        return result;
+    }
+}
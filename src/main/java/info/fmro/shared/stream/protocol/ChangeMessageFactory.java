@@ -7,6 +7,8 @@ import info.fmro.shared.stream.definitions.OrderMarketChange;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Date;
+
 // Adapts market or order changes to a common change message
 @SuppressWarnings("UtilityClass")
 public final class ChangeMessageFactory {
@@ -16,35 +18,15 @@ public final class ChangeMessageFactory {
 
     @NotNull
     public static ChangeMessage<MarketChange> ToChangeMessage(final int clientId, @NotNull final MarketChangeMessage message) {
-        final ChangeMessage<MarketChange> change = new ChangeMessage<>(clientId);
-        change.setId(message.getId());
-        change.setPublishTime(message.getPt());
-        change.setClk(message.getClk());
-        change.setInitialClk(message.getInitialClk());
-        change.setConflateMs(message.getConflateMs());
-        change.setHeartbeatMs(message.getHeartbeatMs());
-        change.setItems(message.getMc());
-
-        change.setSegmentType(message.getSegmentType());
-        change.setChangeType(message.getCt());
-
-        return change;
+        final Date publishTime = message.getPt();
+        return new ChangeMessage<>(clientId, message.getId(), publishTime == null ? 0L : publishTime.getTime(), message.getClk(), message.getInitialClk(), message.getHeartbeatMs(), message.getConflateMs(), message.getMc(), message.getSegmentType(),
+                                   message.getCt()); // the items list is already a copy, owned by the new message
     }
 
     @NotNull
     public static ChangeMessage<OrderMarketChange> ToChangeMessage(final int clientId, @NotNull final OrderChangeMessage message) {
-        final ChangeMessage<OrderMarketChange> change = new ChangeMessage<>(clientId);
-        change.setId(message.getId());
-        change.setPublishTime(message.getPt());
-        change.setClk(message.getClk());
-        change.setInitialClk(message.getInitialClk());
-        change.setConflateMs(message.getConflateMs());
-        change.setHeartbeatMs(message.getHeartbeatMs());
-        change.setItems(message.getOc());
-
-        change.setSegmentType(message.getSegmentType());
-        change.setChangeType(message.getCt());
-
-        return change;
+        final Date publishTime = message.getPt();
+        return new ChangeMessage<>(clientId, message.getId(), publishTime == null ? 0L : publishTime.getTime(), message.getClk(), message.getInitialClk(), message.getHeartbeatMs(), message.getConflateMs(), message.getOc(), message.getSegmentType(),
+                                   message.getCt()); // the items list is already a copy, owned by the new message
     }
 }
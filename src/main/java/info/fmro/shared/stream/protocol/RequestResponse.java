@@ -30,7 +30,7 @@ public class RequestResponse {
 
     public synchronized void processStatusMessage(final StatusMessage newStatusMessage) {
         if (newStatusMessage == null) {
-            logger.error("null statusMessage for task: {}", Generic.objectToString(this));
+            logger.error("null statusMessage for task: {}", Generic.lazyObjectToString(this));
         } else {
             if (newStatusMessage.getStatusCode() == StatusCode.SUCCESS) {
                 if (this.onSuccess != null) {
@@ -34,8 +34,8 @@ public class SubscriptionHandler<S extends RequestMessage, C extends ChangeMessa
     private int itemCount;
     private final CountDownLatch subscriptionComplete = new CountDownLatch(1);
 
-    private Date lastPublishTime;
-    private Date lastArrivalTime;
+    private long lastPublishTime; // epoch millis, 0L before the first message
+    private long lastArrivalTime;
     private String initialClk;
     private String clk;
     private Long heartbeatMs;
@@ -65,12 +65,12 @@ public class SubscriptionHandler<S extends RequestMessage, C extends ChangeMessa
 
     @Nullable
     public synchronized Date getLastPublishTime() {
-        return this.lastPublishTime == null ? null : (Date) this.lastPublishTime.clone();
+        return this.lastPublishTime == 0L ? null : new Date(this.lastPublishTime);
     }
 
     @Nullable
     public synchronized Date getLastArrivalTime() {
-        return this.lastArrivalTime == null ? null : (Date) this.lastArrivalTime.clone();
+        return this.lastArrivalTime == 0L ? null : new Date(this.lastArrivalTime);
     }
 
     public synchronized Long getHeartbeatMs() {
@@ -97,10 +97,11 @@ public class SubscriptionHandler<S extends RequestMessage, C extends ChangeMessa
     @Nullable
     public synchronized C processChangeMessage(@NotNull final C changeMessage) {
         @Nullable C message = changeMessage;
-        if (this.subscriptionId == message.getId()) {
+        final Integer messageId = message.getId();
+        if (messageId != null && this.subscriptionId == messageId) {
             //Every message store timings
-            this.lastPublishTime = message.getPublishTime();
-            this.lastArrivalTime = message.getArrivalTime();
+            this.lastPublishTime = message.getPublishTimeMillis();
+            this.lastArrivalTime = message.getArrivalTimeMillis();
             if (message.isStartOfRecovery()) {
                 //Start of recovery
                 this.ttfm.stop();
@@ -151,6 +152,7 @@ public class SubscriptionHandler<S extends RequestMessage, C extends ChangeMessa
         return message;
     }
 
+    @SuppressWarnings("unchecked")
     private synchronized C MergeMessage(@NotNull final C changeMessage) {
         //merge segmented messages so client sees atomic view across segments
         @Nullable C message = changeMessage;
@@ -170,8 +172,7 @@ public class SubscriptionHandler<S extends RequestMessage, C extends ChangeMessa
 
         if (message.getSegmentType() == SegmentType.SEG_END) {
             //finish merging
-            message.setSegmentType(SegmentType.NONE);
-            message.setItems(this.mergedChanges);
+            message = (C) message.withMergedItems(this.mergedChanges); // ChangeMessage is final, so C is always ChangeMessage<I>
             this.mergedChanges = null;
         } else {
             //swallow message as we're still merging
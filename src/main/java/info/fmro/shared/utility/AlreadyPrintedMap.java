@@ -1,6 +1,8 @@
 package info.fmro.shared.utility;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,51 +10,107 @@ import org.slf4j.helpers.MessageFormatter;
 
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+// messages are keyed by their format plus a hash of the arguments the format uses, so a suppressed message is never formatted and only the printed ones are kept as strings
+// no global lock: the entries are in a ConcurrentHashMap and their expirations in a ConcurrentSkipListMap, which every call drains of the expired entries, so clean() is no longer needed for expiry
 @SuppressWarnings("WeakerAccess")
 public class AlreadyPrintedMap
-//        extends SynchronizedMap<String, Long>
         implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(AlreadyPrintedMap.class);
     @Serial
-    private static final long serialVersionUID = -8093683012072045094L;
+    private static final long serialVersionUID = 2476339018325186790L;
     public static final String NOT_IMPORTANT_PREFIX = "(notImportant)"; // matters for printing the properties or not when the value expires
     public static final boolean defaultIsImportant = true;
     public static final long defaultExpirationPeriod = 4L * Generic.HOUR_LENGTH_MILLISECONDS;
-    private final HashMap<String, Long> expirationTimeMap = new HashMap<>(16);
-    private final HashMap<String, AlreadyPrintedProperties> propertiesMap = new HashMap<>(16);
+    public static final String OTHER_TEMPLATES = "(otherTemplates)"; // counters of the templates above MAX_TEMPLATES
+    private static final int MAX_TEMPLATES = 4_096; // formats are normally constants, but some are built at runtime
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L, FNV_PRIME = 0x100000001b3L;
+    private final ConcurrentHashMap<MessageKey, PrintedEntry> entries = new ConcurrentHashMap<>(16);
+    private final ConcurrentSkipListMap<Expiration, PrintedEntry> expirations = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, TemplateCounters> templateCounters = new ConcurrentHashMap<>(16);
+    private final AtomicLong expirationSequence = new AtomicLong();
 
-    public synchronized String logOnce(final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    private record MessageKey(String format, long argumentsHash)
+            implements Serializable {
+    }
+
+    private record Expiration(long expirationTime, long sequence)
+            implements Comparable<Expiration>, Serializable {
+        @Override
+        public int compareTo(@NotNull final Expiration other) {
+            final int result = Long.compare(this.expirationTime, other.expirationTime);
+            return result == 0 ? Long.compare(this.sequence, other.sequence) : result;
+        }
+    }
+
+    private static final class PrintedEntry
+            implements Serializable {
+        @Serial
+        private static final long serialVersionUID = -2851305764802470366L;
+        private final MessageKey key;
+        private final long expirationTime;
+        private final String printedString;
+        private final AlreadyPrintedProperties properties;
+
+        private PrintedEntry(final MessageKey key, final long expirationTime, final String printedString, final AlreadyPrintedProperties properties) {
+            this.key = key;
+            this.expirationTime = expirationTime;
+            this.printedString = printedString;
+            this.properties = properties;
+        }
+
+        private void removed() {
+            if (this.properties.propertiesAreImportant()) {
+                this.properties.print(this.printedString);
+            } else { // not important, will be discarded silently, nothing to be done
+            }
+        }
+    }
+
+    private static final class TemplateCounters
+            implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 6263474012393870126L;
+        private final LongAdder emitted = new LongAdder();
+        private final LongAdder suppressed = new LongAdder();
+    }
+
+    public String logOnce(final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(false, 0L, null, methodArgumentLogger, logLevel, format, objects);
     }
 
-    public synchronized String logOnce(final long expiryPeriod, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    public String logOnce(final long expiryPeriod, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(false, expiryPeriod, null, methodArgumentLogger, logLevel, format, objects);
     }
 
-    public synchronized String logOnce(final boolean printAnyway, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    public String logOnce(final boolean printAnyway, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(printAnyway, 0L, null, methodArgumentLogger, logLevel, format, objects);
     }
 
-    public synchronized String logOnce(final boolean printAnyway, final long expiryPeriod, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    public String logOnce(final boolean printAnyway, final long expiryPeriod, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(printAnyway, expiryPeriod, null, methodArgumentLogger, logLevel, format, objects);
     }
 
-    public synchronized String logOnce(final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    public String logOnce(final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(false, 0L, synchronizedWriter, methodArgumentLogger, logLevel, format, objects);
     }
 
-    public synchronized String logOnce(final long expiryPeriod, final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    public String logOnce(final long expiryPeriod, final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(false, expiryPeriod, synchronizedWriter, methodArgumentLogger, logLevel, format, objects);
     }
 
-    public synchronized String logOnce(final boolean printAnyway, final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    public String logOnce(final boolean printAnyway, final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         return logOnce(printAnyway, 0L, synchronizedWriter, methodArgumentLogger, logLevel, format, objects);
     }
 
-    private synchronized String logOnce(final boolean printAnyway, final long expiryPeriod, final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
+    @SuppressWarnings("OverlyComplexMethod")
+    private String logOnce(final boolean printAnyway, final long expiryPeriod, final SynchronizedWriter synchronizedWriter, final Logger methodArgumentLogger, final LogLevel logLevel, final String format, final Object... objects) {
         @Nullable final Throwable throwable;
         final Object[] objectsWithoutThrowable;
         if (logLevel == LogLevel.ERROR && objects != null && objects.length > 0) {
@@ -68,20 +126,44 @@ public class AlreadyPrintedMap
             throwable = null;
             objectsWithoutThrowable = objects;
         }
-        final boolean isImportant;
-        @Nullable String printedString;
-        if (format.startsWith(NOT_IMPORTANT_PREFIX)) {
-            isImportant = false;
-            printedString = MessageFormatter.arrayFormat(format.substring(NOT_IMPORTANT_PREFIX.length()), objectsWithoutThrowable).getMessage();
-        } else {
-            isImportant = true;
-            printedString = MessageFormatter.arrayFormat(format, objectsWithoutThrowable).getMessage();
+        final boolean isImportant = !format.startsWith(NOT_IMPORTANT_PREFIX);
+        final String usedFormat = isImportant ? format : format.substring(NOT_IMPORTANT_PREFIX.length());
+        final long usedExpiryPeriod = expiryPeriod <= 0L ? AlreadyPrintedMap.defaultExpirationPeriod : expiryPeriod;
+        final MessageKey key = new MessageKey(usedFormat, getArgumentsHash(usedFormat, objectsWithoutThrowable));
+
+        @Nullable String printedString = null; // only formatted if it gets printed
+        final long currentTime = System.currentTimeMillis();
+        removeExpired(currentTime);
+        boolean notAlreadyPrinted = false, done = false;
+        while (!done) {
+            final PrintedEntry existingEntry = this.entries.get(key);
+            if (existingEntry != null && existingEntry.expirationTime > currentTime) {
+                existingEntry.properties.appeared(currentTime);
+                done = true;
+            } else {
+                if (printedString == null) {
+                    printedString = MessageFormatter.arrayFormat(usedFormat, objectsWithoutThrowable).getMessage();
+                }
+                final PrintedEntry newEntry = new PrintedEntry(key, currentTime + usedExpiryPeriod, printedString, new AlreadyPrintedProperties(currentTime, isImportant, logLevel));
+                if (existingEntry == null ? this.entries.putIfAbsent(key, newEntry) == null : this.entries.replace(key, existingEntry, newEntry)) {
+                    if (existingEntry == null) { // normal case, nothing to be done
+                    } else { // expired, but not yet drained from the expirations
+                        existingEntry.removed();
+                    }
+                    this.expirations.put(new Expiration(newEntry.expirationTime, this.expirationSequence.incrementAndGet()), newEntry);
+                    notAlreadyPrinted = true;
+                    done = true;
+                } else { // another thread modified the entry in the meantime, I'll check again
+                }
+            }
         }
-        final long usedExpiryPeriod;
-        usedExpiryPeriod = expiryPeriod <= 0L ? AlreadyPrintedMap.defaultExpirationPeriod : expiryPeriod;
 
-        final boolean notAlreadyPrinted = !this.containsOrAdd(isImportant, printedString, usedExpiryPeriod, logLevel);
+        final TemplateCounters counters = getTemplateCounters(usedFormat);
         if (printAnyway || notAlreadyPrinted) {
+            counters.emitted.increment();
+            if (printedString == null) {
+                printedString = MessageFormatter.arrayFormat(usedFormat, objectsWithoutThrowable).getMessage();
+            }
             switch (logLevel) {
                 case ERROR:
                     if (throwable != null) {
@@ -110,162 +192,136 @@ public class AlreadyPrintedMap
                 synchronizedWriter.writeAndFlush(Generic.properTimeStamp() + " " + printedString + "\r\n");
             }
         } else {
+            counters.suppressed.increment();
             printedString = null;
         }
         return printedString;
     }
 
-    //    private synchronized Long add(String s) {
-//        return this.add(s, defaultExpirationPeriod);
-//    }
-//    private synchronized Long add(String s, long expiryPeriod) {
-//        return this.put(s, expiryPeriod); // current time will be added in the modified put method
-//    }
-    @SuppressWarnings("UnusedReturnValue")
-    private synchronized Long add(final boolean isImportant, final String s, final long expiryPeriod, final LogLevel logLevel) {
-        return this.put(isImportant, s, expiryPeriod, logLevel); // current time will be added in the modified put method
-    }
-
-    public synchronized boolean containsOrAdd(final String s, final LogLevel logLevel) {
-        return this.containsOrAdd(defaultIsImportant, s, defaultExpirationPeriod, logLevel);
-    }
-
-    public synchronized boolean containsOrAdd(final String s, final long expiryPeriod, final LogLevel logLevel) {
-        return containsOrAdd(defaultIsImportant, s, expiryPeriod, logLevel);
+    private static long getArgumentsHash(@NotNull final String format, final Object... objects) { // FNV-1a over the arguments the format uses, in their printed form
+        long hash = FNV_OFFSET_BASIS;
+        final int nUsedArguments = objects == null ? 0 : Math.min(objects.length, countPlaceholders(format));
+        for (int i = 0; i < nUsedArguments; i++) {
+            final Object object = objects[i];
+            // a LazyObjectString is formatted here, by content, and keeps the result, so a printed message reuses it instead of walking the object again
+            final String printedArgument = object != null && object.getClass().isArray() ? MessageFormatter.format("{}", object).getMessage() : String.valueOf(object);
+            for (int j = 0; j < printedArgument.length(); j++) {
+                hash = (hash ^ printedArgument.charAt(j)) * FNV_PRIME;
+            }
+            hash = (hash ^ 0x10000L) * FNV_PRIME; // separator, outside the char range
+        }
+        return hash;
     }
 
-    @SuppressWarnings("WeakerAccess")
-    public synchronized boolean containsOrAdd(final boolean isImportant, final String s, final long expiryPeriod, final LogLevel logLevel) {
-        final boolean contains = this.contains(s, logLevel);
-        if (contains) { // contains already, which already checks for expiration of the period, nothing to be done
-        } else {
-            this.add(isImportant, s, expiryPeriod, logLevel);
+    @Contract(pure = true)
+    private static int countPlaceholders(@NotNull final String format) {
+        int nPlaceholders = 0;
+        int index = format.indexOf("{}");
+        while (index >= 0) {
+            nPlaceholders++;
+            index = format.indexOf("{}", index + 2);
         }
-
-        return contains;
+        return nPlaceholders;
     }
 
-    private synchronized boolean contains(final String s, final LogLevel logLevel) { // also updates properties
-        final boolean result;
-        if (this.expirationTimeMap.containsKey(s)) {
-            final Long value = this.expirationTimeMap.get(s);
-            if (value != null) {
-                final long currentTime = System.currentTimeMillis();
-                if (value > currentTime) {
-                    updateProperties(defaultIsImportant, s, currentTime, true, logLevel);
-                    result = true;
-                } else {
-                    this.remove(s);
-                    result = false;
-                }
-            } else {
-                logger.error("null expiration found in AlreadyPrintedMap.contains for: {}", s);
-                this.remove(s);
-                result = false;
-            }
-        } else {
-            result = false;
+    @NotNull
+    private TemplateCounters getTemplateCounters(@NotNull final String format) {
+        TemplateCounters counters = this.templateCounters.get(format);
+        if (counters == null) {
+            final String usedKey = this.templateCounters.size() >= MAX_TEMPLATES ? OTHER_TEMPLATES : format;
+            counters = this.templateCounters.computeIfAbsent(usedKey, k -> new TemplateCounters());
+        } else { // counters found, will be used
         }
+        return counters;
+    }
 
-        return result;
+    @NotNull
+    @Contract(pure = true)
+    private static String getTemplate(@NotNull final String format) {
+        return format.startsWith(NOT_IMPORTANT_PREFIX) ? format.substring(NOT_IMPORTANT_PREFIX.length()) : format;
     }
 
-    private synchronized void updateProperties(final boolean isImportant, final String s, final long currentTime, final boolean shouldExist, final LogLevel logLevel) {
-        final AlreadyPrintedProperties properties;
-        if (this.propertiesMap.containsKey(s)) {
-            properties = this.propertiesMap.get(s);
-            properties.appeared(currentTime);
-            if (!shouldExist) {
-                logger.error("properties exists in AlreadyPrintedMap.updateProperties for: {} {} {} {} {}", isImportant, s, currentTime, shouldExist, Generic.objectToString(properties));
-            }
-        } else {
-            if (shouldExist) {
-                logger.error("properties doesn't exist in AlreadyPrintedMap.updateProperties for: {} {} {} {}", isImportant, s, currentTime, shouldExist);
-            }
-            properties = new AlreadyPrintedProperties(currentTime, isImportant, logLevel);
-            this.propertiesMap.put(s, properties);
-        }
+    public long getEmittedCount(@NotNull final String format) { // number of times logOnce printed a message with this format
+        final TemplateCounters counters = this.templateCounters.get(getTemplate(format));
+        return counters == null ? 0L : counters.emitted.sum();
     }
 
-    @SuppressWarnings("unused")
-    private synchronized Long put(final String s, final Long expiryPeriod, final LogLevel logLevel) {
-        return put(defaultIsImportant, s, expiryPeriod, logLevel);
+    public long getSuppressedCount(@NotNull final String format) { // number of times logOnce didn't print a message with this format, as it was already printed
+        final TemplateCounters counters = this.templateCounters.get(getTemplate(format));
+        return counters == null ? 0L : counters.suppressed.sum();
     }
 
-    private synchronized Long put(final boolean isImportant, final String s, final Long expiryPeriod, final LogLevel logLevel) { // boolean is first argument, as boolean as last argument exists in super.put overload
-        final long currentTime = System.currentTimeMillis();
-        final Long existingValue = this.expirationTimeMap.put(s, currentTime + expiryPeriod);
-        if (existingValue != null) {
-            logger.error("value already existed in AlreadyPrintedMap.put for: {} {} {} {} {}", isImportant, s, expiryPeriod, currentTime, existingValue);
-        } else { // value didn't exist, this is the normal case, nothing more to be done
-        }
+    @NotNull
+    public TreeSet<String> getTemplates() { // formats that have counters
+        return new TreeSet<>(this.templateCounters.keySet());
+    }
 
-        updateProperties(isImportant, s, currentTime, false, logLevel);
+    public boolean containsOrAdd(final String s, final LogLevel logLevel) {
+        return this.containsOrAdd(defaultIsImportant, s, defaultExpirationPeriod, logLevel);
+    }
 
-        return existingValue;
+    public boolean containsOrAdd(final String s, final long expiryPeriod, final LogLevel logLevel) {
+        return containsOrAdd(defaultIsImportant, s, expiryPeriod, logLevel);
     }
 
-    @SuppressWarnings("UnusedReturnValue")
-    private synchronized Long remove(final String s) {
-        final Long existingValue = this.expirationTimeMap.remove(s);
-        final AlreadyPrintedProperties properties = this.propertiesMap.remove(s);
-        if (properties == null) {
-            logger.error("null properties in AlreadyPrintedMap for: {} {}", existingValue, s);
-        } else {
-            if (properties.propertiesAreImportant()) {
-                properties.print(s);
-            } else { // not important, will be discarded silently, nothing to be done
+    public boolean containsOrAdd(final boolean isImportant, final String s, final long expiryPeriod, final LogLevel logLevel) { // the whole string is the key, like a logOnce format without arguments
+        final MessageKey key = new MessageKey(s, FNV_OFFSET_BASIS);
+        final long currentTime = System.currentTimeMillis();
+        removeExpired(currentTime);
+        boolean contains = false, done = false;
+        while (!done) {
+            final PrintedEntry existingEntry = this.entries.get(key);
+            if (existingEntry != null && existingEntry.expirationTime > currentTime) {
+                existingEntry.properties.appeared(currentTime);
+                contains = true;
+                done = true;
+            } else {
+                final PrintedEntry newEntry = new PrintedEntry(key, currentTime + expiryPeriod, s, new AlreadyPrintedProperties(currentTime, isImportant, logLevel));
+                if (existingEntry == null ? this.entries.putIfAbsent(key, newEntry) == null : this.entries.replace(key, existingEntry, newEntry)) {
+                    if (existingEntry == null) { // normal case, nothing to be done
+                    } else { // expired, but not yet drained from the expirations
+                        existingEntry.removed();
+                    }
+                    this.expirations.put(new Expiration(newEntry.expirationTime, this.expirationSequence.incrementAndGet()), newEntry);
+                    done = true;
+                } else { // another thread modified the entry in the meantime, I'll check again
+                }
             }
         }
-
-        return existingValue;
+        return contains;
     }
 
-    public synchronized void clear() {
-        final Iterable<String> keySetCopy = new HashSet<>(this.expirationTimeMap.keySet());
-        for (final String key : keySetCopy) {
-            this.remove(key);
-        }
-        if (!this.expirationTimeMap.isEmpty() || !this.propertiesMap.isEmpty()) {
-            logger.error("stuff remains after clear in AlreadyPrintedMap: {}", Generic.objectToString(this));
-        } else { // normal case, all cleared, nothing to be done
+    private int removeExpired(final long currentTime) { // returns the number of entries removed; each expiration is removed by a single thread
+        int nRemoved = 0;
+        Map.Entry<Expiration, PrintedEntry> firstExpiration = this.expirations.firstEntry();
+        while (firstExpiration != null && firstExpiration.getKey().expirationTime() <= currentTime) {
+            final PrintedEntry entry = this.expirations.remove(firstExpiration.getKey());
+            if (entry != null && this.entries.remove(entry.key, entry)) {
+                entry.removed();
+                nRemoved++;
+            } else { // removed by another thread, or the entry was already replaced
+            }
+            firstExpiration = this.expirations.firstEntry();
         }
+        return nRemoved;
     }
 
-    private synchronized int size() {
-        final int result;
-        final int mapSize = this.expirationTimeMap.size();
-        final int propertiesSize = this.propertiesMap.size();
-        if (mapSize == propertiesSize) {
-            result = mapSize;
-        } else {
-            logger.error("map and properties have different sizes in AlreadyPrintedMap: {} {} {}", mapSize, propertiesSize, Generic.objectToString(this));
-            result = 0;
+    public void clear() {
+        for (final PrintedEntry entry : this.entries.values()) {
+            if (this.entries.remove(entry.key, entry)) {
+                entry.removed();
+            } else { // removed by another thread
+            }
         }
-
-        return result;
+        this.expirations.clear();
     }
 
-    public synchronized void clean() {
+    public void clean() { // expired entries are removed on every logOnce call as well
         final long currentTime = System.currentTimeMillis();
-        final int initialSize = this.size();
-        final Iterable<String> keySetCopy = new HashSet<>(this.expirationTimeMap.keySet());
-        for (final String key : keySetCopy) {
-            final Long value = this.expirationTimeMap.get(key);
-            if (value == null) {
-                logger.error("null value during clean alreadyPrintedMap for: {} {}", key, Generic.objectToString(this.propertiesMap.get(key)));
-                this.remove(key);
-            } else {
-                final long primitive = value;
-                if (currentTime >= primitive) {
-                    this.remove(key);
-                } else { // nothing to be done, entry is not yet obsolete
-                }
-            }
-        }
-        final int newSize = this.size();
-        if (newSize != initialSize) {
-            logger.info("cleaned alreadyPrintedMap, initialSize: {} newSize: {} in {} ms", initialSize, newSize, System.currentTimeMillis() - currentTime);
+        final int nRemoved = removeExpired(currentTime);
+        if (nRemoved > 0) {
+            logger.info("cleaned alreadyPrintedMap, removed: {} newSize: {} in {} ms", nRemoved, this.entries.size(), System.currentTimeMillis() - currentTime);
+        } else { // nothing removed, no need to print anything
         }
     }
 }
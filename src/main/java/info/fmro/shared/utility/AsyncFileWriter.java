@@ -0,0 +1,260 @@
+package info.fmro.shared.utility;
+
+import info.fmro.shared.enums.WriterDurability;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+// asynchronous mode of SynchronizedWriter: producers append the records to a lock-free queue and return, a single thread encodes them into a direct ByteBuffer and writes it through a FileChannel
+// group commit: the buffer is written when it's full, when the commit interval has passed since the last commit, or right away on a flush request, depending on the WriterDurability
+// rotation: the file is renamed to <fileName>.<yyyyMMdd-HHmmss-SSS> when it reaches rotationBytes or rotationIntervalMillis has passed since it was opened; the renamed file is optionally gzipped by the writer thread
+final class AsyncFileWriter {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncFileWriter.class);
+    private static final int MIN_BUFFER_SIZE = 1 << 10;
+    private static final int MAX_DRAINED_RECORDS = 4_096; // per loop, so commits and rotations still happen while producers keep the queue full; not applied on the closing pass
+    private static final DateTimeFormatter ROTATION_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private final Path path;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer;
+    private final long commitIntervalMillis, rotationBytes, rotationIntervalMillis;
+    private final WriterDurability durability;
+    private final boolean compressRotated;
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingChars = new AtomicLong(), nWrittenRecords = new AtomicLong(), nCommits = new AtomicLong(), nRotations = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Thread thread;
+    private volatile boolean isClosed;
+    // used only by the writer thread, after the constructor
+    private FileChannel channel;
+    private long fileBytes, fileOpenedStamp, lastCommitStamp;
+
+    AsyncFileWriter(@NotNull final Path path, final boolean append, @NotNull final Charset charset, final int bufferSize, final long commitIntervalMillis, @NotNull final WriterDurability durability, final long rotationBytes, final long rotationIntervalMillis,
+                    final boolean compressRotated, @NotNull final String threadName)
+            throws IOException {
+        this.path = path;
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, MIN_BUFFER_SIZE));
+        this.commitIntervalMillis = Math.max(commitIntervalMillis, 1L);
+        this.durability = durability;
+        this.rotationBytes = rotationBytes;
+        this.rotationIntervalMillis = rotationIntervalMillis;
+        this.compressRotated = compressRotated;
+        openChannel(append, System.currentTimeMillis());
+
+        this.thread = new Thread(this::work, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void openChannel(final boolean append, final long currentTime)
+            throws IOException {
+        this.channel = append ? FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND) :
+                       FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.fileBytes = this.channel.size();
+        this.fileOpenedStamp = currentTime;
+        this.lastCommitStamp = currentTime;
+    }
+
+    boolean append(@NotNull final String record, final boolean flush) { // never blocks; false if the writer is closed
+        final boolean success;
+        if (this.isClosed) { // the record would never be written
+            success = false;
+        } else {
+            this.queue.offer(record);
+            final boolean bufferFull = this.pendingChars.addAndGet(record.length()) >= this.buffer.capacity();
+            if (this.isClosed && this.queue.remove(record)) { // closed after the first check and the closing pass didn't take the record, so it would never be written
+                this.pendingChars.addAndGet(-record.length());
+                success = false;
+            } else {
+                if (flush) {
+                    requestFlush();
+                } else if (bufferFull) {
+                    LockSupport.unpark(this.thread);
+                } else { // the writer thread will get to it at the next commit interval
+                }
+                success = true;
+            }
+        }
+        return success;
+    }
+
+    void requestFlush() {
+        if (this.durability == WriterDurability.NONE) { // flush requests ignored, nothing to be done
+        } else if (this.flushRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(this.thread);
+        } else { // already requested, the writer thread will commit anyway
+        }
+    }
+
+    private void work() {
+        boolean finished = false;
+        while (!finished) {
+            final boolean closing = this.isClosed; // read before draining, so everything appended before close gets written
+            try {
+                drainQueue(closing);
+                final long currentTime = System.currentTimeMillis();
+                if (this.flushRequested.getAndSet(false) || closing || currentTime - this.lastCommitStamp >= this.commitIntervalMillis) {
+                    commit(currentTime);
+                } else { // no commit due yet
+                }
+                if ((this.rotationBytes > 0L && this.fileBytes >= this.rotationBytes) || (this.rotationIntervalMillis > 0L && currentTime - this.fileOpenedStamp >= this.rotationIntervalMillis && this.fileBytes > 0L)) {
+                    rotate(currentTime);
+                } else { // no rotation due
+                }
+            } catch (IOException iOException) {
+                logger.error("iOException in AsyncFileWriter.work for: {}", this.path, iOException);
+                this.buffer.clear(); // the records of the failed write are lost
+            }
+            if (closing) {
+                finished = true;
+            } else if (this.queue.isEmpty() && !this.flushRequested.get()) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(this.commitIntervalMillis));
+            } else { // more work available, no wait
+            }
+        }
+        Generic.closeObject(this.channel);
+    }
+
+    private void drainQueue(final boolean untilEmpty)
+            throws IOException {
+        int nDrained = 0;
+        String record = this.queue.poll();
+        while (record != null) {
+            this.pendingChars.addAndGet(-record.length());
+            encode(record);
+            nDrained++;
+            record = untilEmpty || nDrained < MAX_DRAINED_RECORDS ? this.queue.poll() : null;
+        }
+        this.nWrittenRecords.addAndGet(nDrained);
+    }
+
+    private void encode(@NotNull final String record)
+            throws IOException {
+        final CharBuffer charBuffer = CharBuffer.wrap(record);
+        this.encoder.reset();
+        CoderResult coderResult = this.encoder.encode(charBuffer, this.buffer, true);
+        while (coderResult.isOverflow()) {
+            writeBuffer();
+            coderResult = this.encoder.encode(charBuffer, this.buffer, true);
+        }
+        coderResult = this.encoder.flush(this.buffer);
+        while (coderResult.isOverflow()) {
+            writeBuffer();
+            coderResult = this.encoder.flush(this.buffer);
+        }
+    }
+
+    private void writeBuffer()
+            throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.fileBytes += this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    private void commit(final long currentTime)
+            throws IOException {
+        if (this.buffer.position() > 0) {
+            writeBuffer();
+            if (this.durability == WriterDurability.FSYNC) {
+                this.channel.force(false);
+            } else { // the OS decides when the bytes reach the disk
+            }
+            this.nCommits.incrementAndGet();
+        } else { // nothing to commit
+        }
+        this.lastCommitStamp = currentTime;
+    }
+
+    private void rotate(final long currentTime)
+            throws IOException {
+        commit(currentTime);
+        this.channel.close();
+        final Path rotatedPath = this.path.resolveSibling(this.path.getFileName() + "." + ROTATION_FORMATTER.format(Instant.ofEpochMilli(currentTime)));
+        try {
+            Files.move(this.path, rotatedPath);
+            this.nRotations.incrementAndGet();
+            if (this.compressRotated) {
+                compress(rotatedPath);
+            } else { // rotated file kept as it is
+            }
+        } finally { // the writer continues with a new file, or with the old one if the move failed
+            openChannel(true, currentTime);
+        }
+    }
+
+    private static void compress(@NotNull final Path rotatedPath) {
+        final Path compressedPath = rotatedPath.resolveSibling(rotatedPath.getFileName() + ".gz");
+        try (final OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(compressedPath), 1 << 16)) {
+            Files.copy(rotatedPath, outputStream);
+        } catch (IOException iOException) {
+            logger.error("iOException while compressing rotated file: {}", rotatedPath, iOException);
+        }
+        try {
+            if (Files.exists(compressedPath) && Files.size(compressedPath) > 0L) {
+                Files.delete(rotatedPath);
+            } else { // compression failed, the uncompressed file is kept
+            }
+        } catch (IOException iOException) {
+            logger.error("iOException while deleting rotated file: {}", rotatedPath, iOException);
+        }
+    }
+
+    boolean close() { // writes everything appended before it, then stops the writer thread
+        this.isClosed = true;
+        LockSupport.unpark(this.thread);
+        boolean isInterrupted = false;
+        while (this.thread.isAlive()) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException interruptedException) { // the queued records must still be written
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return this.queue.isEmpty();
+    }
+
+    @Contract(pure = true)
+    boolean isClosed() {
+        return this.isClosed;
+    }
+
+    long getNWrittenRecords() {
+        return this.nWrittenRecords.get();
+    }
+
+    long getNCommits() {
+        return this.nCommits.get();
+    }
+
+    long getNRotations() {
+        return this.nRotations.get();
+    }
+}
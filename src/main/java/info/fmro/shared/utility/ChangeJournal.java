@@ -0,0 +1,413 @@
+package info.fmro.shared.utility;
+
+import info.fmro.shared.enums.JournalSyncPolicy;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+// append only journal of the stream change messages and object modifications, combined with periodic checkpoints; recovery is the newest readable checkpoint, then the replay of the records written after it
+// record: int body length, int crc32c of the body, body (byte type, long sequence, long timeStamp, source, java serialized payload)
+// segment file: <baseName>.<sequence of its first record>.journal; checkpoint file: SnapshotFile <baseName>.<sequence>.checkpoint, replay starts at that sequence
+// the stream deltas set absolute values (sizes at a price, whole orders), so a record applied just before the checkpoint was written is harmless when replayed
+// a record journaled but not yet applied when its cache is written would be lost, so the caches use appendAndApply and the checkpoint takes its start sequence only when no change is between the two steps
+public final class ChangeJournal {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeJournal.class);
+    public static final byte MARKET_CHANGE_MESSAGE = 1, ORDER_CHANGE_MESSAGE = 2, OBJECT_MODIFICATION = 3;
+    public static final String CHECKPOINT_SECTION = "journal";
+    private static final int CHECKPOINT_SCHEMA_VERSION = 1;
+    private static final String SEGMENT_EXTENSION = ".journal", CHECKPOINT_EXTENSION = ".checkpoint";
+    private static final int RECORD_HEADER_LENGTH = Integer.BYTES + Integer.BYTES;
+    private static final int N_KEPT_CHECKPOINTS = 2; // the older one is used if the newest can't be read
+    private final Path directory;
+    private final String baseName;
+    private final long maxSegmentBytes;
+    private final JournalSyncPolicy syncPolicy;
+    private final long syncIntervalMillis;
+    private final ByteArrayOutputStream bodyStream = new ByteArrayOutputStream(1 << 12); // reused for every record
+    private final AtomicBoolean checkpointInProgress = new AtomicBoolean();
+    private final ReentrantReadWriteLock changeLock = new ReentrantReadWriteLock(); // read: a change between its append and its apply; write: the checkpoint taking its start sequence
+    @Nullable
+    private FileChannel segmentChannel; // null until the first append after open, rollover or checkpoint
+    private long segmentBytes, nextSequence, lastSyncStamp;
+    private volatile long lastCheckpointStamp;
+    private boolean closed;
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(byte type, String source, @NotNull Object payload);
+    }
+
+    private ChangeJournal(@NotNull final Path directory, @NotNull final String baseName, final long maxSegmentBytes, @NotNull final JournalSyncPolicy syncPolicy, final long syncIntervalMillis) {
+        this.directory = directory;
+        this.baseName = baseName;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.syncPolicy = syncPolicy;
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    @Nullable
+    public static ChangeJournal open(@NotNull final String directoryName, @NotNull final String baseName, final long maxSegmentBytes, @NotNull final JournalSyncPolicy syncPolicy, final long syncIntervalMillis) { // null on error
+        @Nullable ChangeJournal changeJournal;
+        try {
+            final Path directory = Files.createDirectories(Path.of(directoryName));
+            changeJournal = new ChangeJournal(directory, baseName, maxSegmentBytes, syncPolicy, syncIntervalMillis);
+            changeJournal.initializeNextSequence();
+        } catch (IOException iOException) {
+            logger.error("iOException in ChangeJournal.open: {} {}", directoryName, baseName, iOException);
+            changeJournal = null;
+        }
+        return changeJournal;
+    }
+
+    private synchronized void initializeNextSequence()
+            throws IOException { // appends always go to a new segment, so a torn record at the end of an old segment is never followed by good ones in the same file
+        long sequence = 0L;
+        for (final long checkpointSequence : listSequences(CHECKPOINT_EXTENSION)) {
+            sequence = Math.max(sequence, checkpointSequence);
+        }
+        final List<Long> segmentSequences = listSequences(SEGMENT_EXTENSION);
+        if (segmentSequences.isEmpty()) { // no segments, nothing more to check
+        } else {
+            final long newestSegmentSequence = segmentSequences.get(segmentSequences.size() - 1);
+            final long[] lastSequence = {newestSegmentSequence - 1L};
+            readSegment(getPath(newestSegmentSequence, SEGMENT_EXTENSION), (recordSequence, type, source, body) -> lastSequence[0] = recordSequence);
+            sequence = Math.max(sequence, lastSequence[0] + 1L);
+        }
+        this.nextSequence = sequence;
+    }
+
+    public synchronized boolean append(final byte type, @NotNull final String source, @NotNull final Serializable payload) {
+        boolean success;
+        if (this.closed) {
+            logger.error("append on closed journal: {} {} {}", this.baseName, type, source);
+            success = false;
+        } else {
+            try {
+                final long currentTime = System.currentTimeMillis();
+                this.bodyStream.reset();
+                final DataOutputStream dataOutputStream = new DataOutputStream(this.bodyStream);
+                dataOutputStream.writeByte(type);
+                dataOutputStream.writeLong(this.nextSequence);
+                dataOutputStream.writeLong(currentTime);
+                SnapshotFile.writeString(dataOutputStream, source);
+                final ObjectOutputStream objectOutputStream = new ObjectOutputStream(dataOutputStream);
+                objectOutputStream.writeObject(payload);
+                objectOutputStream.flush();
+                final byte[] body = this.bodyStream.toByteArray();
+                final CRC32C crc = new CRC32C();
+                crc.update(body);
+
+                if (this.segmentChannel == null || (this.segmentBytes > 0L && this.segmentBytes + RECORD_HEADER_LENGTH + body.length > this.maxSegmentBytes)) {
+                    rollover();
+                } else { // record fits in the current segment
+                }
+                final ByteBuffer[] buffers = {ByteBuffer.allocate(RECORD_HEADER_LENGTH).putInt(body.length).putInt((int) crc.getValue()).flip(), ByteBuffer.wrap(body)};
+                while (buffers[1].hasRemaining()) {
+                    this.segmentChannel.write(buffers);
+                }
+                this.segmentBytes += RECORD_HEADER_LENGTH + body.length;
+                this.nextSequence++;
+
+                if (this.syncPolicy == JournalSyncPolicy.EVERY_RECORD || (this.syncPolicy == JournalSyncPolicy.INTERVAL && currentTime - this.lastSyncStamp >= this.syncIntervalMillis)) {
+                    this.segmentChannel.force(false);
+                    this.lastSyncStamp = currentTime;
+                } else { // the force is left for later
+                }
+                success = true;
+            } catch (IOException iOException) {
+                logger.error("iOException in ChangeJournal.append: {} {} {}", this.baseName, type, source, iOException);
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    public boolean appendAndApply(final byte type, @NotNull final String source, @NotNull final Serializable payload, @NotNull final Runnable applier) { // the change is applied even if it can't be journaled; returns the append result
+        final boolean success;
+        this.changeLock.readLock().lock();
+        try {
+            success = append(type, source, payload);
+            applier.run();
+        } finally {
+            this.changeLock.readLock().unlock();
+        }
+        return success;
+    }
+
+    public synchronized void sync() {
+        if (this.segmentChannel == null) { // nothing written since the last force
+        } else {
+            try {
+                this.segmentChannel.force(false);
+                this.lastSyncStamp = System.currentTimeMillis();
+            } catch (IOException iOException) {
+                logger.error("iOException in ChangeJournal.sync: {}", this.baseName, iOException);
+            }
+        }
+    }
+
+    private synchronized void rollover()
+            throws IOException {
+        closeSegment();
+        this.segmentChannel = FileChannel.open(getPath(this.nextSequence, SEGMENT_EXTENSION), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE); // an existing file with this name can't hold valid records
+        this.segmentBytes = 0L;
+    }
+
+    private synchronized void closeSegment()
+            throws IOException {
+        if (this.segmentChannel == null) { // no open segment
+        } else {
+            try {
+                this.segmentChannel.force(false);
+            } finally {
+                this.segmentChannel.close();
+                this.segmentChannel = null;
+            }
+        }
+    }
+
+    public synchronized void close() {
+        this.closed = true;
+        try {
+            closeSegment();
+        } catch (IOException iOException) {
+            logger.error("iOException in ChangeJournal.close: {}", this.baseName, iOException);
+        }
+    }
+
+    public boolean isCheckpointDue(final long checkpointPeriodMillis) {
+        return System.currentTimeMillis() - this.lastCheckpointStamp >= checkpointPeriodMillis;
+    }
+
+    // sectionsWriter writes the cache sections, for example MarketCache.writeSnapshot, and returns false on failure; appends continue while the checkpoint is written
+    // the start sequence is taken after the changes in appendAndApply have been applied, so every record before it is in the written caches; not to be called from an applier
+    public boolean checkpoint(@NotNull final Predicate<? super SnapshotFile.Writer> sectionsWriter) {
+        boolean success;
+        if (this.checkpointInProgress.compareAndSet(false, true)) {
+            try {
+                final long startSequence;
+                this.changeLock.writeLock().lock(); // waits for the changes already journaled to be applied
+                try {
+                    synchronized (this) {
+                        closeSegment(); // records from startSequence on go to a new segment
+                        startSequence = this.nextSequence;
+                    }
+                } finally {
+                    this.changeLock.writeLock().unlock();
+                }
+                final SnapshotFile.Writer writer = new SnapshotFile.Writer(getPath(startSequence, CHECKPOINT_EXTENSION).toString());
+                if (writer.writeSection(CHECKPOINT_SECTION, CHECKPOINT_SCHEMA_VERSION, false, dataOutputStream -> dataOutputStream.writeLong(startSequence)) && sectionsWriter.test(writer)) {
+                    success = writer.commit();
+                } else {
+                    logger.error("checkpoint sections not written for journal: {} {}", this.baseName, startSequence);
+                    writer.abort();
+                    success = false;
+                }
+                if (success) {
+                    this.lastCheckpointStamp = System.currentTimeMillis();
+                    removeObsoleteFiles();
+                } else { // the old files are still needed
+                }
+            } catch (IOException iOException) {
+                logger.error("iOException in ChangeJournal.checkpoint: {}", this.baseName, iOException);
+                success = false;
+            } finally {
+                this.checkpointInProgress.set(false);
+            }
+        } else {
+            logger.warn("checkpoint already in progress for journal: {}", this.baseName);
+            success = false;
+        }
+        return success;
+    }
+
+    private void removeObsoleteFiles()
+            throws IOException {
+        final List<Long> checkpointSequences = listSequences(CHECKPOINT_EXTENSION);
+        final int nCheckpoints = checkpointSequences.size();
+        if (nCheckpoints > N_KEPT_CHECKPOINTS) {
+            for (int i = 0; i < nCheckpoints - N_KEPT_CHECKPOINTS; i++) {
+                Files.deleteIfExists(getPath(checkpointSequences.get(i), CHECKPOINT_EXTENSION));
+            }
+        } else { // all checkpoints are kept
+        }
+        final long oldestKeptSequence = checkpointSequences.get(Math.max(nCheckpoints - N_KEPT_CHECKPOINTS, 0));
+        final List<Long> segmentSequences = listSequences(SEGMENT_EXTENSION);
+        for (int i = 0; i < segmentSequences.size() - 1; i++) {
+            if (segmentSequences.get(i + 1) <= oldestKeptSequence) { // all records of this segment are older than the oldest kept checkpoint
+                Files.deleteIfExists(getPath(segmentSequences.get(i), SEGMENT_EXTENSION));
+            } else { // segment still needed for replay
+            }
+        }
+    }
+
+    // to be called before the journal is attached to the caches, otherwise the replayed changes would be journaled again
+    // checkpointRestorer gets the sections of the newest readable checkpoint, or null if there's none; returns the number of replayed records, or -1 on error
+    public synchronized long recover(@NotNull final Consumer<? super Map<String, SnapshotFile.Section>> checkpointRestorer, @NotNull final RecordConsumer recordConsumer) {
+        long nReplayed;
+        try {
+            long startSequence = 0L;
+            @Nullable Map<String, SnapshotFile.Section> checkpointSections = null;
+            final List<Long> checkpointSequences = listSequences(CHECKPOINT_EXTENSION);
+            for (int i = checkpointSequences.size() - 1; i >= 0 && checkpointSections == null; i--) {
+                final Map<String, SnapshotFile.Section> sections = SnapshotFile.read(getPath(checkpointSequences.get(i), CHECKPOINT_EXTENSION).toString());
+                final SnapshotFile.Section journalSection = sections == null ? null : sections.get(CHECKPOINT_SECTION);
+                if (journalSection == null) {
+                    logger.error("unreadable checkpoint for journal {}: {}", this.baseName, checkpointSequences.get(i));
+                } else {
+                    startSequence = journalSection.getPayload().getLong();
+                    checkpointSections = sections;
+                }
+            }
+            if (checkpointSections == null) {
+                logger.warn("no checkpoint for journal {}, replaying all the records", this.baseName);
+            } else { // checkpoint found, replay starts from it
+            }
+            checkpointRestorer.accept(checkpointSections);
+
+            final long replayStart = startSequence;
+            final long[] expectedSequence = {startSequence};
+            final long[] counter = {0L};
+            final List<Long> segmentSequences = listSequences(SEGMENT_EXTENSION);
+            for (int i = 0; i < segmentSequences.size(); i++) {
+                if (i + 1 < segmentSequences.size() && segmentSequences.get(i + 1) <= replayStart) { // all records are in the checkpoint
+                } else {
+                    readSegment(getPath(segmentSequences.get(i), SEGMENT_EXTENSION), (recordSequence, type, source, body) -> {
+                        if (recordSequence >= replayStart) {
+                            if (recordSequence != expectedSequence[0]) {
+                                logger.error("missing journal records {}: {} {}", this.baseName, expectedSequence[0], recordSequence);
+                            } else { // consecutive records
+                            }
+                            expectedSequence[0] = recordSequence + 1L;
+                            final Object payload = readPayload(body);
+                            if (payload == null) { // error already logged
+                            } else {
+                                recordConsumer.accept(type, source, payload);
+                                counter[0]++;
+                            }
+                        } else { // record already in the checkpoint
+                        }
+                    });
+                }
+            }
+            this.nextSequence = Math.max(this.nextSequence, expectedSequence[0]);
+            nReplayed = counter[0];
+        } catch (IOException iOException) {
+            logger.error("iOException in ChangeJournal.recover: {}", this.baseName, iOException);
+            nReplayed = -1L;
+        }
+        return nReplayed;
+    }
+
+    @FunctionalInterface
+    private interface RawRecordConsumer {
+        void accept(long sequence, byte type, String source, @NotNull ByteBuffer body);
+    }
+
+    private void readSegment(@NotNull final Path path, @NotNull final RawRecordConsumer rawRecordConsumer)
+            throws IOException { // stops at the first damaged or torn record
+        try (final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer byteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0L, fileChannel.size());
+            boolean damaged = false;
+            while (byteBuffer.remaining() >= RECORD_HEADER_LENGTH && !damaged) {
+                final int bodyLength = byteBuffer.getInt(), storedCrc = byteBuffer.getInt();
+                if (bodyLength < 0 || bodyLength > byteBuffer.remaining()) {
+                    damaged = true;
+                } else {
+                    final ByteBuffer body = byteBuffer.slice(byteBuffer.position(), bodyLength);
+                    byteBuffer.position(byteBuffer.position() + bodyLength);
+                    final CRC32C crc = new CRC32C();
+                    crc.update(body.duplicate());
+                    if ((int) crc.getValue() == storedCrc) {
+                        try {
+                            final byte type = body.get();
+                            final long sequence = body.getLong();
+                            body.getLong(); // timeStamp, not used in replay
+                            final String source = SnapshotFile.readString(body);
+                            rawRecordConsumer.accept(sequence, type, source, body);
+                        } catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+                            logger.error("bad record body in journal segment: {}", path, exception);
+                            damaged = true;
+                        }
+                    } else {
+                        damaged = true;
+                    }
+                }
+            }
+            if (damaged || byteBuffer.hasRemaining()) {
+                logger.warn("journal segment {} ends with a damaged or incomplete record, {} bytes ignored", path, byteBuffer.remaining());
+            } else { // clean end of segment
+            }
+        }
+    }
+
+    @Nullable
+    private static Object readPayload(@NotNull final ByteBuffer body) {
+        final byte[] bytes = new byte[body.remaining()];
+        body.get(bytes);
+        @Nullable Object payload;
+        try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            payload = objectInputStream.readObject();
+        } catch (IOException | ClassNotFoundException exception) {
+            logger.error("exception in ChangeJournal.readPayload", exception);
+            payload = null;
+        }
+        return payload;
+    }
+
+    @NotNull
+    private List<Long> listSequences(@NotNull final String extension)
+            throws IOException { // ascending
+        final List<Long> sequences = new ArrayList<>(8);
+        final String prefix = this.baseName + ".";
+        try (final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(this.directory, prefix + "*" + extension)) {
+            for (final Path path : directoryStream) {
+                final String fileName = path.getFileName().toString();
+                final String sequenceString = fileName.substring(prefix.length(), fileName.length() - extension.length());
+                try {
+                    sequences.add(Long.parseLong(sequenceString));
+                } catch (NumberFormatException numberFormatException) {
+                    logger.warn("unexpected file name in journal directory: {}", path);
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    @NotNull
+    private Path getPath(final long sequence, @NotNull final String extension) {
+        return this.directory.resolve(this.baseName + "." + String.format("%020d", sequence) + extension);
+    }
+
+    @Contract(pure = true)
+    public synchronized long getNextSequence() {
+        return this.nextSequence;
+    }
+}
@@ -0,0 +1,137 @@
+package info.fmro.shared.utility;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// same methods as SynchronizedMap for the operations it supports, but backed by a ConcurrentHashMap: reads don't lock and writes only lock their own bin; null keys and values are not allowed
+// operations over the whole map (copy, keySetCopy, valuesCopy, clear) are weakly consistent, they are not atomic with respect to concurrent writes
+@SuppressWarnings({"WeakerAccess", "RedundantSuppression"})
+public class ConcurrentSafeMap<K, V>
+        implements Serializable {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentSafeMap.class);
+    @Serial
+    private static final long serialVersionUID = 2931546306786510416L;
+    private final ConcurrentHashMap<K, V> map;
+    private final AtomicLong timeStampRemoved = new AtomicLong(); // auto updated at element removal
+
+    public ConcurrentSafeMap() {
+        this(16);
+    }
+
+    public ConcurrentSafeMap(final int initialSize) {
+        this.map = new ConcurrentHashMap<>(initialSize);
+    }
+
+    @NotNull
+    public HashMap<K, V> copy() {
+        return new HashMap<>(this.map);
+    }
+
+    @NotNull
+    public Set<K> keySetCopy() {
+        return new HashSet<>(this.map.keySet());
+    }
+
+    @NotNull
+    public Collection<V> valuesCopy() {
+        return new ArrayList<>(this.map.values());
+    }
+
+    @NotNull
+    public HashMap<K, V> clear() {
+        final HashMap<K, V> copy = new HashMap<>(Generic.getCollectionCapacity(this.map.size()));
+        for (final K key : this.map.keySet()) {
+            final V existingValue = this.map.remove(key);
+            if (existingValue != null) {
+                copy.put(key, existingValue);
+            } else { // removed by another thread in the meantime, nothing to be done
+            }
+        }
+        if (copy.isEmpty()) { // nothing was removed
+        } else {
+            timeStampRemoved();
+        }
+        return copy;
+    }
+
+    public boolean containsKey(final K key) {
+        return key != null && this.map.containsKey(key);
+    }
+
+    public V get(final K key) {
+        return key == null ? null : this.map.get(key);
+    }
+
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    public int size() {
+        return this.map.size();
+    }
+
+    public V computeIfAbsent(@NotNull final K key, @NotNull final Function<? super K, ? extends V> mappingFunction) { // mappingFunction is called at most once and holds the lock of the key's bin, so it should be short
+        return this.map.computeIfAbsent(key, mappingFunction);
+    }
+
+    public V put(@NotNull final K key, @NotNull final V value, final boolean intentionalPutInsteadOfPutIfAbsent) {
+        // intentionalPutInsteadOfPutIfAbsent should be true only when I check that there's no previous value or I have no need for the previous value, like in the case of a primitive
+        if (!intentionalPutInsteadOfPutIfAbsent) {
+            final Class<?> valueClass = value.getClass();
+            if (Long.class.equals(valueClass)) { // method allowed for this class
+            } else {
+                logger.error("ConcurrentSafeMap put used, but putIfAbsent is advisable, as it gives more control: {} {} {} {}", key.getClass(), valueClass, Generic.lazyObjectToString(key), Generic.lazyObjectToString(value));
+            }
+        }
+        return this.map.put(key, value);
+    }
+
+    public V put(@NotNull final K key, @NotNull final V value) {
+        return put(key, value, false);
+    }
+
+    public V putIfAbsent(@NotNull final K key, @NotNull final V value) {
+        return this.map.putIfAbsent(key, value);
+    }
+
+    public void putAll(@NotNull final Map<? extends K, ? extends V> m) {
+        this.map.putAll(m);
+    }
+
+    public V remove(final K key) {
+        final V existingValue = key == null ? null : this.map.remove(key);
+        if (existingValue != null) {
+            timeStampRemoved();
+        }
+        return existingValue;
+    }
+
+    public boolean remove(final K key, final V value) {
+        final boolean modified = key != null && value != null && this.map.remove(key, value);
+        if (modified) {
+            timeStampRemoved();
+        }
+        return modified;
+    }
+
+    public long getTimeStampRemoved() {
+        return this.timeStampRemoved.get();
+    }
+
+    private void timeStampRemoved() {
+        this.timeStampRemoved.set(System.currentTimeMillis());
+    }
+}
@@ -45,11 +45,11 @@ public class DebugLevel
 
     public synchronized void copyFrom(final DebugLevel debugLevel) {
         if (!this.codesSet.isEmpty()) {
-            logger.error("not empty set in DebugLevel copyFrom: {}", Generic.objectToString(this));
+            logger.error("not empty set in DebugLevel copyFrom: {}", Generic.lazyObjectToString(this));
         }
 
         if (debugLevel == null) {
-            logger.error("null debugLevel in copyFrom for: {}", Generic.objectToString(this));
+            logger.error("null debugLevel in copyFrom for: {}", Generic.lazyObjectToString(this));
         } else {
             Generic.updateObject(this, debugLevel);
 
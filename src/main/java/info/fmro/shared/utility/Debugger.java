@@ -55,6 +55,19 @@ class Debugger {
         this.writersMap = Generic.sortByValue(this.writersMap, true);
     }
 
+    public synchronized boolean addAsynchronousWriter(final String fileName, final boolean append, final String id, final int minDebugLevel) { // the debug writes only queue the record, the file is written by a background thread
+        final SynchronizedWriter synchronizedWriter = SynchronizedWriter.openAsynchronous(fileName, append, id);
+        final boolean success;
+        if (synchronizedWriter == null) { // error was already printed
+            success = false;
+        } else {
+            this.writersMap.put(synchronizedWriter, minDebugLevel);
+            this.writersMap = Generic.sortByValue(this.writersMap, true);
+            success = true;
+        }
+        return success;
+    }
+
     public synchronized void checkDiskSpace() {
         if (this.debugLevel >= 1 && (new File(".").getUsableSpace() < 50L * Generic.MEGABYTE || !this.enoughAvailableSpace(50L * Generic.MEGABYTE))) {
             logger.info("Less than 50Mb remain on disk. Reducing debugLevel. (space = {})", new File(".").getUsableSpace());
@@ -0,0 +1,41 @@
+package info.fmro.shared.utility;
+
+import org.jetbrains.annotations.Contract;
+
+// fixed point form of the odds: prices in hundredths, the ladder ticks being whole hundredths, and their tick positions
+// used by the order PriceSizeLadder, where a price is converted once to the tick position that indexes its primitive arrays, instead of keying a map with boxed Doubles
+@SuppressWarnings("UtilityClass")
+public final class FixedPoint {
+    public static final int NO_TICK = -1;
+
+    @Contract(pure = true)
+    private FixedPoint() {
+    }
+
+    @SuppressWarnings("NumericCastThatLosesPrecision")
+    @Contract(pure = true)
+    public static int toHundredths(final double price) {
+        return (int) Math.round(price * 100d);
+    }
+
+    @Contract(pure = true)
+    public static boolean isWholeHundredths(final double price) { // false for prices with more decimals, like average prices, that toHundredths would round
+        return Math.abs(price * 100d - toHundredths(price)) < 1e-6d;
+    }
+
+    @Contract(pure = true)
+    public static int toTickPosition(final double price) { // NO_TICK if the price is not on the ladder
+        return Formulas.getTickPosition(toHundredths(price));
+    }
+
+    @Contract(pure = true)
+    public static int toFloorTickPosition(final double price) { // largest tick not above the price; NO_TICK below the ladder
+        return Formulas.getFloorTickPosition(toHundredths(price));
+    }
+
+    @Contract(pure = true)
+    public static int toCeilingTickPosition(final double price) { // smallest tick not below the price; Formulas.getNTicks() above the ladder
+        final int hundredths = toHundredths(price), floorPosition = Formulas.getFloorTickPosition(hundredths);
+        return floorPosition >= 0 && Formulas.getTick(floorPosition) == hundredths ? floorPosition : floorPosition + 1;
+    }
+}
@@ -41,6 +41,10 @@ public final class Formulas {
     //    public static final List<Double> pricesList = List.of(1.01, 1.02,1.03,1.04,1.05,1.06,1.07,1.08,1.09,1.1,1.11,1.12,1.13,1.14 ...);
     @SuppressWarnings("PublicStaticCollectionField")
     public static final List<Integer> pricesList; // odds prices, multiplied by 100, to have them stored as int
+    public static final int MIN_TICK = 101, MAX_TICK = 100_000;
+    private static final int[] ticks; // same as pricesList, unboxed
+    private static final double[] tickPrices; // the ticks as rounded odds
+    private static final int[] floorPositions; // indexed by odds * 100, up to MAX_TICK: position of the largest tick not above the index, -1 below MIN_TICK
     @SuppressWarnings("PublicStaticCollectionField")
     public static final Map<String, String> charactersMap = Collections.synchronizedMap(new LinkedHashMap<>(128, 0.75f));
     public static final double CENT_TOLERANCE = .009999d;
@@ -191,6 +195,53 @@ public final class Formulas {
         } while (counter <= 100_000);
 
         pricesList = List.copyOf(localPricesList);
+
+        ticks = pricesList.stream().mapToInt(Integer::intValue).toArray();
+        tickPrices = new double[ticks.length];
+        for (int i = 0; i < ticks.length; i++) {
+            tickPrices[i] = Generic.roundDouble(ticks[i] / 100d);
+        }
+        floorPositions = new int[MAX_TICK + 1];
+        int position = -1;
+        for (int intOdds = 0; intOdds <= MAX_TICK; intOdds++) {
+            if (position + 1 < ticks.length && ticks[position + 1] == intOdds) {
+                position++;
+            } else { // same position as the previous index
+            }
+            floorPositions[intOdds] = position;
+        }
+    }
+
+    @Contract(pure = true)
+    public static int getNTicks() {
+        return ticks.length;
+    }
+
+    @Contract(pure = true)
+    public static int getTickPosition(final int intOdds) { // odds multiplied by 100; -1 if not a tick
+        final int position = intOdds < MIN_TICK || intOdds > MAX_TICK ? -1 : floorPositions[intOdds];
+        return position >= 0 && ticks[position] == intOdds ? position : -1;
+    }
+
+    @Contract(pure = true)
+    public static int getFloorTickPosition(final int intOdds) { // position of the largest tick not above the odds multiplied by 100; -1 below MIN_TICK
+        return intOdds < MIN_TICK ? -1 : intOdds > MAX_TICK ? ticks.length - 1 : floorPositions[intOdds];
+    }
+
+    @Contract(pure = true)
+    public static int getTick(final int position) { // odds multiplied by 100
+        return ticks[position];
+    }
+
+    @Contract(pure = true)
+    public static double getTickPrice(final int position) {
+        return tickPrices[position];
+    }
+
+    @Contract(pure = true)
+    public static int getTickDistance(final double firstOdds, final double secondOdds) { // number of ticks from the first to the second odds, Integer.MIN_VALUE if either is not a tick
+        final int firstPosition = getOddsPosition(firstOdds), secondPosition = getOddsPosition(secondOdds);
+        return firstPosition < 0 || secondPosition < 0 ? Integer.MIN_VALUE : secondPosition - firstPosition;
     }
 
     public static boolean sidesAreOpposite(final Side firstSide, final Side secondSide) {
@@ -297,39 +348,24 @@ public final class Formulas {
         return getClosestOdds(intOdds, side);
     }
 
-    public static double getClosestOdds(final int odds, @NotNull final Side side) {
+    public static double getClosestOdds(final int odds, @NotNull final Side side) { // table lookup, no search and no allocation
         final double result;
-        final int oddsPosition = pricesList.indexOf(odds);
-        if (oddsPosition < 0) {
-            final int listSize = pricesList.size();
-            if (odds < pricesList.get(0)) {
-                result = 1d;
-            } else if (odds > pricesList.get(listSize - 1)) {
-                result = 1_001d;
+        if (odds < MIN_TICK) {
+            result = 1d;
+        } else if (odds > MAX_TICK) {
+            result = 1_001d;
+        } else {
+            final int floorPosition = floorPositions[odds];
+            if (ticks[floorPosition] == odds || side == Side.L) {
+                result = tickPrices[floorPosition];
+            } else if (side == Side.B) {
+                result = tickPrices[floorPosition + 1];
             } else {
-                int smallerOdds = 100;
-                int largerOdds = 100_100;
-                for (final int oddsInList : pricesList) {
-                    if (odds > oddsInList) {
-                        smallerOdds = oddsInList;
-                    } else {
-                        largerOdds = oddsInList;
-                        break;
-                    }
-                }
-                if (side == Side.B) {
-                    result = largerOdds / 100d;
-                } else if (side == Side.L) {
-                    result = smallerOdds / 100d;
-                } else {
-                    logger.error("unknown side in getClosestOdds: {} {}", side, odds);
-                    result = Generic.getClosestNumber(odds, smallerOdds, largerOdds) / 100d;
-                }
+                logger.error("unknown side in getClosestOdds: {} {}", side, odds);
+                result = Generic.roundDouble(Generic.getClosestNumber(odds, ticks[floorPosition], ticks[floorPosition + 1]) / 100d);
             }
-        } else {
-            result = odds / 100d;
         }
-        return Generic.roundDouble(result);
+        return result;
     }
 
     @SuppressWarnings({"OverloadedMethodsWithSameNumberOfParameters", "WeakerAccess", "RedundantSuppression"})
@@ -343,12 +379,12 @@ public final class Formulas {
     @SuppressWarnings("OverloadedMethodsWithSameNumberOfParameters")
     private static double getNStepDifferentOdds(final int baseOdds, final int nSteps) {
         final double result;
-        final int baseOddsPosition = pricesList.indexOf(baseOdds);
-        final int listSize = pricesList.size();
+        final int baseOddsPosition = getTickPosition(baseOdds);
+        final int listSize = ticks.length;
         if (baseOddsPosition < 0) {
-            if (baseOdds < pricesList.get(0)) {
+            if (baseOdds < MIN_TICK) {
                 result = 1d;
-            } else if (baseOdds > pricesList.get(listSize - 1)) {
+            } else if (baseOdds > MAX_TICK) {
                 result = 1_001d;
             } else {
                 logger.error("baseOdds {} not found in pricesList during getNStepDifferentOdds {}: {}", baseOdds, nSteps, baseOddsPosition);
@@ -361,11 +397,11 @@ public final class Formulas {
             } else if (resultPosition >= listSize) {
                 result = 1_001d;
             } else {
-                result = (double) (pricesList.get(resultPosition)) / 100d;
+                result = tickPrices[resultPosition];
             }
 //            final int resultPosition = Math.max(Math.min(baseOddsPosition + nSteps, listSize - 1), 0);
         }
-        return Generic.roundDouble(result);
+        return result;
     }
 
     @Contract(pure = true)
@@ -408,7 +444,7 @@ public final class Formulas {
 
     public static int getOddsPosition(final double odds) {
         @SuppressWarnings("NumericCastThatLosesPrecision") final int intOdds = (int) Math.round(odds * 100d);
-        return pricesList.indexOf(intOdds);
+        return getTickPosition(intOdds);
     }
 
     public static boolean oddsAreInverse(final double firstOdds, final double secondOdds) {
@@ -632,7 +668,7 @@ public final class Formulas {
         if (marketCatalogue != null) {
             final Event eventStump = marketCatalogue.getEventStump();
             if (eventStump == null) {
-                logger.error("null event in marketCatalogue during getEventOfMarket: {}", Generic.objectToString(marketCatalogue));
+                logger.error("null event in marketCatalogue during getEventOfMarket: {}", Generic.lazyObjectToString(marketCatalogue));
                 result = null;
             } else {
                 result = eventStump.getId();
@@ -681,15 +717,15 @@ public final class Formulas {
                 if (eventTypeId != null) {
                     result = typesList.contains(eventTypeId);
                 } else {
-                    logger.error("null eventType in isMarketType listArg for: {} {}", Generic.objectToString(typesList), Generic.objectToString(marketCatalogue));
+                    logger.error("null eventType in isMarketType listArg for: {} {}", Generic.lazyObjectToString(typesList), Generic.lazyObjectToString(marketCatalogue));
                     result = false;
                 }
             } else {
-                logger.error("null eventTypeId in isMarketType listArg for: {} {}", Generic.objectToString(typesList), Generic.objectToString(marketCatalogue));
+                logger.error("null eventTypeId in isMarketType listArg for: {} {}", Generic.lazyObjectToString(typesList), Generic.lazyObjectToString(marketCatalogue));
                 result = false;
             }
         } else {
-            logger.error("null arguments in isMarketType listArg for: {} {}", Generic.objectToString(typesList), Generic.objectToString(marketCatalogue));
+            logger.error("null arguments in isMarketType listArg for: {} {}", Generic.lazyObjectToString(typesList), Generic.lazyObjectToString(marketCatalogue));
             result = false;
         }
 
@@ -924,7 +960,7 @@ public final class Formulas {
             final Map.Entry<Double, Double> entry = iterator.next();
             final Double price = entry.getKey();
             if (price == null) {
-                logger.error("null price in removeAmountsFromTreeMap for: {} {} {}", Generic.objectToString(availableAmounts), Generic.objectToString(amountsToRemove), reason);
+                logger.error("null price in removeAmountsFromTreeMap for: {} {} {}", Generic.lazyObjectToString(availableAmounts), Generic.lazyObjectToString(amountsToRemove), reason);
             } else {
                 final Double availableAmount = entry.getValue();
                 final double availableAmountPrimitive = availableAmount == null ? 0d : availableAmount;
@@ -939,8 +975,8 @@ public final class Formulas {
                         } else {
                             if (reason.contains("Mandatory")) { // normal to get negative amounts, no need to print anything
                             } else {
-                                logger.error("negative amount from others {} in removeAmountsFromTreeMap for {}: {} {} {} {} {}", amountFromOthers, reason, price, myAmount, availableAmount, Generic.objectToString(amountsToRemove),
-                                             Generic.objectToString(availableAmounts));
+                                logger.error("negative amount from others {} in removeAmountsFromTreeMap for {}: {} {} {} {} {}", amountFromOthers, reason, price, myAmount, availableAmount, Generic.lazyObjectToString(amountsToRemove),
+                                             Generic.lazyObjectToString(availableAmounts));
                             }
                         }
                     } else { // no error, nothing to print
@@ -6,7 +6,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.util.concurrent.AtomicDouble;
-import javafx.scene.control.TreeItem;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -260,7 +259,7 @@ public final class Generic {
         } catch (@SuppressWarnings("OverlyBroadCatchBlock") IOException e) {
             //noinspection NestedConditionalExpression
             final Class<?> clazz = mainObject == null ? updateSource == null ? null : updateSource.getClass() : mainObject.getClass();
-            logger.error("IOException in updateObject for: {} {} {}", clazz, objectToString(mainObject), objectToString(updateSource), e);
+            logger.error("IOException in updateObject for: {} {} {}", clazz, lazyObjectToString(mainObject), lazyObjectToString(updateSource), e);
         }
     }
 
@@ -1084,7 +1083,7 @@ public final class Generic {
     public static Method getMethod(final Class<?> objectClass, final String methodName, final Class<?>... parameterTypes) {
         @Nullable final Method result;
         if (objectClass == null || methodName == null) {
-            logger.error("null parameters in getMethod: {} {} {}", objectClass, methodName, objectToString(parameterTypes));
+            logger.error("null parameters in getMethod: {} {} {}", objectClass, methodName, lazyObjectToString(parameterTypes));
             result = null;
         } else {
             Method method = null;
@@ -1094,10 +1093,10 @@ public final class Generic {
                 try {
                     method = objectClass.getMethod(methodName, parameterTypes);
                 } catch (NoSuchMethodException | SecurityException e) {
-                    logger.error("Exception in getMethod inner: {} {} {}", objectClass, methodName, objectToString(parameterTypes), e);
+                    logger.error("Exception in getMethod inner: {} {} {}", objectClass, methodName, lazyObjectToString(parameterTypes), e);
                 }
             } catch (SecurityException e) {
-                logger.error("securityException in getMethod: {} {} {}", objectClass, methodName, objectToString(parameterTypes), e);
+                logger.error("securityException in getMethod: {} {} {}", objectClass, methodName, lazyObjectToString(parameterTypes), e);
             }
             result = method;
         }
@@ -1108,7 +1107,7 @@ public final class Generic {
     public static <T> Constructor<T> getConstructor(final Class<T> objectClass, final Class<?>... parameterTypes) {
         @Nullable final Constructor<T> result;
         if (objectClass == null) {
-            logger.error("null class in getConstructor: {} {}", objectClass, objectToString(parameterTypes));
+            logger.error("null class in getConstructor: {} {}", objectClass, lazyObjectToString(parameterTypes));
             result = null;
         } else {
             Constructor<T> constructor = null;
@@ -1118,10 +1117,10 @@ public final class Generic {
                 try {
                     constructor = objectClass.getConstructor(parameterTypes);
                 } catch (NoSuchMethodException | SecurityException e) {
-                    logger.error("exception in getConstructor inner: {} {}", objectClass, objectToString(parameterTypes), e);
+                    logger.error("exception in getConstructor inner: {} {}", objectClass, lazyObjectToString(parameterTypes), e);
                 }
             } catch (SecurityException e) {
-                logger.error("securityException in getConstructor: {} {}", objectClass, objectToString(parameterTypes), e);
+                logger.error("securityException in getConstructor: {} {}", objectClass, lazyObjectToString(parameterTypes), e);
             }
             result = constructor;
         }
@@ -1147,12 +1146,12 @@ public final class Generic {
                         objectSetSoLingerMethod = objectClass.getMethod(LINGER, boolean.class, int.class);
                     } catch (NoSuchMethodException innerNoSuchMethodException) { // no setSoLinger method exists, no output required
                     } catch (SecurityException securityException) {
-                        logger.error("Exception in setSoLinger inner: {} {}", objectClass, objectToString(object), securityException);
+                        logger.error("Exception in setSoLinger inner: {} {}", objectClass, lazyObjectToString(object), securityException);
                     } // catch (Throwable throwable) {
                     //     logger.error("Exception in setSoLinger inner: {} {}", objectClass, objectToString(object), throwable);
                     // }
                 } catch (SecurityException securityException) {
-                    logger.error("securityException in setSoLinger: {} {}", objectClass, objectToString(object), securityException);
+                    logger.error("securityException in setSoLinger: {} {}", objectClass, lazyObjectToString(object), securityException);
                 } // catch (Throwable throwable) {
                 //     logger.error("Throwable in setSoLinger: {} {}", objectClass, objectToString(object), throwable);
                 // }
@@ -1174,19 +1173,19 @@ public final class Generic {
                     if (exceptionCause instanceof SocketException) {
                         // often setSoLinger is invoked on a closed socket, causing an exception, no output required
                     } else {
-                        logger.error("Exception in setSoLinger invoke getCause: {}", new Object[]{objectClass, objectToString(object)}, invocationTargetException);
+                        logger.error("Exception in setSoLinger invoke getCause: {}", new Object[]{objectClass, lazyObjectToString(object)}, invocationTargetException);
                         logger.error("Exception in setSoLinger invoke getCause (exceptionCause)", exceptionCause);
                     }
                 } catch (SecurityException | IllegalAccessException | IllegalArgumentException exception) {
                     setSoLingerSuccess = false;
-                    logger.error("exception in setSoLinger invoke: {} {}", objectClass, objectToString(object), exception);
+                    logger.error("exception in setSoLinger invoke: {} {}", objectClass, lazyObjectToString(object), exception);
                 } // catch (Throwable throwable) {
                 //     setSoLingerSuccess = false;
                 //     logger.error("Throwable in setSoLinger invoke: {} {}", objectClass, objectToString(object), throwable);
                 // }
             } catch (@SuppressWarnings("OverlyBroadCatchBlock") Exception exception) {
                 setSoLingerSuccess = false;
-                logger.error("STRANGE exception inside setSoLinger: {} {}", objectClass, objectToString(object), exception);
+                logger.error("STRANGE exception inside setSoLinger: {} {}", objectClass, lazyObjectToString(object), exception);
             } // catch (Throwable throwable) {
             //     setSoLingerSuccess = false;
             //     logger.error("STRANGE ERROR inside setSoLinger: {} {}", objectClass, objectToString(object), throwable);
@@ -1277,10 +1276,10 @@ public final class Generic {
                     try {
                         objectCloseMethod = objectClass.getMethod(CLOSE);
                     } catch (NoSuchMethodException | SecurityException exception) {
-                        logger.error("STRANGE ERROR inside closeObject() close inner: {}", new Object[]{objectClass, objectToString(object)}, exception);
+                        logger.error("STRANGE ERROR inside closeObject() close inner: {}", new Object[]{objectClass, lazyObjectToString(object)}, exception);
                     }
                 } catch (SecurityException securityException) {
-                    logger.error("securityException in closeObject close: {} {}", objectClass, objectToString(object), securityException);
+                    logger.error("securityException in closeObject close: {} {}", objectClass, lazyObjectToString(object), securityException);
                 } // catch (Throwable throwable) {
                 //     logger.error("Exception in closeObject close: {} {}", objectClass, objectToString(object), throwable);
                 // }
@@ -1299,12 +1298,12 @@ public final class Generic {
                     if (invokeExceptionExpected) {
                         logger.warn("expected invoke exception inside closeObject() close: {} {}", objectClass, exception);
                     } else {
-                        logger.error("STRANGE ERROR inside closeObject() close: {}", new Object[]{objectClass, objectToString(object)}, exception);
+                        logger.error("STRANGE ERROR inside closeObject() close: {}", new Object[]{objectClass, lazyObjectToString(object)}, exception);
                     }
                     closeSuccess = false;
                 }
             } catch (@SuppressWarnings("OverlyBroadCatchBlock") Exception exception) {
-                logger.error("STRANGE exception inside closeObject: {} {}", objectClass, objectToString(object), exception);
+                logger.error("STRANGE exception inside closeObject: {} {}", objectClass, lazyObjectToString(object), exception);
                 closeSuccess = false;
             } // catch (Throwable throwable) {
             //     logger.error("STRANGE ERROR inside closeObject: {} {}", objectClass, objectToString(object), throwable);
@@ -2585,372 +2584,33 @@ public final class Generic {
     }
 
     @Nullable
-    @SuppressWarnings({"ConstantConditions", "OverlyComplexMethod", "OverlyLongMethod", "OverlyNestedMethod", "NestedTryStatement"})
     public static String objectToString(final Object object, final boolean printDefaultValueFields, final boolean printFinalFields, final boolean useToStringMethod, final int recursionCounter, final String... excludePatterns) {
-        // synchronized on object
+        // not synchronized on object, as it's deadlock prone; it can be added externally
         // has option to use the default toString() method, disabled by default
         // does check to print final type fields
         // does check to print fields with the default value (null, 0, false)
         // has fail-safe against infinite recursion, max 10 levels
         // out of memory protection, max 4Mb
-        @Nullable StringBuilder returnStringBuilder;
-
-        if (recursionCounter > 10) {
-            returnStringBuilder = new StringBuilder("recursionCounter=" + recursionCounter + " is too high!");
-        } else {
-            try {
-                if (object != null) {
-                    final Class<?> objectClass = object.getClass();
-                    @Nullable Method toStringMethod;
-
-                    if (useToStringMethod) {
-                        try {
-                            toStringMethod = objectClass.getDeclaredMethod("toString");
-                            // some default toString methods have undesired print, better leave them unused
-//                            if (!toStringMethod.isAccessible()) {
-//                                toStringMethod.setAccessible(true);
-//                            }
-                        } catch (NoSuchMethodException noSuchMethodException) {
-                            toStringMethod = null;
-                        } catch (SecurityException securityException) {
-                            logger.error("STRANGE securityException inside objectToString getDeclaredMethod: {} {}", objectClass, object, securityException);
-                            toStringMethod = null;
-                        } // catch (Throwable throwable) {
-                        //     logger.error("STRANGE ERROR inside objectToString getDeclaredMethod: {} {}", objectClass, object, throwable);
-                        //     toStringMethod = null;
-                        // }
-                    } else {
-                        toStringMethod = null;
-                    }
+        return ObjectFormatter.format(object, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+    }
 
-                    if (toStringMethod == null || !toStringMethod.canAccess(object)) {
-                        returnStringBuilder = new StringBuilder(32);
-
-                        if (object instanceof TreeItem<?>) {
-                            returnStringBuilder.append(object); // calls toString method, else the TreeItem object is too big and crashes the thread
-                        } else if (object instanceof Collection<?>) {
-                            final Object[] arrayValue = ((Collection<?>) object).toArray(); // never null due to instanceof always being false for null
-                            returnStringBuilder.append(objectToString(arrayValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns));
-                        } else if (object instanceof Map<?, ?>) {
-                            final Object[] arrayValue = ((Map<?, ?>) object).entrySet().toArray(); // never null due to instanceof always being false for null
-                            returnStringBuilder.append(objectToString(arrayValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns));
-                        } else if (object instanceof final Entry<?, ?> entry) {
-                            final Object key = entry.getKey(); // never null due to instanceof always being false for null
-                            final Object value = entry.getValue(); // never null due to instanceof always being false for null
-                            returnStringBuilder.append("(key=").
-                                    append(objectToString(key, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).
-                                                       append(" value=").append(objectToString(value, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).append(") ");
-                        } else if (objectClass.equals(Date.class)) {
-                            final String stringValue = object.toString();
-                            returnStringBuilder.append(stringValue).append(" ");
-                        } else if (objectClass.equals(String.class)) {
-                            final String stringValue = object.toString();
-                            returnStringBuilder.append(stringValue).append(" ");
-                        } else if (objectClass.equals(boolean.class) || objectClass.equals(byte.class) || objectClass.equals(char.class) || objectClass.equals(double.class) ||
-                                   objectClass.equals(float.class) || objectClass.equals(int.class) || objectClass.equals(long.class) || objectClass.equals(short.class)) {
-                            returnStringBuilder.append(object).append(" ");
-                        } else if (objectClass.equals(Boolean.class)) {
-                            final Boolean booleanValue = (Boolean) object;
-                            returnStringBuilder.append(booleanValue.booleanValue()).append(" ");
-                        } else if (objectClass.equals(Byte.class)) {
-                            final Byte byteValue = (Byte) object;
-                            returnStringBuilder.append(byteValue.byteValue()).append(" ");
-                        } else if (objectClass.equals(Double.class)) {
-                            final Double doubleValue = (Double) object;
-                            returnStringBuilder.append(doubleValue.doubleValue()).append(" ");
-                        } else if (objectClass.equals(Float.class)) {
-                            final Float floatValue = (Float) object;
-                            returnStringBuilder.append(floatValue.floatValue()).append(" ");
-                        } else if (objectClass.equals(Integer.class)) {
-                            final Integer integerValue = (Integer) object;
-                            returnStringBuilder.append(integerValue.intValue()).append(" ");
-                        } else if (objectClass.equals(Long.class)) {
-                            final Long longValue = (Long) object;
-                            returnStringBuilder.append(longValue.longValue()).append(" ");
-                        } else if (objectClass.equals(Short.class)) {
-                            final Short shortValue = (Short) object;
-                            returnStringBuilder.append(shortValue.shortValue()).append(" ");
-                        } else {
-                            if (objectClass.equals(char[].class)) {
-                                returnStringBuilder.append((char[]) object).append(" ");
-                            } else if (objectClass.equals(byte[].class)) {
-                                returnStringBuilder.append(new String((byte[]) object, StandardCharsets.US_ASCII)).append(" ");
-                            } else if (objectClass.equals(boolean[].class)) {
-                                returnStringBuilder.append(Arrays.toString((boolean[]) object)).append(" ");
-                            } else if (objectClass.equals(double[].class)) {
-                                returnStringBuilder.append(Arrays.toString((double[]) object)).append(" ");
-                            } else if (objectClass.equals(float[].class)) {
-                                returnStringBuilder.append(Arrays.toString((float[]) object)).append(" ");
-                            } else if (objectClass.equals(int[].class)) {
-                                returnStringBuilder.append(Arrays.toString((int[]) object)).append(" ");
-                            } else if (objectClass.equals(long[].class)) {
-                                returnStringBuilder.append(Arrays.toString((long[]) object)).append(" ");
-                            } else if (objectClass.equals(short[].class)) {
-                                returnStringBuilder.append(Arrays.toString((short[]) object)).append(" ");
-                            } else if (objectClass.isArray()) {
-                                returnStringBuilder.append("[");
-
-                                final Object[] objectArray = (Object[]) object;
-                                int appendedCounter = 0;
-                                for (final Object o : objectArray) {
-                                    if (o != null) {
-                                        if (appendedCounter > 0) {
-                                            returnStringBuilder.append(", ");
-                                        }
-                                        returnStringBuilder.append(objectToString(o, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns));
-                                        appendedCounter++;
-                                    }
-                                }
-                                returnStringBuilder.append("] ");
-                            } else if (object instanceof Enum<?>) {
-                                final String name = ((Enum<?>) object).name(); // never null due to instanceof always being false for null
-                                returnStringBuilder.append(name).append(" ");
-                            } else if (object instanceof Class<?>) {
-                                final String name = ((Class<?>) object).getName(); // never null due to instanceof always being false for null
-                                returnStringBuilder.append(name).append(" ");
-                            } else { // regular object
-                                returnStringBuilder.append("(");
-
-                                final List<Class<?>> classList = new ArrayList<>(2);
-                                Class<?> localClass = objectClass;
-                                do {
-                                    classList.add(localClass);
-                                    localClass = localClass.getSuperclass();
-                                } while (localClass != null && localClass != Object.class);
-
-                                for (int counter = classList.size() - 1; counter >= 0; counter--) {
-                                    final Class<?> clazz = classList.get(counter);
-                                    final Field[] fieldsArray = clazz.getDeclaredFields();
-
-                                    // synchronized (object) {
-                                    // synchronization removed as it's deadlock prone; it can be added externally
-                                    for (final Field field : fieldsArray) {
-                                        field.trySetAccessible();
-
-                                        final Class<?> fieldClass = field.getType();
-                                        final String fieldName = field.getName();
-                                        final int fieldModifiers = field.getModifiers();
-
-                                        boolean excludeField = false;
-                                        if (excludePatterns != null && excludePatterns.length > 0) {
-                                            for (final String excludePattern : excludePatterns) {
-                                                if (fieldName.contains(excludePattern)) {
-                                                    excludeField = true;
-                                                    break;
-                                                }
-                                            } // end for
-                                        } else { // no excludePatterns
-                                        }
-
-                                        if (excludeField || field.isSynthetic() ||
-                                            ((Modifier.isTransient(fieldModifiers) || Modifier.isStatic(fieldModifiers) || fieldName.contains("$") || "logger".equals(fieldName)) &&
-                                             Modifier.isFinal(fieldModifiers))) {
-                                            // no need to print these fields
-                                        } else if (printFinalFields || !Modifier.isFinal(fieldModifiers)) {
-                                            if (Collection.class.isAssignableFrom(fieldClass)) {
-                                                final Object objectValue = field.get(object);
-                                                final Object[] arrayValue = objectValue == null ? null : ((Collection<?>) objectValue).toArray();
-                                                returnStringBuilder.append(fieldName).append("=").
-                                                        append(objectToString(arrayValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).append(" ");
-                                            } else if (Map.class.isAssignableFrom(fieldClass)) {
-                                                final Object objectValue = field.get(object);
-                                                final Object[] arrayValue = objectValue == null ? null : ((Map<?, ?>) objectValue).entrySet().toArray();
-                                                returnStringBuilder.append(fieldName).append("=").
-                                                        append(objectToString(arrayValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).append(" ");
-                                            } else if (Entry.class.isAssignableFrom(fieldClass)) {
-                                                final Entry<?, ?> entry = (Entry<?, ?>) field.get(object);
-                                                final Object key = entry == null ? null : entry.getKey();
-                                                final Object value = entry == null ? null : entry.getValue();
-                                                returnStringBuilder.append(fieldName).append("=(key=").
-                                                        append(objectToString(key, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).append(" value=").
-                                                                           append(objectToString(value, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).append(") ");
-                                            } else if (fieldClass.equals(String.class)) {
-                                                final Object objectValue = field.get(object);
-                                                final String stringValue = objectValue == null ? null : objectValue.toString();
-                                                if (printDefaultValueFields || stringValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(stringValue).append(" ");
-                                                } else { // !printDefaultValueFields && stringValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Date.class)) {
-                                                final Object objectValue = field.get(object);
-                                                final String stringValue = objectValue == null ? null : objectValue.toString();
-                                                if (printDefaultValueFields || stringValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(stringValue).append(" ");
-                                                } else { // !printDefaultValueFields && stringValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(boolean.class)) {
-                                                final boolean booleanValue = field.getBoolean(object);
-                                                if (printDefaultValueFields || booleanValue) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(booleanValue).append(" ");
-                                                } else { // !printDefaultValueFields && !booleanValue , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(byte.class)) {
-                                                final byte byteValue = field.getByte(object);
-                                                if (printDefaultValueFields || byteValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(byteValue).append(" ");
-                                                } else { // !printDefaultValueFields && byteValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(char.class)) {
-                                                final char charValue = field.getChar(object);
-                                                if (printDefaultValueFields || charValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(charValue).append(" ");
-                                                } else { // !printDefaultValueFields && charValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(double.class)) {
-                                                final double doubleValue = field.getDouble(object);
-                                                if (printDefaultValueFields || doubleValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(doubleValue).append(" ");
-                                                } else { // !printDefaultValueFields && doubleValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(float.class)) {
-                                                final float floatValue = field.getFloat(object);
-                                                if (printDefaultValueFields || floatValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(floatValue).append(" ");
-                                                } else { // !printDefaultValueFields && floatValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(int.class)) {
-                                                final int intValue = field.getInt(object);
-                                                if (printDefaultValueFields || intValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(intValue).append(" ");
-                                                } else { // !printDefaultValueFields && intValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(long.class)) {
-                                                final long longValue = field.getLong(object);
-                                                if (printDefaultValueFields || longValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(longValue).append(" ");
-                                                } else { // !printDefaultValueFields && longValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(short.class)) {
-                                                final short shortValue = field.getShort(object);
-                                                if (printDefaultValueFields || shortValue != 0) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(shortValue).append(" ");
-                                                } else { // !printDefaultValueFields && shortValue == 0 , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Boolean.class)) {
-                                                final Boolean booleanValue = (Boolean) field.get(object);
-                                                if (printDefaultValueFields || booleanValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(booleanValue).append(" ");
-                                                } else { // !printDefaultValueFields && booleanValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Byte.class)) {
-                                                final Byte byteValue = (Byte) field.get(object);
-                                                if (printDefaultValueFields || byteValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(byteValue).append(" ");
-                                                } else { // !printDefaultValueFields && byteValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Double.class)) {
-                                                final Double doubleValue = (Double) field.get(object);
-                                                if (printDefaultValueFields || doubleValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(doubleValue).append(" ");
-                                                } else { // !printDefaultValueFields && doubleValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Float.class)) {
-                                                final Float floatValue = (Float) field.get(object);
-                                                if (printDefaultValueFields || floatValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(floatValue).append(" ");
-                                                } else { // !printDefaultValueFields && floatValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Integer.class)) {
-                                                final Integer integerValue = (Integer) field.get(object);
-                                                if (printDefaultValueFields || integerValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(integerValue).append(" ");
-                                                } else { // !printDefaultValueFields && integerValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Long.class)) {
-                                                final Long longValue = (Long) field.get(object);
-                                                if (printDefaultValueFields || longValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(longValue).append(" ");
-                                                } else { // !printDefaultValueFields && longValue == null , this won't be printed
-                                                }
-                                            } else if (fieldClass.equals(Short.class)) {
-                                                final Short shortValue = (Short) field.get(object);
-                                                if (printDefaultValueFields || shortValue != null) {
-                                                    returnStringBuilder.append(fieldName).append("=").append(shortValue).append(" ");
-                                                } else { // !printDefaultValueFields && shortValue == null , this won't be printed
-                                                }
-                                            } else {
-                                                Object objectValue = field.get(object);
-                                                if (objectValue == object) {
-                                                    objectValue = "SAME OBJECT"; // avoid infinite recursion
-                                                }
-                                                if (printDefaultValueFields || objectValue != null) {
-                                                    if (fieldClass.equals(char[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append((char[]) objectValue).append(" ");
-                                                    } else if (fieldClass.equals(byte[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(objectValue == null ? null : new String((byte[]) objectValue, StandardCharsets.US_ASCII)).append(" ");
-                                                    } else if (fieldClass.equals(boolean[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(Arrays.toString((boolean[]) objectValue)).append(" ");
-                                                    } else if (fieldClass.equals(double[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(Arrays.toString((double[]) objectValue)).append(" ");
-                                                    } else if (fieldClass.equals(float[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(Arrays.toString((float[]) objectValue)).append(" ");
-                                                    } else if (fieldClass.equals(int[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(Arrays.toString((int[]) objectValue)).append(" ");
-                                                    } else if (fieldClass.equals(long[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(Arrays.toString((long[]) objectValue)).append(" ");
-                                                    } else if (fieldClass.equals(short[].class)) {
-                                                        returnStringBuilder.append(fieldName).append("=").append(Arrays.toString((short[]) objectValue)).append(" ");
-                                                    } else if (fieldClass.isArray()) {
-                                                        returnStringBuilder.append(fieldName).append("[");
-
-                                                        final Object[] objectArray = (Object[]) objectValue;
-                                                        final int objectArrayLength = objectArray == null ? -1 : objectArray.length;
-                                                        int appendedCounter = 0;
-                                                        for (int i = 0; i < objectArrayLength; i++) {
-                                                            if (objectArray[i] != null) {
-                                                                if (appendedCounter > 0) {
-                                                                    returnStringBuilder.append(", ");
-                                                                }
-                                                                returnStringBuilder.append(objectToString(objectArray[i], printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns));
-                                                                appendedCounter++;
-                                                            }
-                                                        }
-                                                        returnStringBuilder.append("] ");
-                                                    } else {
-                                                        returnStringBuilder.append(fieldName).append("=").
-                                                                append(objectToString(objectValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter + 1, excludePatterns)).append(" ");
-                                                    }
-                                                } else { // !printDefaultValueFields && objectValue == null , this won't be printed
-                                                }
-                                            } // end else
-                                        } else { // !printFinalFields && Modifier.isFinal(fieldModifiers , this won't be printed
-                                        }
-                                    } // end for
-                                } // end for
-                                // } // end synchronized block    
-                                final int length = returnStringBuilder.length();
-                                if (length > 0 && returnStringBuilder.charAt(length - 1) == ' ') {
-                                    returnStringBuilder.setLength(length - 1);
-                                }
-                                returnStringBuilder.append(")");
-                            } // end else regular object
-                        } // end else
+    // for logger arguments: objectToString only runs if the message is built, not for disabled levels
+    @NotNull
+    @Contract(value = "_ -> new", pure = true)
+    public static LazyObjectString lazyObjectToString(final Object object) {
+        return new LazyObjectString(object, true);
+    }
 
-                        // returnStringBuilder = new StringBuilder(returnStringBuilder.toString().trim());
-                        // I trim in the end, as I return the value
-                    } else {
-                        // this is supposedly already synchronized on object in the classes I create
-                        returnStringBuilder = new StringBuilder((String) toStringMethod.invoke(object));
-                    }
-                } else { // object == null
-                    returnStringBuilder = null;
-                }
-            } catch (SecurityException | IllegalArgumentException | IllegalAccessException | InvocationTargetException exception) {
-                logger.error("STRANGE ERROR inside objectToString: {}", new Object[]{object.getClass(), object}, exception);
-                returnStringBuilder = null;
-            }
-        }
-        if (returnStringBuilder != null) {
-            // out of memory protection
-            final int returnStringBuilderLength = returnStringBuilder.length();
-            if (returnStringBuilderLength > 4194304) {
-                // logger.error("objectTooLarge: {}", returnStringBuilder.toString()); // printing this would fill the HDD fairly fast in case of error
-                returnStringBuilder = new StringBuilder("returnStringBuilderLength=" + returnStringBuilderLength + " would lead to out of memory error!");
-            }
-        }
+    @NotNull
+    @Contract(value = "_, _ -> new", pure = true)
+    public static LazyObjectString lazyObjectToString(final Object object, final boolean printDefaultValueFields) {
+        return new LazyObjectString(object, printDefaultValueFields);
+    }
 
-        final String returnValue = returnStringBuilder == null ? null : returnStringBuilder.toString().trim();
-        return removeNewLine(returnValue); // I'll keep all in one line
+    @NotNull
+    @Contract(value = "_, _ -> new", pure = true)
+    public static LazyObjectString lazyObjectToString(final Object object, final String... excludePatterns) {
+        return new LazyObjectString(object, true, excludePatterns);
     }
 
     public static String removeNewLine(final String initialString) {
@@ -2990,7 +2650,7 @@ public final class Generic {
 
             // create new array of required class
             if (clazz == null) {
-                logger.error("null clazz in arrayMerge for: {}", objectToString(arrays));
+                logger.error("null clazz in arrayMerge for: {}", lazyObjectToString(arrays));
                 mergedArray = null;
             } else {
                 mergedArray = (T[]) Array.newInstance(clazz, count);
@@ -3273,7 +2933,7 @@ public final class Generic {
         } else if (totalSleepMillis <= 0L) { // this is actually acceptable, it just won't sleep at all
             hasReachedEndOfSleep = true;
         } else { // negative or zero segmentMillis
-            logger.error("negative or zero segmentMillis in threadSleepSegmented for: {} {} {}", totalSleepMillis, segmentMillis, objectToString(objects));
+            logger.error("negative or zero segmentMillis in threadSleepSegmented for: {} {} {}", totalSleepMillis, segmentMillis, lazyObjectToString(objects));
             hasReachedEndOfSleep = false;
         }
 
@@ -178,7 +178,7 @@ public class Ignorable
     public synchronized int updateIgnorable(final Ignorable ignorable) {
         int modified;
         if (this == ignorable) {
-            logger.error("update from same object in Ignorable.updateIgnorable: {}", Generic.objectToString(this));
+            logger.error("update from same object in Ignorable.updateIgnorable: {}", Generic.lazyObjectToString(this));
             modified = 0;
         } else {
             modified = 0; // initialized
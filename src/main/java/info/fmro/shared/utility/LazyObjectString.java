@@ -0,0 +1,31 @@
+package info.fmro.shared.utility;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Generic.objectToString deferred to toString, so a logger argument is only walked when the message is built; the result is kept for appenders asking again
+public final class LazyObjectString {
+    private final Object object;
+    private final boolean printDefaultValueFields;
+    @Nullable
+    private final String[] excludePatterns;
+    @Nullable
+    private String formatted;
+
+    LazyObjectString(final Object object, final boolean printDefaultValueFields, @Nullable final String... excludePatterns) {
+        this.object = object;
+        this.printDefaultValueFields = printDefaultValueFields;
+        this.excludePatterns = excludePatterns;
+    }
+
+    @NotNull
+    @Override
+    public synchronized String toString() {
+        if (this.formatted == null) {
+            final String result = this.excludePatterns == null ? Generic.objectToString(this.object, this.printDefaultValueFields) : Generic.objectToString(this.object, this.printDefaultValueFields, true, true, 0, this.excludePatterns);
+            this.formatted = String.valueOf(result); // "null", like a null logger argument
+        } else { // already formatted
+        }
+        return this.formatted;
+    }
+}
@@ -0,0 +1,366 @@
+package info.fmro.shared.utility;
+
+import javafx.scene.control.TreeItem;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+// the reflective walk behind Generic.objectToString; the fields and the declared toString method of each class are resolved once, then reused from a ClassValue
+// everything is appended to one buffer that stops growing at MAX_LENGTH, instead of every level building its own string and the size being checked at the end
+@SuppressWarnings("UtilityClass")
+final class ObjectFormatter {
+    private static final Logger logger = LoggerFactory.getLogger(ObjectFormatter.class);
+    static final int MAX_LENGTH = 4_194_304; // out of memory protection
+    private static final int MAX_RECURSION = 10;
+    private static final ClassValue<ClassInfo> classInfos = new ClassValue<>() {
+        @NotNull
+        @Override
+        protected ClassInfo computeValue(@NotNull final Class<?> type) {
+            return new ClassInfo(type);
+        }
+    };
+
+    @Contract(pure = true)
+    private ObjectFormatter() {
+    }
+
+    private static final class ClassInfo {
+        @Nullable
+        private final Method toStringMethod; // only a toString declared by the class itself
+        private final Field[] fields; // superclass fields first, the ones that are never printed already left out
+
+        private ClassInfo(@NotNull final Class<?> objectClass) {
+            @Nullable Method method;
+            try {
+                method = objectClass.getDeclaredMethod("toString");
+            } catch (NoSuchMethodException noSuchMethodException) {
+                method = null;
+            } catch (SecurityException securityException) {
+                logger.error("STRANGE securityException inside objectToString getDeclaredMethod: {}", objectClass, securityException);
+                method = null;
+            }
+            this.toStringMethod = method;
+
+            final List<Class<?>> classList = new ArrayList<>(2);
+            Class<?> localClass = objectClass;
+            do {
+                classList.add(localClass);
+                localClass = localClass.getSuperclass();
+            } while (localClass != null && localClass != Object.class);
+
+            final List<Field> fieldList = new ArrayList<>(8);
+            for (int counter = classList.size() - 1; counter >= 0; counter--) {
+                for (final Field field : classList.get(counter).getDeclaredFields()) {
+                    final int fieldModifiers = field.getModifiers();
+                    final String fieldName = field.getName();
+                    if (field.isSynthetic() || ((Modifier.isTransient(fieldModifiers) || Modifier.isStatic(fieldModifiers) || fieldName.contains("$") || "logger".equals(fieldName)) && Modifier.isFinal(fieldModifiers))) {
+                        // no need to print these fields
+                    } else {
+                        field.trySetAccessible(); // if it fails, the field access throws and the object is formatted as null, same as before the cache
+                        fieldList.add(field);
+                    }
+                }
+            }
+            this.fields = fieldList.toArray(new Field[0]);
+        }
+    }
+
+    private static final class Sink { // StringBuilder that ignores what doesn't fit in MAX_LENGTH, remembering that it's full
+        private final StringBuilder builder = new StringBuilder(32);
+        private boolean full;
+
+        private Sink append(@Nullable final String value) {
+            if (this.full) { // nothing is added anymore
+            } else {
+                final String string = String.valueOf(value);
+                final int room = MAX_LENGTH - this.builder.length();
+                if (string.length() > room) {
+                    this.builder.append(string, 0, room);
+                    this.full = true;
+                } else {
+                    this.builder.append(string);
+                }
+            }
+            return this;
+        }
+
+        private Sink append(@Nullable final char[] value) {
+            if (value == null) {
+                append((String) null);
+            } else if (this.full) { // nothing is added anymore
+            } else {
+                final int room = MAX_LENGTH - this.builder.length();
+                if (value.length > room) {
+                    this.builder.append(value, 0, room);
+                    this.full = true;
+                } else {
+                    this.builder.append(value);
+                }
+            }
+            return this;
+        }
+
+        private Sink append(final Object value) {
+            return append(String.valueOf(value));
+        }
+
+        private Sink appendPrimitiveArray(@Nullable final Object array) { // same text as Arrays.toString, without building it first
+            if (array == null) {
+                append((String) null);
+            } else {
+                append("[");
+                final int length = Array.getLength(array);
+                for (int i = 0; i < length && !this.full; i++) {
+                    if (i > 0) {
+                        append(", ");
+                    }
+                    append(String.valueOf(Array.get(array, i)));
+                }
+                append("]");
+            }
+            return this;
+        }
+
+        private int length() {
+            return this.builder.length();
+        }
+
+        private void setLength(final int length) {
+            this.builder.setLength(length);
+        }
+
+        private void trimFrom(final int start) { // same as String.trim, for the part added after start
+            int end = this.builder.length();
+            while (end > start && this.builder.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            this.builder.setLength(end);
+            int firstKept = start;
+            while (firstKept < end && this.builder.charAt(firstKept) <= ' ') {
+                firstKept++;
+            }
+            this.builder.delete(start, firstKept);
+        }
+
+        private void removeLastSpace() {
+            final int length = this.builder.length();
+            if (length > 0 && this.builder.charAt(length - 1) == ' ') {
+                this.builder.setLength(length - 1);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.builder.toString();
+        }
+    }
+
+    @Nullable
+    static String format(final Object object, final boolean printDefaultValueFields, final boolean printFinalFields, final boolean useToStringMethod, final int recursionCounter, final String... excludePatterns) {
+        final Sink sink = new Sink();
+        final boolean notNull = append(sink, object, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+        final String returnValue;
+        if (!notNull) {
+            returnValue = null;
+        } else if (sink.full) {
+            returnValue = "returnStringBuilderLength>" + MAX_LENGTH + " would lead to out of memory error!"; // printing the content would fill the HDD fairly fast in case of error
+        } else {
+            returnValue = sink.toString().trim();
+        }
+        return Generic.removeNewLine(returnValue); // I'll keep all in one line
+    }
+
+    private static void appendNested(@NotNull final Sink sink, final Object object, final boolean printDefaultValueFields, final boolean printFinalFields, final boolean useToStringMethod, final int recursionCounter, final String... excludePatterns) {
+        // what appending the objectToString of a nested object used to produce: the trimmed value, or "null"
+        final int start = sink.length();
+        if (append(sink, object, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns)) {
+            sink.trimFrom(start);
+        } else {
+            sink.setLength(start);
+            sink.append((String) null);
+        }
+    }
+
+    @SuppressWarnings({"OverlyComplexMethod", "OverlyLongMethod", "ChainOfInstanceofChecks"})
+    private static boolean append(@NotNull final Sink sink, final Object object, final boolean printDefaultValueFields, final boolean printFinalFields, final boolean useToStringMethod, final int recursionCounter, final String... excludePatterns) {
+        // returns false if the result is null: null object or an error
+        boolean notNull = true;
+        if (recursionCounter > MAX_RECURSION) {
+            sink.append("recursionCounter=").append(recursionCounter).append(" is too high!");
+        } else if (object == null) {
+            notNull = false;
+        } else {
+            try {
+                final Class<?> objectClass = object.getClass();
+                final ClassInfo classInfo = classInfos.get(objectClass);
+                @Nullable final Method toStringMethod = useToStringMethod ? classInfo.toStringMethod : null;
+                final int nextCounter = recursionCounter + 1;
+
+                if (toStringMethod != null && toStringMethod.canAccess(object)) {
+                    // this is supposedly already synchronized on object in the classes I create
+                    sink.append((String) toStringMethod.invoke(object));
+                } else if (object instanceof TreeItem<?>) {
+                    sink.append(object); // calls toString method, else the TreeItem object is too big and crashes the thread
+                } else if (object instanceof Collection<?>) {
+                    appendNested(sink, ((Collection<?>) object).toArray(), printDefaultValueFields, printFinalFields, useToStringMethod, nextCounter, excludePatterns);
+                } else if (object instanceof Map<?, ?>) {
+                    appendNested(sink, ((Map<?, ?>) object).entrySet().toArray(), printDefaultValueFields, printFinalFields, useToStringMethod, nextCounter, excludePatterns);
+                } else if (object instanceof final Entry<?, ?> entry) {
+                    sink.append("(key=");
+                    appendNested(sink, entry.getKey(), printDefaultValueFields, printFinalFields, useToStringMethod, nextCounter, excludePatterns);
+                    sink.append(" value=");
+                    appendNested(sink, entry.getValue(), printDefaultValueFields, printFinalFields, useToStringMethod, nextCounter, excludePatterns);
+                    sink.append(") ");
+                } else if (objectClass.equals(Date.class) || objectClass.equals(String.class) || objectClass.equals(Boolean.class) || objectClass.equals(Byte.class) || objectClass.equals(Double.class) ||
+                           objectClass.equals(Float.class) || objectClass.equals(Integer.class) || objectClass.equals(Long.class) || objectClass.equals(Short.class)) {
+                    sink.append(object).append(" ");
+                } else if (objectClass.equals(char[].class)) {
+                    sink.append((char[]) object).append(" ");
+                } else if (objectClass.equals(byte[].class)) {
+                    sink.append(new String((byte[]) object, StandardCharsets.US_ASCII)).append(" ");
+                } else if (objectClass.isArray() && objectClass.getComponentType().isPrimitive()) {
+                    sink.appendPrimitiveArray(object).append(" ");
+                } else if (objectClass.isArray()) {
+                    sink.append("[");
+                    appendElements(sink, (Object[]) object, printDefaultValueFields, printFinalFields, useToStringMethod, nextCounter, excludePatterns);
+                    sink.append("] ");
+                } else if (object instanceof Enum<?>) {
+                    sink.append(((Enum<?>) object).name()).append(" ");
+                } else if (object instanceof Class<?>) {
+                    sink.append(((Class<?>) object).getName()).append(" ");
+                } else { // regular object
+                    sink.append("(");
+                    // synchronization removed as it's deadlock prone; it can be added externally
+                    for (final Field field : classInfo.fields) {
+                        if (sink.full) {
+                            break;
+                        } else if (isExcluded(field.getName(), excludePatterns) || (!printFinalFields && Modifier.isFinal(field.getModifiers()))) { // this won't be printed
+                        } else {
+                            appendField(sink, object, field, printDefaultValueFields, printFinalFields, useToStringMethod, nextCounter, excludePatterns);
+                        }
+                    }
+                    sink.removeLastSpace();
+                    sink.append(")");
+                }
+            } catch (SecurityException | IllegalArgumentException | IllegalAccessException | InvocationTargetException exception) {
+                logger.error("STRANGE ERROR inside objectToString: {}", new Object[]{object.getClass(), object}, exception);
+                notNull = false;
+            }
+        }
+        return notNull;
+    }
+
+    private static void appendElements(@NotNull final Sink sink, @Nullable final Object[] objectArray, final boolean printDefaultValueFields, final boolean printFinalFields, final boolean useToStringMethod, final int recursionCounter,
+                                       final String... excludePatterns) {
+        if (objectArray == null) { // nothing to append
+        } else {
+            int appendedCounter = 0;
+            for (final Object element : objectArray) {
+                if (sink.full) {
+                    break;
+                } else if (element == null) { // null elements are not printed
+                } else {
+                    if (appendedCounter > 0) {
+                        sink.append(", ");
+                    }
+                    appendNested(sink, element, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+                    appendedCounter++;
+                }
+            }
+        }
+    }
+
+    @Contract(pure = true)
+    private static boolean isExcluded(@NotNull final String fieldName, final String... excludePatterns) {
+        boolean excludeField = false;
+        if (excludePatterns != null) {
+            for (final String excludePattern : excludePatterns) {
+                if (fieldName.contains(excludePattern)) {
+                    excludeField = true;
+                    break;
+                }
+            }
+        } else { // no excludePatterns
+        }
+        return excludeField;
+    }
+
+    @SuppressWarnings({"OverlyComplexMethod", "OverlyLongMethod"})
+    private static void appendField(@NotNull final Sink sink, final Object object, @NotNull final Field field, final boolean printDefaultValueFields, final boolean printFinalFields, final boolean useToStringMethod, final int recursionCounter,
+                                    final String... excludePatterns)
+            throws IllegalAccessException {
+        final Class<?> fieldClass = field.getType();
+        final String fieldName = field.getName();
+        if (Collection.class.isAssignableFrom(fieldClass)) {
+            final Object objectValue = field.get(object);
+            sink.append(fieldName).append("=");
+            appendNested(sink, objectValue == null ? null : ((Collection<?>) objectValue).toArray(), printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+            sink.append(" ");
+        } else if (Map.class.isAssignableFrom(fieldClass)) {
+            final Object objectValue = field.get(object);
+            sink.append(fieldName).append("=");
+            appendNested(sink, objectValue == null ? null : ((Map<?, ?>) objectValue).entrySet().toArray(), printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+            sink.append(" ");
+        } else if (Entry.class.isAssignableFrom(fieldClass)) {
+            final Entry<?, ?> entry = (Entry<?, ?>) field.get(object);
+            sink.append(fieldName).append("=(key=");
+            appendNested(sink, entry == null ? null : entry.getKey(), printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+            sink.append(" value=");
+            appendNested(sink, entry == null ? null : entry.getValue(), printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+            sink.append(") ");
+        } else if (fieldClass.isPrimitive()) {
+            final Object primitiveValue = field.get(object); // boxed, prints the same as the primitive
+            final boolean isDefault = primitiveValue instanceof Boolean ? !(Boolean) primitiveValue :
+                                      primitiveValue instanceof Character ? (Character) primitiveValue == 0 : ((Number) primitiveValue).doubleValue() == 0;
+            if (printDefaultValueFields || !isDefault) {
+                sink.append(fieldName).append("=").append(primitiveValue).append(" ");
+            } else { // !printDefaultValueFields && default value, this won't be printed
+            }
+        } else if (fieldClass.equals(String.class) || fieldClass.equals(Date.class) || fieldClass.equals(Boolean.class) || fieldClass.equals(Byte.class) || fieldClass.equals(Double.class) || fieldClass.equals(Float.class) ||
+                   fieldClass.equals(Integer.class) || fieldClass.equals(Long.class) || fieldClass.equals(Short.class)) {
+            final Object objectValue = field.get(object);
+            if (printDefaultValueFields || objectValue != null) {
+                sink.append(fieldName).append("=").append(objectValue).append(" ");
+            } else { // !printDefaultValueFields && objectValue == null , this won't be printed
+            }
+        } else {
+            Object objectValue = field.get(object);
+            if (objectValue == object) {
+                objectValue = "SAME OBJECT"; // avoid infinite recursion
+            }
+            if (printDefaultValueFields || objectValue != null) {
+                if (fieldClass.equals(char[].class)) {
+                    sink.append(fieldName).append("=").append((char[]) objectValue).append(" ");
+                } else if (fieldClass.equals(byte[].class)) {
+                    sink.append(fieldName).append("=").append(objectValue == null ? null : new String((byte[]) objectValue, StandardCharsets.US_ASCII)).append(" ");
+                } else if (fieldClass.isArray() && fieldClass.getComponentType().isPrimitive()) {
+                    sink.append(fieldName).append("=").appendPrimitiveArray(objectValue).append(" ");
+                } else if (fieldClass.isArray()) {
+                    sink.append(fieldName).append("[");
+                    appendElements(sink, (Object[]) objectValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+                    sink.append("] ");
+                } else {
+                    sink.append(fieldName).append("=");
+                    appendNested(sink, objectValue, printDefaultValueFields, printFinalFields, useToStringMethod, recursionCounter, excludePatterns);
+                    sink.append(" ");
+                }
+            } else { // !printDefaultValueFields && objectValue == null , this won't be printed
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package info.fmro.shared.utility;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+// versioned binary snapshot file, used instead of one big java serialization for the caches that need to be loaded quickly after a restart
+// file: header (magic, format version), then sections appended one by one, then an end marker; the whole file is loaded with FileChannel.map
+// section: name, schema version of the payload, compression, raw length, stored length, crc32c of the stored bytes, stored bytes
+// the payload of each section is written by its owner class with the static helpers below, and read back from a ByteBuffer, in big endian order
+public final class SnapshotFile {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotFile.class);
+    public static final int MAGIC = 0x42534E50; // "BSNP"
+    public static final short FORMAT_VERSION = 1;
+    public static final byte COMPRESSION_NONE = 0, COMPRESSION_DEFLATE = 1; // lz4 is not among the dependencies; other codecs can be added as new values
+    private static final byte SECTION_MARKER = 1, END_MARKER = 0;
+    private static final int NULL_LENGTH = -1;
+
+    @Contract(pure = true)
+    private SnapshotFile() {
+    }
+
+    @FunctionalInterface
+    public interface SectionWriter {
+        void write(@NotNull DataOutputStream dataOutputStream)
+                throws IOException;
+    }
+
+    // sections are written to a temporary file as soon as they're ready; commit renames it over the final file, so a crash during writing leaves the old snapshot intact
+    public static final class Writer {
+        private final Path path, tempPath;
+        private final FileChannel fileChannel;
+        private boolean finished;
+
+        public Writer(@NotNull final String fileName)
+                throws IOException {
+            this.path = Path.of(fileName);
+            this.tempPath = Path.of(Generic.tempFileName(fileName));
+            this.fileChannel = FileChannel.open(this.tempPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Short.BYTES);
+            header.putInt(MAGIC).putShort(FORMAT_VERSION).flip();
+            writeFully(header);
+        }
+
+        public synchronized boolean writeSection(@NotNull final String name, final int schemaVersion, final boolean compressed, @NotNull final SectionWriter sectionWriter) {
+            boolean success;
+            if (this.finished) {
+                logger.error("writeSection called on finished snapshot writer: {} {}", this.path, name);
+                success = false;
+            } else {
+                try {
+                    final ByteArrayOutputStream rawStream = new ByteArrayOutputStream(1 << 12);
+                    final DataOutputStream dataOutputStream = new DataOutputStream(rawStream);
+                    sectionWriter.write(dataOutputStream);
+                    dataOutputStream.flush();
+                    final byte[] rawBytes = rawStream.toByteArray();
+                    final byte[] storedBytes = compressed ? deflate(rawBytes) : rawBytes;
+                    final CRC32C crc = new CRC32C();
+                    crc.update(storedBytes);
+
+                    final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+                    final ByteBuffer header = ByteBuffer.allocate(1 + Integer.BYTES + nameBytes.length + Integer.BYTES + 1 + Integer.BYTES + Integer.BYTES + Long.BYTES);
+                    header.put(SECTION_MARKER).putInt(nameBytes.length).put(nameBytes).putInt(schemaVersion).put(compressed ? COMPRESSION_DEFLATE : COMPRESSION_NONE).putInt(rawBytes.length).putInt(storedBytes.length).putLong(crc.getValue()).flip();
+                    writeFully(header);
+                    writeFully(ByteBuffer.wrap(storedBytes));
+                    success = true;
+                } catch (IOException iOException) {
+                    logger.error("iOException in SnapshotFile.writeSection: {} {}", this.path, name, iOException);
+                    success = false;
+                }
+            }
+            return success;
+        }
+
+        public synchronized boolean writeSerializableSection(@NotNull final String name, @NotNull final Serializable object, final boolean compressed) { // for the object graphs without a binary schema
+            return writeSection(name, 0, compressed, dataOutputStream -> {
+                final ObjectOutputStream objectOutputStream = new ObjectOutputStream(dataOutputStream);
+                objectOutputStream.writeObject(object);
+                objectOutputStream.flush();
+            });
+        }
+
+        public synchronized boolean commit() {
+            boolean success;
+            if (this.finished) {
+                logger.error("commit called on finished snapshot writer: {}", this.path);
+                success = false;
+            } else {
+                this.finished = true;
+                try {
+                    writeFully(ByteBuffer.wrap(new byte[]{END_MARKER}));
+                    this.fileChannel.force(true);
+                    this.fileChannel.close();
+                    Files.move(this.tempPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    success = true;
+                } catch (IOException iOException) {
+                    logger.error("iOException in SnapshotFile.commit: {}", this.path, iOException);
+                    abort();
+                    success = false;
+                }
+            }
+            return success;
+        }
+
+        public synchronized void abort() { // drops the temporary file, the previous snapshot stays in place
+            this.finished = true;
+            Generic.closeObjects(this.fileChannel);
+            try {
+                Files.deleteIfExists(this.tempPath);
+            } catch (IOException iOException) {
+                logger.error("iOException in SnapshotFile.abort: {}", this.tempPath, iOException);
+            }
+        }
+
+        private void writeFully(@NotNull final ByteBuffer byteBuffer)
+                throws IOException {
+            while (byteBuffer.hasRemaining()) {
+                this.fileChannel.write(byteBuffer);
+            }
+        }
+    }
+
+    public static final class Section {
+        private final String name;
+        private final int schemaVersion;
+        private final ByteBuffer payload; // read only; slice of the mapped file, or the inflated bytes
+
+        private Section(final String name, final int schemaVersion, final ByteBuffer payload) {
+            this.name = name;
+            this.schemaVersion = schemaVersion;
+            this.payload = payload;
+        }
+
+        @Contract(pure = true)
+        public String getName() {
+            return this.name;
+        }
+
+        @Contract(pure = true)
+        public int getSchemaVersion() {
+            return this.schemaVersion;
+        }
+
+        @NotNull
+        public ByteBuffer getPayload() { // new buffer each time, positioned at the start of the payload
+            return this.payload.duplicate();
+        }
+
+        @Nullable
+        public Object readSerializable() {
+            @Nullable Object object;
+            final ByteBuffer byteBuffer = getPayload();
+            final byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.get(bytes);
+            try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                object = objectInputStream.readObject();
+            } catch (IOException | ClassNotFoundException exception) {
+                logger.error("exception in Section.readSerializable: {}", this.name, exception);
+                object = null;
+            }
+            return object;
+        }
+    }
+
+    @Nullable
+    public static LinkedHashMap<String, Section> read(final String fileName) { // null if the file is missing or damaged; a damaged section invalidates the whole file
+        @Nullable LinkedHashMap<String, Section> sections;
+        if (fileName == null) {
+            logger.error("null fileName in SnapshotFile.read");
+            sections = null;
+        } else if (new File(fileName).exists()) {
+            try (final FileChannel fileChannel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+                final MappedByteBuffer mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0L, fileChannel.size());
+                sections = readSections(mappedByteBuffer, fileName);
+            } catch (IOException iOException) {
+                logger.error("iOException in SnapshotFile.read: {}", fileName, iOException);
+                sections = null;
+            }
+        } else {
+            logger.warn("Can't read snapshot, file {} does not exist!", fileName);
+            sections = null;
+        }
+        return sections;
+    }
+
+    @Nullable
+    private static LinkedHashMap<String, Section> readSections(@NotNull final ByteBuffer byteBuffer, final String fileName) {
+        @Nullable LinkedHashMap<String, Section> sections = new LinkedHashMap<>(8);
+        try {
+            final int magic = byteBuffer.getInt();
+            final short formatVersion = byteBuffer.getShort();
+            if (magic != MAGIC || formatVersion != FORMAT_VERSION) {
+                logger.error("wrong header in snapshot file {}: {} {}", fileName, magic, formatVersion);
+                sections = null;
+            } else {
+                byte marker = byteBuffer.get();
+                while (marker == SECTION_MARKER && sections != null) {
+                    final String name = readString(byteBuffer);
+                    final int schemaVersion = byteBuffer.getInt();
+                    final byte compression = byteBuffer.get();
+                    final int rawLength = byteBuffer.getInt(), storedLength = byteBuffer.getInt();
+                    final long storedCrc = byteBuffer.getLong();
+                    final ByteBuffer stored = byteBuffer.slice(byteBuffer.position(), storedLength);
+                    byteBuffer.position(byteBuffer.position() + storedLength);
+
+                    final CRC32C crc = new CRC32C();
+                    crc.update(stored.duplicate());
+                    if (crc.getValue() != storedCrc) {
+                        logger.error("wrong checksum for section {} in snapshot file {}: {} {}", name, fileName, crc.getValue(), storedCrc);
+                        sections = null;
+                    } else if (compression == COMPRESSION_NONE) {
+                        sections.put(name, new Section(name, schemaVersion, stored.asReadOnlyBuffer()));
+                    } else if (compression == COMPRESSION_DEFLATE) {
+                        sections.put(name, new Section(name, schemaVersion, ByteBuffer.wrap(inflate(stored, rawLength)).asReadOnlyBuffer()));
+                    } else {
+                        logger.error("unknown compression {} for section {} in snapshot file {}", compression, name, fileName);
+                        sections = null;
+                    }
+                    marker = sections == null ? END_MARKER : byteBuffer.get();
+                }
+                if (marker != END_MARKER) {
+                    logger.error("unknown marker {} in snapshot file {}", marker, fileName);
+                    sections = null;
+                } else { // normal end of file, or error already logged
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | DataFormatException exception) { // truncated or damaged file
+            logger.error("damaged snapshot file {}", fileName, exception);
+            sections = null;
+        }
+        return sections;
+    }
+
+    @NotNull
+    private static byte[] deflate(@NotNull final byte[] rawBytes)
+            throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(Math.max(rawBytes.length >> 2, 64));
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (final DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(byteArrayOutputStream, deflater)) {
+            deflaterOutputStream.write(rawBytes);
+        } finally {
+            deflater.end();
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @NotNull
+    private static byte[] inflate(@NotNull final ByteBuffer stored, final int rawLength)
+            throws DataFormatException {
+        final byte[] rawBytes = new byte[rawLength];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored.duplicate());
+            int nInflated = 0;
+            while (nInflated < rawLength && !inflater.finished()) {
+                final int nBytes = inflater.inflate(rawBytes, nInflated, rawLength - nInflated);
+                if (nBytes == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated deflate stream");
+                } else { // progress, or more output pending
+                }
+                nInflated += nBytes;
+            }
+            if (nInflated != rawLength) {
+                throw new DataFormatException("inflated length " + nInflated + " different from " + rawLength);
+            } else { // expected length
+            }
+        } finally {
+            inflater.end();
+        }
+        return rawBytes;
+    }
+
+    // payload helpers; nullable values are written with a presence flag or a negative length
+
+    public static void writeString(@NotNull final DataOutput dataOutput, @Nullable final String string)
+            throws IOException {
+        if (string == null) {
+            dataOutput.writeInt(NULL_LENGTH);
+        } else {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            dataOutput.writeInt(bytes.length);
+            dataOutput.write(bytes);
+        }
+    }
+
+    @Nullable
+    public static String readString(@NotNull final ByteBuffer byteBuffer) {
+        final int length = byteBuffer.getInt();
+        @Nullable final String string;
+        if (length == NULL_LENGTH) {
+            string = null;
+        } else {
+            final byte[] bytes = new byte[length];
+            byteBuffer.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return string;
+    }
+
+    public static void writeNullableDouble(@NotNull final DataOutput dataOutput, @Nullable final Double value)
+            throws IOException {
+        dataOutput.writeBoolean(value != null);
+        if (value != null) {
+            dataOutput.writeDouble(value);
+        } else { // only the flag is written
+        }
+    }
+
+    @Nullable
+    public static Double readNullableDouble(@NotNull final ByteBuffer byteBuffer) {
+        return byteBuffer.get() == 0 ? null : byteBuffer.getDouble();
+    }
+
+    public static void writeNullableLong(@NotNull final DataOutput dataOutput, @Nullable final Long value)
+            throws IOException {
+        dataOutput.writeBoolean(value != null);
+        if (value != null) {
+            dataOutput.writeLong(value);
+        } else { // only the flag is written
+        }
+    }
+
+    @Nullable
+    public static Long readNullableLong(@NotNull final ByteBuffer byteBuffer) {
+        return byteBuffer.get() == 0 ? null : byteBuffer.getLong();
+    }
+
+    public static void writeNullableDate(@NotNull final DataOutput dataOutput, @Nullable final Date date)
+            throws IOException {
+        dataOutput.writeBoolean(date != null);
+        if (date != null) {
+            dataOutput.writeLong(date.getTime());
+        } else { // only the flag is written
+        }
+    }
+
+    @Nullable
+    public static Date readNullableDate(@NotNull final ByteBuffer byteBuffer) {
+        return byteBuffer.get() == 0 ? null : new Date(byteBuffer.getLong());
+    }
+
+    public static void writeEnum(@NotNull final DataOutput dataOutput, @Nullable final Enum<?> value) // by name, so reordering the constants doesn't break old snapshots
+            throws IOException {
+        writeString(dataOutput, value == null ? null : value.name());
+    }
+
+    @Nullable
+    public static <E extends Enum<E>> E readEnum(@NotNull final ByteBuffer byteBuffer, @NotNull final Class<E> enumClass) {
+        final String name = readString(byteBuffer);
+        @Nullable E value;
+        if (name == null) {
+            value = null;
+        } else {
+            try {
+                value = Enum.valueOf(enumClass, name);
+            } catch (IllegalArgumentException illegalArgumentException) {
+                logger.error("unknown {} value in snapshot: {}", enumClass.getSimpleName(), name, illegalArgumentException);
+                value = null;
+            }
+        }
+        return value;
+    }
+
+    public static void writeSerializable(@NotNull final DataOutput dataOutput, @Nullable final Serializable object) // length prefixed java serialization, for the nested objects without a binary schema
+            throws IOException {
+        if (object == null) {
+            dataOutput.writeInt(NULL_LENGTH);
+        } else {
+            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1 << 10);
+            try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+                objectOutputStream.writeObject(object);
+            }
+            dataOutput.writeInt(byteArrayOutputStream.size());
+            dataOutput.write(byteArrayOutputStream.toByteArray());
+        }
+    }
+
+    @Nullable
+    public static Object readSerializable(@NotNull final ByteBuffer byteBuffer) {
+        final int length = byteBuffer.getInt();
+        @Nullable Object object;
+        if (length == NULL_LENGTH) {
+            object = null;
+        } else {
+            final byte[] bytes = new byte[length];
+            byteBuffer.get(bytes);
+            try (final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                object = objectInputStream.readObject();
+            } catch (IOException | ClassNotFoundException exception) {
+                logger.error("exception in SnapshotFile.readSerializable", exception);
+                object = null;
+            }
+        }
+        return object;
+    }
+}
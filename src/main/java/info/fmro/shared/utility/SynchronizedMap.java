@@ -144,7 +144,7 @@ public class SynchronizedMap<K, V>
             if (Long.class.equals(valueClass)) { // method allowed for this class
             } else {
                 final Class<?> keyClass = key == null ? null : key.getClass();
-                logger.error("Synchronized map put used, but putIfAbsent is advisable, as it gives more control: {} {} {} {}", keyClass, valueClass, Generic.objectToString(key), Generic.objectToString(value));
+                logger.error("Synchronized map put used, but putIfAbsent is advisable, as it gives more control: {} {} {} {}", keyClass, valueClass, Generic.lazyObjectToString(key), Generic.lazyObjectToString(value));
             }
         }
         return this.map.put(key, value);
@@ -82,7 +82,7 @@ public class SynchronizedReader {
         } catch (java.io.UnsupportedEncodingException unsupportedEncodingException) {
             logger.error("UnsupportedEncodingException in SynchronizedReader.initialize (file): {}", charset, unsupportedEncodingException);
         } catch (FileNotFoundException e) {
-            logger.error("FileNotFoundException in SynchronizedReader.initialize3 : {} {} {}", Generic.objectToString(file), charset, bufferSize, e);
+            logger.error("FileNotFoundException in SynchronizedReader.initialize3 : {} {} {}", Generic.lazyObjectToString(file), charset, bufferSize, e);
         }
     }
 
@@ -95,7 +95,7 @@ public class SynchronizedReader {
             this.inputStreamReader = new InputStreamReader(this.bufferedInputStream, charset);
             this.bufferedReader = new BufferedReader(this.inputStreamReader, bufferSize);
         } catch (FileNotFoundException e) {
-            logger.error("FileNotFoundException in SynchronizedReader.initialize4 : {} {} {}", Generic.objectToString(file), charset, bufferSize, e);
+            logger.error("FileNotFoundException in SynchronizedReader.initialize4 : {} {} {}", Generic.lazyObjectToString(file), charset, bufferSize, e);
         }
     }
 
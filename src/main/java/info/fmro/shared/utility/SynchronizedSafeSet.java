@@ -45,7 +45,7 @@ public class SynchronizedSafeSet<E extends SafeObjectInterface>
 
         if (isAdded) {
             if (element == null) {
-                logger.error("have added null element in SynchronizedSafeSet: {}", Generic.objectToString(this));
+                logger.error("have added null element in SynchronizedSafeSet: {}", Generic.lazyObjectToString(this));
             } else {
                 element.runAfterAdd();
             }
@@ -88,7 +88,7 @@ public class SynchronizedSafeSet<E extends SafeObjectInterface>
             //noinspection unchecked
             existingElement = object != null ? this.getEqualElement((E) object) : null;
         } catch (ClassCastException classCastException) {
-            logger.error("existingElement not the right class in SynchronizedSafeSet.remove: {} {} {}", object.getClass(), Generic.objectToString(object), Generic.objectToString(this));
+            logger.error("existingElement not the right class in SynchronizedSafeSet.remove: {} {} {}", object.getClass(), Generic.lazyObjectToString(object), Generic.lazyObjectToString(this));
             existingElement = null;
         }
 
@@ -100,7 +100,7 @@ public class SynchronizedSafeSet<E extends SafeObjectInterface>
             } else {
                 if (object == null) { // normal behavior, nothing to be done
                 } else {
-                    logger.error("existingElement null and removed object not null in SynchronizedSafeSet.remove: {}", Generic.objectToString(object));
+                    logger.error("existingElement null and removed object not null in SynchronizedSafeSet.remove: {}", Generic.lazyObjectToString(object));
                 }
             }
         } else { // nothing removed, nothing to be done
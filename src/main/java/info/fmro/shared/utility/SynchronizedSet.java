@@ -45,13 +45,13 @@ public class SynchronizedSet<E>
     public synchronized boolean copyFrom(final SynchronizedSet<? extends E> other) { // doesn't copy static final or transient; does update the set
         final boolean readSuccessful;
         if (!this.set.isEmpty()) {
-            logger.error("not empty set in SynchronizedSet copyFrom: {}", Generic.objectToString(this)); // this error might not be fatal, read can still be successful
+            logger.error("not empty set in SynchronizedSet copyFrom: {}", Generic.lazyObjectToString(this)); // this error might not be fatal, read can still be successful
         }
         if (other == null) {
-            logger.error("null other in copyFrom for: {}", Generic.objectToString(this));
+            logger.error("null other in copyFrom for: {}", Generic.lazyObjectToString(this));
             readSuccessful = false;
         } else if (other.set == null) {
-            logger.error("null other.set in copyFrom for: {}", Generic.objectToString(other));
+            logger.error("null other.set in copyFrom for: {}", Generic.lazyObjectToString(other));
             readSuccessful = false;
         } else {
 //            Generic.updateObject(this, other);
@@ -95,7 +95,7 @@ public class SynchronizedSet<E>
     public synchronized E getEqualElement(final E elementToFind) {
         @Nullable E returnValue = null;
         if (this.set == null) {
-            logger.error("null set in getEqualElement for: {} {}", elementToFind, Generic.objectToString(this));
+            logger.error("null set in getEqualElement for: {} {}", elementToFind, Generic.lazyObjectToString(this));
             returnValue = null;
         } else {
             for (final E existingElement : this.set) {
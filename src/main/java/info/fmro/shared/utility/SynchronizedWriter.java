@@ -1,7 +1,9 @@
 package info.fmro.shared.utility;
 
+import info.fmro.shared.enums.WriterDurability;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,12 +14,15 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 
+// in asynchronous mode, created with openAsynchronous, write and writeAndFlush only queue the record for the AsyncFileWriter thread, so the callers never wait for the disk
 @SuppressWarnings("ClassWithTooManyConstructors")
 public class SynchronizedWriter {
     private static final Logger logger = LoggerFactory.getLogger(SynchronizedWriter.class);
     private static final String DEFAULT_CHARSET = Generic.UTF8_CHARSET;
     private static final int DEFAULT_BUFFER_SIZE = 32 << 10; // 32 * 1024
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 200L;
     private int encryptionKey;
     private String charsetName, id;
     private File file;
@@ -25,38 +30,77 @@ public class SynchronizedWriter {
     private OutputStreamWriter outputStreamWriter;
     private BufferedOutputStream bufferedOutputStream;
     private FileOutputStream fileOutputStream;
+    @Nullable
+    private final AsyncFileWriter asyncFileWriter; // null in the default, synchronous, mode
 
     @SuppressWarnings("WeakerAccess")
     public SynchronizedWriter(final String fileName, final boolean append, final String charsetName, final int bufferSize, final String id)
             throws java.io.FileNotFoundException {
+        this.asyncFileWriter = null;
         this.initialize(fileName, append, Charset.forName(charsetName), bufferSize, id);
     }
 
     public SynchronizedWriter(final String fileName, final boolean append, final String charsetName, final int bufferSize)
             throws java.io.FileNotFoundException {
+        this.asyncFileWriter = null;
         this.initialize(fileName, append, Charset.forName(charsetName), bufferSize, fileName);
     }
 
     public SynchronizedWriter(final String fileName, final boolean append, final String id)
             throws java.io.FileNotFoundException {
+        this.asyncFileWriter = null;
         this.initialize(fileName, append, DEFAULT_CHARSET, DEFAULT_BUFFER_SIZE, id);
     }
 
     public SynchronizedWriter(final String fileName, final boolean append)
             throws java.io.FileNotFoundException {
+        this.asyncFileWriter = null;
         this.initialize(fileName, append, DEFAULT_CHARSET, DEFAULT_BUFFER_SIZE, fileName);
     }
 
     public SynchronizedWriter(final File file, final boolean append)
             throws java.io.FileNotFoundException {
+        this.asyncFileWriter = null;
         this.initialize(file, append, DEFAULT_CHARSET, DEFAULT_BUFFER_SIZE, file.getPath());
     }
 
     @Contract(pure = true)
     public SynchronizedWriter(final int encryptionKey) {
+        this.asyncFileWriter = null;
         this.encryptionKey = encryptionKey;
     }
 
+    private SynchronizedWriter(@NotNull final AsyncFileWriter asyncFileWriter, final String fileName, final String charsetName, final String id) {
+        this.asyncFileWriter = asyncFileWriter;
+        this.file = new File(fileName);
+        this.charsetName = charsetName;
+        this.id = id;
+    }
+
+    @Nullable
+    public static SynchronizedWriter openAsynchronous(final String fileName, final boolean append, final String id) { // null on error
+        return openAsynchronous(fileName, append, id, DEFAULT_BUFFER_SIZE, DEFAULT_COMMIT_INTERVAL_MILLIS, WriterDurability.FLUSH, 0L, 0L, false);
+    }
+
+    @Nullable
+    public static SynchronizedWriter openAsynchronous(final String fileName, final boolean append, final String id, final int bufferSize, final long commitIntervalMillis, @NotNull final WriterDurability durability, final long rotationBytes,
+                                                      final long rotationIntervalMillis, final boolean compressRotated) { // null on error; rotationBytes and rotationIntervalMillis 0 for no rotation
+        @Nullable SynchronizedWriter synchronizedWriter;
+        try {
+            final AsyncFileWriter asyncFileWriter = new AsyncFileWriter(Path.of(fileName), append, Charset.forName(DEFAULT_CHARSET), bufferSize, commitIntervalMillis, durability, rotationBytes, rotationIntervalMillis, compressRotated, "asyncWriter-" + id);
+            synchronizedWriter = new SynchronizedWriter(asyncFileWriter, fileName, DEFAULT_CHARSET, id);
+        } catch (IOException iOException) {
+            logger.error("iOException in SynchronizedWriter.openAsynchronous: {}", fileName, iOException);
+            synchronizedWriter = null;
+        }
+        return synchronizedWriter;
+    }
+
+    @Contract(pure = true)
+    public boolean isAsynchronous() {
+        return this.asyncFileWriter != null;
+    }
+
     @SuppressWarnings("ParameterHidesMemberVariable")
     private synchronized void initialize(final String fileName, final boolean append, final String charsetName, final int bufferSize, final String id)
             throws java.io.FileNotFoundException {
@@ -113,51 +157,63 @@ public class SynchronizedWriter {
     @SuppressWarnings("ParameterHidesMemberVariable")
     public synchronized void initialize(final File file, final boolean append, @NotNull final Charset charset, final int bufferSize, final String id)
             throws java.io.FileNotFoundException {
-        this.close();
-
-        this.file = new File(file, "");
-        this.id = id;
-        this.charsetName = charset.name();
-        this.fileOutputStream = new FileOutputStream(this.file, append);
-        this.bufferedOutputStream = new BufferedOutputStream(this.fileOutputStream, bufferSize);
-        this.outputStreamWriter = new OutputStreamWriter(this.bufferedOutputStream, charset);
-        this.bufferedWriter = new BufferedWriter(this.outputStreamWriter, bufferSize);
+        if (this.asyncFileWriter != null) { // the writer thread owns the file
+            logger.error("initialize not supported in asynchronous mode for: {}", this.id);
+        } else {
+            this.close();
+
+            this.file = new File(file, "");
+            this.id = id;
+            this.charsetName = charset.name();
+            this.fileOutputStream = new FileOutputStream(this.file, append);
+            this.bufferedOutputStream = new BufferedOutputStream(this.fileOutputStream, bufferSize);
+            this.outputStreamWriter = new OutputStreamWriter(this.bufferedOutputStream, charset);
+            this.bufferedWriter = new BufferedWriter(this.outputStreamWriter, bufferSize);
+        }
     }
 
     public synchronized void initialize(final String fileName, final boolean append)
             throws java.io.FileNotFoundException {
-        this.close();
-
-        this.file = new File(fileName);
-        this.id = fileName;
-        this.charsetName = DEFAULT_CHARSET;
-
-        try {
-            this.fileOutputStream = new FileOutputStream(this.file, append);
-            this.bufferedOutputStream = new BufferedOutputStream(this.fileOutputStream, DEFAULT_BUFFER_SIZE);
-            this.outputStreamWriter = new OutputStreamWriter(this.bufferedOutputStream, this.charsetName);
-            this.bufferedWriter = new BufferedWriter(this.outputStreamWriter, DEFAULT_BUFFER_SIZE);
-        } catch (java.io.UnsupportedEncodingException unsupportedEncodingException) {
-            logger.error("UnsupportedEncodingException in SynchronizedWriter.initialize: {}", this.charsetName, unsupportedEncodingException);
+        if (this.asyncFileWriter != null) { // the writer thread owns the file
+            logger.error("initialize not supported in asynchronous mode for: {}", this.id);
+        } else {
+            this.close();
+
+            this.file = new File(fileName);
+            this.id = fileName;
+            this.charsetName = DEFAULT_CHARSET;
+
+            try {
+                this.fileOutputStream = new FileOutputStream(this.file, append);
+                this.bufferedOutputStream = new BufferedOutputStream(this.fileOutputStream, DEFAULT_BUFFER_SIZE);
+                this.outputStreamWriter = new OutputStreamWriter(this.bufferedOutputStream, this.charsetName);
+                this.bufferedWriter = new BufferedWriter(this.outputStreamWriter, DEFAULT_BUFFER_SIZE);
+            } catch (java.io.UnsupportedEncodingException unsupportedEncodingException) {
+                logger.error("UnsupportedEncodingException in SynchronizedWriter.initialize: {}", this.charsetName, unsupportedEncodingException);
+            }
         }
     }
 
     @SuppressWarnings("ParameterHidesMemberVariable")
     public synchronized void initialize(final String fileName, final boolean append, final String charsetName)
             throws java.io.FileNotFoundException {
-        this.close();
-
-        this.file = new File(fileName);
-        this.id = fileName;
-        this.charsetName = charsetName;
-
-        try {
-            this.fileOutputStream = new FileOutputStream(this.file, append);
-            this.bufferedOutputStream = new BufferedOutputStream(this.fileOutputStream, DEFAULT_BUFFER_SIZE);
-            this.outputStreamWriter = new OutputStreamWriter(this.bufferedOutputStream, this.charsetName);
-            this.bufferedWriter = new BufferedWriter(this.outputStreamWriter, DEFAULT_BUFFER_SIZE);
-        } catch (java.io.UnsupportedEncodingException unsupportedEncodingException) {
-            logger.error("UnsupportedEncodingException in SynchronizedWriter.initialize: {}", this.charsetName, unsupportedEncodingException);
+        if (this.asyncFileWriter != null) { // the writer thread owns the file
+            logger.error("initialize not supported in asynchronous mode for: {}", this.id);
+        } else {
+            this.close();
+
+            this.file = new File(fileName);
+            this.id = fileName;
+            this.charsetName = charsetName;
+
+            try {
+                this.fileOutputStream = new FileOutputStream(this.file, append);
+                this.bufferedOutputStream = new BufferedOutputStream(this.fileOutputStream, DEFAULT_BUFFER_SIZE);
+                this.outputStreamWriter = new OutputStreamWriter(this.bufferedOutputStream, this.charsetName);
+                this.bufferedWriter = new BufferedWriter(this.outputStreamWriter, DEFAULT_BUFFER_SIZE);
+            } catch (java.io.UnsupportedEncodingException unsupportedEncodingException) {
+                logger.error("UnsupportedEncodingException in SynchronizedWriter.initialize: {}", this.charsetName, unsupportedEncodingException);
+            }
         }
     }
 
@@ -177,24 +233,44 @@ public class SynchronizedWriter {
         return this.file != null ? this.file.getUsableSpace() : 0L;
     }
 
-    public synchronized boolean writeAndFlush(final String writeString) {
+    public boolean writeAndFlush(final String writeString) {
+        final boolean success;
+        if (this.asyncFileWriter == null) {
+            success = synchronousWriteAndFlush(writeString);
+        } else {
+            success = this.asyncFileWriter.append(writeString, true);
+        }
+        return success;
+    }
+
+    private synchronized boolean synchronousWriteAndFlush(final String writeString) {
         boolean success;
 
 //        if (this.encryptionKey != 0) {
 //            writeString = Generic.encryptString(writeString, this.encryptionKey);
 //        }
-        success = this.write(writeString);
+        success = this.synchronousWrite(writeString);
         if (success) {
-            success = this.flush();
+            success = this.synchronousFlush();
         }
         return success;
     }
 
-    public synchronized boolean write(final String writeString, final int encryption) {
+    public boolean write(final String writeString, final int encryption) {
         return this.write(Generic.encryptString(writeString, encryption));
     }
 
-    public synchronized boolean write(final String writeString) {
+    public boolean write(final String writeString) {
+        final boolean success;
+        if (this.asyncFileWriter == null) {
+            success = synchronousWrite(writeString);
+        } else {
+            success = this.asyncFileWriter.append(writeString, false);
+        }
+        return success;
+    }
+
+    private synchronized boolean synchronousWrite(final String writeString) {
         boolean success;
         final String toBeWritten = this.encryptionKey == 0 ? writeString : Generic.encryptString(writeString, this.encryptionKey);
 
@@ -208,7 +284,18 @@ public class SynchronizedWriter {
         return success;
     }
 
-    public synchronized boolean flush() {
+    public boolean flush() { // in asynchronous mode only a request, the commit is done by the writer thread
+        final boolean success;
+        if (this.asyncFileWriter == null) {
+            success = synchronousFlush();
+        } else {
+            this.asyncFileWriter.requestFlush();
+            success = true;
+        }
+        return success;
+    }
+
+    private synchronized boolean synchronousFlush() {
         boolean success;
 
         try {
@@ -225,7 +312,11 @@ public class SynchronizedWriter {
         return success;
     }
 
-    public synchronized boolean[] close() {
+    public boolean[] close() { // in asynchronous mode, waits for the queued records to be written
+        return this.asyncFileWriter == null ? synchronousClose() : new boolean[]{this.asyncFileWriter.close()};
+    }
+
+    private synchronized boolean[] synchronousClose() {
         return Generic.closeObjects(this.bufferedWriter, this.outputStreamWriter, this.bufferedOutputStream, this.fileOutputStream);
     }
 }
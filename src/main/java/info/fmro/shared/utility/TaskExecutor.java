@@ -0,0 +1,191 @@
+package info.fmro.shared.utility;
+
+import info.fmro.shared.enums.TaskClass;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.EnumMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// runs tasks on a pluggable executor, a platform thread pool or, on jdk 21+, a virtual thread per task; the concurrency of each TaskClass is bounded by its own semaphore
+// the limit is applied before the delegate: tasks wait in the queue of their TaskClass and are handed to the delegate only with a permit, released when the task ends, so a waiting task never holds a pool thread
+// with virtual threads the limits can be raised with setMaxConcurrency, as a task blocked on http costs almost nothing
+// queue time, from submit until the task starts running (including the wait for a permit), and run time are measured per TaskClass
+public class TaskExecutor
+        implements Executor {
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutor.class);
+    private volatile Executor delegate;
+    private final EnumMap<TaskClass, Semaphore> semaphores = new EnumMap<>(TaskClass.class); // replaced, never modified, when the max concurrency changes
+    private final EnumMap<TaskClass, ConcurrentLinkedQueue<QueuedTask>> queues = new EnumMap<>(TaskClass.class); // tasks waiting for a permit, oldest first
+    private final EnumMap<TaskClass, TaskMetrics> metrics = new EnumMap<>(TaskClass.class);
+
+    public record TaskStats(long nSubmitted, long nCompleted, long nRejected, int nRunning, double averageQueueMillis, double maxQueueMillis, double averageRunMillis, double maxRunMillis) {
+    }
+
+    private record QueuedTask(@NotNull Runnable task, long submitTime) {
+    }
+
+    private static final class TaskMetrics {
+        private final LongAdder nSubmitted = new LongAdder(), nCompleted = new LongAdder(), nRejected = new LongAdder(), totalQueueNanos = new LongAdder(), totalRunNanos = new LongAdder();
+        private final AtomicLong maxQueueNanos = new AtomicLong(), maxRunNanos = new AtomicLong();
+        private final AtomicInteger nRunning = new AtomicInteger();
+
+        private void started(final long queueNanos) {
+            this.nRunning.incrementAndGet();
+            this.totalQueueNanos.add(queueNanos);
+            this.maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+        }
+
+        private void finished(final long runNanos) {
+            this.nRunning.decrementAndGet();
+            this.nCompleted.increment();
+            this.totalRunNanos.add(runNanos);
+            this.maxRunNanos.accumulateAndGet(runNanos, Math::max);
+        }
+
+        @NotNull
+        private TaskStats getStats() {
+            final long completed = this.nCompleted.sum(), running = this.nRunning.get(), started = completed + running;
+            return new TaskStats(this.nSubmitted.sum(), completed, this.nRejected.sum(), (int) running, started == 0L ? 0d : nanosToMillis(this.totalQueueNanos.sum()) / started, nanosToMillis(this.maxQueueNanos.get()),
+                                 completed == 0L ? 0d : nanosToMillis(this.totalRunNanos.sum()) / completed, nanosToMillis(this.maxRunNanos.get()));
+        }
+    }
+
+    public TaskExecutor(@NotNull final Executor delegate) {
+        this.delegate = delegate;
+        for (final TaskClass taskClass : TaskClass.values()) {
+            this.semaphores.put(taskClass, new Semaphore(taskClass.getDefaultMaxConcurrency()));
+            this.queues.put(taskClass, new ConcurrentLinkedQueue<>());
+            this.metrics.put(taskClass, new TaskMetrics());
+        }
+    }
+
+    @Nullable
+    public static ExecutorService createVirtualThreadExecutor() { // null before jdk 21; looked up by reflection, so the code still builds and runs on older jdks
+        @Nullable ExecutorService executorService;
+        try {
+            executorService = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException noSuchMethodException) {
+            logger.info("virtual threads not available on java {}", Runtime.version());
+            executorService = null;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            logger.error("exception in createVirtualThreadExecutor", e);
+            executorService = null;
+        }
+        return executorService;
+    }
+
+    public boolean useVirtualThreads() { // the previous delegate is not shut down, as it may be shared
+        final ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        final boolean success;
+        if (virtualThreadExecutor == null) {
+            success = false;
+        } else {
+            setDelegate(virtualThreadExecutor);
+            success = true;
+        }
+        return success;
+    }
+
+    @Contract(pure = true)
+    public Executor getDelegate() {
+        return this.delegate;
+    }
+
+    public void setDelegate(@NotNull final Executor newDelegate) {
+        this.delegate = newDelegate;
+    }
+
+    public void setMaxConcurrency(@NotNull final TaskClass taskClass, final int maxConcurrency) { // tasks already holding permits release them to the old semaphore
+        if (maxConcurrency > 0) {
+            synchronized (this) {
+                this.semaphores.put(taskClass, new Semaphore(maxConcurrency));
+            }
+            submitQueued(taskClass); // queued tasks can use the new permits
+        } else {
+            logger.error("wrong maxConcurrency {} in setMaxConcurrency for: {}", maxConcurrency, taskClass);
+        }
+    }
+
+    @NotNull
+    private synchronized Semaphore getSemaphore(@NotNull final TaskClass taskClass) {
+        return this.semaphores.get(taskClass);
+    }
+
+    @NotNull
+    public TaskStats getStats(@NotNull final TaskClass taskClass) {
+        return this.metrics.get(taskClass).getStats();
+    }
+
+    @NotNull
+    public Executor forClass(@NotNull final TaskClass taskClass) {
+        return task -> execute(taskClass, task);
+    }
+
+    @Override
+    public void execute(@NotNull final Runnable task) {
+        execute(TaskClass.GENERAL, task);
+    }
+
+    public void execute(@NotNull final TaskClass taskClass, @NotNull final Runnable task) { // never blocks, the task is queued until a permit is available
+        this.metrics.get(taskClass).nSubmitted.increment();
+        this.queues.get(taskClass).offer(new QueuedTask(task, System.nanoTime()));
+        submitQueued(taskClass);
+    }
+
+    private void submitQueued(@NotNull final TaskClass taskClass) { // hands queued tasks to the delegate while permits are available
+        final ConcurrentLinkedQueue<QueuedTask> queue = this.queues.get(taskClass);
+        final TaskMetrics taskMetrics = this.metrics.get(taskClass);
+        // a task queued after the isEmpty check is submitted by its own execute call, or by the task that releases the permit, which checks the queue after the release
+        while (!queue.isEmpty()) {
+            final Semaphore semaphore = getSemaphore(taskClass);
+            if (semaphore.tryAcquire()) {
+                final QueuedTask queuedTask = queue.poll();
+                if (queuedTask == null) { // taken by another thread
+                    semaphore.release();
+                } else {
+                    try {
+                        this.delegate.execute(() -> runTask(taskClass, queuedTask, semaphore, taskMetrics));
+                    } catch (RejectedExecutionException rejectedExecutionException) {
+                        semaphore.release();
+                        taskMetrics.nRejected.increment();
+                        logger.error("task rejected in TaskExecutor for: {}", taskClass, rejectedExecutionException);
+                    }
+                }
+            } else { // all permits in use, a running task will submit the queue when it ends
+                break;
+            }
+        }
+    }
+
+    private void runTask(@NotNull final TaskClass taskClass, @NotNull final QueuedTask queuedTask, @NotNull final Semaphore semaphore, @NotNull final TaskMetrics taskMetrics) {
+        final long startTime = System.nanoTime();
+        taskMetrics.started(startTime - queuedTask.submitTime());
+        try {
+            queuedTask.task().run();
+        } catch (RuntimeException runtimeException) {
+            logger.error("exception in {} task", taskClass, runtimeException);
+        } finally {
+            taskMetrics.finished(System.nanoTime() - startTime);
+            semaphore.release();
+            submitQueued(taskClass);
+        }
+    }
+
+    private static double nanosToMillis(final long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1L);
+    }
+}
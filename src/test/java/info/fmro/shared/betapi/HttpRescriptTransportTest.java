@@ -0,0 +1,67 @@
+package info.fmro.shared.betapi;
+
+import com.sun.net.httpserver.HttpServer;
+import info.fmro.shared.objects.SharedStatics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HttpRescriptTransportTest {
+    @Test
+    void requestsAreSentAndHandled()
+            throws IOException, ExecutionException, InterruptedException {
+        final Map<String, String> receivedRequests = new ConcurrentHashMap<>(4);
+        final HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/", exchange -> {
+            final String path = exchange.getRequestURI().getPath();
+            receivedRequests.put(path, exchange.getRequestHeaders().getFirst("X-Application") + " " + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            final byte[] body;
+            if (path.startsWith("/account/")) { // compressed response
+                final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                try (final OutputStream outputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+                    outputStream.write("{\"availableToBetBalance\":10.0}".getBytes(StandardCharsets.UTF_8));
+                }
+                body = byteArrayOutputStream.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            } else {
+                body = ("{\"operation\":\"" + path + "\"}").getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(path.contains("unavailable") ? 503 : 200, body.length);
+            try (final OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        httpServer.start();
+        final String previousAppKey = SharedStatics.appKey.getAndSet("testAppKey");
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final String address = "http://127.0.0.1:" + httpServer.getAddress().getPort();
+            final HttpRescriptTransport transport = new HttpRescriptTransport(address + "/betting/", address + "/account/", 5_000L);
+
+            assertEquals("{\"operation\":\"/betting/listMarketBook/\"}", transport.send("{\"id\":1}", "listMarketBook", new RescriptResponseHandler()), "send");
+            assertEquals("testAppKey {\"id\":1}", receivedRequests.get("/betting/listMarketBook/"), "request");
+            assertEquals("{\"operation\":\"/betting/placeOrders/\"}", transport.sendAsync("{\"id\":2}", "placeOrders", new RescriptResponseHandler(), executor).get(), "sendAsync");
+            assertEquals("{\"availableToBetBalance\":10.0}", transport.send("{\"id\":3}", "getAccountFunds", new RescriptAccountResponseHandler()), "account, gzip");
+            assertNull(transport.send("{\"id\":4}", "unavailable", new RescriptResponseHandler()), "error status");
+        } finally {
+            SharedStatics.appKey.set(previousAppKey);
+            executor.shutdown();
+            httpServer.stop(0);
+        }
+    }
+}
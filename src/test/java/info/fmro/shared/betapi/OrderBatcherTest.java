@@ -0,0 +1,117 @@
+package info.fmro.shared.betapi;
+
+import info.fmro.shared.entities.CancelInstruction;
+import info.fmro.shared.entities.PlaceExecutionReport;
+import info.fmro.shared.entities.PlaceInstruction;
+import info.fmro.shared.logic.BetFrequencyLimit;
+import info.fmro.shared.objects.TemporaryOrder;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.stream.objects.RunnerId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBatcherTest {
+    private static final List<String> requests = Collections.synchronizedList(new ArrayList<>(4));
+
+    @SuppressWarnings({"unused", "SameReturnValue"})
+    static String sendPostRequestRescript(final String requestString, final String operationString, final RescriptResponseHandler rescriptResponseHandler) { // stands in for the http request
+        requests.add(operationString + " " + requestString);
+        final StringBuilder response = new StringBuilder("{\"status\":\"SUCCESS\",\"instructionReports\":[");
+        final int nInstructions = requestString.split("\"betId\"", -1).length - 1;
+        for (int i = 0; i < nInstructions; i++) {
+            response.append(i == 0 ? "" : ",").append("{\"status\":\"SUCCESS\",\"sizeCancelled\":2.0}");
+        }
+        return response.append("]}").toString();
+    }
+
+    private static TemporaryOrder getCancelOrder(final String marketId, final String betId) {
+        return new TemporaryOrder(marketId, new RunnerId(1L, null), Side.B, 2d, 2d, betId, null, false, "test");
+    }
+
+    private static CancelInstruction getCancelInstruction(final String betId) {
+        final CancelInstruction cancelInstruction = new CancelInstruction();
+        cancelInstruction.setBetId(betId);
+        return cancelInstruction;
+    }
+
+    private static void waitForRequests(final int nRequests)
+            throws InterruptedException {
+        final long endTime = System.currentTimeMillis() + 10_000L;
+        while (requests.size() < nRequests && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10L);
+        }
+    }
+
+    @Test
+    void cancelsAreBatchedPerMarket()
+            throws NoSuchMethodException, InterruptedException {
+        requests.clear();
+        final RescriptTransport rescriptTransport = RescriptTransports.fromMethod(OrderBatcherTest.class.getDeclaredMethod("sendPostRequestRescript", String.class, String.class, RescriptResponseHandler.class)); // programs still passing a Method
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final OrderBatcher orderBatcher = new OrderBatcher(executor, 200L);
+        for (int i = 0; i < 3; i++) {
+            orderBatcher.addCancelInstruction("1.1", getCancelInstruction("1" + i), getCancelOrder("1.1", "1" + i), rescriptTransport);
+        }
+        orderBatcher.addCancelInstruction("1.2", getCancelInstruction("20"), getCancelOrder("1.2", "20"), rescriptTransport);
+        assertEquals(4, orderBatcher.size(), "waiting for the window");
+        final CountDownLatch executorFree = new CountDownLatch(1);
+        executor.execute(executorFree::countDown);
+        assertTrue(executorFree.await(100L, TimeUnit.MILLISECONDS), "waiting batches don't hold the executor thread");
+        waitForRequests(2);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS), "submitted");
+
+        assertEquals(2, requests.size(), "one request per market");
+        assertTrue(requests.get(0).contains("\"10\"") && requests.get(0).contains("\"11\"") && requests.get(0).contains("\"12\""), "first market batch");
+        assertTrue(requests.get(1).contains("\"20\""), "second market batch");
+        assertEquals(0, orderBatcher.size(), "nothing left");
+    }
+
+    @Test
+    void batchesAreKeptPerTransport()
+            throws InterruptedException {
+        requests.clear();
+        final RescriptTransport firstTransport = OrderBatcherTest::sendPostRequestRescript, secondTransport = OrderBatcherTest::sendPostRequestRescript;
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final OrderBatcher orderBatcher = new OrderBatcher(executor, 100L);
+        orderBatcher.addCancelInstruction("1.1", getCancelInstruction("10"), getCancelOrder("1.1", "10"), firstTransport);
+        orderBatcher.addCancelInstruction("1.1", getCancelInstruction("11"), getCancelOrder("1.1", "11"), secondTransport);
+        orderBatcher.addCancelInstruction("1.1", getCancelInstruction("12"), getCancelOrder("1.1", "12"), firstTransport);
+        waitForRequests(2);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS), "submitted");
+
+        assertEquals(2, requests.size(), "one request per transport");
+        final String firstRequest = requests.get(0).contains("\"11\"") ? requests.get(1) : requests.get(0);
+        assertTrue(firstRequest.contains("\"10\"") && firstRequest.contains("\"12\"") && !firstRequest.contains("\"11\""), "first transport batch");
+    }
+
+    @Test
+    void placeReportsAreRouted() {
+        final List<TemporaryOrder> temporaryOrders = new ArrayList<>(3);
+        final List<PlaceInstruction> placeInstructions = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            temporaryOrders.add(new TemporaryOrder("1.1", new RunnerId((long) i, null), Side.B, 2d, 2d, false, "test"));
+            placeInstructions.add(new PlaceInstruction());
+        }
+        final PlaceOrdersThread placeOrdersThread = new PlaceOrdersThread("1.1", placeInstructions, temporaryOrders, OrderBatcherTest::sendPostRequestRescript, new BetFrequencyLimit());
+        final PlaceExecutionReport placeExecutionReport = JsonConverter.convertFromJson(
+                "{\"status\":\"FAILURE\",\"instructionReports\":[{\"status\":\"SUCCESS\",\"betId\":\"100\"},{\"status\":\"FAILURE\",\"errorCode\":\"INVALID_ODDS\"},{\"status\":\"SUCCESS\",\"betId\":\"102\"}]}",
+                PlaceExecutionReport.class);
+        assertEquals(2, placeOrdersThread.routeInstructionReports(placeExecutionReport), "placed");
+        assertEquals("100", temporaryOrders.get(0).getBetId(), "first order");
+        assertNull(temporaryOrders.get(1).getBetId(), "failed order");
+        assertEquals("102", temporaryOrders.get(2).getBetId(), "third order");
+    }
+}
@@ -0,0 +1,46 @@
+package info.fmro.shared.logic;
+
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.RunnerChange;
+import info.fmro.shared.stream.objects.RunnerId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketSubscriptionsTest {
+    private static MarketChange getMarketChange(final long selectionId, final List<List<Double>> atb, final List<List<Double>> batl) {
+        final RunnerChange runnerChange = new RunnerChange();
+        runnerChange.setId(selectionId);
+        runnerChange.setAtb(atb);
+        runnerChange.setBatl(batl);
+        final MarketChange marketChange = new MarketChange();
+        marketChange.setId("1.1");
+        marketChange.setRc(List.of(runnerChange));
+        return marketChange;
+    }
+
+    @Test
+    void relevantChanges() {
+        final MarketSubscriptions subscriptions = new MarketSubscriptions();
+        assertTrue(subscriptions.isRelevant(getMarketChange(1L, List.of(List.of(2d, 10d)), null)), "not subscribed yet");
+
+        subscriptions.setOddsWindow("1.1", new RunnerId(1L, null), 3d, 1.5d);
+        assertFalse(subscriptions.isRelevant(getMarketChange(1L, List.of(List.of(2d, 10d)), null)), "inside the spread");
+        assertTrue(subscriptions.isRelevant(getMarketChange(1L, List.of(List.of(3.5d, 10d)), null)), "back side");
+        assertTrue(subscriptions.isRelevant(getMarketChange(1L, null, List.of(List.of(0d, 1.4d, 0d)))), "lay side, level ladder");
+        assertFalse(subscriptions.isRelevant(getMarketChange(1L, null, List.of(List.of(1.4d, 2d, 5d)))), "level isn't the price");
+        assertFalse(subscriptions.isRelevant(getMarketChange(2L, List.of(List.of(5d, 10d)), null)), "runner not managed");
+
+        final MarketChange image = getMarketChange(2L, null, null);
+        image.setImg(true);
+        assertTrue(subscriptions.isRelevant(image), "image");
+
+        subscriptions.setOddsWindow("1.1", new RunnerId(1L, null), 1_001d, 1d);
+        assertFalse(subscriptions.isRelevant(getMarketChange(1L, List.of(List.of(5d, 10d)), null)), "unusable odds");
+        subscriptions.removeMarket("1.1");
+        assertTrue(subscriptions.isRelevant(getMarketChange(1L, List.of(List.of(2d, 10d)), null)), "removed");
+    }
+}
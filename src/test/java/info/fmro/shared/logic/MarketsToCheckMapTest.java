@@ -0,0 +1,72 @@
+package info.fmro.shared.logic;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketsToCheckMapTest {
+    @Test
+    void dueOrder() {
+        final long currentTime = System.currentTimeMillis();
+        final AtomicBoolean marketsToCheckExist = new AtomicBoolean();
+        final MarketsToCheckMap marketsToCheck = new MarketsToCheckMap(marketsToCheckExist);
+        assertTrue(marketsToCheck.put("1.2", currentTime - 10L), "first put");
+        assertTrue(marketsToCheck.put("1.1", currentTime - 5L), "second put");
+        assertTrue(marketsToCheck.put("1.3", currentTime - 20L, currentTime + 60_000L), "not eligible yet");
+        assertTrue(marketsToCheck.put("1.2", currentTime - 8L), "newer request coalesced");
+        assertTrue(marketsToCheckExist.get(), "flag");
+        assertEquals(3, marketsToCheck.size(), "one entry per market");
+
+        final MarketsToCheckMap copy = SerializationUtils.clone(marketsToCheck);
+        assertEquals(Map.entry("1.2", currentTime - 8L), marketsToCheck.pollDue(), "earliest due first, not smallest id");
+        assertEquals(Map.entry("1.1", currentTime - 5L), marketsToCheck.pollDue(), "second due");
+        assertNull(marketsToCheck.pollDue(), "1.3 not due");
+        assertTrue(marketsToCheck.put("1.3", currentTime), "new request for a waiting market");
+        assertNull(marketsToCheck.pollDue(), "still waits for the eligible time");
+        assertEquals(currentTime + 60_000L, marketsToCheck.getNextDueTime(), "next due time");
+        assertNull(marketsToCheck.poll(), "poll only hands out due markets");
+        assertFalse(marketsToCheckExist.get(), "flag cleared, nothing due");
+        assertEquals(1, marketsToCheck.size(), "waiting market kept");
+
+        assertEquals(Map.entry("1.2", currentTime - 8L), copy.poll(), "order kept after serialization");
+        assertEquals(2, copy.size(), "copy size");
+    }
+
+    @Test
+    void pollDueWaits() {
+        final MarketsToCheckMap marketsToCheck = new MarketsToCheckMap(new AtomicBoolean());
+        final long startTime = System.currentTimeMillis();
+        marketsToCheck.put("1.1", startTime, startTime + 50L);
+        final Map.Entry<String, Long> entry = marketsToCheck.pollDue(5_000L, new AtomicBoolean());
+        assertEquals("1.1", entry.getKey(), "due market");
+        assertTrue(System.currentTimeMillis() - startTime >= 50L, "not before the eligible time");
+        assertNull(marketsToCheck.pollDue(10L, new AtomicBoolean()), "empty");
+    }
+
+    @Test
+    void nothingDispatchedBeforeDueTime()
+            throws InterruptedException {
+        final AtomicBoolean marketsToCheckExist = new AtomicBoolean();
+        final MarketsToCheckMap marketsToCheck = new MarketsToCheckMap(marketsToCheckExist);
+        final long startTime = System.currentTimeMillis();
+        marketsToCheck.put("1.1", startTime, startTime + 100L); // a manage pass that started too early puts the market back like this
+        assertFalse(marketsToCheckExist.get(), "flag not set for a market that isn't due");
+        assertFalse(marketsToCheck.hasDue(), "not due");
+        assertNull(marketsToCheck.poll(), "not handed out before the due time");
+        assertNull(marketsToCheck.pollDue(), "pollDue neither");
+        assertFalse(marketsToCheckExist.get(), "flag still not set after the polls");
+
+        Thread.sleep(150L);
+        assertTrue(marketsToCheck.hasDue(), "due");
+        assertTrue(marketsToCheckExist.get(), "flag set once due");
+        assertEquals(Map.entry("1.1", startTime), marketsToCheck.poll(), "handed out once due");
+        assertFalse(marketsToCheckExist.get(), "flag cleared after the last due market");
+    }
+}
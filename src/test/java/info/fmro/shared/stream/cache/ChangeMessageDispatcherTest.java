@@ -0,0 +1,96 @@
+package info.fmro.shared.stream.cache;
+
+import info.fmro.shared.utility.Generic;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeMessageDispatcherTest {
+    @Test
+    void perMarketOrder() {
+        final ChangeMessageDispatcher dispatcher = new ChangeMessageDispatcher("test", 4, 8); // small queues, to also go through backpressure
+        try {
+            final int nMarkets = 20, nUpdates = 50;
+            final List<String[]> items = new ArrayList<>(nMarkets * nUpdates);
+            for (int update = 0; update < nUpdates; update++) {
+                for (int market = 0; market < nMarkets; market++) {
+                    items.add(new String[]{"1." + market, String.valueOf(update)});
+                }
+            }
+            final Map<String, List<Integer>> applied = new ConcurrentHashMap<>(nMarkets);
+            final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+            dispatcher.dispatch(items, item -> item[0], item -> {
+                applied.computeIfAbsent(item[0], k -> new CopyOnWriteArrayList<>()).add(Integer.valueOf(item[1]));
+                threadNames.add(Thread.currentThread().getName());
+            });
+
+            assertEquals(nMarkets, applied.size(), "all markets applied before dispatch returned");
+            for (final List<Integer> updates : applied.values()) {
+                assertEquals(nUpdates, updates.size(), "all updates");
+                for (int i = 0; i < nUpdates; i++) {
+                    assertEquals(i, updates.get(i), "order");
+                }
+            }
+            assertTrue(threadNames.size() > 1, "parallel");
+            assertEquals(nMarkets * nUpdates, dispatcher.getNDispatchedItems(), "dispatched");
+            assertEquals(0, dispatcher.getQueueDepth(), "drained");
+            assertTrue(dispatcher.getMaxQueueDepth() <= 8, "bounded");
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void singleMarketInline() {
+        final ChangeMessageDispatcher dispatcher = new ChangeMessageDispatcher("test", 4);
+        try {
+            final List<String> threadNames = new ArrayList<>(2);
+            dispatcher.dispatch(List.of("1.1", "1.1"), item -> item, item -> threadNames.add(Thread.currentThread().getName()));
+            assertEquals(List.of(Thread.currentThread().getName(), Thread.currentThread().getName()), threadNames, "calling thread");
+            assertEquals(2L, dispatcher.getNInlineItems(), "inline");
+            assertEquals(0L, dispatcher.getNDispatchedItems(), "not dispatched");
+        } finally {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void stopDuringDispatch() {
+        final ChangeMessageDispatcher dispatcher = new ChangeMessageDispatcher("test", 4, 2); // small queues, so dispatch is still enqueueing when stopped
+        final List<String> items = new ArrayList<>(40);
+        for (int i = 0; i < 40; i++) {
+            items.add("1." + i);
+        }
+        final CountDownLatch firstApplied = new CountDownLatch(1);
+        final Thread stopThread = new Thread(() -> {
+            try {
+                firstApplied.await();
+            } catch (InterruptedException interruptedException) { // stop anyway
+            }
+            dispatcher.stop();
+        });
+        stopThread.start();
+        final Set<String> applied = ConcurrentHashMap.newKeySet();
+        assertTimeoutPreemptively(Duration.ofSeconds(10L), () -> dispatcher.dispatch(items, item -> item, item -> {
+            firstApplied.countDown();
+            Generic.threadSleep(5L);
+            applied.add(item);
+        }), "dispatch returned");
+
+        assertTrue(dispatcher.isStopped(), "stopped");
+        assertEquals(40, applied.size(), "all items applied");
+        dispatcher.dispatch(List.of("1.1", "1.2"), item -> item, applied::remove);
+        assertEquals(38, applied.size(), "inline after stop");
+    }
+}
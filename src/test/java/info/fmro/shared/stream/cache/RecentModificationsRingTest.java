@@ -0,0 +1,70 @@
+package info.fmro.shared.stream.cache;
+
+import info.fmro.shared.stream.enums.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentModificationsRingTest {
+    @Test
+    void expiryAndViews() {
+        final RecentModificationsRing ring = new RecentModificationsRing(500L, 2);
+        ring.add(Side.B, 2d, 10d, 1_000L);
+        ring.add(Side.L, 3d, 5d, 1_100L);
+        ring.add(Side.B, 2.02d, -4d, 1_200L);
+        assertEquals(3, ring.size(), "grown");
+
+        final RecentModificationsView backView = ring.getView(Side.B, 2d, 1_400L);
+        int nBack = 0;
+        double backTotal = 0d;
+        for (int i = backView.nextIndex(0); i < backView.size(); i = backView.nextIndex(i + 1)) {
+            nBack++;
+            backTotal += backView.getSize(i);
+        }
+        assertEquals(2, nBack, "back records");
+        assertEquals(12d, backTotal, "currency rate applied");
+
+        assertEquals(1, ring.getView(Side.L, 1d, 1_650L).nextIndex(0), "first back record expired");
+        assertSame(RecentModificationsView.EMPTY_BACK, ring.getView(Side.B, 1d, 5_000L), "all expired");
+        assertTrue(ring.isEmpty(), "empty");
+        assertEquals(Side.L, ring.getView(Side.L, 1d, 5_000L).getSide(), "empty lay view side");
+        assertSame(RecentModificationsView.EMPTY_BACK, backView.getView(1d, 5_000L), "filtered back view");
+    }
+
+    @Test
+    void viewUnchangedByLaterWrites() {
+        final RecentModificationsRing ring = new RecentModificationsRing(10L, 2);
+        ring.add(Side.B, 2d, 1d, 0L);
+        ring.add(Side.B, 3d, 2d, 0L);
+        final RecentModificationsView view = ring.getView(Side.B, 1d, 0L);
+        ring.add(Side.B, 4d, 3d, 100L); // expires both records and reuses their slots
+        ring.add(Side.B, 5d, 4d, 100L);
+
+        assertEquals(2, view.size(), "view size");
+        assertEquals(2d, view.getPrice(0), "first price");
+        assertEquals(2d, view.getSize(1), "second size");
+        assertEquals("B[3.0@4.0, 4.0@5.0]", ring.getView(Side.B, 1d, 100L).toString(), "ring contents");
+    }
+
+    @Test
+    void heldViewsSurviveFrequentWrites() {
+        final RecentModificationsRing ring = new RecentModificationsRing(10L, 4);
+        final List<RecentModificationsView> views = new ArrayList<>();
+        final List<String> expectedContents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) { // a view before every write, with the ring kept close to full
+            ring.add(Side.B, 1.01d + i, i, i);
+            final RecentModificationsView view = ring.getView(Side.B, 1d, i);
+            views.add(view);
+            expectedContents.add(view.toString());
+        }
+        for (int i = 0; i < views.size(); i++) {
+            assertEquals(expectedContents.get(i), views.get(i).toString(), "held view " + i);
+        }
+        assertEquals(11, ring.size(), "records within the period");
+    }
+}
@@ -0,0 +1,110 @@
+package info.fmro.shared.stream.cache.market;
+
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.MarketDefinition;
+import info.fmro.shared.stream.definitions.RunnerDefinition;
+import info.fmro.shared.stream.definitions.RunnerChange;
+import info.fmro.shared.stream.objects.RunnerId;
+import info.fmro.shared.utility.Generic;
+import info.fmro.shared.utility.SnapshotFile;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketCacheCopyTest {
+    private static MarketChange getMarketChange(final RunnerChange... runnerChanges) {
+        final MarketChange marketChange = new MarketChange();
+        marketChange.setId("1.23");
+        marketChange.setTv(500d);
+        marketChange.setRc(List.of(runnerChanges));
+        return marketChange;
+    }
+
+    private static RunnerChange getRunnerChange(final long id) {
+        final RunnerChange runnerChange = new RunnerChange();
+        runnerChange.setId(id);
+        runnerChange.setHc(0d);
+        return runnerChange;
+    }
+
+    @Test
+    void copyEqualsSerializedClone() {
+        final RunnerChange first = getRunnerChange(1L), second = getRunnerChange(2L);
+        first.setAtb(List.of(List.of(2d, 10d), List.of(1.98d, 4d)));
+        first.setAtl(List.of(List.of(2.02d, 5d)));
+        first.setBatb(List.of(List.of(0d, 2d, 10d), List.of(1d, 1.98d, 4d)));
+        first.setTrd(List.of(List.of(2d, 30d)));
+        first.setLtp(2d);
+        first.setTv(30d);
+        second.setBatl(List.of(List.of(0d, 3d, 7d)));
+        second.setSpn(3.1d);
+        final Market market = new Market("1.23");
+        market.onMarketChange(getMarketChange(first, second));
+        final RunnerChange update = getRunnerChange(1L);
+        update.setAtb(List.of(List.of(2d, 6d)));
+        market.onMarketChange(getMarketChange(update)); // leaves recent modifications behind
+
+        final MarketCache marketCache = new MarketCache();
+        marketCache.markets.put("1.23", market, true);
+        final MarketCache copy = marketCache.getCopy();
+        final MarketCache serializedClone = SerializationUtils.clone(marketCache);
+        assertEquals(Generic.objectToString(serializedClone), Generic.objectToString(copy), "same as serialized clone");
+
+        final Market copiedMarket = copy.markets.get("1.23");
+        assertNotSame(market, copiedMarket, "deep copy");
+        final RunnerId firstId = new RunnerId(1L, 0d);
+        assertEquals(market.getSnapshot().getRunner(firstId).getAtb().toString(), copiedMarket.getSnapshot().getRunner(firstId).getAtb().toString(), "same ladder");
+        assertEquals(market.getSnapshot().getEpoch(), copiedMarket.getSnapshot().getEpoch(), "same epoch");
+
+        update.setAtb(List.of(List.of(2d, 1d)));
+        market.onMarketChange(getMarketChange(update));
+        assertNotEquals(market.getSnapshot().getRunner(firstId).getAtb().toString(), copiedMarket.getSnapshot().getRunner(firstId).getAtb().toString(), "copy not affected by later changes");
+        serializedClone.markets.get("1.23").getSnapshot(); // same snapshot state as the copy
+        assertEquals(Generic.objectToString(serializedClone), Generic.objectToString(copy), "copy unchanged");
+    }
+
+    @Test
+    void snapshotRoundTrip()
+            throws IOException {
+        final RunnerChange first = getRunnerChange(1L);
+        first.setAtb(List.of(List.of(2d, 10d), List.of(1.98d, 4d)));
+        first.setBatl(List.of(List.of(0d, 2.02d, 5d)));
+        first.setLtp(2d);
+        final RunnerDefinition runnerDefinition = new RunnerDefinition();
+        runnerDefinition.setId(1L);
+        runnerDefinition.setHc(0d);
+        runnerDefinition.setSortPriority(1);
+        final MarketDefinition marketDefinition = new MarketDefinition();
+        marketDefinition.setRunners(List.of(runnerDefinition));
+        final MarketChange marketChange = getMarketChange(first);
+        marketChange.setMarketDefinition(marketDefinition);
+        final Market market = new Market("1.23");
+        market.onMarketChange(marketChange);
+        final MarketCache marketCache = new MarketCache();
+        marketCache.markets.put("1.23", market, true);
+        marketCache.markets.put("1.24", new Market("1.24"), true);
+
+        final String fileName = Generic.tempFileName("test");
+        try {
+            final SnapshotFile.Writer writer = new SnapshotFile.Writer(fileName);
+            assertTrue(marketCache.writeSnapshot(writer, true), "written");
+            assertTrue(writer.commit(), "committed");
+            final MarketCache restored = MarketCache.readSnapshot(SnapshotFile.read(fileName));
+            final MarketCache serializedClone = SerializationUtils.clone(marketCache);
+            assertEquals(Generic.objectToString(serializedClone), Generic.objectToString(restored), "same as serialized clone");
+            final Market restoredMarket = restored.markets.get("1.23");
+            assertEquals(1, restoredMarket.getRunnerSortPriorityMap().get(new RunnerId(1L, 0d)), "runner definition restored");
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            new File(fileName).delete();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package info.fmro.shared.stream.cache.market;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarketCacheTest {
+    @Test
+    void lookupsDontBlock()
+            throws Exception {
+        final MarketCache marketCache = new MarketCache();
+        final Market market = new Market("1.23");
+        marketCache.markets.put("1.23", market, true);
+        final CountDownLatch locksHeld = new CountDownLatch(1), release = new CountDownLatch(1);
+        final Thread lockHolder = new Thread(() -> { // same locks as a whole cache operation running during a long market update
+            synchronized (marketCache) {
+                synchronized (marketCache.markets) {
+                    synchronized (market) {
+                        locksHeld.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException interruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            }
+        });
+        lockHolder.start();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(locksHeld.await(5L, TimeUnit.SECONDS), "locks held");
+            final Future<Market> future = executor.submit(() -> {
+                assertTrue(marketCache.contains("1.23"), "contains");
+                assertEquals(1, marketCache.getMarketCount(), "count");
+                assertTrue(marketCache.getMarkets().iterator().hasNext(), "markets");
+                return marketCache.getMarket("1.23");
+            });
+            assertSame(market, future.get(5L, TimeUnit.SECONDS), "lookup finished while the locks were held");
+        } finally {
+            release.countDown();
+            lockHolder.join();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package info.fmro.shared.stream.cache.market;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.RunnerChange;
+import info.fmro.shared.stream.objects.RunnerId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MarketSnapshotTest {
+    private static MarketChange getMarketChange(final RunnerChange... runnerChanges) {
+        final MarketChange marketChange = new MarketChange();
+        marketChange.setId("1.23");
+        marketChange.setRc(List.of(runnerChanges));
+        return marketChange;
+    }
+
+    private static RunnerChange getRunnerChange(final long id) {
+        final RunnerChange runnerChange = new RunnerChange();
+        runnerChange.setId(id);
+        runnerChange.setHc(0d);
+        return runnerChange;
+    }
+
+    @Test
+    void structuralSharing() {
+        final Market market = new Market("1.23");
+        final RunnerId firstId = new RunnerId(1L, 0d), secondId = new RunnerId(2L, 0d);
+        final RunnerChange first = getRunnerChange(1L), second = getRunnerChange(2L);
+        first.setBatb(List.of(List.of(0d, 2d, 10d)));
+        first.setAtl(List.of(List.of(2.02d, 5d)));
+        first.setTv(100d);
+        second.setBatl(List.of(List.of(0d, 3d, 7d)));
+        market.onMarketChange(getMarketChange(first, second));
+        final MarketSnapshot initial = market.getSnapshot();
+        assertEquals(1L, initial.getEpoch(), "first epoch");
+        assertEquals(2, initial.getNRunners(), "runners");
+
+        final RunnerChange firstUpdate = getRunnerChange(1L);
+        firstUpdate.setBatb(List.of(List.of(0d, 2d, 4d)));
+        market.onMarketChange(getMarketChange(firstUpdate));
+        final MarketSnapshot updated = market.getSnapshot();
+        assertEquals(2L, updated.getEpoch(), "second epoch");
+        assertSame(initial.getRunner(secondId), updated.getRunner(secondId), "untouched runner shared");
+        assertNotSame(initial.getRunner(firstId), updated.getRunner(firstId), "touched runner republished");
+        assertSame(initial.getRunner(firstId).getAtl(), updated.getRunner(firstId).getAtl(), "untouched ladder shared");
+
+        final AtomicDouble currencyRate = new AtomicDouble(2d);
+        assertEquals(20d, initial.getRunner(firstId).getAvailableToBack(currencyRate).getOrders().get(2d), "old snapshot unchanged");
+        assertEquals(8d, updated.getRunner(firstId).getAvailableToBack(currencyRate).getOrders().get(2d), "new snapshot");
+        assertEquals(200d, updated.getRunner(firstId).getTvEUR(currencyRate), "total value");
+        assertSame(updated, market.getSnapshot(), "no republishing without a change");
+
+        final RunnerChange secondUpdate = getRunnerChange(2L), thirdUpdate = getRunnerChange(2L);
+        secondUpdate.setBatl(List.of(List.of(0d, 3d, 1d)));
+        thirdUpdate.setBatl(List.of(List.of(0d, 3d, 2d)));
+        market.onMarketChange(getMarketChange(secondUpdate));
+        market.onMarketChange(getMarketChange(thirdUpdate)); // no read in between, a single snapshot is built
+        final MarketSnapshot latest = market.getSnapshot();
+        assertEquals(4L, latest.getEpoch(), "built from the latest change");
+        assertEquals(2d, latest.getRunner(secondId).getAvailableToLay(new AtomicDouble(1d)).getOrders().get(3d), "latest ladder");
+        assertSame(updated.getRunner(firstId), latest.getRunner(firstId), "runner untouched since the last read shared");
+    }
+}
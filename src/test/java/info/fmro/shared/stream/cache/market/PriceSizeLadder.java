@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+// the TreeMap ladder that TickPriceSizeLadder replaced, kept only as the reference implementation TickPriceSizeLadderTest compares against
 public final class PriceSizeLadder
         implements Serializable {
     private static final Logger logger = LoggerFactory.getLogger(PriceSizeLadder.class);
@@ -60,7 +61,7 @@ public final class PriceSizeLadder
         } else if (comparator.equals(Comparator.naturalOrder())) {
             side = Side.L;
         } else {
-            logger.error("unknown comparator in getSide: {}", Generic.objectToString(comparator));
+            logger.error("unknown comparator in getSide: {}", Generic.lazyObjectToString(comparator));
             side = null;
         }
         return side;
@@ -71,7 +72,7 @@ public final class PriceSizeLadder
         final TreeMap<Double, Double> result = new TreeMap<>(this.priceToSize.comparator());
         for (final PriceSize priceSize : this.priceToSize.values()) {
             if (priceSize == null) {
-                logger.error("null priceSize in getSimpleTreeMap for: {}", Generic.objectToString(this));
+                logger.error("null priceSize in getSimpleTreeMap for: {}", Generic.lazyObjectToString(this));
             } else {
                 final double price = priceSize.getPrice(), size = priceSize.getSizeEUR(currencyRate);
                 final Double existingSize = result.get(price);
@@ -91,7 +92,7 @@ public final class PriceSizeLadder
             if (priceSize != null) {
                 matchedSize = priceSize.getSizeEUR(currencyRate.get());
             } else {
-                logger.error("priceSize null in getMatchedSize for: {} {}", price, Generic.objectToString(this));
+                logger.error("priceSize null in getMatchedSize for: {} {}", price, Generic.lazyObjectToString(this));
                 matchedSize = 0d;
             }
         } else { // normal case, proper price not found
@@ -116,7 +117,7 @@ public final class PriceSizeLadder
             returnList = new ArrayList<>(pricesSet.size());
             for (final Double price : pricesSet) {
                 if (price == null) {
-                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null price in onPriceChangeGetModifications for: {} {}", Generic.objectToString(initialMap), Generic.objectToString(this.priceToSize));
+                    SharedStatics.alreadyPrintedMap.logOnce(logger, LogLevel.ERROR, "null price in onPriceChangeGetModifications for: {} {}", Generic.lazyObjectToString(initialMap), Generic.lazyObjectToString(this.priceToSize));
                 } else {
                     final PriceSize initialPriceSize = initialMap.get(price);
                     final PriceSize finalPriceSize = this.priceToSize.get(price);
@@ -161,7 +162,7 @@ public final class PriceSizeLadder
             final double minimumAmountConsideredSignificant = Math.min(calculatedLimit * .05d, 10d); // these defaults are rather basic
             for (final PriceSize priceSize : this.priceToSize.values()) {
                 if (priceSize == null) {
-                    logger.error("null priceSize in getBestPrice {} for: {}", calculatedLimit, Generic.objectToString(this));
+                    logger.error("null priceSize in getBestPrice {} for: {}", calculatedLimit, Generic.lazyObjectToString(this));
                 } else {
                     final double size = priceSize.getSizeEUR(currencyRatePrimitive);
                     if (size >= minimumAmountConsideredSignificant) {
@@ -183,12 +184,12 @@ public final class PriceSizeLadder
         if (this.priceToSize.containsKey(price)) {
             final PriceSize priceSize = this.priceToSize.get(price);
             if (priceSize == null) {
-                logger.error("null priceSize for price {} sizeToRemove {} in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, Generic.objectToString(this));
+                logger.error("null priceSize for price {} sizeToRemove {} in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, Generic.lazyObjectToString(this));
             } else {
                 priceSize.removeAmountGBP(sizeToRemove);
             }
         } else {
-            logger.info("price {} sizeToRemove {} not found in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, Generic.objectToString(this));
+            logger.info("price {} sizeToRemove {} not found in PriceSizeLadder.removeAmount for: {}", price, sizeToRemove, Generic.lazyObjectToString(this));
         }
     }
 
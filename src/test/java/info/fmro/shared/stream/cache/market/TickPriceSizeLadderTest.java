@@ -0,0 +1,110 @@
+package info.fmro.shared.stream.cache.market;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.stream.cache.RunnerOrderModificationsBuffer;
+import info.fmro.shared.stream.enums.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickPriceSizeLadderTest {
+    private static final AtomicDouble currencyRate = new AtomicDouble(1.1d);
+
+    @Test
+    void sameResultsAsPriceSizeLadder() {
+        final TickPriceSizeLadder tickBack = TickPriceSizeLadder.newBack(), tickLay = TickPriceSizeLadder.newLay();
+        final PriceSizeLadder back = PriceSizeLadder.newBack(), lay = PriceSizeLadder.newLay();
+        final List<List<List<Double>>> updates = List.of(List.of(List.of(2d, 15d), List.of(2.02d, 4d), List.of(1.5d, 100d), List.of(990d, 3d)),
+                                                         List.of(List.of(2.02d, 0d), List.of(1.01d, 7d), List.of(2d, 8.5d)),
+                                                         List.of(List.of(1_000d, 2d), List.of(990d, 0d), List.of(3.05d, 0d)));
+        boolean isImage = true;
+        for (final List<List<Double>> update : updates) {
+            tickBack.onPriceChange(isImage, update);
+            back.onPriceChange(isImage, update);
+            tickLay.onPriceChange(isImage, update);
+            lay.onPriceChange(isImage, update);
+            isImage = false;
+
+            final TreeMap<Double, Double> tickBackMap = tickBack.getSimpleTreeMap(currencyRate.get()), tickLayMap = tickLay.getSimpleTreeMap(currencyRate.get());
+            assertAll("update " + update,
+                      () -> assertEquals(back.getSimpleTreeMap(currencyRate.get()), tickBackMap, "back map"),
+                      () -> assertEquals(back.getSimpleTreeMap(currencyRate.get()).firstKey(), tickBackMap.firstKey(), "back order"),
+                      () -> assertEquals(lay.getSimpleTreeMap(currencyRate.get()), tickLayMap, "lay map"),
+                      () -> assertEquals(lay.getSimpleTreeMap(currencyRate.get()).firstKey(), tickLayMap.firstKey(), "lay order"),
+                      () -> assertEquals(back.getBestPrice(50d, currencyRate), tickBack.getBestPrice(50d, currencyRate), "back best price"),
+                      () -> assertEquals(lay.getBestPrice(50d, currencyRate), tickLay.getBestPrice(50d, currencyRate), "lay best price"),
+                      () -> assertEquals(back.getMatchedSize(2d, currencyRate), tickBack.getMatchedSize(2d, currencyRate), "matched size"),
+                      () -> assertEquals(back.getMatchedSize(2.02d, currencyRate), tickBack.getMatchedSize(2.02d, currencyRate), "missing matched size"));
+        }
+    }
+
+    @Test
+    void onPriceChangeDiffMode() {
+        final TickPriceSizeLadder ladder = TickPriceSizeLadder.newBack();
+        final RunnerOrderModificationsBuffer buffer = new RunnerOrderModificationsBuffer(1);
+        ladder.onPriceChange(true, List.of(List.of(2d, 15d), List.of(2.02d, 4d)), buffer);
+        assertEquals(2, buffer.size(), "image");
+        assertEquals(Side.B, buffer.getSide(), "side");
+
+        ladder.onPriceChange(false, List.of(List.of(2d, 10d), List.of(3d, 0d)), buffer);
+        assertEquals(1, buffer.size(), "delta");
+        assertEquals(2d, buffer.getPrice(0), "delta price");
+        assertEquals(-5d, buffer.getSize(0), "delta size");
+
+        ladder.onPriceChange(false, List.of(List.of(2d, 10d)), buffer);
+        assertTrue(buffer.isEmpty(), "no modification");
+
+        ladder.onPriceChange(true, List.of(List.of(2d, 10d), List.of(5d, 1d)), buffer);
+        assertEquals(2, buffer.size(), "second image");
+        assertEquals(5d, buffer.getPrice(0), "added level price");
+        assertEquals(1d, buffer.getSize(0), "added level size");
+        assertEquals(2.02d, buffer.getPrice(1), "removed level price");
+        assertEquals(-4d, buffer.getSize(1), "removed level size");
+        assertEquals(2, ladder.getNLevels(), "levels after image");
+        assertEquals(5d, TickPriceSizeLadder.getTickPrice(ladder.getBestPosition()), "best after image");
+    }
+
+    @Test
+    void repeatedPriceInImageIsCountedOnce() {
+        final TickPriceSizeLadder ladder = TickPriceSizeLadder.newBack();
+        final RunnerOrderModificationsBuffer buffer = new RunnerOrderModificationsBuffer();
+        ladder.onPriceChange(true, List.of(List.of(2d, 10d), List.of(3d, 5d)), buffer);
+
+        ladder.onPriceChange(true, List.of(List.of(2d, 4d), List.of(2d, 12d), List.of(3d, 0d), List.of(3d, 7d)), buffer);
+        assertEquals(2, buffer.size(), "one modification per price");
+        assertEquals(2d, buffer.getSize(0), "last occurrence wins");
+        assertEquals(2d, buffer.getSize(1), "size 0 then size 7");
+        assertEquals(2, ladder.getNLevels(), "levels");
+
+        ladder.onPriceChange(true, List.of(List.of(2d, 4d), List.of(2d, 12d), List.of(3d, 7d), List.of(3d, 0d)), buffer);
+        assertEquals(1, buffer.size(), "cancelled modification removed");
+        assertEquals(3d, buffer.getPrice(0), "removed price");
+        assertEquals(-7d, buffer.getSize(0), "removed size");
+        assertEquals(1, ladder.getNLevels(), "removed level");
+
+        ladder.onPriceChange(true, List.of(List.of(2d, 12d), List.of(3d, 1d)), buffer);
+        assertEquals(1, buffer.size(), "size 0 from the previous image not taken as repeated");
+        assertEquals(1d, buffer.getSize(0), "added size");
+        assertEquals(2, ladder.getNLevels(), "levels after the last image");
+    }
+
+    @Test
+    void positions() {
+        final TickPriceSizeLadder ladder = TickPriceSizeLadder.newLay();
+        assertEquals(TickPriceSizeLadder.NO_POSITION, ladder.getBestPosition(), "empty");
+        ladder.onPriceChange(false, List.of(List.of(4.1d, 1d), List.of(4.2d, 2d), List.of(12d, 3d)));
+        final int bestPosition = ladder.getBestPosition();
+        assertEquals(4.1d, TickPriceSizeLadder.getTickPrice(bestPosition), "best");
+        assertEquals(4.2d, TickPriceSizeLadder.getTickPrice(ladder.getNextWorsePosition(bestPosition)), "second");
+        assertEquals(TickPriceSizeLadder.NO_POSITION, TickPriceSizeLadder.getTickPosition(4.15d), "not a tick");
+
+        ladder.onPriceChange(false, List.of(List.of(4.1d, 0d), List.of(12d, 0d)));
+        assertEquals(1, ladder.getNLevels(), "levels");
+        assertEquals(4.2d, TickPriceSizeLadder.getTickPrice(ladder.getBestPosition()), "remaining");
+    }
+}
@@ -0,0 +1,34 @@
+package info.fmro.shared.stream.cache.order;
+
+import info.fmro.shared.stream.objects.RunnerId;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExposureVersionsTest {
+    @Test
+    void onlyChangedRunners() {
+        final ExposureVersions exposureVersions = new ExposureVersions();
+        final RunnerId first = new RunnerId(1L, 0d), second = new RunnerId(2L, 0d);
+        final long firstVersion = exposureVersions.getVersion("1.1", first), secondVersion = exposureVersions.getVersion("1.1", second);
+
+        exposureVersions.runnerChanged("1.1", first);
+        assertNotEquals(firstVersion, exposureVersions.getVersion("1.1", first), "changed runner");
+        assertEquals(secondVersion, exposureVersions.getVersion("1.1", second), "other runner unchanged");
+        assertEquals(0L, exposureVersions.getVersion("1.2", first), "other market unchanged");
+
+        final long beforeMarketChange = exposureVersions.getVersion("1.1", second);
+        exposureVersions.marketChanged("1.1");
+        assertNotEquals(beforeMarketChange, exposureVersions.getVersion("1.1", second), "market change");
+
+        final long beforeRemoval = exposureVersions.getVersion("1.1", first);
+        exposureVersions.marketRemoved("1.1");
+        assertTrue(exposureVersions.getVersion("1.1", first) > beforeRemoval, "no repeated version after removal");
+
+        final long otherMarket = exposureVersions.getVersion("1.2", second);
+        exposureVersions.allChanged();
+        assertNotEquals(otherMarket, exposureVersions.getVersion("1.2", second), "all changed");
+    }
+}
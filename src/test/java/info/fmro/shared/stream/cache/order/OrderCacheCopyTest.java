@@ -0,0 +1,77 @@
+package info.fmro.shared.stream.cache.order;
+
+import info.fmro.shared.logic.ManagedRunner;
+import info.fmro.shared.objects.TemporaryOrder;
+import info.fmro.shared.stream.definitions.Order;
+import info.fmro.shared.stream.definitions.OrderMarketChange;
+import info.fmro.shared.stream.definitions.OrderRunnerChange;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.stream.objects.RunnerId;
+import info.fmro.shared.utility.Generic;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class OrderCacheCopyTest {
+    private static final RunnerId RUNNER_ID = new RunnerId(1L, 0d);
+
+    private static OrderMarketChange getOrderMarketChange(final Order order, final List<List<Double>> matchedBacks) {
+        final OrderRunnerChange orderRunnerChange = new OrderRunnerChange();
+        orderRunnerChange.setId(RUNNER_ID.getSelectionId());
+        orderRunnerChange.setHc(RUNNER_ID.getHandicap());
+        orderRunnerChange.setUo(List.of(order));
+        orderRunnerChange.setMb(matchedBacks);
+        final OrderMarketChange orderMarketChange = new OrderMarketChange();
+        orderMarketChange.setId("1.23");
+        orderMarketChange.setOrc(List.of(orderRunnerChange));
+        return orderMarketChange;
+    }
+
+    private static Order getOrder(final double size) {
+        final Order order = new Order();
+        order.setId("100");
+        order.setSide(Side.B);
+        order.setP(2d);
+        order.setS(size);
+        order.setSr(size);
+        order.setSm(0d);
+        return order;
+    }
+
+    @Test
+    void copyIsDeepAndIndependent() {
+        final OrderMarket orderMarket = new OrderMarket("1.23");
+        orderMarket.onOrderMarketChange(getOrderMarketChange(getOrder(10d), List.of(List.of(2d, 5d))));
+        final OrderCache orderCache = new OrderCache();
+        orderCache.markets.put("1.23", orderMarket, true);
+        final TemporaryOrder temporaryOrder = new TemporaryOrder("1.23", RUNNER_ID, Side.B, 2.5d, 4d, false, "test");
+        orderCache.addTempOrder(temporaryOrder, new ManagedRunner("1.23", RUNNER_ID, new AtomicBoolean(), new AtomicBoolean()));
+
+        final OrderCache copy = orderCache.getCopy();
+        final OrderCache serializedClone = SerializationUtils.clone(orderCache);
+        final String copyString = Generic.objectToString(copy, "initializedStamp");
+        assertEquals(Generic.objectToString(serializedClone, "initializedStamp"), copyString, "same as serialized clone");
+
+        final OrderMarket copiedMarket = copy.markets.get("1.23");
+        assertNotSame(orderMarket, copiedMarket, "market copied");
+        final OrderMarketRunner runner = orderMarket.getOrderMarketRunner(RUNNER_ID), copiedRunner = copiedMarket.getOrderMarketRunner(RUNNER_ID);
+        assertNotSame(runner, copiedRunner, "runner copied");
+        assertNotSame(runner.getUnmatchedOrders().get("100"), copiedRunner.getUnmatchedOrders().get("100"), "order copied");
+        final TemporaryOrder copiedTemporaryOrder = copy.getTempOrders("1.23", RUNNER_ID).iterator().next();
+        assertNotSame(temporaryOrder, copiedTemporaryOrder, "temporary order copied");
+
+        orderMarket.onOrderMarketChange(getOrderMarketChange(getOrder(6d), List.of(List.of(2d, 9d)))); // changes the order and the matched ladder
+        runner.getUnmatchedOrders().get("100").setS(7d);
+        temporaryOrder.setBetId("200");
+        assertNotEquals(Generic.objectToString(orderCache, "initializedStamp"), copyString, "original changed");
+        assertEquals(copyString, Generic.objectToString(copy, "initializedStamp"), "copy not affected by later changes");
+        assertEquals(10d, copiedRunner.getUnmatchedOrders().get("100").getS(), "copied order size");
+        assertEquals(5d, copiedRunner.getMatchedSize(Side.B, 2d), "copied matched size");
+    }
+}
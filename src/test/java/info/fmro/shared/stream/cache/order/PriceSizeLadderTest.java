@@ -0,0 +1,94 @@
+package info.fmro.shared.stream.cache.order;
+
+import com.google.common.util.concurrent.AtomicDouble;
+import info.fmro.shared.objects.Exposure;
+import info.fmro.shared.utility.FixedPoint;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceSizeLadderTest {
+    private static final List<List<Double>> MATCHED = List.of(List.of(2d, 10d), List.of(2.02d, 4d), List.of(1.5d, 100d), List.of(3.05d, 1d));
+
+    @Test
+    void matchedSizesUseTickPositions() {
+        final PriceSizeLadder back = PriceSizeLadder.newBack(), lay = PriceSizeLadder.newLay();
+        back.onPriceChange(true, MATCHED);
+        lay.onPriceChange(true, MATCHED);
+
+        assertEquals(15d, back.getMatchedSizeAtBetterOrEqual(2d), "back at or above 2");
+        assertEquals(5d, back.getMatchedSizeAtBetterOrEqual(2.01d), "back above 2");
+        assertEquals(110d, lay.getMatchedSizeAtBetterOrEqual(2d), "lay at or below 2");
+        assertEquals(110d, lay.getMatchedSizeAtBetterOrEqual(2.013d), "lay between ticks");
+        assertEquals(0d, back.getMatchedSizeAtBetterOrEqual(1_001d), "above ladder");
+        assertEquals(0d, lay.getMatchedSizeAtBetterOrEqual(1d), "below ladder");
+        assertEquals(4d, back.getMatchedSize(2.02d), "exact tick");
+        assertEquals(4d, back.getMatchedSize(2.0200000001d), "no tolerance needed");
+        assertEquals(0d, back.getMatchedSize(2.04d), "absent tick");
+
+        assertEquals(21d, back.getMatchedSizeAtBetterOrEqual(2d, List.of(List.of(2.02d, 0d), List.of(2.5d, 10d)), false), "delta not applied to the ladder");
+        assertEquals(10d, back.getMatchedSizeAtBetterOrEqual(2d, List.of(List.of(2.5d, 10d)), true), "image");
+        assertEquals(15d, back.getMatchedSizeAtBetterOrEqual(2d), "ladder unchanged");
+
+        assertEquals(3.05d, back.getBestPrice(10d), "back best price");
+        assertEquals(2d, back.getBestPrice(1_000d), "back best significant price");
+        assertEquals(1.5d, lay.getBestPrice(100d), "lay best price");
+        assertEquals(List.of(3.05d, 2.02d, 2d, 1.5d), List.copyOf(back.getSimpleTreeMap().keySet()), "back order");
+        assertEquals(List.of(1.5d, 2d, 2.02d, 3.05d), List.copyOf(lay.getSimpleTreeMap().keySet()), "lay order");
+    }
+
+    @Test
+    void removedAmountsAndSnapshots()
+            throws IOException {
+        final PriceSizeLadder back = PriceSizeLadder.newBack();
+        back.onPriceChange(true, MATCHED);
+        back.removeAmountEUR(3.05d, 2d, new AtomicDouble(4d));
+        assertTrue(back.getSimpleTreeMap().containsKey(3.05d), "partial removal");
+        back.removeAmountEUR(3.05d, 5d, new AtomicDouble(1d));
+        assertEquals(3, back.getSimpleTreeMap().size(), "removed down to 0");
+
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        back.writeSnapshot(new DataOutputStream(byteArrayOutputStream));
+        final PriceSizeLadder copy = PriceSizeLadder.newBack();
+        copy.readSnapshot(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));
+        assertEquals(back.getSimpleTreeMap(), copy.getSimpleTreeMap(), "snapshot");
+
+        back.onPriceChange(false, List.of(List.of(2d, 0d), List.of(2.02d, 0d), List.of(1.5d, 0d)));
+        assertTrue(back.isEmpty(), "zero sizes are absent");
+        copy.copyFrom(back);
+        assertTrue(copy.isEmpty(), "copy");
+        assertEquals(FixedPoint.NO_TICK, FixedPoint.toFloorTickPosition(1d), "below ladder");
+    }
+
+    @Test
+    void offLadderPricesAreKept() {
+        final PriceSizeLadder back = PriceSizeLadder.newBack(), lay = PriceSizeLadder.newLay();
+        final List<List<Double>> matched = List.of(List.of(2d, 10d), List.of(2.0367d, 20d), List.of(2.01d, 5d)); // average and between ticks prices
+        back.onPriceChange(true, matched);
+        lay.onPriceChange(true, matched);
+
+        assertEquals(20d, back.getMatchedSize(2.0367d), "average price kept exactly");
+        assertEquals(0d, back.getMatchedSize(2.04d), "not rounded to a tick");
+        assertEquals(25d, back.getMatchedSizeAtBetterOrEqual(2.01d), "back at or above 2.01");
+        assertEquals(15d, lay.getMatchedSizeAtBetterOrEqual(2.02d), "lay at or below 2.02");
+        assertEquals(2.0367d, back.getBestPrice(1_000d), "back best price off the ladder");
+        assertEquals(2d, lay.getBestPrice(100d), "lay best price, before the off ladder ones");
+        assertEquals(List.of(2.0367d, 2.01d, 2d), List.copyOf(back.getSimpleTreeMap().keySet()), "order");
+
+        final Exposure exposure = new Exposure();
+        back.updateBackProfitExposure(exposure);
+        assertEquals(35d, exposure.getBackMatchedExposure(), 1e-9d, "matched exposure");
+
+        back.removeAmountEUR(2.0367d, 20d, new AtomicDouble(1d));
+        assertEquals(0d, back.getMatchedSize(2.0367d), "removed");
+        back.onPriceChange(false, List.of(List.of(2d, 0d), List.of(2.01d, 0d)));
+        assertTrue(back.isEmpty(), "empty");
+    }
+}
@@ -0,0 +1,78 @@
+package info.fmro.shared.stream.cache.order;
+
+import info.fmro.shared.objects.TemporaryOrder;
+import info.fmro.shared.stream.enums.Side;
+import info.fmro.shared.stream.objects.RunnerId;
+import info.fmro.shared.utility.SerialClone;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemporaryOrdersStoreTest {
+    private static final RunnerId FIRST_RUNNER = new RunnerId(1L, 0d), SECOND_RUNNER = new RunnerId(2L, 0d);
+
+    @Test
+    void ordersAreIndexedByRunnerAndPrice() {
+        final TemporaryOrdersStore store = new TemporaryOrdersStore();
+        final TemporaryOrder place = new TemporaryOrder("1.1", FIRST_RUNNER, Side.B, 2.5d, 10d, false, "test"), equalPlace = new TemporaryOrder("1.1", FIRST_RUNNER, Side.B, 2.5d, 10d, false, "test");
+        final TemporaryOrder cancel = new TemporaryOrder("1.1", FIRST_RUNNER, Side.L, 3d, 5d, "100", 2d, false, "test"), otherRunner = new TemporaryOrder("1.1", SECOND_RUNNER, Side.B, 2.5d, 4d, false, "test");
+        assertTrue(store.add(place), "added");
+        assertFalse(store.add(place), "same instance");
+        store.add(equalPlace);
+        store.add(cancel);
+        store.add(otherRunner);
+
+        assertEquals(4, store.size(), "size");
+        assertEquals(List.of(place, equalPlace, cancel), store.getOrders("1.1", FIRST_RUNNER), "runner orders");
+        assertEquals(List.of(), store.getOrders("1.2", FIRST_RUNNER), "other market");
+        assertEquals(List.of(), store.getOrders(null, FIRST_RUNNER), "null market");
+        assertTrue(store.placePriceExists("1.1", FIRST_RUNNER, Side.B, 2.5d), "place price");
+        assertFalse(store.placePriceExists("1.1", FIRST_RUNNER, Side.L, 3d), "cancel orders not counted");
+
+        assertTrue(store.remove(place), "instance removed");
+        assertTrue(store.placePriceExists("1.1", FIRST_RUNNER, Side.B, 2.5d), "equal order left");
+        assertEquals(1, store.removeAllEqual(place), "equal removed");
+        assertFalse(store.placePriceExists("1.1", FIRST_RUNNER, Side.B, 2.5d), "no place order left");
+        assertEquals(List.of(cancel, otherRunner), store.getAll(), "all");
+
+        final TemporaryOrdersStore copy = SerialClone.clone(store);
+        assertEquals(2, copy.size(), "serialized");
+        assertTrue(copy.placePriceExists("1.1", SECOND_RUNNER, Side.B, 2.5d), "indexes rebuilt");
+    }
+
+    @Test
+    void expiredOrdersAreRemovedInOrder() {
+        final TemporaryOrdersStore store = new TemporaryOrdersStore();
+        final TemporaryOrder first = new TemporaryOrder("1.1", FIRST_RUNNER, Side.B, 2.5d, 10d, false, "test"), second = new TemporaryOrder("1.1", SECOND_RUNNER, Side.B, 2.5d, 10d, false, "test");
+        final TemporaryOrder removed = new TemporaryOrder("1.1", SECOND_RUNNER, Side.L, 2.5d, 10d, false, "test");
+        first.setExpirationTime(3_000L);
+        second.setExpirationTime(1_000L);
+        removed.setExpirationTime(500L);
+        store.add(first);
+        store.add(second);
+        store.add(removed);
+        store.remove(removed);
+        first.setExpirationTime(10_000L); // modified after being added
+
+        assertEquals(List.of(), store.removeExpired(999L), "nothing expired");
+        assertEquals(1_000L, store.getNextExpirationTime(), "next expiration");
+        assertEquals(List.of(second), store.removeExpired(5_000L), "expired");
+        assertEquals(10_000L, store.getNextExpirationTime(), "modified expiration");
+        assertEquals(List.of(first), store.removeExpired(10_000L), "expired at the modified time");
+        assertTrue(store.isEmpty(), "empty");
+        assertEquals(Long.MAX_VALUE, store.getNextExpirationTime(), "no orders");
+
+        second.setExpirationTime(5_000L);
+        store.add(first);
+        store.add(second);
+        assertTrue(store.setExpirationTime(first, 2_000L), "lowered through the store");
+        assertEquals(2_000L, store.getNextExpirationTime(), "lowered expiration seen right away");
+        assertEquals(List.of(first), store.removeExpired(2_000L), "expired at the lowered time");
+        assertEquals(List.of(), store.removeExpired(2_500L), "stale entry dropped");
+        assertEquals(1, store.size(), "second left");
+    }
+}
@@ -0,0 +1,42 @@
+package info.fmro.shared.stream.definitions;
+
+import info.fmro.shared.stream.cache.RunnerOrderModificationsBuffer;
+import info.fmro.shared.stream.enums.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevelPriceSizeLadderTest {
+    @Test
+    void onPriceChangeDiffMode() {
+        final LevelPriceSizeLadder ladder = new LevelPriceSizeLadder(Side.B);
+        final RunnerOrderModificationsBuffer buffer = new RunnerOrderModificationsBuffer();
+        double worstOdds = ladder.onPriceChange(true, List.of(List.of(0d, 3d, 10d), List.of(1d, 2.9d, 20d)), buffer);
+        assertEquals(2, buffer.size(), "image");
+        assertEquals(LevelPriceSizeLadder.noKnowledgeExistsBack, worstOdds, "least knowledge out of initial and final");
+
+        // price 3 moves from level 0 to level 1, its size is unchanged, so only the new best price and the removed price are modifications
+        ladder.onPriceChange(false, List.of(List.of(0d, 3.05d, 5d), List.of(1d, 3d, 10d), List.of(2d, 2.9d, 20d)), buffer);
+        assertEquals(1, buffer.size(), "moved levels");
+        assertEquals(3.05d, buffer.getPrice(0), "new price");
+        assertEquals(5d, buffer.getSize(0), "new size");
+
+        worstOdds = ladder.onPriceChange(false, List.of(List.of(2d, 2.9d, 0d)), buffer);
+        assertEquals(LevelPriceSizeLadder.maximalKnowledgeExistsBack, worstOdds, "less than MAX_LEVEL prices");
+        assertEquals(1, buffer.size(), "removed level");
+        assertEquals(-20d, buffer.getSize(0), "removed size");
+
+        ladder.onPriceChange(false, List.of(List.of(1d, 3d, 10d)), buffer);
+        assertTrue(buffer.isEmpty(), "no modification");
+
+        worstOdds = ladder.onPriceChange(true, List.of(), buffer);
+        assertEquals(2, buffer.size(), "empty image");
+        assertEquals(LevelPriceSizeLadder.noKnowledgeExistsBack, worstOdds, "no knowledge after empty image");
+        worstOdds = ladder.onPriceChange(false, List.of(), buffer);
+        assertTrue(buffer.isEmpty(), "empty ladder");
+        assertEquals(LevelPriceSizeLadder.noKnowledgeExistsBack, worstOdds, "empty ladder knowledge");
+    }
+}
@@ -0,0 +1,39 @@
+package info.fmro.shared.stream.definitions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PriceLadderDeltaTest {
+    @Test
+    void readReusesTheThreadReader() {
+        final PriceLadderDelta.Reader reader = PriceLadderDelta.read(List.of(List.of(1.5d, 10d), Arrays.asList(1.6d, null), List.of(1.7d, 20d)), PriceLadderDelta.PRICE_SIZE_WIDTH);
+        assertEquals(2, reader.size(), "wrong tuple skipped");
+        assertEquals(1.7d, reader.getPrice(1), "price");
+        assertEquals(20d, reader.getSize(1), "size");
+
+        final List<List<Double>> manyTuples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            manyTuples.add(List.of((double) i, 1.01d + i, 5d * i));
+        }
+        assertSame(reader, PriceLadderDelta.read(manyTuples, PriceLadderDelta.LEVEL_PRICE_SIZE_WIDTH), "same reader on the same thread");
+        assertEquals(100, reader.size(), "grown scratch");
+        assertEquals(99, reader.getLevel(99), "level");
+        assertEquals(1.01d + 99, reader.getPrice(99), "level price");
+        assertEquals(495d, reader.getSize(99), "level size");
+
+        final double[] values = {1.5d, 10d, 1.6d, 0d};
+        final PriceLadderDelta delta = new PriceLadderDelta(values, values.length, PriceLadderDelta.PRICE_SIZE_WIDTH);
+        assertSame(reader, PriceLadderDelta.read(delta, PriceLadderDelta.PRICE_SIZE_WIDTH), "delta read in place");
+        assertEquals(2, reader.size(), "delta size");
+        assertEquals(1.6d, reader.getPrice(1), "delta price");
+        assertEquals(0d, reader.getSize(1), "delta size removed");
+
+        assertEquals(0, PriceLadderDelta.read(null, PriceLadderDelta.PRICE_SIZE_WIDTH).size(), "null tuples");
+    }
+}
@@ -0,0 +1,48 @@
+package info.fmro.shared.stream.objects;
+
+import info.fmro.shared.enums.FanOutOverflowPolicy;
+import info.fmro.shared.enums.SynchronizedMapModificationCommand;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerializableObjectModificationTest {
+    @Test
+    void encodedOnce() {
+        final HashMap<String, Integer> value = new HashMap<>(Map.of("a", 1));
+        final SerializableObjectModification<SynchronizedMapModificationCommand> modification = new SerializableObjectModification<>(SynchronizedMapModificationCommand.putAll, String.class, value);
+        value.put("b", 2);
+        final Serializable[] array = modification.getArray();
+        assertEquals(Map.of("a", 1), array[1], "state when built");
+        assertNotSame(value, array[1], "not shared with the caller");
+        assertNotSame(array[1], modification.getCopy().getArray()[1], "copy decodes its own objects");
+
+        final StreamObjectBatch batch = SerializationUtils.clone(new StreamObjectBatch(List.of(modification, modification.getCopy())));
+        assertEquals(2, batch.size(), "batch size");
+        assertEquals(Map.of("a", 1), ((SerializableObjectModification<?>) batch.getObjects().get(1)).getArray()[1], "batch round trip");
+    }
+
+    @Test
+    void builtOnlyWhenListening() {
+        final StreamSynchronizedMap<String, Integer> map = new StreamSynchronizedMap<>(Integer.class);
+        assertFalse(map.listOfQueues.isListening(), "no listeners");
+        map.put("a", 1, true);
+        final StreamFanOut.Consumer consumer = map.listOfQueues.registerConsumer(FanOutOverflowPolicy.DROP_OLDEST, map);
+        assertTrue(map.listOfQueues.isListening(), "consumer registered");
+        map.put("b", 2, true);
+        map.remove("a");
+        final List<StreamObjectInterface> drained = new ArrayList<>(3);
+        assertEquals(3, consumer.drainTo(drained, 10), "snapshot and two modifications");
+        assertEquals(SynchronizedMapModificationCommand.remove, ((SerializableObjectModification<?>) drained.get(2)).getCommand(), "order kept");
+    }
+}
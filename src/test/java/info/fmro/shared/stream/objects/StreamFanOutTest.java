@@ -0,0 +1,87 @@
+package info.fmro.shared.stream.objects;
+
+import info.fmro.shared.enums.FanOutOverflowPolicy;
+import info.fmro.shared.enums.SynchronizedMapModificationCommand;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StreamFanOutTest {
+    private static SerializableObjectModification<SynchronizedMapModificationCommand> getModification(final int value) {
+        return new SerializableObjectModification<>(SynchronizedMapModificationCommand.put, String.class, "key", value);
+    }
+
+    @Test
+    void overflowPolicies() {
+        final StreamFanOut fanOut = new StreamFanOut(4);
+        final StreamSynchronizedMap<String, Integer> map = new StreamSynchronizedMap<>(Integer.class);
+        final StreamFanOut.Consumer dropping = fanOut.register(FanOutOverflowPolicy.DROP_OLDEST, null);
+        final StreamFanOut.Consumer resyncing = fanOut.register(FanOutOverflowPolicy.RESYNC, map::getCopy);
+        assertInstanceOf(StreamSynchronizedMap.class, resyncing.poll(), "initial snapshot");
+        for (int i = 0; i < 10; i++) {
+            fanOut.publish(getModification(i));
+        }
+        assertEquals(10L, dropping.getLag(), "lag");
+
+        final List<Object> received = new ArrayList<>(4);
+        for (StreamObjectInterface object = dropping.poll(); object != null; object = dropping.poll()) {
+            received.add(((SerializableObjectModification<?>) object).getArray()[2]);
+        }
+        assertEquals(List.of(7, 8, 9), received, "newest kept");
+        assertEquals(7L, dropping.getNDropped(), "dropped");
+        assertEquals(0L, dropping.getLag(), "caught up");
+        assertEquals(10L, dropping.getMaxLag(), "max lag");
+
+        assertInstanceOf(StreamSynchronizedMap.class, resyncing.poll(), "resync snapshot");
+        assertEquals(1L, resyncing.getNResyncs(), "resyncs");
+        assertNull(resyncing.poll(), "nothing after resync");
+        fanOut.publish(getModification(10));
+        assertEquals(10, ((SerializableObjectModification<?>) resyncing.poll()).getArray()[2], "continues after resync");
+
+        fanOut.clear();
+        assertEquals(0, fanOut.size(), "closed");
+    }
+
+    @Test
+    void blockingConsumer()
+            throws InterruptedException {
+        final StreamFanOut fanOut = new StreamFanOut(2);
+        final StreamFanOut.Consumer consumer = fanOut.register(FanOutOverflowPolicy.BLOCK, null);
+        final List<Object> received = new ArrayList<>(100);
+        final Thread thread = new Thread(() -> {
+            while (received.size() < 100) {
+                final StreamObjectInterface object = consumer.poll(10L, TimeUnit.SECONDS);
+                if (object != null) {
+                    received.add(((SerializableObjectModification<?>) object).getArray()[2]);
+                }
+            }
+        });
+        thread.start();
+        final List<Object> expected = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            expected.add(i);
+            fanOut.publish(getModification(i));
+        }
+        thread.join(10_000L);
+        assertEquals(expected, received, "nothing lost");
+        assertEquals(0L, consumer.getNDropped(), "nothing dropped");
+    }
+
+    @Test
+    void listOfQueuesConsumer() {
+        final StreamSynchronizedMap<String, Integer> map = new StreamSynchronizedMap<>(Integer.class);
+        map.put("a", 1, true);
+        final StreamFanOut.Consumer consumer = map.listOfQueues.registerConsumer(FanOutOverflowPolicy.DROP_OLDEST, map);
+        assertEquals(1, map.listOfQueues.size(), "registered");
+        assertEquals(1, ((StreamSynchronizedMap<?, ?>) consumer.poll()).size(), "initial copy");
+        map.put("b", 2, true);
+        assertEquals(SynchronizedMapModificationCommand.put, ((SerializableObjectModification<?>) consumer.poll()).getCommand(), "modification");
+        assertNull(consumer.poll(), "nothing more");
+    }
+}
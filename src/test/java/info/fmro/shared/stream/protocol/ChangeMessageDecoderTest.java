@@ -0,0 +1,100 @@
+package info.fmro.shared.stream.protocol;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import info.fmro.shared.stream.definitions.LevelPriceSizeLadder;
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.MarketChangeMessage;
+import info.fmro.shared.stream.definitions.OrderChangeMessage;
+import info.fmro.shared.stream.definitions.OrderRunnerChange;
+import info.fmro.shared.stream.definitions.PriceLadderDelta;
+import info.fmro.shared.stream.definitions.ResponseMessage;
+import info.fmro.shared.stream.definitions.RunnerChange;
+import info.fmro.shared.stream.enums.Side;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeMessageDecoderTest {
+    private static final String MARKET_CHANGE = "{\"op\":\"mcm\",\"id\":2,\"clk\":\"AAA\",\"pt\":1600000000000,\"ct\":\"SUB_IMAGE\",\"unknown\":{\"a\":[1,2]},\"mc\":[{\"id\":\"1.23\",\"img\":true,\"tv\":12.5," +
+                                                "\"marketDefinition\":{\"betDelay\":5,\"inPlay\":false,\"unknownField\":1},\"rc\":[{\"id\":7,\"ltp\":2.5,\"atb\":[[2.48,10.5],[2.46,3]],\"atl\":[[2.52,0]]," +
+                                                "\"batb\":[[0,2.48,10.5],[1,2.46,3]],\"trd\":[[2.5,100.25]]}]}]}";
+    private static final String ORDER_CHANGE = "{\"op\":\"ocm\",\"id\":3,\"clk\":\"BBB\",\"pt\":1600000000000,\"oc\":[{\"id\":\"1.23\",\"accountId\":9,\"orc\":[{\"id\":7,\"fullImage\":true,\"mb\":[[2.5,4]],\"ml\":[[3.1,2.2]]," +
+                                               "\"uo\":[{\"id\":\"100\",\"p\":2.5,\"s\":4,\"side\":\"B\",\"status\":\"E\",\"pd\":1600000000000,\"sm\":0,\"sr\":4}],\"smc\":{\"ref\":{\"mb\":[[2.5,4]]}}}]}]}";
+
+    private static ObjectMapper getDatabindMapper() {
+        final ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.addMixIn(ResponseMessage.class, MixInResponseMessage.class);
+        return objectMapper;
+    }
+
+    @Test
+    void marketChangeMatchesDatabind()
+            throws JsonProcessingException {
+        final ChangeMessageDecoder decoder = new ChangeMessageDecoder();
+        final MarketChangeMessage decoded = (MarketChangeMessage) decoder.decode(MARKET_CHANGE);
+        final MarketChangeMessage expected = (MarketChangeMessage) getDatabindMapper().readValue(MARKET_CHANGE, ResponseMessage.class);
+        assertEquals(expected.getClk(), decoded.getClk(), "clk");
+        assertEquals(expected.getId(), decoded.getId(), "id");
+        assertEquals(expected.getPt(), decoded.getPt(), "pt");
+        assertEquals(expected.getCt(), decoded.getCt(), "ct");
+
+        final MarketChange decodedMarketChange = decoded.getMc().get(0), expectedMarketChange = expected.getMc().get(0);
+        assertEquals(expectedMarketChange.getId(), decodedMarketChange.getId(), "market id");
+        assertEquals(expectedMarketChange.getImg(), decodedMarketChange.getImg(), "img");
+        assertEquals(expectedMarketChange.getTv(), decodedMarketChange.getTv(), "market tv");
+        assertEquals(5L, decodedMarketChange.getMarketDefinition().getBetDelay(), "market definition");
+
+        final RunnerChange decodedRunnerChange = decodedMarketChange.getRc().get(0), expectedRunnerChange = expectedMarketChange.getRc().get(0);
+        assertEquals(expectedRunnerChange.getId(), decodedRunnerChange.getId(), "runner id");
+        assertEquals(expectedRunnerChange.getLtp(), decodedRunnerChange.getLtp(), "ltp");
+        assertEquals(expectedRunnerChange.getAtb(), decodedRunnerChange.getAtb(), "atb");
+        assertEquals(expectedRunnerChange.getAtl(), decodedRunnerChange.getAtl(), "atl");
+        assertEquals(expectedRunnerChange.getBatb(), decodedRunnerChange.getBatb(), "batb");
+        assertEquals(expectedRunnerChange.getTrd(), decodedRunnerChange.getTrd(), "trd");
+        assertNull(decodedRunnerChange.getSpb(), "absent ladder");
+        assertTrue(decodedRunnerChange.getAtb() instanceof PriceLadderDelta, "primitive ladder");
+        assertSame(decodedRunnerChange.getAtb(), decodedRunnerChange.getAtb(), "shared, not copied");
+
+        final LevelPriceSizeLadder decodedLadder = new LevelPriceSizeLadder(Side.B), expectedLadder = new LevelPriceSizeLadder(Side.B);
+        decodedLadder.onPriceChange(true, decodedRunnerChange.getBatb());
+        expectedLadder.onPriceChange(true, expectedRunnerChange.getBatb());
+        assertEquals(expectedLadder.getSimpleTreeMap(1d), decodedLadder.getSimpleTreeMap(1d), "same ladder");
+    }
+
+    @Test
+    void orderChangeMatchesDatabind()
+            throws JsonProcessingException {
+        final ChangeMessageDecoder decoder = new ChangeMessageDecoder();
+        final OrderChangeMessage decoded = (OrderChangeMessage) decoder.decode(ORDER_CHANGE);
+        final OrderChangeMessage expected = (OrderChangeMessage) getDatabindMapper().readValue(ORDER_CHANGE, ResponseMessage.class);
+        assertEquals(expected.getClk(), decoded.getClk(), "clk");
+        assertEquals(expected.getOc().get(0).getAccountId(), decoded.getOc().get(0).getAccountId(), "accountId");
+
+        final OrderRunnerChange decodedRunnerChange = decoded.getOc().get(0).getOrc().get(0), expectedRunnerChange = expected.getOc().get(0).getOrc().get(0);
+        assertEquals(expectedRunnerChange.getId(), decodedRunnerChange.getId(), "runner id");
+        assertEquals(expectedRunnerChange.isImage(), decodedRunnerChange.isImage(), "fullImage");
+        assertEquals(expectedRunnerChange.getMb(), decodedRunnerChange.getMb(), "mb");
+        assertEquals(expectedRunnerChange.getMl(), decodedRunnerChange.getMl(), "ml");
+        assertEquals(expectedRunnerChange.getSmc().get("ref").getMb(), decodedRunnerChange.getSmc().get("ref").getMb(), "smc");
+        assertEquals(expectedRunnerChange.getUo().get(0).getId(), decodedRunnerChange.getUo().get(0).getId(), "uo id");
+        assertEquals(expectedRunnerChange.getUo().get(0).getP(), decodedRunnerChange.getUo().get(0).getP(), "uo price");
+        assertEquals(expectedRunnerChange.getUo().get(0).getSide(), decodedRunnerChange.getUo().get(0).getSide(), "uo side");
+    }
+
+    @Test
+    void wrongTuplesAreSkipped() {
+        final ChangeMessageDecoder decoder = new ChangeMessageDecoder();
+        final MarketChangeMessage decoded = (MarketChangeMessage) decoder.decode("{\"op\":\"mcm\",\"mc\":[{\"id\":\"1.1\",\"rc\":[{\"id\":1,\"atb\":[[2,1],[3],null,[4,\"x\"],[5,2,1],[6,3]]}]}]}");
+        assertEquals(List.of(List.of(2d, 1d), List.of(6d, 3d)), decoded.getMc().get(0).getRc().get(0).getAtb(), "only the valid tuples");
+
+        assertNull(decoder.decode("{\"op\":\"status\",\"id\":1,\"statusCode\":\"SUCCESS\"}"), "left to databind");
+        assertNull(decoder.decode("{\"op\":\"mcm\",\"mc\":[{\"rc\":[{\"atb\":[[1,"), "truncated");
+    }
+}
@@ -0,0 +1,77 @@
+package info.fmro.shared.stream.protocol;
+
+import info.fmro.shared.stream.definitions.MarketChange;
+import info.fmro.shared.stream.definitions.MarketChangeMessage;
+import info.fmro.shared.stream.definitions.MarketSubscriptionMessage;
+import info.fmro.shared.stream.enums.ChangeType;
+import info.fmro.shared.stream.enums.SegmentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionHandlerTest {
+    private static ChangeMessage<MarketChange> getChangeMessage(final SegmentType segmentType, final String clk, final String... marketIds) {
+        final List<MarketChange> marketChanges = new ArrayList<>(marketIds.length);
+        for (final String marketId : marketIds) {
+            final MarketChange marketChange = new MarketChange();
+            marketChange.setId(marketId);
+            marketChanges.add(marketChange);
+        }
+        final MarketChangeMessage marketChangeMessage = new MarketChangeMessage();
+        marketChangeMessage.setId(5);
+        marketChangeMessage.setClk(clk);
+        marketChangeMessage.setPt(new Date(1_600_000_000_000L));
+        marketChangeMessage.setCt(ChangeType.SUB_IMAGE);
+        marketChangeMessage.setSegmentType(segmentType);
+        marketChangeMessage.setMc(marketChanges);
+        return ChangeMessageFactory.ToChangeMessage(1, marketChangeMessage);
+    }
+
+    @Test
+    void segmentsAreMergedIntoANewMessage() {
+        final MarketSubscriptionMessage subscriptionMessage = new MarketSubscriptionMessage();
+        subscriptionMessage.setId(5);
+        final SubscriptionHandler<MarketSubscriptionMessage, ChangeMessage<MarketChange>, MarketChange> subscriptionHandler = new SubscriptionHandler<>(subscriptionMessage, true);
+
+        assertNull(subscriptionHandler.processChangeMessage(getChangeMessage(SegmentType.SEG_START, "a", "1.1", "1.2")), "start swallowed");
+        assertNull(subscriptionHandler.processChangeMessage(getChangeMessage(SegmentType.SEG, "b", "1.3")), "middle swallowed");
+        final ChangeMessage<MarketChange> lastSegment = getChangeMessage(SegmentType.SEG_END, "c", "1.4");
+        final ChangeMessage<MarketChange> merged = subscriptionHandler.processChangeMessage(lastSegment);
+
+        assertEquals(4, merged.getItems().size(), "all segments");
+        assertEquals("1.4", merged.getItems().get(3).getId(), "order kept");
+        assertEquals(SegmentType.NONE, merged.getSegmentType(), "merged");
+        assertEquals(SegmentType.SEG_END, lastSegment.getSegmentType(), "original unchanged");
+        assertEquals(1, lastSegment.getItems().size(), "original items unchanged");
+        assertEquals("c", subscriptionHandler.getClk(), "clk");
+        assertTrue(subscriptionHandler.isSubscribed(), "end of image");
+        assertEquals(1_600_000_000_000L, subscriptionHandler.getLastPublishTime().getTime(), "publish time");
+        assertThrows(UnsupportedOperationException.class, () -> merged.getItems().clear(), "read only items");
+
+        final MarketSubscriptionMessage otherSubscription = new MarketSubscriptionMessage();
+        otherSubscription.setId(6);
+        assertNull(new SubscriptionHandler<MarketSubscriptionMessage, ChangeMessage<MarketChange>, MarketChange>(otherSubscription, true).processChangeMessage(lastSegment), "other subscription id");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void dateAccessorsMatchTheMillis() {
+        final ChangeMessage<MarketChange> changeMessage = getChangeMessage(SegmentType.NONE, "a", "1.1");
+        assertEquals(1_600_000_000_000L, changeMessage.getPublishTimeMillis(), "publish millis");
+        assertEquals(new Date(1_600_000_000_000L), changeMessage.getPublishTime(), "publish date");
+        assertEquals(changeMessage.getArrivalTimeMillis(), changeMessage.getArrivalTime().getTime(), "arrival date");
+
+        changeMessage.setArrivalTime(new Date(1_700_000_000_000L));
+        assertEquals(1_700_000_000_000L, changeMessage.getArrivalTimeMillis(), "arrival set from date");
+        changeMessage.setArrivalTime(null);
+        assertNull(changeMessage.getArrivalTime(), "no arrival time");
+        assertEquals(1_800_000_000_000L, changeMessage.withArrivalTime(1_800_000_000_000L).getArrivalTimeMillis(), "arrival millis on a new message");
+    }
+}
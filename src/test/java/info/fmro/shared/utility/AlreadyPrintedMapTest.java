@@ -5,8 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AlreadyPrintedMapTest {
     private static final Logger logger = LoggerFactory.getLogger(AlreadyPrintedMapTest.class);
@@ -32,4 +37,40 @@ class AlreadyPrintedMapTest {
         result = SharedStatics.alreadyPrintedMap.logOnce(false, 500L, logger, LogLevel.ERROR, "test");
         assertEquals(expectedResult, result, "counter:" + 3);
     }
+
+    @Test
+    void messagesAreKeyedByFormatAndArguments() {
+        final AlreadyPrintedMap alreadyPrintedMap = new AlreadyPrintedMap();
+        final String format = "runner {} price {}";
+        assertEquals("runner 1 price 2.5", alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, 1L, 2.5d), "first");
+        assertNull(alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, 1L, 2.5d), "same arguments");
+        assertNull(alreadyPrintedMap.logOnce(logger, LogLevel.INFO, AlreadyPrintedMap.NOT_IMPORTANT_PREFIX + format, "1", 2.5d), "same printed arguments");
+        assertNull(alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, 1L, 2.5d, "unused argument"), "argument not in the format");
+        assertEquals("runner 1 price 3.0", alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, 1L, 3d), "other arguments");
+        assertEquals("runner [1, 2] price 2.5", alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, new int[]{1, 2}, 2.5d), "array");
+        assertNull(alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, new int[]{1, 2}, 2.5d), "equal array");
+        assertEquals("runner 1 price 2.5", alreadyPrintedMap.logOnce(true, logger, LogLevel.INFO, format, 1L, 2.5d), "printAnyway");
+
+        assertEquals(4L, alreadyPrintedMap.getEmittedCount(format), "emitted");
+        assertEquals(4L, alreadyPrintedMap.getSuppressedCount(AlreadyPrintedMap.NOT_IMPORTANT_PREFIX + format), "suppressed");
+        assertEquals(0L, alreadyPrintedMap.getEmittedCount("other {}"), "unknown format");
+
+        assertFalse(alreadyPrintedMap.containsOrAdd("runner", 500L, LogLevel.INFO), "containsOrAdd new");
+        assertTrue(alreadyPrintedMap.containsOrAdd("runner", 500L, LogLevel.INFO), "containsOrAdd existing");
+        alreadyPrintedMap.clear();
+        assertEquals("runner 1 price 2.5", alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, 1L, 2.5d), "after clear");
+        assertEquals(Set.of(format), alreadyPrintedMap.getTemplates(), "templates");
+    }
+
+    @Test
+    void lazyArgumentsAreKeyedByContent() {
+        final AlreadyPrintedMap alreadyPrintedMap = new AlreadyPrintedMap();
+        final String format = "object {}";
+        final int[] first = {1}, copy = {1}, other = {2};
+        final LazyObjectString lazyFirst = Generic.lazyObjectToString(first);
+        assertEquals("object " + Generic.objectToString(first), alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, lazyFirst), "first");
+        assertSame(lazyFirst.toString(), lazyFirst.toString(), "formatted once, the result is reused");
+        assertNull(alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, Generic.lazyObjectToString(copy)), "new object with the same content, like a fresh local copy");
+        assertEquals("object " + Generic.objectToString(other), alreadyPrintedMap.logOnce(logger, LogLevel.INFO, format, Generic.lazyObjectToString(other)), "other content");
+    }
 }
@@ -0,0 +1,128 @@
+package info.fmro.shared.utility;
+
+import info.fmro.shared.enums.JournalSyncPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeJournalTest {
+    private static void deleteDirectory(final String directoryName) {
+        final File[] files = new File(directoryName).listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        new File(directoryName).delete();
+    }
+
+    @Test
+    void checkpointAndReplay()
+            throws IOException {
+        final String directoryName = Generic.tempFileName("test");
+        try {
+            final ChangeJournal journal = ChangeJournal.open(directoryName, "cache", 256L, JournalSyncPolicy.SEGMENT, 0L);
+            assertNotNull(journal, "open");
+            final ArrayList<String> applied = new ArrayList<>(8);
+            for (int i = 0; i < 5; i++) {
+                applied.add("change" + i);
+                assertTrue(journal.append(ChangeJournal.MARKET_CHANGE_MESSAGE, "marketCache", "change" + i), "append");
+            }
+            final ArrayList<String> checkpointed = new ArrayList<>(applied);
+            assertTrue(journal.checkpoint(writer -> writer.writeSerializableSection("state", checkpointed, false)), "checkpoint");
+            for (int i = 5; i < 9; i++) {
+                assertTrue(journal.append(ChangeJournal.OBJECT_MODIFICATION, "rules", "change" + i), "append after checkpoint");
+            }
+            assertEquals(9L, journal.getNextSequence(), "next sequence");
+            journal.close();
+
+            final File[] segments = Objects.requireNonNull(new File(directoryName).listFiles((dir, name) -> name.endsWith(".journal")));
+            assertTrue(segments.length > 1, "rollover");
+            File newestSegment = segments[0];
+            for (final File segment : segments) {
+                if (segment.getName().compareTo(newestSegment.getName()) > 0) {
+                    newestSegment = segment;
+                }
+            }
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(newestSegment, "rw")) {
+                randomAccessFile.setLength(randomAccessFile.length() - 3L); // torn last record
+            }
+
+            final ChangeJournal reopened = ChangeJournal.open(directoryName, "cache", 256L, JournalSyncPolicy.EVERY_RECORD, 0L);
+            assertNotNull(reopened, "reopen");
+            final List<Object> restored = new ArrayList<>(1);
+            final List<Object> replayed = new ArrayList<>(4);
+            final long nReplayed = reopened.recover(sections -> restored.add(sections == null ? null : sections.get("state").readSerializable()),
+                                                    (type, source, payload) -> replayed.add(type + source + payload));
+            assertEquals(List.of(checkpointed), restored, "checkpoint restored");
+            assertEquals(3L, nReplayed, "replayed count");
+            assertEquals(List.of("3ruleschange5", "3ruleschange6", "3ruleschange7"), replayed, "replayed records");
+            assertEquals(8L, reopened.getNextSequence(), "torn record dropped");
+            assertTrue(reopened.append(ChangeJournal.ORDER_CHANGE_MESSAGE, "orderCache", "change8"), "append after recovery");
+            reopened.close();
+        } finally {
+            deleteDirectory(directoryName);
+        }
+    }
+
+    @Test
+    void checkpointWaitsForChangesInFlight()
+            throws Exception {
+        final String directoryName = Generic.tempFileName("test");
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final ChangeJournal journal = ChangeJournal.open(directoryName, "cache", 1L << 20, JournalSyncPolicy.SEGMENT, 0L);
+            assertNotNull(journal, "open");
+            final AtomicInteger cacheState = new AtomicInteger(); // number of applied changes
+            assertTrue(journal.appendAndApply(ChangeJournal.MARKET_CHANGE_MESSAGE, "marketCache", "change0", cacheState::incrementAndGet), "first change");
+            final CountDownLatch journaled = new CountDownLatch(1), release = new CountDownLatch(1);
+            final Future<Boolean> change = executor.submit(() -> journal.appendAndApply(ChangeJournal.MARKET_CHANGE_MESSAGE, "marketCache", "change1", () -> {
+                journaled.countDown();
+                try {
+                    release.await(10L, TimeUnit.SECONDS);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                cacheState.incrementAndGet();
+            }));
+            assertTrue(journaled.await(5L, TimeUnit.SECONDS), "change journaled");
+            final Future<Boolean> checkpoint = executor.submit(() -> journal.checkpoint(writer -> writer.writeSerializableSection("state", cacheState.get(), false)));
+            Thread.sleep(200L);
+            assertFalse(checkpoint.isDone(), "checkpoint waits for the journaled change to be applied");
+            release.countDown();
+            assertTrue(change.get(5L, TimeUnit.SECONDS), "second change");
+            assertTrue(checkpoint.get(5L, TimeUnit.SECONDS), "checkpoint");
+            assertTrue(journal.appendAndApply(ChangeJournal.MARKET_CHANGE_MESSAGE, "marketCache", "change2", cacheState::incrementAndGet), "change after checkpoint");
+            journal.close();
+
+            final ChangeJournal reopened = ChangeJournal.open(directoryName, "cache", 1L << 20, JournalSyncPolicy.SEGMENT, 0L);
+            assertNotNull(reopened, "reopen");
+            final AtomicInteger recoveredState = new AtomicInteger();
+            final long nReplayed = reopened.recover(sections -> recoveredState.set((Integer) sections.get("state").readSerializable()), (type, source, payload) -> recoveredState.incrementAndGet());
+            assertEquals(1L, nReplayed, "only the change after the checkpoint is replayed");
+            assertEquals(3, recoveredState.get(), "no change lost");
+            reopened.close();
+        } finally {
+            executor.shutdown();
+            deleteDirectory(directoryName);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package info.fmro.shared.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentSafeMapTest {
+    @Test
+    void nullKeys() {
+        final ConcurrentSafeMap<String, Integer> map = new ConcurrentSafeMap<>();
+        assertNull(map.get(null), "get");
+        assertFalse(map.containsKey(null), "containsKey");
+        assertNull(map.remove(null), "remove");
+        assertEquals(0L, map.getTimeStampRemoved(), "nothing removed");
+    }
+
+    @Test
+    void concurrentPutIfAbsent()
+            throws Exception {
+        final ConcurrentSafeMap<String, Integer> map = new ConcurrentSafeMap<>();
+        final AtomicInteger nWinners = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(8);
+            for (int thread = 0; thread < 8; thread++) {
+                final int value = thread;
+                futures.add(executor.submit(() -> {
+                    for (int key = 0; key < 1_000; key++) {
+                        if (map.putIfAbsent(String.valueOf(key), value) == null) {
+                            nWinners.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1_000, nWinners.get(), "one winner per key");
+        assertEquals(1_000, map.size(), "size");
+        assertEquals(1_000, map.clear().size(), "cleared");
+        assertTrue(map.isEmpty(), "empty");
+        assertTrue(map.getTimeStampRemoved() > 0L, "removal stamped");
+    }
+}
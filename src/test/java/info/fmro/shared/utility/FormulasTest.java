@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.TreeMap;
 
@@ -188,4 +189,74 @@ class FormulasTest {
         final double odds = Formulas.getBestOddsWhereICanMoveAmountsToBetterOdds("x", new RunnerId(0L, 0d), Side.B, new HashMap<>(2), myUnmatchedBackAmounts, availableToLay, false);
         assertEquals(0d, odds);
     }
+
+    private static double referenceClosestOdds(final int odds, final Side side) { // the list search replaced by the tick table
+        final double result;
+        final List<Integer> pricesList = Formulas.pricesList;
+        if (pricesList.indexOf(odds) >= 0) {
+            result = odds / 100d;
+        } else if (odds < pricesList.get(0)) {
+            result = 1d;
+        } else if (odds > pricesList.get(pricesList.size() - 1)) {
+            result = 1_001d;
+        } else {
+            int smallerOdds = 100, largerOdds = 100_100;
+            for (final int oddsInList : pricesList) {
+                if (odds > oddsInList) {
+                    smallerOdds = oddsInList;
+                } else {
+                    largerOdds = oddsInList;
+                    break;
+                }
+            }
+            result = side == Side.B ? largerOdds / 100d : smallerOdds / 100d;
+        }
+        return Generic.roundDouble(result);
+    }
+
+    private static double referenceNStepDifferentOdds(final int baseOdds, final int nSteps) {
+        final double result;
+        final List<Integer> pricesList = Formulas.pricesList;
+        final int baseOddsPosition = pricesList.indexOf(baseOdds);
+        if (baseOddsPosition < 0) {
+            if (baseOdds < pricesList.get(0)) {
+                result = 1d;
+            } else if (baseOdds > pricesList.get(pricesList.size() - 1)) {
+                result = 1_001d;
+            } else {
+                result = nSteps <= 0 ? 1d : 1_001d;
+            }
+        } else {
+            final int resultPosition = baseOddsPosition + nSteps;
+            result = resultPosition < 0 ? 1d : resultPosition >= pricesList.size() ? 1_001d : pricesList.get(resultPosition) / 100d;
+        }
+        return Generic.roundDouble(result);
+    }
+
+    @Test
+    void tickTableMatchesListSearch() { // exhaustive over the whole ladder, one cent below and above it included
+        for (int intOdds = 0; intOdds <= Formulas.MAX_TICK + 100; intOdds++) {
+            final double odds = intOdds / 100d;
+            assertEquals(Formulas.pricesList.indexOf(intOdds), Formulas.getOddsPosition(odds), "position " + intOdds);
+            assertEquals(referenceClosestOdds(intOdds, Side.B), Formulas.getClosestOdds(intOdds, Side.B), "closest back " + intOdds);
+            assertEquals(referenceClosestOdds(intOdds, Side.L), Formulas.getClosestOdds(intOdds, Side.L), "closest lay " + intOdds);
+            if (intOdds < Formulas.MIN_TICK || intOdds > Formulas.MAX_TICK || Formulas.getOddsPosition(odds) >= 0) { // odds off the ladder, inside its range, are logged as errors by getNStepDifferentOdds
+                for (int nSteps = -3; nSteps <= 3; nSteps++) {
+                    assertEquals(referenceNStepDifferentOdds(intOdds, nSteps), Formulas.getNStepDifferentOdds(odds, nSteps), "steps " + nSteps + " from " + intOdds);
+                }
+            } else { // not a tick, only the positions and the closest odds are compared
+            }
+        }
+        for (int position = 0; position < Formulas.getNTicks(); position++) {
+            final int tick = Formulas.pricesList.get(position);
+            assertEquals(tick, Formulas.getTick(position), "tick " + position);
+            assertEquals(Generic.roundDouble(tick / 100d), Formulas.getTickPrice(position), "tick price " + position);
+            assertEquals(tick / 100d, Formulas.getTickPrice(position), "same as plain division " + position);
+        }
+        assertEquals(Formulas.MIN_TICK, Formulas.pricesList.get(0), "first tick");
+        assertEquals(Formulas.MAX_TICK, Formulas.pricesList.get(Formulas.getNTicks() - 1), "last tick");
+        assertEquals(10, Formulas.getTickDistance(2d, 2.2d), "distance");
+        assertEquals(-10, Formulas.getTickDistance(2.2d, 2d), "negative distance");
+        assertEquals(Integer.MIN_VALUE, Formulas.getTickDistance(2.01d, 2.2d), "not a tick");
+    }
 }
@@ -1840,6 +1840,26 @@ class GenericTest {
         assertEquals(expResult, result);
     }
 
+    @Test
+    void objectToStringSizeLimit() {
+        final String result = Generic.objectToString(new Object[]{new double[ObjectFormatter.MAX_LENGTH], "never reached"});
+        assertEquals("returnStringBuilderLength>" + ObjectFormatter.MAX_LENGTH + " would lead to out of memory error!", result);
+        assertEquals("(name=a\\n b  number=3)", Generic.objectToString(new LocalTestObject("a\nb ", 3)), "new lines, field value not trimmed");
+    }
+
+    @Test
+    void lazyObjectToString() {
+        final LocalTestObject object = new LocalTestObject("test", 0);
+        final LazyObjectString lazyString = Generic.lazyObjectToString(object);
+        object.name = "changed"; // formatted only when used
+        assertEquals("(name=changed number=0)", lazyString.toString(), "first");
+        object.name = "changed again";
+        assertEquals("(name=changed number=0)", lazyString.toString(), "kept");
+        assertEquals("(number=0)", Generic.lazyObjectToString(object, "name").toString(), "exclude patterns");
+        assertEquals("()", Generic.lazyObjectToString(new LocalTestObject(null, 0), false).toString(), "default value fields");
+        assertEquals("null", Generic.lazyObjectToString(null).toString(), "null");
+    }
+
     @Test
     void removeNewLine() {
         final String expResult = "test\\n test\\n test\\n test\\n test";
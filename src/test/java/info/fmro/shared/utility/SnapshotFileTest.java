@@ -0,0 +1,87 @@
+package info.fmro.shared.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotFileTest {
+    @Test
+    void sections()
+            throws IOException {
+        final String fileName = Generic.tempFileName("test");
+        try {
+            final SnapshotFile.Writer writer = new SnapshotFile.Writer(fileName);
+            assertTrue(writer.writeSection("plain", 3, false, dataOutputStream -> {
+                dataOutputStream.writeInt(42);
+                SnapshotFile.writeString(dataOutputStream, "abc");
+                SnapshotFile.writeString(dataOutputStream, null);
+                SnapshotFile.writeNullableDouble(dataOutputStream, null);
+                SnapshotFile.writeNullableDouble(dataOutputStream, 1.5d);
+            }), "plain");
+            assertTrue(writer.writeSection("deflated", 1, true, dataOutputStream -> {
+                for (int i = 0; i < 1_000; i++) {
+                    dataOutputStream.writeLong(i);
+                }
+            }), "deflated");
+            assertTrue(writer.writeSerializableSection("serialized", new ArrayList<>(List.of("x", "y")), true), "serialized");
+            assertTrue(writer.commit(), "commit");
+
+            final Map<String, SnapshotFile.Section> sections = SnapshotFile.read(fileName);
+            assertNotNull(sections, "read");
+            assertEquals(List.of("plain", "deflated", "serialized"), new ArrayList<>(sections.keySet()), "order");
+            final SnapshotFile.Section plain = sections.get("plain");
+            assertEquals(3, plain.getSchemaVersion(), "schema version");
+            final ByteBuffer byteBuffer = plain.getPayload();
+            assertEquals(42, byteBuffer.getInt(), "int");
+            assertEquals("abc", SnapshotFile.readString(byteBuffer), "string");
+            assertNull(SnapshotFile.readString(byteBuffer), "null string");
+            assertNull(SnapshotFile.readNullableDouble(byteBuffer), "null double");
+            assertEquals(1.5d, SnapshotFile.readNullableDouble(byteBuffer), "double");
+            assertEquals(0, byteBuffer.remaining(), "all read");
+
+            final ByteBuffer deflated = sections.get("deflated").getPayload();
+            assertEquals(8_000, deflated.remaining(), "inflated length");
+            assertEquals(999L, deflated.getLong(999 * Long.BYTES), "inflated content");
+            assertEquals(List.of("x", "y"), sections.get("serialized").readSerializable(), "serialized");
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            new File(fileName).delete();
+        }
+    }
+
+    @Test
+    void damagedFile()
+            throws IOException {
+        final String fileName = Generic.tempFileName("test");
+        try {
+            final SnapshotFile.Writer writer = new SnapshotFile.Writer(fileName);
+            writer.writeSection("section", 1, false, dataOutputStream -> dataOutputStream.writeLong(123L));
+            writer.commit();
+            try (final RandomAccessFile randomAccessFile = new RandomAccessFile(fileName, "rw")) {
+                final long payloadPosition = randomAccessFile.length() - 1L - Long.BYTES;
+                randomAccessFile.seek(payloadPosition);
+                randomAccessFile.write(7);
+            }
+            assertNull(SnapshotFile.read(fileName), "checksum mismatch");
+
+            try (final RandomAccessFile randomAccessFile = new RandomAccessFile(fileName, "rw")) {
+                randomAccessFile.setLength(randomAccessFile.length() - 4L);
+            }
+            assertNull(SnapshotFile.read(fileName), "truncated");
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            new File(fileName).delete();
+        }
+    }
+}
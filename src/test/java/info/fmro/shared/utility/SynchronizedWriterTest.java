@@ -1,5 +1,6 @@
 package info.fmro.shared.utility;
 
+import info.fmro.shared.enums.WriterDurability;
 import junitx.framework.FileAssert;
 import org.junit.jupiter.api.Test;
 
@@ -7,11 +8,20 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SynchronizedWriterTest {
@@ -178,4 +188,124 @@ public class SynchronizedWriterTest {
             new File(fileName).delete();
         }
     }
+
+    @Test
+    void asynchronousWrite()
+            throws IOException {
+        final String fileName = Generic.tempFileName("test");
+        final SynchronizedWriter instance = SynchronizedWriter.openAsynchronous(fileName, false, "asyncTest", 1 << 10, 10_000L, WriterDurability.NONE, 0L, 0L, false);
+        final File file = new File(fileName);
+        try {
+            assertNotNull(instance, "opened");
+            assertTrue(instance.isAsynchronous(), "asynchronous");
+            final StringBuilder expected = new StringBuilder(4_000);
+            for (int i = 0; i < 500; i++) {
+                final String record = "record" + i + '\n';
+                assertTrue(instance.write(record), "write " + i);
+                expected.append(record);
+            }
+            assertTrue(instance.writeAndFlush("last \u20ac\n"), "writeAndFlush");
+            expected.append("last \u20ac\n");
+            instance.close();
+            assertFalse(instance.write("after close"), "closed");
+            assertEquals(expected.toString(), Files.readString(file.toPath(), StandardCharsets.UTF_8), "content");
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void asynchronousCloseWritesEverything()
+            throws IOException {
+        final String fileName = Generic.tempFileName("test");
+        final SynchronizedWriter instance = SynchronizedWriter.openAsynchronous(fileName, false, "asyncCloseTest", 1 << 20, 60_000L, WriterDurability.NONE, 0L, 0L, false); // nothing wakes the writer thread before close
+        final File file = new File(fileName);
+        try {
+            assertNotNull(instance, "opened");
+            final StringBuilder expected = new StringBuilder(200_000);
+            for (int i = 0; i < 20_000; i++) { // several times MAX_DRAINED_RECORDS
+                final String record = "record" + i + '\n';
+                assertTrue(instance.write(record), "write " + i);
+                expected.append(record);
+            }
+            assertTrue(instance.close()[0], "queue empty after close");
+            assertEquals(expected.toString(), Files.readString(file.toPath(), StandardCharsets.UTF_8), "content");
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void asynchronousCloseWhileWriting()
+            throws IOException, InterruptedException {
+        final String fileName = Generic.tempFileName("test");
+        final SynchronizedWriter instance = SynchronizedWriter.openAsynchronous(fileName, false, "asyncRaceTest", 1 << 10, 1L, WriterDurability.NONE, 0L, 0L, false);
+        final File file = new File(fileName);
+        try {
+            assertNotNull(instance, "opened");
+            final AtomicInteger nAccepted = new AtomicInteger();
+            final List<Thread> producers = new ArrayList<>(4);
+            for (int i = 0; i < 4; i++) {
+                final Thread producer = new Thread(() -> {
+                    boolean accepted = true;
+                    while (accepted) {
+                        accepted = instance.write("record\n");
+                        if (accepted) {
+                            nAccepted.incrementAndGet();
+                        }
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            Generic.threadSleep(50L);
+            instance.close();
+            for (final Thread producer : producers) {
+                producer.join();
+            }
+            try (final Stream<String> lines = Files.lines(file.toPath(), StandardCharsets.UTF_8)) {
+                assertEquals(nAccepted.get(), lines.count(), "every accepted record written");
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    void asynchronousRotation()
+            throws IOException {
+        final Path directory = Files.createTempDirectory("asyncWriter");
+        final Path path = directory.resolve("rotated.log");
+        final SynchronizedWriter instance = SynchronizedWriter.openAsynchronous(path.toString(), false, "rotationTest", 1 << 10, 1L, WriterDurability.FSYNC, 100L, 0L, true);
+        try {
+            assertNotNull(instance, "opened");
+            final StringBuilder expected = new StringBuilder(1_000);
+            for (int i = 0; i < 20; i++) {
+                final String record = "rotated record " + i + '\n';
+                instance.writeAndFlush(record);
+                expected.append(record);
+                Generic.threadSleep(5L); // commits and rotations between the records
+            }
+            instance.close();
+
+            final List<Path> compressedFiles;
+            try (final Stream<Path> files = Files.list(directory)) {
+                compressedFiles = files.filter(file -> file.getFileName().toString().endsWith(".gz")).sorted().toList();
+            }
+            assertFalse(compressedFiles.isEmpty(), "rotated");
+            final StringBuilder content = new StringBuilder(1_000);
+            for (final Path compressedFile : compressedFiles) {
+                try (final InputStream inputStream = new GZIPInputStream(Files.newInputStream(compressedFile))) {
+                    content.append(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            content.append(Files.readString(path, StandardCharsets.UTF_8));
+            assertEquals(expected.toString(), content.toString(), "nothing lost");
+        } finally {
+            try (final Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.delete(directory);
+        }
+    }
 }
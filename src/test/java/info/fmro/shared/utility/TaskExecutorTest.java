@@ -0,0 +1,76 @@
+package info.fmro.shared.utility;
+
+import info.fmro.shared.enums.TaskClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskExecutorTest {
+    @Test
+    void boundedConcurrencyAndMetrics()
+            throws InterruptedException {
+        final ExecutorService executorService = Executors.newCachedThreadPool();
+        final TaskExecutor taskExecutor = new TaskExecutor(executorService);
+        taskExecutor.setMaxConcurrency(TaskClass.MANAGE, 2);
+        final AtomicInteger running = new AtomicInteger(), maxRunning = new AtomicInteger();
+        final CountDownLatch countDownLatch = new CountDownLatch(6);
+        for (int i = 0; i < 6; i++) {
+            taskExecutor.execute(TaskClass.MANAGE, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Generic.threadSleep(20L);
+                running.decrementAndGet();
+                countDownLatch.countDown();
+            });
+        }
+        assertTrue(countDownLatch.await(10L, TimeUnit.SECONDS), "all run");
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10L, TimeUnit.SECONDS), "terminated");
+
+        assertEquals(2, maxRunning.get(), "bounded");
+        final TaskExecutor.TaskStats stats = taskExecutor.getStats(TaskClass.MANAGE);
+        assertEquals(6L, stats.nSubmitted(), "submitted");
+        assertEquals(6L, stats.nCompleted(), "completed");
+        assertEquals(0, stats.nRunning(), "none running");
+        assertTrue(stats.maxQueueMillis() >= 20d, "later tasks waited for a permit");
+        assertTrue(stats.averageRunMillis() >= 20d, "run time");
+        assertEquals(0L, taskExecutor.getStats(TaskClass.PLACE).nSubmitted(), "other classes untouched");
+
+        assertEquals(Runtime.version().feature() >= 21, taskExecutor.useVirtualThreads(), "virtual threads only on 21+");
+    }
+
+    @Test
+    void waitingTasksDontHoldThreads()
+            throws InterruptedException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final TaskExecutor taskExecutor = new TaskExecutor(executorService);
+        taskExecutor.setMaxConcurrency(TaskClass.MANAGE, 1);
+        final CountDownLatch manageStarted = new CountDownLatch(1), manageRelease = new CountDownLatch(1), placeDone = new CountDownLatch(1), manageDone = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            taskExecutor.execute(TaskClass.MANAGE, () -> {
+                manageStarted.countDown();
+                try {
+                    manageRelease.await(10L, TimeUnit.SECONDS);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                manageDone.countDown();
+            });
+        }
+        taskExecutor.execute(TaskClass.PLACE, placeDone::countDown);
+        assertTrue(placeDone.await(5L, TimeUnit.SECONDS), "place not starved by queued manage tasks");
+        assertTrue(manageStarted.await(5L, TimeUnit.SECONDS), "manage started");
+        assertEquals(1, taskExecutor.getStats(TaskClass.MANAGE).nRunning(), "single manage running");
+
+        manageRelease.countDown();
+        assertTrue(manageDone.await(10L, TimeUnit.SECONDS), "queued manage tasks run after the permit is released");
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10L, TimeUnit.SECONDS), "terminated");
+    }
+}